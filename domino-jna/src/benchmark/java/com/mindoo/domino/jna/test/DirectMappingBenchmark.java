@@ -0,0 +1,100 @@
+package com.mindoo.domino.jna.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+/**
+ * JMH benchmark that compares the per-call overhead of JNA interface mapping (used for
+ * the NotesCAPI interface) with JNA direct mapping (used by DirectMappedNotesCAPI).<br>
+ * <br>
+ * The functions are called in the C runtime library as stub library (see {@link StubCAPI}),
+ * loaded with the same options as the Notes library, so no Notes installation is required.
+ * The benchmark is not a unit test and is only compiled with the Maven profile "benchmark",
+ * because JMH requires Java 7. Run it on demand, e.g. by launching the {@link #main(String[])}
+ * method from the IDE (JMH needs the test classpath in the java.class.path system property
+ * to fork the benchmark JVM).
+ *
+ * @author Karsten Lehmann
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DirectMappingBenchmark {
+
+	private StubCAPI.InterfaceMapped m_api;
+	private Memory m_str;
+	private Memory m_src;
+	private Memory m_dest;
+	private int m_value;
+
+	@Setup
+	public void setup() {
+		m_api = StubCAPI.loadInterfaceMapped();
+		StubCAPI.registerDirectMapped();
+
+		m_str = new Memory(16);
+		m_str.setString(0, "domino-jna");
+		m_src = new Memory(256);
+		m_src.clear();
+		m_dest = new Memory(256);
+		m_value = -12345;
+	}
+
+	@Benchmark
+	public int intArgs_interfaceMapping() {
+		return m_api.b64_abs(m_value);
+	}
+
+	@Benchmark
+	public int intArgs_directMapping() {
+		return StubCAPI.DirectMapped.b64_abs(m_value);
+	}
+
+	@Benchmark
+	public Pointer pointerArgs_interfaceMapping() {
+		return m_api.b64_strchr(m_str, '-');
+	}
+
+	@Benchmark
+	public Pointer pointerArgs_directMapping() {
+		return StubCAPI.DirectMapped.b64_strchr(m_str, '-');
+	}
+
+	@Benchmark
+	public Pointer memoryCopy_interfaceMapping() {
+		return m_api.b64_memcpy(m_dest, m_src, m_src.size());
+	}
+
+	@Benchmark
+	public Pointer memoryCopy_directMapping() {
+		return StubCAPI.DirectMapped.b64_memcpy(m_dest, m_src, m_src.size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(DirectMappingBenchmark.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
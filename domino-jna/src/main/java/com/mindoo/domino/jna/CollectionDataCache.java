@@ -1,94 +1,156 @@
 package com.mindoo.domino.jna;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import com.mindoo.domino.jna.CollectionDataCacheSnapshot.SnapshotData;
 import com.mindoo.domino.jna.NotesCollection.ViewLookupCallback;
 import com.mindoo.domino.jna.NotesViewEntryData.CacheableViewEntryData;
 import com.mindoo.domino.jna.constants.ReadMask;
 
 /**
- * LRU cache class to be returned in {@link ViewLookupCallback#createDataCache()} in order to let NIF
+ * Cache class to be returned in {@link ViewLookupCallback#createDataCache()} in order to let NIF
  * improve lookup performance by skipping already known collection data.<br>
  * <br>
+ * The cache is designed to be shared by many threads reading the same view: entries are stored in a
+ * {@link ConcurrentHashMap}, so reading threads never block. The diff time, read mask and entries
+ * belong to a cache generation that is replaced atomically when the diff time or read mask changes,
+ * so {@link #getCacheState()} always returns consistent data without a global lock.<br>
+ * <br>
+ * The cache can be limited by number of entries and by the estimated heap size of the entries
+ * (computed from the column value sizes). When a limit is exceeded, one thread evicts entries until the
+ * cache is within its limits again. For each eviction, it samples a few entries and removes the one with
+ * the lowest access frequency (least recently used first among those), so the eviction cost does not
+ * depend on the cache size. After 10% of the entries have been evicted, all access frequencies are halved
+ * so that old popularity fades out; this is done lazily when an entry is accessed or sampled.<br>
+ * <br>
+ * The cache content can be written to a snapshot file and loaded after a restart, either manually via
+ * {@link #writeSnapshot(NotesCollection, File)} / {@link #loadSnapshot(NotesCollection, File)} or
+ * automatically after adding entries (see {@link #setSnapshotFile(File, long)}).<br>
+ * <br>
  * Please note that according to IBM dev, this optimized view reading (differential view reads) does
  * only work in views that are not permuted (where documents do not appear multiple times, because
  * "Show multiple values as separate entries" has been set on any view column).
- * 
+ *
  * @author Karsten Lehmann
  */
 public class CollectionDataCache implements Serializable {
-	private static final long serialVersionUID = 522152090817358117L;
-	
+	private static final long serialVersionUID = 522152090817358118L;
+	private static final Logger m_logger = Logger.getLogger(CollectionDataCache.class.getName());
+	private static ExecutorService m_snapshotExecutor;
+	/** number of entries compared to find an entry to evict */
+	private static final int EVICTION_SAMPLE_SIZE = 16;
+
 	private int m_maxSize;
-	private Map<Integer,CacheableViewEntryData> m_cacheEntries;
-	private NotesTimeDate m_diffTime;
-	private ReentrantReadWriteLock m_rwLock = new ReentrantReadWriteLock();
-	private EnumSet<ReadMask> m_readMask;
+	private long m_maxSizeInBytes;
+	private AtomicReference<Generation> m_generation;
+	private AtomicLong m_accessCounter = new AtomicLong();
+	private AtomicLong m_evictionCount = new AtomicLong();
+	private ReentrantLock m_evictionLock = new ReentrantLock();
+	private volatile int m_agingEpoch;
+	private int m_evictionsSinceAging;
+	private ReentrantLock m_snapshotLock = new ReentrantLock();
+	private AtomicBoolean m_snapshotWritePending = new AtomicBoolean();
+	private volatile File m_snapshotFile;
+	private volatile long m_snapshotInterval;
+	private volatile long m_lastSnapshotWrite;
 	private static ThreadLocal<Long> m_cacheUseCounter = new ThreadLocal<Long>();
-	
+
 	/**
 	 * Creates a new instance of an unbounded cache
 	 */
 	public CollectionDataCache() {
 		this(Integer.MAX_VALUE);
 	}
-	
+
 	/**
 	 * Creates a new instance
-	 * 
-	 * @param maxSize maximum number of entries in the LRU cache
+	 *
+	 * @param maxSize maximum number of entries in the cache
 	 */
 	public CollectionDataCache(final int maxSize) {
+		this(maxSize, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new instance
+	 *
+	 * @param maxSize maximum number of entries in the cache
+	 * @param maxSizeInBytes maximum estimated heap size of the cache entries in bytes
+	 */
+	public CollectionDataCache(int maxSize, long maxSizeInBytes) {
 		if (maxSize <= 0)
 			throw new IllegalArgumentException("Max size must be greater than 0: "+maxSize);
-		
+		if (maxSizeInBytes <= 0)
+			throw new IllegalArgumentException("Max size in bytes must be greater than 0: "+maxSizeInBytes);
+
 		m_maxSize = maxSize;
-		
-		//set up LRU cache map
-		m_cacheEntries = Collections.synchronizedMap(new LinkedHashMap<Integer, CacheableViewEntryData>(16, 0.75f, true) {
-			@Override
-			protected boolean removeEldestEntry(java.util.Map.Entry<Integer, CacheableViewEntryData> eldest) {
-				if (size() > maxSize) {
-					return true;
-				}
-				else {
-					return false;
-				}
-			}
-		});
+		m_maxSizeInBytes = maxSizeInBytes;
+		m_generation = new AtomicReference<Generation>(new Generation(null, null));
 	}
-	
+
 	/**
 	 * Returns the maximum number of entries in the cache
-	 * 
+	 *
 	 * @return maximum number
 	 */
 	public int getMaxCacheSize() {
 		return m_maxSize;
 	}
-	
+
+	/**
+	 * Returns the maximum estimated heap size of the cache entries
+	 *
+	 * @return size in bytes
+	 */
+	public long getMaxCacheSizeInBytes() {
+		return m_maxSizeInBytes;
+	}
+
 	/**
 	 * Returns the current number of entries in the cache
-	 * 
+	 *
 	 * @return size
 	 */
 	public int size() {
-		m_rwLock.readLock().lock();
-		try {
-			return m_cacheEntries.size();
-		}
-		finally {
-			m_rwLock.readLock().unlock();
-		}
+		return m_generation.get().m_entries.size();
+	}
+
+	/**
+	 * Returns the estimated heap size of the current cache entries
+	 *
+	 * @return size in bytes
+	 */
+	public long getCacheSizeInBytes() {
+		return m_generation.get().m_sizeInBytes.get();
+	}
+
+	/**
+	 * Returns the number of entries that have been removed because a size limit was reached
+	 *
+	 * @return evictions
+	 */
+	public long getEvictionCount() {
+		return m_evictionCount.get();
 	}
-	
+
 	/**
 	 * Enables taking cache usage stats for the current thread
 	 */
@@ -105,20 +167,20 @@ public class CollectionDataCache implements Serializable {
 	public void disableUsageStats() {
 		m_cacheUseCounter.set(null);
 	}
-	
+
 	/**
 	 * Method to check whether taking cache usage stats for the
 	 * current thread is enabled
-	 * 
+	 *
 	 * @return true if enabled
 	 */
 	public boolean isUsageStatsEnabled() {
 		return m_cacheUseCounter.get() != null;
 	}
-	
+
 	/**
 	 * Returns a statistic value with the number of view entries where we could use the cache data
-	 * 
+	 *
 	 * @return count or -1 if logging stats are not enabled
 	 */
 	public long getCacheUsageStats() {
@@ -128,7 +190,7 @@ public class CollectionDataCache implements Serializable {
 		}
 		return -1;
 	}
-	
+
 	/**
 	 * Sets the cache usage stats to 0
 	 */
@@ -138,59 +200,316 @@ public class CollectionDataCache implements Serializable {
 			m_cacheUseCounter.set(Long.valueOf(0));
 		}
 	}
-	
+
 	/**
 	 * Removes all data from the cache
 	 */
 	public void flush() {
-		m_rwLock.writeLock().lock();
+		m_generation.set(new Generation(null, null));
+	}
+
+	/**
+	 * Sets a file to automatically write the cache content to after adding entries. The reading thread
+	 * only copies the entry references, the file is written in a shared background thread, at most once
+	 * per interval. No new write is started while the previous one is still running.
+	 *
+	 * @param file snapshot file or null to disable automatic writes
+	 * @param writeIntervalMillis minimum time between two writes in milliseconds
+	 */
+	public void setSnapshotFile(File file, long writeIntervalMillis) {
+		m_snapshotInterval = writeIntervalMillis;
+		m_snapshotFile = file;
+	}
+
+	/**
+	 * Returns the file to automatically write the cache content to
+	 *
+	 * @return file or null if not set
+	 */
+	public File getSnapshotFile() {
+		return m_snapshotFile;
+	}
+
+	/**
+	 * Writes the current cache content to a file
+	 *
+	 * @param col collection the cache data has been read from
+	 * @param file target file
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeSnapshot(NotesCollection col, File file) throws IOException {
+		Generation gen = m_generation.get();
+		if (gen.m_diffTime==null) {
+			//nothing read yet
+			return;
+		}
+
+		List<CacheableViewEntryData> entries = new ArrayList<CacheableViewEntryData>(gen.m_entries.size());
+		for (Node currNode : gen.m_entries.values()) {
+			entries.add(currNode.m_data);
+		}
+
+		m_snapshotLock.lock();
 		try {
-			m_diffTime = null;
-			m_readMask = null;
-			m_cacheEntries.clear();
+			CollectionDataCacheSnapshot.write(col, file, gen.m_readMask, gen.m_diffTime, entries);
 		}
 		finally {
-			m_rwLock.writeLock().unlock();
+			m_snapshotLock.unlock();
 		}
 	}
-	
+
+	/**
+	 * Replaces the cache content with the data of a snapshot file. The file is only used if it
+	 * has been written for the same view and the view index has not been rebuilt since then.
+	 * View changes after writing the snapshot are detected on the next differential view read.
+	 *
+	 * @param col collection to check the snapshot against
+	 * @param file snapshot file
+	 * @return true if the snapshot has been loaded
+	 * @throws IOException in case of I/O errors or if the file is corrupt
+	 */
+	public boolean loadSnapshot(NotesCollection col, File file) throws IOException {
+		SnapshotData data = CollectionDataCacheSnapshot.read(col, file);
+		if (data==null) {
+			return false;
+		}
+
+		Generation gen = new Generation(data.getReadMask(), data.getDiffTime());
+		for (CacheableViewEntryData currData : data.getEntries()) {
+			if (currData.getNoteId()==null) {
+				continue;
+			}
+			Node node = new Node(currData, m_accessCounter.incrementAndGet(), m_agingEpoch);
+			gen.m_entries.put(currData.getNoteId(), node);
+			gen.m_sizeInBytes.addAndGet(node.m_sizeInBytes);
+		}
+		m_generation.set(gen);
+		evictIfRequired(gen);
+		return true;
+	}
+
+	/**
+	 * Returns the shared executor to write snapshot files in the background
+	 *
+	 * @return executor
+	 */
+	private static synchronized ExecutorService getSnapshotExecutor() {
+		if (m_snapshotExecutor==null) {
+			m_snapshotExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Domino JNA collection cache snapshot writer");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return m_snapshotExecutor;
+	}
+
+	/**
+	 * Writes the snapshot file in the background if one is set and the write interval has elapsed
+	 *
+	 * @param col collection the cache data has been read from
+	 */
+	private void writeSnapshotIfDue(NotesCollection col) {
+		final File file = m_snapshotFile;
+		if (file==null || col==null) {
+			return;
+		}
+		if ((System.currentTimeMillis() - m_lastSnapshotWrite) < m_snapshotInterval) {
+			return;
+		}
+		final Generation gen = m_generation.get();
+		if (gen.m_diffTime==null) {
+			//nothing read yet
+			return;
+		}
+		if (!m_snapshotWritePending.compareAndSet(false, true)) {
+			return;
+		}
+		m_lastSnapshotWrite = System.currentTimeMillis();
+
+		final String replicaId;
+		final String viewUNID;
+		final int[] lastModifiedInnards;
+		final List<CacheableViewEntryData> entries;
+		try {
+			//C API calls need to be done in the reading thread
+			replicaId = col.getParent().getReplicaID();
+			viewUNID = col.getUNID();
+			lastModifiedInnards = col.getLastModifiedTime().getInnards();
+
+			entries = new ArrayList<CacheableViewEntryData>(gen.m_entries.size());
+			for (Node currNode : gen.m_entries.values()) {
+				entries.add(currNode.m_data);
+			}
+		}
+		catch (RuntimeException e) {
+			m_snapshotWritePending.set(false);
+			throw e;
+		}
+
+		getSnapshotExecutor().execute(new Runnable() {
+
+			@Override
+			public void run() {
+				m_snapshotLock.lock();
+				try {
+					CollectionDataCacheSnapshot.write(replicaId, viewUNID, lastModifiedInnards, file,
+							gen.m_readMask, gen.m_diffTime, entries);
+				}
+				catch (Throwable e) {
+					//the cache is still valid in memory, so we do not fail the view read
+					m_logger.log(Level.WARNING, "Could not write collection data cache snapshot to "+file.getAbsolutePath(), e);
+				}
+				finally {
+					m_lastSnapshotWrite = System.currentTimeMillis();
+					m_snapshotLock.unlock();
+					m_snapshotWritePending.set(false);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Method to fill the cache with data read from the collection
-	 * 
+	 *
+	 * @param col collection the data has been read from
+	 * @param readMask read mask used for the read operation
 	 * @param diffTime diff time returned from the read operation
 	 * @param entries collection entries read
 	 */
-	void addCacheValues(EnumSet<ReadMask> readMask, NotesTimeDate diffTime, List<NotesViewEntryData> entries) {
-		m_rwLock.writeLock().lock();
-		try {
-			boolean flush = false;
-			
-			if (m_diffTime!=null && !m_diffTime.equals(diffTime)) {
-				flush = true;
+	void addCacheValues(NotesCollection col, EnumSet<ReadMask> readMask, NotesTimeDate diffTime, List<NotesViewEntryData> entries) {
+		Generation gen;
+		while (true) {
+			gen = m_generation.get();
+
+			boolean sameDiffTime = gen.m_diffTime==null ? diffTime==null : gen.m_diffTime.equals(diffTime);
+			boolean sameReadMask = gen.m_readMask==null ? readMask==null : gen.m_readMask.equals(readMask);
+			if (sameDiffTime && sameReadMask) {
+				//entries belong to the current generation
+				break;
 			}
-			else if (m_readMask!=null && !m_readMask.equals(readMask)) {
-				flush = true;
+			//we only flush if there is anything to throw away
+			boolean flush = !gen.m_entries.isEmpty();
+
+			//start a new generation; readers still using the old one are not affected
+			Generation newGen = new Generation(readMask, diffTime);
+			if (m_generation.compareAndSet(gen, newGen)) {
+				if (flush) {
+					cacheFlushed();
+				}
+				gen = newGen;
+				break;
 			}
-			if (flush) {
-				m_cacheEntries.clear();
-				cacheFlushed();
+		}
+
+		for (NotesViewEntryData currEntry : entries) {
+			if (currEntry.hasAnyColumnValues()) {
+				CacheableViewEntryData cacheableData = currEntry.getCacheableData();
+				Node node = new Node(cacheableData, m_accessCounter.incrementAndGet(), m_agingEpoch);
+				Node oldNode = gen.m_entries.put(currEntry.getNoteId(), node);
+
+				long sizeDiff = node.m_sizeInBytes - (oldNode==null ? 0 : oldNode.m_sizeInBytes);
+				gen.m_sizeInBytes.addAndGet(sizeDiff);
+
+				if (oldNode!=null) {
+					//keep the popularity of the entry
+					node.m_frequency = oldNode.getFrequency(node.m_agingEpoch);
+				}
 			}
-			
-			m_readMask = readMask;
-			m_diffTime = diffTime;
-			
-			for (NotesViewEntryData currEntry : entries) {
-				if (currEntry.hasAnyColumnValues()) {
-					CacheableViewEntryData cacheableData = currEntry.getCacheableData();
-					m_cacheEntries.put(currEntry.getNoteId(), cacheableData);
+		}
+
+		evictIfRequired(gen);
+		writeSnapshotIfDue(col);
+	}
+
+	private boolean isOverLimit(Generation gen) {
+		return gen.m_entries.size() > m_maxSize || gen.m_sizeInBytes.get() > m_maxSizeInBytes;
+	}
+
+	/**
+	 * Removes rarely used entries if the cache is over its limits. Only one thread
+	 * evicts at a time, other threads do not wait for it.
+	 *
+	 * @param gen cache generation
+	 */
+	private void evictIfRequired(Generation gen) {
+		if (!isOverLimit(gen)) {
+			return;
+		}
+		if (!m_evictionLock.tryLock()) {
+			return;
+		}
+
+		try {
+			while (isOverLimit(gen)) {
+				int epoch = m_agingEpoch;
+				Map.Entry<Integer,Node> candidate = sampleEvictionCandidate(gen, epoch);
+				if (candidate==null) {
+					break;
+				}
+				Node node = candidate.getValue();
+				if (!gen.m_entries.remove(candidate.getKey(), node)) {
+					//replaced or removed in the meantime
+					continue;
+				}
+				gen.m_sizeInBytes.addAndGet(-node.m_sizeInBytes);
+				m_evictionCount.incrementAndGet();
+
+				//age the access frequencies after 10% of the entries have been replaced
+				m_evictionsSinceAging++;
+				if (m_evictionsSinceAging >= Math.max(1, gen.m_entries.size() / 10)) {
+					m_evictionsSinceAging = 0;
+					m_agingEpoch = epoch + 1;
 				}
 			}
 		}
 		finally {
-			m_rwLock.writeLock().unlock();
+			m_evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Compares the next {@link #EVICTION_SAMPLE_SIZE} entries of the generation (continuing where
+	 * the last eviction stopped) and returns the one with the lowest access frequency, least recently
+	 * used first among those. Must be called with the eviction lock held.
+	 *
+	 * @param gen cache generation
+	 * @param epoch current aging epoch
+	 * @return entry to evict or null if the generation is empty
+	 */
+	private Map.Entry<Integer,Node> sampleEvictionCandidate(Generation gen, int epoch) {
+		int sampleSize = Math.min(EVICTION_SAMPLE_SIZE, gen.m_entries.size());
+		Map.Entry<Integer,Node> candidate = null;
+		int candidateFrequency = 0;
+		boolean restarted = false;
+
+		for (int i=0; i<sampleSize; ) {
+			if (gen.m_evictionCursor==null || !gen.m_evictionCursor.hasNext()) {
+				if (restarted) {
+					//entries have been removed in the meantime
+					break;
+				}
+				gen.m_evictionCursor = gen.m_entries.entrySet().iterator();
+				restarted = true;
+				continue;
+			}
+
+			Map.Entry<Integer,Node> currEntry = gen.m_evictionCursor.next();
+			i++;
+			int currFrequency = currEntry.getValue().getFrequency(epoch);
+			if (candidate==null || currFrequency < candidateFrequency ||
+					(currFrequency==candidateFrequency && currEntry.getValue().m_lastAccess < candidate.getValue().m_lastAccess)) {
+				candidate = currEntry;
+				candidateFrequency = currFrequency;
+			}
 		}
+		return candidate;
 	}
-	
+
 	/**
 	 * Called when the cache needed to be flushed because of view index changes.
 	 * Method is empty by default, can be overriden, e.g. to write a log entry.
@@ -198,15 +517,24 @@ public class CollectionDataCache implements Serializable {
 	protected void cacheFlushed() {
 		//
 	}
-	
+
 	/**
 	 * For every {@link NotesViewEntryData} in the specified list, this method checks whether
 	 * NIF returned any column data. If not, the entry was skipped by NIF, because it already exists
-	 * in the cache. We can then copy the data of our current cache object.
-	 * 
+	 * in the cache. We can then copy the data from the cache state that was used to build the
+	 * diff ID table of the read operation. The current cache content cannot be used, because
+	 * other threads may have started a new generation or evicted entries in the meantime.
+	 *
+	 * @param cacheState cache state used for the differential view read or null if no diff ID table has been used
 	 * @param entries entries to scan
+	 * @return false if an entry without column values was not found in the cache state, in that case the data needs to be read again without diff time
 	 */
-	void populateEntryStubsWithData(List<NotesViewEntryData> entries) {
+	boolean populateEntryStubsWithData(CacheState cacheState, List<NotesViewEntryData> entries) {
+		if (cacheState==null) {
+			//NIF did not skip any entries
+			return true;
+		}
+
 		boolean hasAnyMissingData = false;
 		for (NotesViewEntryData currEntry : entries) {
 			if (!currEntry.hasAnyColumnValues()) {
@@ -214,80 +542,150 @@ public class CollectionDataCache implements Serializable {
 				break;
 			}
 		}
-		
+		if (!hasAnyMissingData) {
+			return true;
+		}
+
 		Long usageStats = m_cacheUseCounter.get();
 		long usageStatsPrim = usageStats==null ? -1 : usageStats.longValue();
-		
-		if (hasAnyMissingData) {
-			m_rwLock.readLock().lock();
-			try {
-				for (NotesViewEntryData currEntry : entries) {
-					if (!currEntry.hasAnyColumnValues()) {
-						CacheableViewEntryData cacheData = m_cacheEntries.get(currEntry.getNoteId());
-						if (cacheData!=null) {
-							//updating data of stub entry from cache
-							currEntry.updateFromCache(cacheData);
-							
-							if (usageStatsPrim!=-1) {
-								usageStatsPrim++;
-							}
-						}
-					}
+
+		Map<Integer,CacheableViewEntryData> stateEntries = cacheState.getCacheEntries();
+		Map<Integer,Node> currentEntries = m_generation.get().m_entries;
+		boolean allPopulated = true;
+
+		for (NotesViewEntryData currEntry : entries) {
+			if (!currEntry.hasAnyColumnValues()) {
+				CacheableViewEntryData data = stateEntries.get(currEntry.getNoteId());
+				if (data==null) {
+					allPopulated = false;
+					continue;
+				}
+
+				//updating data of stub entry from cache
+				currEntry.updateFromCache(data);
+
+				Node node = currentEntries.get(currEntry.getNoteId());
+				if (node!=null) {
+					node.recordAccess(m_accessCounter.incrementAndGet(), m_agingEpoch);
 				}
-				
+
 				if (usageStatsPrim!=-1) {
-					m_cacheUseCounter.set(usageStatsPrim);
+					usageStatsPrim++;
 				}
 			}
-			finally {
-				m_rwLock.readLock().unlock();
-			}
 		}
+
+		if (usageStatsPrim!=-1) {
+			m_cacheUseCounter.set(usageStatsPrim);
+		}
+		return allPopulated;
 	}
-	
+
 	/**
 	 * Copies the current state of the cache
-	 * 
+	 *
 	 * @return state
 	 */
 	CacheState getCacheState() {
-		m_rwLock.readLock().lock();
-		try {
-			return new CacheState(m_readMask, m_diffTime, new HashMap<Integer, NotesViewEntryData.CacheableViewEntryData>(m_cacheEntries));
+		Generation gen = m_generation.get();
+		Map<Integer,CacheableViewEntryData> entries = new HashMap<Integer, CacheableViewEntryData>(gen.m_entries.size());
+		for (Map.Entry<Integer,Node> currEntry : gen.m_entries.entrySet()) {
+			entries.put(currEntry.getKey(), currEntry.getValue().m_data);
 		}
-		finally {
-			m_rwLock.readLock().unlock();
+		return new CacheState(gen.m_readMask, gen.m_diffTime, entries);
+	}
+
+	/**
+	 * Cache entries for one diff time and read mask
+	 */
+	private static class Generation implements Serializable {
+		private static final long serialVersionUID = -8427095010834447791L;
+
+		private final EnumSet<ReadMask> m_readMask;
+		private final NotesTimeDate m_diffTime;
+		private final ConcurrentHashMap<Integer,Node> m_entries;
+		private final AtomicLong m_sizeInBytes;
+		/** position of the eviction sampling, only used with the eviction lock held */
+		private transient Iterator<Map.Entry<Integer,Node>> m_evictionCursor;
+
+		public Generation(EnumSet<ReadMask> readMask, NotesTimeDate diffTime) {
+			m_readMask = readMask;
+			m_diffTime = diffTime;
+			m_entries = new ConcurrentHashMap<Integer, Node>();
+			m_sizeInBytes = new AtomicLong();
+		}
+	}
+
+	/**
+	 * Cache entry with access statistics
+	 */
+	private static class Node implements Serializable {
+		private static final long serialVersionUID = 4227409442453683716L;
+
+		private final CacheableViewEntryData m_data;
+		private final int m_sizeInBytes;
+		private volatile int m_frequency;
+		private volatile int m_agingEpoch;
+		private volatile long m_lastAccess;
+
+		public Node(CacheableViewEntryData data, long accessCounter, int agingEpoch) {
+			m_data = data;
+			m_sizeInBytes = data.estimateSizeInBytes();
+			m_lastAccess = accessCounter;
+			m_agingEpoch = agingEpoch;
+		}
+
+		/**
+		 * Returns the access frequency, halved for every aging since the last access
+		 *
+		 * @param agingEpoch current aging epoch of the cache
+		 * @return frequency
+		 */
+		public int getFrequency(int agingEpoch) {
+			int age = agingEpoch - m_agingEpoch;
+			return age >= 8 ? 0 : m_frequency >>> age;
+		}
+
+		public void recordAccess(long accessCounter, int agingEpoch) {
+			//racy update is fine, we only need an approximate frequency
+			int freq = getFrequency(agingEpoch);
+			if (freq < 255) {
+				freq++;
+			}
+			m_frequency = freq;
+			m_agingEpoch = agingEpoch;
+			m_lastAccess = accessCounter;
 		}
 	}
-	
+
 	/**
 	 * Data object with cache state values
-	 * 
+	 *
 	 * @author Karsten Lehmann
 	 */
 	static class CacheState {
 		private NotesTimeDate m_diffTime;
 		private Map<Integer,CacheableViewEntryData> m_cacheEntries;
 		private EnumSet<ReadMask> m_readMask;
-		
+
 		private CacheState(EnumSet<ReadMask> readMask, NotesTimeDate diffTime, Map<Integer,CacheableViewEntryData> cacheEntries) {
 			m_readMask = readMask;
 			m_diffTime = diffTime;
 			m_cacheEntries = cacheEntries;
 		}
-		
+
 		public EnumSet<ReadMask> getReadMask() {
 			return m_readMask;
 		}
-		
+
 		public NotesTimeDate getDiffTime() {
 			return m_diffTime;
 		}
-		
+
 		public Map<Integer,CacheableViewEntryData> getCacheEntries() {
 			return m_cacheEntries;
 		}
 	}
-	
+
 
 }
@@ -0,0 +1,496 @@
+package com.mindoo.domino.jna;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.mindoo.domino.jna.NotesViewEntryData.CacheableViewEntryData;
+import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.internal.MappedFileUtils;
+import com.mindoo.domino.jna.utils.LMBCSString;
+import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
+
+/**
+ * Binary file format to persist the content of a {@link CollectionDataCache} across
+ * JVM restarts.<br>
+ * <br>
+ * The file starts with a header containing the database replica id, the view UNID and the
+ * view's last modified time at the time of writing, followed by the read mask, the diff time
+ * and the cache entries. Snapshots are read via a memory mapped file; they are written
+ * to a temporary file that replaces the snapshot file when complete, so readers never see
+ * partially written data.
+ *
+ * @author Karsten Lehmann
+ */
+class CollectionDataCacheSnapshot {
+	private static final int MAGIC = 0x444A4344; // "DJCD"
+	private static final int VERSION = 1;
+	private static final int END_MARKER = 0x454E4444; // "ENDD"
+
+	private static final byte TYPE_NULL = 0;
+	private static final byte TYPE_STRING = 1;
+	private static final byte TYPE_LMBCSSTRING = 2;
+	private static final byte TYPE_NUMBER = 3;
+	private static final byte TYPE_CALENDAR = 4;
+	private static final byte TYPE_LIST = 5;
+	private static final byte TYPE_NUMBER_RANGE = 6;
+	private static final byte TYPE_CALENDAR_RANGE = 7;
+	private static final byte TYPE_TIMEDATE_MILLIS = 8;
+	private static final byte TYPE_TIMEDATE_MILLIS_RANGE = 9;
+
+	private static final byte CAL_HASDATE = 0x01;
+	private static final byte CAL_HASTIME = 0x02;
+
+	/**
+	 * Content of a snapshot file
+	 */
+	static class SnapshotData {
+		private EnumSet<ReadMask> m_readMask;
+		private NotesTimeDate m_diffTime;
+		private List<CacheableViewEntryData> m_entries;
+
+		public SnapshotData(EnumSet<ReadMask> readMask, NotesTimeDate diffTime, List<CacheableViewEntryData> entries) {
+			m_readMask = readMask;
+			m_diffTime = diffTime;
+			m_entries = entries;
+		}
+
+		public EnumSet<ReadMask> getReadMask() {
+			return m_readMask;
+		}
+
+		public NotesTimeDate getDiffTime() {
+			return m_diffTime;
+		}
+
+		public List<CacheableViewEntryData> getEntries() {
+			return m_entries;
+		}
+	}
+
+	/**
+	 * Writes a snapshot file
+	 *
+	 * @param col collection the cache data has been read from
+	 * @param file target file
+	 * @param readMask read mask of the cache entries
+	 * @param diffTime diff time of the cache entries
+	 * @param entries cache entries
+	 * @throws IOException in case of I/O errors or unsupported column values
+	 */
+	public static void write(NotesCollection col, File file, EnumSet<ReadMask> readMask, NotesTimeDate diffTime,
+			Iterable<CacheableViewEntryData> entries) throws IOException {
+
+		String replicaId = col.getParent().getReplicaID();
+		String viewUNID = col.getUNID();
+		int[] lastModifiedInnards = col.getLastModifiedTime().getInnards();
+
+		write(replicaId, viewUNID, lastModifiedInnards, file, readMask, diffTime, entries);
+	}
+
+	/**
+	 * Writes a snapshot file. This method does not call the C API, so it can be used
+	 * in threads that have not been initialized for Notes.
+	 *
+	 * @param replicaId replica id of the database
+	 * @param viewUNID UNID of the view note
+	 * @param lastModifiedInnards innards of the last modified time of the view index
+	 * @param file target file
+	 * @param readMask read mask of the cache entries
+	 * @param diffTime diff time of the cache entries
+	 * @param entries cache entries
+	 * @throws IOException in case of I/O errors or unsupported column values
+	 */
+	public static void write(String replicaId, String viewUNID, int[] lastModifiedInnards, File file,
+			EnumSet<ReadMask> readMask, NotesTimeDate diffTime, Iterable<CacheableViewEntryData> entries) throws IOException {
+
+		File parentDir = file.getAbsoluteFile().getParentFile();
+		if (parentDir!=null && !parentDir.exists()) {
+			parentDir.mkdirs();
+		}
+		File tmpFile = new File(parentDir, file.getName()+".tmp");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 65536));
+		boolean written = false;
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, replicaId);
+			writeString(out, viewUNID);
+			out.writeInt(lastModifiedInnards[0]);
+			out.writeInt(lastModifiedInnards[1]);
+
+			out.writeInt(readMask.size());
+			for (ReadMask currMask : readMask) {
+				writeString(out, currMask.name());
+			}
+			int[] diffTimeInnards = diffTime.getInnards();
+			out.writeInt(diffTimeInnards[0]);
+			out.writeInt(diffTimeInnards[1]);
+
+			for (CacheableViewEntryData currEntry : entries) {
+				out.writeBoolean(true);
+				currEntry.writeTo(out);
+			}
+			out.writeBoolean(false);
+			out.writeInt(END_MARKER);
+			out.close();
+
+			MappedFileUtils.replaceFile(tmpFile, file);
+			written = true;
+		}
+		finally {
+			if (!written) {
+				try {
+					out.close();
+				}
+				catch (IOException e) {
+					//keep the original error
+				}
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Reads a snapshot file if it has been written for the specified collection and
+	 * the view index has not been rebuilt since then
+	 *
+	 * @param col collection
+	 * @param file snapshot file
+	 * @return data or null if the file does not exist or cannot be used for the collection
+	 * @throws IOException in case of I/O errors or if the file is corrupt
+	 */
+	public static SnapshotData read(NotesCollection col, File file) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+
+		MappedByteBuffer buf = MappedFileUtils.mapReadOnly(file);
+		try {
+			if (buf.getInt()!=MAGIC) {
+				throw new IOException("File is no collection data cache snapshot: "+file.getAbsolutePath());
+			}
+			int version = buf.getInt();
+			if (version!=VERSION) {
+				//written by another version
+				return null;
+			}
+
+			String replicaId = readString(buf);
+			String viewUNID = readString(buf);
+			int[] lastModifiedInnards = new int[] {buf.getInt(), buf.getInt()};
+
+			if (!replicaId.equals(col.getParent().getReplicaID()) || !viewUNID.equals(col.getUNID())) {
+				//snapshot of another view
+				return null;
+			}
+			int[] currLastModifiedInnards = col.getLastModifiedTime().getInnards();
+			if (currLastModifiedInnards[0] < lastModifiedInnards[0]) {
+				//the index modified sequence number is only increased, so the index has been
+				//rebuilt since the snapshot has been written and the diff time is not valid anymore
+				return null;
+			}
+
+			int readMaskSize = buf.getInt();
+			EnumSet<ReadMask> readMask = EnumSet.noneOf(ReadMask.class);
+			for (int i=0; i<readMaskSize; i++) {
+				String currName = readString(buf);
+				try {
+					readMask.add(ReadMask.valueOf(currName));
+				}
+				catch (IllegalArgumentException e) {
+					//unknown read mask value
+					return null;
+				}
+			}
+			NotesTimeDate diffTime = new NotesTimeDate(new int[] {buf.getInt(), buf.getInt()});
+
+			//instance used as outer object for the deserialized data
+			NotesViewEntryData outerEntry = new NotesViewEntryData(null);
+			List<CacheableViewEntryData> entries = new ArrayList<CacheableViewEntryData>();
+			while (buf.get()!=0) {
+				entries.add(NotesViewEntryData.readCacheableData(outerEntry, buf));
+			}
+			if (buf.getInt()!=END_MARKER) {
+				throw new IOException("Snapshot file is corrupt: "+file.getAbsolutePath());
+			}
+			return new SnapshotData(readMask, diffTime, entries);
+		}
+		catch (BufferUnderflowException e) {
+			throw new IOException("Snapshot file is truncated: "+file.getAbsolutePath());
+		}
+		finally {
+			MappedFileUtils.unmap(buf);
+		}
+	}
+
+	static void writeString(DataOutput out, String str) throws IOException {
+		byte[] data = str.getBytes("UTF-8");
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	static String readString(ByteBuffer buf) throws UnsupportedEncodingException {
+		byte[] data = new byte[buf.getInt()];
+		buf.get(data);
+		return new String(data, "UTF-8");
+	}
+
+	static void writeIntArray(DataOutput out, int[] arr) throws IOException {
+		out.writeInt(arr.length);
+		for (int currVal : arr) {
+			out.writeInt(currVal);
+		}
+	}
+
+	static int[] readIntArray(ByteBuffer buf) {
+		int[] arr = new int[buf.getInt()];
+		for (int i=0; i<arr.length; i++) {
+			arr[i] = buf.getInt();
+		}
+		return arr;
+	}
+
+	static void writeLongArray(DataOutput out, long[] arr) throws IOException {
+		out.writeInt(arr.length);
+		for (long currVal : arr) {
+			out.writeLong(currVal);
+		}
+	}
+
+	static long[] readLongArray(ByteBuffer buf) {
+		long[] arr = new long[buf.getInt()];
+		for (int i=0; i<arr.length; i++) {
+			arr[i] = buf.getLong();
+		}
+		return arr;
+	}
+
+	/**
+	 * Writes a column value
+	 *
+	 * @param out output
+	 * @param val value
+	 * @throws IOException in case of I/O errors or unsupported values
+	 */
+	static void writeValue(DataOutput out, Object val) throws IOException {
+		if (val==null) {
+			out.writeByte(TYPE_NULL);
+		}
+		else if (val instanceof String) {
+			out.writeByte(TYPE_STRING);
+			writeString(out, (String) val);
+		}
+		else if (val instanceof LMBCSString) {
+			//keep the LMBCS data so that the string is still converted lazily
+			byte[] data = ((LMBCSString)val).getData();
+			out.writeByte(TYPE_LMBCSSTRING);
+			out.writeInt(data.length);
+			out.write(data);
+		}
+		else if (val instanceof Long) {
+			//date/time decoded as milliseconds, see NotesDateTimeUtils.setDecodeTimeDatesAsMillis
+			out.writeByte(TYPE_TIMEDATE_MILLIS);
+			out.writeLong(((Long)val).longValue());
+		}
+		else if (val instanceof Number) {
+			out.writeByte(TYPE_NUMBER);
+			out.writeDouble(((Number)val).doubleValue());
+		}
+		else if (val instanceof Calendar) {
+			out.writeByte(TYPE_CALENDAR);
+			writeCalendar(out, (Calendar) val);
+		}
+		else if (val instanceof List) {
+			List<?> list = (List<?>) val;
+			out.writeByte(TYPE_LIST);
+			out.writeInt(list.size());
+			for (Object currVal : list) {
+				writeValue(out, currVal);
+			}
+		}
+		else if (val instanceof double[]) {
+			double[] range = (double[]) val;
+			out.writeByte(TYPE_NUMBER_RANGE);
+			out.writeInt(range.length);
+			for (double currVal : range) {
+				out.writeDouble(currVal);
+			}
+		}
+		else if (val instanceof long[]) {
+			long[] range = (long[]) val;
+			out.writeByte(TYPE_TIMEDATE_MILLIS_RANGE);
+			out.writeInt(range.length);
+			for (long currVal : range) {
+				out.writeLong(currVal);
+			}
+		}
+		else if (val instanceof Calendar[]) {
+			Calendar[] range = (Calendar[]) val;
+			out.writeByte(TYPE_CALENDAR_RANGE);
+			out.writeInt(range.length);
+			for (Calendar currVal : range) {
+				writeCalendar(out, currVal);
+			}
+		}
+		else {
+			throw new IOException("Unsupported value type: "+val.getClass().getName());
+		}
+	}
+
+	/**
+	 * Reads a column value
+	 *
+	 * @param buf buffer
+	 * @return value
+	 * @throws IOException if the data is corrupt
+	 */
+	static Object readValue(ByteBuffer buf) throws IOException {
+		byte type = buf.get();
+		switch (type) {
+		case TYPE_NULL:
+			return null;
+		case TYPE_STRING:
+			return readString(buf);
+		case TYPE_LMBCSSTRING:
+			byte[] data = new byte[buf.getInt()];
+			buf.get(data);
+			return new LMBCSString(data);
+		case TYPE_NUMBER:
+			return Double.valueOf(buf.getDouble());
+		case TYPE_CALENDAR:
+			return readCalendar(buf);
+		case TYPE_LIST:
+			int listSize = buf.getInt();
+			List<Object> list = new ArrayList<Object>(listSize);
+			for (int i=0; i<listSize; i++) {
+				list.add(readValue(buf));
+			}
+			return list;
+		case TYPE_NUMBER_RANGE:
+			double[] numRange = new double[buf.getInt()];
+			for (int i=0; i<numRange.length; i++) {
+				numRange[i] = buf.getDouble();
+			}
+			return numRange;
+		case TYPE_CALENDAR_RANGE:
+			Calendar[] calRange = new Calendar[buf.getInt()];
+			for (int i=0; i<calRange.length; i++) {
+				calRange[i] = readCalendar(buf);
+			}
+			return calRange;
+		case TYPE_TIMEDATE_MILLIS:
+			return Long.valueOf(buf.getLong());
+		case TYPE_TIMEDATE_MILLIS_RANGE:
+			long[] millisRange = new long[buf.getInt()];
+			for (int i=0; i<millisRange.length; i++) {
+				millisRange[i] = buf.getLong();
+			}
+			return millisRange;
+		default:
+			throw new IOException("Unknown value type in snapshot: "+type);
+		}
+	}
+
+	/**
+	 * Writes a map of summary values
+	 *
+	 * @param out output
+	 * @param map map
+	 * @throws IOException in case of I/O errors or unsupported values
+	 */
+	static void writeMap(DataOutput out, Map<String,Object> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<String,Object> currEntry : map.entrySet()) {
+			writeString(out, currEntry.getKey());
+			writeValue(out, currEntry.getValue());
+		}
+	}
+
+	/**
+	 * Reads a map of summary values
+	 *
+	 * @param buf buffer
+	 * @param map map to fill
+	 * @throws IOException if the data is corrupt
+	 */
+	static void readMap(ByteBuffer buf, Map<String,Object> map) throws IOException {
+		int size = buf.getInt();
+		for (int i=0; i<size; i++) {
+			String key = readString(buf);
+			map.put(key, readValue(buf));
+		}
+	}
+
+	private static void writeCalendar(DataOutput out, Calendar origCal) throws IOException {
+		//Calendar.get() computes and sets all fields, so we work on a copy
+		Calendar cal = (Calendar) origCal.clone();
+		boolean hasDate = NotesDateTimeUtils.hasDate(cal);
+		boolean hasTime = NotesDateTimeUtils.hasTime(cal);
+
+		out.writeByte((hasDate ? CAL_HASDATE : 0) | (hasTime ? CAL_HASTIME : 0));
+		writeString(out, cal.getTimeZone().getID());
+		if (hasDate && hasTime) {
+			out.writeLong(cal.getTimeInMillis());
+		}
+		else {
+			//partial date/time values; we must not compute the millis, because
+			//that would set the cleared fields
+			out.writeInt(hasDate ? cal.get(Calendar.YEAR) : 0);
+			out.writeInt(hasDate ? cal.get(Calendar.MONTH) : 0);
+			out.writeInt(hasDate ? cal.get(Calendar.DATE) : 0);
+			out.writeInt(hasTime ? cal.get(Calendar.HOUR_OF_DAY) : 0);
+			out.writeInt(hasTime ? cal.get(Calendar.MINUTE) : 0);
+			out.writeInt(hasTime ? cal.get(Calendar.SECOND) : 0);
+			out.writeInt(hasTime ? cal.get(Calendar.MILLISECOND) : 0);
+		}
+	}
+
+	private static Calendar readCalendar(ByteBuffer buf) throws IOException {
+		byte flags = buf.get();
+		boolean hasDate = (flags & CAL_HASDATE) == CAL_HASDATE;
+		boolean hasTime = (flags & CAL_HASTIME) == CAL_HASTIME;
+
+		Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(readString(buf)));
+		if (hasDate && hasTime) {
+			cal.setTimeInMillis(buf.getLong());
+		}
+		else {
+			int year = buf.getInt();
+			int month = buf.getInt();
+			int day = buf.getInt();
+			int hour = buf.getInt();
+			int minute = buf.getInt();
+			int second = buf.getInt();
+			int millis = buf.getInt();
+
+			cal.clear();
+			if (hasDate) {
+				cal.set(Calendar.YEAR, year);
+				cal.set(Calendar.MONTH, month);
+				cal.set(Calendar.DATE, day);
+			}
+			if (hasTime) {
+				cal.set(Calendar.HOUR_OF_DAY, hour);
+				cal.set(Calendar.MINUTE, minute);
+				cal.set(Calendar.SECOND, second);
+				cal.set(Calendar.MILLISECOND, millis);
+			}
+		}
+		return cal;
+	}
+}
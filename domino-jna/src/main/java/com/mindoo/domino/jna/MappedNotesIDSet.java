@@ -0,0 +1,430 @@
+package com.mindoo.domino.jna;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.NotesIDSet.IDIterator;
+import com.mindoo.domino.jna.internal.MappedFileUtils;
+
+/**
+ * Read-only view on a note id file written by {@link NotesIDSet#writeTo(File)} or
+ * {@link NotesIDTable#writeTo(File)}. The file is memory mapped and not decoded on opening;
+ * membership tests and iteration work directly on the mapped data.<br>
+ * <br>
+ * File format (all values big endian):<br>
+ * <ul>
+ * <li>header (32 bytes): magic "DJID" (int), version (short), flags (short, 1=inverted, 2=modified, 4=has time),
+ * time innards (2 ints), container count (int), id count (int), 8 reserved bytes</li>
+ * <li>container directory sorted by key, 12 bytes per container: key (upper 14 bits of <code>noteId &gt;&gt;&gt; 2</code>, char),
+ * type (short, 0=array, 1=bitmap), cardinality (int), offset of the container data in the file (int)</li>
+ * <li>container data: sorted char array with the lower 16 bits of <code>noteId &gt;&gt;&gt; 2</code> or a bitmap of 1024 longs</li>
+ * </ul>
+ * Instances can be read by multiple threads. Call {@link #close()} to release the mapping; it may be
+ * called while other threads are still reading, in that case the mapping is released when the last
+ * running read operation has finished. Reads started after closing throw an {@link IllegalStateException}.
+ *
+ * @author Karsten Lehmann
+ */
+public class MappedNotesIDSet {
+	static final int MAGIC = 0x444A4944; // "DJID"
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 32;
+	static final int DIRECTORY_ENTRY_SIZE = 12;
+
+	static final short FLAG_INVERTED = 0x01;
+	static final short FLAG_MODIFIED = 0x02;
+	static final short FLAG_HASTIME = 0x04;
+
+	static final short TYPE_ARRAY = 0;
+	static final short TYPE_BITMAP = 1;
+
+	/** bit in {@link #m_state} that is set when the instance has been closed */
+	private static final int STATE_CLOSED = 0x80000000;
+
+	private final File m_file;
+	private final MappedByteBuffer m_buf;
+	/** number of running read operations, combined with {@link #STATE_CLOSED} */
+	private final AtomicInteger m_state = new AtomicInteger();
+	private final short m_flags;
+	private final int[] m_timeInnards;
+	private final int m_containerCount;
+	private final int m_count;
+
+	private MappedNotesIDSet(File file, MappedByteBuffer buf) throws IOException {
+		m_file = file;
+		m_buf = buf;
+
+		if (buf.capacity() < HEADER_SIZE || buf.getInt(0)!=MAGIC) {
+			throw new IOException("File is no note id file: "+file.getAbsolutePath());
+		}
+		short version = buf.getShort(4);
+		if (version!=VERSION) {
+			throw new IOException("Unsupported note id file version "+version+": "+file.getAbsolutePath());
+		}
+		m_flags = buf.getShort(6);
+		m_timeInnards = new int[] {buf.getInt(8), buf.getInt(12)};
+		m_containerCount = buf.getInt(16);
+		m_count = buf.getInt(20);
+
+		if (buf.capacity() < HEADER_SIZE + m_containerCount * DIRECTORY_ENTRY_SIZE) {
+			throw new IOException("Note id file is truncated: "+file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Maps a note id file into memory
+	 *
+	 * @param file file
+	 * @return mapped set
+	 * @throws IOException in case of I/O errors or if the file has an unsupported format
+	 */
+	public static MappedNotesIDSet open(File file) throws IOException {
+		MappedByteBuffer buf = MappedFileUtils.mapReadOnly(file);
+		try {
+			return new MappedNotesIDSet(file, buf);
+		}
+		catch (IOException e) {
+			MappedFileUtils.unmap(buf);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the mapped file
+	 *
+	 * @return file
+	 */
+	public File getFile() {
+		return m_file;
+	}
+
+	/**
+	 * Registers a read operation. Each call must be followed by {@link #releaseBuffer()}
+	 * when the read operation has finished.
+	 *
+	 * @return buffer
+	 */
+	private MappedByteBuffer acquireBuffer() {
+		while (true) {
+			int state = m_state.get();
+			if ((state & STATE_CLOSED) != 0)
+				throw new IllegalStateException("Note id file has already been closed: "+m_file.getAbsolutePath());
+			if (m_state.compareAndSet(state, state + 1)) {
+				return m_buf;
+			}
+		}
+	}
+
+	/**
+	 * Unregisters a read operation and releases the mapping if this was the last
+	 * read operation after {@link #close()}
+	 */
+	private void releaseBuffer() {
+		if (m_state.decrementAndGet() == STATE_CLOSED) {
+			MappedFileUtils.unmap(m_buf);
+		}
+	}
+
+	/**
+	 * Releases the memory mapping. The instance cannot be used afterwards. If other threads
+	 * are currently reading, the mapping is released when they have finished.
+	 */
+	public void close() {
+		while (true) {
+			int state = m_state.get();
+			if ((state & STATE_CLOSED) != 0) {
+				return;
+			}
+			if (m_state.compareAndSet(state, state | STATE_CLOSED)) {
+				if (state == 0) {
+					MappedFileUtils.unmap(m_buf);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Checks if {@link #close()} has been called
+	 *
+	 * @return true if closed
+	 */
+	public boolean isClosed() {
+		return (m_state.get() & STATE_CLOSED) != 0;
+	}
+
+	/**
+	 * Returns the inverted flag that was set when the file was written
+	 *
+	 * @return true if inverted
+	 */
+	public boolean isInverted() {
+		return (m_flags & FLAG_INVERTED) == FLAG_INVERTED;
+	}
+
+	/**
+	 * Returns the modified flag that was set when the file was written
+	 *
+	 * @return true if modified
+	 */
+	public boolean isModified() {
+		return (m_flags & FLAG_MODIFIED) == FLAG_MODIFIED;
+	}
+
+	/**
+	 * Returns the time that was set when the file was written
+	 *
+	 * @return time or null
+	 */
+	public NotesTimeDate getTime() {
+		return (m_flags & FLAG_HASTIME) == FLAG_HASTIME ? new NotesTimeDate(m_timeInnards.clone()) : null;
+	}
+
+	/**
+	 * Returns the number of note ids
+	 *
+	 * @return count
+	 */
+	public int getCount() {
+		return m_count;
+	}
+
+	/**
+	 * Checks if there are no note ids
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return m_count==0;
+	}
+
+	private static int directoryOffset(int containerIdx) {
+		return HEADER_SIZE + containerIdx * DIRECTORY_ENTRY_SIZE;
+	}
+
+	/**
+	 * Checks if the file contains a note id
+	 *
+	 * @param noteId note id
+	 * @return true if contained
+	 */
+	public boolean contains(int noteId) {
+		if ((noteId & 3) != 0) {
+			return false;
+		}
+		MappedByteBuffer buf = acquireBuffer();
+		try {
+			int idx = noteId >>> 2;
+			char key = (char) (idx >>> 16);
+			char low = (char) idx;
+
+			//binary search in the container directory
+			int from = 0;
+			int to = m_containerCount - 1;
+			while (from <= to) {
+				int mid = (from + to) >>> 1;
+				int entryOffset = directoryOffset(mid);
+				char midKey = buf.getChar(entryOffset);
+				if (midKey < key) {
+					from = mid + 1;
+				}
+				else if (midKey > key) {
+					to = mid - 1;
+				}
+				else {
+					short type = buf.getShort(entryOffset + 2);
+					int cardinality = buf.getInt(entryOffset + 4);
+					int dataOffset = buf.getInt(entryOffset + 8);
+					if (type==TYPE_BITMAP) {
+						return (buf.getLong(dataOffset + 8 * (low >>> 6)) & (1L << low)) != 0;
+					}
+					else {
+						return containsInArray(buf, dataOffset, cardinality, low);
+					}
+				}
+			}
+			return false;
+		}
+		finally {
+			releaseBuffer();
+		}
+	}
+
+	private static boolean containsInArray(MappedByteBuffer buf, int dataOffset, int cardinality, char low) {
+		int from = 0;
+		int to = cardinality - 1;
+		while (from <= to) {
+			int mid = (from + to) >>> 1;
+			char midVal = buf.getChar(dataOffset + 2 * mid);
+			if (midVal < low) {
+				from = mid + 1;
+			}
+			else if (midVal > low) {
+				to = mid - 1;
+			}
+			else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Decodes one container into an array of note ids
+	 *
+	 * @param buf buffer
+	 * @param containerIdx container index
+	 * @param ids target array
+	 * @param offset offset in the target array
+	 * @return new offset
+	 */
+	private static int fill(MappedByteBuffer buf, int containerIdx, int[] ids, int offset) {
+		int entryOffset = directoryOffset(containerIdx);
+		int high = buf.getChar(entryOffset) << 16;
+		short type = buf.getShort(entryOffset + 2);
+		int cardinality = buf.getInt(entryOffset + 4);
+		int dataOffset = buf.getInt(entryOffset + 8);
+
+		if (type==TYPE_BITMAP) {
+			for (int i=0; i<NotesIDSet.BITMAP_WORDS; i++) {
+				long word = buf.getLong(dataOffset + 8 * i);
+				while (word != 0) {
+					ids[offset++] = (high | ((i << 6) + Long.numberOfTrailingZeros(word))) << 2;
+					word &= word - 1;
+				}
+			}
+		}
+		else {
+			for (int i=0; i<cardinality; i++) {
+				ids[offset++] = (high | buf.getChar(dataOffset + 2 * i)) << 2;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns an iterator over all note ids in ascending (unsigned) order
+	 *
+	 * @return iterator
+	 */
+	public IDIterator iterator() {
+		if (isClosed())
+			throw new IllegalStateException("Note id file has already been closed: "+m_file.getAbsolutePath());
+
+		return new IDIterator() {
+			//ids of the current container, decoded in one pass
+			private int[] m_buffer = new int[0];
+			private int m_bufferSize = 0;
+			private int m_bufferPos = 0;
+			private int m_containerIdx = 0;
+
+			@Override
+			public boolean hasNext() {
+				return m_bufferPos < m_bufferSize || m_containerIdx < m_containerCount;
+			}
+
+			@Override
+			public int next() {
+				if (m_bufferPos >= m_bufferSize) {
+					if (m_containerIdx >= m_containerCount)
+						throw new NoSuchElementException();
+
+					MappedByteBuffer buf = acquireBuffer();
+					try {
+						int cardinality = buf.getInt(directoryOffset(m_containerIdx) + 4);
+						if (m_buffer.length < cardinality) {
+							m_buffer = new int[cardinality];
+						}
+						m_bufferSize = fill(buf, m_containerIdx, m_buffer, 0);
+					}
+					finally {
+						releaseBuffer();
+					}
+					m_bufferPos = 0;
+					m_containerIdx++;
+				}
+				return m_buffer[m_bufferPos++];
+			}
+		};
+	}
+
+	/**
+	 * Returns all note ids in ascending (unsigned) order
+	 *
+	 * @return note ids
+	 */
+	public int[] toArray() {
+		MappedByteBuffer buf = acquireBuffer();
+		try {
+			int[] ids = new int[m_count];
+			int offset = 0;
+			for (int i=0; i<m_containerCount; i++) {
+				offset = fill(buf, i, ids, offset);
+			}
+			return ids;
+		}
+		finally {
+			releaseBuffer();
+		}
+	}
+
+	/**
+	 * Copies the content of the file to a {@link NotesIDSet} on the Java heap. The containers
+	 * are copied as a whole without adding single ids.
+	 *
+	 * @return set
+	 */
+	public NotesIDSet toIDSet() {
+		MappedByteBuffer buf = acquireBuffer();
+		try {
+			NotesIDSet set = new NotesIDSet();
+			set.setInverted(isInverted());
+			set.setModified(isModified());
+			set.setTime(getTime());
+
+			for (int i=0; i<m_containerCount; i++) {
+				int entryOffset = directoryOffset(i);
+				char key = buf.getChar(entryOffset);
+				short type = buf.getShort(entryOffset + 2);
+				int cardinality = buf.getInt(entryOffset + 4);
+				int dataOffset = buf.getInt(entryOffset + 8);
+
+				if (type==TYPE_BITMAP) {
+					long[] words = new long[NotesIDSet.BITMAP_WORDS];
+					for (int j=0; j<words.length; j++) {
+						words[j] = buf.getLong(dataOffset + 8 * j);
+					}
+					set.appendBitmapContainer(key, words, cardinality);
+				}
+				else {
+					char[] values = new char[cardinality];
+					for (int j=0; j<cardinality; j++) {
+						values[j] = buf.getChar(dataOffset + 2 * j);
+					}
+					set.appendArrayContainer(key, values);
+				}
+			}
+			return set;
+		}
+		finally {
+			releaseBuffer();
+		}
+	}
+
+	/**
+	 * Creates a new ID table with the content and flags of the file
+	 *
+	 * @return ID table
+	 */
+	public NotesIDTable toIDTable() {
+		return toIDSet().toIDTable();
+	}
+
+	@Override
+	public String toString() {
+		return "MappedNotesIDSet [file="+m_file.getAbsolutePath()+", count="+m_count+", closed="+isClosed()+"]";
+	}
+}
@@ -0,0 +1,590 @@
+package com.mindoo.domino.jna;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.NotesDatabase.INoteOpenCallback;
+import com.mindoo.domino.jna.constants.GetNotes;
+import com.mindoo.domino.jna.constants.OpenNote;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.errors.NotesErrorUtils;
+import com.mindoo.domino.jna.gc.NotesGC;
+
+/**
+ * Loads a large number of notes in batches with the bulk API used by
+ * {@link NotesDatabase#getNotes(int[], EnumSet[], int[], EnumSet, NotesDatabase, com.mindoo.domino.jna.NotesDatabase.IGetNotesCallback, INoteOpenCallback, com.mindoo.domino.jna.NotesDatabase.IObjectAllocCallback, com.mindoo.domino.jna.NotesDatabase.IObjectWriteCallback, NotesTimeDate, com.mindoo.domino.jna.NotesDatabase.IFolderAddCallback)}
+ * and passes them to a {@link BulkNoteCallback}.<br>
+ * <br>
+ * This is much faster than opening the notes one by one via {@link NotesDatabase#openNoteById(int, EnumSet)},
+ * especially for remote databases, because a batch of notes is transferred in a single request.<br>
+ * <br>
+ * The note ids are split into batches of {@link #getBatchSize()} notes. With a thread count greater than 1,
+ * the batches are read by pool threads that open their own database handle with the same user context as
+ * the database of this loader, within {@link NotesGC#runWithAutoGC(Callable)}. Each thread only fetches
+ * the next batch when the callback is done with the current one, so no more than
+ * <code>threadCount * batchSize</code> notes are in memory at any time.<br>
+ * <br>
+ * Notes that cannot be opened (e.g. because they have been deleted in the meantime) and exceptions thrown
+ * by {@link BulkNoteCallback#noteLoaded(NotesNote)} are reported per note to
+ * {@link BulkNoteCallback#noteFailed(int, NotesError)}. If the bulk call fails for a whole batch,
+ * the remaining notes of the batch are opened one by one.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesBulkNoteLoader {
+	/** Default number of notes read per bulk call */
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	private final NotesDatabase m_db;
+	private int m_batchSize = DEFAULT_BATCH_SIZE;
+	private int m_threadCount = 1;
+	private EnumSet<OpenNote> m_openFlags = EnumSet.noneOf(OpenNote.class);
+	private EnumSet<GetNotes> m_controlFlags = EnumSet.noneOf(GetNotes.class);
+
+	/**
+	 * Creates a new loader
+	 *
+	 * @param db database to read the notes from
+	 */
+	public NotesBulkNoteLoader(NotesDatabase db) {
+		m_db = db;
+	}
+
+	/**
+	 * Returns the database to read the notes from
+	 *
+	 * @return database
+	 */
+	public NotesDatabase getDatabase() {
+		return m_db;
+	}
+
+	/**
+	 * Sets the number of notes read per bulk call, default is {@link #DEFAULT_BATCH_SIZE}.
+	 * Larger batches reduce the number of server roundtrips, smaller batches reduce the memory
+	 * usage when reading notes with large items.
+	 *
+	 * @param batchSize batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize<1)
+			throw new IllegalArgumentException("Batch size must be greater than 0: "+batchSize);
+		m_batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the number of notes read per bulk call
+	 *
+	 * @return batch size
+	 */
+	public int getBatchSize() {
+		return m_batchSize;
+	}
+
+	/**
+	 * Sets the number of threads that read batches in parallel, default is 1 to read all
+	 * batches in the caller thread with the database of this loader.
+	 * If greater than 1, the {@link BulkNoteCallback} is called concurrently and needs to be thread-safe.
+	 *
+	 * @param threadCount thread count
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount<1)
+			throw new IllegalArgumentException("Thread count must be greater than 0: "+threadCount);
+		m_threadCount = threadCount;
+	}
+
+	/**
+	 * Returns the number of threads that read batches in parallel
+	 *
+	 * @return thread count
+	 */
+	public int getThreadCount() {
+		return m_threadCount;
+	}
+
+	/**
+	 * Sets the flags to open the notes
+	 *
+	 * @param openFlags open flags
+	 */
+	public void setOpenFlags(EnumSet<OpenNote> openFlags) {
+		m_openFlags = openFlags==null ? EnumSet.noneOf(OpenNote.class) : openFlags.clone();
+	}
+
+	/**
+	 * Returns the flags to open the notes
+	 *
+	 * @return open flags
+	 */
+	public EnumSet<OpenNote> getOpenFlags() {
+		return m_openFlags.clone();
+	}
+
+	/**
+	 * Sets the control flags for the bulk call. {@link GetNotes#CONTINUE_ON_ERROR} is always added.
+	 * Object and folder callbacks are not supported by this loader.
+	 *
+	 * @param controlFlags control flags
+	 */
+	public void setControlFlags(EnumSet<GetNotes> controlFlags) {
+		m_controlFlags = controlFlags==null ? EnumSet.noneOf(GetNotes.class) : controlFlags.clone();
+	}
+
+	/**
+	 * Returns the control flags for the bulk call
+	 *
+	 * @return control flags
+	 */
+	public EnumSet<GetNotes> getControlFlags() {
+		return m_controlFlags.clone();
+	}
+
+	/**
+	 * Loads the notes of an ID table
+	 *
+	 * @param idTable ID table, e.g. the result of a database search
+	 * @param callback callback
+	 * @return load statistics
+	 */
+	public BulkLoadResult load(NotesIDTable idTable, BulkNoteCallback callback) {
+		return load(idTable.toArray(), callback);
+	}
+
+	/**
+	 * Loads the notes of an ID set
+	 *
+	 * @param idSet ID set
+	 * @param callback callback
+	 * @return load statistics
+	 */
+	public BulkLoadResult load(NotesIDSet idSet, BulkNoteCallback callback) {
+		return load(idSet.toArray(), callback);
+	}
+
+	/**
+	 * Loads the notes for a collection of note ids
+	 *
+	 * @param noteIds note ids
+	 * @param callback callback
+	 * @return load statistics
+	 */
+	public BulkLoadResult load(Collection<Integer> noteIds, BulkNoteCallback callback) {
+		int[] noteIdsArr = new int[noteIds.size()];
+		int idx = 0;
+		for (Integer currNoteId : noteIds) {
+			noteIdsArr[idx++] = currNoteId.intValue();
+		}
+		return load(noteIdsArr, callback);
+	}
+
+	/**
+	 * Loads the notes for an array of note ids
+	 *
+	 * @param noteIds note ids
+	 * @param callback callback
+	 * @return load statistics
+	 */
+	public BulkLoadResult load(int[] noteIds, BulkNoteCallback callback) {
+		if (m_db.isRecycled())
+			throw new NotesError(0, "Database already recycled");
+
+		LoadJob job = new LoadJob(noteIds, callback);
+		int batchCount = job.getBatchCount();
+		int threadCount = Math.min(m_threadCount, batchCount);
+
+		if (threadCount<=1) {
+			job.loadBatches(m_db);
+		}
+		else {
+			job.loadBatchesInThreads(threadCount);
+		}
+		return job.getResult();
+	}
+
+	/**
+	 * Callback base class to receive the loaded notes
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static abstract class BulkNoteCallback {
+		/** Values to control the load process */
+		public enum Action {Continue, Stop}
+
+		/**
+		 * Implement this method to process a loaded note. The note is only valid during this call
+		 * and must not be recycled or used in other threads.
+		 *
+		 * @param note note
+		 * @return action to continue or stop loading
+		 */
+		public abstract Action noteLoaded(NotesNote note);
+
+		/**
+		 * Method is called when a note could not be opened or {@link #noteLoaded(NotesNote)} threw an
+		 * exception. The default implementation rethrows the error, which stops loading.
+		 *
+		 * @param noteId note id
+		 * @param error error
+		 * @return action to continue or stop loading
+		 */
+		public Action noteFailed(int noteId, NotesError error) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Statistics of a load operation
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static class BulkLoadResult {
+		private final int m_loadedCount;
+		private final int m_failedCount;
+		private final int m_batchCount;
+		private final int m_singleOpenCount;
+		private final boolean m_stopped;
+
+		private BulkLoadResult(int loadedCount, int failedCount, int batchCount, int singleOpenCount, boolean stopped) {
+			m_loadedCount = loadedCount;
+			m_failedCount = failedCount;
+			m_batchCount = batchCount;
+			m_singleOpenCount = singleOpenCount;
+			m_stopped = stopped;
+		}
+
+		/**
+		 * Returns the number of notes passed to {@link BulkNoteCallback#noteLoaded(NotesNote)}
+		 *
+		 * @return count
+		 */
+		public int getLoadedCount() {
+			return m_loadedCount;
+		}
+
+		/**
+		 * Returns the number of notes passed to {@link BulkNoteCallback#noteFailed(int, NotesError)}
+		 *
+		 * @return count
+		 */
+		public int getFailedCount() {
+			return m_failedCount;
+		}
+
+		/**
+		 * Returns the number of bulk calls
+		 *
+		 * @return count
+		 */
+		public int getBatchCount() {
+			return m_batchCount;
+		}
+
+		/**
+		 * Returns the number of notes that have been opened one by one because the bulk call failed
+		 *
+		 * @return count
+		 */
+		public int getSingleOpenCount() {
+			return m_singleOpenCount;
+		}
+
+		/**
+		 * Returns true if loading has been stopped by the callback before all notes were processed
+		 *
+		 * @return true if stopped
+		 */
+		public boolean isStopped() {
+			return m_stopped;
+		}
+
+		@Override
+		public String toString() {
+			return "BulkLoadResult [loaded="+m_loadedCount+", failed="+m_failedCount+", batches="+m_batchCount+
+					", singleopens="+m_singleOpenCount+", stopped="+m_stopped+"]";
+		}
+	}
+
+	/**
+	 * Exception thrown in the note open callback to abort the bulk call, carrying the
+	 * exception of the {@link BulkNoteCallback} if there is one
+	 */
+	private static class AbortLoadException extends RuntimeException {
+		private static final long serialVersionUID = 4009622004498717305L;
+
+		public AbortLoadException(Throwable cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * State of one {@link NotesBulkNoteLoader#load(int[], BulkNoteCallback)} call, shared by all threads
+	 */
+	private class LoadJob {
+		private final int[] m_noteIds;
+		private final BulkNoteCallback m_callback;
+		private final EnumSet<OpenNote> m_jobOpenFlags;
+		private final EnumSet<GetNotes> m_jobControlFlags;
+		private final int m_jobBatchSize;
+		private final AtomicInteger m_nextBatch = new AtomicInteger();
+		private final AtomicInteger m_loadedCount = new AtomicInteger();
+		private final AtomicInteger m_failedCount = new AtomicInteger();
+		private final AtomicInteger m_batchCount = new AtomicInteger();
+		private final AtomicInteger m_singleOpenCount = new AtomicInteger();
+		private final AtomicBoolean m_stopped = new AtomicBoolean();
+
+		public LoadJob(int[] noteIds, BulkNoteCallback callback) {
+			m_noteIds = noteIds;
+			m_callback = callback;
+			m_jobOpenFlags = m_openFlags.clone();
+			m_jobControlFlags = m_controlFlags.clone();
+			//report notes that cannot be opened per note instead of failing the whole batch
+			m_jobControlFlags.add(GetNotes.CONTINUE_ON_ERROR);
+			m_jobBatchSize = m_batchSize;
+		}
+
+		public int getBatchCount() {
+			return (m_noteIds.length + m_jobBatchSize - 1) / m_jobBatchSize;
+		}
+
+		public BulkLoadResult getResult() {
+			return new BulkLoadResult(m_loadedCount.get(), m_failedCount.get(), m_batchCount.get(),
+					m_singleOpenCount.get(), m_stopped.get());
+		}
+
+		/**
+		 * Reads batches until all are done or loading has been stopped
+		 *
+		 * @param db database
+		 */
+		public void loadBatches(NotesDatabase db) {
+			int batchCount = getBatchCount();
+
+			while (!m_stopped.get()) {
+				int batchIdx = m_nextBatch.getAndIncrement();
+				if (batchIdx >= batchCount) {
+					break;
+				}
+				int from = batchIdx * m_jobBatchSize;
+				int to = Math.min(from + m_jobBatchSize, m_noteIds.length);
+				loadBatch(db, Arrays.copyOfRange(m_noteIds, from, to));
+			}
+		}
+
+		/**
+		 * Reads the batches in pool threads with their own database handles
+		 *
+		 * @param threadCount thread count
+		 */
+		public void loadBatchesInThreads(int threadCount) {
+			new NotesWorkerPool(m_db, "bulk note loader").run(threadCount, new NotesWorkerPool.WorkerTask() {
+
+				@Override
+				public void run(NotesDatabase db) throws Exception {
+					loadBatches(db);
+				}
+
+				@Override
+				public void stop() {
+					m_stopped.set(true);
+				}
+			});
+		}
+
+		/**
+		 * Reads one batch with a single bulk call. If the call fails, the notes that have not
+		 * been processed yet are opened one by one.
+		 *
+		 * @param db database
+		 * @param batchNoteIds note ids of the batch
+		 */
+		private void loadBatch(final NotesDatabase db, int[] batchNoteIds) {
+			@SuppressWarnings("unchecked")
+			EnumSet<OpenNote>[] openFlagsArr = (EnumSet<OpenNote>[]) new EnumSet<?>[batchNoteIds.length];
+			Arrays.fill(openFlagsArr, m_jobOpenFlags);
+			int[] sinceSeqNumArr = new int[batchNoteIds.length];
+
+			//the notes are not returned in a fixed order unless GetNotes.PRESERVE_ORDER is set
+			final NotesIDSet processedNoteIds = new NotesIDSet();
+
+			m_batchCount.incrementAndGet();
+			try {
+				db.getNotes(batchNoteIds, openFlagsArr, sinceSeqNumArr, m_jobControlFlags, null, null, new INoteOpenCallback() {
+
+					@Override
+					public void noteOpened(NotesNote note, int noteId, short status) {
+						processedNoteIds.add(noteId);
+
+						NotesError openError = null;
+						if (status!=0) {
+							openError = toNotesError(status, noteId);
+						}
+						else if (note==null) {
+							openError = new NotesError(0, "Note with id "+noteId+" could not be opened");
+						}
+
+						boolean continueLoading = openError==null ? processNote(noteId, note) : processFailure(noteId, openError);
+						if (!continueLoading) {
+							throw new AbortLoadException(null);
+						}
+					}
+				}, null, null, null, null);
+			}
+			catch (NotesError e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof AbortLoadException) {
+					//stopped by the callback
+					rethrowCallbackError((AbortLoadException) cause);
+					return;
+				}
+
+				if (m_stopped.get()) {
+					return;
+				}
+
+				//the bulk call failed, fall back to opening the remaining notes
+				try {
+					for (int currNoteId : batchNoteIds) {
+						if (m_stopped.get()) {
+							break;
+						}
+						if (!processedNoteIds.contains(currNoteId)) {
+							if (!loadSingleNote(db, currNoteId)) {
+								break;
+							}
+						}
+					}
+				}
+				catch (AbortLoadException e2) {
+					rethrowCallbackError(e2);
+				}
+			}
+		}
+
+		/**
+		 * Opens a single note and passes it to the callback
+		 *
+		 * @param db database
+		 * @param noteId note id
+		 * @return true to continue loading
+		 */
+		private boolean loadSingleNote(NotesDatabase db, int noteId) {
+			m_singleOpenCount.incrementAndGet();
+
+			NotesNote note;
+			try {
+				note = db.openNoteById(noteId, m_jobOpenFlags);
+			}
+			catch (NotesError e) {
+				return processFailure(noteId, e);
+			}
+
+			try {
+				return processNote(noteId, note);
+			}
+			finally {
+				note.recycle();
+			}
+		}
+
+		/**
+		 * Passes a note to the callback
+		 *
+		 * @param noteId note id
+		 * @param note note
+		 * @return true to continue loading
+		 */
+		private boolean processNote(int noteId, NotesNote note) {
+			if (m_stopped.get()) {
+				return false;
+			}
+
+			BulkNoteCallback.Action action;
+			try {
+				action = m_callback.noteLoaded(note);
+				m_loadedCount.incrementAndGet();
+			}
+			catch (AbortLoadException e) {
+				throw e;
+			}
+			catch (NotesError e) {
+				return processFailure(noteId, e);
+			}
+			catch (RuntimeException e) {
+				return processFailure(noteId, new NotesError(0, "Error processing note with id "+noteId, e));
+			}
+
+			if (action==BulkNoteCallback.Action.Stop) {
+				m_stopped.set(true);
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Passes an error to the callback
+		 *
+		 * @param noteId note id
+		 * @param error error
+		 * @return true to continue loading
+		 */
+		private boolean processFailure(int noteId, NotesError error) {
+			m_failedCount.incrementAndGet();
+
+			BulkNoteCallback.Action action;
+			try {
+				action = m_callback.noteFailed(noteId, error);
+			}
+			catch (Throwable t) {
+				m_stopped.set(true);
+				throw new AbortLoadException(t);
+			}
+
+			if (action==BulkNoteCallback.Action.Stop) {
+				m_stopped.set(true);
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Rethrows the exception of the {@link BulkNoteCallback} that aborted loading
+	 *
+	 * @param e abort exception
+	 */
+	private static void rethrowCallbackError(AbortLoadException e) {
+		Throwable callbackError = e.getCause();
+		if (callbackError==null) {
+			return;
+		}
+		if (callbackError instanceof RuntimeException) {
+			throw (RuntimeException) callbackError;
+		}
+		else if (callbackError instanceof Error) {
+			throw (Error) callbackError;
+		}
+		throw new NotesError(0, "Error loading notes", callbackError);
+	}
+
+	/**
+	 * Converts a status code to an exception
+	 *
+	 * @param status status
+	 * @param noteId note id
+	 * @return exception
+	 */
+	private static NotesError toNotesError(short status, int noteId) {
+		try {
+			NotesErrorUtils.checkResult(status);
+		}
+		catch (NotesError e) {
+			return new NotesError(e.getId(), "Error opening note with id "+noteId+": "+e.getMessage());
+		}
+		return new NotesError(status, "Error opening note with id "+noteId);
+	}
+}
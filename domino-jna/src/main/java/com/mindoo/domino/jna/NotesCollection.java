@@ -35,7 +35,6 @@ import com.mindoo.domino.jna.gc.NotesGC;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
 import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder;
-import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemTableData;
 import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemValueTableData;
 import com.mindoo.domino.jna.internal.NotesSearchKeyEncoder;
 import com.mindoo.domino.jna.queries.condition.Selection;
@@ -1141,6 +1140,25 @@ public class NotesCollection implements IRecyclableNotesObject {
 			return m_cacheInstance;
 		}
 		
+		/**
+		 * Override this method to read the view data in a separate thread while entries
+		 * are processed in {@link #entryRead(Object, NotesViewEntryData)}. The returned
+		 * value is the maximum number of read chunks (of <code>preloadEntryCount</code> entries
+		 * each) that may wait for processing.<br>
+		 * <br>
+		 * This helps if reading the data (e.g. from a remote server) and processing the
+		 * entries both take time. View index change detection works like in sequential mode.<br>
+		 * <br>
+		 * Please note that the collection is read on a second thread while the callback methods
+		 * run in the caller thread, so they must not use (e.g. navigate or update) or recycle
+		 * the collection before the lookup method has returned.
+		 * 
+		 * @return queue size or 0 to read sequentially (default value)
+		 */
+		public int getPrefetchQueueSize() {
+			return 0;
+		}
+		
 		/**
 		 * Method is called when the lookup process is done
 		 * 
@@ -1199,6 +1217,11 @@ public class NotesCollection implements IRecyclableNotesObject {
 			return m_innerCallback.lookupDone(result);
 		}
 		
+		@Override
+		public int getPrefetchQueueSize() {
+			return m_innerCallback.getPrefetchQueueSize();
+		}
+		
 		@Override
 		public void viewIndexChangeDetected() {
 			m_innerCallback.viewIndexChangeDetected();
@@ -1627,6 +1650,39 @@ public class NotesCollection implements IRecyclableNotesObject {
 			int preloadEntryCount,
 			EnumSet<ReadMask> returnMask, ViewLookupCallback<T> callback) {
 		
+		int prefetchQueueSize = callback.getPrefetchQueueSize();
+		if (prefetchQueueSize<=0) {
+			return getAllEntries(startPosRetriever, skipCount, returnNav, preloadEntryCount, returnMask, callback, null);
+		}
+		
+		NotesCollectionPrefetcher prefetcher = new NotesCollectionPrefetcher(this, prefetchQueueSize);
+		try {
+			return getAllEntries(startPosRetriever, skipCount, returnNav, preloadEntryCount, returnMask, callback, prefetcher);
+		}
+		finally {
+			//make sure the reader thread does not use the collection handle anymore
+			prefetcher.stop();
+		}
+	}
+	
+	/**
+	 * Implementation of {@link #getAllEntries(IStartPositionRetriever, int, EnumSet, int, EnumSet, ViewLookupCallback)}
+	 * 
+	 * @param startPosRetriever callback to find the start position to read
+	 * @param skipCount number entries to skip before reading
+	 * @param returnNav navigator to specify how to move in the collection
+	 * @param preloadEntryCount amount of entries that is read from the view; if a filter is specified, this should be higher than returnCount
+	 * @param returnMask values to extract
+	 * @param callback callback that is called for each entry read from the collection
+	 * @param prefetcher optional reader thread, stopped by the caller and after each lookup run
+	 * @return lookup result
+	 * 
+	 * @param <T> type of lookup result object
+	 */
+	private <T> T getAllEntries(IStartPositionRetriever startPosRetriever, int skipCount, EnumSet<Navigate> returnNav,
+			int preloadEntryCount,
+			EnumSet<ReadMask> returnMask, ViewLookupCallback<T> callback, NotesCollectionPrefetcher prefetcher) {
+		
 		EnumSet<ReadMask> useReturnMask = returnMask;
 
 		//decide whether we need to use the undocumented NIFReadEntriesExt
@@ -1659,6 +1715,9 @@ public class NotesCollection implements IRecyclableNotesObject {
 			}
 		}
 
+		//set to false if a differential view read could not be completed from the cache
+		boolean useDiffRead = true;
+		
 		while (true) {
 			int indexModifiedBeforeGettingStartPos = getIndexModifiedSequenceNo();
 			
@@ -1696,8 +1755,10 @@ public class NotesCollection implements IRecyclableNotesObject {
 			
 			NotesTimeDate diffTime = null;
 			NotesIDTable diffIDTable = null;
+			//cache content that NIF uses to skip entries
+			CacheState diffCacheState = null;
 			
-			if (dataCache!=null) {
+			if (dataCache!=null && useDiffRead) {
 				CacheState cacheState = dataCache.getCacheState();
 				
 				//only use cache content if read masks are compatible
@@ -1709,9 +1770,11 @@ public class NotesCollection implements IRecyclableNotesObject {
 
 						diffIDTable = new NotesIDTable();
 						diffIDTable.addNotes(cacheEntries.keySet());
+						diffCacheState = cacheState;
 					}
 				}
 			}
+			boolean diffReadIncomplete = false;
 			
 			List<NotesViewEntryData> entriesToUpdateCache = dataCache==null ? null : new ArrayList<NotesViewEntryData>();
 			
@@ -1759,10 +1822,29 @@ public class NotesCollection implements IRecyclableNotesObject {
 					skipNav = returnNav;
 				}
 				NotesViewLookupResultData data;
-				data = readEntriesExt(posWrap, skipNav, useSkipCount, returnNav, preloadEntryCount, useReturnMask,
-						diffTime, diffIDTable, readSingleColumnIndex);
-				
-				int indexModifiedAfterDataLookup = getIndexModifiedSequenceNo();
+				int indexModifiedAfterDataLookup;
+				if (prefetcher!=null) {
+					if (!prefetcher.isStarted()) {
+						//read the data in a separate thread, starting with the same skip parameters
+						prefetcher.start(posWrap, skipNav, useSkipCount, returnNav, preloadEntryCount, useReturnMask,
+								diffTime, diffIDTable, readSingleColumnIndex, indexModifiedAfterGettingStartPos);
+					}
+					NotesCollectionPrefetcher.Chunk chunk = prefetcher.take();
+					data = chunk.getData();
+					indexModifiedAfterDataLookup = chunk.getIndexModifiedSequenceNo();
+					
+					if (indexModifiedAfterGettingStartPos != indexModifiedAfterDataLookup) {
+						//reader thread has stopped; restart scan
+						viewModified = true;
+						break;
+					}
+				}
+				else {
+					data = readEntriesExt(posWrap, skipNav, useSkipCount, returnNav, preloadEntryCount, useReturnMask,
+							diffTime, diffIDTable, readSingleColumnIndex);
+					
+					indexModifiedAfterDataLookup = getIndexModifiedSequenceNo();
+				}
 
 				if (indexModifiedAfterGettingStartPos != indexModifiedAfterDataLookup) {
 					//view index was changed while reading; restart scan
@@ -1783,7 +1865,11 @@ public class NotesCollection implements IRecyclableNotesObject {
 					//the summary data, because the corresponding cache entry was already
 					//up to date
 					List<NotesViewEntryData> entries = data.getEntries();
-					dataCache.populateEntryStubsWithData(entries);
+					if (!dataCache.populateEntryStubsWithData(diffCacheState, entries)) {
+						//NIF skipped an entry that we cannot fill in; read again without diff time
+						diffReadIncomplete = true;
+						break;
+					}
 					
 					entriesToUpdateCache.addAll(entries);
 				}
@@ -1794,7 +1880,7 @@ public class NotesCollection implements IRecyclableNotesObject {
 					
 					if (dataCache!=null && retDiffTime!=null) {
 						if (!entriesToUpdateCache.isEmpty()) {
-							dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+							dataCache.addCacheValues(this, useReturnMask, retDiffTime, entriesToUpdateCache);
 						}
 						callback.setNewDiffTime(retDiffTime);
 					}
@@ -1820,7 +1906,7 @@ public class NotesCollection implements IRecyclableNotesObject {
 						
 						if (dataCache!=null && retDiffTime!=null) {
 							if (!entriesToUpdateCache.isEmpty()) {
-								dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+								dataCache.addCacheValues(this, useReturnMask, retDiffTime, entriesToUpdateCache);
 							}
 							callback.setNewDiffTime(retDiffTime);
 						}
@@ -1829,9 +1915,22 @@ public class NotesCollection implements IRecyclableNotesObject {
 				}
 			}
 
+			if (prefetcher!=null) {
+				//make sure the reader thread does not use the collection handle anymore
+				prefetcher.stop();
+			}
+
+			if (diffReadIncomplete) {
+				if (diffIDTable!=null) {
+					diffIDTable.recycle();
+				}
+				useDiffRead = false;
+				continue;
+			}
+			
 			if (dataCache!=null && retDiffTime!=null) {
 				if (!entriesToUpdateCache.isEmpty()) {
-					dataCache.addCacheValues(useReturnMask, retDiffTime, entriesToUpdateCache);
+					dataCache.addCacheValues(this, useReturnMask, retDiffTime, entriesToUpdateCache);
 				}
 				callback.setNewDiffTime(retDiffTime);
 			}
@@ -1851,6 +1950,358 @@ public class NotesCollection implements IRecyclableNotesObject {
 		}
 	}
 	
+	/**
+	 * Callback base class used to process collection entries with a {@link NotesViewEntryCursor}
+	 * 
+	 * @author Karsten Lehmann
+	 */
+	public static abstract class ViewEntryCursorCallback<T> {
+		
+		/**
+		 * The method is called when the view lookup is (re-)started. If the view
+		 * index is modified while reading, the view read operation restarts from
+		 * the beginning.
+		 * 
+		 * @return result object that is passed to {@link #entryRead(Object, NotesViewEntryCursor)}
+		 */
+		public abstract T startingLookup();
+		
+		/**
+		 * Implement this method to process a read entry. The cursor is reused for all entries
+		 * and is only valid during this call; use {@link NotesViewEntryCursor#copy()} to keep
+		 * the entry data.<br>
+		 * Please note: If you process the entry directly, keep in mind that the lookup
+		 * may restart when a view index change is detected.
+		 * 
+		 * @param result context
+		 * @param cursor cursor positioned on the current entry
+		 * @return action (whether the lookup should continue)
+		 */
+		public abstract Action entryRead(T result, NotesViewEntryCursor cursor);
+		
+		/**
+		 * Override this empty method to get notified about view index changes
+		 */
+		public void viewIndexChangeDetected() {
+		}
+		
+		/**
+		 * Method is called when the lookup process is done
+		 * 
+		 * @param result result object
+		 * @return result or transformed result
+		 */
+		public abstract T lookupDone(T result);
+	}
+	
+	/**
+	 * Reads collection entries like {@link #getAllEntries(String, int, EnumSet, int, EnumSet, ViewLookupCallback)},
+	 * but without creating a {@link NotesViewEntryData} object for each entry. The callback receives a
+	 * reusable {@link NotesViewEntryCursor} that decodes column values only when they are accessed,
+	 * which reduces the memory allocations for large view exports.<br>
+	 * <br>
+	 * The method internally takes care of view index changes while reading view data and restarts reading
+	 * if such a change has been detected.
+	 * 
+	 * @param startPosStr start position; use "0" or null to start before the first entry or "last" to start at the end of the view, e.g. to read it backwards with {@link Navigate#PREV}
+	 * @param skipCount number entries to skip before reading
+	 * @param returnNav navigator to specify how to move in the collection
+	 * @param preloadEntryCount amount of entries that is read from the view with one C API call
+	 * @param returnMask values to extract
+	 * @param callback callback that is called for each entry read from the collection
+	 * @return lookup result
+	 * 
+	 * @param <T> type of lookup result object
+	 */
+	public <T> T scanAllEntries(String startPosStr, int skipCount, EnumSet<Navigate> returnNav,
+			int preloadEntryCount, EnumSet<ReadMask> returnMask, ViewEntryCursorCallback<T> callback) {
+		
+		if (StringUtil.isEmpty(startPosStr)) {
+			startPosStr = "0";
+		}
+		boolean startAtLast = "last".equalsIgnoreCase(startPosStr);
+		
+		while (true) {
+			int indexModifiedAtStart = getIndexModifiedSequenceNo();
+
+			NotesCollectionPositionStruct pos = NotesCollectionPositionStruct.toPosition(startAtLast ? "0" : startPosStr);
+			NotesCollectionPosition posWrap = new NotesCollectionPosition(pos);
+			//the INIT_POS_NOTEID flag is only used for the first read call
+			EnumSet<ReadMask> useReturnMask = returnMask.clone();
+
+			T result = callback.startingLookup();
+			
+			if (preloadEntryCount==0) {
+				//nothing to do
+				result = callback.lookupDone(result);
+				return result;
+			}
+			
+			boolean viewModified = false;
+			boolean firstLoopRun = true;
+			
+			NotesViewEntryCursor cursor = new NotesViewEntryCursor(this);
+			try {
+				while (true) {
+					int useSkipCount;
+					EnumSet<Navigate> skipNav;
+					if (firstLoopRun && startAtLast) {
+						//first jump to the end of the view with the reversed returnNav, like getAllEntries does
+						useSkipCount = Integer.MAX_VALUE;
+						skipNav = EnumSet.noneOf(Navigate.class);
+						for (Navigate currNav : returnNav) {
+							skipNav.add(reverseNav(currNav));
+						}
+						//set NAVIGATE_CONTINUE to stop skipping on the last view element and not return an error
+						skipNav.add(Navigate.CONTINUE);
+					}
+					else {
+						//just skip the last entry that we returned on the last NIFReadEntries call
+						useSkipCount = firstLoopRun ? skipCount : 1;
+						skipNav = returnNav;
+					}
+					
+					readEntriesIntoCursor(posWrap, skipNav, useSkipCount, returnNav, preloadEntryCount, useReturnMask, cursor);
+					
+					if (cursor.getIndexModifiedSequenceNo() != indexModifiedAtStart) {
+						//view index was changed while reading
+						viewModified = true;
+						break;
+					}
+					
+					useReturnMask.remove(ReadMask.INIT_POS_NOTEID);
+					
+					if (cursor.getReturnCount()==0) {
+						//no more data found
+						result = callback.lookupDone(result);
+						return result;
+					}
+					
+					firstLoopRun = false;
+					
+					if (isAutoUpdate()) {
+						if (cursor.hasAnyNonDataConflicts()) {
+							//refresh the view and restart the lookup
+							viewModified = true;
+							break;
+						}
+					}
+					
+					while (cursor.next()) {
+						Action action = callback.entryRead(result, cursor);
+						if (action==Action.Stop) {
+							result = callback.lookupDone(result);
+							return result;
+						}
+					}
+				}
+			}
+			finally {
+				cursor.free();
+			}
+			
+			if (viewModified) {
+				//view index was changed while reading; restart scan
+				callback.viewIndexChangeDetected();
+				update();
+				continue;
+			}
+		}
+	}
+	
+	/**
+	 * Calls NIFReadEntries and passes the returned buffer to the cursor
+	 * 
+	 * @param startPos start position for the scan; will be modified by the method to reflect the current position
+	 * @param skipNavigator navigator to use for the skip operation
+	 * @param skipCount number of entries to skip
+	 * @param returnNavigator navigator to use for the read operation
+	 * @param returnCount number of entries to read
+	 * @param returnMask bitmask of data to read
+	 * @param cursor cursor to reset with the read data
+	 */
+	private void readEntriesIntoCursor(NotesCollectionPosition startPos, EnumSet<Navigate> skipNavigator, int skipCount,
+			EnumSet<Navigate> returnNavigator, int returnCount, EnumSet<ReadMask> returnMask, NotesViewEntryCursor cursor) {
+		checkHandle();
+
+		IntByReference retNumEntriesSkipped = new IntByReference();
+		IntByReference retNumEntriesReturned = new IntByReference();
+		ShortByReference retSignalFlags = new ShortByReference();
+		ShortByReference retBufferLength = new ShortByReference();
+
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		short skipNavBitMask = Navigate.toBitMask(skipNavigator);
+		short returnNavBitMask = Navigate.toBitMask(returnNavigator);
+		int readMaskBitMask = ReadMask.toBitMask(returnMask);
+		
+		NotesCollectionPositionStruct startPosStruct = startPos==null ? null : startPos.getAdapter(NotesCollectionPositionStruct.class);
+		
+		short result;
+		long hBuffer;
+		if (NotesJNAContext.is64Bit()) {
+			LongByReference retBuffer = new LongByReference();
+			result = notesAPI.b64_NIFReadEntries(m_hCollection64, startPosStruct, skipNavBitMask, skipCount,
+					returnNavBitMask, returnCount, readMaskBitMask, retBuffer, retBufferLength,
+					retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags);
+			NotesErrorUtils.checkResult(result);
+			hBuffer = retBuffer.getValue();
+		}
+		else {
+			IntByReference retBuffer = new IntByReference();
+			result = notesAPI.b32_NIFReadEntries(m_hCollection32, startPosStruct, skipNavBitMask, skipCount,
+					returnNavBitMask, returnCount, readMaskBitMask, retBuffer, retBufferLength,
+					retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags);
+			NotesErrorUtils.checkResult(result);
+			hBuffer = retBuffer.getValue();
+		}
+		
+		int indexModifiedSequenceNo = getIndexModifiedSequenceNo();
+		int iBufLength = retBufferLength.getValue() & 0xffff;
+		
+		if (iBufLength==0 && hBuffer!=0) {
+			//nothing to decode, but we need to free the buffer
+			cursor.reset(hBuffer, 0, retNumEntriesSkipped.getValue(), 0, returnMask, retSignalFlags.getValue(), indexModifiedSequenceNo);
+			cursor.free();
+		}
+		else {
+			cursor.reset(iBufLength==0 ? 0 : hBuffer, iBufLength, retNumEntriesSkipped.getValue(), retNumEntriesReturned.getValue(),
+					returnMask, retSignalFlags.getValue(), indexModifiedSequenceNo);
+		}
+	}
+	
+	/**
+	 * Range of top level entries that is read by one thread in
+	 * {@link NotesCollection#parallelScan(int, int, boolean, EnumSet, int, EnumSet, ParallelScanCallback)}
+	 * 
+	 * @author Karsten Lehmann
+	 */
+	public static class ScanPartition {
+		private int m_index;
+		private int m_firstTopLevelPosition;
+		private int m_lastTopLevelPosition;
+		
+		public ScanPartition(int index, int firstTopLevelPosition, int lastTopLevelPosition) {
+			m_index = index;
+			m_firstTopLevelPosition = firstTopLevelPosition;
+			m_lastTopLevelPosition = lastTopLevelPosition;
+		}
+		
+		/**
+		 * Returns the 0-based index of the partition
+		 * 
+		 * @return index
+		 */
+		public int getIndex() {
+			return m_index;
+		}
+		
+		/**
+		 * Returns the position of the first top level entry of this partition (1-based)
+		 * 
+		 * @return position
+		 */
+		public int getFirstTopLevelPosition() {
+			return m_firstTopLevelPosition;
+		}
+		
+		/**
+		 * Returns the position of the last top level entry of this partition (1-based, inclusive)
+		 * 
+		 * @return position
+		 */
+		public int getLastTopLevelPosition() {
+			return m_lastTopLevelPosition;
+		}
+		
+		@Override
+		public String toString() {
+			return "ScanPartition [index="+m_index+", first="+m_firstTopLevelPosition+", last="+m_lastTopLevelPosition+"]";
+		}
+	}
+	
+	/**
+	 * Callback base class for {@link NotesCollection#parallelScan(int, int, boolean, EnumSet, int, EnumSet, ParallelScanCallback)}
+	 * 
+	 * @author Karsten Lehmann
+	 *
+	 * @param <T> type of partition result
+	 * @param <R> type of combined result
+	 */
+	public static abstract class ParallelScanCallback<T,R> {
+		
+		/**
+		 * Method is called before reading the partitions
+		 * 
+		 * @return initial combined result
+		 */
+		public abstract R startingScan();
+		
+		/**
+		 * Implement this method to create the lookup callback for a partition. The method is
+		 * called in the caller thread, while the returned callback is used in the thread that reads
+		 * the partition. Use a new instance per partition.
+		 * 
+		 * @param partition partition
+		 * @return callback
+		 */
+		public abstract ViewLookupCallback<T> createPartitionCallback(ScanPartition partition);
+		
+		/**
+		 * Implement this method to merge the result of a partition into the combined result.
+		 * The method is called in the caller thread.
+		 * 
+		 * @param result combined result
+		 * @param partition partition
+		 * @param partitionResult result of {@link ViewLookupCallback#lookupDone(Object)} for the partition
+		 * @return new combined result
+		 */
+		public abstract R partitionDone(R result, ScanPartition partition, T partitionResult);
+		
+		/**
+		 * Method is called when all partitions have been read
+		 * 
+		 * @param result combined result
+		 * @return result or transformed result
+		 */
+		public R scanDone(R result) {
+			return result;
+		}
+	}
+	
+	/**
+	 * Reads the collection in parallel threads. The collection is split into ranges of top level entries
+	 * (which are the categories in a categorized view). Each range is read by a pool thread that opens its
+	 * own handles for the database and collection, using the same user context as this collection.<br>
+	 * <br>
+	 * Each partition is read like {@link #getAllEntries(String, int, EnumSet, int, EnumSet, ViewLookupCallback)},
+	 * so view index changes restart the read of the partition, but the partitions are not a consistent
+	 * snapshot of the whole collection. The partition collections use the default view sorting and do
+	 * not see the selected or expanded entries of this collection.
+	 * 
+	 * @param partitionCount number of partitions or 0 to use a small multiple of <code>threadCount</code>, so that threads that finish early can read another partition
+	 * @param threadCount maximum number of threads to read partitions
+	 * @param ordered true to call {@link ParallelScanCallback#partitionDone(Object, ScanPartition, Object)} in partition order, false to call it as soon as a partition is done
+	 * @param returnNav navigator to specify how to move in the collection, e.g. {@link Navigate#NEXT}; descending navigators are not supported
+	 * @param preloadEntryCount amount of entries that is read from the view per call
+	 * @param returnMask values to extract, {@link ReadMask#INDEXPOSITION} is always read
+	 * @param callback callback to create partition callbacks and combine their results
+	 * @return combined result
+	 * 
+	 * @param <T> type of partition result
+	 * @param <R> type of combined result
+	 */
+	public <T,R> R parallelScan(int partitionCount, int threadCount, boolean ordered, EnumSet<Navigate> returnNav,
+			int preloadEntryCount, EnumSet<ReadMask> returnMask, ParallelScanCallback<T,R> callback) {
+		checkHandle();
+		
+		if (isDescendingNav(returnNav))
+			throw new IllegalArgumentException("Descending navigators are not supported for parallel scans: "+returnNav);
+		
+		NotesCollectionParallelScan scan = new NotesCollectionParallelScan(this);
+		List<ScanPartition> partitions = NotesCollectionParallelScan.computePartitions(getTopLevelEntries(), partitionCount, threadCount);
+		return scan.scan(partitions, threadCount, ordered, returnNav, preloadEntryCount, returnMask, callback);
+	}
+	
 	/**
 	 * Returns all view entries matching the specified search key(s) in the collection.
 	 * It internally takes care of view index changes while reading view data and restarts
@@ -3185,11 +3636,11 @@ public class NotesCollection implements IRecyclableNotesObject {
 	}
 	
 	/**
-	 * Unfinished alternative lookup method
+	 * Creates a query on this collection. Key lookups, sorting and note id criteria are
+	 * pushed to NIF where possible, see {@link com.mindoo.domino.jna.queries.condition.internal.SelectionEvaluator}.
 	 * 
 	 * @param column first column to return
 	 * @param columns other columns to return
-	 * @deprecated not ready for prime time, does nothing
 	 * @return selection
 	 */
 	public Selection select(String column, String... columns) {
@@ -3203,7 +3654,7 @@ public class NotesCollection implements IRecyclableNotesObject {
 		}
 	
 		String[] columnsArr = columnsList.toArray(new String[columnsList.size()]);
-		return new Selection(columnsArr);
+		return new Selection(this, columnsArr);
 	}
 
 	@Override
@@ -3262,14 +3713,11 @@ public class NotesCollection implements IRecyclableNotesObject {
 			final Set<Integer> retIds = new TreeSet<Integer>();
 			
 			NotesSearch.search(m_parentDb, idTable, formula, "-",
-					EnumSet.of(Search.SESSION_USERNAME), EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchCallback() {
+					EnumSet.of(Search.SESSION_USERNAME), EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchMatchCallback() {
 						
 						@Override
-						public Action noteFound(NotesDatabase parentDb, int noteId,
-								NotesOriginatorId oid, EnumSet<NoteClass> noteClass,
-								EnumSet<NoteFlags> flags, NotesTimeDate dbCreated,
-								NotesTimeDate noteModified, ItemTableData summaryBufferData) {
-							retIds.add(noteId);
+						public Action noteFound(NotesDatabase parentDb, NotesSearch.SearchMatch match) {
+							retIds.add(match.getNoteId());
 							return Action.Continue;
 						}
 					});
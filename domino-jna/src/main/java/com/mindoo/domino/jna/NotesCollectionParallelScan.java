@@ -0,0 +1,312 @@
+package com.mindoo.domino.jna;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.mindoo.domino.jna.NotesCollection.ParallelScanCallback;
+import com.mindoo.domino.jna.NotesCollection.ScanPartition;
+import com.mindoo.domino.jna.NotesCollection.ViewLookupCallback;
+import com.mindoo.domino.jna.NotesCollection.ViewLookupCallbackWrapper;
+import com.mindoo.domino.jna.constants.Navigate;
+import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.gc.NotesGC;
+
+/**
+ * Implementation of {@link NotesCollection#parallelScan(int, int, boolean, EnumSet, int, EnumSet, ParallelScanCallback)}.<br>
+ * <br>
+ * The collection is split into ranges of top level entries. The ranges are read by {@link NotesWorkerPool}
+ * workers that open their own database and collection handle within {@link NotesGC#runWithAutoGC(java.util.concurrent.Callable)},
+ * so all handles are released when the worker is done. Each worker reads the next unread range until all
+ * ranges are done.
+ *
+ * @author Karsten Lehmann
+ */
+class NotesCollectionParallelScan {
+	/** number of partitions per thread if no partition count is specified */
+	static final int DEFAULT_PARTITIONS_PER_THREAD = 4;
+
+	private final NotesWorkerPool m_workerPool;
+	private final int m_viewNoteId;
+	private final boolean m_autoUpdate;
+	private final AtomicBoolean m_cancelled = new AtomicBoolean();
+	private final AtomicReference<Throwable> m_error = new AtomicReference<Throwable>();
+
+	/**
+	 * Reads everything we need to reopen the collection in other threads
+	 *
+	 * @param col collection
+	 */
+	public NotesCollectionParallelScan(NotesCollection col) {
+		m_workerPool = new NotesWorkerPool(col.getParent(), "parallel scan");
+		m_viewNoteId = col.getNoteId();
+		m_autoUpdate = col.isAutoUpdate();
+	}
+
+	/**
+	 * Splits the top level entries into ranges of about the same size
+	 *
+	 * @param topLevelEntries number of top level entries
+	 * @param partitionCount number of partitions or 0 for {@link #DEFAULT_PARTITIONS_PER_THREAD} partitions per thread
+	 * @param threadCount number of threads
+	 * @return partitions
+	 */
+	static List<ScanPartition> computePartitions(int topLevelEntries, int partitionCount, int threadCount) {
+		List<ScanPartition> partitions = new ArrayList<ScanPartition>();
+		if (topLevelEntries==0) {
+			return partitions;
+		}
+
+		if (partitionCount<=0) {
+			partitionCount = Math.max(1, threadCount) * DEFAULT_PARTITIONS_PER_THREAD;
+		}
+		int usePartitionCount = Math.min(partitionCount, topLevelEntries);
+		int entriesPerPartition = topLevelEntries / usePartitionCount;
+		int remainder = topLevelEntries % usePartitionCount;
+
+		int firstPos = 1;
+		for (int i=0; i<usePartitionCount; i++) {
+			//distribute the remainder over the first partitions
+			int size = entriesPerPartition + (i<remainder ? 1 : 0);
+			partitions.add(new ScanPartition(i, firstPos, firstPos + size - 1));
+			firstPos += size;
+		}
+		return partitions;
+	}
+
+	/**
+	 * Reads the partitions
+	 *
+	 * @param partitions partitions
+	 * @param threadCount number of threads
+	 * @param ordered true to pass the partition results to the callback in partition order
+	 * @param returnNav navigator to specify how to move in the collection
+	 * @param preloadEntryCount amount of entries that is read from the view per NIFReadEntries call
+	 * @param returnMask values to extract
+	 * @param callback callback
+	 * @return combined result
+	 *
+	 * @param <T> type of partition result
+	 * @param <R> type of combined result
+	 */
+	public <T,R> R scan(final List<ScanPartition> partitions, int threadCount, boolean ordered,
+			final EnumSet<Navigate> returnNav, final int preloadEntryCount, EnumSet<ReadMask> returnMask,
+			ParallelScanCallback<T,R> callback) {
+
+		final EnumSet<ReadMask> useReturnMask = returnMask.clone();
+		//we need the position to detect the end of a partition
+		useReturnMask.add(ReadMask.INDEXPOSITION);
+
+		R result = callback.startingScan();
+		if (partitions.isEmpty()) {
+			return callback.scanDone(result);
+		}
+
+		//create the partition callbacks in the caller thread
+		final List<ViewLookupCallback<T>> partitionCallbacks = new ArrayList<ViewLookupCallback<T>>(partitions.size());
+		for (ScanPartition currPartition : partitions) {
+			partitionCallbacks.add(new PartitionCallback<T>(callback.createPartitionCallback(currPartition),
+					currPartition.getLastTopLevelPosition()));
+		}
+
+		final AtomicInteger nextPartition = new AtomicInteger();
+		final BlockingQueue<PartitionResult<T>> doneQueue = new LinkedBlockingQueue<PartitionResult<T>>();
+
+		NotesWorkerPool.Workers workers = m_workerPool.start(Math.max(1, Math.min(threadCount, partitions.size())),
+				new NotesWorkerPool.WorkerTask() {
+
+			@Override
+			public void run(NotesDatabase db) throws Exception {
+				try {
+					NotesCollection col = db.openCollection(m_viewNoteId, null);
+					col.setAutoUpdate(m_autoUpdate);
+
+					while (!m_cancelled.get()) {
+						int partitionIdx = nextPartition.getAndIncrement();
+						if (partitionIdx >= partitions.size()) {
+							break;
+						}
+						ScanPartition partition = partitions.get(partitionIdx);
+						//skipCount 0 to include the first top level entry of the partition
+						T partitionResult = col.getAllEntries(Integer.toString(partition.getFirstTopLevelPosition()), 0, returnNav,
+								preloadEntryCount, useReturnMask.clone(), partitionCallbacks.get(partitionIdx));
+						doneQueue.add(new PartitionResult<T>(partitionIdx, partitionResult));
+					}
+				}
+				catch (Exception e) {
+					cancel(e);
+					throw e;
+				}
+				catch (Error e) {
+					cancel(e);
+					throw e;
+				}
+			}
+
+			@Override
+			public void stop() {
+				m_cancelled.set(true);
+			}
+		});
+
+		boolean success = false;
+		try {
+			//results of partitions that are done, but wait for a previous partition in ordered mode
+			List<T> orderedResults = ordered ? new ArrayList<T>(Collections.<T>nCopies(partitions.size(), null)) : null;
+			boolean[] orderedDone = ordered ? new boolean[partitions.size()] : null;
+			int nextOrderedIdx = 0;
+
+			for (int i=0; i<partitions.size(); i++) {
+				PartitionResult<T> doneResult = takeResult(doneQueue, workers);
+				//a partition that was stopped because another one failed has an incomplete result
+				checkError();
+				if (doneResult==null) {
+					//all workers have finished without an error, should not happen
+					throw new NotesError(0, "Parallel scan has finished without reading all partitions");
+				}
+
+				if (ordered) {
+					orderedResults.set(doneResult.m_partitionIdx, doneResult.m_result);
+					orderedDone[doneResult.m_partitionIdx] = true;
+					while (nextOrderedIdx < partitions.size() && orderedDone[nextOrderedIdx]) {
+						result = callback.partitionDone(result, partitions.get(nextOrderedIdx), orderedResults.get(nextOrderedIdx));
+						orderedResults.set(nextOrderedIdx, null);
+						nextOrderedIdx++;
+					}
+				}
+				else {
+					result = callback.partitionDone(result, partitions.get(doneResult.m_partitionIdx), doneResult.m_result);
+				}
+			}
+			success = true;
+		}
+		finally {
+			//stops running partitions on errors
+			m_cancelled.set(true);
+			if (success) {
+				workers.await();
+			}
+			else {
+				try {
+					workers.await();
+				}
+				catch (RuntimeException e) {
+					//the exception of the caller thread is more important
+				}
+				catch (Error e) {
+					//the exception of the caller thread is more important
+				}
+			}
+		}
+
+		return callback.scanDone(result);
+	}
+
+	/**
+	 * Waits for the next partition result
+	 *
+	 * @param doneQueue queue with partition results
+	 * @param workers workers producing the results
+	 * @return result or null if all workers have finished
+	 *
+	 * @param <T> type of partition result
+	 */
+	private <T> PartitionResult<T> takeResult(BlockingQueue<PartitionResult<T>> doneQueue, NotesWorkerPool.Workers workers) {
+		try {
+			while (true) {
+				PartitionResult<T> doneResult = doneQueue.poll(100, TimeUnit.MILLISECONDS);
+				if (doneResult!=null) {
+					return doneResult;
+				}
+				if (m_error.get()!=null) {
+					return null;
+				}
+				if (workers.isDone()) {
+					//check again, the last result may have been added after our poll
+					return doneQueue.poll();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new NotesError(0, "Interrupted while waiting for parallel scan results", e);
+		}
+	}
+
+	/**
+	 * Result of a partition read by a worker
+	 *
+	 * @param <T> type of partition result
+	 */
+	private static class PartitionResult<T> {
+		private final int m_partitionIdx;
+		private final T m_result;
+
+		public PartitionResult(int partitionIdx, T result) {
+			m_partitionIdx = partitionIdx;
+			m_result = result;
+		}
+	}
+
+	/**
+	 * Stores the first partition error and stops the other partitions
+	 *
+	 * @param t error
+	 */
+	private void cancel(Throwable t) {
+		m_error.compareAndSet(null, t);
+		m_cancelled.set(true);
+	}
+
+	/**
+	 * Throws the first partition error if a partition has failed
+	 */
+	private void checkError() {
+		Throwable t = m_error.get();
+		if (t!=null) {
+			if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			}
+			else if (t instanceof Error) {
+				throw (Error) t;
+			}
+			throw new NotesError(0, "Error reading collection partition", t);
+		}
+	}
+
+	/**
+	 * Wrapper for the partition callback that stops at the end of the partition
+	 * or when the scan has been cancelled
+	 *
+	 * @param <T> type of partition result
+	 */
+	private class PartitionCallback<T> extends ViewLookupCallbackWrapper<T> {
+		private final int m_lastTopLevelPosition;
+
+		public PartitionCallback(ViewLookupCallback<T> innerCallback, int lastTopLevelPosition) {
+			super(innerCallback);
+			m_lastTopLevelPosition = lastTopLevelPosition;
+		}
+
+		@Override
+		public Action entryRead(T result, NotesViewEntryData entryData) {
+			if (m_cancelled.get()) {
+				return Action.Stop;
+			}
+
+			int[] pos = entryData.getPosition();
+			if (pos!=null && pos.length>0 && pos[0] > m_lastTopLevelPosition) {
+				//reached the next partition
+				return Action.Stop;
+			}
+			return super.entryRead(result, entryData);
+		}
+	}
+}
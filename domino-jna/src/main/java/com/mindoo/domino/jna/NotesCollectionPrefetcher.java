@@ -0,0 +1,307 @@
+package com.mindoo.domino.jna;
+
+import java.util.EnumSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.constants.Navigate;
+import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.utils.NotesInitUtils;
+
+/**
+ * Reader thread for pipelined collection reads: calls NIFReadEntries and decodes the
+ * returned data into a bounded queue, while the lookup callback processes the previous
+ * chunk in the caller thread. On remote servers, the network roundtrip of the next read
+ * overlaps with the processing of the current entries.<br>
+ * <br>
+ * The thread stops reading after a chunk without entries, a chunk read after a view index
+ * change or a chunk with a non-data conflict (if auto update is enabled), because the caller
+ * either has finished or needs to restart the lookup. The caller stops the thread with
+ * {@link #stop()} before it restarts the lookup and can then call {@link #start} again.<br>
+ * <br>
+ * The reader runs in a shared pool of daemon threads that are initialized for Notes API calls
+ * once and terminated after being idle for a minute. It uses the auto GC scope of the caller
+ * thread (see {@link NotesGC#bindToActiveScope(Callable)}), so the collection handle is valid
+ * and scope settings like {@link com.mindoo.domino.jna.utils.NotesDateTimeUtils#isDecodeTimeDatesAsMillis()}
+ * are the same as for sequential reads.<br>
+ * <br>
+ * The collection handle is used by the reader thread while the caller thread runs the
+ * lookup callback, so the callback must not use or recycle the collection.
+ *
+ * @author Karsten Lehmann
+ */
+class NotesCollectionPrefetcher {
+	private static final AtomicInteger m_threadCounter = new AtomicInteger();
+	private static final ThreadLocal<Boolean> m_threadInitialized = new ThreadLocal<Boolean>();
+	private static volatile ExecutorService m_executor;
+
+	private final NotesCollection m_collection;
+	private final BlockingQueue<Chunk> m_queue;
+	private volatile boolean m_stopped;
+	private CountDownLatch m_readerDone;
+
+	/**
+	 * Creates a new prefetcher
+	 *
+	 * @param collection collection to read
+	 * @param queueSize max number of read chunks that are waiting to be processed
+	 */
+	public NotesCollectionPrefetcher(NotesCollection collection, int queueSize) {
+		m_collection = collection;
+		m_queue = new ArrayBlockingQueue<Chunk>(Math.max(1, queueSize));
+	}
+
+	/**
+	 * Data read by the reader thread
+	 */
+	static class Chunk {
+		private NotesViewLookupResultData m_data;
+		private int m_indexModifiedSequenceNo;
+		private Throwable m_error;
+
+		private Chunk(NotesViewLookupResultData data, int indexModifiedSequenceNo, Throwable error) {
+			m_data = data;
+			m_indexModifiedSequenceNo = indexModifiedSequenceNo;
+			m_error = error;
+		}
+
+		/**
+		 * Returns the read data
+		 *
+		 * @return data
+		 */
+		public NotesViewLookupResultData getData() {
+			return m_data;
+		}
+
+		/**
+		 * Returns the view index modified sequence number after reading the data
+		 *
+		 * @return sequence number
+		 */
+		public int getIndexModifiedSequenceNo() {
+			return m_indexModifiedSequenceNo;
+		}
+	}
+
+	/**
+	 * Starts the reader thread
+	 *
+	 * @param startPos start position for the scan; will be modified by the reader thread
+	 * @param firstSkipNav navigator to use for the skip operation of the first read
+	 * @param firstSkipCount number of entries to skip on the first read, we skip one entry on subsequent reads
+	 * @param returnNav navigator to use for the read operation
+	 * @param returnCount number of entries to read per chunk
+	 * @param returnMask bitmask of data to read
+	 * @param diffTime optional diff time for differential view reads
+	 * @param diffIDTable optional ID table for differential view reads
+	 * @param columnNumber optional number of single column to read
+	 * @param expectedIndexModifiedSequenceNo index modified sequence number at the start of the lookup
+	 */
+	public void start(final NotesCollectionPosition startPos, final EnumSet<Navigate> firstSkipNav, final int firstSkipCount,
+			final EnumSet<Navigate> returnNav, final int returnCount, final EnumSet<ReadMask> returnMask,
+			final NotesTimeDate diffTime, final NotesIDTable diffIDTable, final Integer columnNumber,
+			final int expectedIndexModifiedSequenceNo) {
+
+		if (m_readerDone!=null)
+			throw new IllegalStateException("Prefetcher has already been started");
+		m_stopped = false;
+		m_queue.clear();
+
+		final boolean autoUpdate = m_collection.isAutoUpdate();
+		//the caller thread removes INIT_POS_NOTEID from its mask after the first chunk
+		final EnumSet<ReadMask> useReturnMask = returnMask.clone();
+		if (columnNumber!=null) {
+			//load the column names in this thread
+			m_collection.getColumnName(columnNumber.intValue());
+		}
+
+		//the collection and ID table are registered in the auto GC scope of the caller
+		final Callable<Object> reader = NotesGC.bindToActiveScope(new Callable<Object>() {
+
+			@Override
+			public Object call() throws Exception {
+				readChunks(startPos, firstSkipNav, firstSkipCount, returnNav, returnCount, useReturnMask,
+						diffTime, diffIDTable, columnNumber, expectedIndexModifiedSequenceNo, autoUpdate);
+				return null;
+			}
+		});
+
+		final CountDownLatch readerDone = new CountDownLatch(1);
+		m_readerDone = readerDone;
+		getExecutor().execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					if (!Boolean.TRUE.equals(m_threadInitialized.get())) {
+						NotesInitUtils.notesInitThread();
+						m_threadInitialized.set(Boolean.TRUE);
+					}
+					reader.call();
+				}
+				catch (Throwable t) {
+					//also reached if the thread initialization fails, so the caller does not wait forever
+					put(new Chunk(null, 0, t));
+				}
+				finally {
+					readerDone.countDown();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the shared thread pool for the reader threads and creates it on first use
+	 *
+	 * @return executor
+	 */
+	private static ExecutorService getExecutor() {
+		if (m_executor==null) {
+			synchronized (NotesCollectionPrefetcher.class) {
+				if (m_executor==null) {
+					m_executor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(final Runnable r) {
+							Thread t = new Thread(new Runnable() {
+
+								@Override
+								public void run() {
+									try {
+										r.run();
+									}
+									finally {
+										if (Boolean.TRUE.equals(m_threadInitialized.get())) {
+											NotesInitUtils.notesTermThread();
+										}
+									}
+								}
+							}, "Domino JNA collection prefetcher "+m_threadCounter.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+				}
+			}
+		}
+		return m_executor;
+	}
+
+	private void readChunks(NotesCollectionPosition pos, EnumSet<Navigate> firstSkipNav, int firstSkipCount,
+			EnumSet<Navigate> returnNav, int returnCount, EnumSet<ReadMask> returnMask,
+			NotesTimeDate diffTime, NotesIDTable diffIDTable, Integer columnNumber,
+			int expectedIndexModifiedSequenceNo, boolean autoUpdate) {
+
+		EnumSet<ReadMask> useReturnMask = returnMask;
+		boolean firstLoopRun = true;
+
+		while (!m_stopped) {
+			NotesViewLookupResultData data = m_collection.readEntriesExt(pos,
+					firstLoopRun ? firstSkipNav : returnNav,
+					firstLoopRun ? firstSkipCount : 1,
+					returnNav, returnCount, useReturnMask, diffTime, diffIDTable, columnNumber);
+
+			int indexModifiedAfterDataLookup = m_collection.getIndexModifiedSequenceNo();
+
+			//make sure to only use this flag on the first lookup call
+			useReturnMask.remove(ReadMask.INIT_POS_NOTEID);
+			firstLoopRun = false;
+
+			if (!put(new Chunk(data, indexModifiedAfterDataLookup, null))) {
+				//stopped
+				return;
+			}
+
+			if (data.getReturnCount()==0 || indexModifiedAfterDataLookup!=expectedIndexModifiedSequenceNo ||
+					(autoUpdate && data.hasAnyNonDataConflicts())) {
+				//caller is done or restarts the lookup
+				return;
+			}
+		}
+	}
+
+	private boolean put(Chunk chunk) {
+		try {
+			while (!m_stopped) {
+				if (m_queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the next chunk read by the reader thread, waits until it is available
+	 *
+	 * @return chunk
+	 * @throws NotesError if reading the data failed
+	 */
+	public Chunk take() {
+		Chunk chunk;
+		try {
+			chunk = m_queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new NotesError(0, "Interrupted while waiting for collection data", e);
+		}
+
+		if (chunk.m_error!=null) {
+			if (chunk.m_error instanceof NotesError) {
+				throw (NotesError) chunk.m_error;
+			}
+			else if (chunk.m_error instanceof RuntimeException) {
+				throw (RuntimeException) chunk.m_error;
+			}
+			throw new NotesError(0, "Error reading collection data", chunk.m_error);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Checks if the reader thread has been started and not stopped yet
+	 *
+	 * @return true if started
+	 */
+	public boolean isStarted() {
+		return m_readerDone!=null;
+	}
+
+	/**
+	 * Stops the reader and waits until it has released the collection handle
+	 */
+	public void stop() {
+		m_stopped = true;
+		m_queue.clear();
+
+		if (m_readerDone!=null) {
+			boolean interrupted = false;
+			while (true) {
+				try {
+					m_readerDone.await();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			m_readerDone = null;
+			//remove chunks added while we were stopping
+			m_queue.clear();
+		}
+	}
+}
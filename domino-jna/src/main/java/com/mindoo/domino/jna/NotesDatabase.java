@@ -2032,6 +2032,27 @@ public class NotesDatabase implements IRecyclableNotesObject {
 		return endTimeDate;
 	}
 	
+	/**
+	 * Variant of {@link #search(String, String, EnumSet, EnumSet, NotesTimeDate, SearchCallback)} for scans
+	 * of many notes, e.g. to collect note ids or OIDs. The callback receives a reusable
+	 * {@link NotesSearch.SearchMatch} instead of wrapper objects created for every match,
+	 * see {@link NotesSearch#search(NotesDatabase, NotesIDTable, String, String, EnumSet, EnumSet, NotesTimeDate, NotesSearch.SearchMatchCallback)}.
+	 * 
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClassMaskEnum bitmask of noteclasses to search
+	 * @param since The date of the earliest modified note that is matched. The note's "Modified in this file" date is compared to this date. Specify NULL if you do not wish any filtering by date.
+	 * @param callback callback to be called for every found note
+	 * @return The ending (current) time/date of this search. Returned so that it can be used in a subsequent call as the "Since" argument.
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public NotesTimeDate search(final String formula, String viewTitle, final EnumSet<Search> searchFlags,
+			EnumSet<NoteClass> noteClassMaskEnum, NotesTimeDate since, final NotesSearch.SearchMatchCallback callback) throws FormulaCompilationError {
+		NotesTimeDate endTimeDate = NotesSearch.search(this, null, formula, viewTitle, searchFlags, noteClassMaskEnum, since, callback);
+		return endTimeDate;
+	}
+	
 	/**
 	 * This function scans all the notes in a database or files in a directory.<br>
 	 * <br>
@@ -2257,18 +2278,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 	
 	/**
 	 * Convenience method to convert note unids to note ids.
-	 * The method internally calls {@link NotesDatabase#getMultiNoteInfo(String[])}.
+	 * The method internally calls {@link NotesDatabase#getMultiNoteInfoColumnar(String[], int)}.
 	 * 
 	 * @param noteUnids note unids to look up
 	 * @param retNoteIdsByUnid map is populated with found note ids
 	 * @param retNoteUnidsNotFound set is populated with any note unid that could not be found
 	 */
 	public void toNoteIds(String[] noteUnids, Map<String,Integer> retNoteIdsByUnid, Set<String> retNoteUnidsNotFound) {
-		NoteInfo[] infoArr = getMultiNoteInfo(noteUnids);
+		NotesMultiNoteInfo infos = getMultiNoteInfoColumnar(noteUnids, 1);
 		for (int i=0; i<noteUnids.length; i++) {
-			NoteInfo currInfo = infoArr[i];
-			if (currInfo.exists()) {
-				retNoteIdsByUnid.put(noteUnids[i], currInfo.getNoteId());
+			if (infos.exists(i)) {
+				retNoteIdsByUnid.put(noteUnids[i], infos.getNoteId(i));
 			}
 			else {
 				retNoteUnidsNotFound.add(noteUnids[i]);
@@ -2278,18 +2298,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 	
 	/**
 	 * Convenience method to convert note ids to UNIDs.
-	 * The method internally calls {@link NotesDatabase#getMultiNoteInfo(int[])}.
+	 * The method internally calls {@link NotesDatabase#getMultiNoteInfoColumnar(int[], int)}.
 	 * 
 	 * @param noteIds note ids to look up
 	 * @param retUnidsByNoteId map is populated with found UNIDs
 	 * @param retNoteIdsNotFound set is populated with any note id that could not be found
 	 */
 	public void toUnids(int[] noteIds, Map<Integer,String> retUnidsByNoteId, Set<Integer> retNoteIdsNotFound) {
-		NoteInfo[] infoArr = getMultiNoteInfo(noteIds);
+		NotesMultiNoteInfo infos = getMultiNoteInfoColumnar(noteIds, 1);
 		for (int i=0; i<noteIds.length; i++) {
-			NoteInfo currInfo = infoArr[i];
-			if (currInfo.exists()) {
-				retUnidsByNoteId.put(noteIds[i], currInfo.getUnid());
+			if (infos.exists(i)) {
+				retUnidsByNoteId.put(noteIds[i], infos.getUnid(i));
 			}
 			else {
 				retNoteIdsNotFound.add(noteIds[i]);
@@ -2357,395 +2376,90 @@ public class NotesDatabase implements IRecyclableNotesObject {
 	 * The data returned by this method is the note id, {@link NotesOriginatorId}, which contains
 	 * the UNID of the document, the sequence number and the sequence time ("Modified initially" time).<br>
 	 * <br>
-	 * In addition, the method checks whether a document exists or has been deleted.
+	 * In addition, the method checks whether a document exists or has been deleted.<br>
+	 * <br>
+	 * Use {@link #getMultiNoteInfoColumnar(int[], int)} for large lookups to avoid creating objects per note.
 	 * 
 	 * @param noteIds array of note ids
 	 * @return lookup results, same size and order as <code>noteIds</code> array
-	 * @throws IllegalArgumentException if note id array has too many entries (more than 65535)
 	 */
 	public NoteInfo[] getMultiNoteInfo(int[] noteIds) {
-		checkHandle();
-		
-		int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-		//not more than 32767 entries and output buffer cannot exceed 64k
-		final int ENTRIESBYCALL = Math.min(65535, 64000 / entrySize);
-
-		if (noteIds.length < ENTRIESBYCALL)
-			return _getMultiNoteInfo(noteIds);
-		
-		//work around C API limit of max 65535 entries per call
-		NoteInfo[] noteInfos = new NoteInfo[noteIds.length];
-		
-		int startOffset = 0;
-		
-		while (startOffset < noteIds.length) {
-			int endOffsetExclusive = Math.min(noteIds.length, startOffset + ENTRIESBYCALL);
-			int[] currNoteIds = new int[endOffsetExclusive - startOffset];
-			System.arraycopy(noteIds, startOffset, currNoteIds, 0, endOffsetExclusive - startOffset);
-			
-			NoteInfo[] currNoteInfos = _getMultiNoteInfo(currNoteIds);
-			System.arraycopy(currNoteInfos, 0, noteInfos, startOffset, currNoteInfos.length);
-			startOffset += ENTRIESBYCALL;
-		}
-		
-		return noteInfos;
+		return toNoteInfos(getMultiNoteInfoColumnar(noteIds, 1));
 	}
 	
 	/**
 	 * This method can be used to get information for a number documents in a
-	 * database from their note ids in a single call.<br>
+	 * database from their note unids in a single call.<br>
 	 * The data returned by this method is the note id, {@link NotesOriginatorId}, which contains
 	 * the UNID of the document, the sequence number and the sequence time ("Modified initially" time).<br>
 	 * <br>
 	 * In addition, the method checks whether a document exists or has been deleted.<br>
 	 * <br>
-	 * Please note that the method can only handle max. 65535 note ids, because it's
-	 * using a WORD / short datatype for the count internally to call the C API.
+	 * Use {@link #getMultiNoteInfoColumnar(String[], int)} for large lookups to avoid creating objects per note.
 	 * 
-	 * @param noteIds array of note ids
-	 * @return lookup results, same size and order as <code>noteIds</code> array
-	 * @throws IllegalArgumentException if note id array has too many entries (more than 65535)
+	 * @param noteUNIDs array of note unids
+	 * @return lookup results, same size and order as <code>noteUNIDs</code> array
 	 */
-	private NoteInfo[] _getMultiNoteInfo(int[] noteIds) {
-
-		if (noteIds.length ==0) {
-			return new NoteInfo[0];
-		}
-		
-		if (noteIds.length > 65535) {
-			throw new IllegalArgumentException("Max 65535 note ids are supported");
-		}
-		
-		NoteInfo[] retNoteInfo;
-		
-		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
-		
-		if (NotesJNAContext.is64Bit()) {
-			LongByReference retHandle = new LongByReference();
-			short result = notesAPI.b64_OSMemAlloc((short) 0, noteIds.length * 4, retHandle);
-			NotesErrorUtils.checkResult(result);
-
-			long retHandleLong = retHandle.getValue();
-			try {
-				Pointer inBufPtr = notesAPI.b64_OSLockObject(retHandleLong);
-				
-				Pointer currInBufPtr = inBufPtr;
-				int offset = 0;
-				
-				for (int i=0; i<noteIds.length; i++) {
-					currInBufPtr.setInt(0, noteIds[i]);
-					offset += 4;
-					currInBufPtr = inBufPtr.share(offset);
-				}
-				
-				notesAPI.b64_OSUnlockObject(retHandleLong);
-
-				IntByReference retSize = new IntByReference();
-				LongByReference rethOutBuf = new LongByReference();
-				short options = NotesCAPI.fINFO_OID | NotesCAPI.fINFO_ALLOW_HUGE | NotesCAPI.fINFO_NOTEID;
-				
-				result = notesAPI.b64_NSFDbGetMultNoteInfo(m_hDB64, (short) (noteIds.length & 0xffff), options, retHandleLong, retSize, rethOutBuf);
-				NotesErrorUtils.checkResult(result);
-
-				long rethOutBufLong = rethOutBuf.getValue();
-				
-				//decode return buffer
-				int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-				long retSizeLong = retSize.getValue();
-				if (retSizeLong != noteIds.length*entrySize) {
-					throw new IllegalStateException("Unexpected size of return data. Expected "+noteIds.length*entrySize+" bytes for data of "+noteIds.length+" ids, got "+retSizeLong+" bytes");
-				}
-				
-				Pointer outBufPtr = notesAPI.b64_OSLockObject(rethOutBuf.getValue());
-				try {
-					retNoteInfo = decodeMultiNoteLookupData(noteIds.length, outBufPtr);
-				}
-				finally {
-					notesAPI.b64_OSUnlockObject(rethOutBufLong);
-					notesAPI.b64_OSMemFree(rethOutBufLong);
-				}
-			}
-			finally {
-				notesAPI.b64_OSMemFree(retHandleLong);
-			}
-		}
-		else {
-			IntByReference retHandle = new IntByReference();
-			short result = notesAPI.b32_OSMemAlloc((short) 0, noteIds.length * 4, retHandle);
-			NotesErrorUtils.checkResult(result);
-
-			int retHandleInt = retHandle.getValue();
-			try {
-				Pointer inBufPtr = notesAPI.b32_OSLockObject(retHandleInt);
-				
-				Pointer currInBufPtr = inBufPtr;
-				int offset = 0;
-				
-				for (int i=0; i<noteIds.length; i++) {
-					currInBufPtr.setInt(0, noteIds[i]);
-					offset += 4;
-					currInBufPtr = inBufPtr.share(offset);
-				}
-				
-				notesAPI.b32_OSUnlockObject(retHandleInt);
-
-				IntByReference retSize = new IntByReference();
-				IntByReference rethOutBuf = new IntByReference();
-				short options = NotesCAPI.fINFO_OID | NotesCAPI.fINFO_ALLOW_HUGE | NotesCAPI.fINFO_NOTEID;
-				
-				result = notesAPI.b32_NSFDbGetMultNoteInfo(m_hDB32, (short) (noteIds.length & 0xffff), options, retHandleInt, retSize, rethOutBuf);
-				NotesErrorUtils.checkResult(result);
-
-				int rethOutBufInt = rethOutBuf.getValue();
-				
-				//decode return buffer
-				int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-				long retSizeLong = retSize.getValue();
-				if (retSizeLong != noteIds.length*entrySize) {
-					throw new IllegalStateException("Unexpected size of return data. Expected "+noteIds.length*entrySize+" bytes for data of "+noteIds.length+" ids, got "+retSizeLong+" bytes");
-				}
-				
-				Pointer outBufPtr = notesAPI.b32_OSLockObject(rethOutBuf.getValue());
-				try {
-					retNoteInfo = decodeMultiNoteLookupData(noteIds.length, outBufPtr);
-				}
-				finally {
-					notesAPI.b32_OSUnlockObject(rethOutBufInt);
-					notesAPI.b32_OSMemFree(rethOutBufInt);
-				}
-			}
-			finally {
-				notesAPI.b32_OSMemFree(retHandleInt);
-			}
-		}
-
-		return retNoteInfo;
+	public NoteInfo[] getMultiNoteInfo(String[] noteUNIDs) {
+		return toNoteInfos(getMultiNoteInfoColumnar(noteUNIDs, 1));
 	}
 	
 	/**
-	 * This method can be used to get information for a number documents in a
-	 * database from their note unids in a single call.<br>
-	 * The data returned by this method is the note id, {@link NotesOriginatorId}, which contains
-	 * the UNID of the document, the sequence number and the sequence time ("Modified initially" time).<br>
+	 * Looks up the note id, UNID, sequence number and sequence time for any number of notes by their note ids
+	 * and returns the data in primitive arrays.<br>
 	 * <br>
-	 * In addition, the method checks whether a document exists or has been deleted.<br>
+	 * The note ids are split into chunks for NSFDbGetMultNoteInfo, see
+	 * {@link NotesMultiNoteInfoLookup#PROP_NOTEIDS_PER_CALL} to change the chunk size. With a <code>threadCount</code>
+	 * greater than 1, the chunks are read in parallel by pool threads that open their own handle for this
+	 * database with the same user context.
 	 * 
-	 * @param noteUNIDs array of note unids
-	 * @return lookup results, same size and order as <code>noteUNIDs</code> array
-	 * @throws IllegalArgumentException if note unid array has too many entries (more than 32767)
+	 * @param noteIds note ids
+	 * @param threadCount number of threads to read chunks in parallel, 1 to read them in the current thread
+	 * @return lookup results, same size and order as <code>noteIds</code> array
 	 */
-	public NoteInfo[] getMultiNoteInfo(String[] noteUNIDs) {
+	public NotesMultiNoteInfo getMultiNoteInfoColumnar(int[] noteIds, int threadCount) {
 		checkHandle();
-
-		int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-		//not more than 32767 entries and output buffer cannot exceed 64k
-		final int ENTRIESBYCALL = Math.min(32767, 64000 / entrySize);
-		
-		if (noteUNIDs.length < ENTRIESBYCALL)
-			return _getMultiNoteInfo(noteUNIDs);
-		
-		//work around C API limit of max 32767 entries per call
-		NoteInfo[] noteInfos = new NoteInfo[noteUNIDs.length];
-		
-		int startOffset = 0;
-		
-		while (startOffset < noteUNIDs.length) {
-			int endOffsetExclusive = Math.min(noteUNIDs.length, startOffset + ENTRIESBYCALL);
-			String[] currNoteUNIDs = new String[endOffsetExclusive - startOffset];
-			System.arraycopy(noteUNIDs, startOffset, currNoteUNIDs, 0, endOffsetExclusive - startOffset);
-			
-			NoteInfo[] currNoteInfos = _getMultiNoteInfo(currNoteUNIDs);
-			System.arraycopy(currNoteInfos, 0, noteInfos, startOffset, currNoteInfos.length);
-			startOffset += ENTRIESBYCALL;
-		}
-		
-		return noteInfos;
+		return NotesMultiNoteInfoLookup.byNoteIds(this, noteIds).read(threadCount);
 	}
 	
 	/**
-	 * This method can be used to get information for a number documents in a
-	 * database from their note unids in a single call.<br>
-	 * The data returned by this method is the note id, {@link NotesOriginatorId}, which contains
-	 * the UNID of the document, the sequence number and the sequence time ("Modified initially" time).<br>
-	 * <br>
-	 * In addition, the method checks whether a document exists or has been deleted.<br>
+	 * Looks up the note id, UNID, sequence number and sequence time for any number of notes by their UNIDs
+	 * and returns the data in primitive arrays.<br>
 	 * <br>
-	 * Please note that the method can only handle max. 32767 note ids in one call.
+	 * The UNIDs are split into chunks for NSFDbGetMultNoteInfoByUNID, see
+	 * {@link NotesMultiNoteInfoLookup#PROP_UNIDS_PER_CALL} to change the chunk size. With a <code>threadCount</code>
+	 * greater than 1, the chunks are read in parallel by pool threads that open their own handle for this
+	 * database with the same user context.
 	 * 
-	 * @param noteUNIDs array of note unids
+	 * @param noteUNIDs note unids
+	 * @param threadCount number of threads to read chunks in parallel, 1 to read them in the current thread
 	 * @return lookup results, same size and order as <code>noteUNIDs</code> array
-	 * @throws IllegalArgumentException if note unid array has too many entries (more than 32767)
 	 */
-	private NoteInfo[] _getMultiNoteInfo(String[] noteUNIDs) {
-		if (noteUNIDs.length ==0) {
-			return new NoteInfo[0];
-		}
-		
-		if (noteUNIDs.length > 32767) {
-			throw new IllegalArgumentException("Max 32767 note ids are supported");
-		}
-		
-		NoteInfo[] retNoteInfo;
-		
-		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
-		
-		if (NotesJNAContext.is64Bit()) {
-			LongByReference retHandle = new LongByReference();
-			short result = notesAPI.b64_OSMemAlloc((short) 0, noteUNIDs.length * 16, retHandle);
-			NotesErrorUtils.checkResult(result);
-
-			long retHandleLong = retHandle.getValue();
-			try {
-				Pointer inBufPtr = notesAPI.b64_OSLockObject(retHandleLong);
-				
-				Pointer currInBufPtr = inBufPtr;
-				int offset = 0;
-				
-				for (int i=0; i<noteUNIDs.length; i++) {
-					NotesStringUtils.unidToPointer(noteUNIDs[i], currInBufPtr);
-					offset += 16;
-					currInBufPtr = inBufPtr.share(offset);
-				}
-				
-				notesAPI.b64_OSUnlockObject(retHandleLong);
-
-				IntByReference retSize = new IntByReference();
-				LongByReference rethOutBuf = new LongByReference();
-				short options = NotesCAPI.fINFO_OID | NotesCAPI.fINFO_ALLOW_HUGE | NotesCAPI.fINFO_NOTEID;
-				
-				result = notesAPI.b64_NSFDbGetMultNoteInfoByUNID(m_hDB64, (short) (noteUNIDs.length & 0xffff),
-						options, retHandleLong, retSize, rethOutBuf);
-
-				NotesErrorUtils.checkResult(result);
-
-				long rethOutBufLong = rethOutBuf.getValue();
-				
-				//decode return buffer
-				int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-				long retSizeLong = retSize.getValue();
-				if (retSizeLong != noteUNIDs.length*entrySize) {
-					throw new IllegalStateException("Unexpected size of return data. Expected "+noteUNIDs.length*entrySize+" bytes for data of "+noteUNIDs.length+" ids, got "+retSizeLong+" bytes");
-				}
-				
-				Pointer outBufPtr = notesAPI.b64_OSLockObject(rethOutBuf.getValue());
-				try {
-					retNoteInfo = decodeMultiNoteLookupData(noteUNIDs.length, outBufPtr);
-				}
-				finally {
-					notesAPI.b64_OSUnlockObject(rethOutBufLong);
-					notesAPI.b64_OSMemFree(rethOutBufLong);
-				}
-			}
-			finally {
-				notesAPI.b64_OSMemFree(retHandleLong);
-			}
-		}
-		else {
-			IntByReference retHandle = new IntByReference();
-			short result = notesAPI.b32_OSMemAlloc((short) 0, noteUNIDs.length * 16, retHandle);
-			NotesErrorUtils.checkResult(result);
-
-			int retHandleInt = retHandle.getValue();
-			try {
-				Pointer inBufPtr = notesAPI.b32_OSLockObject(retHandleInt);
-				
-				Pointer currInBufPtr = inBufPtr;
-				int offset = 0;
-				
-				for (int i=0; i<noteUNIDs.length; i++) {
-					NotesStringUtils.unidToPointer(noteUNIDs[i], currInBufPtr);
-					offset += 16;
-					currInBufPtr = inBufPtr.share(offset);
-				}
-				
-				notesAPI.b32_OSUnlockObject(retHandleInt);
-
-				IntByReference retSize = new IntByReference();
-				IntByReference rethOutBuf = new IntByReference();
-				short options = NotesCAPI.fINFO_OID | NotesCAPI.fINFO_ALLOW_HUGE | NotesCAPI.fINFO_NOTEID;
-				
-				result = notesAPI.b32_NSFDbGetMultNoteInfoByUNID(m_hDB32, (short) (noteUNIDs.length & 0xffff),
-						options, retHandleInt, retSize, rethOutBuf);
-				NotesErrorUtils.checkResult(result);
-
-				int rethOutBufInt = rethOutBuf.getValue();
-				
-				//decode return buffer
-				int entrySize = 4 /* note id */ + NotesCAPI.oidSize;
-				long retSizeLong = retSize.getValue();
-				if (retSizeLong != noteUNIDs.length*entrySize) {
-					throw new IllegalStateException("Unexpected size of return data. Expected "+noteUNIDs.length*entrySize+" bytes for data of "+noteUNIDs.length+" ids, got "+retSizeLong+" bytes");
-				}
-				
-				Pointer outBufPtr = notesAPI.b32_OSLockObject(rethOutBuf.getValue());
-				try {
-					retNoteInfo = decodeMultiNoteLookupData(noteUNIDs.length, outBufPtr);
-				}
-				finally {
-					notesAPI.b32_OSUnlockObject(rethOutBufInt);
-					notesAPI.b32_OSMemFree(rethOutBufInt);
-				}
-			}
-			finally {
-				notesAPI.b32_OSMemFree(retHandleInt);
-			}
-		}
-
-		return retNoteInfo;
+	public NotesMultiNoteInfo getMultiNoteInfoColumnar(String[] noteUNIDs, int threadCount) {
+		checkHandle();
+		return NotesMultiNoteInfoLookup.byUnids(this, noteUNIDs).read(threadCount);
 	}
-
+	
 	/**
-	 * Helper method to extract the return data of method {@link #getMultiNoteInfo(int[])} or {@link #getMultiNoteInfo(String[])}
+	 * Helper method to convert the result of {@link #getMultiNoteInfoColumnar(int[], int)} or
+	 * {@link #getMultiNoteInfoColumnar(String[], int)} to note info objects
 	 * 
-	 * @param nrOfElements number of list elements
-	 * @param outBufPtr buffer pointer
+	 * @param multiNoteInfo lookup result
 	 * @return array of note info objects
 	 */
-	private NoteInfo[] decodeMultiNoteLookupData(int nrOfElements, Pointer outBufPtr) {
-		NoteInfo[] retNoteInfo = new NoteInfo[nrOfElements];
+	private NoteInfo[] toNoteInfos(NotesMultiNoteInfo multiNoteInfo) {
+		NoteInfo[] retNoteInfo = new NoteInfo[multiNoteInfo.size()];
 		
-		Pointer entryBufPtr = outBufPtr;
-		
-		for (int i=0; i<nrOfElements; i++) {
-			int offsetInEntry = 0;
-			
-			int currNoteId = entryBufPtr.getInt(0);
-
-			offsetInEntry += 4;
-
-			Pointer fileTimeDatePtr = entryBufPtr.share(offsetInEntry);
-			NotesTimeDateStruct fileTimeDate = NotesTimeDateStruct.newInstance(fileTimeDatePtr);
-			fileTimeDate.read();
-			
-			offsetInEntry += 8;
-			
-			Pointer noteTimeDatePtr = entryBufPtr.share(offsetInEntry);
-			NotesTimeDateStruct noteTimeDate = NotesTimeDateStruct.newInstance(noteTimeDatePtr);
-			noteTimeDate.read();
+		for (int i=0; i<retNoteInfo.length; i++) {
+			int[] oidInnards = multiNoteInfo.getOIDInnards(i);
 			
-			offsetInEntry += 8;
+			NotesOriginatorIdStruct oid = NotesOriginatorIdStruct.newInstance(
+					NotesTimeDateStruct.newInstance(new int[] {oidInnards[0], oidInnards[1]}),
+					NotesTimeDateStruct.newInstance(new int[] {oidInnards[2], oidInnards[3]}),
+					oidInnards[4],
+					NotesTimeDateStruct.newInstance(new int[] {oidInnards[5], oidInnards[6]}));
 			
-			int sequence = entryBufPtr.getInt(offsetInEntry);
-
-			offsetInEntry += 4;
-			
-			Pointer sequenceTimePtr = entryBufPtr.share(offsetInEntry);
-			NotesTimeDateStruct sequenceTimeDate = NotesTimeDateStruct.newInstance(sequenceTimePtr);
-			sequenceTimeDate.read();
-			
-			offsetInEntry += 8;
-
-			NotesOriginatorIdStruct oid = NotesOriginatorIdStruct.newInstance();
-			oid.File = fileTimeDate;
-			oid.Note = noteTimeDate;
-			oid.Sequence = sequence;
-			oid.SequenceTime = sequenceTimeDate;
-			
-			entryBufPtr = entryBufPtr.share(offsetInEntry);
-			
-			boolean isDeleted = (currNoteId & NotesCAPI.NOTEID_RESERVED) == NotesCAPI.NOTEID_RESERVED;
-			boolean isNotPresent = currNoteId==0;
-			retNoteInfo[i] = new NoteInfo(currNoteId, oid, isDeleted, isNotPresent);
+			retNoteInfo[i] = new NoteInfo(multiNoteInfo.getNoteId(i), oid, multiNoteInfo.isDeleted(i), !multiNoteInfo.exists(i));
 		}
 		return retNoteInfo;
 	}
@@ -3116,6 +2830,13 @@ public class NotesDatabase implements IRecyclableNotesObject {
 	 */
 	public static interface INoteOpenCallback {
 		
+		/**
+		 * Method is called for each retrieved note. The note is only valid during this call.
+		 * 
+		 * @param note note or null if the note could not be opened
+		 * @param noteId note id
+		 * @param status status of opening the note, 0 for success
+		 */
 		public void noteOpened(NotesNote note, int noteId, short status);
 		
 	}
@@ -3318,11 +3039,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 
 						@Override
 						public short invoke(Pointer param, long hNote, int noteId, short status) {
-							NotesNote note = new NotesNote(NotesDatabase.this, hNote);
-							note.setNoRecycle();
+							//hNote is 0 if the note could not be opened, e.g. when using GetNotes.CONTINUE_ON_ERROR
+							NotesNote note = null;
+							if (hNote!=0) {
+								note = new NotesNote(NotesDatabase.this, hNote);
+								note.setNoRecycle();
+							}
 							
 							try {
-								NotesGC.__objectCreated(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectCreated(NotesNote.class, note);
+								}
 								noteOpenCallback.noteOpened(note, noteId, status);
 								return 0;
 							}
@@ -3335,7 +3062,9 @@ public class NotesDatabase implements IRecyclableNotesObject {
 								return INotesErrorConstants.ERR_CANCEL;
 							}
 							finally {
-								NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								}
 							}
 						}
 					};
@@ -3345,11 +3074,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 
 						@Override
 						public short invoke(Pointer param, long hNote, int noteId, short status) {
-							NotesNote note = new NotesNote(NotesDatabase.this, hNote);
-							note.setNoRecycle();
+							//hNote is 0 if the note could not be opened, e.g. when using GetNotes.CONTINUE_ON_ERROR
+							NotesNote note = null;
+							if (hNote!=0) {
+								note = new NotesNote(NotesDatabase.this, hNote);
+								note.setNoRecycle();
+							}
 
 							try {
-								NotesGC.__objectCreated(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectCreated(NotesNote.class, note);
+								}
 								noteOpenCallback.noteOpened(note, noteId, status);
 								return 0;
 							}
@@ -3362,7 +3097,9 @@ public class NotesDatabase implements IRecyclableNotesObject {
 								return INotesErrorConstants.ERR_CANCEL;
 							}
 							finally {
-								NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								}
 							}
 						}
 						
@@ -3537,11 +3274,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 
 						@Override
 						public short invoke(Pointer param, int hNote, int noteId, short status) {
-							NotesNote note = new NotesNote(NotesDatabase.this, hNote);
-							note.setNoRecycle();
+							//hNote is 0 if the note could not be opened, e.g. when using GetNotes.CONTINUE_ON_ERROR
+							NotesNote note = null;
+							if (hNote!=0) {
+								note = new NotesNote(NotesDatabase.this, hNote);
+								note.setNoRecycle();
+							}
 
 							try {
-								NotesGC.__objectCreated(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectCreated(NotesNote.class, note);
+								}
 								noteOpenCallback.noteOpened(note, noteId, status);
 								return 0;
 							}
@@ -3554,7 +3297,9 @@ public class NotesDatabase implements IRecyclableNotesObject {
 								return INotesErrorConstants.ERR_CANCEL;
 							}
 							finally {
-								NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								}
 							}
 						}
 						
@@ -3565,11 +3310,17 @@ public class NotesDatabase implements IRecyclableNotesObject {
 
 						@Override
 						public short invoke(Pointer param, int hNote, int noteId, short status) {
-							NotesNote note = new NotesNote(NotesDatabase.this, hNote);
-							note.setNoRecycle();
+							//hNote is 0 if the note could not be opened, e.g. when using GetNotes.CONTINUE_ON_ERROR
+							NotesNote note = null;
+							if (hNote!=0) {
+								note = new NotesNote(NotesDatabase.this, hNote);
+								note.setNoRecycle();
+							}
 
 							try {
-								NotesGC.__objectCreated(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectCreated(NotesNote.class, note);
+								}
 								noteOpenCallback.noteOpened(note, noteId, status);
 								return 0;
 							}
@@ -3582,7 +3333,9 @@ public class NotesDatabase implements IRecyclableNotesObject {
 								return INotesErrorConstants.ERR_CANCEL;
 							}
 							finally {
-								NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								if (note!=null) {
+									NotesGC.__objectBeeingBeRecycled(NotesNote.class, note);
+								}
 							}
 						}
 						
@@ -0,0 +1,1179 @@
+package com.mindoo.domino.jna;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import com.mindoo.domino.jna.internal.MappedFileUtils;
+
+/**
+ * Compressed set of note ids on the Java heap, an alternative to {@link NotesIDTable}
+ * for set algebra that does not need native handles.<br>
+ * <br>
+ * Note ids are multiples of 4, so the set stores <code>noteId &gt;&gt;&gt; 2</code>. Like in
+ * Roaring bitmaps, the upper 14 bits of this value select a container for up to 65536
+ * ids. Containers with up to 4096 ids store them as sorted <code>char</code> array, larger
+ * containers use a bitmap of 8 KB. Both are far smaller than a <code>Set&lt;Integer&gt;</code>
+ * and set operations work on whole containers or bitmap words.<br>
+ * <br>
+ * The set keeps the inverted and modified flags and the time of an ID table, so
+ * {@link #fromIDTable(NotesIDTable)} and {@link #toIDTable()} convert without losing data.
+ * Ids with the high order bit set are sorted after all other ids, as unsigned values.<br>
+ * <br>
+ * Sets can be written to a file with {@link #writeTo(File)} and used without loading
+ * via {@link MappedNotesIDSet}.<br>
+ * <br>
+ * Instances are not thread-safe.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesIDSet {
+	static final int ARRAY_MAX_SIZE = 4096;
+	static final int BITMAP_WORDS = 1024;
+
+	private char[] m_keys;
+	private Container[] m_containers;
+	private int m_size;
+	private boolean m_inverted;
+	private boolean m_modified;
+	private NotesTimeDate m_time;
+
+	/**
+	 * Creates a new empty set
+	 */
+	public NotesIDSet() {
+		m_keys = new char[4];
+		m_containers = new Container[4];
+	}
+
+	/**
+	 * Creates a new set with the specified note ids
+	 *
+	 * @param noteIds note ids, do not have to be sorted
+	 */
+	public NotesIDSet(int[] noteIds) {
+		this();
+		addAll(noteIds);
+	}
+
+	/**
+	 * Reads the content and flags of an ID table
+	 *
+	 * @param table ID table
+	 * @return set
+	 */
+	public static NotesIDSet fromIDTable(NotesIDTable table) {
+		NotesIDSet set = new NotesIDSet(table.toArray());
+		set.m_inverted = table.isInverted();
+		set.m_modified = table.isModified();
+		set.m_time = table.getTime();
+		return set;
+	}
+
+	/**
+	 * Creates a new ID table with the content and flags of this set
+	 *
+	 * @return ID table
+	 */
+	public NotesIDTable toIDTable() {
+		NotesIDTable table = new NotesIDTable(toArray());
+		if (m_inverted) {
+			table.setInverted(true);
+		}
+		if (m_modified) {
+			table.setModified(true);
+		}
+		if (m_time!=null) {
+			table.setTime(m_time);
+		}
+		return table;
+	}
+
+	/**
+	 * Checks if the set should be inverted, see {@link NotesIDTable#isInverted()}
+	 *
+	 * @return true if inverted
+	 */
+	public boolean isInverted() {
+		return m_inverted;
+	}
+
+	/**
+	 * Sets the inverted flag, see {@link NotesIDTable#setInverted(boolean)}
+	 *
+	 * @param inverted true if inverted
+	 */
+	public void setInverted(boolean inverted) {
+		m_inverted = inverted;
+	}
+
+	/**
+	 * Returns the modified flag, see {@link NotesIDTable#isModified()}
+	 *
+	 * @return modified flag
+	 */
+	public boolean isModified() {
+		return m_modified;
+	}
+
+	/**
+	 * Sets the modified flag, see {@link NotesIDTable#setModified(boolean)}
+	 *
+	 * @param modified true if modified
+	 */
+	public void setModified(boolean modified) {
+		m_modified = modified;
+	}
+
+	/**
+	 * Returns the time of the set, see {@link NotesIDTable#getTime()}
+	 *
+	 * @return time or null if not set
+	 */
+	public NotesTimeDate getTime() {
+		return m_time;
+	}
+
+	/**
+	 * Sets the time of the set, see {@link NotesIDTable#setTime(NotesTimeDate)}
+	 *
+	 * @param time time or null
+	 */
+	public void setTime(NotesTimeDate time) {
+		m_time = time;
+	}
+
+	private static int toIndex(int noteId) {
+		if ((noteId & 3) != 0)
+			throw new IllegalArgumentException("Note id must be a multiple of 4: "+noteId);
+		return noteId >>> 2;
+	}
+
+	private static int toNoteId(int key, int low) {
+		return ((key << 16) | low) << 2;
+	}
+
+	private int findKey(char key) {
+		return Arrays.binarySearch(m_keys, 0, m_size, key);
+	}
+
+	private void insertContainer(int pos, char key, Container container) {
+		if (m_size == m_keys.length) {
+			int newCapacity = m_keys.length * 2;
+			m_keys = Arrays.copyOf(m_keys, newCapacity);
+			m_containers = Arrays.copyOf(m_containers, newCapacity);
+		}
+		System.arraycopy(m_keys, pos, m_keys, pos+1, m_size - pos);
+		System.arraycopy(m_containers, pos, m_containers, pos+1, m_size - pos);
+		m_keys[pos] = key;
+		m_containers[pos] = container;
+		m_size++;
+	}
+
+	private void removeContainer(int pos) {
+		System.arraycopy(m_keys, pos+1, m_keys, pos, m_size - pos - 1);
+		System.arraycopy(m_containers, pos+1, m_containers, pos, m_size - pos - 1);
+		m_size--;
+		m_containers[m_size] = null;
+	}
+
+	private void appendContainer(char key, Container container) {
+		if (container.getCardinality()>0) {
+			insertContainer(m_size, key, container);
+		}
+	}
+
+	/**
+	 * Adds a note id
+	 *
+	 * @param noteId note id
+	 * @return true if added, false if the set already contained the id
+	 */
+	public boolean add(int noteId) {
+		int idx = toIndex(noteId);
+		char key = (char) (idx >>> 16);
+		char low = (char) idx;
+
+		int pos = findKey(key);
+		if (pos >= 0) {
+			Container container = m_containers[pos];
+			int oldCardinality = container.getCardinality();
+			m_containers[pos] = container.add(low);
+			return m_containers[pos].getCardinality() != oldCardinality;
+		}
+		else {
+			insertContainer(-pos - 1, key, new ArrayContainer().add(low));
+			return true;
+		}
+	}
+
+	/**
+	 * Adds an array of note ids. Sorted arrays are added fastest.
+	 *
+	 * @param noteIds note ids
+	 */
+	public void addAll(int[] noteIds) {
+		for (int currNoteId : noteIds) {
+			add(currNoteId);
+		}
+	}
+
+	/**
+	 * Removes a note id
+	 *
+	 * @param noteId note id
+	 * @return true if removed, false if the set did not contain the id
+	 */
+	public boolean remove(int noteId) {
+		int idx = toIndex(noteId);
+		int pos = findKey((char) (idx >>> 16));
+		if (pos < 0) {
+			return false;
+		}
+
+		Container container = m_containers[pos];
+		int oldCardinality = container.getCardinality();
+		Container newContainer = container.remove((char) idx);
+		if (newContainer.getCardinality()==0) {
+			removeContainer(pos);
+		}
+		else {
+			m_containers[pos] = newContainer;
+		}
+		return newContainer.getCardinality() != oldCardinality;
+	}
+
+	/**
+	 * Checks if the set contains a note id
+	 *
+	 * @param noteId note id
+	 * @return true if contained
+	 */
+	public boolean contains(int noteId) {
+		if ((noteId & 3) != 0) {
+			return false;
+		}
+		int idx = noteId >>> 2;
+		int pos = findKey((char) (idx >>> 16));
+		return pos >= 0 && m_containers[pos].contains((char) idx);
+	}
+
+	/**
+	 * Removes all note ids. Flags and time are not changed.
+	 */
+	public void clear() {
+		Arrays.fill(m_containers, 0, m_size, null);
+		m_size = 0;
+	}
+
+	/**
+	 * Checks if the set is empty
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return m_size == 0;
+	}
+
+	/**
+	 * Returns the number of note ids in the set
+	 *
+	 * @return count
+	 */
+	public int getCount() {
+		int count = 0;
+		for (int i=0; i<m_size; i++) {
+			count += m_containers[i].getCardinality();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of note ids in the set that are lower or equal than the
+	 * specified note id
+	 *
+	 * @param noteId note id
+	 * @return rank
+	 */
+	public int rank(int noteId) {
+		int idx = noteId >>> 2;
+		char key = (char) (idx >>> 16);
+		char low = (char) idx;
+
+		int rank = 0;
+		for (int i=0; i<m_size; i++) {
+			if (m_keys[i] < key) {
+				rank += m_containers[i].getCardinality();
+			}
+			else {
+				if (m_keys[i] == key) {
+					rank += m_containers[i].rank(low);
+				}
+				break;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the note id at the specified position in the sorted set
+	 *
+	 * @param index position, starting with 0
+	 * @return note id
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public int select(int index) {
+		if (index < 0)
+			throw new IndexOutOfBoundsException("Index must not be negative: "+index);
+
+		int remaining = index;
+		for (int i=0; i<m_size; i++) {
+			int cardinality = m_containers[i].getCardinality();
+			if (remaining < cardinality) {
+				return toNoteId(m_keys[i], m_containers[i].select(remaining));
+			}
+			remaining -= cardinality;
+		}
+		throw new IndexOutOfBoundsException("Index "+index+" exceeds set size "+getCount());
+	}
+
+	/**
+	 * Returns the lowest note id
+	 *
+	 * @return note id
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public int getFirstId() {
+		if (m_size==0)
+			throw new NoSuchElementException("Set is empty");
+		return toNoteId(m_keys[0], m_containers[0].select(0));
+	}
+
+	/**
+	 * Returns the highest note id
+	 *
+	 * @return note id
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public int getLastId() {
+		if (m_size==0)
+			throw new NoSuchElementException("Set is empty");
+		Container last = m_containers[m_size-1];
+		return toNoteId(m_keys[m_size-1], last.select(last.getCardinality()-1));
+	}
+
+	/**
+	 * Returns a new set with all note ids that are contained in this set and the other set.
+	 * Flags and time are copied from this set.
+	 *
+	 * @param other other set
+	 * @return intersection
+	 */
+	public NotesIDSet and(NotesIDSet other) {
+		NotesIDSet result = createResultSet();
+		int i=0, j=0;
+		while (i < m_size && j < other.m_size) {
+			if (m_keys[i] < other.m_keys[j]) {
+				i++;
+			}
+			else if (m_keys[i] > other.m_keys[j]) {
+				j++;
+			}
+			else {
+				result.appendContainer(m_keys[i], m_containers[i].and(other.m_containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new set with all note ids that are contained in this set or the other set.
+	 * Flags and time are copied from this set.
+	 *
+	 * @param other other set
+	 * @return union
+	 */
+	public NotesIDSet or(NotesIDSet other) {
+		NotesIDSet result = createResultSet();
+		int i=0, j=0;
+		while (i < m_size || j < other.m_size) {
+			if (j >= other.m_size || (i < m_size && m_keys[i] < other.m_keys[j])) {
+				result.appendContainer(m_keys[i], m_containers[i].clone());
+				i++;
+			}
+			else if (i >= m_size || m_keys[i] > other.m_keys[j]) {
+				result.appendContainer(other.m_keys[j], other.m_containers[j].clone());
+				j++;
+			}
+			else {
+				result.appendContainer(m_keys[i], m_containers[i].or(other.m_containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new set with all note ids of this set that are not contained in the other set.
+	 * Flags and time are copied from this set.
+	 *
+	 * @param other other set
+	 * @return difference
+	 */
+	public NotesIDSet andNot(NotesIDSet other) {
+		NotesIDSet result = createResultSet();
+		int i=0, j=0;
+		while (i < m_size) {
+			if (j >= other.m_size || m_keys[i] < other.m_keys[j]) {
+				result.appendContainer(m_keys[i], m_containers[i].clone());
+				i++;
+			}
+			else if (m_keys[i] > other.m_keys[j]) {
+				j++;
+			}
+			else {
+				result.appendContainer(m_keys[i], m_containers[i].andNot(other.m_containers[j]));
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compares this set with another set, the pure Java equivalent of
+	 * {@link NotesIDTable#findDifferences(NotesIDTable)}
+	 *
+	 * @param other other set
+	 * @return ids only in the other set (adds), only in this set (deletes) and in both sets (same)
+	 */
+	public Differences findDifferences(NotesIDSet other) {
+		return new Differences(other.andNot(this), andNot(other), and(other));
+	}
+
+	/**
+	 * Container object with the result of {@link NotesIDSet#findDifferences(NotesIDSet)}
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static class Differences {
+		private NotesIDSet m_adds;
+		private NotesIDSet m_deletes;
+		private NotesIDSet m_same;
+
+		private Differences(NotesIDSet adds, NotesIDSet deletes, NotesIDSet same) {
+			m_adds = adds;
+			m_deletes = deletes;
+			m_same = same;
+		}
+
+		/**
+		 * Returns the ids that are only in the other set
+		 *
+		 * @return set
+		 */
+		public NotesIDSet getAdds() {
+			return m_adds;
+		}
+
+		/**
+		 * Returns the ids that are only in this set
+		 *
+		 * @return set
+		 */
+		public NotesIDSet getDeletes() {
+			return m_deletes;
+		}
+
+		/**
+		 * Returns the ids that are in both sets
+		 *
+		 * @return set
+		 */
+		public NotesIDSet getSame() {
+			return m_same;
+		}
+	}
+
+	private NotesIDSet createResultSet() {
+		NotesIDSet result = new NotesIDSet();
+		result.m_inverted = m_inverted;
+		result.m_modified = m_modified;
+		result.m_time = m_time;
+		return result;
+	}
+
+	/**
+	 * Returns all note ids in ascending (unsigned) order
+	 *
+	 * @return note ids
+	 */
+	public int[] toArray() {
+		int[] ids = new int[getCount()];
+		int offset = 0;
+		for (int i=0; i<m_size; i++) {
+			offset = m_containers[i].fill(ids, offset, m_keys[i] << 16);
+		}
+		return ids;
+	}
+
+	/**
+	 * Iterator over primitive note ids
+	 */
+	public static interface IDIterator {
+
+		/**
+		 * Checks if there are more ids
+		 *
+		 * @return true if more ids
+		 */
+		public boolean hasNext();
+
+		/**
+		 * Returns the next note id
+		 *
+		 * @return note id
+		 * @throws NoSuchElementException if there are no more ids
+		 */
+		public int next();
+	}
+
+	/**
+	 * Returns an iterator over all note ids in ascending (unsigned) order. The set must not be
+	 * modified while iterating.
+	 *
+	 * @return iterator
+	 */
+	public IDIterator iterator() {
+		return new IDIterator() {
+			//ids of the current container, decoded in one pass
+			private int[] m_buffer = new int[0];
+			private int m_bufferSize = 0;
+			private int m_bufferPos = 0;
+			private int m_containerIdx = 0;
+
+			@Override
+			public boolean hasNext() {
+				return m_bufferPos < m_bufferSize || m_containerIdx < m_size;
+			}
+
+			@Override
+			public int next() {
+				if (m_bufferPos >= m_bufferSize) {
+					if (m_containerIdx >= m_size)
+						throw new NoSuchElementException();
+
+					Container container = m_containers[m_containerIdx];
+					if (m_buffer.length < container.getCardinality()) {
+						m_buffer = new int[container.getCardinality()];
+					}
+					m_bufferSize = container.fill(m_buffer, 0, m_keys[m_containerIdx] << 16);
+					m_bufferPos = 0;
+					m_containerIdx++;
+				}
+				return m_buffer[m_bufferPos++];
+			}
+		};
+	}
+
+	@Override
+	public NotesIDSet clone() {
+		NotesIDSet clone = createResultSet();
+		clone.m_keys = Arrays.copyOf(m_keys, Math.max(4, m_size));
+		clone.m_containers = new Container[clone.m_keys.length];
+		for (int i=0; i<m_size; i++) {
+			clone.m_containers[i] = m_containers[i].clone();
+		}
+		clone.m_size = m_size;
+		return clone;
+	}
+
+	/**
+	 * Appends a container read from a file, keys must be added in ascending order
+	 *
+	 * @param key upper bits of the ids
+	 * @param values sorted lower bits
+	 */
+	void appendArrayContainer(char key, char[] values) {
+		appendContainer(key, new ArrayContainer(values, values.length));
+	}
+
+	/**
+	 * Appends a container read from a file, keys must be added in ascending order
+	 *
+	 * @param key upper bits of the ids
+	 * @param words bitmap
+	 * @param cardinality number of bits set in the bitmap
+	 */
+	void appendBitmapContainer(char key, long[] words, int cardinality) {
+		appendContainer(key, new BitmapContainer(words, cardinality));
+	}
+
+	/**
+	 * Writes the set to a file in the format described in {@link MappedNotesIDSet}. The data is
+	 * written to a temporary file first that replaces the target file when complete.
+	 *
+	 * @param file target file
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(File file) throws IOException {
+		File parentDir = file.getAbsoluteFile().getParentFile();
+		File tmpFile = new File(parentDir, file.getName()+".tmp");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 65536));
+		boolean written = false;
+		try {
+			short flags = 0;
+			if (m_inverted) {
+				flags |= MappedNotesIDSet.FLAG_INVERTED;
+			}
+			if (m_modified) {
+				flags |= MappedNotesIDSet.FLAG_MODIFIED;
+			}
+			int[] timeInnards = m_time==null ? new int[2] : m_time.getInnards();
+			if (m_time!=null) {
+				flags |= MappedNotesIDSet.FLAG_HASTIME;
+			}
+
+			out.writeInt(MappedNotesIDSet.MAGIC);
+			out.writeShort(MappedNotesIDSet.VERSION);
+			out.writeShort(flags);
+			out.writeInt(timeInnards[0]);
+			out.writeInt(timeInnards[1]);
+			out.writeInt(m_size);
+			out.writeInt(getCount());
+			out.writeLong(0);
+
+			//directory
+			int dataOffset = MappedNotesIDSet.HEADER_SIZE + m_size * MappedNotesIDSet.DIRECTORY_ENTRY_SIZE;
+			for (int i=0; i<m_size; i++) {
+				Container container = m_containers[i];
+				boolean isBitmap = container instanceof BitmapContainer;
+
+				out.writeChar(m_keys[i]);
+				out.writeShort(isBitmap ? MappedNotesIDSet.TYPE_BITMAP : MappedNotesIDSet.TYPE_ARRAY);
+				out.writeInt(container.getCardinality());
+				out.writeInt(dataOffset);
+				dataOffset += isBitmap ? 8 * BITMAP_WORDS : 2 * container.getCardinality();
+			}
+
+			//container data
+			for (int i=0; i<m_size; i++) {
+				Container container = m_containers[i];
+				if (container instanceof BitmapContainer) {
+					for (long currWord : ((BitmapContainer) container).m_words) {
+						out.writeLong(currWord);
+					}
+				}
+				else {
+					ArrayContainer arrContainer = (ArrayContainer) container;
+					for (int j=0; j<arrContainer.m_cardinality; j++) {
+						out.writeChar(arrContainer.m_values[j]);
+					}
+				}
+			}
+			out.close();
+
+			MappedFileUtils.replaceFile(tmpFile, file);
+			written = true;
+		}
+		finally {
+			if (!written) {
+				try {
+					out.close();
+				}
+				catch (IOException e) {
+					//keep the original error
+				}
+				tmpFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Reads a set written by {@link #writeTo(File)} into the Java heap. To work on the file
+	 * without copying it, use {@link MappedNotesIDSet#open(File)}.
+	 *
+	 * @param file file
+	 * @return set
+	 * @throws IOException in case of I/O errors or if the file has an unsupported format
+	 */
+	public static NotesIDSet readFrom(File file) throws IOException {
+		MappedNotesIDSet mappedSet = MappedNotesIDSet.open(file);
+		try {
+			return mappedSet.toIDSet();
+		}
+		finally {
+			mappedSet.close();
+		}
+	}
+
+	/**
+	 * Compares the note ids of two sets; flags and time are ignored
+	 *
+	 * @param o other object
+	 * @return true if same ids
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o==this) {
+			return true;
+		}
+		if (!(o instanceof NotesIDSet)) {
+			return false;
+		}
+		NotesIDSet other = (NotesIDSet) o;
+		if (m_size != other.m_size) {
+			return false;
+		}
+		for (int i=0; i<m_size; i++) {
+			if (m_keys[i]!=other.m_keys[i] || !m_containers[i].equalsContainer(other.m_containers[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		IDIterator it = iterator();
+		while (it.hasNext()) {
+			hash = 31 * hash + it.next();
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "NotesIDSet [count="+getCount()+", containers="+m_size+", inverted="+m_inverted+", modified="+m_modified+"]";
+	}
+
+	/**
+	 * Storage for the lower 16 bits of up to 65536 ids with the same upper bits
+	 */
+	private static abstract class Container implements Cloneable {
+
+		public abstract int getCardinality();
+
+		public abstract boolean contains(char low);
+
+		/**
+		 * Adds a value
+		 *
+		 * @param low value
+		 * @return this container or a new container if the type changed
+		 */
+		public abstract Container add(char low);
+
+		/**
+		 * Removes a value
+		 *
+		 * @param low value
+		 * @return this container or a new container if the type changed
+		 */
+		public abstract Container remove(char low);
+
+		/**
+		 * Returns the number of values lower or equal than the specified value
+		 *
+		 * @param low value
+		 * @return rank
+		 */
+		public abstract int rank(char low);
+
+		/**
+		 * Returns the value at a position
+		 *
+		 * @param index position
+		 * @return value
+		 */
+		public abstract int select(int index);
+
+		public abstract Container and(Container other);
+
+		public abstract Container or(Container other);
+
+		public abstract Container andNot(Container other);
+
+		/**
+		 * Writes the note ids to an array
+		 *
+		 * @param ids target array
+		 * @param offset offset in the target array
+		 * @param high upper bits of the ids
+		 * @return new offset
+		 */
+		public abstract int fill(int[] ids, int offset, int high);
+
+		public boolean equalsContainer(Container other) {
+			if (getCardinality() != other.getCardinality()) {
+				return false;
+			}
+			int[] values = new int[getCardinality()];
+			int[] otherValues = new int[getCardinality()];
+			fill(values, 0, 0);
+			other.fill(otherValues, 0, 0);
+			return Arrays.equals(values, otherValues);
+		}
+
+		@Override
+		public abstract Container clone();
+	}
+
+	/**
+	 * Container with a sorted array of values, used for up to {@link NotesIDSet#ARRAY_MAX_SIZE} values
+	 */
+	private static class ArrayContainer extends Container {
+		private char[] m_values;
+		private int m_cardinality;
+
+		public ArrayContainer() {
+			m_values = new char[4];
+		}
+
+		public ArrayContainer(char[] values, int cardinality) {
+			m_values = values;
+			m_cardinality = cardinality;
+		}
+
+		@Override
+		public int getCardinality() {
+			return m_cardinality;
+		}
+
+		@Override
+		public boolean contains(char low) {
+			return Arrays.binarySearch(m_values, 0, m_cardinality, low) >= 0;
+		}
+
+		@Override
+		public Container add(char low) {
+			//fast path for ascending inserts
+			int pos;
+			if (m_cardinality==0 || m_values[m_cardinality-1] < low) {
+				pos = m_cardinality;
+			}
+			else {
+				pos = Arrays.binarySearch(m_values, 0, m_cardinality, low);
+				if (pos >= 0) {
+					return this;
+				}
+				pos = -pos - 1;
+			}
+
+			if (m_cardinality >= ARRAY_MAX_SIZE) {
+				return toBitmap().add(low);
+			}
+			if (m_cardinality == m_values.length) {
+				m_values = Arrays.copyOf(m_values, Math.min(ARRAY_MAX_SIZE, m_values.length * 2));
+			}
+			System.arraycopy(m_values, pos, m_values, pos+1, m_cardinality - pos);
+			m_values[pos] = low;
+			m_cardinality++;
+			return this;
+		}
+
+		@Override
+		public Container remove(char low) {
+			int pos = Arrays.binarySearch(m_values, 0, m_cardinality, low);
+			if (pos >= 0) {
+				System.arraycopy(m_values, pos+1, m_values, pos, m_cardinality - pos - 1);
+				m_cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		public int rank(char low) {
+			int pos = Arrays.binarySearch(m_values, 0, m_cardinality, low);
+			return pos >= 0 ? pos + 1 : -pos - 1;
+		}
+
+		@Override
+		public int select(int index) {
+			return m_values[index];
+		}
+
+		private BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer();
+			for (int i=0; i<m_cardinality; i++) {
+				bitmap.set(m_values[i]);
+			}
+			return bitmap;
+		}
+
+		@Override
+		public Container and(Container other) {
+			char[] result = new char[Math.min(m_cardinality, other.getCardinality())];
+			int count = 0;
+			if (other instanceof ArrayContainer) {
+				ArrayContainer otherArr = (ArrayContainer) other;
+				int i=0, j=0;
+				while (i < m_cardinality && j < otherArr.m_cardinality) {
+					char v1 = m_values[i];
+					char v2 = otherArr.m_values[j];
+					if (v1 < v2) {
+						i++;
+					}
+					else if (v1 > v2) {
+						j++;
+					}
+					else {
+						result[count++] = v1;
+						i++;
+						j++;
+					}
+				}
+			}
+			else {
+				for (int i=0; i<m_cardinality; i++) {
+					if (other.contains(m_values[i])) {
+						result[count++] = m_values[i];
+					}
+				}
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		public Container or(Container other) {
+			if (other instanceof BitmapContainer) {
+				return other.or(this);
+			}
+
+			ArrayContainer otherArr = (ArrayContainer) other;
+			char[] result = new char[m_cardinality + otherArr.m_cardinality];
+			int count = 0;
+			int i=0, j=0;
+			while (i < m_cardinality || j < otherArr.m_cardinality) {
+				if (j >= otherArr.m_cardinality || (i < m_cardinality && m_values[i] < otherArr.m_values[j])) {
+					result[count++] = m_values[i++];
+				}
+				else if (i >= m_cardinality || m_values[i] > otherArr.m_values[j]) {
+					result[count++] = otherArr.m_values[j++];
+				}
+				else {
+					result[count++] = m_values[i];
+					i++;
+					j++;
+				}
+			}
+			if (count > ARRAY_MAX_SIZE) {
+				return new ArrayContainer(result, count).toBitmap();
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		public Container andNot(Container other) {
+			char[] result = new char[m_cardinality];
+			int count = 0;
+			for (int i=0; i<m_cardinality; i++) {
+				if (!other.contains(m_values[i])) {
+					result[count++] = m_values[i];
+				}
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		public int fill(int[] ids, int offset, int high) {
+			for (int i=0; i<m_cardinality; i++) {
+				ids[offset++] = (high | m_values[i]) << 2;
+			}
+			return offset;
+		}
+
+		@Override
+		public Container clone() {
+			return new ArrayContainer(Arrays.copyOf(m_values, Math.max(4, m_cardinality)), m_cardinality);
+		}
+	}
+
+	/**
+	 * Container with a bitmap of all 65536 possible values, used for more than
+	 * {@link NotesIDSet#ARRAY_MAX_SIZE} values
+	 */
+	private static class BitmapContainer extends Container {
+		private long[] m_words;
+		private int m_cardinality;
+
+		public BitmapContainer() {
+			m_words = new long[BITMAP_WORDS];
+		}
+
+		public BitmapContainer(long[] words, int cardinality) {
+			m_words = words;
+			m_cardinality = cardinality;
+		}
+
+		private void set(char low) {
+			int wordIdx = low >>> 6;
+			long mask = 1L << low;
+			if ((m_words[wordIdx] & mask) == 0) {
+				m_words[wordIdx] |= mask;
+				m_cardinality++;
+			}
+		}
+
+		@Override
+		public int getCardinality() {
+			return m_cardinality;
+		}
+
+		@Override
+		public boolean contains(char low) {
+			return (m_words[low >>> 6] & (1L << low)) != 0;
+		}
+
+		@Override
+		public Container add(char low) {
+			set(low);
+			return this;
+		}
+
+		@Override
+		public Container remove(char low) {
+			int wordIdx = low >>> 6;
+			long mask = 1L << low;
+			if ((m_words[wordIdx] & mask) != 0) {
+				m_words[wordIdx] &= ~mask;
+				m_cardinality--;
+				if (m_cardinality <= ARRAY_MAX_SIZE) {
+					return toArrayContainer();
+				}
+			}
+			return this;
+		}
+
+		@Override
+		public int rank(char low) {
+			int wordIdx = low >>> 6;
+			int rank = 0;
+			for (int i=0; i<wordIdx; i++) {
+				rank += Long.bitCount(m_words[i]);
+			}
+			//mask with all bits up to and including low; overflows to -1 for bit 63
+			long mask = (2L << (low & 63)) - 1;
+			rank += Long.bitCount(m_words[wordIdx] & mask);
+			return rank;
+		}
+
+		@Override
+		public int select(int index) {
+			int remaining = index;
+			for (int i=0; i<BITMAP_WORDS; i++) {
+				int bitCount = Long.bitCount(m_words[i]);
+				if (remaining < bitCount) {
+					long word = m_words[i];
+					for (int j=0; j<remaining; j++) {
+						//clear lowest set bit
+						word &= word - 1;
+					}
+					return (i << 6) + Long.numberOfTrailingZeros(word);
+				}
+				remaining -= bitCount;
+			}
+			throw new IndexOutOfBoundsException("Index "+index+" exceeds container size "+m_cardinality);
+		}
+
+		private ArrayContainer toArrayContainer() {
+			char[] values = new char[m_cardinality];
+			int count = 0;
+			for (int i=0; i<BITMAP_WORDS; i++) {
+				long word = m_words[i];
+				while (word != 0) {
+					values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, count);
+		}
+
+		private static Container fromWords(long[] words) {
+			int cardinality = 0;
+			for (long currWord : words) {
+				cardinality += Long.bitCount(currWord);
+			}
+			BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+			return cardinality <= ARRAY_MAX_SIZE ? bitmap.toArrayContainer() : bitmap;
+		}
+
+		@Override
+		public Container and(Container other) {
+			if (other instanceof ArrayContainer) {
+				return other.and(this);
+			}
+			long[] otherWords = ((BitmapContainer) other).m_words;
+			long[] words = new long[BITMAP_WORDS];
+			for (int i=0; i<BITMAP_WORDS; i++) {
+				words[i] = m_words[i] & otherWords[i];
+			}
+			return fromWords(words);
+		}
+
+		@Override
+		public Container or(Container other) {
+			BitmapContainer result = (BitmapContainer) clone();
+			if (other instanceof ArrayContainer) {
+				ArrayContainer otherArr = (ArrayContainer) other;
+				for (int i=0; i<otherArr.m_cardinality; i++) {
+					result.set(otherArr.m_values[i]);
+				}
+				return result;
+			}
+			long[] otherWords = ((BitmapContainer) other).m_words;
+			int cardinality = 0;
+			for (int i=0; i<BITMAP_WORDS; i++) {
+				result.m_words[i] |= otherWords[i];
+				cardinality += Long.bitCount(result.m_words[i]);
+			}
+			result.m_cardinality = cardinality;
+			return result;
+		}
+
+		@Override
+		public Container andNot(Container other) {
+			long[] words = m_words.clone();
+			if (other instanceof ArrayContainer) {
+				ArrayContainer otherArr = (ArrayContainer) other;
+				for (int i=0; i<otherArr.m_cardinality; i++) {
+					char low = otherArr.m_values[i];
+					words[low >>> 6] &= ~(1L << low);
+				}
+			}
+			else {
+				long[] otherWords = ((BitmapContainer) other).m_words;
+				for (int i=0; i<BITMAP_WORDS; i++) {
+					words[i] &= ~otherWords[i];
+				}
+			}
+			return fromWords(words);
+		}
+
+		@Override
+		public int fill(int[] ids, int offset, int high) {
+			for (int i=0; i<BITMAP_WORDS; i++) {
+				long word = m_words[i];
+				while (word != 0) {
+					ids[offset++] = (high | ((i << 6) + Long.numberOfTrailingZeros(word))) << 2;
+					word &= word - 1;
+				}
+			}
+			return offset;
+		}
+
+		@Override
+		public Container clone() {
+			return new BitmapContainer(m_words.clone(), m_cardinality);
+		}
+	}
+}
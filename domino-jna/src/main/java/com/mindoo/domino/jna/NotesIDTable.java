@@ -1,5 +1,7 @@
 package com.mindoo.domino.jna;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -10,8 +12,6 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.EnumSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -27,7 +27,6 @@ import com.mindoo.domino.jna.gc.NotesGC;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.internal.NotesCAPI.IdEnumerateProc;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
-import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemTableData;
 import com.mindoo.domino.jna.internal.WinNotesCAPI;
 import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
 import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
@@ -105,11 +104,7 @@ public class NotesIDTable implements IRecyclableNotesObject {
 	 */
 	public NotesIDTable(int [] ids) {
 		this();
-		List<Integer> idsAsList = new ArrayList<Integer>(ids.length);
-		for (int i=0; i<ids.length; i++) {
-			idsAsList.add(Integer.valueOf(ids[i]));
-		}
-		addNotes(idsAsList, true);
+		addNotes(ids.clone(), ids.length, true);
 	}
 	
 	/**
@@ -282,6 +277,25 @@ public class NotesIDTable implements IRecyclableNotesObject {
 		addNotes(noteIds, addToEnd);
 	}
 
+	/**
+	 * Adds an array of note ids to this id table. The array does not have to be sorted.<br>
+	 * <br>
+	 * The IDs are sorted in a copy of the array and inserted with one IDInsertRange call per range of
+	 * consecutive IDs, so no boxing is done. The C API has no function to insert an array of IDs, so
+	 * sparse IDs still need one call per ID; enable direct mapping via
+	 * {@link NotesJNAContext#setUseDirectMapping(boolean)} to reduce the cost per call.
+	 * 
+	 * @param noteIds ids to add
+	 */
+	public void addNotes(int[] noteIds) {
+		boolean addToEnd = false;
+		if (getCount()==0) {
+			addToEnd = true;
+		}
+		
+		addNotes(noteIds.clone(), noteIds.length, addToEnd);
+	}
+	
 	/**
 	 * Method to add a list of note ids. Method is private to prevent
 	 * wrong usage by setting <i>addToEnd</i> to true when it's not ok.
@@ -290,84 +304,81 @@ public class NotesIDTable implements IRecyclableNotesObject {
 	 * @param addToEnd set to true if we can <b>guarantee</b> that the ids we add are higher that the highest IDs in the table
 	 */
 	private void addNotes(Collection<Integer> noteIds, boolean addToEnd) {
+		int[] noteIdsArr = new int[noteIds.size()];
+		int len = 0;
+		for (Integer currNoteId : noteIds) {
+			if (currNoteId!=null) {
+				noteIdsArr[len++] = currNoteId.intValue();
+			}
+		}
+		addNotes(noteIdsArr, len, addToEnd);
+	}
+	
+	/**
+	 * Method to add an array of note ids. Method is private to prevent
+	 * wrong usage by setting <i>addToEnd</i> to true when it's not ok.
+	 * 
+	 * @param noteIdsArr ids to add, array gets sorted
+	 * @param len number of ids in the array to use
+	 * @param addToEnd set to true if we can <b>guarantee</b> that the ids we add are higher that the highest IDs in the table
+	 */
+	private void addNotes(int[] noteIdsArr, int len, boolean addToEnd) {
 		checkHandle();
+		if (len==0) {
+			return;
+		}
 		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
 		
-		//check if Set is already sorted
-		Integer lastVal = null;
-		Iterator<Integer> idsIt = noteIds.iterator();
+		//check if array is already sorted
 		boolean isSorted = true;
-		while (idsIt.hasNext()) {
-			Integer currVal = idsIt.next();
-			if (lastVal!=null && currVal!=null) {
-				if (lastVal.intValue() > currVal.intValue()) {
-					isSorted = false;
-					break;
-				}
-
+		for (int i=1; i<len; i++) {
+			if (noteIdsArr[i-1] > noteIdsArr[i]) {
+				isSorted = false;
+				break;
 			}
-			lastVal = currVal;
 		}
-		Integer[] noteIdsArr = noteIds.toArray(new Integer[noteIds.size()]);
 		if (!isSorted) {
-			Arrays.sort(noteIdsArr);
+			Arrays.sort(noteIdsArr, 0, len);
 		}
 		
-		LinkedList<Integer> currIdRange = new LinkedList<Integer>();
-		
 		//find consecutive id ranges
-		for (int i=0; i<noteIdsArr.length; i++) {
+		int rangeStart = noteIdsArr[0];
+		int rangeEnd = rangeStart;
+		
+		for (int i=1; i<len; i++) {
 			int currNoteId = noteIdsArr[i];
-			if (currIdRange.isEmpty()) {
-				currIdRange.add(currNoteId);
+			if (currNoteId == rangeEnd) {
+				//skip duplicates
+				continue;
+			}
+			
+			if (currNoteId == (rangeEnd + 4)) {
+				rangeEnd = currNoteId;
 			}
 			else {
-				Integer highestRangeId = currIdRange.getLast();
-				if (currNoteId == (highestRangeId.intValue() + 4)) {
-					currIdRange.add(currNoteId);
-				}
-				else {
-					if (currIdRange.size()==1) {
-						addNote(currIdRange.getFirst());
-					}
-					else {
-						short result;
-						
-						if (NotesJNAContext.is64Bit()) {
-							result = notesAPI.b64_IDInsertRange(m_idTableHandle64, currIdRange.getFirst(), currIdRange.getLast(), addToEnd);
-							
-						}
-						else {
-							result = notesAPI.b32_IDInsertRange(m_idTableHandle32, currIdRange.getFirst(), currIdRange.getLast(), addToEnd);
-						}
-						
-						NotesErrorUtils.checkResult(result);
-					}
-					//flush range list
-					currIdRange.clear();
-					currIdRange.add(currNoteId);
-				}
+				insertRange(notesAPI, rangeStart, rangeEnd, addToEnd);
+				rangeStart = currNoteId;
+				rangeEnd = currNoteId;
 			}
-			
 		}
-		
-		if (!currIdRange.isEmpty()) {
-			if (currIdRange.size()==1) {
-				addNote(currIdRange.getFirst());
+		insertRange(notesAPI, rangeStart, rangeEnd, addToEnd);
+	}
+	
+	private void insertRange(NotesCAPI notesAPI, int idFrom, int idTo, boolean addToEnd) {
+		if (idFrom==idTo) {
+			addNote(idFrom);
+		}
+		else {
+			short result;
+			
+			if (NotesJNAContext.is64Bit()) {
+				result = notesAPI.b64_IDInsertRange(m_idTableHandle64, idFrom, idTo, addToEnd);
 			}
 			else {
-				short result;
-				
-				if (NotesJNAContext.is64Bit()) {
-					result = notesAPI.b64_IDInsertRange(m_idTableHandle64, currIdRange.getFirst(), currIdRange.getLast(), addToEnd);
-					
-				}
-				else {
-					result = notesAPI.b32_IDInsertRange(m_idTableHandle32, currIdRange.getFirst(), currIdRange.getLast(), addToEnd);
-				}
-				
-				NotesErrorUtils.checkResult(result);
+				result = notesAPI.b32_IDInsertRange(m_idTableHandle32, idFrom, idTo, addToEnd);
 			}
+			
+			NotesErrorUtils.checkResult(result);
 		}
 	}
 	
@@ -381,6 +392,17 @@ public class NotesIDTable implements IRecyclableNotesObject {
 			removeNote(currNoteId.intValue());
 		}
 	}
+	
+	/**
+	 * Removes an array of note ids from this id table
+	 * 
+	 * @param noteIds ids to remove
+	 */
+	public void removeNotes(int[] noteIds) {
+		for (int currNoteId : noteIds) {
+			removeNote(currNoteId);
+		}
+	}
 
 	/**
 	 * Removes the note ids of another id table from this table
@@ -803,35 +825,85 @@ public class NotesIDTable implements IRecyclableNotesObject {
 	 * @return list
 	 */
 	public List<Integer> toList() {
-		final List<Integer> idsAsList = new ArrayList<Integer>();
-		
-		enumerate(new IEnumerateCallback() {
-
-			@Override
-			public Action noteVisited(int noteId) {
-				idsAsList.add(noteId);
-				return Action.Continue;
-			}
-		});
-		
+		int[] idsArr = toArray();
+		List<Integer> idsAsList = new ArrayList<Integer>(idsArr.length);
+		for (int i=0; i<idsArr.length; i++) {
+			idsAsList.add(Integer.valueOf(idsArr[i]));
+		}
 		return idsAsList;
 	}
 	
 	/**
-	 * Converts the content of this id table to an array of int
+	 * Converts the content of this id table to an array of int.<br>
+	 * <br>
+	 * The IDs are read with one IDScan call per ID from Java instead of using {@link #enumerate(IEnumerateCallback)},
+	 * which avoids a native-to-Java callback per ID. The memory layout of ID tables is not documented,
+	 * so it cannot be copied in one operation; enable direct mapping via
+	 * {@link NotesJNAContext#setUseDirectMapping(boolean)} to reduce the cost per call.
 	 * 
 	 * @return int array
 	 */
 	public int[] toArray() {
-		List<Integer> idsAsList = toList();
-		int[] idsArr = new int[idsAsList.size()];
+		checkHandle();
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		
+		int[] idsArr = new int[getCount()];
+		int len = 0;
+		
+		IntByReference retID = new IntByReference();
+		boolean first = true;
 		
-		for (int i=0; i<idsAsList.size(); i++) {
-			idsArr[i] = idsAsList.get(i).intValue();
+		if (NotesJNAContext.is64Bit()) {
+			while (notesAPI.b64_IDScan(m_idTableHandle64, first, retID)) {
+				first = false;
+				if (len == idsArr.length) {
+					idsArr = Arrays.copyOf(idsArr, Math.max(16, idsArr.length * 2));
+				}
+				idsArr[len++] = retID.getValue();
+			}
+		}
+		else {
+			while (notesAPI.b32_IDScan(m_idTableHandle32, first, retID)) {
+				first = false;
+				if (len == idsArr.length) {
+					idsArr = Arrays.copyOf(idsArr, Math.max(16, idsArr.length * 2));
+				}
+				idsArr[len++] = retID.getValue();
+			}
 		}
-		return idsArr;
+		
+		return len == idsArr.length ? idsArr : Arrays.copyOf(idsArr, len);
 	}
 
+	/**
+	 * Writes the content, flags and time of this table to a file that can be read via
+	 * {@link #readFrom(File)} or without loading via {@link MappedNotesIDSet#open(File)}
+	 * 
+	 * @param file target file
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(File file) throws IOException {
+		NotesIDSet.fromIDTable(this).writeTo(file);
+	}
+	
+	/**
+	 * Creates a new ID table with the content, flags and time stored in a file
+	 * written by {@link #writeTo(File)} or {@link NotesIDSet#writeTo(File)}
+	 * 
+	 * @param file file
+	 * @return ID table
+	 * @throws IOException in case of I/O errors or if the file has an unsupported format
+	 */
+	public static NotesIDTable readFrom(File file) throws IOException {
+		MappedNotesIDSet mappedSet = MappedNotesIDSet.open(file);
+		try {
+			return mappedSet.toIDTable();
+		}
+		finally {
+			mappedSet.close();
+		}
+	}
+	
 	/**
 	 * Callback interface for ID table scanning
 	 * 
@@ -1217,14 +1289,16 @@ public class NotesIDTable implements IRecyclableNotesObject {
 	 * @return ID table
 	 */
 	public NotesIDTable withHighOrderBit() {
-		List<Integer> ids = toList();
+		int[] ids = toArray();
 		
-		for (int i=0; i<ids.size(); i++) {
-			long currId = ids.get(i) | NotesCAPI.NOTEID_RESERVED;
-			ids.set(i, (int) (currId & 0xffffffffL));
+		for (int i=0; i<ids.length; i++) {
+			long currId = ids[i] | NotesCAPI.NOTEID_RESERVED;
+			ids[i] = (int) (currId & 0xffffffffL);
 		}
 		
-		return new NotesIDTable(ids);
+		NotesIDTable table = new NotesIDTable();
+		table.addNotes(ids, ids.length, true);
+		return table;
 	}
 	
 	/**
@@ -1242,14 +1316,11 @@ public class NotesIDTable implements IRecyclableNotesObject {
 				final Set<Integer> retIds = new TreeSet<Integer>();
 				
 				NotesSearch.search(db, NotesIDTable.this, formula, "-", EnumSet.of(Search.SESSION_USERNAME),
-						EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchCallback() {
+						EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchMatchCallback() {
 
 					@Override
-					public Action noteFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid,
-							EnumSet<NoteClass> noteClass,
-							EnumSet<NoteFlags> flags, NotesTimeDate dbCreated,
-							NotesTimeDate noteModified, ItemTableData summaryBufferData) {
-						retIds.add(noteId);
+					public Action noteFound(NotesDatabase parentDb, NotesSearch.SearchMatch match) {
+						retIds.add(match.getNoteId());
 						return Action.Continue;
 					}
 				});
@@ -1279,14 +1350,11 @@ public class NotesIDTable implements IRecyclableNotesObject {
 
 			@Override
 			public Object run() {
-				NotesSearch.search(db, NotesIDTable.this, formula, "", EnumSet.of(Search.SESSION_USERNAME), EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchCallback() {
+				NotesSearch.search(db, NotesIDTable.this, formula, "", EnumSet.of(Search.SESSION_USERNAME), EnumSet.of(NoteClass.DOCUMENT), null, new NotesSearch.SearchMatchCallback() {
 
 					@Override
-					public Action noteFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid,
-							EnumSet<NoteClass> noteClass,
-							EnumSet<NoteFlags> flags, NotesTimeDate dbCreated,
-							NotesTimeDate noteModified, ItemTableData summaryBufferData) {
-						retIds.add(noteId);
+					public Action noteFound(NotesDatabase parentDb, NotesSearch.SearchMatch match) {
+						retIds.add(match.getNoteId());
 						return Action.Continue;
 					}
 				});
@@ -0,0 +1,374 @@
+package com.mindoo.domino.jna;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.mindoo.domino.jna.errors.INotesErrorConstants;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.errors.NotesErrorUtils;
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesCAPI.NoteNsfItemScanProc;
+import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.WinNotesCAPI;
+import com.mindoo.domino.jna.utils.NotesStringUtils;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+/**
+ * Reads the values of a fixed set of items from notes with a single scan of the item table
+ * (NSFItemScan) instead of one NSFItemInfo lookup per item.<br>
+ * <br>
+ * The item names are converted to LMBCS once when the reader is created, so one reader should
+ * be reused for many notes. The raw item values are copied during the scan and only decoded when
+ * they are read from the {@link ItemValues} object.<br>
+ * <br>
+ * If a note contains multiple items with the same name, only the first one is read like in
+ * {@link NotesNote#getItemValue(String)}.<br>
+ * <br>
+ * Instances are not thread-safe, because buffers are reused between scans.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesItemBatchReader {
+	private final String[] m_itemNames;
+	private final Map<String,Integer> m_itemIndexByName;
+	//lowercase LMBCS item names, grouped by length for fast matching
+	private final byte[][] m_itemNamesLMBCS;
+	private final int[][] m_itemIndexesByNameLength;
+
+	private final NoteNsfItemScanProc m_scanProc;
+
+	//state of the current scan
+	private byte[] m_valueBuffer = new byte[1024];
+	private int m_valueBufferSize;
+	private int[] m_valueOffsets;
+	private int[] m_valueLengths;
+	private short[] m_itemFlags;
+	private int m_itemsFound;
+	private Throwable m_scanError;
+
+	/**
+	 * Creates a new reader
+	 *
+	 * @param itemNames names of the items to read
+	 */
+	public NotesItemBatchReader(String... itemNames) {
+		this(Arrays.asList(itemNames));
+	}
+
+	/**
+	 * Creates a new reader
+	 *
+	 * @param itemNames names of the items to read
+	 */
+	public NotesItemBatchReader(Collection<String> itemNames) {
+		m_itemIndexByName = new HashMap<String,Integer>();
+		for (String currItemName : itemNames) {
+			String key = currItemName.toLowerCase(Locale.ENGLISH);
+			if (!m_itemIndexByName.containsKey(key)) {
+				m_itemIndexByName.put(key, m_itemIndexByName.size());
+			}
+		}
+
+		int numItems = m_itemIndexByName.size();
+		m_itemNames = new String[numItems];
+		m_itemNamesLMBCS = new byte[numItems][];
+		int maxNameLength = 0;
+		for (Map.Entry<String,Integer> currEntry : m_itemIndexByName.entrySet()) {
+			int idx = currEntry.getValue();
+			m_itemNames[idx] = currEntry.getKey();
+
+			Memory nameMem = NotesStringUtils.toLMBCS(currEntry.getKey(), false);
+			m_itemNamesLMBCS[idx] = nameMem==null ? new byte[0] : nameMem.getByteArray(0, (int) nameMem.size());
+			maxNameLength = Math.max(maxNameLength, m_itemNamesLMBCS[idx].length);
+		}
+
+		m_itemIndexesByNameLength = new int[maxNameLength+1][];
+		for (int i=0; i<numItems; i++) {
+			int len = m_itemNamesLMBCS[i].length;
+			int[] indexes = m_itemIndexesByNameLength[len];
+			if (indexes==null) {
+				indexes = new int[] {i};
+			}
+			else {
+				indexes = Arrays.copyOf(indexes, indexes.length+1);
+				indexes[indexes.length-1] = i;
+			}
+			m_itemIndexesByNameLength[len] = indexes;
+		}
+
+		m_valueOffsets = new int[numItems];
+		m_valueLengths = new int[numItems];
+		m_itemFlags = new short[numItems];
+
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		if (notesAPI instanceof WinNotesCAPI) {
+			m_scanProc = new WinNotesCAPI.NoteNsfItemScanProcWin() {
+
+				@Override
+				public short invoke(short spare, short itemFlags, Pointer name, short nameLength, Pointer value,
+						int valueLength, Pointer routineParameter) {
+					return itemFound(itemFlags, name, nameLength, value, valueLength);
+				}
+			};
+		}
+		else {
+			m_scanProc = new NoteNsfItemScanProc() {
+
+				@Override
+				public short invoke(short spare, short itemFlags, Pointer name, short nameLength, Pointer value,
+						int valueLength, Pointer routineParameter) {
+					return itemFound(itemFlags, name, nameLength, value, valueLength);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Returns the names of the items to read
+	 *
+	 * @return item names in lowercase
+	 */
+	public List<String> getItemNames() {
+		return Collections.unmodifiableList(Arrays.asList(m_itemNames));
+	}
+
+	/**
+	 * Method is called by NSFItemScan for each item of the note
+	 *
+	 * @return status, {@link INotesErrorConstants#ERR_CANCEL} to stop the scan
+	 */
+	private short itemFound(short itemFlags, Pointer name, short nameLength, Pointer value, int valueLength) {
+		try {
+			int nameLengthAsInt = nameLength & 0xffff;
+			if (nameLengthAsInt >= m_itemIndexesByNameLength.length) {
+				return 0;
+			}
+			int[] candidates = m_itemIndexesByNameLength[nameLengthAsInt];
+			if (candidates==null) {
+				return 0;
+			}
+
+			byte[] nameBytes = name.getByteArray(0, nameLengthAsInt);
+			for (int currIdx : candidates) {
+				if (m_valueOffsets[currIdx]==-1 && equalsIgnoreCaseASCII(m_itemNamesLMBCS[currIdx], nameBytes)) {
+					if (m_valueBufferSize + valueLength > m_valueBuffer.length) {
+						m_valueBuffer = Arrays.copyOf(m_valueBuffer, Math.max(2 * m_valueBuffer.length, m_valueBufferSize + valueLength));
+					}
+					value.read(0, m_valueBuffer, m_valueBufferSize, valueLength);
+					m_valueOffsets[currIdx] = m_valueBufferSize;
+					m_valueLengths[currIdx] = valueLength;
+					m_itemFlags[currIdx] = itemFlags;
+					m_valueBufferSize += valueLength;
+					m_itemsFound++;
+
+					if (m_itemsFound == m_itemNames.length) {
+						//all items found, no need to scan the rest of the note
+						return INotesErrorConstants.ERR_CANCEL;
+					}
+					break;
+				}
+			}
+			return 0;
+		}
+		catch (Throwable t) {
+			m_scanError = t;
+			return INotesErrorConstants.ERR_CANCEL;
+		}
+	}
+
+	/**
+	 * Compares the lowercase LMBCS item name with the item name of the note, ignoring the
+	 * case of ASCII characters
+	 *
+	 * @param lowerCaseName lowercase name
+	 * @param name name from the note
+	 * @return true if equal
+	 */
+	private static boolean equalsIgnoreCaseASCII(byte[] lowerCaseName, byte[] name) {
+		for (int i=0; i<name.length; i++) {
+			byte b = name[i];
+			if (b>='A' && b<='Z') {
+				b = (byte) (b + ('a' - 'A'));
+			}
+			if (b != lowerCaseName[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Scans the items of a note and copies the values of the requested items
+	 *
+	 * @param note note
+	 * @return item values
+	 */
+	public ItemValues read(NotesNote note) {
+		note.checkHandle();
+
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+
+		m_valueBufferSize = 0;
+		m_itemsFound = 0;
+		m_scanError = null;
+		Arrays.fill(m_valueOffsets, -1);
+
+		if (m_itemNames.length > 0) {
+			short result;
+			if (NotesJNAContext.is64Bit()) {
+				result = notesAPI.b64_NSFItemScan(note.getHandle64(), m_scanProc, null);
+			}
+			else {
+				result = notesAPI.b32_NSFItemScan(note.getHandle32(), m_scanProc, null);
+			}
+
+			if (m_scanError!=null) {
+				if (m_scanError instanceof RuntimeException) {
+					throw (RuntimeException) m_scanError;
+				}
+				throw new NotesError(0, "Error scanning the items of note "+note.getNoteId(), m_scanError);
+			}
+			if (result!=INotesErrorConstants.ERR_CANCEL) {
+				NotesErrorUtils.checkResult(result);
+			}
+		}
+
+		return new ItemValues(note, Arrays.copyOf(m_valueBuffer, m_valueBufferSize), m_valueOffsets.clone(),
+				m_valueLengths.clone(), m_itemFlags.clone());
+	}
+
+	/**
+	 * Container for the item values of one note. Values are decoded on first access.
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public class ItemValues {
+		private final NotesNote m_note;
+		private final byte[] m_data;
+		private final int[] m_offsets;
+		private final int[] m_lengths;
+		private final short[] m_flags;
+		private Memory m_dataMem;
+		private List<Object>[] m_decodedValues;
+
+		private ItemValues(NotesNote note, byte[] data, int[] offsets, int[] lengths, short[] flags) {
+			m_note = note;
+			m_data = data;
+			m_offsets = offsets;
+			m_lengths = lengths;
+			m_flags = flags;
+			@SuppressWarnings("unchecked")
+			List<Object>[] decodedValues = (List<Object>[]) new List<?>[offsets.length];
+			m_decodedValues = decodedValues;
+		}
+
+		private int getIndex(String itemName) {
+			Integer idx = m_itemIndexByName.get(itemName.toLowerCase(Locale.ENGLISH));
+			if (idx==null) {
+				throw new IllegalArgumentException("Item "+itemName+" has not been read. Items: "+getItemNames());
+			}
+			return idx.intValue();
+		}
+
+		/**
+		 * Returns the note that the values have been read from
+		 *
+		 * @return note
+		 */
+		public NotesNote getNote() {
+			return m_note;
+		}
+
+		/**
+		 * Checks if the note contains an item
+		 *
+		 * @param itemName item name, must be one of the names passed to the reader
+		 * @return true if found
+		 */
+		public boolean hasItem(String itemName) {
+			return m_offsets[getIndex(itemName)]!=-1;
+		}
+
+		/**
+		 * Returns the data type of an item
+		 *
+		 * @param itemName item name, must be one of the names passed to the reader
+		 * @return data type, e.g. {@link NotesItem#TYPE_TEXT}, or 0 if the item does not exist
+		 */
+		public int getItemDataType(String itemName) {
+			int idx = getIndex(itemName);
+			if (m_offsets[idx]==-1 || m_lengths[idx]<2) {
+				return 0;
+			}
+			return getDataMemory().getShort(m_offsets[idx]) & 0xffff;
+		}
+
+		/**
+		 * Returns the item flags of an item
+		 *
+		 * @param itemName item name, must be one of the names passed to the reader
+		 * @return flags or null if the item does not exist
+		 */
+		public NotesNote.ItemFlags getItemFlags(String itemName) {
+			int idx = getIndex(itemName);
+			if (m_offsets[idx]==-1) {
+				return null;
+			}
+			return new NotesNote.ItemFlags(m_flags[idx] & 0xffff);
+		}
+
+		/**
+		 * Decodes the value(s) of an item. The supported data types are the same as for
+		 * {@link NotesNote#getItemValue(String)}. Attachment items are read from the note,
+		 * so the note must not be recycled in this case.
+		 *
+		 * @param itemName item name, must be one of the names passed to the reader
+		 * @return value(s) as list, not null
+		 */
+		public List<Object> getItemValue(String itemName) {
+			int idx = getIndex(itemName);
+			if (m_offsets[idx]==-1) {
+				return Collections.emptyList();
+			}
+
+			List<Object> values = m_decodedValues[idx];
+			if (values==null) {
+				if (getItemDataType(itemName)==NotesItem.TYPE_OBJECT) {
+					//we need the item block id for attachments
+					values = m_note.getItemValue(itemName);
+				}
+				else {
+					Pointer valuePtr = getDataMemory().share(m_offsets[idx]);
+					values = m_note.getItemValue(itemName, null, valuePtr, m_lengths[idx]);
+				}
+				m_decodedValues[idx] = values;
+			}
+			return values;
+		}
+
+		/**
+		 * Returns the first value of an item
+		 *
+		 * @param itemName item name, must be one of the names passed to the reader
+		 * @return value or null if the item does not exist or is empty
+		 */
+		public Object getFirstItemValue(String itemName) {
+			List<Object> values = getItemValue(itemName);
+			return values.isEmpty() ? null : values.get(0);
+		}
+
+		private Memory getDataMemory() {
+			if (m_dataMem==null) {
+				m_dataMem = new Memory(Math.max(1, m_data.length));
+				m_dataMem.write(0, m_data, 0, m_data.length);
+			}
+			return m_dataMem;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.mindoo.domino.jna;
+
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.utils.NotesStringUtils;
+
+/**
+ * Result of a note info lookup for many notes, returned by {@link NotesDatabase#getMultiNoteInfoColumnar(int[], int)}
+ * and {@link NotesDatabase#getMultiNoteInfoColumnar(String[], int)}.<br>
+ * <br>
+ * In contrast to {@link NotesDatabase.NoteInfo}, the data is stored in primitive arrays with one entry
+ * per looked up note (in the order of the lookup input), so no objects are created per note. The
+ * column arrays are returned without copying them and must not be modified.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesMultiNoteInfo {
+	private final int m_size;
+	private final int[] m_noteIds;
+	private final long[] m_unidFile;
+	private final long[] m_unidNote;
+	private final int[] m_sequences;
+	private final int[] m_sequenceTimeInnards;
+
+	NotesMultiNoteInfo(int size) {
+		m_size = size;
+		m_noteIds = new int[size];
+		m_unidFile = new long[size];
+		m_unidNote = new long[size];
+		m_sequences = new int[size];
+		m_sequenceTimeInnards = new int[2 * size];
+	}
+
+	/**
+	 * Copies entries returned by NSFDbGetMultNoteInfo (note id and OID, 8 ints per entry)
+	 *
+	 * @param targetIdx index of the first entry to write
+	 * @param data return data as ints
+	 * @param count number of entries
+	 */
+	void setEntries(int targetIdx, int[] data, int count) {
+		int dataIdx = 0;
+		for (int i=targetIdx; i<targetIdx+count; i++) {
+			m_noteIds[i] = data[dataIdx];
+			m_unidFile[i] = toLong(data[dataIdx+1], data[dataIdx+2]);
+			m_unidNote[i] = toLong(data[dataIdx+3], data[dataIdx+4]);
+			m_sequences[i] = data[dataIdx+5];
+			m_sequenceTimeInnards[2*i] = data[dataIdx+6];
+			m_sequenceTimeInnards[2*i+1] = data[dataIdx+7];
+			dataIdx += 8;
+		}
+	}
+
+	private static long toLong(int innards0, int innards1) {
+		return ((long) innards1 << 32) | (innards0 & 0xffffffffL);
+	}
+
+	/**
+	 * Returns the number of entries
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return m_size;
+	}
+
+	/**
+	 * Returns the note id as returned by the C API
+	 *
+	 * @param idx index
+	 * @return note id, 0 if the note could not be found
+	 */
+	public int getNoteId(int idx) {
+		return m_noteIds[idx];
+	}
+
+	/**
+	 * Returns true if the note currently exists in the database
+	 *
+	 * @param idx index
+	 * @return true if note exists
+	 */
+	public boolean exists(int idx) {
+		return m_noteIds[idx]!=0;
+	}
+
+	/**
+	 * Returns true if the note has already been deleted
+	 *
+	 * @param idx index
+	 * @return true if deleted
+	 */
+	public boolean isDeleted(int idx) {
+		return (m_noteIds[idx] & NotesCAPI.NOTEID_RESERVED) == NotesCAPI.NOTEID_RESERVED;
+	}
+
+	/**
+	 * Returns the UNID as hex string
+	 *
+	 * @param idx index
+	 * @return UNID
+	 */
+	public String getUnid(int idx) {
+		return NotesStringUtils.toUNID(m_unidFile[idx], m_unidNote[idx]);
+	}
+
+	/**
+	 * Returns the sequence number
+	 *
+	 * @param idx index
+	 * @return sequence number
+	 */
+	public int getSequence(int idx) {
+		return m_sequences[idx];
+	}
+
+	/**
+	 * Returns the sequence time ( = "Modified (initially)")
+	 *
+	 * @param idx index
+	 * @return sequence time
+	 */
+	public NotesTimeDate getSequenceTime(int idx) {
+		return new NotesTimeDate(new int[] {m_sequenceTimeInnards[2*idx], m_sequenceTimeInnards[2*idx+1]});
+	}
+
+	/**
+	 * Returns the note ids column
+	 *
+	 * @return note ids
+	 */
+	public int[] getNoteIds() {
+		return m_noteIds;
+	}
+
+	/**
+	 * Returns the column with the file part of the UNIDs, see {@link NotesStringUtils#toUNID(long, long)}
+	 *
+	 * @return file innards as long
+	 */
+	public long[] getUnidFileColumn() {
+		return m_unidFile;
+	}
+
+	/**
+	 * Returns the column with the note part of the UNIDs, see {@link NotesStringUtils#toUNID(long, long)}
+	 *
+	 * @return note innards as long
+	 */
+	public long[] getUnidNoteColumn() {
+		return m_unidNote;
+	}
+
+	/**
+	 * Returns the sequence numbers column
+	 *
+	 * @return sequence numbers
+	 */
+	public int[] getSequences() {
+		return m_sequences;
+	}
+
+	/**
+	 * Returns the innards of the sequence times, two ints per entry
+	 *
+	 * @return innards
+	 */
+	public int[] getSequenceTimeInnards() {
+		return m_sequenceTimeInnards;
+	}
+
+	/**
+	 * Returns the raw OID innards of an entry for {@link NotesDatabase.NoteInfo}
+	 *
+	 * @param idx index
+	 * @return file innards, note innards, sequence and sequence time innards
+	 */
+	int[] getOIDInnards(int idx) {
+		return new int[] {
+				(int) m_unidFile[idx], (int) (m_unidFile[idx] >>> 32),
+				(int) m_unidNote[idx], (int) (m_unidNote[idx] >>> 32),
+				m_sequences[idx],
+				m_sequenceTimeInnards[2*idx], m_sequenceTimeInnards[2*idx+1]
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "NotesMultiNoteInfo [size="+m_size+"]";
+	}
+}
@@ -0,0 +1,323 @@
+package com.mindoo.domino.jna;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.errors.NotesErrorUtils;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.NotesJNAProperties;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+/**
+ * Implementation of the note info lookups by note id and UNID with NSFDbGetMultNoteInfo and
+ * NSFDbGetMultNoteInfoByUNID.<br>
+ * <br>
+ * The input is split into chunks. Each reading thread allocates one input buffer for the
+ * largest chunk and reuses it for all of its chunks. Note ids and UNIDs are written into the buffer
+ * with a single copy and the return buffer is read with a single copy as well.<br>
+ * <br>
+ * With a thread count greater than 1, the chunks are read by pool threads that open their own database
+ * handle with the same user context within {@link NotesGC#runWithAutoGC(Callable)}.
+ *
+ * @author Karsten Lehmann
+ */
+class NotesMultiNoteInfoLookup {
+	/** Size of a returned entry, note id and OID */
+	static final int ENTRY_SIZE = 32;
+
+	/**
+	 * System property to change the number of note ids per NSFDbGetMultNoteInfo call
+	 * (max. 65535); larger chunks need less roundtrips to the server
+	 */
+	public static final String PROP_NOTEIDS_PER_CALL = "mindoo.domino.jna.multinoteinfo.noteidspercall";
+	/**
+	 * System property to change the number of UNIDs per NSFDbGetMultNoteInfoByUNID call
+	 * (max. 32767); larger chunks need less roundtrips to the server
+	 */
+	public static final String PROP_UNIDS_PER_CALL = "mindoo.domino.jna.multinoteinfo.unidspercall";
+
+	//defaults keep the return buffer below 64K like the previous implementation
+	private static final int DEFAULT_ENTRIES_PER_CALL = 64000 / ENTRY_SIZE;
+
+	private final NotesDatabase m_db;
+	private final boolean m_byUnid;
+	private final int[] m_input;
+	private final int m_inputIntsPerEntry;
+	private final int m_entryCount;
+	private final int m_entriesPerCall;
+	private final AtomicInteger m_nextChunk = new AtomicInteger();
+	private final AtomicBoolean m_cancelled = new AtomicBoolean();
+
+	private NotesMultiNoteInfoLookup(NotesDatabase db, boolean byUnid, int[] input, int inputIntsPerEntry, int entriesPerCall) {
+		m_db = db;
+		m_byUnid = byUnid;
+		m_input = input;
+		m_inputIntsPerEntry = inputIntsPerEntry;
+		m_entryCount = input.length / inputIntsPerEntry;
+		m_entriesPerCall = entriesPerCall;
+	}
+
+	/**
+	 * Creates a lookup by note ids
+	 *
+	 * @param db database
+	 * @param noteIds note ids
+	 * @return lookup
+	 */
+	public static NotesMultiNoteInfoLookup byNoteIds(NotesDatabase db, int[] noteIds) {
+		int entriesPerCall = Math.max(1, Math.min(65535, NotesJNAProperties.getInt(PROP_NOTEIDS_PER_CALL, DEFAULT_ENTRIES_PER_CALL)));
+		return new NotesMultiNoteInfoLookup(db, false, noteIds, 1, entriesPerCall);
+	}
+
+	/**
+	 * Creates a lookup by UNIDs. The UNIDs are parsed before reading the first chunk.
+	 *
+	 * @param db database
+	 * @param unids UNIDs
+	 * @return lookup
+	 */
+	public static NotesMultiNoteInfoLookup byUnids(NotesDatabase db, String[] unids) {
+		int entriesPerCall = Math.max(1, Math.min(32767, NotesJNAProperties.getInt(PROP_UNIDS_PER_CALL, DEFAULT_ENTRIES_PER_CALL)));
+
+		int[] unidInnards = new int[4 * unids.length];
+		for (int i=0; i<unids.length; i++) {
+			parseUNID(unids[i], unidInnards, 4*i);
+		}
+		return new NotesMultiNoteInfoLookup(db, true, unidInnards, 4, entriesPerCall);
+	}
+
+	/**
+	 * Converts a UNID string to the innards of the file and note timedates
+	 *
+	 * @param unid UNID
+	 * @param target target array
+	 * @param offset offset in target array
+	 */
+	private static void parseUNID(String unid, int[] target, int offset) {
+		if (unid==null || unid.length()!=32) {
+			throw new NotesError(0, "Invalid UNID: "+unid);
+		}
+		//UNID string is file innards[1], file innards[0], note innards[1], note innards[0]
+		target[offset+1] = parseHexInt(unid, 0);
+		target[offset] = parseHexInt(unid, 8);
+		target[offset+3] = parseHexInt(unid, 16);
+		target[offset+2] = parseHexInt(unid, 24);
+	}
+
+	private static int parseHexInt(String str, int start) {
+		int val = 0;
+		for (int i=start; i<start+8; i++) {
+			int digit = Character.digit(str.charAt(i), 16);
+			if (digit==-1) {
+				throw new NotesError(0, "Invalid UNID: "+str);
+			}
+			val = (val << 4) | digit;
+		}
+		return val;
+	}
+
+	/**
+	 * Reads the note infos
+	 *
+	 * @param threadCount number of threads
+	 * @return result
+	 */
+	public NotesMultiNoteInfo read(int threadCount) {
+		NotesMultiNoteInfo result = new NotesMultiNoteInfo(m_entryCount);
+		if (m_entryCount==0) {
+			return result;
+		}
+
+		int chunkCount = (m_entryCount + m_entriesPerCall - 1) / m_entriesPerCall;
+		int useThreadCount = Math.min(threadCount, chunkCount);
+
+		if (useThreadCount<=1) {
+			readChunks(m_db, result);
+		}
+		else {
+			readChunksInThreads(useThreadCount, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Reads chunks until all are done
+	 *
+	 * @param db database
+	 * @param result result to write the entries
+	 */
+	private void readChunks(NotesDatabase db, NotesMultiNoteInfo result) {
+		ChunkReader reader = new ChunkReader(db, Math.min(m_entriesPerCall, m_entryCount));
+		try {
+			while (!m_cancelled.get()) {
+				int startIdx = m_nextChunk.getAndIncrement() * m_entriesPerCall;
+				if (startIdx >= m_entryCount) {
+					break;
+				}
+				int count = Math.min(m_entriesPerCall, m_entryCount - startIdx);
+				reader.readChunk(startIdx, count, result);
+			}
+		}
+		finally {
+			reader.free();
+		}
+	}
+
+	private void readChunksInThreads(int threadCount, final NotesMultiNoteInfo result) {
+		new NotesWorkerPool(m_db, "note info lookup").run(threadCount, new NotesWorkerPool.WorkerTask() {
+
+			@Override
+			public void run(NotesDatabase db) throws Exception {
+				readChunks(db, result);
+			}
+
+			@Override
+			public void stop() {
+				m_cancelled.set(true);
+			}
+		});
+	}
+
+	/**
+	 * Reads chunks with one database handle, reusing the input buffer of the C API call and the
+	 * Java array for the return data
+	 */
+	private class ChunkReader {
+		private final NotesDatabase m_readerDb;
+		private final int[] m_outData;
+		private long m_hInBuf64;
+		private int m_hInBuf32;
+
+		public ChunkReader(NotesDatabase db, int maxEntries) {
+			m_readerDb = db;
+			m_outData = new int[maxEntries * ENTRY_SIZE / 4];
+
+			NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+			int inBufSize = maxEntries * m_inputIntsPerEntry * 4;
+			if (NotesJNAContext.is64Bit()) {
+				LongByReference retHandle = new LongByReference();
+				short result = notesAPI.b64_OSMemAlloc((short) 0, inBufSize, retHandle);
+				NotesErrorUtils.checkResult(result);
+				m_hInBuf64 = retHandle.getValue();
+			}
+			else {
+				IntByReference retHandle = new IntByReference();
+				short result = notesAPI.b32_OSMemAlloc((short) 0, inBufSize, retHandle);
+				NotesErrorUtils.checkResult(result);
+				m_hInBuf32 = retHandle.getValue();
+			}
+		}
+
+		public void readChunk(int startIdx, int count, NotesMultiNoteInfo result) {
+			NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+			short options = (short) (NotesCAPI.fINFO_OID | NotesCAPI.fINFO_ALLOW_HUGE | NotesCAPI.fINFO_NOTEID);
+			int inputOffset = startIdx * m_inputIntsPerEntry;
+			int inputLength = count * m_inputIntsPerEntry;
+
+			IntByReference retSize = new IntByReference();
+
+			if (NotesJNAContext.is64Bit()) {
+				Pointer inBufPtr = notesAPI.b64_OSLockObject(m_hInBuf64);
+				try {
+					inBufPtr.write(0, m_input, inputOffset, inputLength);
+				}
+				finally {
+					notesAPI.b64_OSUnlockObject(m_hInBuf64);
+				}
+
+				LongByReference rethOutBuf = new LongByReference();
+				short apiResult;
+				if (m_byUnid) {
+					apiResult = notesAPI.b64_NSFDbGetMultNoteInfoByUNID(m_readerDb.getHandle64(), (short) (count & 0xffff),
+							options, m_hInBuf64, retSize, rethOutBuf);
+				}
+				else {
+					apiResult = notesAPI.b64_NSFDbGetMultNoteInfo(m_readerDb.getHandle64(), (short) (count & 0xffff),
+							options, m_hInBuf64, retSize, rethOutBuf);
+				}
+				NotesErrorUtils.checkResult(apiResult);
+
+				long hOutBuf = rethOutBuf.getValue();
+				try {
+					checkReturnSize(count, retSize.getValue());
+					Pointer outBufPtr = notesAPI.b64_OSLockObject(hOutBuf);
+					try {
+						outBufPtr.read(0, m_outData, 0, count * ENTRY_SIZE / 4);
+					}
+					finally {
+						notesAPI.b64_OSUnlockObject(hOutBuf);
+					}
+				}
+				finally {
+					notesAPI.b64_OSMemFree(hOutBuf);
+				}
+			}
+			else {
+				Pointer inBufPtr = notesAPI.b32_OSLockObject(m_hInBuf32);
+				try {
+					inBufPtr.write(0, m_input, inputOffset, inputLength);
+				}
+				finally {
+					notesAPI.b32_OSUnlockObject(m_hInBuf32);
+				}
+
+				IntByReference rethOutBuf = new IntByReference();
+				short apiResult;
+				if (m_byUnid) {
+					apiResult = notesAPI.b32_NSFDbGetMultNoteInfoByUNID(m_readerDb.getHandle32(), (short) (count & 0xffff),
+							options, m_hInBuf32, retSize, rethOutBuf);
+				}
+				else {
+					apiResult = notesAPI.b32_NSFDbGetMultNoteInfo(m_readerDb.getHandle32(), (short) (count & 0xffff),
+							options, m_hInBuf32, retSize, rethOutBuf);
+				}
+				NotesErrorUtils.checkResult(apiResult);
+
+				int hOutBuf = rethOutBuf.getValue();
+				try {
+					checkReturnSize(count, retSize.getValue());
+					Pointer outBufPtr = notesAPI.b32_OSLockObject(hOutBuf);
+					try {
+						outBufPtr.read(0, m_outData, 0, count * ENTRY_SIZE / 4);
+					}
+					finally {
+						notesAPI.b32_OSUnlockObject(hOutBuf);
+					}
+				}
+				finally {
+					notesAPI.b32_OSMemFree(hOutBuf);
+				}
+			}
+
+			result.setEntries(startIdx, m_outData, count);
+		}
+
+		private void checkReturnSize(int count, int retSize) {
+			if (retSize != count*ENTRY_SIZE) {
+				throw new IllegalStateException("Unexpected size of return data. Expected "+count*ENTRY_SIZE+" bytes for data of "+count+" ids, got "+retSize+" bytes");
+			}
+		}
+
+		public void free() {
+			NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+			if (NotesJNAContext.is64Bit()) {
+				if (m_hInBuf64!=0) {
+					notesAPI.b64_OSMemFree(m_hInBuf64);
+					m_hInBuf64 = 0;
+				}
+			}
+			else {
+				if (m_hInBuf32!=0) {
+					notesAPI.b32_OSMemFree(m_hInBuf32);
+					m_hInBuf32 = 0;
+				}
+			}
+		}
+	}
+}
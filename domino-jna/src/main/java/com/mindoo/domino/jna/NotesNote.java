@@ -1580,6 +1580,18 @@ public class NotesNote implements IRecyclableNotesObject {
 		}
 	}
 	
+	/**
+	 * Reads the values of multiple items with a single scan of the item table. Values are
+	 * decoded on first access.<br>
+	 * Use a {@link NotesItemBatchReader} directly to read the same items from many notes.
+	 * 
+	 * @param itemNames item names
+	 * @return item values
+	 */
+	public NotesItemBatchReader.ItemValues getItemValues(String... itemNames) {
+		return new NotesItemBatchReader(itemNames).read(this);
+	}
+	
 	/**
 	 * Callback interface for {@link NotesNote#getItems(IItemCallback)}
 	 * 
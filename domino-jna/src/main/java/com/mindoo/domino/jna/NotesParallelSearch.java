@@ -0,0 +1,563 @@
+package com.mindoo.domino.jna;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.NotesSearch.SearchCallback;
+import com.mindoo.domino.jna.NotesSearch.SearchCallback.NoteFlags;
+import com.mindoo.domino.jna.NotesSearch.SearchMatch;
+import com.mindoo.domino.jna.NotesSearch.SearchMatchCallback;
+import com.mindoo.domino.jna.constants.NoteClass;
+import com.mindoo.domino.jna.constants.Search;
+import com.mindoo.domino.jna.errors.FormulaCompilationError;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.formula.FormulaCache;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemTableData;
+import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
+
+/**
+ * Runs a formula search with {@link NotesSearch} on several threads in parallel.<br>
+ * <br>
+ * NSFSearch processes the notes of a database sequentially in a single thread. This class splits
+ * the note ids to search into partitions of adjacent note ids, either the ids returned by
+ * {@link NotesDatabase#getModifiedNoteTable(EnumSet, NotesTimeDate, NotesTimeDate)} or the ids of an
+ * {@link NotesIDTable} passed by the caller, and searches each partition with the partition's
+ * note ids as search filter. The partitions are processed by pool threads that open their own database
+ * handle with the same user context as the database of this class, within {@link NotesGC#runWithAutoGC(Callable)}.<br>
+ * <br>
+ * The matches of all partitions are passed to one callback. Calls to the callback are serialized,
+ * so it does not need to be thread-safe, but the matches arrive in no particular order. Returning
+ * <code>Stop</code> from the callback stops all threads.<br>
+ * <br>
+ * The search returns the earliest end time of all partition searches (and of the modified note table),
+ * which can be used as <code>since</code> value of an incremental follow-up search.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesParallelSearch {
+	/** Default number of partitions per thread if no partition count is set */
+	public static final int DEFAULT_PARTITIONS_PER_THREAD = 4;
+
+	private final NotesDatabase m_db;
+	private int m_threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+	private int m_partitionCount;
+
+	/**
+	 * Creates a new instance
+	 *
+	 * @param db database to search in
+	 */
+	public NotesParallelSearch(NotesDatabase db) {
+		m_db = db;
+	}
+
+	/**
+	 * Returns the database to search in
+	 *
+	 * @return database
+	 */
+	public NotesDatabase getDatabase() {
+		return m_db;
+	}
+
+	/**
+	 * Sets the number of threads that search in parallel, default is the number of available processors.
+	 * Use 1 to search all partitions in the caller thread.
+	 *
+	 * @param threadCount thread count
+	 */
+	public void setThreadCount(int threadCount) {
+		m_threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Returns the number of threads that search in parallel
+	 *
+	 * @return thread count
+	 */
+	public int getThreadCount() {
+		return m_threadCount;
+	}
+
+	/**
+	 * Sets the number of partitions. More partitions than threads balance the load better
+	 * if the matches are not evenly distributed in the database. Use 0 for the default of
+	 * {@link #DEFAULT_PARTITIONS_PER_THREAD} partitions per thread.
+	 *
+	 * @param partitionCount partition count
+	 */
+	public void setPartitionCount(int partitionCount) {
+		m_partitionCount = Math.max(0, partitionCount);
+	}
+
+	/**
+	 * Returns the number of partitions, 0 for the default
+	 *
+	 * @return partition count
+	 */
+	public int getPartitionCount() {
+		return m_partitionCount;
+	}
+
+	/**
+	 * Searches all notes of the database modified since a given date. The partitions are computed
+	 * from {@link NotesDatabase#getModifiedNoteTable(EnumSet, NotesTimeDate, NotesTimeDate)}.
+	 *
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClasses noteclasses to search
+	 * @param since The date of the earliest modified note that is matched or null to search all notes
+	 * @param callback callback to be called for every found note
+	 * @return search result with the end time for a subsequent search
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public ParallelSearchResult search(String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+			NotesTimeDate since, SearchCallback callback) throws FormulaCompilationError {
+		return search(formula, since, new SearchCallbackPartitionSearch(formula, viewTitle, searchFlags, noteClasses, since, callback), noteClasses, null);
+	}
+
+	/**
+	 * Variant of {@link #search(String, String, EnumSet, EnumSet, NotesTimeDate, SearchCallback)} with
+	 * a {@link SearchMatchCallback}
+	 *
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClasses noteclasses to search
+	 * @param since The date of the earliest modified note that is matched or null to search all notes
+	 * @param callback callback to be called for every found note
+	 * @return search result with the end time for a subsequent search
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public ParallelSearchResult search(String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+			NotesTimeDate since, SearchMatchCallback callback) throws FormulaCompilationError {
+		return search(formula, since, new SearchMatchCallbackPartitionSearch(formula, viewTitle, searchFlags, noteClasses, since, callback), noteClasses, null);
+	}
+
+	/**
+	 * Searches the notes of an ID table, e.g. the result of a previous search
+	 *
+	 * @param idTable note ids to search
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClasses noteclasses to search
+	 * @param since The date of the earliest modified note that is matched or null
+	 * @param callback callback to be called for every found note
+	 * @return search result with the end time for a subsequent search
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public ParallelSearchResult search(NotesIDTable idTable, String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+			NotesTimeDate since, SearchCallback callback) throws FormulaCompilationError {
+		return search(formula, since, new SearchCallbackPartitionSearch(formula, viewTitle, searchFlags, noteClasses, since, callback), noteClasses, idTable);
+	}
+
+	/**
+	 * Variant of {@link #search(NotesIDTable, String, String, EnumSet, EnumSet, NotesTimeDate, SearchCallback)} with
+	 * a {@link SearchMatchCallback}
+	 *
+	 * @param idTable note ids to search
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClasses noteclasses to search
+	 * @param since The date of the earliest modified note that is matched or null
+	 * @param callback callback to be called for every found note
+	 * @return search result with the end time for a subsequent search
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public ParallelSearchResult search(NotesIDTable idTable, String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+			NotesTimeDate since, SearchMatchCallback callback) throws FormulaCompilationError {
+		return search(formula, since, new SearchMatchCallbackPartitionSearch(formula, viewTitle, searchFlags, noteClasses, since, callback), noteClasses, idTable);
+	}
+
+	private ParallelSearchResult search(String formula, NotesTimeDate since, PartitionSearch partitionSearch,
+			EnumSet<NoteClass> noteClasses, NotesIDTable idTable) throws FormulaCompilationError {
+		if (m_db.isRecycled())
+			throw new NotesError(0, "Database already recycled");
+
+		if (formula!=null) {
+			//report syntax errors before starting the threads
+			FormulaCache cache = FormulaCache.getActiveCache();
+			cache.release(cache.acquire(formula));
+		}
+
+		int[] noteIds;
+		NotesTimeDate tableUntil = null;
+		if (idTable!=null) {
+			noteIds = idTable.toArray();
+		}
+		else {
+			NotesTimeDate tableSince;
+			if (since!=null) {
+				tableSince = since;
+			}
+			else {
+				tableSince = new NotesTimeDate();
+				NotesDateTimeUtils.setMinimum(tableSince);
+			}
+			tableUntil = new NotesTimeDate();
+			NotesIDTable modifiedTable = m_db.getModifiedNoteTable(noteClasses, tableSince, tableUntil);
+			try {
+				noteIds = modifiedTable.toArray();
+			}
+			finally {
+				modifiedTable.recycle();
+			}
+		}
+
+		int threadCount = m_threadCount;
+		int partitionCount = m_partitionCount>0 ? m_partitionCount : threadCount * DEFAULT_PARTITIONS_PER_THREAD;
+		List<int[]> partitions = computePartitions(noteIds, partitionCount);
+
+		SearchJob job = new SearchJob(partitions, partitionSearch, tableUntil, noteIds.length);
+		threadCount = Math.min(threadCount, partitions.size());
+		if (threadCount<=1) {
+			job.searchPartitions(m_db);
+		}
+		else {
+			job.searchPartitionsInThreads(threadCount);
+		}
+		return job.getResult();
+	}
+
+	/**
+	 * Splits note ids into partitions of adjacent note ids. The {@link NotesCAPI#RRV_DELETED} flag
+	 * is removed from the ids, so that deleted notes are reported as deletion stubs by the search.
+	 *
+	 * @param noteIds note ids
+	 * @param partitionCount max number of partitions
+	 * @return partitions, empty list for no note ids
+	 */
+	static List<int[]> computePartitions(int[] noteIds, int partitionCount) {
+		int[] sortedNoteIds = new int[noteIds.length];
+		for (int i=0; i<noteIds.length; i++) {
+			sortedNoteIds[i] = (int) (noteIds[i] & ~NotesCAPI.RRV_DELETED);
+		}
+		Arrays.sort(sortedNoteIds);
+
+		int count = Math.max(1, Math.min(partitionCount, sortedNoteIds.length));
+		List<int[]> partitions = new ArrayList<int[]>(count);
+		if (sortedNoteIds.length==0) {
+			return partitions;
+		}
+
+		int startIdx = 0;
+		for (int i=0; i<count; i++) {
+			int endIdx = (int) (((long) sortedNoteIds.length * (i+1)) / count);
+			partitions.add(Arrays.copyOfRange(sortedNoteIds, startIdx, endIdx));
+			startIdx = endIdx;
+		}
+		return partitions;
+	}
+
+	/**
+	 * Result of a parallel search
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static class ParallelSearchResult {
+		private final NotesTimeDate m_until;
+		private final int m_partitionCount;
+		private final int m_searchedPartitionCount;
+		private final int m_noteIdCount;
+		private final boolean m_stopped;
+
+		private ParallelSearchResult(NotesTimeDate until, int partitionCount, int searchedPartitionCount, int noteIdCount, boolean stopped) {
+			m_until = until;
+			m_partitionCount = partitionCount;
+			m_searchedPartitionCount = searchedPartitionCount;
+			m_noteIdCount = noteIdCount;
+			m_stopped = stopped;
+		}
+
+		/**
+		 * Returns the earliest end time of the partition searches, to be used as the "Since" argument
+		 * of a subsequent search
+		 *
+		 * @return end time or null if there was nothing to search in an ID table passed by the caller
+		 */
+		public NotesTimeDate getUntil() {
+			return m_until;
+		}
+
+		/**
+		 * Returns the number of partitions
+		 *
+		 * @return count
+		 */
+		public int getPartitionCount() {
+			return m_partitionCount;
+		}
+
+		/**
+		 * Returns the number of partitions that have been searched completely
+		 *
+		 * @return count
+		 */
+		public int getSearchedPartitionCount() {
+			return m_searchedPartitionCount;
+		}
+
+		/**
+		 * Returns the number of note ids in the partitions
+		 *
+		 * @return count
+		 */
+		public int getNoteIdCount() {
+			return m_noteIdCount;
+		}
+
+		/**
+		 * Returns true if the search has been stopped by the callback
+		 *
+		 * @return true if stopped
+		 */
+		public boolean isStopped() {
+			return m_stopped;
+		}
+
+		@Override
+		public String toString() {
+			return "ParallelSearchResult [until="+m_until+", partitions="+m_partitionCount+", searched="+m_searchedPartitionCount+
+					", noteids="+m_noteIdCount+", stopped="+m_stopped+"]";
+		}
+	}
+
+	/**
+	 * Runs the search for one partition and passes the matches to the callback of the caller.
+	 * Callback invocations of all threads are synchronized on this object.
+	 */
+	private static abstract class PartitionSearch {
+		protected final String m_formula;
+		protected final String m_viewTitle;
+		protected final EnumSet<Search> m_searchFlags;
+		protected final EnumSet<NoteClass> m_noteClasses;
+		protected final NotesTimeDate m_since;
+		protected final AtomicBoolean m_stopped = new AtomicBoolean();
+
+		public PartitionSearch(String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+				NotesTimeDate since) {
+			m_formula = formula;
+			m_viewTitle = viewTitle;
+			m_searchFlags = searchFlags;
+			m_noteClasses = noteClasses;
+			m_since = since;
+		}
+
+		/**
+		 * Searches the notes of a partition
+		 *
+		 * @param db database
+		 * @param filter note ids of the partition
+		 * @return end time of the search
+		 */
+		public abstract NotesTimeDate searchPartition(NotesDatabase db, NotesIDTable filter);
+
+		public boolean isStopped() {
+			return m_stopped.get();
+		}
+
+		public void stop() {
+			m_stopped.set(true);
+		}
+	}
+
+	private static class SearchCallbackPartitionSearch extends PartitionSearch {
+		private final SearchCallback m_callback;
+
+		public SearchCallbackPartitionSearch(String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+				NotesTimeDate since, SearchCallback callback) {
+			super(formula, viewTitle, searchFlags, noteClasses, since);
+			m_callback = callback;
+		}
+
+		@Override
+		public NotesTimeDate searchPartition(NotesDatabase db, NotesIDTable filter) {
+			return NotesSearch.search(db, filter, m_formula, m_viewTitle, m_searchFlags, m_noteClasses, m_since, new SearchCallback() {
+
+				@Override
+				public Action noteFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid, EnumSet<NoteClass> noteClass,
+						EnumSet<NoteFlags> flags, NotesTimeDate dbCreated, NotesTimeDate noteModified, ItemTableData summaryBufferData) {
+					synchronized (SearchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.noteFound(parentDb, noteId, oid, noteClass, flags, dbCreated, noteModified, summaryBufferData));
+					}
+				}
+
+				@Override
+				public Action deletionStubFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid, EnumSet<NoteClass> noteClass,
+						EnumSet<NoteFlags> flags, NotesTimeDate dbCreated, NotesTimeDate noteModified) {
+					synchronized (SearchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.deletionStubFound(parentDb, noteId, oid, noteClass, flags, dbCreated, noteModified));
+					}
+				}
+
+				@Override
+				public Action noteFoundNotMatchingFormula(NotesDatabase parentDb, int noteId, NotesOriginatorId oid,
+						EnumSet<NoteClass> noteClass, EnumSet<NoteFlags> flags, NotesTimeDate dbCreated, NotesTimeDate noteModified,
+						ItemTableData summaryBufferData) {
+					synchronized (SearchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.noteFoundNotMatchingFormula(parentDb, noteId, oid, noteClass, flags, dbCreated, noteModified, summaryBufferData));
+					}
+				}
+			});
+		}
+
+		private SearchCallback.Action toAction(SearchCallback.Action action) {
+			if (action==SearchCallback.Action.Stop) {
+				stop();
+			}
+			return action;
+		}
+	}
+
+	private static class SearchMatchCallbackPartitionSearch extends PartitionSearch {
+		private final SearchMatchCallback m_callback;
+
+		public SearchMatchCallbackPartitionSearch(String formula, String viewTitle, EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses,
+				NotesTimeDate since, SearchMatchCallback callback) {
+			super(formula, viewTitle, searchFlags, noteClasses, since);
+			m_callback = callback;
+		}
+
+		@Override
+		public NotesTimeDate searchPartition(NotesDatabase db, NotesIDTable filter) {
+			return NotesSearch.search(db, filter, m_formula, m_viewTitle, m_searchFlags, m_noteClasses, m_since, new SearchMatchCallback() {
+
+				@Override
+				public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+					synchronized (SearchMatchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.noteFound(parentDb, match));
+					}
+				}
+
+				@Override
+				public Action deletionStubFound(NotesDatabase parentDb, SearchMatch match) {
+					synchronized (SearchMatchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.deletionStubFound(parentDb, match));
+					}
+				}
+
+				@Override
+				public Action noteFoundNotMatchingFormula(NotesDatabase parentDb, SearchMatch match) {
+					synchronized (SearchMatchCallbackPartitionSearch.this) {
+						if (isStopped())
+							return Action.Stop;
+						return toAction(m_callback.noteFoundNotMatchingFormula(parentDb, match));
+					}
+				}
+			});
+		}
+
+		private SearchMatchCallback.Action toAction(SearchMatchCallback.Action action) {
+			if (action==SearchMatchCallback.Action.Stop) {
+				stop();
+			}
+			return action;
+		}
+	}
+
+	/**
+	 * State of one parallel search, shared by all threads
+	 */
+	private class SearchJob {
+		private final List<int[]> m_partitions;
+		private final PartitionSearch m_partitionSearch;
+		private final int m_noteIdCount;
+		private final AtomicInteger m_nextPartition = new AtomicInteger();
+		private final AtomicInteger m_searchedPartitionCount = new AtomicInteger();
+		private NotesTimeDate m_until;
+
+		public SearchJob(List<int[]> partitions, PartitionSearch partitionSearch, NotesTimeDate tableUntil, int noteIdCount) {
+			m_partitions = partitions;
+			m_partitionSearch = partitionSearch;
+			m_until = tableUntil;
+			m_noteIdCount = noteIdCount;
+		}
+
+		public ParallelSearchResult getResult() {
+			NotesTimeDate until;
+			synchronized (this) {
+				until = m_until;
+			}
+			return new ParallelSearchResult(until, m_partitions.size(), m_searchedPartitionCount.get(), m_noteIdCount,
+					m_partitionSearch.isStopped());
+		}
+
+		/**
+		 * Searches partitions until all partitions are done or the search has been stopped
+		 *
+		 * @param db database
+		 */
+		public void searchPartitions(NotesDatabase db) {
+			int partitionIdx;
+			while (!m_partitionSearch.isStopped() && (partitionIdx = m_nextPartition.getAndIncrement()) < m_partitions.size()) {
+				NotesIDTable filter = new NotesIDTable(m_partitions.get(partitionIdx));
+				NotesTimeDate partitionUntil;
+				try {
+					partitionUntil = m_partitionSearch.searchPartition(db, filter);
+				}
+				catch (RuntimeException e) {
+					m_partitionSearch.stop();
+					throw e;
+				}
+				catch (Error e) {
+					m_partitionSearch.stop();
+					throw e;
+				}
+				finally {
+					filter.recycle();
+				}
+
+				if (!m_partitionSearch.isStopped()) {
+					m_searchedPartitionCount.incrementAndGet();
+				}
+				partitionDone(partitionUntil);
+			}
+		}
+
+		private synchronized void partitionDone(NotesTimeDate partitionUntil) {
+			if (partitionUntil!=null && (m_until==null || partitionUntil.isBefore(m_until))) {
+				m_until = partitionUntil;
+			}
+		}
+
+		/**
+		 * Searches the partitions in pool threads with their own database handles
+		 *
+		 * @param threadCount thread count
+		 */
+		public void searchPartitionsInThreads(int threadCount) {
+			new NotesWorkerPool(m_db, "parallel search").run(threadCount, new NotesWorkerPool.WorkerTask() {
+
+				@Override
+				public void run(NotesDatabase db) throws Exception {
+					searchPartitions(db);
+				}
+
+				@Override
+				public void stop() {
+					m_partitionSearch.stop();
+				}
+			});
+		}
+	}
+}
@@ -16,6 +16,7 @@ import com.mindoo.domino.jna.errors.INotesErrorConstants;
 import com.mindoo.domino.jna.errors.NotesError;
 import com.mindoo.domino.jna.errors.NotesErrorUtils;
 import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesCAPI.NsfSearchMatchProc;
 import com.mindoo.domino.jna.internal.NotesCAPI.b32_NsfSearchProc;
 import com.mindoo.domino.jna.internal.NotesCAPI.b64_NsfSearchProc;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
@@ -29,6 +30,7 @@ import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
 import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
 import com.mindoo.domino.jna.utils.NotesStringUtils;
 import com.mindoo.domino.jna.utils.StringUtil;
+import com.sun.jna.Callback;
 import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
@@ -102,7 +104,31 @@ public class NotesSearch {
 	 * @throws FormulaCompilationError if formula syntax is invalid
 	 */
 	public static NotesTimeDate search(final NotesDatabase db, NotesIDTable searchFilter, final String formula, String viewTitle, final EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses, NotesTimeDate since, final SearchCallback callback) throws FormulaCompilationError {
-		return search(db, searchFilter, formula, viewTitle, searchFlags, NoteClass.toBitMaskInt(noteClasses), since, callback);
+		return search(db, searchFilter, formula, viewTitle, searchFlags, NoteClass.toBitMaskInt(noteClasses), since, callback, null);
+	}
+	
+	/**
+	 * Variant of {@link #search(NotesDatabase, NotesIDTable, String, String, EnumSet, EnumSet, NotesTimeDate, SearchCallback)}
+	 * for scans of many notes, e.g. to collect note ids or OIDs.<br>
+	 * <br>
+	 * Instead of creating wrapper objects for the originator id, timedates, note class and flags
+	 * and decoding the summary buffer for every match, the callback receives a single reusable
+	 * {@link SearchMatch} with primitive accessors that reads the C API match data on demand.
+	 * The summary buffer is only decoded when {@link SearchMatch#getSummary()} is called.
+	 * 
+	 * @param db database to search in
+	 * @param searchFilter optional search scope as {@link NotesIDTable} or null
+	 * @param formula formula or null
+	 * @param viewTitle optional view title that will be returned for "@ ViewTitle" within the formula or null
+	 * @param searchFlags flags to control searching ({@link Search})
+	 * @param noteClasses noteclasses to search
+	 * @param since The date of the earliest modified note that is matched. The note's "Modified in this file" date is compared to this date. Specify NULL if you do not wish any filtering by date.
+	 * @param callback callback to be called for every found note
+	 * @return The ending (current) time/date of this search. Returned so that it can be used in a subsequent call as the "Since" argument.
+	 * @throws FormulaCompilationError if formula syntax is invalid
+	 */
+	public static NotesTimeDate search(final NotesDatabase db, NotesIDTable searchFilter, final String formula, String viewTitle, final EnumSet<Search> searchFlags, EnumSet<NoteClass> noteClasses, NotesTimeDate since, final SearchMatchCallback callback) throws FormulaCompilationError {
+		return search(db, searchFilter, formula, viewTitle, searchFlags, NoteClass.toBitMaskInt(noteClasses), since, null, callback);
 	}
 	
 	/**
@@ -165,7 +191,7 @@ public class NotesSearch {
 	 * @throws FormulaCompilationError if formula syntax is invalid
 	 */
 	public static NotesTimeDate searchFiles(final NotesDatabase db, Object searchFilter, final String formula, String viewTitle, final EnumSet<Search> searchFlags, EnumSet<FileType> fileTypes, NotesTimeDate since, final SearchCallback callback) throws FormulaCompilationError {
-		return search(db, searchFilter, formula, viewTitle, searchFlags, FileType.toBitMaskInt(fileTypes), since, callback);
+		return search(db, searchFilter, formula, viewTitle, searchFlags, FileType.toBitMaskInt(fileTypes), since, callback, null);
 	}
 
 	/**
@@ -223,11 +249,12 @@ public class NotesSearch {
 	 * @param searchFlags flags to control searching ({@link Search})
 	 * @param noteClassMask bitmask of {@link NoteClass} or {@link FileType} to search
 	 * @param since The date of the earliest modified note that is matched. The note's "Modified in this file" date is compared to this date. Specify NULL if you do not wish any filtering by date.
-	 * @param callback callback to be called for every found note
-	 * @return The ending (current) time/date of this search. Returned so that it can be used in a subsequent call to {@link #search(NotesDatabase, Object, String, String, EnumSet, int, NotesTimeDate, SearchCallback)} as the "Since" argument.
+	 * @param callback callback to be called for every found note or null if <code>matchCallback</code> is set
+	 * @param matchCallback lean callback to be called for every found note or null if <code>callback</code> is set
+	 * @return The ending (current) time/date of this search. Returned so that it can be used in a subsequent call to {@link #search(NotesDatabase, Object, String, String, EnumSet, int, NotesTimeDate, SearchCallback, SearchMatchCallback)} as the "Since" argument.
 	 * @throws FormulaCompilationError if formula syntax is invalid
 	 */
-	private static NotesTimeDate search(final NotesDatabase db, Object searchFilter, final String formula, String viewTitle, final EnumSet<Search> searchFlags, int noteClassMask, NotesTimeDate since, final SearchCallback callback) throws FormulaCompilationError {
+	private static NotesTimeDate search(final NotesDatabase db, Object searchFilter, final String formula, String viewTitle, final EnumSet<Search> searchFlags, int noteClassMask, NotesTimeDate since, final SearchCallback callback, final SearchMatchCallback matchCallback) throws FormulaCompilationError {
 		if (db.isRecycled()) {
 			throw new NotesError(0, "Database already recycled");
 		}
@@ -248,13 +275,16 @@ public class NotesSearch {
 		
 		
 		if (NotesJNAContext.is64Bit()) {
-			final b64_NsfSearchProc apiCallback;
+			final Callback apiCallback;
 			final Throwable invocationEx[] = new Throwable[1];
 
 			//not sure if this is necessary, but we had to use a special library extending StdCallLibrary
 			//for Windows and the documentation says this might be required for callbacks as well
 			//(StdCallCallback)
-			if (notesAPI instanceof WinNotesCAPI) {
+			if (matchCallback!=null) {
+				apiCallback = createSearchMatchProc(notesAPI, db, formula, searchFlags, gmtOffset, isDST, matchCallback, invocationEx);
+			}
+			else if (notesAPI instanceof WinNotesCAPI) {
 				apiCallback = new WinNotesCAPI.b64_NsfSearchProcWin() {
 
 					@Override
@@ -473,10 +503,17 @@ public class NotesSearch {
 
 						@Override
 						public Short run() throws Exception {
+							if (apiCallback instanceof NsfSearchMatchProc) {
+								return notesAPI.b64_NSFSearchExtended3WithMatchProc(db.getHandle64(), hFormulaFinal,
+										hFilterFinal, filterFlagsFinal,
+										viewTitleBuf, searchFlagsBitMaskFinal, searchFlags1Final, searchFlags2Final, searchFlags3Final, searchFlags4Final,
+										(short) (noteClassMaskFinal & 0xffff), sinceStruct, (NsfSearchMatchProc) apiCallback, null, retUntil,
+										db.m_namesList==null ? 0 : db.m_namesList.getHandle64());
+							}
 							return notesAPI.b64_NSFSearchExtended3(db.getHandle64(), hFormulaFinal,
 									hFilterFinal, filterFlagsFinal,
 									viewTitleBuf, searchFlagsBitMaskFinal, searchFlags1Final, searchFlags2Final, searchFlags3Final, searchFlags4Final,
-									(short) (noteClassMaskFinal & 0xffff), sinceStruct, apiCallback, null, retUntil,
+									(short) (noteClassMaskFinal & 0xffff), sinceStruct, (b64_NsfSearchProc) apiCallback, null, retUntil,
 									db.m_namesList==null ? 0 : db.m_namesList.getHandle64());
 
 						}
@@ -516,10 +553,13 @@ public class NotesSearch {
 
 		}
 		else {
-			final b32_NsfSearchProc apiCallback;
+			final Callback apiCallback;
 			final Throwable invocationEx[] = new Throwable[1];
 
-			if (notesAPI instanceof WinNotesCAPI) {
+			if (matchCallback!=null) {
+				apiCallback = createSearchMatchProc(notesAPI, db, formula, searchFlags, gmtOffset, isDST, matchCallback, invocationEx);
+			}
+			else if (notesAPI instanceof WinNotesCAPI) {
 				apiCallback = new WinNotesCAPI.b32_NsfSearchProcWin() {
 					final Throwable invocationEx[] = new Throwable[1];
 
@@ -739,9 +779,14 @@ public class NotesSearch {
 
 						@Override
 						public Short run() throws Exception {
+							if (apiCallback instanceof NsfSearchMatchProc) {
+								return notesAPI.b32_NSFSearchExtended3WithMatchProc(db.getHandle32(), hFormulaFinal, hFilterFinal, filterFlagsFinal,
+										viewTitleBuf, searchFlagsBitMaskFinal & 0xffff, searchFlags1Final, searchFlags2Final, searchFlags3Final, searchFlags4Final,
+										(short) (noteClassMaskFinal & 0xffff), sinceStruct, (NsfSearchMatchProc) apiCallback, null, retUntil, db.m_namesList==null ? 0 : db.m_namesList.getHandle32());
+							}
 							return notesAPI.b32_NSFSearchExtended3(db.getHandle32(), hFormulaFinal, hFilterFinal, filterFlagsFinal,
 									viewTitleBuf, (int) (searchFlagsBitMaskFinal & 0xffff), searchFlags1Final, searchFlags2Final, searchFlags3Final, searchFlags4Final,
-									(short) (noteClassMaskFinal & 0xffff), sinceStruct, apiCallback, null, retUntil, db.m_namesList==null ? 0 : db.m_namesList.getHandle32());
+									(short) (noteClassMaskFinal & 0xffff), sinceStruct, (b32_NsfSearchProc) apiCallback, null, retUntil, db.m_namesList==null ? 0 : db.m_namesList.getHandle32());
 						}
 					});
 				} catch (PrivilegedActionException e) {
@@ -779,6 +824,78 @@ public class NotesSearch {
 		}
 	}
 
+	/**
+	 * Creates the C API callback for a {@link SearchMatchCallback}. The callback receives the raw
+	 * SEARCH_MATCH and ITEM_TABLE pointers and passes them to the callback via a reused {@link SearchMatch},
+	 * which is the same for 32 and 64 bit.
+	 * 
+	 * @param notesAPI API
+	 * @param db database to search in
+	 * @param formula formula or null
+	 * @param searchFlags flags to control searching
+	 * @param gmtOffset GMT offset to decode the summary buffer
+	 * @param isDST true if daylight saving time is active
+	 * @param callback callback to be called for every found note
+	 * @param invocationEx array to store an exception thrown by the callback
+	 * @return C API callback
+	 */
+	private static NsfSearchMatchProc createSearchMatchProc(NotesCAPI notesAPI, final NotesDatabase db, final String formula, EnumSet<Search> searchFlags,
+			int gmtOffset, boolean isDST, final SearchMatchCallback callback, final Throwable[] invocationEx) {
+		
+		final SearchMatch match = new SearchMatch(searchFlags.contains(Search.SUMMARY), gmtOffset, isDST);
+		
+		if (notesAPI instanceof WinNotesCAPI) {
+			return new WinNotesCAPI.NsfSearchMatchProcWin() {
+
+				@Override
+				public short invoke(Pointer enumRoutineParameter, Pointer searchMatch, Pointer summaryBuffer) {
+					return processSearchMatch(db, formula, match, searchMatch, summaryBuffer, callback, invocationEx);
+				}
+			};
+		}
+		else {
+			return new NsfSearchMatchProc() {
+
+				@Override
+				public short invoke(Pointer enumRoutineParameter, Pointer searchMatch, Pointer summaryBuffer) {
+					return processSearchMatch(db, formula, match, searchMatch, summaryBuffer, callback, invocationEx);
+				}
+			};
+		}
+	}
+	
+	private static short processSearchMatch(NotesDatabase db, String formula, SearchMatch match, Pointer searchMatchPtr, Pointer summaryBufferPtr,
+			SearchMatchCallback callback, Throwable[] invocationEx) {
+		
+		match.setData(searchMatchPtr, summaryBufferPtr);
+		try {
+			SearchMatchCallback.Action action;
+			if (match.isDeletionStub()) {
+				action = callback.deletionStubFound(db, match);
+			}
+			else if (formula!=null && !match.matchesFormula()) {
+				action = callback.noteFoundNotMatchingFormula(db, match);
+			}
+			else {
+				action = callback.noteFound(db, match);
+			}
+			
+			if (action==SearchMatchCallback.Action.Stop) {
+				return INotesErrorConstants.ERR_CANCEL;
+			}
+			else {
+				return 0;
+			}
+		}
+		catch (Throwable t) {
+			invocationEx[0] = t;
+			return INotesErrorConstants.ERR_CANCEL;
+		}
+		finally {
+			match.setData(null, null);
+		}
+	}
+	
 	private static EnumSet<NoteFlags> toNoteFlags(byte flagsAsByte) {
 		EnumSet<NoteFlags> flags = EnumSet.noneOf(NoteFlags.class);
 		boolean isTruncated = (flagsAsByte & NotesCAPI.SE_FTRUNCATED) == NotesCAPI.SE_FTRUNCATED;
@@ -885,4 +1002,333 @@ public class NotesSearch {
 		}
 		
 	}
+	
+	/**
+	 * Callback to process database search results with a reusable {@link SearchMatch},
+	 * see {@link NotesSearch#search(NotesDatabase, NotesIDTable, String, String, EnumSet, EnumSet, NotesTimeDate, SearchMatchCallback)}
+	 * 
+	 * @author Karsten Lehmann
+	 */
+	public static abstract class SearchMatchCallback {
+		public enum Action {Continue, Stop}
+		
+		/**
+		 * Implement this method to receive search results
+		 * 
+		 * @param parentDb parent database
+		 * @param match match data, only valid during this call
+		 * @return either {@link Action#Continue} to go on searching or {@link Action#Stop} to stop
+		 */
+		public abstract Action noteFound(NotesDatabase parentDb, SearchMatch match);
+		
+		/**
+		 * Implement this method to read deletion stubs. Method
+		 * is only called when a <code>since</code> date is specified.
+		 * 
+		 * @param parentDb parent database
+		 * @param match match data, only valid during this call
+		 * @return either {@link Action#Continue} to go on searching or {@link Action#Stop} to stop
+		 */
+		public Action deletionStubFound(NotesDatabase parentDb, SearchMatch match) {
+			return Action.Continue;
+		}
+		
+		/**
+		 * Implement this method to receive notes that do not match the selection formula. Method
+		 * is only called when a <code>since</code> date is specified.
+		 * 
+		 * @param parentDb parent database
+		 * @param match match data, only valid during this call
+		 * @return either {@link Action#Continue} to go on searching or {@link Action#Stop} to stop
+		 */
+		public Action noteFoundNotMatchingFormula(NotesDatabase parentDb, SearchMatch match) {
+			return Action.Continue;
+		}
+	}
+	
+	/**
+	 * Read-only view on the SEARCH_MATCH data of the C API for a {@link SearchMatchCallback}.<br>
+	 * <br>
+	 * The same instance is reused for all matches of a search and reads the values directly
+	 * from C memory, so it must not be stored or used after the callback returns. Methods
+	 * returning wrapper objects like {@link #getOID()} or {@link #getNoteFlags()} are only there
+	 * for convenience and create new objects on each call.
+	 * 
+	 * @author Karsten Lehmann
+	 */
+	public static class SearchMatch {
+		//SEARCH_MATCH consists of GLOBALINSTANCEID (TIMEDATE File, TIMEDATE Note, NOTEID), ORIGINATORID
+		//(TIMEDATE File, TIMEDATE Note, DWORD Sequence, TIMEDATE SequenceTime), WORD NoteClass, BYTE SERetFlags,
+		//BYTE Privileges and WORD SummaryLength; all members are at their natural alignment, so the
+		//offsets are the same for all platforms
+		private static final int OFFSET_DBCREATED = 0;
+		private static final int OFFSET_NOTEMODIFIED = 8;
+		private static final int OFFSET_NOTEID = 16;
+		private static final int OFFSET_OID_FILE = 20;
+		private static final int OFFSET_OID_NOTE = 28;
+		private static final int OFFSET_SEQUENCE = 36;
+		private static final int OFFSET_SEQUENCETIME = 40;
+		private static final int OFFSET_NOTECLASS = 48;
+		private static final int OFFSET_SERETFLAGS = 50;
+		private static final int OFFSET_PRIVILEGES = 51;
+		private static final int OFFSET_SUMMARYLENGTH = 52;
+		
+		private final boolean m_summaryRequested;
+		private final int m_gmtOffset;
+		private final boolean m_isDST;
+		private Pointer m_searchMatchPtr;
+		private Pointer m_summaryBufferPtr;
+		private ItemTableData m_summaryBufferData;
+		
+		private SearchMatch(boolean summaryRequested, int gmtOffset, boolean isDST) {
+			m_summaryRequested = summaryRequested;
+			m_gmtOffset = gmtOffset;
+			m_isDST = isDST;
+		}
+		
+		private void setData(Pointer searchMatchPtr, Pointer summaryBufferPtr) {
+			m_searchMatchPtr = searchMatchPtr;
+			m_summaryBufferPtr = m_summaryRequested ? summaryBufferPtr : null;
+			m_summaryBufferData = null;
+		}
+		
+		private Pointer getSearchMatchPtr() {
+			if (m_searchMatchPtr==null)
+				throw new IllegalStateException("Search match data can only be read during the callback invocation");
+			return m_searchMatchPtr;
+		}
+		
+		/**
+		 * Returns the note id
+		 * 
+		 * @return note id
+		 */
+		public int getNoteId() {
+			return getSearchMatchPtr().getInt(OFFSET_NOTEID);
+		}
+		
+		/**
+		 * Returns the note class as bitmask of {@link NoteClass} values
+		 * 
+		 * @return note class
+		 */
+		public int getNoteClass() {
+			return getSearchMatchPtr().getShort(OFFSET_NOTECLASS) & 0xffff;
+		}
+		
+		/**
+		 * Checks if the note class contains a {@link NoteClass}
+		 * 
+		 * @param noteClass note class to check
+		 * @return true if contained
+		 */
+		public boolean isNoteClass(NoteClass noteClass) {
+			return (getNoteClass() & noteClass.getValue()) != 0;
+		}
+		
+		/**
+		 * Returns true if the match is a deletion stub, see {@link SearchMatchCallback#deletionStubFound(NotesDatabase, SearchMatch)}
+		 * 
+		 * @return true if deletion stub
+		 */
+		public boolean isDeletionStub() {
+			return (getNoteClass() & (NotesCAPI.NOTE_CLASS_NOTIFYDELETION & 0xffff)) != 0;
+		}
+		
+		/**
+		 * Returns the raw search flags (SE_Fxxx values in {@link NotesCAPI})
+		 * 
+		 * @return flags
+		 */
+		public int getSearchFlags() {
+			return getSearchMatchPtr().getByte(OFFSET_SERETFLAGS) & 0xff;
+		}
+		
+		/**
+		 * Returns true if the note matches the search formula
+		 * 
+		 * @return true if match
+		 */
+		public boolean matchesFormula() {
+			return (getSearchFlags() & NotesCAPI.SE_FMATCH) != 0;
+		}
+		
+		/**
+		 * Checks if a flag is set
+		 * 
+		 * @param flag flag
+		 * @return true if set
+		 */
+		public boolean hasFlag(NoteFlags flag) {
+			int flags = getSearchFlags();
+			switch (flag) {
+			case NoMatch:
+				return (flags & NotesCAPI.SE_FMATCH) == 0;
+			case Match:
+				return (flags & NotesCAPI.SE_FMATCH) != 0;
+			case Truncated:
+				return (flags & NotesCAPI.SE_FTRUNCATED) != 0;
+			case Purged:
+				return (flags & NotesCAPI.SE_FPURGED) != 0;
+			case NoPurgeStatus:
+				return (flags & NotesCAPI.SE_FNOPURGE) != 0;
+			case SoftDeleted:
+				return (flags & NotesCAPI.SE_FSOFTDELETED) != 0;
+			case NoAccess:
+				return (flags & NotesCAPI.SE_FNOACCESS) != 0;
+			case TruncatedAttachments:
+				return (flags & NotesCAPI.SE_FTRUNCATT) != 0;
+			default:
+				return false;
+			}
+		}
+		
+		/**
+		 * Returns the flags as enum values. Creates a new set on each call, use {@link #hasFlag(NoteFlags)}
+		 * to check single flags.
+		 * 
+		 * @return flags
+		 */
+		public EnumSet<NoteFlags> getNoteFlags() {
+			return toNoteFlags(getSearchMatchPtr().getByte(OFFSET_SERETFLAGS));
+		}
+		
+		/**
+		 * Returns the privileges of the current user for the note
+		 * 
+		 * @return privileges
+		 */
+		public int getPrivileges() {
+			return getSearchMatchPtr().getByte(OFFSET_PRIVILEGES) & 0xff;
+		}
+		
+		/**
+		 * Returns the file part of the UNID, see {@link NotesStringUtils#toUNID(long, long)}
+		 * 
+		 * @return file innards as long
+		 */
+		public long getUnidFile() {
+			Pointer ptr = getSearchMatchPtr();
+			return ((long) ptr.getInt(OFFSET_OID_FILE + 4) << 32) | (ptr.getInt(OFFSET_OID_FILE) & 0xffffffffL);
+		}
+		
+		/**
+		 * Returns the note part of the UNID, see {@link NotesStringUtils#toUNID(long, long)}
+		 * 
+		 * @return note innards as long
+		 */
+		public long getUnidNote() {
+			Pointer ptr = getSearchMatchPtr();
+			return ((long) ptr.getInt(OFFSET_OID_NOTE + 4) << 32) | (ptr.getInt(OFFSET_OID_NOTE) & 0xffffffffL);
+		}
+		
+		/**
+		 * Returns the UNID as hex string
+		 * 
+		 * @return UNID
+		 */
+		public String getUnid() {
+			return NotesStringUtils.toUNID(getUnidFile(), getUnidNote());
+		}
+		
+		/**
+		 * Returns the sequence number
+		 * 
+		 * @return sequence number
+		 */
+		public int getSequence() {
+			return getSearchMatchPtr().getInt(OFFSET_SEQUENCE);
+		}
+		
+		/**
+		 * Copies the innards of the sequence time ( = "Modified (initially)") into an array
+		 * 
+		 * @param innards array to write the two innards values to
+		 */
+		public void getSequenceTimeInnards(int[] innards) {
+			getSearchMatchPtr().read(OFFSET_SEQUENCETIME, innards, 0, 2);
+		}
+		
+		/**
+		 * Copies the innards of the "modified in this file" timedate into an array
+		 * 
+		 * @param innards array to write the two innards values to
+		 */
+		public void getNoteModifiedInnards(int[] innards) {
+			getSearchMatchPtr().read(OFFSET_NOTEMODIFIED, innards, 0, 2);
+		}
+		
+		/**
+		 * Copies the innards of the database replica id (part of the Global Instance ID) into an array
+		 * 
+		 * @param innards array to write the two innards values to
+		 */
+		public void getDbCreatedInnards(int[] innards) {
+			getSearchMatchPtr().read(OFFSET_DBCREATED, innards, 0, 2);
+		}
+		
+		/**
+		 * Returns the "modified in this file" timedate
+		 * 
+		 * @return timedate
+		 */
+		public NotesTimeDate getNoteModified() {
+			int[] innards = new int[2];
+			getNoteModifiedInnards(innards);
+			return new NotesTimeDate(innards);
+		}
+		
+		/**
+		 * Returns the originator id containing the UNID and the sequence number/date
+		 * 
+		 * @return OID
+		 */
+		public NotesOriginatorId getOID() {
+			int[] sequenceTimeInnards = new int[2];
+			getSequenceTimeInnards(sequenceTimeInnards);
+			return new NotesOriginatorId(getUnid(), getSequence(), sequenceTimeInnards);
+		}
+		
+		/**
+		 * Returns true if the summary buffer is available, which requires {@link Search#SUMMARY}
+		 * 
+		 * @return true if available
+		 */
+		public boolean hasSummary() {
+			getSearchMatchPtr();
+			return m_summaryBufferPtr!=null;
+		}
+		
+		/**
+		 * Returns the length of the summary buffer
+		 * 
+		 * @return length
+		 */
+		public int getSummaryLength() {
+			return getSearchMatchPtr().getShort(OFFSET_SUMMARYLENGTH) & 0xffff;
+		}
+		
+		/**
+		 * Decodes the summary buffer on first call
+		 * 
+		 * @return summary buffer data or null if {@link Search#SUMMARY} was not specified
+		 */
+		public ItemTableData getSummary() {
+			getSearchMatchPtr();
+			if (m_summaryBufferData==null && m_summaryBufferPtr!=null) {
+				boolean convertStringsLazily = true;
+				m_summaryBufferData = NotesLookupResultBufferDecoder.decodeItemTable(m_summaryBufferPtr, m_gmtOffset, m_isDST, convertStringsLazily);
+			}
+			return m_summaryBufferData;
+		}
+		
+		@Override
+		public String toString() {
+			if (m_searchMatchPtr==null) {
+				return "SearchMatch [no data]";
+			}
+			return "SearchMatch [noteid="+getNoteId()+", unid="+getUnid()+", seq="+getSequence()+", class="+getNoteClass()+
+					", flags="+getSearchFlags()+"]";
+		}
+	}
 }
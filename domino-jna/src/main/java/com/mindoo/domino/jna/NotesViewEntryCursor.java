@@ -0,0 +1,965 @@
+package com.mindoo.domino.jna;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.internal.ItemDecoder;
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder;
+import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemTableData;
+import com.mindoo.domino.jna.internal.NotesLookupResultBufferDecoder.ItemValueTableData;
+import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
+import com.mindoo.domino.jna.utils.NotesStringUtils;
+import com.sun.jna.Pointer;
+
+/**
+ * Streaming cursor over the buffer returned by a collection read (NIFReadEntries).<br>
+ * <br>
+ * In contrast to {@link NotesViewEntryData}, which is created for every entry and contains
+ * all decoded column values, the cursor is a reusable flyweight that gets repositioned via
+ * {@link #next()}. It only computes the offsets of the entry data and column values in the
+ * locked buffer (stored in primitive arrays) and decodes a value when it is accessed.
+ * Use {@link #copy()} to create a {@link NotesViewEntryData} for entries that you want to keep.<br>
+ * <br>
+ * The cursor is only valid within {@link NotesCollection.ViewEntryCursorCallback#entryRead(Object, NotesViewEntryCursor)},
+ * since the buffer is freed after the callback has processed the read entries.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesViewEntryCursor {
+	private NotesCollection m_parentCollection;
+	private long m_bufferHandle;
+	private Pointer m_bufferPtr;
+	private ByteBuffer m_buf;
+
+	private EnumSet<ReadMask> m_returnMask;
+	private int m_gmtOffset;
+	private boolean m_useDayLight;
+	private boolean m_decodeTimeDatesAsMillis;
+
+	private int m_numEntriesSkipped;
+	private int m_numEntriesReturned;
+	private short m_signalFlags;
+	private int m_indexModifiedSequenceNo;
+	private NotesCollectionStats m_collectionStats;
+
+	//offsets of fixed size entry data relative to the entry start, -1 if not read
+	private int m_offsetNoteId;
+	private int m_offsetUNID;
+	private int m_offsetNoteClass;
+	private int m_offsetSiblingCount;
+	private int m_offsetChildCount;
+	private int m_offsetDescendantCount;
+	private int m_offsetAnyUnread;
+	private int m_offsetIndentLevels;
+	private int m_offsetFTScore;
+	private int m_offsetUnread;
+	private int m_fixedEntrySize;
+	private boolean m_hasPosition;
+	private boolean m_hasSummaryValues;
+	private boolean m_hasSummary;
+
+	private int m_firstEntryOffset;
+	private int m_nextEntryOffset;
+	private int m_entryIndex;
+
+	//data of the current entry
+	private int m_entryOffset;
+	private int m_positionOffset;
+	private int m_summaryOffset;
+	private int m_itemsCount;
+	//per item: offsets of the item name (-1 for summary values), the data type WORD and the value length including the data type
+	private int[] m_itemNameOffsets = new int[16];
+	private int[] m_itemNameLengths = new int[16];
+	private int[] m_itemValueOffsets = new int[16];
+	private int[] m_itemValueLengths = new int[16];
+
+	/**
+	 * Creates a new cursor
+	 *
+	 * @param parentCollection parent collection
+	 */
+	NotesViewEntryCursor(NotesCollection parentCollection) {
+		m_parentCollection = parentCollection;
+	}
+
+	/**
+	 * Locks the buffer returned by NIFReadEntries and positions the cursor before the first entry
+	 *
+	 * @param bufferHandle buffer handle
+	 * @param bufferLength length of buffer
+	 * @param numEntriesSkipped entries skipped during collection scan
+	 * @param numEntriesReturned entries read during collection scan
+	 * @param returnMask bitmask used to fill the buffer with data
+	 * @param signalFlags signal flags returned by NIFReadEntries
+	 * @param indexModifiedSequenceNo index modified sequence no
+	 */
+	void reset(long bufferHandle, int bufferLength, int numEntriesSkipped, int numEntriesReturned,
+			EnumSet<ReadMask> returnMask, short signalFlags, int indexModifiedSequenceNo) {
+		free();
+
+		m_numEntriesSkipped = numEntriesSkipped;
+		m_numEntriesReturned = numEntriesReturned;
+		m_signalFlags = signalFlags;
+		m_indexModifiedSequenceNo = indexModifiedSequenceNo;
+		m_collectionStats = null;
+		m_entryIndex = -1;
+		m_entryOffset = -1;
+		m_itemsCount = 0;
+
+		if (bufferHandle==0) {
+			m_numEntriesReturned = 0;
+			return;
+		}
+
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		m_bufferHandle = bufferHandle;
+		if (NotesJNAContext.is64Bit()) {
+			m_bufferPtr = notesAPI.b64_OSLockObject(bufferHandle);
+		}
+		else {
+			m_bufferPtr = notesAPI.b32_OSLockObject((int) bufferHandle);
+		}
+		m_buf = m_bufferPtr.getByteBuffer(0, bufferLength);
+		m_buf.order(ByteOrder.nativeOrder());
+
+		if (!returnMask.equals(m_returnMask)) {
+			m_returnMask = returnMask.clone();
+			computeFixedOffsets();
+		}
+		m_gmtOffset = NotesDateTimeUtils.getGMTOffset();
+		m_useDayLight = NotesDateTimeUtils.isDaylightTime();
+		m_decodeTimeDatesAsMillis = NotesDateTimeUtils.isDecodeTimeDatesAsMillis();
+
+		m_firstEntryOffset = 0;
+		if (returnMask.contains(ReadMask.COLLECTIONSTATS)) {
+			//COLLECTIONSTATS: DWORD TopLevelEntries, DWORD LastModifiedTime
+			m_collectionStats = new NotesCollectionStats(m_buf.getInt(0), m_buf.getInt(4));
+			m_firstEntryOffset = 8;
+		}
+		m_nextEntryOffset = m_firstEntryOffset;
+	}
+
+	private void computeFixedOffsets() {
+		int offset = 0;
+		m_offsetNoteId = -1;
+		m_offsetUNID = -1;
+		m_offsetNoteClass = -1;
+		m_offsetSiblingCount = -1;
+		m_offsetChildCount = -1;
+		m_offsetDescendantCount = -1;
+		m_offsetAnyUnread = -1;
+		m_offsetIndentLevels = -1;
+		m_offsetFTScore = -1;
+		m_offsetUnread = -1;
+
+		//same order as in NotesLookupResultBufferDecoder
+		if (m_returnMask.contains(ReadMask.NOTEID)) {
+			m_offsetNoteId = offset;
+			offset += 4;
+		}
+		if (m_returnMask.contains(ReadMask.NOTEUNID)) {
+			m_offsetUNID = offset;
+			offset += 16;
+		}
+		if (m_returnMask.contains(ReadMask.NOTECLASS)) {
+			m_offsetNoteClass = offset;
+			offset += 2;
+		}
+		if (m_returnMask.contains(ReadMask.INDEXSIBLINGS)) {
+			m_offsetSiblingCount = offset;
+			offset += 4;
+		}
+		if (m_returnMask.contains(ReadMask.INDEXCHILDREN)) {
+			m_offsetChildCount = offset;
+			offset += 4;
+		}
+		if (m_returnMask.contains(ReadMask.INDEXDESCENDANTS)) {
+			m_offsetDescendantCount = offset;
+			offset += 4;
+		}
+		if (m_returnMask.contains(ReadMask.INDEXANYUNREAD)) {
+			m_offsetAnyUnread = offset;
+			offset += 2;
+		}
+		if (m_returnMask.contains(ReadMask.INDENTLEVELS)) {
+			m_offsetIndentLevels = offset;
+			offset += 2;
+		}
+		if (m_returnMask.contains(ReadMask.SCORE)) {
+			m_offsetFTScore = offset;
+			offset += 2;
+		}
+		if (m_returnMask.contains(ReadMask.INDEXUNREAD)) {
+			m_offsetUnread = offset;
+			offset += 2;
+		}
+		m_fixedEntrySize = offset;
+		m_hasPosition = m_returnMask.contains(ReadMask.INDEXPOSITION);
+		m_hasSummaryValues = m_returnMask.contains(ReadMask.SUMMARYVALUES);
+		m_hasSummary = m_returnMask.contains(ReadMask.SUMMARY);
+	}
+
+	/**
+	 * Unlocks and frees the buffer
+	 */
+	void free() {
+		if (m_bufferHandle!=0) {
+			NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+			if (NotesJNAContext.is64Bit()) {
+				notesAPI.b64_OSUnlockObject(m_bufferHandle);
+				notesAPI.b64_OSMemFree(m_bufferHandle);
+			}
+			else {
+				notesAPI.b32_OSUnlockObject((int) m_bufferHandle);
+				notesAPI.b32_OSMemFree((int) m_bufferHandle);
+			}
+			m_bufferHandle = 0;
+			m_bufferPtr = null;
+			m_buf = null;
+		}
+	}
+
+	private void checkEntry() {
+		if (m_entryOffset==-1) {
+			throw new IllegalStateException("Cursor is not positioned on an entry");
+		}
+	}
+
+	/**
+	 * Moves the cursor to the next entry in the buffer
+	 *
+	 * @return true if there is an entry, false if all entries have been read
+	 */
+	public boolean next() {
+		if ((m_entryIndex+1) >= m_numEntriesReturned || m_buf==null) {
+			m_entryOffset = -1;
+			m_itemsCount = 0;
+			return false;
+		}
+		m_entryIndex++;
+		m_entryOffset = m_nextEntryOffset;
+
+		int offset = m_entryOffset + m_fixedEntrySize;
+
+		m_positionOffset = -1;
+		if (m_hasPosition) {
+			m_positionOffset = offset;
+			int level = m_buf.getShort(offset);
+			offset += 4 * (level + 2);
+		}
+
+		m_summaryOffset = -1;
+		m_itemsCount = 0;
+		if (m_hasSummaryValues) {
+			m_summaryOffset = offset;
+			offset = scanItemValueTable(offset);
+		}
+		if (m_hasSummary) {
+			m_summaryOffset = offset;
+			offset = scanItemTable(offset);
+		}
+
+		m_nextEntryOffset = offset;
+		return true;
+	}
+
+	private void ensureItemCapacity(int itemsCount) {
+		if (m_itemValueOffsets.length < itemsCount) {
+			int newSize = Math.max(itemsCount, m_itemValueOffsets.length * 2);
+			m_itemNameOffsets = new int[newSize];
+			m_itemNameLengths = new int[newSize];
+			m_itemValueOffsets = new int[newSize];
+			m_itemValueLengths = new int[newSize];
+		}
+	}
+
+	/**
+	 * Computes the item value offsets of an ITEM_VALUE_TABLE
+	 *
+	 * @param offset offset of the table
+	 * @return offset after the table
+	 */
+	private int scanItemValueTable(int offset) {
+		int totalBufferLength = m_buf.getShort(offset) & 0xffff;
+		int itemsCount = m_buf.getShort(offset + 2) & 0xffff;
+		ensureItemCapacity(itemsCount);
+		m_itemsCount = itemsCount;
+
+		int lengthsOffset = offset + NotesCAPI.itemValueTableSize;
+		int valueOffset = lengthsOffset + 2 * itemsCount;
+
+		for (int i=0; i<itemsCount; i++) {
+			int valueLength = m_buf.getShort(lengthsOffset + 2*i) & 0xffff;
+			m_itemNameOffsets[i] = -1;
+			m_itemNameLengths[i] = 0;
+			m_itemValueOffsets[i] = valueOffset;
+			m_itemValueLengths[i] = valueLength;
+			valueOffset += valueLength;
+		}
+		return offset + totalBufferLength;
+	}
+
+	/**
+	 * Computes the item name and value offsets of an ITEM_TABLE
+	 *
+	 * @param offset offset of the table
+	 * @return offset after the table
+	 */
+	private int scanItemTable(int offset) {
+		int totalBufferLength = m_buf.getShort(offset) & 0xffff;
+		int itemsCount = m_buf.getShort(offset + 2) & 0xffff;
+		ensureItemCapacity(itemsCount);
+		m_itemsCount = itemsCount;
+
+		int itemOffset = offset + 4;
+		int dataOffset = itemOffset + itemsCount * NotesCAPI.tableItemSize;
+
+		for (int i=0; i<itemsCount; i++) {
+			int nameLength = m_buf.getShort(itemOffset + NotesCAPI.tableItemSize*i) & 0xffff;
+			int valueLength = m_buf.getShort(itemOffset + NotesCAPI.tableItemSize*i + 2) & 0xffff;
+			m_itemNameOffsets[i] = dataOffset;
+			m_itemNameLengths[i] = nameLength;
+			dataOffset += nameLength;
+			m_itemValueOffsets[i] = dataOffset;
+			m_itemValueLengths[i] = valueLength;
+			dataOffset += valueLength;
+		}
+		return offset + totalBufferLength;
+	}
+
+	/**
+	 * Returns the parent collection
+	 *
+	 * @return collection
+	 */
+	public NotesCollection getParent() {
+		return m_parentCollection;
+	}
+
+	/**
+	 * Returns the collection stats, only available if {@link ReadMask#COLLECTIONSTATS} has been used for the lookup
+	 *
+	 * @return stats or null
+	 */
+	public NotesCollectionStats getStats() {
+		return m_collectionStats;
+	}
+
+	/**
+	 * Returns the number of entries skipped by the read operation
+	 *
+	 * @return count
+	 */
+	public int getSkipCount() {
+		return m_numEntriesSkipped;
+	}
+
+	/**
+	 * Returns the number of entries in the buffer
+	 *
+	 * @return count
+	 */
+	public int getReturnCount() {
+		return m_numEntriesReturned;
+	}
+
+	/**
+	 * Returns true if there is more data to read after the last entry of the buffer
+	 *
+	 * @return true if more to do
+	 */
+	public boolean hasMoreToDo() {
+		return (m_signalFlags & NotesCAPI.SIGNAL_MORE_TO_DO) == NotesCAPI.SIGNAL_MORE_TO_DO;
+	}
+
+	/**
+	 * Returns true if the view has been modified in a way that the read data is no longer
+	 * consistent (e.g. the view index or design has changed)
+	 *
+	 * @return true if conflicts
+	 */
+	public boolean hasAnyNonDataConflicts() {
+		return (m_signalFlags & NotesCAPI.SIGNAL_ANY_NONDATA_CONFLICT) != 0;
+	}
+
+	/**
+	 * Returns the index modified sequence number of the read operation
+	 *
+	 * @return sequence number
+	 */
+	public int getIndexModifiedSequenceNo() {
+		return m_indexModifiedSequenceNo;
+	}
+
+	/**
+	 * Returns the index of the current entry in the buffer
+	 *
+	 * @return index, -1 if {@link #next()} has not been called yet
+	 */
+	public int getIndexInBuffer() {
+		return m_entryIndex;
+	}
+
+	/**
+	 * Returns the note id of the current entry. Only returns a value if {@link ReadMask#NOTEID} is used for the lookup
+	 *
+	 * @return note id or 0
+	 */
+	public int getNoteId() {
+		checkEntry();
+		return m_offsetNoteId==-1 ? 0 : m_buf.getInt(m_entryOffset + m_offsetNoteId);
+	}
+
+	/**
+	 * Method to check whether the entry is a category. Only returns a value if {@link ReadMask#NOTEID}
+	 * is used for the lookup
+	 *
+	 * @return true if category
+	 */
+	public boolean isCategory() {
+		return (getNoteId() & NotesCAPI.NOTEID_CATEGORY) == NotesCAPI.NOTEID_CATEGORY;
+	}
+
+	/**
+	 * Method to check whether the entry is a total value. Only returns a value if {@link ReadMask#NOTEID}
+	 * is used for the lookup
+	 *
+	 * @return true if total
+	 */
+	public boolean isTotal() {
+		return (getNoteId() & NotesCAPI.NOTEID_CATEGORY_TOTAL) == NotesCAPI.NOTEID_CATEGORY_TOTAL;
+	}
+
+	/**
+	 * Method to check whether the entry is a document. Only returns a value if {@link ReadMask#NOTEID}
+	 * is used for the lookup
+	 *
+	 * @return true if document
+	 */
+	public boolean isDocument() {
+		return !isCategory() && !isTotal();
+	}
+
+	/**
+	 * Returns the UNID of the current entry. Only returns a value if {@link ReadMask#NOTEUNID}
+	 * is used for the lookup
+	 *
+	 * @return UNID or null
+	 */
+	public String getUNID() {
+		checkEntry();
+		if (m_offsetUNID==-1)
+			return null;
+
+		int offset = m_entryOffset + m_offsetUNID;
+		return NotesStringUtils.toUNID(m_buf.getLong(offset), m_buf.getLong(offset + 8));
+	}
+
+	/**
+	 * Returns the note class of the current entry. Only returns a value if {@link ReadMask#NOTECLASS}
+	 * is used for the lookup
+	 *
+	 * @return class
+	 */
+	public int getNoteClass() {
+		checkEntry();
+		return m_offsetNoteClass==-1 ? 0 : m_buf.getShort(m_entryOffset + m_offsetNoteClass);
+	}
+
+	/**
+	 * Returns the sibling count. Only returns a value if {@link ReadMask#INDEXSIBLINGS}
+	 * is used for the lookup
+	 *
+	 * @return count or 0
+	 */
+	public int getSiblingCount() {
+		checkEntry();
+		return m_offsetSiblingCount==-1 ? 0 : m_buf.getInt(m_entryOffset + m_offsetSiblingCount);
+	}
+
+	/**
+	 * Returns the child count. Only returns a value if {@link ReadMask#INDEXCHILDREN}
+	 * is used for the lookup
+	 *
+	 * @return count or 0
+	 */
+	public int getChildCount() {
+		checkEntry();
+		return m_offsetChildCount==-1 ? 0 : m_buf.getInt(m_entryOffset + m_offsetChildCount);
+	}
+
+	/**
+	 * Returns the descendant count. Only returns a value if {@link ReadMask#INDEXDESCENDANTS}
+	 * is used for the lookup
+	 *
+	 * @return count or 0
+	 */
+	public int getDescendantCount() {
+		checkEntry();
+		return m_offsetDescendantCount==-1 ? 0 : m_buf.getInt(m_entryOffset + m_offsetDescendantCount);
+	}
+
+	/**
+	 * Returns true if the entry or any descendant is unread. Only returns a value if {@link ReadMask#INDEXANYUNREAD}
+	 * is used for the lookup
+	 *
+	 * @return true if unread
+	 */
+	public boolean isAnyUnread() {
+		checkEntry();
+		return m_offsetAnyUnread==-1 ? false : m_buf.getShort(m_entryOffset + m_offsetAnyUnread) == 1;
+	}
+
+	/**
+	 * Returns the indent levels. Only returns a value if {@link ReadMask#INDENTLEVELS}
+	 * is used for the lookup
+	 *
+	 * @return indent levels or 0
+	 */
+	public int getIndentLevels() {
+		checkEntry();
+		return m_offsetIndentLevels==-1 ? 0 : m_buf.getShort(m_entryOffset + m_offsetIndentLevels);
+	}
+
+	/**
+	 * Returns the fulltext search score. Only returns a value if {@link ReadMask#SCORE}
+	 * is used for the lookup
+	 *
+	 * @return score or 0
+	 */
+	public int getFTScore() {
+		checkEntry();
+		return m_offsetFTScore==-1 ? 0 : m_buf.getShort(m_entryOffset + m_offsetFTScore);
+	}
+
+	/**
+	 * Returns true if the entry is unread. Only returns a value if {@link ReadMask#INDEXUNREAD}
+	 * is used for the lookup
+	 *
+	 * @return true if unread
+	 */
+	public boolean isUnread() {
+		checkEntry();
+		return m_offsetUnread==-1 ? false : m_buf.getShort(m_entryOffset + m_offsetUnread) == 1;
+	}
+
+	/**
+	 * Returns the level of the entry in the view (position 1 = level 0, position 1.1 = level 1)
+	 *
+	 * @return level, only available if {@link ReadMask#INDEXPOSITION} is used, otherwise the method returns -1
+	 */
+	public int getLevel() {
+		checkEntry();
+		return m_positionOffset==-1 ? -1 : m_buf.getShort(m_positionOffset);
+	}
+
+	/**
+	 * Returns a part of the entry position, e.g. 2 for level 1 and position 1.2.3
+	 *
+	 * @param level level between 0 and {@link #getLevel()}
+	 * @return position part
+	 */
+	public int getPosition(int level) {
+		checkEntry();
+		if (level<0 || level>getLevel()) {
+			throw new IndexOutOfBoundsException("Invalid level "+level+", entry level is "+getLevel());
+		}
+		//skip level and MinLevel+MaxLevel
+		return m_buf.getInt(m_positionOffset + 4 + 4*level);
+	}
+
+	/**
+	 * Returns the entry position in the view as an int array. Only returns a non-null value if
+	 * {@link ReadMask#INDEXPOSITION} is used for the lookup.
+	 *
+	 * @return position or null
+	 */
+	public int[] getPosition() {
+		int level = getLevel();
+		if (level==-1)
+			return null;
+
+		int[] pos = new int[level+1];
+		for (int i=0; i<=level; i++) {
+			pos[i] = getPosition(i);
+		}
+		return pos;
+	}
+
+	/**
+	 * Returns the entry position in the view as a string (e.g. 1.2.3). Only returns a non-null value if
+	 * {@link ReadMask#INDEXPOSITION} is used for the lookup.
+	 *
+	 * @return position string or empty string
+	 */
+	public String getPositionStr() {
+		int level = getLevel();
+		if (level==-1)
+			return "";
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<=level; i++) {
+			if (i>0)
+				sb.append(".");
+			sb.append(getPosition(i));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of column values / summary items of the current entry
+	 *
+	 * @return count
+	 */
+	public int getItemCount() {
+		checkEntry();
+		return m_itemsCount;
+	}
+
+	private void checkItemIndex(int index) {
+		checkEntry();
+		if (index<0 || index>=m_itemsCount) {
+			throw new IndexOutOfBoundsException("Invalid item index "+index+", entry has "+m_itemsCount+" values");
+		}
+	}
+
+	/**
+	 * Returns the item name at the specified index. Only returns a value if {@link ReadMask#SUMMARY} is
+	 * used for the lookup, the buffer does not contain item names for {@link ReadMask#SUMMARYVALUES}.
+	 *
+	 * @param index item index
+	 * @return name or null
+	 */
+	public String getItemName(int index) {
+		checkItemIndex(index);
+		if (m_itemNameOffsets[index]==-1)
+			return null;
+
+		return NotesStringUtils.fromLMBCS(m_buf, m_itemNameLengths[index], m_itemNameOffsets[index], false);
+	}
+
+	/**
+	 * Returns the index of a column value. For {@link ReadMask#SUMMARYVALUES}, we use
+	 * {@link NotesCollection#getColumnValuesIndex(String)}. For {@link ReadMask#SUMMARY},
+	 * we compare the item names in the buffer (case insensitive).
+	 *
+	 * @param columnNameOrTitle programmatic column name or column title
+	 * @return index or -1 if not found
+	 */
+	public int getItemIndex(String columnNameOrTitle) {
+		checkEntry();
+		if (m_hasSummary) {
+			for (int i=0; i<m_itemsCount; i++) {
+				if (isItemName(i, columnNameOrTitle)) {
+					return i;
+				}
+			}
+			//try to find the programmatic column name if columnNameOrTitle contains the column title
+			int colIdx = m_parentCollection.getColumnValuesIndex(columnNameOrTitle);
+			if (colIdx!=-1 && colIdx!=65535) {
+				String progColName = m_parentCollection.getColumnName(colIdx);
+				if (progColName!=null && !progColName.equalsIgnoreCase(columnNameOrTitle)) {
+					return getItemIndex(progColName);
+				}
+			}
+			return -1;
+		}
+		else {
+			int colIdx = m_parentCollection.getColumnValuesIndex(columnNameOrTitle);
+			if (colIdx!=-1 && colIdx!=65535 && colIdx<m_itemsCount) {
+				return colIdx;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * Compares the LMBCS item name in the buffer with a string without decoding it
+	 *
+	 * @param index item index
+	 * @param name name to compare with
+	 * @return true if equal (ignoring case of ASCII characters)
+	 */
+	private boolean isItemName(int index, String name) {
+		int nameLength = m_itemNameLengths[index];
+		if (nameLength!=name.length())
+			return false;
+
+		int nameOffset = m_itemNameOffsets[index];
+		for (int i=0; i<nameLength; i++) {
+			int b = m_buf.get(nameOffset + i) & 0xff;
+			char c = name.charAt(i);
+			if (b>=0x80 || c>=0x80) {
+				//item names are ASCII in general; compare the decoded name for the others
+				return name.equalsIgnoreCase(getItemName(index));
+			}
+			if (Character.toLowerCase((char) b) != Character.toLowerCase(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the data type of a column value, e.g. {@link NotesItem#TYPE_TEXT}
+	 *
+	 * @param index item index
+	 * @return type or 0 if the value is empty
+	 */
+	public int getItemDataType(int index) {
+		checkItemIndex(index);
+		if (m_itemValueLengths[index]==0)
+			return 0;
+
+		return m_buf.getShort(m_itemValueOffsets[index]) & 0xffff;
+	}
+
+	/**
+	 * Returns the size of a column value in bytes (including the data type), e.g.
+	 * to find out which columns "pollute" the summary buffer
+	 *
+	 * @param index item index
+	 * @return size
+	 */
+	public int getItemValueSizeInBytes(int index) {
+		checkItemIndex(index);
+		return m_itemValueLengths[index];
+	}
+
+	/**
+	 * Returns true if the column value is empty, e.g. for a lower-level category
+	 * or a field that is missing in a response doc
+	 *
+	 * @param index item index
+	 * @return true if empty
+	 */
+	public boolean isItemEmpty(int index) {
+		checkItemIndex(index);
+		return m_itemValueLengths[index]==0;
+	}
+
+	/**
+	 * Decodes a column value. The following data types are returned for the different column data types:<br>
+	 * <ul>
+	 * <li>{@link NotesItem#TYPE_TEXT} - {@link String}</li>
+	 * <li>{@link NotesItem#TYPE_TEXT_LIST} - {@link List} of {@link String}</li>
+	 * <li>{@link NotesItem#TYPE_NUMBER} - {@link Double}</li>
+	 * <li>{@link NotesItem#TYPE_NUMBER_RANGE} - {@link List} with {@link Double} values for number lists or double[] values for number ranges</li>
+	 * <li>{@link NotesItem#TYPE_TIME} - {@link Calendar}</li>
+	 * <li>{@link NotesItem#TYPE_TIME_RANGE} - {@link List} with {@link Calendar} values for number lists or Calendar[] values for datetime ranges</li>
+	 * </ul>
+	 *
+	 * @param index item index
+	 * @return value or null
+	 */
+	public Object getItemValue(int index) {
+		int dataType = getItemDataType(index);
+		if (dataType==0)
+			return null;
+
+		int dataOffset = m_itemValueOffsets[index] + 2;
+		int dataLength = m_itemValueLengths[index] - 2;
+
+		switch (dataType) {
+		case NotesItem.TYPE_TEXT:
+			return decodeText(dataOffset, dataLength);
+		case NotesItem.TYPE_TEXT_LIST:
+			return getItemValueStringList(index);
+		case NotesItem.TYPE_NUMBER:
+			return m_buf.getDouble(dataOffset);
+		case NotesItem.TYPE_TIME:
+			if (m_decodeTimeDatesAsMillis) {
+				return ItemDecoder.decodeTimeDateAsMillis(NotesJNAContext.getNotesAPI(), m_bufferPtr.share(dataOffset), dataLength, m_useDayLight, m_gmtOffset);
+			}
+			return ItemDecoder.decodeTimeDate(NotesJNAContext.getNotesAPI(), m_bufferPtr.share(dataOffset), dataLength, m_useDayLight, m_gmtOffset);
+		case NotesItem.TYPE_NUMBER_RANGE:
+			return ItemDecoder.decodeNumberList(NotesJNAContext.getNotesAPI(), m_bufferPtr.share(dataOffset), dataLength);
+		case NotesItem.TYPE_TIME_RANGE:
+			if (m_decodeTimeDatesAsMillis) {
+				return ItemDecoder.decodeTimeDateListAsMillis(NotesJNAContext.getNotesAPI(), m_bufferPtr.share(dataOffset), m_useDayLight, m_gmtOffset);
+			}
+			return ItemDecoder.decodeTimeDateList(NotesJNAContext.getNotesAPI(), m_bufferPtr.share(dataOffset), m_useDayLight, m_gmtOffset);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes a column value by column name
+	 *
+	 * @param columnNameOrTitle programmatic column name or column title
+	 * @return value or null, see {@link #getItemValue(int)} for the returned data types
+	 */
+	public Object get(String columnNameOrTitle) {
+		int index = getItemIndex(columnNameOrTitle);
+		return index==-1 ? null : getItemValue(index);
+	}
+
+	private String decodeText(int offset, int length) {
+		if (length<=0)
+			return "";
+		return NotesStringUtils.fromLMBCS(m_buf, length, offset, false);
+	}
+
+	/**
+	 * Reads a number column value without creating objects
+	 *
+	 * @param index item index
+	 * @param defaultValue value to return if the value is empty or not a number; for number lists, the first value is returned
+	 * @return number
+	 */
+	public double getItemValueAsDouble(int index, double defaultValue) {
+		int dataType = getItemDataType(index);
+		int dataOffset = m_itemValueOffsets[index] + 2;
+
+		if (dataType==NotesItem.TYPE_NUMBER) {
+			return m_buf.getDouble(dataOffset);
+		}
+		else if (dataType==NotesItem.TYPE_NUMBER_RANGE) {
+			//RANGE: USHORT ListEntries, USHORT RangeEntries
+			int listEntries = m_buf.getShort(dataOffset) & 0xffff;
+			if (listEntries>0) {
+				return m_buf.getDouble(dataOffset + NotesCAPI.rangeSize);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Reads a text column value; for text lists, the first value is returned
+	 *
+	 * @param index item index
+	 * @param defaultValue value to return if the value is empty or not a string
+	 * @return string
+	 */
+	public String getItemValueAsString(int index, String defaultValue) {
+		int dataType = getItemDataType(index);
+		int dataOffset = m_itemValueOffsets[index] + 2;
+		int dataLength = m_itemValueLengths[index] - 2;
+
+		if (dataType==NotesItem.TYPE_TEXT) {
+			return decodeText(dataOffset, dataLength);
+		}
+		else if (dataType==NotesItem.TYPE_TEXT_LIST) {
+			if (dataLength>0 && getTextListSize(dataOffset)>0) {
+				return getTextListEntry(dataOffset, 0);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Reads a text or text list column value
+	 *
+	 * @param index item index
+	 * @return list of strings, empty list for empty values and other data types
+	 */
+	public List<String> getItemValueStringList(int index) {
+		int dataType = getItemDataType(index);
+		int dataOffset = m_itemValueOffsets[index] + 2;
+		int dataLength = m_itemValueLengths[index] - 2;
+
+		if (dataType==NotesItem.TYPE_TEXT) {
+			return Collections.singletonList(decodeText(dataOffset, dataLength));
+		}
+		else if (dataType==NotesItem.TYPE_TEXT_LIST && dataLength>0) {
+			int listSize = getTextListSize(dataOffset);
+			List<String> values = new ArrayList<String>(listSize);
+			for (int i=0; i<listSize; i++) {
+				values.add(getTextListEntry(dataOffset, i));
+			}
+			return values;
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns the number of entries in a text list value
+	 *
+	 * @param offset offset of the LIST structure
+	 * @return count
+	 */
+	private int getTextListSize(int offset) {
+		//LIST: USHORT ListEntries, followed by the USHORT lengths and the packed text
+		return m_buf.getShort(offset) & 0xffff;
+	}
+
+	private String getTextListEntry(int offset, int entryIndex) {
+		int listSize = getTextListSize(offset);
+		int textOffset = offset + 2 + 2 * listSize;
+		for (int i=0; i<entryIndex; i++) {
+			textOffset += m_buf.getShort(offset + 2 + 2*i) & 0xffff;
+		}
+		int textLength = m_buf.getShort(offset + 2 + 2*entryIndex) & 0xffff;
+		return decodeText(textOffset, textLength);
+	}
+
+	/**
+	 * Creates a {@link NotesViewEntryData} with all data of the current entry, e.g. to keep it
+	 * after the read operation.
+	 *
+	 * @return entry data
+	 */
+	public NotesViewEntryData copy() {
+		checkEntry();
+
+		NotesViewEntryData data = new NotesViewEntryData(m_parentCollection);
+		if (m_offsetNoteId!=-1) {
+			data.setNoteId(getNoteId());
+		}
+		if (m_offsetUNID!=-1) {
+			int offset = m_entryOffset + m_offsetUNID;
+			data.setUNID(new long[] {m_buf.getLong(offset), m_buf.getLong(offset + 8)});
+		}
+		if (m_offsetNoteClass!=-1) {
+			data.setNoteClass(getNoteClass());
+		}
+		if (m_offsetSiblingCount!=-1) {
+			data.setSiblingCount(getSiblingCount());
+		}
+		if (m_offsetChildCount!=-1) {
+			data.setChildCount(getChildCount());
+		}
+		if (m_offsetDescendantCount!=-1) {
+			data.setDescendantCount(getDescendantCount());
+		}
+		if (m_offsetAnyUnread!=-1) {
+			data.setAnyUnread(isAnyUnread());
+		}
+		if (m_offsetIndentLevels!=-1) {
+			data.setIndentLevels(getIndentLevels());
+		}
+		if (m_offsetFTScore!=-1) {
+			data.setFTScore(getFTScore());
+		}
+		if (m_offsetUnread!=-1) {
+			data.setUnread(isUnread());
+		}
+		if (m_positionOffset!=-1) {
+			data.setPosition(getPosition());
+		}
+		if (m_hasSummaryValues) {
+			boolean convertStringsLazily = true;
+			ItemValueTableData itemTableData = NotesLookupResultBufferDecoder.decodeItemValueTable(m_bufferPtr.share(m_summaryOffset),
+					m_gmtOffset, m_useDayLight, convertStringsLazily);
+			data.setColumnValues(itemTableData.getItemValues());
+			data.setColumnValueSizesInBytes(itemTableData.getItemValueLengthsInBytes());
+		}
+		if (m_hasSummary) {
+			boolean convertStringsLazily = true;
+			ItemTableData itemTableData = NotesLookupResultBufferDecoder.decodeItemTable(m_bufferPtr.share(m_summaryOffset),
+					m_gmtOffset, m_useDayLight, convertStringsLazily);
+			data.setSummaryData(itemTableData.asMap(false));
+			data.setColumnValueSizesInBytes(itemTableData.getItemValueLengthsInBytes());
+		}
+		return data;
+	}
+}
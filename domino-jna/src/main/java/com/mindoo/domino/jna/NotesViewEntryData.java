@@ -1,7 +1,10 @@
 package com.mindoo.domino.jna;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -10,10 +13,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+
 import com.mindoo.domino.jna.constants.ReadMask;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.utils.EmptyIterator;
 import com.mindoo.domino.jna.utils.LMBCSString;
+import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
 import com.mindoo.domino.jna.utils.NotesNamingUtils;
 import com.mindoo.domino.jna.utils.NotesStringUtils;
 
@@ -44,6 +50,25 @@ public class NotesViewEntryData {
 	private SoftReference<Map<String, Object>> m_convertedDataRef;
 	private String m_singleColumnLookupName;
 	
+	//flags for the fields written by CacheableViewEntryData.writeTo
+	private static final int CACHEDATA_POS = 0x00001;
+	private static final int CACHEDATA_POSSTR = 0x00002;
+	private static final int CACHEDATA_NOTEID = 0x00004;
+	private static final int CACHEDATA_UNID = 0x00008;
+	private static final int CACHEDATA_UNIDASLONGS = 0x00010;
+	private static final int CACHEDATA_NOTECLASS = 0x00020;
+	private static final int CACHEDATA_SIBLINGCOUNT = 0x00040;
+	private static final int CACHEDATA_CHILDCOUNT = 0x00080;
+	private static final int CACHEDATA_DESCENDANTCOUNT = 0x00100;
+	private static final int CACHEDATA_ISANYUNREAD = 0x00200;
+	private static final int CACHEDATA_INDENTLEVELS = 0x00400;
+	private static final int CACHEDATA_FTSCORE = 0x00800;
+	private static final int CACHEDATA_ISUNREAD = 0x01000;
+	private static final int CACHEDATA_COLUMNVALUES = 0x02000;
+	private static final int CACHEDATA_COLUMNVALUESIZES = 0x04000;
+	private static final int CACHEDATA_SUMMARYDATA = 0x08000;
+	private static final int CACHEDATA_SINGLECOLUMNNAME = 0x10000;
+	
 	/**
 	 * Creates a new instance
 	 * 
@@ -74,6 +99,136 @@ public class NotesViewEntryData {
 		private Map<String, Object> m_summaryData;
 		private SoftReference<Map<String, Object>> m_convertedDataRef;
 		private String m_singleColumnLookupName;
+		
+		/**
+		 * Returns the note id of the entry
+		 * 
+		 * @return note id or null if not read
+		 */
+		Integer getNoteId() {
+			return m_noteId;
+		}
+		
+		/**
+		 * Estimates the heap size of this entry, based on the LMBCS sizes of
+		 * the column values (Java strings use two bytes per character)
+		 * 
+		 * @return size in bytes
+		 */
+		int estimateSizeInBytes() {
+			int size = 200;
+			if (m_columnValueSizes!=null) {
+				for (int currSize : m_columnValueSizes) {
+					size += 32 + 2 * currSize;
+				}
+				if (m_summaryData!=null) {
+					//map entries with the column names
+					for (String currName : m_summaryData.keySet()) {
+						size += 32 + 2 * currName.length();
+					}
+				}
+			}
+			else if (m_columnValues!=null) {
+				size += 64 * m_columnValues.length;
+			}
+			else if (m_summaryData!=null) {
+				size += 64 * m_summaryData.size();
+			}
+			return size;
+		}
+		
+		/**
+		 * Writes the entry data in the format of {@link CollectionDataCacheSnapshot}
+		 * 
+		 * @param out output
+		 * @throws IOException in case of I/O errors or unsupported column values
+		 */
+		void writeTo(DataOutput out) throws IOException {
+			int flags = 0;
+			if (m_pos!=null) flags |= CACHEDATA_POS;
+			if (m_posStr!=null) flags |= CACHEDATA_POSSTR;
+			if (m_noteId!=null) flags |= CACHEDATA_NOTEID;
+			if (m_unid!=null) flags |= CACHEDATA_UNID;
+			if (m_unidAsLongs!=null) flags |= CACHEDATA_UNIDASLONGS;
+			if (m_noteClass!=null) flags |= CACHEDATA_NOTECLASS;
+			if (m_siblingCount!=null) flags |= CACHEDATA_SIBLINGCOUNT;
+			if (m_childCount!=null) flags |= CACHEDATA_CHILDCOUNT;
+			if (m_descendantCount!=null) flags |= CACHEDATA_DESCENDANTCOUNT;
+			if (m_isAnyUnread!=null) flags |= CACHEDATA_ISANYUNREAD;
+			if (m_indentLevels!=null) flags |= CACHEDATA_INDENTLEVELS;
+			if (m_ftScore!=null) flags |= CACHEDATA_FTSCORE;
+			if (m_isUnread!=null) flags |= CACHEDATA_ISUNREAD;
+			if (m_columnValues!=null) flags |= CACHEDATA_COLUMNVALUES;
+			if (m_columnValueSizes!=null) flags |= CACHEDATA_COLUMNVALUESIZES;
+			if (m_summaryData!=null) flags |= CACHEDATA_SUMMARYDATA;
+			if (m_singleColumnLookupName!=null) flags |= CACHEDATA_SINGLECOLUMNNAME;
+			out.writeInt(flags);
+			
+			if (m_pos!=null) CollectionDataCacheSnapshot.writeIntArray(out, m_pos);
+			if (m_posStr!=null) CollectionDataCacheSnapshot.writeString(out, m_posStr);
+			if (m_noteId!=null) out.writeInt(m_noteId.intValue());
+			if (m_unid!=null) CollectionDataCacheSnapshot.writeString(out, m_unid);
+			if (m_unidAsLongs!=null) CollectionDataCacheSnapshot.writeLongArray(out, m_unidAsLongs);
+			if (m_noteClass!=null) out.writeInt(m_noteClass.intValue());
+			if (m_siblingCount!=null) out.writeInt(m_siblingCount.intValue());
+			if (m_childCount!=null) out.writeInt(m_childCount.intValue());
+			if (m_descendantCount!=null) out.writeInt(m_descendantCount.intValue());
+			if (m_isAnyUnread!=null) out.writeBoolean(m_isAnyUnread.booleanValue());
+			if (m_indentLevels!=null) out.writeInt(m_indentLevels.intValue());
+			if (m_ftScore!=null) out.writeInt(m_ftScore.intValue());
+			if (m_isUnread!=null) out.writeBoolean(m_isUnread.booleanValue());
+			if (m_columnValues!=null) {
+				out.writeInt(m_columnValues.length);
+				for (Object currVal : m_columnValues) {
+					CollectionDataCacheSnapshot.writeValue(out, currVal);
+				}
+			}
+			if (m_columnValueSizes!=null) CollectionDataCacheSnapshot.writeIntArray(out, m_columnValueSizes);
+			if (m_summaryData!=null) CollectionDataCacheSnapshot.writeMap(out, m_summaryData);
+			if (m_singleColumnLookupName!=null) CollectionDataCacheSnapshot.writeString(out, m_singleColumnLookupName);
+		}
+	}
+	
+	/**
+	 * Reads entry data written by {@link CacheableViewEntryData#writeTo(DataOutput)}
+	 * 
+	 * @param outer outer object for the created instance
+	 * @param buf buffer
+	 * @return data
+	 * @throws IOException if the data is corrupt
+	 */
+	static CacheableViewEntryData readCacheableData(NotesViewEntryData outer, ByteBuffer buf) throws IOException {
+		CacheableViewEntryData data = outer.new CacheableViewEntryData();
+		int flags = buf.getInt();
+		
+		if ((flags & CACHEDATA_POS)!=0) data.m_pos = CollectionDataCacheSnapshot.readIntArray(buf);
+		if ((flags & CACHEDATA_POSSTR)!=0) data.m_posStr = CollectionDataCacheSnapshot.readString(buf);
+		if ((flags & CACHEDATA_NOTEID)!=0) data.m_noteId = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_UNID)!=0) data.m_unid = CollectionDataCacheSnapshot.readString(buf);
+		if ((flags & CACHEDATA_UNIDASLONGS)!=0) data.m_unidAsLongs = CollectionDataCacheSnapshot.readLongArray(buf);
+		if ((flags & CACHEDATA_NOTECLASS)!=0) data.m_noteClass = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_SIBLINGCOUNT)!=0) data.m_siblingCount = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_CHILDCOUNT)!=0) data.m_childCount = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_DESCENDANTCOUNT)!=0) data.m_descendantCount = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_ISANYUNREAD)!=0) data.m_isAnyUnread = Boolean.valueOf(buf.get()!=0);
+		if ((flags & CACHEDATA_INDENTLEVELS)!=0) data.m_indentLevels = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_FTSCORE)!=0) data.m_ftScore = Integer.valueOf(buf.getInt());
+		if ((flags & CACHEDATA_ISUNREAD)!=0) data.m_isUnread = Boolean.valueOf(buf.get()!=0);
+		if ((flags & CACHEDATA_COLUMNVALUES)!=0) {
+			Object[] columnValues = new Object[buf.getInt()];
+			for (int i=0; i<columnValues.length; i++) {
+				columnValues[i] = CollectionDataCacheSnapshot.readValue(buf);
+			}
+			data.m_columnValues = columnValues;
+		}
+		if ((flags & CACHEDATA_COLUMNVALUESIZES)!=0) data.m_columnValueSizes = CollectionDataCacheSnapshot.readIntArray(buf);
+		if ((flags & CACHEDATA_SUMMARYDATA)!=0) {
+			Map<String,Object> summaryData = new CaseInsensitiveMap<String, Object>();
+			CollectionDataCacheSnapshot.readMap(buf, summaryData);
+			data.m_summaryData = summaryData;
+		}
+		if ((flags & CACHEDATA_SINGLECOLUMNNAME)!=0) data.m_singleColumnLookupName = CollectionDataCacheSnapshot.readString(buf);
+		return data;
 	}
 	
 	/**
@@ -786,6 +941,9 @@ public class NotesViewEntryData {
 		if (val instanceof Calendar) {
 			return (Calendar) val;
 		}
+		else if (val instanceof Long) {
+			return millisToCalendar((Long) val);
+		}
 		else if (val instanceof List) {
 			List<?> valAsList = (List<?>) val;
 			if (!valAsList.isEmpty()) {
@@ -793,10 +951,26 @@ public class NotesViewEntryData {
 				if (firstVal instanceof Calendar) {
 					return (Calendar) firstVal;
 				}
+				else if (firstVal instanceof Long) {
+					return millisToCalendar((Long) firstVal);
+				}
 			}
 		}
 		return defaultValue;
 	}
+	
+	/**
+	 * Converts a date/time value decoded as milliseconds (see {@link NotesDateTimeUtils#setDecodeTimeDatesAsMillis(boolean)})
+	 * to a {@link Calendar}
+	 * 
+	 * @param millis milliseconds since 1970-01-01 GMT
+	 * @return calendar
+	 */
+	private Calendar millisToCalendar(Long millis) {
+		Calendar cal = Calendar.getInstance();
+		cal.setTimeInMillis(millis.longValue());
+		return cal;
+	}
 
 	/**
 	 * Convenience function that converts a column value to a {@link Calendar} list
@@ -810,17 +984,32 @@ public class NotesViewEntryData {
 		if (val instanceof Calendar) {
 			return Arrays.asList((Calendar) val);
 		}
+		else if (val instanceof Long) {
+			return Arrays.asList(millisToCalendar((Long) val));
+		}
 		else if (val instanceof List) {
 			List<?> valAsList = (List<?>) val;
 			boolean correctType=true;
+			boolean hasMillis=false;
 			for (int i=0; i<valAsList.size(); i++) {
-				if (!(valAsList.get(i) instanceof Calendar)) {
+				Object currVal = valAsList.get(i);
+				if (currVal instanceof Long) {
+					hasMillis=true;
+				}
+				else if (!(currVal instanceof Calendar)) {
 					correctType=false;
 					break;
 				}
 			}
 			
-			if (correctType) {
+			if (correctType && hasMillis) {
+				List<Calendar> calList = new ArrayList<Calendar>(valAsList.size());
+				for (Object currVal : valAsList) {
+					calList.add(currVal instanceof Long ? millisToCalendar((Long) currVal) : (Calendar) currVal);
+				}
+				return calList;
+			}
+			else if (correctType) {
 				return (List<Calendar>) valAsList;
 			}
 			else {
@@ -1064,7 +1253,7 @@ public class NotesViewEntryData {
 	/**
 	 * Returns the sizes in bytes of collection entry column values. Can be used for performance optimization
 	 * to analyze which columns of a view fill the summary buffer the most. Only returns a non-null value if
-	 * {@link ReadMask#SUMMARYVALUES} is used for the lookup.
+	 * {@link ReadMask#SUMMARYVALUES} or {@link ReadMask#SUMMARY} is used for the lookup.
 	 * 
 	 * @return sizes or null
 	 */
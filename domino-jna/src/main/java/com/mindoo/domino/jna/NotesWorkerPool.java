@@ -0,0 +1,249 @@
+package com.mindoo.domino.jna;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.utils.NotesInitUtils;
+
+/**
+ * Runs work on a database in several threads. Each worker opens its own database handle
+ * with the same user context as the database passed to the constructor (names list or context user),
+ * within {@link NotesGC#runWithAutoGC(Callable)}, so all handles of the worker are released when
+ * it is done.<br>
+ * <br>
+ * The workers run in a shared pool of daemon threads that are initialized for Notes API calls
+ * once and terminated after being idle for a minute. The number of workers of one call limits
+ * its parallelism, the workers usually fetch their work items from a shared counter or queue.<br>
+ * <br>
+ * If a worker fails, {@link WorkerTask#stop()} is called to stop the other workers, and the
+ * first error is thrown to the caller after all workers of the call have finished.
+ *
+ * @author Karsten Lehmann
+ */
+class NotesWorkerPool {
+	private static final AtomicInteger m_threadCounter = new AtomicInteger();
+	private static final ThreadLocal<Boolean> m_threadInitialized = new ThreadLocal<Boolean>();
+	private static volatile ExecutorService m_executor;
+
+	private final String m_server;
+	private final String m_filePath;
+	private final String m_asUserCanonical;
+	private final List<String> m_namesForNamesList;
+	private final String m_description;
+
+	/**
+	 * Work of one worker thread
+	 */
+	static interface WorkerTask {
+
+		/**
+		 * Does the work of one worker. The method is called once per worker, concurrently
+		 * with the other workers.
+		 *
+		 * @param db database opened for the worker thread
+		 * @throws Exception in case of errors
+		 */
+		public void run(NotesDatabase db) throws Exception;
+
+		/**
+		 * Called when a worker has failed or the caller has been interrupted, the other
+		 * workers should finish as soon as possible
+		 */
+		public void stop();
+	}
+
+	/**
+	 * Reads everything we need to reopen the database in other threads
+	 *
+	 * @param db database
+	 * @param description description of the work for error messages, e.g. "bulk note loader"
+	 */
+	public NotesWorkerPool(NotesDatabase db, String description) {
+		m_server = db.getServer();
+		m_filePath = db.getRelativeFilePath();
+		m_asUserCanonical = db.getContextUser();
+		NotesNamesList namesList = db.m_namesList;
+		m_namesForNamesList = namesList==null ? null : namesList.getNames();
+		m_description = description;
+	}
+
+	/**
+	 * Runs the task in worker threads and waits until all workers are done
+	 *
+	 * @param workerCount number of workers
+	 * @param task task
+	 */
+	public void run(int workerCount, WorkerTask task) {
+		start(workerCount, task).await();
+	}
+
+	/**
+	 * Starts the task in worker threads. The caller needs to call {@link Workers#await()}
+	 * afterwards, also if it fails itself.
+	 *
+	 * @param workerCount number of workers
+	 * @param task task
+	 * @return running workers
+	 */
+	public Workers start(int workerCount, final WorkerTask task) {
+		ExecutorService executor = getExecutor();
+
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(workerCount);
+		for (int i=0; i<workerCount; i++) {
+			futures.add(executor.submit(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					try {
+						if (!Boolean.TRUE.equals(m_threadInitialized.get())) {
+							NotesInitUtils.notesInitThread();
+							m_threadInitialized.set(Boolean.TRUE);
+						}
+
+						return NotesGC.runWithAutoGC(new Callable<Object>() {
+
+							@Override
+							public Object call() throws Exception {
+								NotesDatabase db;
+								if (m_namesForNamesList!=null) {
+									db = new NotesDatabase(m_server, m_filePath, m_namesForNamesList);
+								}
+								else {
+									db = new NotesDatabase(m_server, m_filePath, m_asUserCanonical);
+								}
+								task.run(db);
+								return null;
+							}
+						});
+					}
+					catch (Exception e) {
+						task.stop();
+						throw e;
+					}
+					catch (Error e) {
+						task.stop();
+						throw e;
+					}
+				}
+			}));
+		}
+		return new Workers(task, futures);
+	}
+
+	/**
+	 * Workers started with {@link NotesWorkerPool#start(int, WorkerTask)}
+	 */
+	class Workers {
+		private final WorkerTask m_task;
+		private final List<Future<Object>> m_futures;
+
+		private Workers(WorkerTask task, List<Future<Object>> futures) {
+			m_task = task;
+			m_futures = futures;
+		}
+
+		/**
+		 * Checks if all workers have finished
+		 *
+		 * @return true if done
+		 */
+		public boolean isDone() {
+			for (Future<Object> currFuture : m_futures) {
+				if (!currFuture.isDone()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Waits until all workers have finished and throws the first worker error.
+		 * If the caller thread is interrupted, the workers are stopped, but we still wait
+		 * for them, because they use data of the caller.
+		 */
+		public void await() {
+			Throwable error = null;
+			boolean interrupted = false;
+
+			for (Future<Object> currFuture : m_futures) {
+				while (true) {
+					try {
+						currFuture.get();
+						break;
+					} catch (InterruptedException e) {
+						interrupted = true;
+						m_task.stop();
+					} catch (ExecutionException e) {
+						if (error==null) {
+							error = e.getCause();
+						}
+						break;
+					}
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+				if (error==null) {
+					throw new NotesError(0, "Interrupted while waiting for "+m_description+" threads");
+				}
+			}
+
+			if (error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			}
+			else if (error instanceof Error) {
+				throw (Error) error;
+			}
+			else if (error!=null) {
+				throw new NotesError(0, "Error in "+m_description+" thread", error);
+			}
+		}
+	}
+
+	/**
+	 * Returns the shared thread pool for the workers and creates it on first use
+	 *
+	 * @return executor
+	 */
+	private static ExecutorService getExecutor() {
+		if (m_executor==null) {
+			synchronized (NotesWorkerPool.class) {
+				if (m_executor==null) {
+					m_executor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(final Runnable r) {
+							Thread t = new Thread(new Runnable() {
+
+								@Override
+								public void run() {
+									try {
+										r.run();
+									}
+									finally {
+										if (Boolean.TRUE.equals(m_threadInitialized.get())) {
+											NotesInitUtils.notesTermThread();
+										}
+									}
+								}
+							}, "Domino JNA worker "+m_threadCounter.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+				}
+			}
+		}
+		return m_executor;
+	}
+}
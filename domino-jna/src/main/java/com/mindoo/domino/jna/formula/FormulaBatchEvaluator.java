@@ -0,0 +1,329 @@
+package com.mindoo.domino.jna.formula;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mindoo.domino.jna.NotesBulkNoteLoader;
+import com.mindoo.domino.jna.NotesBulkNoteLoader.BulkLoadResult;
+import com.mindoo.domino.jna.NotesBulkNoteLoader.BulkNoteCallback;
+import com.mindoo.domino.jna.NotesDatabase;
+import com.mindoo.domino.jna.NotesIDTable;
+import com.mindoo.domino.jna.NotesNote;
+import com.mindoo.domino.jna.constants.OpenNote;
+import com.mindoo.domino.jna.constants.UpdateNote;
+import com.mindoo.domino.jna.errors.FormulaCompilationError;
+import com.mindoo.domino.jna.errors.NotesError;
+import com.mindoo.domino.jna.formula.FormulaExecution.FormulaExecutionResult;
+import com.mindoo.domino.jna.gc.NotesGC;
+
+/**
+ * Evaluates a formula on a large number of notes. The notes are read in batches with
+ * {@link NotesBulkNoteLoader}, optionally by several threads in parallel, and the computation
+ * results are passed to a {@link FormulaResultSink}.<br>
+ * <br>
+ * With a thread count greater than 1, each pool thread opens its own database handle within its own
+ * {@link NotesGC#runWithAutoGC(java.util.concurrent.Callable)} block and uses a compiled formula
+ * from the {@link FormulaCache} of that block, so the threads do not share compute contexts.
+ *
+ * @author Karsten Lehmann
+ */
+public class FormulaBatchEvaluator {
+	private final String m_formula;
+	private final NotesBulkNoteLoader m_loader;
+	private boolean m_saveIfModified;
+	private EnumSet<UpdateNote> m_updateFlags = EnumSet.noneOf(UpdateNote.class);
+
+	/**
+	 * Creates a new instance and checks the formula syntax
+	 *
+	 * @param db database to read the notes from
+	 * @param formula formula
+	 * @throws FormulaCompilationError if formula has wrong syntax
+	 */
+	public FormulaBatchEvaluator(NotesDatabase db, String formula) throws FormulaCompilationError {
+		m_formula = formula;
+		m_loader = new NotesBulkNoteLoader(db);
+
+		FormulaCache cache = FormulaCache.getActiveCache();
+		cache.release(cache.acquire(formula));
+	}
+
+	/**
+	 * Returns the formula
+	 *
+	 * @return formula
+	 */
+	public String getFormula() {
+		return m_formula;
+	}
+
+	/**
+	 * Sets the number of notes read per bulk call, see {@link NotesBulkNoteLoader#setBatchSize(int)}
+	 *
+	 * @param batchSize batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		m_loader.setBatchSize(batchSize);
+	}
+
+	/**
+	 * Returns the number of notes read per bulk call
+	 *
+	 * @return batch size
+	 */
+	public int getBatchSize() {
+		return m_loader.getBatchSize();
+	}
+
+	/**
+	 * Sets the number of threads that evaluate the formula in parallel, default is 1 to evaluate
+	 * it in the caller thread. If greater than 1, the {@link FormulaResultSink} is called concurrently
+	 * and needs to be thread-safe.
+	 *
+	 * @param threadCount thread count
+	 */
+	public void setThreadCount(int threadCount) {
+		m_loader.setThreadCount(threadCount);
+	}
+
+	/**
+	 * Returns the number of threads that evaluate the formula in parallel
+	 *
+	 * @return thread count
+	 */
+	public int getThreadCount() {
+		return m_loader.getThreadCount();
+	}
+
+	/**
+	 * Sets the flags to open the notes
+	 *
+	 * @param openFlags open flags
+	 */
+	public void setOpenFlags(EnumSet<OpenNote> openFlags) {
+		m_loader.setOpenFlags(openFlags);
+	}
+
+	/**
+	 * Returns the flags to open the notes
+	 *
+	 * @return open flags
+	 */
+	public EnumSet<OpenNote> getOpenFlags() {
+		return m_loader.getOpenFlags();
+	}
+
+	/**
+	 * Use this method to save notes that have been modified by the formula (e.g. via FIELD assignments)
+	 * before they are passed to the {@link FormulaResultSink}
+	 *
+	 * @param save true to save modified notes
+	 * @param updateFlags flags for {@link NotesNote#update(EnumSet)} or null for none
+	 */
+	public void setSaveIfModified(boolean save, EnumSet<UpdateNote> updateFlags) {
+		m_saveIfModified = save;
+		m_updateFlags = updateFlags==null ? EnumSet.noneOf(UpdateNote.class) : updateFlags.clone();
+	}
+
+	/**
+	 * Returns whether notes modified by the formula get saved
+	 *
+	 * @return true to save
+	 */
+	public boolean isSaveIfModified() {
+		return m_saveIfModified;
+	}
+
+	/**
+	 * Evaluates the formula on the notes of an ID table
+	 *
+	 * @param idTable ID table, e.g. the result of a database search
+	 * @param sink sink to receive the results or null to just compute (and save) the notes
+	 * @return evaluation statistics
+	 */
+	public BatchEvaluationResult evaluate(NotesIDTable idTable, FormulaResultSink sink) {
+		return evaluate(idTable.toArray(), sink);
+	}
+
+	/**
+	 * Evaluates the formula on notes
+	 *
+	 * @param noteIds note ids
+	 * @param sink sink to receive the results or null to just compute (and save) the notes
+	 * @return evaluation statistics
+	 */
+	public BatchEvaluationResult evaluate(int[] noteIds, final FormulaResultSink sink) {
+		final boolean saveIfModified = m_saveIfModified;
+		final EnumSet<UpdateNote> updateFlags = m_updateFlags.clone();
+
+		final AtomicInteger matchCount = new AtomicInteger();
+		final AtomicInteger modifiedCount = new AtomicInteger();
+		final AtomicInteger savedCount = new AtomicInteger();
+
+		BulkLoadResult loadResult = m_loader.load(noteIds, new BulkNoteCallback() {
+
+			@Override
+			public Action noteLoaded(NotesNote note) {
+				//called in the auto GC block of the loading thread, so we get a compute context of this thread
+				FormulaCache cache = FormulaCache.getActiveCache();
+				FormulaExecution formula = cache.acquire(m_formula);
+				FormulaExecutionResult result;
+				try {
+					result = formula.evaluateExt(note);
+				}
+				finally {
+					cache.release(formula);
+				}
+
+				if (result.matchesFormula()) {
+					matchCount.incrementAndGet();
+				}
+				if (result.isNoteModified()) {
+					modifiedCount.incrementAndGet();
+
+					if (saveIfModified) {
+						note.update(updateFlags);
+						savedCount.incrementAndGet();
+					}
+				}
+
+				if (sink!=null) {
+					if (sink.resultComputed(note, result)==FormulaResultSink.Action.Stop) {
+						return Action.Stop;
+					}
+				}
+				return Action.Continue;
+			}
+
+			@Override
+			public Action noteFailed(int noteId, NotesError error) {
+				if (sink==null) {
+					throw error;
+				}
+				return sink.evaluationFailed(noteId, error)==FormulaResultSink.Action.Stop ? Action.Stop : Action.Continue;
+			}
+		});
+
+		return new BatchEvaluationResult(loadResult, matchCount.get(), modifiedCount.get(), savedCount.get());
+	}
+
+	/**
+	 * Sink to receive the formula computation results
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static abstract class FormulaResultSink {
+		/** Values to control the evaluation */
+		public enum Action {Continue, Stop}
+
+		/**
+		 * Implement this method to process a computation result. The note is only valid during this call
+		 * and must not be recycled or used in other threads.
+		 *
+		 * @param note note, already saved if modified and {@link FormulaBatchEvaluator#setSaveIfModified(boolean, EnumSet)} is set
+		 * @param result computation result
+		 * @return action to continue or stop the evaluation
+		 */
+		public abstract Action resultComputed(NotesNote note, FormulaExecutionResult result);
+
+		/**
+		 * Method is called when a note could not be opened, evaluated or saved or {@link #resultComputed(NotesNote, FormulaExecutionResult)}
+		 * threw an exception. The default implementation rethrows the error, which stops the evaluation.
+		 *
+		 * @param noteId note id
+		 * @param error error
+		 * @return action to continue or stop the evaluation
+		 */
+		public Action evaluationFailed(int noteId, NotesError error) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Statistics of a batch evaluation
+	 *
+	 * @author Karsten Lehmann
+	 */
+	public static class BatchEvaluationResult {
+		private final BulkLoadResult m_loadResult;
+		private final int m_matchCount;
+		private final int m_modifiedCount;
+		private final int m_savedCount;
+
+		private BatchEvaluationResult(BulkLoadResult loadResult, int matchCount, int modifiedCount, int savedCount) {
+			m_loadResult = loadResult;
+			m_matchCount = matchCount;
+			m_modifiedCount = modifiedCount;
+			m_savedCount = savedCount;
+		}
+
+		/**
+		 * Returns the statistics of reading the notes
+		 *
+		 * @return load statistics
+		 */
+		public BulkLoadResult getLoadResult() {
+			return m_loadResult;
+		}
+
+		/**
+		 * Returns the number of notes the formula has been evaluated on successfully
+		 *
+		 * @return count
+		 */
+		public int getEvaluatedCount() {
+			return m_loadResult.getLoadedCount();
+		}
+
+		/**
+		 * Returns the number of notes that could not be opened, evaluated or saved
+		 *
+		 * @return count
+		 */
+		public int getFailedCount() {
+			return m_loadResult.getFailedCount();
+		}
+
+		/**
+		 * Returns the number of notes matching the formula
+		 *
+		 * @return count
+		 */
+		public int getMatchCount() {
+			return m_matchCount;
+		}
+
+		/**
+		 * Returns the number of notes modified by the formula
+		 *
+		 * @return count
+		 */
+		public int getModifiedCount() {
+			return m_modifiedCount;
+		}
+
+		/**
+		 * Returns the number of modified notes that have been saved
+		 *
+		 * @return count
+		 */
+		public int getSavedCount() {
+			return m_savedCount;
+		}
+
+		/**
+		 * Returns true if the evaluation has been stopped by the sink before all notes were processed
+		 *
+		 * @return true if stopped
+		 */
+		public boolean isStopped() {
+			return m_loadResult.isStopped();
+		}
+
+		@Override
+		public String toString() {
+			return "BatchEvaluationResult [evaluated="+getEvaluatedCount()+", failed="+getFailedCount()+", matches="+m_matchCount+
+					", modified="+m_modifiedCount+", saved="+m_savedCount+", stopped="+isStopped()+"]";
+		}
+	}
+}
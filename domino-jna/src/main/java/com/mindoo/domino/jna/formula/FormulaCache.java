@@ -0,0 +1,267 @@
+package com.mindoo.domino.jna.formula;
+
+import java.util.ArrayDeque;
+
+import com.mindoo.domino.jna.errors.FormulaCompilationError;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.NotesJNAProperties;
+import com.mindoo.domino.jna.internal.SizeLimitedLRUCache;
+
+/**
+ * Cache of compiled formulas and their compute contexts, keyed by the formula text.<br>
+ * <br>
+ * A compute context of a compiled formula can only be used by one thread at a time, so the cache
+ * keeps a small pool of idle {@link FormulaExecution} instances per formula. {@link #acquire(String)}
+ * takes an instance out of the pool (or compiles a new one) and {@link #release(FormulaExecution)}
+ * puts it back. Formulas with syntax errors are cached as well and the {@link FormulaCompilationError}
+ * is rethrown without compiling the formula again.<br>
+ * <br>
+ * The least recently used formulas are recycled when the cache gets too big. Cached instances are
+ * registered in the auto GC block that was active when they were compiled and get recycled when
+ * the block ends.<br>
+ * <br>
+ * The static helpers like {@link FormulaExecution#evaluate(String, com.mindoo.domino.jna.NotesNote)}
+ * use the cache of the active auto GC block, see {@link #getActiveCache()}, which is shared with
+ * worker threads running in the same scope.
+ *
+ * @author Karsten Lehmann
+ */
+public class FormulaCache {
+	/** System property to set the max number of cached formulas per auto GC block, 0 to disable the cache */
+	public static final String PROP_FORMULACACHE_MAXENTRIES = "mindoo.domino.jna.formulacache.maxentries";
+	/** System property to set the max number of idle compute contexts that are kept per formula */
+	public static final String PROP_FORMULACACHE_MAXIDLE = "mindoo.domino.jna.formulacache.maxidle";
+
+	private static final int DEFAULT_FORMULACACHE_MAXENTRIES = 500;
+	private static final int DEFAULT_FORMULACACHE_MAXIDLE = 4;
+	private static final String CUSTOMVALUE_ACTIVECACHE = FormulaCache.class.getName();
+
+	private final int m_maxEntries;
+	private final int m_maxIdlePerFormula;
+	private FormulaLRUCache m_cache;
+
+	private long m_hits;
+	private long m_negativeHits;
+	private long m_misses;
+	private long m_evictions;
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param maxEntries max number of cached formulas, 0 to disable caching
+	 * @param maxIdlePerFormula max number of idle compute contexts per formula
+	 */
+	public FormulaCache(int maxEntries, int maxIdlePerFormula) {
+		m_maxEntries = Math.max(0, maxEntries);
+		m_maxIdlePerFormula = Math.max(1, maxIdlePerFormula);
+		m_cache = m_maxEntries==0 ? null : new FormulaLRUCache(m_maxEntries);
+	}
+
+	/**
+	 * Returns the formula cache of the active {@link NotesGC#runWithAutoGC(java.util.concurrent.Callable)} block
+	 * and creates it on first use. The size is read from the system properties {@link #PROP_FORMULACACHE_MAXENTRIES}
+	 * and {@link #PROP_FORMULACACHE_MAXIDLE}.
+	 *
+	 * @return cache
+	 */
+	public static FormulaCache getActiveCache() {
+		FormulaCache cache = (FormulaCache) NotesGC.getCustomValue(CUSTOMVALUE_ACTIVECACHE);
+		if (cache==null) {
+			synchronized (FormulaCache.class) {
+				cache = (FormulaCache) NotesGC.getCustomValue(CUSTOMVALUE_ACTIVECACHE);
+				if (cache==null) {
+					cache = new FormulaCache(NotesJNAProperties.getInt(PROP_FORMULACACHE_MAXENTRIES, DEFAULT_FORMULACACHE_MAXENTRIES),
+							NotesJNAProperties.getInt(PROP_FORMULACACHE_MAXIDLE, DEFAULT_FORMULACACHE_MAXIDLE));
+					NotesGC.setCustomValue(CUSTOMVALUE_ACTIVECACHE, cache);
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Returns a compiled formula that can be used exclusively by the current thread until it
+	 * is passed to {@link #release(FormulaExecution)}
+	 *
+	 * @param formula formula
+	 * @return compiled formula
+	 * @throws FormulaCompilationError if formula has wrong syntax; the error is cached and rethrown for subsequent calls
+	 */
+	public FormulaExecution acquire(String formula) throws FormulaCompilationError {
+		synchronized (this) {
+			if (m_cache!=null) {
+				CachedFormula entry = m_cache.get(formula);
+				if (entry!=null) {
+					if (entry.m_compileError!=null) {
+						m_negativeHits++;
+						throw entry.m_compileError;
+					}
+
+					FormulaExecution instance;
+					while ((instance = entry.m_idleInstances.poll())!=null) {
+						if (!instance.isRecycled()) {
+							m_hits++;
+							return instance;
+						}
+					}
+				}
+			}
+			m_misses++;
+		}
+
+		//compile outside of the lock so that other threads are not blocked
+		try {
+			return new FormulaExecution(formula);
+		}
+		catch (FormulaCompilationError e) {
+			synchronized (this) {
+				if (m_cache!=null) {
+					getOrCreateEntry(formula).m_compileError = e;
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a compiled formula to the cache after use. If the pool of the formula is full or caching
+	 * is disabled, the instance gets recycled.
+	 *
+	 * @param instance compiled formula returned by {@link #acquire(String)}
+	 */
+	public void release(FormulaExecution instance) {
+		if (instance.isRecycled())
+			return;
+
+		synchronized (this) {
+			if (m_cache!=null) {
+				CachedFormula entry = getOrCreateEntry(instance.getFormula());
+				if (entry.m_idleInstances.size() < m_maxIdlePerFormula) {
+					entry.m_idleInstances.add(instance);
+					return;
+				}
+			}
+		}
+		instance.recycle();
+	}
+
+	private CachedFormula getOrCreateEntry(String formula) {
+		CachedFormula entry = m_cache.get(formula);
+		if (entry==null) {
+			entry = new CachedFormula();
+			m_cache.put(formula, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes all formulas from the cache and recycles the idle compute contexts
+	 */
+	public synchronized void clear() {
+		if (m_cache!=null) {
+			SizeLimitedLRUCache.CacheEntry<String,CachedFormula> currEntry = m_cache.getHead();
+			while (currEntry!=null) {
+				currEntry.getValue().recycle();
+				currEntry = currEntry.getNext();
+			}
+			m_cache = new FormulaLRUCache(m_maxEntries);
+		}
+	}
+
+	/**
+	 * Returns the number of cached formulas, including those with compile errors
+	 *
+	 * @return size
+	 */
+	public synchronized int size() {
+		return m_cache==null ? 0 : m_cache.size();
+	}
+
+	/**
+	 * Returns how often an idle compute context of a formula could be reused
+	 *
+	 * @return hits
+	 */
+	public synchronized long getHitCount() {
+		return m_hits;
+	}
+
+	/**
+	 * Returns how often a cached {@link FormulaCompilationError} has been rethrown
+	 *
+	 * @return hits
+	 */
+	public synchronized long getNegativeHitCount() {
+		return m_negativeHits;
+	}
+
+	/**
+	 * Returns how often a formula had to be compiled
+	 *
+	 * @return misses
+	 */
+	public synchronized long getMissCount() {
+		return m_misses;
+	}
+
+	/**
+	 * Returns how many formulas have been removed because the cache was full
+	 *
+	 * @return evictions
+	 */
+	public synchronized long getEvictionCount() {
+		return m_evictions;
+	}
+
+	/**
+	 * Returns the ratio of {@link #acquire(String)} calls that did not need to compile the formula
+	 *
+	 * @return hit rate between 0 and 1
+	 */
+	public synchronized double getHitRate() {
+		long total = m_hits + m_negativeHits + m_misses;
+		return total==0 ? 0 : (double) (m_hits + m_negativeHits) / total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "FormulaCache [size="+size()+", maxentries="+m_maxEntries+", hits="+m_hits+", negativehits="+m_negativeHits+
+				", misses="+m_misses+", evictions="+m_evictions+"]";
+	}
+
+	/**
+	 * Cache entry with the idle compute contexts of a formula or its compile error
+	 */
+	private static class CachedFormula {
+		private final ArrayDeque<FormulaExecution> m_idleInstances = new ArrayDeque<FormulaExecution>();
+		private FormulaCompilationError m_compileError;
+
+		private void recycle() {
+			FormulaExecution instance;
+			while ((instance = m_idleInstances.poll())!=null) {
+				instance.recycle();
+			}
+		}
+	}
+
+	/**
+	 * LRU cache with one unit per formula that recycles the compute contexts of removed formulas
+	 */
+	private class FormulaLRUCache extends SizeLimitedLRUCache<String,CachedFormula> {
+
+		public FormulaLRUCache(int maxEntries) {
+			super(maxEntries);
+		}
+
+		@Override
+		protected int computeSize(SizeLimitedLRUCache.CacheEntry<String,CachedFormula> entry) {
+			return 1;
+		}
+
+		@Override
+		protected void entryRemoved(SizeLimitedLRUCache.CacheEntry<String,CachedFormula> entry) {
+			m_evictions++;
+			entry.getValue().recycle();
+		}
+	}
+}
@@ -140,6 +140,15 @@ public class FormulaExecution implements IRecyclableNotesObject {
 		}
 	}
 	
+	/**
+	 * Returns the formula
+	 * 
+	 * @return formula
+	 */
+	public String getFormula() {
+		return m_formula;
+	}
+	
 	public String toString() {
 		if (isRecycled()) {
 			return "Compiled formula [recycled, formula="+m_formula+"]";
@@ -156,7 +165,9 @@ public class FormulaExecution implements IRecyclableNotesObject {
 	 * If the same formula should be run
 	 * on multiple notes, you should consider to create a shared instance of {@link FormulaExecution}
 	 * and run its {@link #evaluate(NotesNote)} method. Then the formula is parsed and compiled only
-	 * once, which results in better performance and optimized memory usage.</b>
+	 * once, which results in better performance and optimized memory usage.</b><br>
+	 * <br>
+	 * The compiled formula is taken from the {@link FormulaCache} of the active auto GC block.
 	 * 
 	 * @param formula formula
 	 * @param note note
@@ -179,7 +190,9 @@ public class FormulaExecution implements IRecyclableNotesObject {
 	 * If the same formula should be run
 	 * on multiple notes, you should consider to create a shared instance of {@link FormulaExecution}
 	 * and run its {@link #evaluate(NotesNote)} method. Then the formula is parsed and compiled only
-	 * once, which results in better performance and optimized memory usage.</b>
+	 * once, which results in better performance and optimized memory usage.</b><br>
+	 * <br>
+	 * The compiled formula is taken from the {@link FormulaCache} of the active auto GC block.
 	 * 
 	 * @param formula formula
 	 * @param note note
@@ -187,13 +200,14 @@ public class FormulaExecution implements IRecyclableNotesObject {
 	 * @throws FormulaCompilationError if formula has wrong syntax
 	 */
 	public static List<Object> evaluate(String formula, NotesNote note) throws FormulaCompilationError {
-		FormulaExecution instance = new FormulaExecution(formula);
+		FormulaCache cache = FormulaCache.getActiveCache();
+		FormulaExecution instance = cache.acquire(formula);
 		try {
 			List<Object> result = instance.evaluate(note);
 			return result;
 		}
 		finally {
-			instance.recycle();
+			cache.release(instance);
 		}
 	}
 
@@ -204,7 +218,9 @@ public class FormulaExecution implements IRecyclableNotesObject {
 	 * If the same formula should be run
 	 * on multiple notes, you should consider to create a shared instance of {@link FormulaExecution}
 	 * and run its {@link #evaluate(NotesNote)} method. Then the formula is parsed and compiled only
-	 * once, which results in better performance.</b>
+	 * once, which results in better performance.</b><br>
+	 * <br>
+	 * The compiled formula is taken from the {@link FormulaCache} of the active auto GC block.
 	 * 
 	 * @param formula formula
 	 * @param note note
@@ -212,13 +228,14 @@ public class FormulaExecution implements IRecyclableNotesObject {
 	 * @throws FormulaCompilationError if formula has wrong syntax
 	 */
 	public static FormulaExecutionResult evaluateExt(String formula, NotesNote note) throws FormulaCompilationError {
-		FormulaExecution instance = new FormulaExecution(formula);
+		FormulaCache cache = FormulaCache.getActiveCache();
+		FormulaExecution instance = cache.acquire(formula);
 		try {
 			FormulaExecutionResult result = instance.evaluateExt(note);
 			return result;
 		}
 		finally {
-			instance.recycle();
+			cache.release(instance);
 		}
 	}
 	
@@ -1,9 +1,6 @@
 package com.mindoo.domino.jna.gc;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 
 import com.mindoo.domino.jna.errors.NotesError;
@@ -12,19 +9,16 @@ import com.mindoo.domino.jna.internal.NotesJNAContext;
 /**
  * Utility class to simplify memory management with Notes handles. The class tracks
  * handle creation and disposal. By using {@link #runWithAutoGC(Callable)}, the
- * collected handles are automatically disposed when code execution is done.
+ * collected handles are automatically disposed when code execution is done.<br>
+ * <br>
+ * The handles are tracked in a {@link NotesGCScope} that can be shared with other threads
+ * via {@link #runInScope(NotesGCScope, Callable)}.
  * 
  * @author Karsten Lehmann
  */
 public class NotesGC {
-	private static ThreadLocal<Boolean> m_activeAutoGC = new ThreadLocal<Boolean>();
-	private static ThreadLocal<Map<String,Object>> m_activeAutoGCCustomValues = new ThreadLocal<Map<String,Object>>();
-	
-	//maps with open handles; using LinkedHashMap to keep insertion order for the keys
-	private static ThreadLocal<LinkedHashMap<HashKey32,IRecyclableNotesObject>> m_b32OpenHandlesDominoObjects = new ThreadLocal<LinkedHashMap<HashKey32,IRecyclableNotesObject>>();
-	private static ThreadLocal<LinkedHashMap<Integer,IAllocatedMemory>> m_b32OpenHandlesMemory = new ThreadLocal<LinkedHashMap<Integer,IAllocatedMemory>>();
-	private static ThreadLocal<LinkedHashMap<HashKey64, IRecyclableNotesObject>> m_b64OpenHandlesDominoObjects = new ThreadLocal<LinkedHashMap<HashKey64,IRecyclableNotesObject>>();
-	private static ThreadLocal<LinkedHashMap<Long, IAllocatedMemory>> m_b64OpenHandlesMemory = new ThreadLocal<LinkedHashMap<Long,IAllocatedMemory>>();
+	//scope of the active runWithAutoGC block of the thread
+	private static ThreadLocal<NotesGCScope> m_activeScope = new ThreadLocal<NotesGCScope>();
 	
 	private static ThreadLocal<Boolean> m_writeDebugMessages = new ThreadLocal<Boolean>() {
 		protected Boolean initialValue() {
@@ -36,6 +30,11 @@ public class NotesGC {
 			return Boolean.FALSE;
 		};
 	};
+	private static ThreadLocal<Integer> m_logCrashingThreadStackTraceInterval = new ThreadLocal<Integer>() {
+		protected Integer initialValue() {
+			return Integer.valueOf(0);
+		};
+	};
 	
 	/**
 	 * Method to enable GC debug logging for the current {@link #runWithAutoGC(Callable)} call
@@ -47,10 +46,12 @@ public class NotesGC {
 	}
 	
 	/**
-	 * Method to write a stacktrace to disk right before each native method invocation. Consumes
-	 * much performance and is therefore disabled by default and just here to track down
-	 * handle panics.<br>
-	 * Stacktraces are written as files domino-jna-stack-&lt;threadid&gt;.txt in the temp directory.
+	 * Method to record each native method invocation of the current thread in a memory-mapped
+	 * breadcrumb file before it is called. If the JVM crashes in a C API call, the file contains
+	 * the name of the crashing method and the time of the call. Disabled by default.<br>
+	 * The file is written as domino-jna-breadcrumbs-&lt;pid&gt;.dat in the temp directory and can be
+	 * decoded with {@link com.mindoo.domino.jna.internal.NativeCallBreadcrumbsReader}.
+	 * Use {@link #setLogCrashingThreadStacktraceInterval(int)} to also capture stacktraces.
 	 * 
 	 * @param log true to log
 	 */
@@ -59,10 +60,8 @@ public class NotesGC {
 	}
 	
 	/**
-	 * Checks whether stacktraces for each native method invocation should be written to disk. Consumes
-	 * much performance and is therefore disabled by default and just here to track down
-	 * handle panics.<br>
-	 * Stacktraces are written as files domino-jna-stack-&lt;threadid&gt;.txt in the temp directory.
+	 * Checks whether native method invocations should be recorded in the breadcrumb file,
+	 * see {@link #setLogCrashingThreadStacktrace(boolean)}.
 	 * 
 	 * @return true to log
 	 */
@@ -70,21 +69,62 @@ public class NotesGC {
 		return Boolean.TRUE.equals(m_logCrashingThreadStackTrace.get());
 	}
 	
+	/**
+	 * Method to capture the Java stacktrace every <code>interval</code> native calls of the current
+	 * thread and write it to the breadcrumb file (see {@link #setLogCrashingThreadStacktrace(boolean)}).
+	 * Capturing stacktraces consumes much performance, so use high values in production. 1 captures
+	 * the stacktrace of each call, 0 (the default) disables stacktrace capturing.
+	 * 
+	 * @param interval number of calls between stacktrace captures
+	 */
+	public static void setLogCrashingThreadStacktraceInterval(int interval) {
+		if (interval<0)
+			throw new IllegalArgumentException("Interval cannot be negative: "+interval);
+		m_logCrashingThreadStackTraceInterval.set(Integer.valueOf(interval));
+	}
+	
+	/**
+	 * Returns the number of native calls between stacktrace captures, see
+	 * {@link #setLogCrashingThreadStacktraceInterval(int)}
+	 * 
+	 * @return interval, 0 if disabled
+	 */
+	public static int getLogCrashingThreadStacktraceInterval() {
+		return m_logCrashingThreadStackTraceInterval.get().intValue();
+	}
+	
+	private static NotesGCScope getActiveScopeOrFail() {
+		NotesGCScope scope = m_activeScope.get();
+		if (scope==null)
+			throw new IllegalStateException("Auto GC is not active");
+		return scope;
+	}
+
+	/**
+	 * Returns the scope of the active {@link #runWithAutoGC(Callable)} block of the current thread
+	 * 
+	 * @return scope or null if auto GC is not active
+	 */
+	public static NotesGCScope getActiveScope() {
+		return m_activeScope.get();
+	}
+
+	/**
+	 * Checks if auto GC is active for the current thread
+	 * 
+	 * @return true if active
+	 */
+	public static boolean isAutoGCActive() {
+		return m_activeScope.get()!=null;
+	}
+
 	/**
 	 * Method to get the current count of open Domino object handles
 	 * 
 	 * @return handle count
 	 */
 	public static int getNumberOfOpenObjectHandles() {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		if (NotesJNAContext.is64Bit()) {
-			return m_b64OpenHandlesDominoObjects.get().size();
-		}
-		else {
-			return m_b32OpenHandlesDominoObjects.get().size();
-		}
+		return getActiveScopeOrFail().getNumberOfOpenObjectHandles();
 	}
 
 	/**
@@ -93,17 +133,41 @@ public class NotesGC {
 	 * @return handle count
 	 */
 	public static int getNumberOfOpenMemoryHandles() {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		if (NotesJNAContext.is64Bit()) {
-			return m_b64OpenHandlesMemory.get().size();
-		}
-		else {
-			return m_b32OpenHandlesMemory.get().size();
-		}
+		return getActiveScopeOrFail().getNumberOfOpenMemoryHandles();
 	}
 
+	/**
+	 * Method to get the current count of open Domino object handles per object type
+	 * 
+	 * @return handle counts
+	 */
+	public static Map<Class<?>,Integer> getOpenObjectHandlesByType() {
+		return getActiveScopeOrFail().getOpenObjectHandlesByType();
+	}
+
+	/**
+	 * Returns the count of open Domino object handles per object type of all threads
+	 * and auto GC blocks, e.g. to be reported as metrics
+	 * 
+	 * @return handle counts
+	 */
+	public static Map<Class<?>,Integer> getLiveObjectHandlesByType() {
+		return NotesGCScope.getLiveObjectHandlesByType();
+	}
+
+	/**
+	 * Returns the count of open Domino memory handles of all threads and auto GC blocks
+	 * 
+	 * @return handle count
+	 */
+	public static int getLiveMemoryHandles() {
+		return NotesGCScope.getLiveMemoryHandles();
+	}
+
+	/**
+	 * @deprecated no longer used to store handles, see {@link NotesGCScope}
+	 */
+	@Deprecated
 	public static class HashKey64 {
 		private Class<?> m_clazz;
 		private long m_handle;
@@ -150,6 +214,10 @@ public class NotesGC {
 		}
 	}
 
+	/**
+	 * @deprecated no longer used to store handles, see {@link NotesGCScope}
+	 */
+	@Deprecated
 	public static class HashKey32 {
 		private Class<?> m_clazz;
 		private int m_handle;
@@ -203,29 +271,17 @@ public class NotesGC {
 	 * @param obj Notes object
 	 */
 	public static void __objectCreated(Class<?> clazz, IRecyclableNotesObject obj) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
+		NotesGCScope scope = getActiveScopeOrFail();
+
 		if (obj.isRecycled())
 			throw new NotesError(0, "Object is already recycled");
-		
-		if (NotesJNAContext.is64Bit()) {
-			HashKey64 key = new HashKey64(clazz, obj.getHandle64());
-			
-			IRecyclableNotesObject oldObj = m_b64OpenHandlesDominoObjects.get().put(key, obj);
-			if (oldObj!=null && oldObj!=obj) {
-				throw new IllegalStateException("Duplicate handle detected. Object to store: "+obj+", object found in open handle list: "+oldObj);
-			}
-		}
-		else {
-			HashKey32 key = new HashKey32(clazz, obj.getHandle32());
-			
-			IRecyclableNotesObject oldObj = m_b32OpenHandlesDominoObjects.get().put(key, obj);
-			if (oldObj!=null && oldObj!=obj) {
-				throw new IllegalStateException("Duplicate handle detected. Object to store: "+obj+", object found in open handle list: "+oldObj);
-			}
+
+		long handle = NotesJNAContext.is64Bit() ? obj.getHandle64() : obj.getHandle32();
+		Object oldObj = scope.addObject(clazz, handle, obj);
+		if (oldObj!=null && oldObj!=obj) {
+			throw new IllegalStateException("Duplicate handle detected. Object to store: "+obj+", object found in open handle list: "+oldObj);
 		}
-		
+
 		if (Boolean.TRUE.equals(m_writeDebugMessages.get())) {
 			System.out.println("AutoGC - Added object: "+obj);
 		}
@@ -237,26 +293,17 @@ public class NotesGC {
 	 * @param mem Notes object
 	 */
 	public static void __memoryAllocated(IAllocatedMemory mem) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
+		NotesGCScope scope = getActiveScopeOrFail();
+
 		if (mem.isFreed())
 			throw new NotesError(0, "Memory is already freed");
-		
-		
-		if (NotesJNAContext.is64Bit()) {
-			IAllocatedMemory oldObj = m_b64OpenHandlesMemory.get().put(mem.getHandle64(), mem);
-			if (oldObj!=null && oldObj!=mem) {
-				throw new IllegalStateException("Duplicate handle detected. Memory to store: "+mem+", object found in open handle list: "+oldObj);
-			}
-		}
-		else {
-			IAllocatedMemory oldObj = m_b32OpenHandlesMemory.get().put(mem.getHandle32(), mem);
-			if (oldObj!=null && oldObj!=mem) {
-				throw new IllegalStateException("Duplicate handle detected. Memory to store: "+mem+", object found in open handle list: "+oldObj);
-			}
+
+		long handle = NotesJNAContext.is64Bit() ? mem.getHandle64() : mem.getHandle32();
+		Object oldObj = scope.addMemory(handle, mem);
+		if (oldObj!=null && oldObj!=mem) {
+			throw new IllegalStateException("Duplicate handle detected. Memory to store: "+mem+", object found in open handle list: "+oldObj);
 		}
-		
+
 		if (Boolean.TRUE.equals(m_writeDebugMessages.get())) {
 			System.out.println("AutoGC - Added memory: "+mem);
 		}
@@ -271,11 +318,7 @@ public class NotesGC {
 	 * @throws NotesError if handle does not exist
 	 */
 	public static IRecyclableNotesObject __b64_checkValidObjectHandle(Class<? extends IRecyclableNotesObject> objClazz, long handle) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		HashKey64 key = new HashKey64(objClazz, handle);
-		IRecyclableNotesObject obj = m_b64OpenHandlesDominoObjects.get().get(key);
+		IRecyclableNotesObject obj = getActiveScopeOrFail().getObject(objClazz, handle);
 		if (obj==null) {
 			throw new NotesError(0, "The provided C handle "+handle+" of object with class "+objClazz.getName()+" does not seem to exist (anymore).");
 		}
@@ -292,10 +335,7 @@ public class NotesGC {
 	 * @throws NotesError if handle does not exist
 	 */
 	public static void __b64_checkValidMemHandle(Class<? extends IAllocatedMemory> memClazz, long handle) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		IAllocatedMemory obj = m_b64OpenHandlesMemory.get().get(handle);
+		IAllocatedMemory obj = getActiveScopeOrFail().getMemory(handle);
 		if (obj==null) {
 			throw new NotesError(0, "The provided C handle "+handle+" of memory with class "+memClazz.getName()+" does not seem to exist (anymore).");
 		}
@@ -310,11 +350,7 @@ public class NotesGC {
 	 * @throws NotesError if handle does not exist
 	 */
 	public static IRecyclableNotesObject __b32_checkValidObjectHandle(Class<? extends IRecyclableNotesObject> objClazz, int handle) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		HashKey32 key = new HashKey32(objClazz, handle);
-		IRecyclableNotesObject obj = m_b32OpenHandlesDominoObjects.get().get(key);
+		IRecyclableNotesObject obj = getActiveScopeOrFail().getObject(objClazz, handle);
 		if (obj==null) {
 			throw new NotesError(0, "The provided C handle "+handle+" of object with class "+objClazz.getName()+" does not seem to exist (anymore).");
 		}
@@ -330,10 +366,7 @@ public class NotesGC {
 	 * @throws NotesError if handle does not exist
 	 */
 	public static void __b32_checkValidMemHandle(Class<? extends IAllocatedMemory> objClazz, int handle) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
-		IAllocatedMemory obj = m_b32OpenHandlesMemory.get().get(handle);
+		IAllocatedMemory obj = getActiveScopeOrFail().getMemory(handle);
 		if (obj==null) {
 			throw new NotesError(0, "The provided C handle "+handle+" of memory with class "+objClazz.getName()+" does not seem to exist (anymore).");
 		}
@@ -346,24 +379,16 @@ public class NotesGC {
 	 * @param obj Notes object
 	 */
 	public static void __objectBeeingBeRecycled(Class<? extends IRecyclableNotesObject> clazz, IRecyclableNotesObject obj) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
+		NotesGCScope scope = getActiveScopeOrFail();
+
 		if (obj.isRecycled())
 			throw new NotesError(0, "Object is already recycled");
 
 		if (Boolean.TRUE.equals(m_writeDebugMessages.get())) {
 			System.out.println("AutoGC - Removing object: "+obj.getClass()+" with handle="+(NotesJNAContext.is64Bit() ? obj.getHandle64() : obj.getHandle32()));
 		}
-		
-		if (NotesJNAContext.is64Bit()) {
-			HashKey64 key = new HashKey64(clazz, obj.getHandle64());
-			m_b64OpenHandlesDominoObjects.get().remove(key);
-		}
-		else {
-			HashKey32 key = new HashKey32(clazz, obj.getHandle32());
-			m_b32OpenHandlesDominoObjects.get().remove(key);
-		}
+
+		scope.removeObject(clazz, NotesJNAContext.is64Bit() ? obj.getHandle64() : obj.getHandle32());
 	}
 
 	/**
@@ -372,48 +397,42 @@ public class NotesGC {
 	 * @param mem Notes object
 	 */
 	public static void __memoryBeeingFreed(IAllocatedMemory mem) {
-		if (!Boolean.TRUE.equals(m_activeAutoGC.get()))
-			throw new IllegalStateException("Auto GC is not active");
-		
+		NotesGCScope scope = getActiveScopeOrFail();
+
 		if (mem.isFreed())
 			throw new NotesError(0, "Memory has already been freed");
 
 		if (Boolean.TRUE.equals(m_writeDebugMessages.get())) {
 			System.out.println("AutoGC - Removing memory: "+mem.getClass()+" with handle="+(NotesJNAContext.is64Bit() ? mem.getHandle64() : mem.getHandle32()));
 		}
-		
-		if (NotesJNAContext.is64Bit()) {
-			m_b64OpenHandlesMemory.get().remove(mem.getHandle64());
-		}
-		else {
-			m_b32OpenHandlesMemory.get().remove(mem.getHandle32());
-		}
+
+		scope.removeMemory(NotesJNAContext.is64Bit() ? mem.getHandle64() : mem.getHandle32());
 	}
 
 	public static Object setCustomValue(String key, Object value) {
-		Map<String,Object> map = m_activeAutoGCCustomValues.get();
-		if (map==null) {
+		NotesGCScope scope = m_activeScope.get();
+		if (scope==null) {
 			throw new IllegalStateException("No auto gc block is active");
 		}
-		return map.put(key, value);
+		return scope.getCustomValues().put(key, value);
 	}
-	
+
 	public static Object getCustomValue(String key) {
-		Map<String,Object> map = m_activeAutoGCCustomValues.get();
-		if (map==null) {
+		NotesGCScope scope = m_activeScope.get();
+		if (scope==null) {
 			throw new IllegalStateException("No auto gc block is active");
 		}
-		return map.get(key);
+		return scope.getCustomValues().get(key);
 	}
-	
+
 	public boolean hasCustomValue(String key) {
-		Map<String,Object> map = m_activeAutoGCCustomValues.get();
-		if (map==null) {
+		NotesGCScope scope = m_activeScope.get();
+		if (scope==null) {
 			throw new IllegalStateException("No auto gc block is active");
 		}
-		return map.containsKey(key);
+		return scope.getCustomValues().containsKey(key);
 	}
-	
+
 	/**
 	 * Runs a piece of code and automatically disposes any allocated Notes objects at the end.
 	 * The method supported nested calls.
@@ -424,189 +443,80 @@ public class NotesGC {
 	 * 
 	 * @param <T> return value type of code to be run
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public static <T> T runWithAutoGC(Callable<T> callable) throws Exception {
-		if (Boolean.TRUE.equals(m_activeAutoGC.get())) {
+		if (m_activeScope.get()!=null) {
 			//nested call
 			return callable.call();
 		}
 		else {
-			m_activeAutoGC.set(Boolean.TRUE);
-			m_activeAutoGCCustomValues.set(new HashMap<String, Object>());
-			
-			LinkedHashMap<HashKey32,IRecyclableNotesObject> b32HandlesDominoObjects = null;
-			LinkedHashMap<HashKey64,IRecyclableNotesObject> b64HandlesDominoObjects = null;
-			
-			LinkedHashMap<Integer,IAllocatedMemory> b32HandlesMemory = null;
-			LinkedHashMap<Long,IAllocatedMemory> b64HandlesMemory = null;
-			
+			NotesGCScope scope = new NotesGCScope();
+			m_activeScope.set(scope);
+
 			try {
-				if (NotesJNAContext.is64Bit()) {
-					b64HandlesDominoObjects = new LinkedHashMap<HashKey64,IRecyclableNotesObject>();
-					m_b64OpenHandlesDominoObjects.set(b64HandlesDominoObjects);
-					
-					b64HandlesMemory = new LinkedHashMap<Long,IAllocatedMemory>();
-					m_b64OpenHandlesMemory.set(b64HandlesMemory);
-				}
-				else {
-					b32HandlesDominoObjects = new LinkedHashMap<HashKey32,IRecyclableNotesObject>();
-					m_b32OpenHandlesDominoObjects.set(b32HandlesDominoObjects);
-					
-					b32HandlesMemory = new LinkedHashMap<Integer,IAllocatedMemory>();
-					m_b32OpenHandlesMemory.set(b32HandlesMemory);
-				}
-				
 				return callable.call();
 			}
 			finally {
 				boolean writeDebugMsg = Boolean.TRUE.equals(m_writeDebugMessages.get());
-				
-				if (NotesJNAContext.is64Bit()) {
-					{
-						//recycle created Domino objects
-						if (!b64HandlesDominoObjects.isEmpty()) {
-							Entry[] mapEntries = b64HandlesDominoObjects.entrySet().toArray(new Entry[b64HandlesDominoObjects.size()]);
-							if (mapEntries.length>0) {
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Auto-recycling "+mapEntries.length+" Domino objects:");
-								}
-								
-								for (int i=mapEntries.length-1; i>=0; i--) {
-									Entry<HashKey64,IRecyclableNotesObject> currEntry = mapEntries[i];
-									IRecyclableNotesObject obj = currEntry.getValue();
-									try {
-										if (!obj.isRecycled()) {
-											if (writeDebugMsg) {
-												System.out.println("AutoGC - Auto-recycling "+obj);
-											}
-											obj.recycle();
-										}
-									}
-									catch (Throwable e) {
-										e.printStackTrace();
-									}
-									b64HandlesDominoObjects.remove(currEntry.getKey());
-								}
-								
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Done auto-recycling "+mapEntries.length+" Domino objects");
-								}
-								
-								b64HandlesDominoObjects.clear();
-								m_b64OpenHandlesDominoObjects.set(null);
-							}
-						}
-					}
-					{
-						//dispose allocated memory
-						if (!b64HandlesMemory.isEmpty()) {
-							Entry[] mapEntries = b64HandlesMemory.entrySet().toArray(new Entry[b64HandlesMemory.size()]);
-							if (mapEntries.length>0) {
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Freeing "+mapEntries.length+" memory handles");
-								}
-
-								for (int i=mapEntries.length-1; i>=0; i--) {
-									Entry<Long,IAllocatedMemory> currEntry = mapEntries[i];
-									IAllocatedMemory obj = currEntry.getValue();
-									try {
-										if (!obj.isFreed()) {
-											if (writeDebugMsg) {
-												System.out.println("AutoGC - Freeing "+obj);
-											}
-											obj.free();
-										}
-									}
-									catch (Throwable e) {
-										e.printStackTrace();
-									}
-									b64HandlesMemory.remove(currEntry.getKey());
-								}
-
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Done freeing "+mapEntries.length+" memory handles");
-								}
-
-								b64HandlesMemory.clear();
-								m_b64OpenHandlesMemory.set(null);
-							}
-						}
-					}
+				try {
+					scope.close(writeDebugMsg);
 				}
-				else {
-					{
-						if (!b32HandlesDominoObjects.isEmpty()) {
-							//recycle created Domino objects
-							Entry[] mapEntries = b32HandlesDominoObjects.entrySet().toArray(new Entry[b32HandlesDominoObjects.size()]);
-							if (mapEntries.length>0) {
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Recycling "+mapEntries.length+" Domino objects:");
-								}
-
-								for (int i=mapEntries.length-1; i>=0; i--) {
-									Entry<HashKey32,IRecyclableNotesObject> currEntry = mapEntries[i];
-									IRecyclableNotesObject obj = currEntry.getValue();
-									try {
-										if (!obj.isRecycled()) {
-											if (writeDebugMsg) {
-												System.out.println("AutoGC - Recycling "+obj);
-											}
-											obj.recycle();
-										}
-									}
-									catch (Throwable e) {
-										e.printStackTrace();
-									}
-									b32HandlesDominoObjects.remove(currEntry.getKey());
-								}
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Done recycling "+mapEntries.length+" memory handles");
-								}
-
-								b32HandlesDominoObjects.clear();
-								m_b32OpenHandlesDominoObjects.set(null);
-							}
-						}
-					}
-					{
-						if (!b32HandlesMemory.isEmpty()) {
-							//dispose allocated memory
-							Entry[] mapEntries = b32HandlesMemory.entrySet().toArray(new Entry[b32HandlesMemory.size()]);
-							if (mapEntries.length>0) {
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Freeing "+mapEntries.length+" memory handles");
-								}
-
-								for (int i=mapEntries.length-1; i>=0; i--) {
-									Entry<Integer,IAllocatedMemory> currEntry = mapEntries[i];
-									IAllocatedMemory obj = currEntry.getValue();
-									try {
-										if (!obj.isFreed()) {
-											if (writeDebugMsg) {
-												System.out.println("AutoGC - Freeing "+obj);
-											}
-											obj.free();
-										}
-									}
-									catch (Throwable e) {
-										e.printStackTrace();
-									}
-									b32HandlesMemory.remove(currEntry.getKey());
-								}
-								if (writeDebugMsg) {
-									System.out.println("AutoGC - Done freeing "+mapEntries.length+" memory handles");
-								}
-
-								b32HandlesMemory.clear();
-								m_b32OpenHandlesMemory.set(null);
-							}
-						}
-					}
+				finally {
+					m_activeScope.set(null);
+					m_writeDebugMessages.set(Boolean.FALSE);
 				}
-				m_activeAutoGCCustomValues.set(null);
-				m_activeAutoGC.set(null);
-				m_writeDebugMessages.set(Boolean.FALSE);
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Runs a piece of code in the current thread with the scope of a {@link #runWithAutoGC(Callable)} block
+	 * of another thread, e.g. in a worker thread. Objects created by the code are registered in the scope
+	 * and disposed when the scope is closed, so the code needs to finish before that. The current thread
+	 * must have been initialized for Notes API calls.
+	 * 
+	 * @param scope scope, see {@link #getActiveScope()}
+	 * @param callable code to execute
+	 * @return computation result
+	 * @throws Exception in case of errors
+	 * 
+	 * @param <T> return value type of code to be run
+	 */
+	public static <T> T runInScope(NotesGCScope scope, Callable<T> callable) throws Exception {
+		if (scope.isClosed())
+			throw new IllegalStateException("Auto GC scope has already been closed");
+
+		NotesGCScope oldScope = m_activeScope.get();
+		if (oldScope==scope) {
+			return callable.call();
+		}
+
+		m_activeScope.set(scope);
+		try {
+			return callable.call();
+		}
+		finally {
+			m_activeScope.set(oldScope);
+		}
+	}
+
+	/**
+	 * Wraps a piece of code to be run with the scope of the active {@link #runWithAutoGC(Callable)} block of
+	 * the current thread, e.g. to submit it to an executor. See {@link #runInScope(NotesGCScope, Callable)}.
+	 * 
+	 * @param callable code to execute
+	 * @return wrapped code
+	 * 
+	 * @param <T> return value type of code to be run
+	 */
+	public static <T> Callable<T> bindToActiveScope(final Callable<T> callable) {
+		final NotesGCScope scope = getActiveScopeOrFail();
+
+		return new Callable<T>() {
+
+			@Override
+			public T call() throws Exception {
+				return runInScope(scope, callable);
+			}
+		};
+	}
+}
@@ -0,0 +1,587 @@
+package com.mindoo.domino.jna.gc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry for the Notes object and memory handles created within one
+ * {@link NotesGC#runWithAutoGC(Callable)} block.<br>
+ * <br>
+ * The scope is created by the outermost {@link NotesGC#runWithAutoGC(Callable)} call and bound to
+ * the current thread. Use {@link NotesGC#getActiveScope()} and {@link NotesGC#runInScope(NotesGCScope, Callable)}
+ * (or {@link NotesGC#bindToActiveScope(Callable)}) to run code in other threads, e.g. in a thread pool,
+ * with the same scope. Objects created by these threads are registered in the shared scope and can be used
+ * by all its threads. All of them are disposed when the scope is closed, so the threads need to be done
+ * before the <code>runWithAutoGC</code> block ends.<br>
+ * <br>
+ * The handles are stored per object type in maps with primitive long keys, which are split into
+ * shards with their own locks, so no key objects are created to register or check a handle.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesGCScope {
+	private static final int SHARD_COUNT = 16;
+
+	//live handle counts of all scopes
+	private static final ConcurrentHashMap<Class<?>,AtomicInteger> m_liveObjectHandles = new ConcurrentHashMap<Class<?>,AtomicInteger>();
+	private static final AtomicInteger m_liveMemoryHandles = new AtomicInteger();
+
+	private final ConcurrentHashMap<Class<?>,HandleRegistry> m_objectRegistries = new ConcurrentHashMap<Class<?>,HandleRegistry>();
+	private final HandleRegistry m_memoryRegistry = new HandleRegistry(m_liveMemoryHandles);
+	private final AtomicLong m_sequence = new AtomicLong();
+	private final Map<String,Object> m_customValues = Collections.synchronizedMap(new HashMap<String,Object>());
+	private volatile boolean m_closed;
+
+	NotesGCScope() {
+	}
+
+	/**
+	 * Returns true if the scope has been closed and the handles have been disposed
+	 *
+	 * @return true if closed
+	 */
+	public boolean isClosed() {
+		return m_closed;
+	}
+
+	private void checkNotClosed() {
+		if (m_closed)
+			throw new IllegalStateException("Auto GC scope has already been closed");
+	}
+
+	private HandleRegistry getObjectRegistry(Class<?> clazz, boolean create) {
+		HandleRegistry registry = m_objectRegistries.get(clazz);
+		if (registry==null && create) {
+			AtomicInteger liveCount = m_liveObjectHandles.get(clazz);
+			if (liveCount==null) {
+				AtomicInteger newLiveCount = new AtomicInteger();
+				liveCount = m_liveObjectHandles.putIfAbsent(clazz, newLiveCount);
+				if (liveCount==null) {
+					liveCount = newLiveCount;
+				}
+			}
+			HandleRegistry newRegistry = new HandleRegistry(liveCount);
+			registry = m_objectRegistries.putIfAbsent(clazz, newRegistry);
+			if (registry==null) {
+				registry = newRegistry;
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * Registers an object handle
+	 *
+	 * @param clazz type of the handle
+	 * @param handle handle
+	 * @param obj object
+	 * @return previously registered object for the handle or null
+	 */
+	Object addObject(Class<?> clazz, long handle, IRecyclableNotesObject obj) {
+		checkNotClosed();
+		return getObjectRegistry(clazz, true).put(handle, obj, m_sequence.incrementAndGet());
+	}
+
+	/**
+	 * Looks up an object handle
+	 *
+	 * @param clazz type of the handle
+	 * @param handle handle
+	 * @return object or null if not registered
+	 */
+	IRecyclableNotesObject getObject(Class<?> clazz, long handle) {
+		HandleRegistry registry = getObjectRegistry(clazz, false);
+		return registry==null ? null : (IRecyclableNotesObject) registry.get(handle);
+	}
+
+	/**
+	 * Unregisters an object handle
+	 *
+	 * @param clazz type of the handle
+	 * @param handle handle
+	 */
+	void removeObject(Class<?> clazz, long handle) {
+		HandleRegistry registry = getObjectRegistry(clazz, false);
+		if (registry!=null) {
+			registry.remove(handle);
+		}
+	}
+
+	/**
+	 * Registers a memory handle
+	 *
+	 * @param handle handle
+	 * @param mem memory
+	 * @return previously registered memory for the handle or null
+	 */
+	Object addMemory(long handle, IAllocatedMemory mem) {
+		checkNotClosed();
+		return m_memoryRegistry.put(handle, mem, m_sequence.incrementAndGet());
+	}
+
+	/**
+	 * Looks up a memory handle
+	 *
+	 * @param handle handle
+	 * @return memory or null if not registered
+	 */
+	IAllocatedMemory getMemory(long handle) {
+		return (IAllocatedMemory) m_memoryRegistry.get(handle);
+	}
+
+	/**
+	 * Unregisters a memory handle
+	 *
+	 * @param handle handle
+	 */
+	void removeMemory(long handle) {
+		m_memoryRegistry.remove(handle);
+	}
+
+	/**
+	 * Returns the number of open object handles of this scope
+	 *
+	 * @return count
+	 */
+	public int getNumberOfOpenObjectHandles() {
+		int count = 0;
+		for (HandleRegistry currRegistry : m_objectRegistries.values()) {
+			count += currRegistry.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of open memory handles of this scope
+	 *
+	 * @return count
+	 */
+	public int getNumberOfOpenMemoryHandles() {
+		return m_memoryRegistry.size();
+	}
+
+	/**
+	 * Returns the number of open object handles of this scope per object type
+	 *
+	 * @return counts, without types that have no open handles
+	 */
+	public Map<Class<?>,Integer> getOpenObjectHandlesByType() {
+		Map<Class<?>,Integer> counts = new HashMap<Class<?>,Integer>();
+		for (Entry<Class<?>,HandleRegistry> currEntry : m_objectRegistries.entrySet()) {
+			int size = currEntry.getValue().size();
+			if (size>0) {
+				counts.put(currEntry.getKey(), size);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the number of open object handles of all scopes per object type
+	 *
+	 * @return counts, without types that have no open handles
+	 */
+	public static Map<Class<?>,Integer> getLiveObjectHandlesByType() {
+		Map<Class<?>,Integer> counts = new HashMap<Class<?>,Integer>();
+		for (Entry<Class<?>,AtomicInteger> currEntry : m_liveObjectHandles.entrySet()) {
+			int size = currEntry.getValue().get();
+			if (size>0) {
+				counts.put(currEntry.getKey(), size);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the number of open memory handles of all scopes
+	 *
+	 * @return count
+	 */
+	public static int getLiveMemoryHandles() {
+		return m_liveMemoryHandles.get();
+	}
+
+	Map<String,Object> getCustomValues() {
+		return m_customValues;
+	}
+
+	/**
+	 * Recycles all registered objects and frees all registered memory in the reverse
+	 * order of their registration
+	 *
+	 * @param writeDebugMsg true to write debug messages
+	 */
+	void close(boolean writeDebugMsg) {
+		{
+			//recycle created Domino objects
+			List<RegisteredHandle> handles = new ArrayList<RegisteredHandle>();
+			for (HandleRegistry currRegistry : m_objectRegistries.values()) {
+				currRegistry.collect(handles);
+			}
+			if (!handles.isEmpty()) {
+				RegisteredHandle[] sortedHandles = sortByRegistration(handles);
+				if (writeDebugMsg) {
+					System.out.println("AutoGC - Auto-recycling "+sortedHandles.length+" Domino objects:");
+				}
+
+				for (int i=sortedHandles.length-1; i>=0; i--) {
+					IRecyclableNotesObject obj = (IRecyclableNotesObject) sortedHandles[i].m_value;
+					try {
+						if (!obj.isRecycled()) {
+							if (writeDebugMsg) {
+								System.out.println("AutoGC - Auto-recycling "+obj);
+							}
+							obj.recycle();
+						}
+					}
+					catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+
+				if (writeDebugMsg) {
+					System.out.println("AutoGC - Done auto-recycling "+sortedHandles.length+" Domino objects");
+				}
+			}
+			for (HandleRegistry currRegistry : m_objectRegistries.values()) {
+				currRegistry.clear();
+			}
+		}
+		{
+			//dispose allocated memory
+			List<RegisteredHandle> handles = new ArrayList<RegisteredHandle>();
+			m_memoryRegistry.collect(handles);
+			if (!handles.isEmpty()) {
+				RegisteredHandle[] sortedHandles = sortByRegistration(handles);
+				if (writeDebugMsg) {
+					System.out.println("AutoGC - Freeing "+sortedHandles.length+" memory handles");
+				}
+
+				for (int i=sortedHandles.length-1; i>=0; i--) {
+					IAllocatedMemory obj = (IAllocatedMemory) sortedHandles[i].m_value;
+					try {
+						if (!obj.isFreed()) {
+							if (writeDebugMsg) {
+								System.out.println("AutoGC - Freeing "+obj);
+							}
+							obj.free();
+						}
+					}
+					catch (Throwable e) {
+						e.printStackTrace();
+					}
+				}
+
+				if (writeDebugMsg) {
+					System.out.println("AutoGC - Done freeing "+sortedHandles.length+" memory handles");
+				}
+			}
+			m_memoryRegistry.clear();
+		}
+		m_customValues.clear();
+		m_closed = true;
+	}
+
+	private static RegisteredHandle[] sortByRegistration(List<RegisteredHandle> handles) {
+		RegisteredHandle[] handlesArr = handles.toArray(new RegisteredHandle[handles.size()]);
+		Arrays.sort(handlesArr, new Comparator<RegisteredHandle>() {
+
+			@Override
+			public int compare(RegisteredHandle o1, RegisteredHandle o2) {
+				return o1.m_sequence < o2.m_sequence ? -1 : (o1.m_sequence == o2.m_sequence ? 0 : 1);
+			}
+		});
+		return handlesArr;
+	}
+
+	@Override
+	public String toString() {
+		Map<String,Integer> countsByName = new LinkedHashMap<String,Integer>();
+		for (Entry<Class<?>,Integer> currEntry : getOpenObjectHandlesByType().entrySet()) {
+			countsByName.put(currEntry.getKey().getSimpleName(), currEntry.getValue());
+		}
+		return "NotesGCScope [closed="+m_closed+", objects="+countsByName+", memory="+getNumberOfOpenMemoryHandles()+"]";
+	}
+
+	/**
+	 * Handle and value collected when closing the scope
+	 */
+	private static class RegisteredHandle {
+		private final Object m_value;
+		private final long m_sequence;
+
+		public RegisteredHandle(Object value, long sequence) {
+			m_value = value;
+			m_sequence = sequence;
+		}
+	}
+
+	/**
+	 * Handles of one type, split into shards by handle value
+	 */
+	private static class HandleRegistry {
+		private final HandleMap[] m_shards;
+		private final AtomicInteger m_size = new AtomicInteger();
+		private final AtomicInteger m_liveCount;
+
+		public HandleRegistry(AtomicInteger liveCount) {
+			m_liveCount = liveCount;
+			m_shards = new HandleMap[SHARD_COUNT];
+			for (int i=0; i<SHARD_COUNT; i++) {
+				m_shards[i] = new HandleMap();
+			}
+		}
+
+		private HandleMap shardFor(long handle) {
+			//handles are often aligned, so mix the bits before selecting the shard
+			int hash = HandleMap.mix(handle);
+			return m_shards[(hash >>> 28) & (SHARD_COUNT - 1)];
+		}
+
+		public Object put(long handle, Object value, long sequence) {
+			HandleMap shard = shardFor(handle);
+			Object oldValue;
+			synchronized (shard) {
+				oldValue = shard.put(handle, value, sequence);
+			}
+			if (oldValue==null) {
+				m_size.incrementAndGet();
+				m_liveCount.incrementAndGet();
+			}
+			return oldValue;
+		}
+
+		public Object get(long handle) {
+			HandleMap shard = shardFor(handle);
+			synchronized (shard) {
+				return shard.get(handle);
+			}
+		}
+
+		public void remove(long handle) {
+			HandleMap shard = shardFor(handle);
+			Object oldValue;
+			synchronized (shard) {
+				oldValue = shard.remove(handle);
+			}
+			if (oldValue!=null) {
+				m_size.decrementAndGet();
+				m_liveCount.decrementAndGet();
+			}
+		}
+
+		public int size() {
+			return m_size.get();
+		}
+
+		public void collect(List<RegisteredHandle> target) {
+			for (HandleMap currShard : m_shards) {
+				synchronized (currShard) {
+					currShard.collect(target);
+				}
+			}
+		}
+
+		public void clear() {
+			int removed = 0;
+			for (HandleMap currShard : m_shards) {
+				synchronized (currShard) {
+					removed += currShard.clear();
+				}
+			}
+			m_size.addAndGet(-removed);
+			m_liveCount.addAndGet(-removed);
+		}
+	}
+
+	/**
+	 * Open addressing hash map with primitive long keys and linear probing. Stores the
+	 * registration sequence number next to each value. 0 is used to mark empty slots, which
+	 * is no valid handle. Not thread-safe.
+	 */
+	static class HandleMap {
+		private static final int INITIAL_CAPACITY = 8;
+
+		private long[] m_keys;
+		private Object[] m_values;
+		private long[] m_sequences;
+		private int m_size;
+
+		public HandleMap() {
+			m_keys = new long[INITIAL_CAPACITY];
+			m_values = new Object[INITIAL_CAPACITY];
+			m_sequences = new long[INITIAL_CAPACITY];
+		}
+
+		static int mix(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+
+		private int indexFor(long key) {
+			return mix(key) & (m_keys.length - 1);
+		}
+
+		public Object get(long key) {
+			if (key==0) {
+				return null;
+			}
+			int mask = m_keys.length - 1;
+			int idx = indexFor(key);
+			while (true) {
+				long currKey = m_keys[idx];
+				if (currKey==key) {
+					return m_values[idx];
+				}
+				else if (currKey==0) {
+					return null;
+				}
+				idx = (idx + 1) & mask;
+			}
+		}
+
+		public Object put(long key, Object value, long sequence) {
+			if (key==0)
+				throw new IllegalArgumentException("Handle cannot be 0");
+
+			int mask = m_keys.length - 1;
+			int idx = indexFor(key);
+			while (true) {
+				long currKey = m_keys[idx];
+				if (currKey==key) {
+					Object oldValue = m_values[idx];
+					m_values[idx] = value;
+					m_sequences[idx] = sequence;
+					return oldValue;
+				}
+				else if (currKey==0) {
+					m_keys[idx] = key;
+					m_values[idx] = value;
+					m_sequences[idx] = sequence;
+					m_size++;
+					//keep the load factor below 0.5
+					if (2 * m_size > m_keys.length) {
+						resize(2 * m_keys.length);
+					}
+					return null;
+				}
+				idx = (idx + 1) & mask;
+			}
+		}
+
+		public Object remove(long key) {
+			if (key==0) {
+				return null;
+			}
+			int mask = m_keys.length - 1;
+			int idx = indexFor(key);
+			while (true) {
+				long currKey = m_keys[idx];
+				if (currKey==key) {
+					Object oldValue = m_values[idx];
+					deleteSlot(idx);
+					m_size--;
+					return oldValue;
+				}
+				else if (currKey==0) {
+					return null;
+				}
+				idx = (idx + 1) & mask;
+			}
+		}
+
+		/**
+		 * Removes the entry of a slot and moves following entries of the probe sequence back,
+		 * so that lookups do not need tombstones
+		 *
+		 * @param slotIdx slot index
+		 */
+		private void deleteSlot(int slotIdx) {
+			int mask = m_keys.length - 1;
+			int gapIdx = slotIdx;
+			int idx = (slotIdx + 1) & mask;
+			while (true) {
+				long currKey = m_keys[idx];
+				if (currKey==0) {
+					break;
+				}
+				int homeIdx = indexFor(currKey);
+				//move the entry if its home slot is not between the gap and its current slot
+				boolean move = gapIdx <= idx ? (homeIdx <= gapIdx || homeIdx > idx) : (homeIdx <= gapIdx && homeIdx > idx);
+				if (move) {
+					m_keys[gapIdx] = currKey;
+					m_values[gapIdx] = m_values[idx];
+					m_sequences[gapIdx] = m_sequences[idx];
+					gapIdx = idx;
+				}
+				idx = (idx + 1) & mask;
+			}
+			m_keys[gapIdx] = 0;
+			m_values[gapIdx] = null;
+			m_sequences[gapIdx] = 0;
+		}
+
+		private void resize(int newCapacity) {
+			long[] oldKeys = m_keys;
+			Object[] oldValues = m_values;
+			long[] oldSequences = m_sequences;
+
+			m_keys = new long[newCapacity];
+			m_values = new Object[newCapacity];
+			m_sequences = new long[newCapacity];
+
+			int mask = newCapacity - 1;
+			for (int i=0; i<oldKeys.length; i++) {
+				long currKey = oldKeys[i];
+				if (currKey!=0) {
+					int idx = indexFor(currKey);
+					while (m_keys[idx]!=0) {
+						idx = (idx + 1) & mask;
+					}
+					m_keys[idx] = currKey;
+					m_values[idx] = oldValues[i];
+					m_sequences[idx] = oldSequences[i];
+				}
+			}
+		}
+
+		public int size() {
+			return m_size;
+		}
+
+		void collect(List<RegisteredHandle> target) {
+			for (int i=0; i<m_keys.length; i++) {
+				if (m_keys[i]!=0) {
+					target.add(new RegisteredHandle(m_values[i], m_sequences[i]));
+				}
+			}
+		}
+
+		int clear() {
+			int removed = m_size;
+			if (m_keys.length > INITIAL_CAPACITY) {
+				m_keys = new long[INITIAL_CAPACITY];
+				m_values = new Object[INITIAL_CAPACITY];
+				m_sequences = new long[INITIAL_CAPACITY];
+			}
+			else {
+				Arrays.fill(m_keys, 0);
+				Arrays.fill(m_values, null);
+				Arrays.fill(m_sequences, 0);
+			}
+			m_size = 0;
+			return removed;
+		}
+	}
+}
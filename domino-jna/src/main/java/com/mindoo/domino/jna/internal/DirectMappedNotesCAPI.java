@@ -0,0 +1,2992 @@
+package com.mindoo.domino.jna.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import com.mindoo.domino.jna.structs.NIFFindByKeyContextStruct;
+import com.mindoo.domino.jna.structs.NotesBlockIdStruct;
+import com.mindoo.domino.jna.structs.NotesBuildVersionStruct;
+import com.mindoo.domino.jna.structs.NotesCollectionPositionStruct;
+import com.mindoo.domino.jna.structs.NotesDbReplicaInfoStruct;
+import com.mindoo.domino.jna.structs.NotesFTIndexStatsStruct;
+import com.mindoo.domino.jna.structs.NotesOriginatorIdStruct;
+import com.mindoo.domino.jna.structs.NotesTimeDatePairStruct;
+import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
+import com.mindoo.domino.jna.structs.NotesTimeStruct;
+import com.mindoo.domino.jna.structs.NotesUniversalNoteIdStruct;
+import com.mindoo.domino.jna.structs.ReplExtensionsStruct;
+import com.mindoo.domino.jna.structs.ReplServStatsStruct;
+import com.mindoo.domino.jna.structs.compoundtext.NotesCompoundStyleStruct;
+import com.mindoo.domino.jna.structs.html.HtmlApi_UrlComponentStruct;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.StringArray;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.DoubleByReference;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.ptr.PointerByReference;
+import com.sun.jna.ptr.ShortByReference;
+
+/**
+ * Implementation of {@link NotesCAPI} that calls the most frequently used C API functions
+ * via JNA direct mapping (see {@link NotesCAPIDirectFunctions}) and delegates all other
+ * calls to the interface mapped {@link NotesCAPI} instance.<br>
+ * <br>
+ * Interface mapping dispatches each call through a reflection proxy and converts
+ * the arguments on every invocation. For functions like NIFReadEntries, OSLockObject or
+ * NSFItemInfo that are called millions of times during view and note scans, this overhead
+ * is noticeable. Direct mapping links the functions once on startup and behaves
+ * identically otherwise.<br>
+ * <br>
+ * Use {@link NotesJNAContext#setUseDirectMapping(boolean)} to activate this binding.
+ * 
+ * @author Karsten Lehmann
+ */
+public class DirectMappedNotesCAPI implements NotesCAPI {
+	private NotesCAPI m_api;
+	
+	/**
+	 * Creates a new instance
+	 * 
+	 * @param api interface mapped API used for all functions that are not direct mapped
+	 */
+	public DirectMappedNotesCAPI(NotesCAPI api) {
+		m_api = api;
+	}
+	
+	/**
+	 * Returns the interface mapped API used for all functions that are not direct mapped
+	 * 
+	 * @return API
+	 */
+	public NotesCAPI getInterfaceMappedAPI() {
+		return m_api;
+	}
+	
+	@Override
+	public void NIFGetViewRebuildDir(Memory retPathName, int BufferLength) {
+		m_api.NIFGetViewRebuildDir(retPathName, BufferLength);
+	}
+
+	@Override
+	public void DAOSGetBaseStoragePath(Memory retPathName, int BufferLength) {
+		m_api.DAOSGetBaseStoragePath(retPathName, BufferLength);
+	}
+
+	@Override
+	public short b32_NSFDbFTSizeGet(Memory PathName, LongByReference ftSize) {
+		return m_api.b32_NSFDbFTSizeGet(PathName, ftSize);
+	}
+
+	@Override
+	public short b64_NSFDbFTSizeGet(Memory PathName, LongByReference ftSize) {
+		return m_api.b64_NSFDbFTSizeGet(PathName, ftSize);
+	}
+
+	@Override
+	public short b32_NSFDbIsLocallyEncrypted(int dbHandle, IntByReference retVal) {
+		return m_api.b32_NSFDbIsLocallyEncrypted(dbHandle, retVal);
+	}
+
+	@Override
+	public short b64_NSFDbIsLocallyEncrypted(long dbHandle, IntByReference retVal) {
+		return m_api.b64_NSFDbIsLocallyEncrypted(dbHandle, retVal);
+	}
+
+	@Override
+	public short b32_OSLoadString(int hModule, short StringCode, Memory retBuffer, short BufferLength) {
+		return m_api.b32_OSLoadString(hModule, StringCode, retBuffer, BufferLength);
+	}
+
+	@Override
+	public short b64_OSLoadString(long hModule, short StringCode, Memory retBuffer, short BufferLength) {
+		return m_api.b64_OSLoadString(hModule, StringCode, retBuffer, BufferLength);
+	}
+
+	@Override
+	public short b32_NSFDbOpen(Memory dbName, IntBuffer dbHandle) {
+		return m_api.b32_NSFDbOpen(dbName, dbHandle);
+	}
+
+	@Override
+	public short b64_NSFDbOpen(Memory dbName, LongBuffer dbHandle) {
+		return m_api.b64_NSFDbOpen(dbName, dbHandle);
+	}
+
+	@Override
+	public short b32_NSFDbOpenExtended(Memory PathName, short Options, int hNames, NotesTimeDateStruct ModifiedTime, IntBuffer rethDB, NotesTimeDateStruct retDataModified, NotesTimeDateStruct retNonDataModified) {
+		return m_api.b32_NSFDbOpenExtended(PathName, Options, hNames, ModifiedTime, rethDB, retDataModified, retNonDataModified);
+	}
+
+	@Override
+	public short b64_NSFDbOpenExtended(Memory PathName, short Options, long hNames, NotesTimeDateStruct ModifiedTime, LongBuffer rethDB, NotesTimeDateStruct retDataModified, NotesTimeDateStruct retNonDataModified) {
+		return m_api.b64_NSFDbOpenExtended(PathName, Options, hNames, ModifiedTime, rethDB, retDataModified, retNonDataModified);
+	}
+
+	@Override
+	public short b32_NSFDbClose(int dbHandle) {
+		return m_api.b32_NSFDbClose(dbHandle);
+	}
+
+	@Override
+	public short b64_NSFDbClose(long dbHandle) {
+		return m_api.b64_NSFDbClose(dbHandle);
+	}
+
+	@Override
+	public short b32_NSFBuildNamesList(Memory UserName, int dwFlags, IntByReference rethNamesList) {
+		return m_api.b32_NSFBuildNamesList(UserName, dwFlags, rethNamesList);
+	}
+
+	@Override
+	public short b64_NSFBuildNamesList(Memory UserName, int dwFlags, LongByReference rethNamesList) {
+		return m_api.b64_NSFBuildNamesList(UserName, dwFlags, rethNamesList);
+	}
+
+	@Override
+	public short b32_NSFDbSpaceUsage(int dbHandle, IntByReference retAllocatedBytes, IntByReference retFreeBytes) {
+		return m_api.b32_NSFDbSpaceUsage(dbHandle, retAllocatedBytes, retFreeBytes);
+	}
+
+	@Override
+	public short b64_NSFDbSpaceUsage(long dbHandle, IntByReference retAllocatedBytes, IntByReference retFreeBytes) {
+		return m_api.b64_NSFDbSpaceUsage(dbHandle, retAllocatedBytes, retFreeBytes);
+	}
+
+	@Override
+	public short b32_NSFDbSpaceUsageScaled(int dbHandle, IntByReference retAllocatedBytes, IntByReference retFreeBytes, IntByReference retGranularity) {
+		return m_api.b32_NSFDbSpaceUsageScaled(dbHandle, retAllocatedBytes, retFreeBytes, retGranularity);
+	}
+
+	@Override
+	public short b64_NSFDbSpaceUsageScaled(long dbHandle, IntByReference retAllocatedBytes, IntByReference retFreeBytes, IntByReference retGranularity) {
+		return m_api.b64_NSFDbSpaceUsageScaled(dbHandle, retAllocatedBytes, retFreeBytes, retGranularity);
+	}
+
+	@Override
+	public short b32_NSFDbDeleteNotes(int hDB, int hTable, Memory retUNIDArray) {
+		return m_api.b32_NSFDbDeleteNotes(hDB, hTable, retUNIDArray);
+	}
+
+	@Override
+	public short b64_NSFDbDeleteNotes(long hDB, long hTable, Memory retUNIDArray) {
+		return m_api.b64_NSFDbDeleteNotes(hDB, hTable, retUNIDArray);
+	}
+
+	@Override
+	public short b64_NSFNoteDelete(long db_handle, int note_id, short update_flags) {
+		return m_api.b64_NSFNoteDelete(db_handle, note_id, update_flags);
+	}
+
+	@Override
+	public short b32_NSFNoteDelete(int db_handle, int note_id, short update_flags) {
+		return m_api.b32_NSFNoteDelete(db_handle, note_id, update_flags);
+	}
+
+	@Override
+	public short b64_NSFDbStampNotesMultiItem(long hDB, long hTable, long hInNote) {
+		return m_api.b64_NSFDbStampNotesMultiItem(hDB, hTable, hInNote);
+	}
+
+	@Override
+	public short b32_NSFDbStampNotesMultiItem(int hDB, int hTable, int hInNote) {
+		return m_api.b32_NSFDbStampNotesMultiItem(hDB, hTable, hInNote);
+	}
+
+	@Override
+	public short b64_NSFDbGenerateOID(long hDB, NotesOriginatorIdStruct retOID) {
+		return m_api.b64_NSFDbGenerateOID(hDB, retOID);
+	}
+
+	@Override
+	public short b32_NSFDbGenerateOID(int hDB, NotesOriginatorIdStruct retOID) {
+		return m_api.b32_NSFDbGenerateOID(hDB, retOID);
+	}
+
+	@Override
+	public int b64_NSFDbGetOpenDatabaseID(long hDBU) {
+		return m_api.b64_NSFDbGetOpenDatabaseID(hDBU);
+	}
+
+	@Override
+	public int b32_NSFDbGetOpenDatabaseID(int hDBU) {
+		return m_api.b32_NSFDbGetOpenDatabaseID(hDBU);
+	}
+
+	@Override
+	public short b64_NSFDbReopen(long hDB, LongByReference rethDB) {
+		return m_api.b64_NSFDbReopen(hDB, rethDB);
+	}
+
+	@Override
+	public short b32_NSFDbReopen(int hDB, IntByReference rethDB) {
+		return m_api.b32_NSFDbReopen(hDB, rethDB);
+	}
+
+	@Override
+	public short b64_NSFDbLocateByReplicaID(long hDB, NotesTimeDateStruct ReplicaID, Memory retPathName, short PathMaxLen) {
+		return m_api.b64_NSFDbLocateByReplicaID(hDB, ReplicaID, retPathName, PathMaxLen);
+	}
+
+	@Override
+	public short b32_NSFDbLocateByReplicaID(int hDB, NotesTimeDateStruct ReplicaID, Memory retPathName, short PathMaxLen) {
+		return m_api.b32_NSFDbLocateByReplicaID(hDB, ReplicaID, retPathName, PathMaxLen);
+	}
+
+	@Override
+	public short b64_NSFDbModifiedTime(long hDB, NotesTimeDateStruct retDataModified, NotesTimeDateStruct retNonDataModified) {
+		return m_api.b64_NSFDbModifiedTime(hDB, retDataModified, retNonDataModified);
+	}
+
+	@Override
+	public short b32_NSFDbModifiedTime(int hDB, NotesTimeDateStruct retDataModified, NotesTimeDateStruct retNonDataModified) {
+		return m_api.b32_NSFDbModifiedTime(hDB, retDataModified, retNonDataModified);
+	}
+
+	@Override
+	public short b64_NSFDbIDGet(long hDB, NotesTimeDateStruct retDbID) {
+		return m_api.b64_NSFDbIDGet(hDB, retDbID);
+	}
+
+	@Override
+	public short b32_NSFDbIDGet(int hDB, NotesTimeDateStruct retDbID) {
+		return m_api.b32_NSFDbIDGet(hDB, retDbID);
+	}
+
+	@Override
+	public short b32_NSFDbReplicaInfoGet(int hDB, NotesDbReplicaInfoStruct retReplicationInfo) {
+		return m_api.b32_NSFDbReplicaInfoGet(hDB, retReplicationInfo);
+	}
+
+	@Override
+	public short b64_NSFDbReplicaInfoGet(long hDB, NotesDbReplicaInfoStruct retReplicationInfo) {
+		return m_api.b64_NSFDbReplicaInfoGet(hDB, retReplicationInfo);
+	}
+
+	@Override
+	public short b32_NSFDbReplicaInfoSet(int hDB, NotesDbReplicaInfoStruct ReplicationInfo) {
+		return m_api.b32_NSFDbReplicaInfoSet(hDB, ReplicationInfo);
+	}
+
+	@Override
+	public short b64_NSFDbReplicaInfoSet(long hDB, NotesDbReplicaInfoStruct ReplicationInfo) {
+		return m_api.b64_NSFDbReplicaInfoSet(hDB, ReplicationInfo);
+	}
+
+	@Override
+	public short b32_NIFFindDesignNoteExt(int hFile, Memory name, short noteClass, Memory pszFlagsPattern, IntBuffer retNoteID, int Options) {
+		return m_api.b32_NIFFindDesignNoteExt(hFile, name, noteClass, pszFlagsPattern, retNoteID, Options);
+	}
+
+	@Override
+	public short b64_NIFFindDesignNoteExt(long hFile, Memory name, short noteClass, Memory pszFlagsPattern, IntBuffer retNoteID, int Options) {
+		return m_api.b64_NIFFindDesignNoteExt(hFile, name, noteClass, pszFlagsPattern, retNoteID, Options);
+	}
+
+	@Override
+	public short b32_NIFOpenCollection(int hViewDB, int hDataDB, int ViewNoteID, short OpenFlags, int hUnreadList, IntByReference rethCollection, IntByReference rethViewNote, Memory retViewUNID, IntByReference rethCollapsedList, IntByReference rethSelectedList) {
+		return m_api.b32_NIFOpenCollection(hViewDB, hDataDB, ViewNoteID, OpenFlags, hUnreadList, rethCollection, rethViewNote, retViewUNID, rethCollapsedList, rethSelectedList);
+	}
+
+	@Override
+	public short b64_NIFOpenCollection(long hViewDB, long hDataDB, int ViewNoteID, short OpenFlags, long hUnreadList, LongByReference rethCollection, LongByReference rethViewNote, Memory retViewUNID, LongByReference rethCollapsedList, LongByReference rethSelectedList) {
+		return m_api.b64_NIFOpenCollection(hViewDB, hDataDB, ViewNoteID, OpenFlags, hUnreadList, rethCollection, rethViewNote, retViewUNID, rethCollapsedList, rethSelectedList);
+	}
+
+	@Override
+	public short b32_NIFOpenCollectionWithUserNameList(int hViewDB, int hDataDB, int ViewNoteID, short OpenFlags, int hUnreadList, IntByReference rethCollection, IntByReference rethViewNote, Memory retViewUNID, IntByReference rethCollapsedList, IntByReference rethSelectedList, int nameList) {
+		return m_api.b32_NIFOpenCollectionWithUserNameList(hViewDB, hDataDB, ViewNoteID, OpenFlags, hUnreadList, rethCollection, rethViewNote, retViewUNID, rethCollapsedList, rethSelectedList, nameList);
+	}
+
+	@Override
+	public short b64_NIFOpenCollectionWithUserNameList(long hViewDB, long hDataDB, int ViewNoteID, short OpenFlags, long hUnreadList, LongByReference rethCollection, LongByReference rethViewNote, Memory retViewUNID, LongByReference rethCollapsedList, LongByReference rethSelectedList, long nameList) {
+		return m_api.b64_NIFOpenCollectionWithUserNameList(hViewDB, hDataDB, ViewNoteID, OpenFlags, hUnreadList, rethCollection, rethViewNote, retViewUNID, rethCollapsedList, rethSelectedList, nameList);
+	}
+
+	@Override
+	public short b32_NIFReadEntries(int hCollection, NotesCollectionPositionStruct IndexPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, IntByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags) {
+		return NotesCAPIDirectFunctions.b32_NIFReadEntries(hCollection, IndexPos, SkipNavigator, SkipCount, ReturnNavigator, ReturnCount, ReturnMask, rethBuffer, retBufferLength, retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags);
+	}
+
+	@Override
+	public short b64_NIFReadEntries(long hCollection, NotesCollectionPositionStruct IndexPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, LongByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags) {
+		return NotesCAPIDirectFunctions.b64_NIFReadEntries(hCollection, IndexPos, SkipNavigator, SkipCount, ReturnNavigator, ReturnCount, ReturnMask, rethBuffer, retBufferLength, retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags);
+	}
+
+	@Override
+	public short b64_NIFReadEntriesExt(long hCollection, NotesCollectionPositionStruct CollectionPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, NotesTimeDateStruct DiffTime, long DiffIDTable, int ColumnNumber, int Flags, LongByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime, IntByReference retSequence) {
+		return NotesCAPIDirectFunctions.b64_NIFReadEntriesExt(hCollection, CollectionPos, SkipNavigator, SkipCount, ReturnNavigator, ReturnCount, ReturnMask, DiffTime, DiffIDTable, ColumnNumber, Flags, rethBuffer, retBufferLength, retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags, retDiffTime, retModifiedTime, retSequence);
+	}
+
+	@Override
+	public short b32_NIFReadEntriesExt(int hCollection, NotesCollectionPositionStruct CollectionPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, NotesTimeDateStruct DiffTime, int DiffIDTable, int ColumnNumber, int Flags, IntByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime, IntByReference retSequence) {
+		return NotesCAPIDirectFunctions.b32_NIFReadEntriesExt(hCollection, CollectionPos, SkipNavigator, SkipCount, ReturnNavigator, ReturnCount, ReturnMask, DiffTime, DiffIDTable, ColumnNumber, Flags, rethBuffer, retBufferLength, retNumEntriesSkipped, retNumEntriesReturned, retSignalFlags, retDiffTime, retModifiedTime, retSequence);
+	}
+
+	@Override
+	public short b32_NIFFindByKey(int hCollection, Memory keyBuffer, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches) {
+		return NotesCAPIDirectFunctions.b32_NIFFindByKey(hCollection, keyBuffer, findFlags, retIndexPos, retNumMatches);
+	}
+
+	@Override
+	public short b64_NIFFindByKey(long hCollection, Memory keyBuffer, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches) {
+		return NotesCAPIDirectFunctions.b64_NIFFindByKey(hCollection, keyBuffer, findFlags, retIndexPos, retNumMatches);
+	}
+
+	@Override
+	public short b32_NIFFindByName(int hCollection, Memory name, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches) {
+		return m_api.b32_NIFFindByName(hCollection, name, findFlags, retIndexPos, retNumMatches);
+	}
+
+	@Override
+	public short b64_NIFFindByName(long hCollection, Memory name, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches) {
+		return m_api.b64_NIFFindByName(hCollection, name, findFlags, retIndexPos, retNumMatches);
+	}
+
+	@Override
+	public short b32_NIFGetCollation(int hCollection, ShortByReference retCollationNum) {
+		return m_api.b32_NIFGetCollation(hCollection, retCollationNum);
+	}
+
+	@Override
+	public short b64_NIFGetCollation(long hCollection, ShortByReference retCollationNum) {
+		return m_api.b64_NIFGetCollation(hCollection, retCollationNum);
+	}
+
+	@Override
+	public short b32_NIFSetCollation(int hCollection, short CollationNum) {
+		return m_api.b32_NIFSetCollation(hCollection, CollationNum);
+	}
+
+	@Override
+	public short b64_NIFSetCollation(long hCollection, short CollationNum) {
+		return m_api.b64_NIFSetCollation(hCollection, CollationNum);
+	}
+
+	@Override
+	public short b32_NIFUpdateCollection(int hCollection) {
+		return m_api.b32_NIFUpdateCollection(hCollection);
+	}
+
+	@Override
+	public short b64_NIFUpdateCollection(long hCollection) {
+		return m_api.b64_NIFUpdateCollection(hCollection);
+	}
+
+	@Override
+	public void b32_NIFGetLastModifiedTime(int hCollection, NotesTimeDateStruct retLastModifiedTime) {
+		NotesCAPIDirectFunctions.b32_NIFGetLastModifiedTime(hCollection, retLastModifiedTime);
+	}
+
+	@Override
+	public void b64_NIFGetLastModifiedTime(long hCollection, NotesTimeDateStruct retLastModifiedTime) {
+		NotesCAPIDirectFunctions.b64_NIFGetLastModifiedTime(hCollection, retLastModifiedTime);
+	}
+
+	@Override
+	public short b32_NIFFindByKeyExtended2(int hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, IntByReference rethBuffer, IntByReference retSequence) {
+		return NotesCAPIDirectFunctions.b32_NIFFindByKeyExtended2(hCollection, keyBuffer, findFlags, returnFlags, retIndexPos, retNumMatches, retSignalFlags, rethBuffer, retSequence);
+	}
+
+	@Override
+	public short b64_NIFFindByKeyExtended2(long hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, LongByReference rethBuffer, IntByReference retSequence) {
+		return NotesCAPIDirectFunctions.b64_NIFFindByKeyExtended2(hCollection, keyBuffer, findFlags, returnFlags, retIndexPos, retNumMatches, retSignalFlags, rethBuffer, retSequence);
+	}
+
+	@Override
+	public short b32_NIFFindByKeyExtended3(int hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, IntByReference rethBuffer, IntByReference retSequence, NIFFindByKeyProc NIFFindByKeyCallback, NIFFindByKeyContextStruct Ctx) {
+		return m_api.b32_NIFFindByKeyExtended3(hCollection, keyBuffer, findFlags, returnFlags, retIndexPos, retNumMatches, retSignalFlags, rethBuffer, retSequence, NIFFindByKeyCallback, Ctx);
+	}
+
+	@Override
+	public long b64_NIFFindByKeyExtended3(long hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, LongByReference rethBuffer, IntByReference retSequence, NIFFindByKeyProc NIFFindByKeyCallback, NIFFindByKeyContextStruct Ctx) {
+		return m_api.b64_NIFFindByKeyExtended3(hCollection, keyBuffer, findFlags, returnFlags, retIndexPos, retNumMatches, retSignalFlags, rethBuffer, retSequence, NIFFindByKeyCallback, Ctx);
+	}
+
+	@Override
+	public short b64_NIFIsNoteInView(long hCollection, int noteID, IntByReference retIsInView) {
+		return NotesCAPIDirectFunctions.b64_NIFIsNoteInView(hCollection, noteID, retIsInView);
+	}
+
+	@Override
+	public short b32_NIFIsNoteInView(int hCollection, int noteID, IntByReference retIsInView) {
+		return NotesCAPIDirectFunctions.b32_NIFIsNoteInView(hCollection, noteID, retIsInView);
+	}
+
+	@Override
+	public boolean b64_NIFIsUpdateInProgress(long hCollection) {
+		return m_api.b64_NIFIsUpdateInProgress(hCollection);
+	}
+
+	@Override
+	public boolean b32_NIFIsUpdateInProgress(int hCollection) {
+		return m_api.b32_NIFIsUpdateInProgress(hCollection);
+	}
+
+	@Override
+	public short b64_NIFGetIDTableExtended(long hCollection, short navigator, short Flags, long hIDTable) {
+		return m_api.b64_NIFGetIDTableExtended(hCollection, navigator, Flags, hIDTable);
+	}
+
+	@Override
+	public short b32_NIFGetIDTableExtended(int hCollection, short navigator, short Flags, int hIDTable) {
+		return m_api.b32_NIFGetIDTableExtended(hCollection, navigator, Flags, hIDTable);
+	}
+
+	@Override
+	public boolean b64_NIFCollectionUpToDate(long hCollection) {
+		return m_api.b64_NIFCollectionUpToDate(hCollection);
+	}
+
+	@Override
+	public boolean b32_NIFCollectionUpToDate(int hCollection) {
+		return m_api.b32_NIFCollectionUpToDate(hCollection);
+	}
+
+	@Override
+	public boolean b64_NIFSetCollectionInfo(long hCollection, Pointer SessionID, long hUnreadList, long hCollapsedList, long hSelectedList) {
+		return m_api.b64_NIFSetCollectionInfo(hCollection, SessionID, hUnreadList, hCollapsedList, hSelectedList);
+	}
+
+	@Override
+	public boolean b32_NIFSetCollectionInfo(int hCollection, Pointer SessionID, int hUnreadList, int hCollapsedList, int hSelectedList) {
+		return m_api.b32_NIFSetCollectionInfo(hCollection, SessionID, hUnreadList, hCollapsedList, hSelectedList);
+	}
+
+	@Override
+	public short b64_NIFUpdateFilters(long hCollection, short ModifyFlags) {
+		return m_api.b64_NIFUpdateFilters(hCollection, ModifyFlags);
+	}
+
+	@Override
+	public short b32_NIFUpdateFilters(int hCollection, short ModifyFlags) {
+		return m_api.b32_NIFUpdateFilters(hCollection, ModifyFlags);
+	}
+
+	@Override
+	public boolean b64_NIFIsTimeVariantView(long hCollection) {
+		return m_api.b64_NIFIsTimeVariantView(hCollection);
+	}
+
+	@Override
+	public boolean b32_NIFIsTimeVariantView(int hCollection) {
+		return m_api.b32_NIFIsTimeVariantView(hCollection);
+	}
+
+	@Override
+	public short b32_NSFDbGetModifiedNoteTable(int hDB, short NoteClassMask, NotesTimeDateStruct.ByValue Since, NotesTimeDateStruct retUntil, IntByReference rethTable) {
+		return m_api.b32_NSFDbGetModifiedNoteTable(hDB, NoteClassMask, Since, retUntil, rethTable);
+	}
+
+	@Override
+	public short b64_NSFDbGetModifiedNoteTable(long hDB, short NoteClassMask, NotesTimeDateStruct.ByValue Since, NotesTimeDateStruct retUntil, LongByReference rethTable) {
+		return m_api.b64_NSFDbGetModifiedNoteTable(hDB, NoteClassMask, Since, retUntil, rethTable);
+	}
+
+	@Override
+	public short b64_NSFDbGetNotes(long hDB, int NumNotes, Memory NoteID, Memory NoteOpenFlags, Memory SinceSeqNum, int ControlFlags, long hObjectDB, Pointer CallbackParam, NSFGetNotesCallback GetNotesCallback, b64_NSFNoteOpenCallback NoteOpenCallback, b64_NSFObjectAllocCallback ObjectAllocCallback, b64_NSFObjectWriteCallback ObjectWriteCallback, NotesTimeDateStruct FolderSinceTime, NSFFolderAddCallback FolderAddCallback) {
+		return m_api.b64_NSFDbGetNotes(hDB, NumNotes, NoteID, NoteOpenFlags, SinceSeqNum, ControlFlags, hObjectDB, CallbackParam, GetNotesCallback, NoteOpenCallback, ObjectAllocCallback, ObjectWriteCallback, FolderSinceTime, FolderAddCallback);
+	}
+
+	@Override
+	public short b32_NSFDbGetNotes(int hDB, int NumNotes, Memory NoteID, Memory NoteOpenFlags, Memory SinceSeqNum, int ControlFlags, int hObjectDB, Pointer CallbackParam, NSFGetNotesCallback GetNotesCallback, b32_NSFNoteOpenCallback NoteOpenCallback, b32_NSFObjectAllocCallback ObjectAllocCallback, b32_NSFObjectWriteCallback ObjectWriteCallback, NotesTimeDateStruct FolderSinceTime, NSFFolderAddCallback FolderAddCallback) {
+		return m_api.b32_NSFDbGetNotes(hDB, NumNotes, NoteID, NoteOpenFlags, SinceSeqNum, ControlFlags, hObjectDB, CallbackParam, GetNotesCallback, NoteOpenCallback, ObjectAllocCallback, ObjectWriteCallback, FolderSinceTime, FolderAddCallback);
+	}
+
+	@Override
+	public short DNCanonicalize(int Flags, Memory TemplateName, Memory InName, Memory OutName, short OutSize, ShortByReference OutLength) {
+		return NotesCAPIDirectFunctions.DNCanonicalize(Flags, TemplateName, InName, OutName, OutSize, OutLength);
+	}
+
+	@Override
+	public short DNAbbreviate(int Flags, Memory TemplateName, Memory InName, Memory OutName, short OutSize, ShortByReference OutLength) {
+		return NotesCAPIDirectFunctions.DNAbbreviate(Flags, TemplateName, InName, OutName, OutSize, OutLength);
+	}
+
+	@Override
+	public short b32_NIFCloseCollection(int hCollection) {
+		return m_api.b32_NIFCloseCollection(hCollection);
+	}
+
+	@Override
+	public short b64_NIFCloseCollection(long hCollection) {
+		return m_api.b64_NIFCloseCollection(hCollection);
+	}
+
+	@Override
+	public Pointer b32_OSLockObject(int handle) {
+		return NotesCAPIDirectFunctions.b32_OSLockObject(handle);
+	}
+
+	@Override
+	public Pointer b64_OSLockObject(long handle) {
+		return NotesCAPIDirectFunctions.b64_OSLockObject(handle);
+	}
+
+	@Override
+	public boolean b32_OSUnlockObject(int handle) {
+		return NotesCAPIDirectFunctions.b32_OSUnlockObject(handle);
+	}
+
+	@Override
+	public boolean b64_OSUnlockObject(long handle) {
+		return NotesCAPIDirectFunctions.b64_OSUnlockObject(handle);
+	}
+
+	@Override
+	public short b32_OSMemFree(int handle) {
+		return NotesCAPIDirectFunctions.b32_OSMemFree(handle);
+	}
+
+	@Override
+	public short b64_OSMemFree(long handle) {
+		return NotesCAPIDirectFunctions.b64_OSMemFree(handle);
+	}
+
+	@Override
+	public short b32_OSMemGetSize(int handle, IntByReference retSize) {
+		return NotesCAPIDirectFunctions.b32_OSMemGetSize(handle, retSize);
+	}
+
+	@Override
+	public short b64_OSMemGetSize(long handle, IntByReference retSize) {
+		return NotesCAPIDirectFunctions.b64_OSMemGetSize(handle, retSize);
+	}
+
+	@Override
+	public short OSMemoryAllocate(int dwtype, int size, IntByReference rethandle) {
+		return m_api.OSMemoryAllocate(dwtype, size, rethandle);
+	}
+
+	@Override
+	public int b64_OSMemoryGetSize(long handle) {
+		return m_api.b64_OSMemoryGetSize(handle);
+	}
+
+	@Override
+	public int b32_OSMemoryGetSize(int handle) {
+		return m_api.b32_OSMemoryGetSize(handle);
+	}
+
+	@Override
+	public void b64_OSMemoryFree(long handle) {
+		m_api.b64_OSMemoryFree(handle);
+	}
+
+	@Override
+	public void b32_OSMemoryFree(int handle) {
+		m_api.b32_OSMemoryFree(handle);
+	}
+
+	@Override
+	public short b64_OSMemoryReallocate(long handle, int size) {
+		return m_api.b64_OSMemoryReallocate(handle, size);
+	}
+
+	@Override
+	public short b32_OSMemoryReallocate(int handle, int size) {
+		return m_api.b32_OSMemoryReallocate(handle, size);
+	}
+
+	@Override
+	public Pointer b64_OSMemoryLock(long handle) {
+		return m_api.b64_OSMemoryLock(handle);
+	}
+
+	@Override
+	public Pointer b32_OSMemoryLock(int handle) {
+		return m_api.b32_OSMemoryLock(handle);
+	}
+
+	@Override
+	public boolean b64_OSMemoryUnlock(long handle) {
+		return m_api.b64_OSMemoryUnlock(handle);
+	}
+
+	@Override
+	public boolean b32_OSMemoryUnlock(int handle) {
+		return m_api.b32_OSMemoryUnlock(handle);
+	}
+
+	@Override
+	public void ODSWriteMemory(Pointer ppDest, short type, Pointer pSrc, short iterations) {
+		m_api.ODSWriteMemory(ppDest, type, pSrc, iterations);
+	}
+
+	@Override
+	public void ODSReadMemory(Pointer ppSrc, short type, Pointer pDest, short iterations) {
+		NotesCAPIDirectFunctions.ODSReadMemory(ppSrc, type, pDest, iterations);
+	}
+
+	@Override
+	public short b32_NIFLocateNote(int hCollection, NotesCollectionPositionStruct indexPos, int noteID) {
+		return NotesCAPIDirectFunctions.b32_NIFLocateNote(hCollection, indexPos, noteID);
+	}
+
+	@Override
+	public short b64_NIFLocateNote(long hCollection, NotesCollectionPositionStruct indexPos, int noteID) {
+		return NotesCAPIDirectFunctions.b64_NIFLocateNote(hCollection, indexPos, noteID);
+	}
+
+	@Override
+	public short OSTranslate(short translateMode, Memory in, short inLength, Memory out, short outLength) {
+		return NotesCAPIDirectFunctions.OSTranslate(translateMode, in, inLength, out, outLength);
+	}
+
+	@Override
+	public short OSTranslate(short translateMode, Pointer in, short inLength, Memory out, short outLength) {
+		return NotesCAPIDirectFunctions.OSTranslate(translateMode, in, inLength, out, outLength);
+	}
+
+	@Override
+	public short b32_FTOpenSearch(IntByReference rethSearch) {
+		return m_api.b32_FTOpenSearch(rethSearch);
+	}
+
+	@Override
+	public short b64_FTOpenSearch(LongByReference rethSearch) {
+		return m_api.b64_FTOpenSearch(rethSearch);
+	}
+
+	@Override
+	public short b32_FTCloseSearch(int hSearch) {
+		return m_api.b32_FTCloseSearch(hSearch);
+	}
+
+	@Override
+	public short b64_FTCloseSearch(long hSearch) {
+		return m_api.b64_FTCloseSearch(hSearch);
+	}
+
+	@Override
+	public short b32_FTSearch(int hDB, IntByReference phSearch, int hColl, Memory query, int options, short limit, int hIDTable, IntByReference retNumDocs, Memory reserved, IntByReference rethResults) {
+		return m_api.b32_FTSearch(hDB, phSearch, hColl, query, options, limit, hIDTable, retNumDocs, reserved, rethResults);
+	}
+
+	@Override
+	public short b64_FTSearch(long hDB, LongByReference phSearch, long hColl, Memory query, int options, short limit, long hIDTable, IntByReference retNumDocs, Memory reserved, LongByReference rethResults) {
+		return m_api.b64_FTSearch(hDB, phSearch, hColl, query, options, limit, hIDTable, retNumDocs, reserved, rethResults);
+	}
+
+	@Override
+	public short b32_IDCreateTable(int alignment, IntByReference rethTable) {
+		return NotesCAPIDirectFunctions.b32_IDCreateTable(alignment, rethTable);
+	}
+
+	@Override
+	public short b64_IDCreateTable(int alignment, LongByReference rethTable) {
+		return NotesCAPIDirectFunctions.b64_IDCreateTable(alignment, rethTable);
+	}
+
+	@Override
+	public short b32_IDDestroyTable(int hTable) {
+		return NotesCAPIDirectFunctions.b32_IDDestroyTable(hTable);
+	}
+
+	@Override
+	public short b64_IDDestroyTable(long hTable) {
+		return NotesCAPIDirectFunctions.b64_IDDestroyTable(hTable);
+	}
+
+	@Override
+	public short b32_IDInsert(int hTable, int id, IntByReference retfInserted) {
+		return NotesCAPIDirectFunctions.b32_IDInsert(hTable, id, retfInserted);
+	}
+
+	@Override
+	public short b64_IDInsert(long hTable, int id, IntByReference retfInserted) {
+		return NotesCAPIDirectFunctions.b64_IDInsert(hTable, id, retfInserted);
+	}
+
+	@Override
+	public short b32_IDDelete(int hTable, int id, IntByReference retfDeleted) {
+		return NotesCAPIDirectFunctions.b32_IDDelete(hTable, id, retfDeleted);
+	}
+
+	@Override
+	public short b64_IDDelete(long hTable, int id, IntByReference retfDeleted) {
+		return NotesCAPIDirectFunctions.b64_IDDelete(hTable, id, retfDeleted);
+	}
+
+	@Override
+	public boolean b32_IDScan(int hTable, boolean fFirst, IntByReference retID) {
+		return NotesCAPIDirectFunctions.b32_IDScan(hTable, fFirst, retID);
+	}
+
+	@Override
+	public boolean b64_IDScan(long hTable, boolean fFirst, IntByReference retID) {
+		return NotesCAPIDirectFunctions.b64_IDScan(hTable, fFirst, retID);
+	}
+
+	@Override
+	public boolean b32_IDScanBack(int hTable, boolean fLast, IntByReference retID) {
+		return m_api.b32_IDScanBack(hTable, fLast, retID);
+	}
+
+	@Override
+	public boolean b64_IDScanBack(long hTable, boolean fLast, IntByReference retID) {
+		return m_api.b64_IDScanBack(hTable, fLast, retID);
+	}
+
+	@Override
+	public int b32_IDEntries(int hTable) {
+		return NotesCAPIDirectFunctions.b32_IDEntries(hTable);
+	}
+
+	@Override
+	public int b64_IDEntries(long hTable) {
+		return NotesCAPIDirectFunctions.b64_IDEntries(hTable);
+	}
+
+	@Override
+	public boolean b32_IDIsPresent(int hTable, int id) {
+		return NotesCAPIDirectFunctions.b32_IDIsPresent(hTable, id);
+	}
+
+	@Override
+	public boolean b64_IDIsPresent(long hTable, int id) {
+		return NotesCAPIDirectFunctions.b64_IDIsPresent(hTable, id);
+	}
+
+	@Override
+	public int b32_IDTableSize(int hTable) {
+		return m_api.b32_IDTableSize(hTable);
+	}
+
+	@Override
+	public int b64_IDTableSize(long hTable) {
+		return m_api.b64_IDTableSize(hTable);
+	}
+
+	@Override
+	public int b32_IDTableSizeP(Pointer pIDTable) {
+		return NotesCAPIDirectFunctions.b32_IDTableSizeP(pIDTable);
+	}
+
+	@Override
+	public int b64_IDTableSizeP(Pointer pIDTable) {
+		return NotesCAPIDirectFunctions.b64_IDTableSizeP(pIDTable);
+	}
+
+	@Override
+	public short b32_IDTableCopy(int hTable, IntByReference rethTable) {
+		return m_api.b32_IDTableCopy(hTable, rethTable);
+	}
+
+	@Override
+	public short b64_IDTableCopy(long hTable, LongByReference rethTable) {
+		return m_api.b64_IDTableCopy(hTable, rethTable);
+	}
+
+	@Override
+	public short b32_IDTableIntersect(int hSrc1Table, int hSrc2Table, IntByReference rethDstTable) {
+		return m_api.b32_IDTableIntersect(hSrc1Table, hSrc2Table, rethDstTable);
+	}
+
+	@Override
+	public short b64_IDTableIntersect(long hSrc1Table, long hSrc2Table, LongByReference rethDstTable) {
+		return m_api.b64_IDTableIntersect(hSrc1Table, hSrc2Table, rethDstTable);
+	}
+
+	@Override
+	public short b32_IDDeleteAll(int hTable) {
+		return m_api.b32_IDDeleteAll(hTable);
+	}
+
+	@Override
+	public short b64_IDDeleteAll(long hTable) {
+		return m_api.b64_IDDeleteAll(hTable);
+	}
+
+	@Override
+	public boolean b32_IDAreTablesEqual(int hSrc1Table, int hSrc2Table) {
+		return m_api.b32_IDAreTablesEqual(hSrc1Table, hSrc2Table);
+	}
+
+	@Override
+	public boolean b64_IDAreTablesEqual(long hSrc1Table, long hSrc2Table) {
+		return m_api.b64_IDAreTablesEqual(hSrc1Table, hSrc2Table);
+	}
+
+	@Override
+	public short b32_IDDeleteTable(int hTable, int hIDsToDelete) {
+		return m_api.b32_IDDeleteTable(hTable, hIDsToDelete);
+	}
+
+	@Override
+	public short b64_IDDeleteTable(long hTable, long hIDsToDelete) {
+		return m_api.b64_IDDeleteTable(hTable, hIDsToDelete);
+	}
+
+	@Override
+	public short b32_IDInsertTable(int hTable, int hIDsToAdd) {
+		return m_api.b32_IDInsertTable(hTable, hIDsToAdd);
+	}
+
+	@Override
+	public short b64_IDInsertTable(long hTable, long hIDsToAdd) {
+		return m_api.b64_IDInsertTable(hTable, hIDsToAdd);
+	}
+
+	@Override
+	public short IDTableFlags(ByteBuffer pIDTable) {
+		return m_api.IDTableFlags(pIDTable);
+	}
+
+	@Override
+	public void IDTableSetFlags(ByteBuffer pIDTable, short Flags) {
+		m_api.IDTableSetFlags(pIDTable, Flags);
+	}
+
+	@Override
+	public void IDTableSetTime(ByteBuffer pIDTable, NotesTimeDateStruct Time) {
+		m_api.IDTableSetTime(pIDTable, Time);
+	}
+
+	@Override
+	public NotesTimeDateStruct IDTableTime(ByteBuffer pIDTable) {
+		return m_api.IDTableTime(pIDTable);
+	}
+
+	@Override
+	public short b64_IDEnumerate(long hTable, IdEnumerateProc Routine, Pointer Parameter) {
+		return m_api.b64_IDEnumerate(hTable, Routine, Parameter);
+	}
+
+	@Override
+	public short b32_IDEnumerate(int hTable, IdEnumerateProc Routine, Pointer Parameter) {
+		return m_api.b32_IDEnumerate(hTable, Routine, Parameter);
+	}
+
+	@Override
+	public short b64_IDInsertRange(long hTable, int IDFrom, int IDTo, boolean AddToEnd) {
+		return NotesCAPIDirectFunctions.b64_IDInsertRange(hTable, IDFrom, IDTo, AddToEnd);
+	}
+
+	@Override
+	public short b32_IDInsertRange(int hTable, int IDFrom, int IDTo, boolean AddToEnd) {
+		return NotesCAPIDirectFunctions.b32_IDInsertRange(hTable, IDFrom, IDTo, AddToEnd);
+	}
+
+	@Override
+	public short b64_IDTableDifferences(long idtable1, long idtable2, LongByReference outputidtableAdds, LongByReference outputidtableDeletes, LongByReference outputidtableSame) {
+		return m_api.b64_IDTableDifferences(idtable1, idtable2, outputidtableAdds, outputidtableDeletes, outputidtableSame);
+	}
+
+	@Override
+	public short b32_IDTableDifferences(int idtable1, int idtable2, IntByReference outputidtableAdds, IntByReference outputidtableDeletes, IntByReference outputidtableSame) {
+		return m_api.b32_IDTableDifferences(idtable1, idtable2, outputidtableAdds, outputidtableDeletes, outputidtableSame);
+	}
+
+	@Override
+	public short b64_IDTableReplaceExtended(long idtableSrc, long idtableDest, byte flags) {
+		return m_api.b64_IDTableReplaceExtended(idtableSrc, idtableDest, flags);
+	}
+
+	@Override
+	public short b32_IDTableReplaceExtended(int idtableSrc, int idtableDest, byte flags) {
+		return m_api.b32_IDTableReplaceExtended(idtableSrc, idtableDest, flags);
+	}
+
+	@Override
+	public short ODSLength(short type) {
+		return NotesCAPIDirectFunctions.ODSLength(type);
+	}
+
+	@Override
+	public short ECLGetListCapabilities(Pointer pNamesList, short ECLType, ShortByReference retwCapabilities, ShortByReference retwCapabilities2, IntByReference retfUserCanModifyECL) {
+		return m_api.ECLGetListCapabilities(pNamesList, ECLType, retwCapabilities, retwCapabilities2, retfUserCanModifyECL);
+	}
+
+	@Override
+	public short b64_CESCreateCTXFromNote(int hNote, LongByReference rethCESCTX) {
+		return m_api.b64_CESCreateCTXFromNote(hNote, rethCESCTX);
+	}
+
+	@Override
+	public short b32_CESCreateCTXFromNote(int hNote, IntByReference rethCESCTX) {
+		return m_api.b32_CESCreateCTXFromNote(hNote, rethCESCTX);
+	}
+
+	@Override
+	public short b64_CESGetNoSigCTX(LongByReference rethCESCTX) {
+		return m_api.b64_CESGetNoSigCTX(rethCESCTX);
+	}
+
+	@Override
+	public short b32_CESGetNoSigCTX(IntByReference rethCESCTX) {
+		return m_api.b32_CESGetNoSigCTX(rethCESCTX);
+	}
+
+	@Override
+	public short b64_CESFreeCTX(long hCESCTX) {
+		return m_api.b64_CESFreeCTX(hCESCTX);
+	}
+
+	@Override
+	public short b32_CESFreeCTX(int hCESCTX) {
+		return m_api.b32_CESFreeCTX(hCESCTX);
+	}
+
+	@Override
+	public short b64_ECLUserTrustSigner(long hCESCtx, short ECLType, short bSessionOnly, short wCapabilities, short wCapabilities2, ShortByReference retwCurrentCapabilities, ShortByReference retwCurrentCapabilities2) {
+		return m_api.b64_ECLUserTrustSigner(hCESCtx, ECLType, bSessionOnly, wCapabilities, wCapabilities2, retwCurrentCapabilities, retwCurrentCapabilities2);
+	}
+
+	@Override
+	public short b32_ECLUserTrustSigner(int hCESCtx, short ECLType, short bSessionOnly, short wCapabilities, short wCapabilities2, ShortByReference retwCurrentCapabilities, ShortByReference retwCurrentCapabilities2) {
+		return m_api.b32_ECLUserTrustSigner(hCESCtx, ECLType, bSessionOnly, wCapabilities, wCapabilities2, retwCurrentCapabilities, retwCurrentCapabilities2);
+	}
+
+	@Override
+	public short b64_AgentSetHttpStatusCode(long hAgentCtx, int httpStatus) {
+		return m_api.b64_AgentSetHttpStatusCode(hAgentCtx, httpStatus);
+	}
+
+	@Override
+	public short b32_AgentSetHttpStatusCode(int hAgentCtx, int httpStatus) {
+		return m_api.b32_AgentSetHttpStatusCode(hAgentCtx, httpStatus);
+	}
+
+	@Override
+	public short ConvertTIMEDATEToText(ByteBuffer intlFormat, ByteBuffer textFormat, NotesTimeDateStruct inputTime, Memory retTextBuffer, short textBufferLength, ShortByReference retTextLength) {
+		return m_api.ConvertTIMEDATEToText(intlFormat, textFormat, inputTime, retTextBuffer, textBufferLength, retTextLength);
+	}
+
+	@Override
+	public short ConvertTextToTIMEDATE(ByteBuffer intlFormat, ByteBuffer textFormat, Memory text, short maxLength, NotesTimeDateStruct retTIMEDATE) {
+		return m_api.ConvertTextToTIMEDATE(intlFormat, textFormat, text, maxLength, retTIMEDATE);
+	}
+
+	@Override
+	public boolean TimeGMToLocalZone(NotesTimeStruct timePtr) {
+		return NotesCAPIDirectFunctions.TimeGMToLocalZone(timePtr);
+	}
+
+	@Override
+	public boolean TimeGMToLocal(NotesTimeStruct timePtr) {
+		return NotesCAPIDirectFunctions.TimeGMToLocal(timePtr);
+	}
+
+	@Override
+	public boolean TimeLocalToGM(NotesTimeStruct timePtr) {
+		return m_api.TimeLocalToGM(timePtr);
+	}
+
+	@Override
+	public boolean TimeLocalToGM(Memory timePtr) {
+		return m_api.TimeLocalToGM(timePtr);
+	}
+
+	@Override
+	public void TimeConstant(short timeConstantType, NotesTimeDateStruct tdptr) {
+		m_api.TimeConstant(timeConstantType, tdptr);
+	}
+
+	@Override
+	public short ListGetText(ByteBuffer pList, boolean fPrefixDataType, short entryNumber, Memory retTextPointer, ShortByReference retTextLength) {
+		return m_api.ListGetText(pList, fPrefixDataType, entryNumber, retTextPointer, retTextLength);
+	}
+
+	@Override
+	public short ListGetText(Pointer pList, boolean fPrefixDataType, short entryNumber, Memory retTextPointer, ShortByReference retTextLength) {
+		return NotesCAPIDirectFunctions.ListGetText(pList, fPrefixDataType, entryNumber, retTextPointer, retTextLength);
+	}
+
+	@Override
+	public short b64_ListAllocate(short ListEntries, short TextSize, int fPrefixDataType, LongByReference rethList, Memory retpList, ShortByReference retListSize) {
+		return m_api.b64_ListAllocate(ListEntries, TextSize, fPrefixDataType, rethList, retpList, retListSize);
+	}
+
+	@Override
+	public short b32_ListAllocate(short ListEntries, short TextSize, int fPrefixDataType, IntByReference rethList, Memory retpList, ShortByReference retListSize) {
+		return m_api.b32_ListAllocate(ListEntries, TextSize, fPrefixDataType, rethList, retpList, retListSize);
+	}
+
+	@Override
+	public short b64_ListAddEntry(long hList, int fPrefixDataType, ShortByReference pListSize, short EntryNumber, Memory Text, short TextSize) {
+		return m_api.b64_ListAddEntry(hList, fPrefixDataType, pListSize, EntryNumber, Text, TextSize);
+	}
+
+	@Override
+	public short b32_ListAddEntry(int hList, int fPrefixDataType, ShortByReference pListSize, short EntryNumber, Memory Text, short TextSize) {
+		return m_api.b32_ListAddEntry(hList, fPrefixDataType, pListSize, EntryNumber, Text, TextSize);
+	}
+
+	@Override
+	public short b64_ListGetSize(Pointer pList, int fPrefixDataType) {
+		return m_api.b64_ListGetSize(pList, fPrefixDataType);
+	}
+
+	@Override
+	public short b32_ListGetSize(Pointer pList, int fPrefixDataType) {
+		return m_api.b32_ListGetSize(pList, fPrefixDataType);
+	}
+
+	@Override
+	public short b64_ListGetNumEntries(Pointer vList, int noteItem) {
+		return NotesCAPIDirectFunctions.b64_ListGetNumEntries(vList, noteItem);
+	}
+
+	@Override
+	public short b32_ListGetNumEntries(Pointer vList, int noteItem) {
+		return NotesCAPIDirectFunctions.b32_ListGetNumEntries(vList, noteItem);
+	}
+
+	@Override
+	public int TimeExtractTicks(Memory time) {
+		return m_api.TimeExtractTicks(time);
+	}
+
+	@Override
+	public int TimeExtractJulianDate(Memory time) {
+		return m_api.TimeExtractJulianDate(time);
+	}
+
+	@Override
+	public int TimeExtractDate(Memory time) {
+		return m_api.TimeExtractDate(time);
+	}
+
+	@Override
+	public short b32_NSFFolderGetIDTable(int hViewDB, int hDataDB, int viewNoteID, int flags, IntByReference hTable) {
+		return m_api.b32_NSFFolderGetIDTable(hViewDB, hDataDB, viewNoteID, flags, hTable);
+	}
+
+	@Override
+	public short b64_NSFFolderGetIDTable(long hViewDB, long hDataDB, int viewNoteID, int flags, LongByReference hTable) {
+		return m_api.b64_NSFFolderGetIDTable(hViewDB, hDataDB, viewNoteID, flags, hTable);
+	}
+
+	@Override
+	public short b32_FolderDocAdd(int hDataDB, int hFolderDB, int FolderNoteID, int hTable, long dwFlags) {
+		return m_api.b32_FolderDocAdd(hDataDB, hFolderDB, FolderNoteID, hTable, dwFlags);
+	}
+
+	@Override
+	public short b64_FolderDocAdd(long hDataDB, long hFolderDB, int FolderNoteID, long hTable, long dwFlags) {
+		return m_api.b64_FolderDocAdd(hDataDB, hFolderDB, FolderNoteID, hTable, dwFlags);
+	}
+
+	@Override
+	public short b32_FolderDocCount(int hDataDB, int hFolderDB, int FolderNoteID, long dwFlags, LongByReference pdwNumDocs) {
+		return m_api.b32_FolderDocCount(hDataDB, hFolderDB, FolderNoteID, dwFlags, pdwNumDocs);
+	}
+
+	@Override
+	public short b64_FolderDocCount(long hDataDB, long hFolderDB, int FolderNoteID, long dwFlags, LongByReference pdwNumDocs) {
+		return m_api.b64_FolderDocCount(hDataDB, hFolderDB, FolderNoteID, dwFlags, pdwNumDocs);
+	}
+
+	@Override
+	public short b32_FolderDocRemove(int hDataDB, int hFolderDB, int FolderNoteID, int hTable, long dwFlags) {
+		return m_api.b32_FolderDocRemove(hDataDB, hFolderDB, FolderNoteID, hTable, dwFlags);
+	}
+
+	@Override
+	public short b64_FolderDocRemove(long hDataDB, long hFolderDB, int FolderNoteID, long hTable, long dwFlags) {
+		return m_api.b64_FolderDocRemove(hDataDB, hFolderDB, FolderNoteID, hTable, dwFlags);
+	}
+
+	@Override
+	public short b32_FolderDocRemoveAll(int hDataDB, int hFolderDB, int FolderNoteID, long dwFlags) {
+		return m_api.b32_FolderDocRemoveAll(hDataDB, hFolderDB, FolderNoteID, dwFlags);
+	}
+
+	@Override
+	public short b64_FolderDocRemoveAll(long hDataDB, long hFolderDB, int FolderNoteID, long dwFlags) {
+		return m_api.b64_FolderDocRemoveAll(hDataDB, hFolderDB, FolderNoteID, dwFlags);
+	}
+
+	@Override
+	public short b32_FolderMove(int hDataDB, int hFolderDB, int FolderNoteID, int hParentDB, int ParentNoteID, long dwFlags) {
+		return m_api.b32_FolderMove(hDataDB, hFolderDB, FolderNoteID, hParentDB, ParentNoteID, dwFlags);
+	}
+
+	@Override
+	public short b64_FolderMove(long hDataDB, long hFolderDB, int FolderNoteID, long hParentDB, int ParentNoteID, long dwFlags) {
+		return m_api.b64_FolderMove(hDataDB, hFolderDB, FolderNoteID, hParentDB, ParentNoteID, dwFlags);
+	}
+
+	@Override
+	public short b32_FolderRename(int hDataDB, int hFolderDB, int FolderNoteID, Memory pszName, short wNameLen, long dwFlags) {
+		return m_api.b32_FolderRename(hDataDB, hFolderDB, FolderNoteID, pszName, wNameLen, dwFlags);
+	}
+
+	@Override
+	public short b64_FolderRename(long hDataDB, long hFolderDB, int FolderNoteID, Memory pszName, short wNameLen, long dwFlags) {
+		return m_api.b64_FolderRename(hDataDB, hFolderDB, FolderNoteID, pszName, wNameLen, dwFlags);
+	}
+
+	@Override
+	public short b32_NSFDbClearReplHistory(int hDb, int dwFlags) {
+		return m_api.b32_NSFDbClearReplHistory(hDb, dwFlags);
+	}
+
+	@Override
+	public short b64_NSFDbClearReplHistory(long hDb, int dwFlags) {
+		return m_api.b64_NSFDbClearReplHistory(hDb, dwFlags);
+	}
+
+	@Override
+	public void b32_NSFDbPathGet(int hDB, Memory retCanonicalPathName, Memory retExpandedPathName) {
+		m_api.b32_NSFDbPathGet(hDB, retCanonicalPathName, retExpandedPathName);
+	}
+
+	@Override
+	public void b64_NSFDbPathGet(long hDB, Memory retCanonicalPathName, Memory retExpandedPathName) {
+		m_api.b64_NSFDbPathGet(hDB, retCanonicalPathName, retExpandedPathName);
+	}
+
+	@Override
+	public short b64_NSFDbIsRemote(long hDb) {
+		return m_api.b64_NSFDbIsRemote(hDb);
+	}
+
+	@Override
+	public short b32_NSFDbIsRemote(int hDb) {
+		return m_api.b32_NSFDbIsRemote(hDb);
+	}
+
+	@Override
+	public short b64_NSFProfileOpen(long hDB, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength, short CopyProfile, LongByReference rethProfileNote) {
+		return m_api.b64_NSFProfileOpen(hDB, ProfileName, ProfileNameLength, UserName, UserNameLength, CopyProfile, rethProfileNote);
+	}
+
+	@Override
+	public short b32_NSFProfileOpen(int hDB, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength, short CopyProfile, IntByReference rethProfileNote) {
+		return m_api.b32_NSFProfileOpen(hDB, ProfileName, ProfileNameLength, UserName, UserNameLength, CopyProfile, rethProfileNote);
+	}
+
+	@Override
+	public short b64_NSFProfileUpdate(long hProfile, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength) {
+		return m_api.b64_NSFProfileUpdate(hProfile, ProfileName, ProfileNameLength, UserName, UserNameLength);
+	}
+
+	@Override
+	public short b32_NSFProfileUpdate(int hProfile, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength) {
+		return m_api.b32_NSFProfileUpdate(hProfile, ProfileName, ProfileNameLength, UserName, UserNameLength);
+	}
+
+	@Override
+	public short b64_NSFProfileSetField(long hDB, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength, Memory FieldName, short FieldNameLength, short Datatype, Pointer Value, int ValueLength) {
+		return m_api.b64_NSFProfileSetField(hDB, ProfileName, ProfileNameLength, UserName, UserNameLength, FieldName, FieldNameLength, Datatype, Value, ValueLength);
+	}
+
+	@Override
+	public short b32_NSFProfileSetField(int hDB, Memory ProfileName, short ProfileNameLength, Memory UserName, short UserNameLength, Memory FieldName, short FieldNameLength, short Datatype, Pointer Value, int ValueLength) {
+		return m_api.b32_NSFProfileSetField(hDB, ProfileName, ProfileNameLength, UserName, UserNameLength, FieldName, FieldNameLength, Datatype, Value, ValueLength);
+	}
+
+	@Override
+	public void b32_NSFNoteGetInfo(int hNote, short type, Memory retValue) {
+		NotesCAPIDirectFunctions.b32_NSFNoteGetInfo(hNote, type, retValue);
+	}
+
+	@Override
+	public void b64_NSFNoteGetInfo(long hNote, short type, Memory retValue) {
+		NotesCAPIDirectFunctions.b64_NSFNoteGetInfo(hNote, type, retValue);
+	}
+
+	@Override
+	public void b32_NSFNoteSetInfo(int hNote, short type, Pointer value) {
+		NotesCAPIDirectFunctions.b32_NSFNoteSetInfo(hNote, type, value);
+	}
+
+	@Override
+	public void b64_NSFNoteSetInfo(long hNote, short type, Pointer value) {
+		NotesCAPIDirectFunctions.b64_NSFNoteSetInfo(hNote, type, value);
+	}
+
+	@Override
+	public short b32_NSFNoteContract(int hNote) {
+		return m_api.b32_NSFNoteContract(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteContract(long hNote) {
+		return m_api.b64_NSFNoteContract(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteExpand(int hNote) {
+		return m_api.b32_NSFNoteExpand(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteExpand(long hNote) {
+		return m_api.b64_NSFNoteExpand(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteClose(int hNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteClose(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteClose(long hNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteClose(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteSign(int hNote) {
+		return m_api.b32_NSFNoteSign(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteSign(long hNote) {
+		return m_api.b64_NSFNoteSign(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteSignExt3(long hNote, long hKFC, Memory SignatureItemName, short ItemCount, long hItemIDs, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b64_NSFNoteSignExt3(hNote, hKFC, SignatureItemName, ItemCount, hItemIDs, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_NSFNoteSignExt3(int hNote, int hKFC, Memory SignatureItemName, short ItemCount, int hItemIDs, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b32_NSFNoteSignExt3(hNote, hKFC, SignatureItemName, ItemCount, hItemIDs, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_NSFNoteUpdateExtended(int hNote, int updateFlags) {
+		return m_api.b32_NSFNoteUpdateExtended(hNote, updateFlags);
+	}
+
+	@Override
+	public short b64_NSFNoteUpdateExtended(long hNote, int updateFlags) {
+		return m_api.b64_NSFNoteUpdateExtended(hNote, updateFlags);
+	}
+
+	@Override
+	public short b64_NSFNoteUpdate(long note_handle, short update_flags) {
+		return m_api.b64_NSFNoteUpdate(note_handle, update_flags);
+	}
+
+	@Override
+	public short b32_NSFNoteUpdate(int note_handle, short update_flags) {
+		return m_api.b32_NSFNoteUpdate(note_handle, update_flags);
+	}
+
+	@Override
+	public short b32_NSFNoteCreate(int db_handle, IntByReference note_handle) {
+		return m_api.b32_NSFNoteCreate(db_handle, note_handle);
+	}
+
+	@Override
+	public short b64_NSFNoteCreate(long db_handle, LongByReference note_handle) {
+		return m_api.b64_NSFNoteCreate(db_handle, note_handle);
+	}
+
+	@Override
+	public short b32_NSFNoteOpen(int hDB, int noteId, short openFlags, IntByReference rethNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteOpen(hDB, noteId, openFlags, rethNote);
+	}
+
+	@Override
+	public short b64_NSFNoteOpen(long hDB, int noteId, short openFlags, LongByReference rethNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteOpen(hDB, noteId, openFlags, rethNote);
+	}
+
+	@Override
+	public short b32_NSFNoteOpenExt(int hDB, int noteId, int flags, IntByReference rethNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteOpenExt(hDB, noteId, flags, rethNote);
+	}
+
+	@Override
+	public short b64_NSFNoteOpenExt(long hDB, int noteId, int flags, LongByReference rethNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteOpenExt(hDB, noteId, flags, rethNote);
+	}
+
+	@Override
+	public short b64_NSFNoteOpenSoftDelete(long hDB, int NoteID, int Reserved, LongByReference rethNote) {
+		return m_api.b64_NSFNoteOpenSoftDelete(hDB, NoteID, Reserved, rethNote);
+	}
+
+	@Override
+	public short b32_NSFNoteOpenSoftDelete(int hDB, int NoteID, int Reserved, IntByReference rethNote) {
+		return m_api.b32_NSFNoteOpenSoftDelete(hDB, NoteID, Reserved, rethNote);
+	}
+
+	@Override
+	public short b64_NSFNoteHardDelete(long hDB, int NoteID, int Reserved) {
+		return m_api.b64_NSFNoteHardDelete(hDB, NoteID, Reserved);
+	}
+
+	@Override
+	public short b32_NSFNoteHardDelete(int hDB, int NoteID, int Reserved) {
+		return m_api.b32_NSFNoteHardDelete(hDB, NoteID, Reserved);
+	}
+
+	@Override
+	public short b32_NSFNoteDeleteExtended(int hDB, int NoteID, int UpdateFlags) {
+		return m_api.b32_NSFNoteDeleteExtended(hDB, NoteID, UpdateFlags);
+	}
+
+	@Override
+	public short b64_NSFNoteDeleteExtended(long hDB, int NoteID, int UpdateFlags) {
+		return m_api.b64_NSFNoteDeleteExtended(hDB, NoteID, UpdateFlags);
+	}
+
+	@Override
+	public short b64_NSFNoteDetachFile(long note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b64_NSFNoteDetachFile(note_handle, item_blockid);
+	}
+
+	@Override
+	public short b32_NSFNoteDetachFile(int note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b32_NSFNoteDetachFile(note_handle, item_blockid);
+	}
+
+	@Override
+	public boolean b64_NSFNoteIsSignedOrSealed(long note_handle, ByteByReference signed_flag_ptr, ByteByReference sealed_flag_ptr) {
+		return m_api.b64_NSFNoteIsSignedOrSealed(note_handle, signed_flag_ptr, sealed_flag_ptr);
+	}
+
+	@Override
+	public boolean b32_NSFNoteIsSignedOrSealed(int note_handle, ByteByReference signed_flag_ptr, ByteByReference sealed_flag_ptr) {
+		return m_api.b32_NSFNoteIsSignedOrSealed(note_handle, signed_flag_ptr, sealed_flag_ptr);
+	}
+
+	@Override
+	public short b32_NSFNoteOpenByUNID(int hDB, NotesUniversalNoteIdStruct pUNID, short flags, IntByReference rethNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteOpenByUNID(hDB, pUNID, flags, rethNote);
+	}
+
+	@Override
+	public short b64_NSFNoteOpenByUNID(long hDB, NotesUniversalNoteIdStruct pUNID, short flags, LongByReference rethNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteOpenByUNID(hDB, pUNID, flags, rethNote);
+	}
+
+	@Override
+	public short b32_NSFNoteUnsign(int hNote) {
+		return m_api.b32_NSFNoteUnsign(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteUnsign(long hNote) {
+		return m_api.b64_NSFNoteUnsign(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteComputeWithForm(long hNote, long hFormNote, int dwFlags, b64_CWFErrorProc ErrorRoutine, Pointer CallersContext) {
+		return m_api.b64_NSFNoteComputeWithForm(hNote, hFormNote, dwFlags, ErrorRoutine, CallersContext);
+	}
+
+	@Override
+	public short b32_NSFNoteComputeWithForm(int hNote, int hFormNote, int dwFlags, b32_CWFErrorProc ErrorRoutine, Pointer CallersContext) {
+		return m_api.b32_NSFNoteComputeWithForm(hNote, hFormNote, dwFlags, ErrorRoutine, CallersContext);
+	}
+
+	@Override
+	public short b64_NSFNoteHasComposite(long hNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteHasComposite(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteHasComposite(int hNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteHasComposite(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteHasMIME(long hNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteHasMIME(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteHasMIME(int hNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteHasMIME(hNote);
+	}
+
+	@Override
+	public short b64_NSFNoteHasMIMEPart(long hNote) {
+		return NotesCAPIDirectFunctions.b64_NSFNoteHasMIMEPart(hNote);
+	}
+
+	@Override
+	public short b32_NSFNoteHasMIMEPart(int hNote) {
+		return NotesCAPIDirectFunctions.b32_NSFNoteHasMIMEPart(hNote);
+	}
+
+	@Override
+	public short b32_NSFItemInfo(int note_handle, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength) {
+		return NotesCAPIDirectFunctions.b32_NSFItemInfo(note_handle, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+	}
+
+	@Override
+	public short b64_NSFItemInfo(long note_handle, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength) {
+		return NotesCAPIDirectFunctions.b64_NSFItemInfo(note_handle, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+	}
+
+	@Override
+	public short b32_NSFItemInfoNext(int note_handle, NotesBlockIdStruct.ByValue NextItem, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength) {
+		return NotesCAPIDirectFunctions.b32_NSFItemInfoNext(note_handle, NextItem, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+	}
+
+	@Override
+	public short b64_NSFItemInfoNext(long note_handle, NotesBlockIdStruct.ByValue NextItem, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength) {
+		return NotesCAPIDirectFunctions.b64_NSFItemInfoNext(note_handle, NextItem, item_name, name_len, retbhItem, retDataType, retbhValue, retValueLength);
+	}
+
+	@Override
+	public short b32_NSFItemInfoPrev(int note_handle, NotesBlockIdStruct.ByValue CurrItem, Memory item_name, short name_len, NotesBlockIdStruct item_blockid_ptr, ShortByReference value_type_ptr, NotesBlockIdStruct value_blockid_ptr, IntByReference value_len_ptr) {
+		return NotesCAPIDirectFunctions.b32_NSFItemInfoPrev(note_handle, CurrItem, item_name, name_len, item_blockid_ptr, value_type_ptr, value_blockid_ptr, value_len_ptr);
+	}
+
+	@Override
+	public short b64_NSFItemInfoPrev(long note_handle, NotesBlockIdStruct.ByValue CurrItem, Memory item_name, short name_len, NotesBlockIdStruct item_blockid_ptr, ShortByReference value_type_ptr, NotesBlockIdStruct value_blockid_ptr, IntByReference value_len_ptr) {
+		return NotesCAPIDirectFunctions.b64_NSFItemInfoPrev(note_handle, CurrItem, item_name, name_len, item_blockid_ptr, value_type_ptr, value_blockid_ptr, value_len_ptr);
+	}
+
+	@Override
+	public short b64_NSFItemScan(long note_handle, NoteNsfItemScanProc ActionRoutine, Pointer funcParam) {
+		return m_api.b64_NSFItemScan(note_handle, ActionRoutine, funcParam);
+	}
+
+	@Override
+	public short b32_NSFItemScan(int note_handle, NoteNsfItemScanProc ActionRoutine, Pointer funcParam) {
+		return m_api.b32_NSFItemScan(note_handle, ActionRoutine, funcParam);
+	}
+
+	@Override
+	public void b32_NSFItemQueryEx(int note_handle, NotesBlockIdStruct.ByValue item_bid, Memory item_name, short return_buf_len, ShortByReference name_len_ptr, ShortByReference item_flags_ptr, ShortByReference value_datatype_ptr, NotesBlockIdStruct value_bid_ptr, IntByReference value_len_ptr, ByteByReference retSeqByte, ByteByReference retDupItemID) {
+		NotesCAPIDirectFunctions.b32_NSFItemQueryEx(note_handle, item_bid, item_name, return_buf_len, name_len_ptr, item_flags_ptr, value_datatype_ptr, value_bid_ptr, value_len_ptr, retSeqByte, retDupItemID);
+	}
+
+	@Override
+	public void b64_NSFItemQueryEx(long note_handle, NotesBlockIdStruct.ByValue item_bid, Memory item_name, short return_buf_len, ShortByReference name_len_ptr, ShortByReference item_flags_ptr, ShortByReference value_datatype_ptr, NotesBlockIdStruct value_bid_ptr, IntByReference value_len_ptr, ByteByReference retSeqByte, ByteByReference retDupItemID) {
+		NotesCAPIDirectFunctions.b64_NSFItemQueryEx(note_handle, item_bid, item_name, return_buf_len, name_len_ptr, item_flags_ptr, value_datatype_ptr, value_bid_ptr, value_len_ptr, retSeqByte, retDupItemID);
+	}
+
+	@Override
+	public short b32_NSFItemGetModifiedTime(int hNote, Memory ItemName, short ItemNameLength, int Flags, NotesTimeDateStruct retTime) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetModifiedTime(hNote, ItemName, ItemNameLength, Flags, retTime);
+	}
+
+	@Override
+	public short b64_NSFItemGetModifiedTime(long hNote, Memory ItemName, short ItemNameLength, int Flags, NotesTimeDateStruct retTime) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetModifiedTime(hNote, ItemName, ItemNameLength, Flags, retTime);
+	}
+
+	@Override
+	public short b32_NSFItemGetModifiedTimeByBLOCKID(int hNote, NotesBlockIdStruct.ByValue bhItem, int Flags, NotesTimeDateStruct retTime) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetModifiedTimeByBLOCKID(hNote, bhItem, Flags, retTime);
+	}
+
+	@Override
+	public short b64_NSFItemGetModifiedTimeByBLOCKID(long hNote, NotesBlockIdStruct.ByValue bhItem, int Flags, NotesTimeDateStruct retTime) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetModifiedTimeByBLOCKID(hNote, bhItem, Flags, retTime);
+	}
+
+	@Override
+	public short b32_NSFItemGetText(int note_handle, Memory item_name, Memory item_text, short text_len) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetText(note_handle, item_name, item_text, text_len);
+	}
+
+	@Override
+	public short b64_NSFItemGetText(long note_handle, Memory item_name, Memory item_text, short text_len) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetText(note_handle, item_name, item_text, text_len);
+	}
+
+	@Override
+	public short b64_NSFItemGetTextListEntries(long note_handle, Memory item_name) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetTextListEntries(note_handle, item_name);
+	}
+
+	@Override
+	public short b32_NSFItemGetTextListEntries(int note_handle, Memory item_name) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetTextListEntries(note_handle, item_name);
+	}
+
+	@Override
+	public short b64_NSFItemGetTextListEntry(long note_handle, Memory item_name, short entry_position, Memory retEntry_text, short text_len) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetTextListEntry(note_handle, item_name, entry_position, retEntry_text, text_len);
+	}
+
+	@Override
+	public short b32_NSFItemGetTextListEntry(int note_handle, Memory item_name, short entry_position, Memory retEntry_text, short text_len) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetTextListEntry(note_handle, item_name, entry_position, retEntry_text, text_len);
+	}
+
+	@Override
+	public short b32_NSFItemSetTextSummary(int hNote, Memory ItemName, Memory ItemText, short TextLength, boolean summary) {
+		return m_api.b32_NSFItemSetTextSummary(hNote, ItemName, ItemText, TextLength, summary);
+	}
+
+	@Override
+	public short b64_NSFItemSetTextSummary(long hNote, Memory ItemName, Memory ItemText, short TextLength, boolean summary) {
+		return m_api.b64_NSFItemSetTextSummary(hNote, ItemName, ItemText, TextLength, summary);
+	}
+
+	@Override
+	public boolean b32_NSFItemGetTime(int note_handle, Memory td_item_name, NotesTimeDateStruct td_item_value) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetTime(note_handle, td_item_name, td_item_value);
+	}
+
+	@Override
+	public boolean b64_NSFItemGetTime(long note_handle, Memory td_item_name, NotesTimeDateStruct td_item_value) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetTime(note_handle, td_item_name, td_item_value);
+	}
+
+	@Override
+	public short b32_NSFItemSetTime(int note_handle, Memory td_item_name, NotesTimeDateStruct td_item_ptr) {
+		return m_api.b32_NSFItemSetTime(note_handle, td_item_name, td_item_ptr);
+	}
+
+	@Override
+	public short b64_NSFItemSetTime(long note_handle, Memory td_item_name, NotesTimeDateStruct td_item_ptr) {
+		return m_api.b64_NSFItemSetTime(note_handle, td_item_name, td_item_ptr);
+	}
+
+	@Override
+	public boolean b32_NSFItemGetNumber(int hNote, Memory ItemName, DoubleByReference retNumber) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetNumber(hNote, ItemName, retNumber);
+	}
+
+	@Override
+	public boolean b64_NSFItemGetNumber(long hNote, Memory ItemName, DoubleByReference retNumber) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetNumber(hNote, ItemName, retNumber);
+	}
+
+	@Override
+	public int b32_NSFItemGetLong(int note_handle, Memory number_item_name, int number_item_default) {
+		return NotesCAPIDirectFunctions.b32_NSFItemGetLong(note_handle, number_item_name, number_item_default);
+	}
+
+	@Override
+	public int b64_NSFItemGetLong(long note_handle, Memory number_item_name, int number_item_default) {
+		return NotesCAPIDirectFunctions.b64_NSFItemGetLong(note_handle, number_item_name, number_item_default);
+	}
+
+	@Override
+	public short b32_NSFItemSetNumber(int hNote, Memory ItemName, Memory Number) {
+		return m_api.b32_NSFItemSetNumber(hNote, ItemName, Number);
+	}
+
+	@Override
+	public short b64_NSFItemSetNumber(long hNote, Memory ItemName, Memory Number) {
+		return m_api.b64_NSFItemSetNumber(hNote, ItemName, Number);
+	}
+
+	@Override
+	public short b64_NSFItemConvertToText(long note_handle, Memory item_name_ptr, Memory retText_buf_ptr, short text_buf_len, char separator) {
+		return NotesCAPIDirectFunctions.b64_NSFItemConvertToText(note_handle, item_name_ptr, retText_buf_ptr, text_buf_len, separator);
+	}
+
+	@Override
+	public short b32_NSFItemConvertToText(int note_handle, Memory item_name_ptr, Memory retText_buf_ptr, short text_buf_len, char separator) {
+		return NotesCAPIDirectFunctions.b32_NSFItemConvertToText(note_handle, item_name_ptr, retText_buf_ptr, text_buf_len, separator);
+	}
+
+	@Override
+	public short b64_NSFItemConvertValueToText(short value_type, NotesBlockIdStruct.ByValue value_bid, int value_len, Memory text_buf_ptr, short text_buf_len, char separator) {
+		return NotesCAPIDirectFunctions.b64_NSFItemConvertValueToText(value_type, value_bid, value_len, text_buf_ptr, text_buf_len, separator);
+	}
+
+	@Override
+	public short b32_NSFItemConvertValueToText(short value_type, NotesBlockIdStruct.ByValue value_bid, int value_len, Memory text_buf_ptr, short text_buf_len, char separator) {
+		return NotesCAPIDirectFunctions.b32_NSFItemConvertValueToText(value_type, value_bid, value_len, text_buf_ptr, text_buf_len, separator);
+	}
+
+	@Override
+	public short b64_NSFItemDelete(long note_handle, Memory item_name, short name_len) {
+		return m_api.b64_NSFItemDelete(note_handle, item_name, name_len);
+	}
+
+	@Override
+	public short b32_NSFItemDelete(int note_handle, Memory item_name, short name_len) {
+		return m_api.b32_NSFItemDelete(note_handle, item_name, name_len);
+	}
+
+	@Override
+	public short b64_NSFItemDeleteByBLOCKID(long note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b64_NSFItemDeleteByBLOCKID(note_handle, item_blockid);
+	}
+
+	@Override
+	public short b32_NSFItemDeleteByBLOCKID(int note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b32_NSFItemDeleteByBLOCKID(note_handle, item_blockid);
+	}
+
+	@Override
+	public short b64_NSFItemCopy(long note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b64_NSFItemCopy(note_handle, item_blockid);
+	}
+
+	@Override
+	public short b32_NSFItemCopy(int note_handle, NotesBlockIdStruct.ByValue item_blockid) {
+		return m_api.b32_NSFItemCopy(note_handle, item_blockid);
+	}
+
+	@Override
+	public short b64_NSFItemAppend(long note_handle, short item_flags, Memory item_name, short name_len, short item_type, Pointer item_value, int value_len) {
+		return m_api.b64_NSFItemAppend(note_handle, item_flags, item_name, name_len, item_type, item_value, value_len);
+	}
+
+	@Override
+	public short b32_NSFItemAppend(int note_handle, short item_flags, Memory item_name, short name_len, short item_type, Pointer item_value, int value_len) {
+		return m_api.b32_NSFItemAppend(note_handle, item_flags, item_name, name_len, item_type, item_value, value_len);
+	}
+
+	@Override
+	public short b64_NSFItemAppendByBLOCKID(long note_handle, short item_flags, Memory item_name, short name_len, NotesBlockIdStruct.ByValue value_bid, int value_len, NotesBlockIdStruct item_bid_ptr) {
+		return m_api.b64_NSFItemAppendByBLOCKID(note_handle, item_flags, item_name, name_len, value_bid, value_len, item_bid_ptr);
+	}
+
+	@Override
+	public short b32_NSFItemAppendByBLOCKID(int note_handle, short item_flags, Memory item_name, short name_len, NotesBlockIdStruct.ByValue value_bid, int value_len, NotesBlockIdStruct item_bid_ptr) {
+		return m_api.b32_NSFItemAppendByBLOCKID(note_handle, item_flags, item_name, name_len, value_bid, value_len, item_bid_ptr);
+	}
+
+	@Override
+	public short NSFItemRealloc(NotesBlockIdStruct.ByValue item_blockid, NotesBlockIdStruct value_blockid_ptr, int value_len) {
+		return m_api.NSFItemRealloc(item_blockid, value_blockid_ptr, value_len);
+	}
+
+	@Override
+	public short b64_NSFItemModifyValue(long hNote, NotesBlockIdStruct.ByValue bhItem, short ItemFlags, short DataType, Pointer valuePtr, int valueLength) {
+		return m_api.b64_NSFItemModifyValue(hNote, bhItem, ItemFlags, DataType, valuePtr, valueLength);
+	}
+
+	@Override
+	public short b32_NSFItemModifyValue(int hNote, NotesBlockIdStruct.ByValue bhItem, short ItemFlags, short DataType, Pointer valuePtr, int valueLength) {
+		return m_api.b32_NSFItemModifyValue(hNote, bhItem, ItemFlags, DataType, valuePtr, valueLength);
+	}
+
+	@Override
+	public short b32_NSFDbGetMultNoteInfo(int hDb, short Count, short Options, int hInBuf, IntByReference retSize, IntByReference rethOutBuf) {
+		return NotesCAPIDirectFunctions.b32_NSFDbGetMultNoteInfo(hDb, Count, Options, hInBuf, retSize, rethOutBuf);
+	}
+
+	@Override
+	public short b64_NSFDbGetMultNoteInfo(long hDb, short Count, short Options, long hInBuf, IntByReference retSize, LongByReference rethOutBuf) {
+		return NotesCAPIDirectFunctions.b64_NSFDbGetMultNoteInfo(hDb, Count, Options, hInBuf, retSize, rethOutBuf);
+	}
+
+	@Override
+	public short b32_NSFDbGetNoteInfoExt(int hDB, int NoteID, NotesOriginatorIdStruct retNoteOID, NotesTimeDateStruct retModified, ShortByReference retNoteClass, NotesTimeDateStruct retAddedToFile, ShortByReference retResponseCount, IntByReference retParentNoteID) {
+		return NotesCAPIDirectFunctions.b32_NSFDbGetNoteInfoExt(hDB, NoteID, retNoteOID, retModified, retNoteClass, retAddedToFile, retResponseCount, retParentNoteID);
+	}
+
+	@Override
+	public short b64_NSFDbGetNoteInfoExt(long hDB, int NoteID, NotesOriginatorIdStruct retNoteOID, NotesTimeDateStruct retModified, ShortByReference retNoteClass, NotesTimeDateStruct retAddedToFile, ShortByReference retResponseCount, IntByReference retParentNoteID) {
+		return NotesCAPIDirectFunctions.b64_NSFDbGetNoteInfoExt(hDB, NoteID, retNoteOID, retModified, retNoteClass, retAddedToFile, retResponseCount, retParentNoteID);
+	}
+
+	@Override
+	public short b64_NSFDbGetMultNoteInfoByUNID(long hDB, short Count, short Options, long hInBuf, IntByReference retSize, LongByReference rethOutBuf) {
+		return NotesCAPIDirectFunctions.b64_NSFDbGetMultNoteInfoByUNID(hDB, Count, Options, hInBuf, retSize, rethOutBuf);
+	}
+
+	@Override
+	public short b32_NSFDbGetMultNoteInfoByUNID(int hDB, short Count, short Options, int hInBuf, IntByReference retSize, IntByReference rethOutBuf) {
+		return NotesCAPIDirectFunctions.b32_NSFDbGetMultNoteInfoByUNID(hDB, Count, Options, hInBuf, retSize, rethOutBuf);
+	}
+
+	@Override
+	public short b32_NSFNoteVerifySignature(int hNote, Memory SignatureItemName, NotesTimeDateStruct retWhenSigned, Memory retSigner, Memory retCertifier) {
+		return m_api.b32_NSFNoteVerifySignature(hNote, SignatureItemName, retWhenSigned, retSigner, retCertifier);
+	}
+
+	@Override
+	public short b64_NSFNoteVerifySignature(long hNote, Memory SignatureItemName, NotesTimeDateStruct retWhenSigned, Memory retSigner, Memory retCertifier) {
+		return m_api.b64_NSFNoteVerifySignature(hNote, SignatureItemName, retWhenSigned, retSigner, retCertifier);
+	}
+
+	@Override
+	public short b64_NSFDbSign(long hDb, short noteclass) {
+		return m_api.b64_NSFDbSign(hDb, noteclass);
+	}
+
+	@Override
+	public short b32_NSFDbSign(int hDb, short noteclass) {
+		return m_api.b32_NSFDbSign(hDb, noteclass);
+	}
+
+	@Override
+	public short NSFDbCreateExtended(Memory pathName, short DbClass, boolean ForceCreation, short Options, byte EncryptStrength, long MaxFileSize) {
+		return m_api.NSFDbCreateExtended(pathName, DbClass, ForceCreation, Options, EncryptStrength, MaxFileSize);
+	}
+
+	@Override
+	public short b32_FTIndex(int hDB, short options, Memory stopFile, NotesFTIndexStatsStruct retStats) {
+		return m_api.b32_FTIndex(hDB, options, stopFile, retStats);
+	}
+
+	@Override
+	public short b64_FTIndex(long hDB, short options, Memory stopFile, NotesFTIndexStatsStruct retStats) {
+		return m_api.b64_FTIndex(hDB, options, stopFile, retStats);
+	}
+
+	@Override
+	public short b32_FTDeleteIndex(int hDB) {
+		return m_api.b32_FTDeleteIndex(hDB);
+	}
+
+	@Override
+	public short b64_FTDeleteIndex(long hDB) {
+		return m_api.b64_FTDeleteIndex(hDB);
+	}
+
+	@Override
+	public short b32_FTGetLastIndexTime(int hDB, NotesTimeDateStruct retTime) {
+		return m_api.b32_FTGetLastIndexTime(hDB, retTime);
+	}
+
+	@Override
+	public short b64_FTGetLastIndexTime(long hDB, NotesTimeDateStruct retTime) {
+		return m_api.b64_FTGetLastIndexTime(hDB, retTime);
+	}
+
+	@Override
+	public short b32_NSFDbGetBuildVersion(int hDB, ShortByReference retVersion) {
+		return m_api.b32_NSFDbGetBuildVersion(hDB, retVersion);
+	}
+
+	@Override
+	public short b64_NSFDbGetBuildVersion(long hDB, ShortByReference retVersion) {
+		return m_api.b64_NSFDbGetBuildVersion(hDB, retVersion);
+	}
+
+	@Override
+	public short b32_NSFDbGetMajMinVersion(int hDb, NotesBuildVersionStruct retBuildVersion) {
+		return m_api.b32_NSFDbGetMajMinVersion(hDb, retBuildVersion);
+	}
+
+	@Override
+	public short b64_NSFDbGetMajMinVersion(long hDb, NotesBuildVersionStruct retBuildVersion) {
+		return m_api.b64_NSFDbGetMajMinVersion(hDb, retBuildVersion);
+	}
+
+	@Override
+	public short b64_NSFDbReadObject(long hDB, int ObjectID, int Offset, int Length, LongByReference rethBuffer) {
+		return NotesCAPIDirectFunctions.b64_NSFDbReadObject(hDB, ObjectID, Offset, Length, rethBuffer);
+	}
+
+	@Override
+	public short b32_NSFDbReadObject(int hDB, int ObjectID, int Offset, int Length, IntByReference rethBuffer) {
+		return NotesCAPIDirectFunctions.b32_NSFDbReadObject(hDB, ObjectID, Offset, Length, rethBuffer);
+	}
+
+	@Override
+	public short b64_NSFDbGetObjectSize(long hDB, int ObjectID, short ObjectType, IntByReference retSize, ShortByReference retClass, ShortByReference retPrivileges) {
+		return m_api.b64_NSFDbGetObjectSize(hDB, ObjectID, ObjectType, retSize, retClass, retPrivileges);
+	}
+
+	@Override
+	public short b32_NSFDbGetObjectSize(int hDB, int ObjectID, short ObjectType, IntByReference retSize, ShortByReference retClass, ShortByReference retPrivileges) {
+		return m_api.b32_NSFDbGetObjectSize(hDB, ObjectID, ObjectType, retSize, retClass, retPrivileges);
+	}
+
+	@Override
+	public short b64_NSFDbGetSpecialNoteID(long hDB, short Index, IntByReference retNoteID) {
+		return m_api.b64_NSFDbGetSpecialNoteID(hDB, Index, retNoteID);
+	}
+
+	@Override
+	public short b32_NSFDbGetSpecialNoteID(int hDB, short Index, IntByReference retNoteID) {
+		return m_api.b32_NSFDbGetSpecialNoteID(hDB, Index, retNoteID);
+	}
+
+	@Override
+	public short NotesInitExtended(int argc, StringArray argvPtr) {
+		return m_api.NotesInitExtended(argc, argvPtr);
+	}
+
+	@Override
+	public void NotesTerm() {
+		m_api.NotesTerm();
+	}
+
+	@Override
+	public short NotesInitThread() {
+		return m_api.NotesInitThread();
+	}
+
+	@Override
+	public void NotesTermThread() {
+		m_api.NotesTermThread();
+	}
+
+	@Override
+	public short b32_NSFSearch(int hDB, int hFormula, Memory viewTitle, short SearchFlags, short NoteClassMask, NotesTimeDateStruct Since, b32_NsfSearchProc enumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil) {
+		return m_api.b32_NSFSearch(hDB, hFormula, viewTitle, SearchFlags, NoteClassMask, Since, enumRoutine, EnumRoutineParameter, retUntil);
+	}
+
+	@Override
+	public short b64_NSFSearch(long hDB, long hFormula, Memory viewTitle, short SearchFlags, short NoteClassMask, NotesTimeDateStruct Since, b64_NsfSearchProc enumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil) {
+		return m_api.b64_NSFSearch(hDB, hFormula, viewTitle, SearchFlags, NoteClassMask, Since, enumRoutine, EnumRoutineParameter, retUntil);
+	}
+
+	@Override
+	public short b64_NSFSearchExtended3(long hDB, long hFormula, long hFilter, int filterFlags, Memory ViewTitle, int SearchFlags, int SearchFlags1, int SearchFlags2, int SearchFlags3, int SearchFlags4, short NoteClassMask, NotesTimeDateStruct Since, b64_NsfSearchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, long namelist) {
+		return m_api.b64_NSFSearchExtended3(hDB, hFormula, hFilter, filterFlags, ViewTitle, SearchFlags, SearchFlags1, SearchFlags2, SearchFlags3, SearchFlags4, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, namelist);
+	}
+
+	@Override
+	public short b32_NSFSearchExtended3(int hDB, int hFormula, int hFilter, int FilterFlags, Memory ViewTitle, int SearchFlags, int SearchFlags1, int SearchFlags2, int SearchFlags3, int SearchFlags4, short NoteClassMask, NotesTimeDateStruct Since, b32_NsfSearchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, int namelist) {
+		return m_api.b32_NSFSearchExtended3(hDB, hFormula, hFilter, FilterFlags, ViewTitle, SearchFlags, SearchFlags1, SearchFlags2, SearchFlags3, SearchFlags4, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, namelist);
+	}
+
+	@Override
+	public short b64_NSFSearchExtended3WithMatchProc(long hDB, long hFormula, long hFilter, int filterFlags, Memory ViewTitle, int SearchFlags, int SearchFlags1, int SearchFlags2, int SearchFlags3, int SearchFlags4, short NoteClassMask, NotesTimeDateStruct Since, NsfSearchMatchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, long namelist) {
+		return m_api.b64_NSFSearchExtended3WithMatchProc(hDB, hFormula, hFilter, filterFlags, ViewTitle, SearchFlags, SearchFlags1, SearchFlags2, SearchFlags3, SearchFlags4, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, namelist);
+	}
+
+	@Override
+	public short b32_NSFSearchExtended3WithMatchProc(int hDB, int hFormula, int hFilter, int FilterFlags, Memory ViewTitle, int SearchFlags, int SearchFlags1, int SearchFlags2, int SearchFlags3, int SearchFlags4, short NoteClassMask, NotesTimeDateStruct Since, NsfSearchMatchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, int namelist) {
+		return m_api.b32_NSFSearchExtended3WithMatchProc(hDB, hFormula, hFilter, FilterFlags, ViewTitle, SearchFlags, SearchFlags1, SearchFlags2, SearchFlags3, SearchFlags4, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, namelist);
+	}
+
+	@Override
+	public short b64_NSFGetFolderSearchFilter(long hViewDB, long hDataDB, int ViewNoteID, NotesTimeDateStruct Since, int Flags, LongByReference Filter) {
+		return m_api.b64_NSFGetFolderSearchFilter(hViewDB, hDataDB, ViewNoteID, Since, Flags, Filter);
+	}
+
+	@Override
+	public short b32_NSFGetFolderSearchFilter(int hViewDB, int hDataDB, int ViewNoteID, NotesTimeDateStruct Since, int Flags, IntByReference Filter) {
+		return m_api.b32_NSFGetFolderSearchFilter(hViewDB, hDataDB, ViewNoteID, Since, Flags, Filter);
+	}
+
+	@Override
+	public short b64_NSFSearchWithUserNameList(long hDB, long hFormula, Memory ViewTitle, short SearchFlags, short NoteClassMask, NotesTimeDateStruct Since, b64_NsfSearchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, long nameList) {
+		return m_api.b64_NSFSearchWithUserNameList(hDB, hFormula, ViewTitle, SearchFlags, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, nameList);
+	}
+
+	@Override
+	public short b32_NSFSearchWithUserNameList(int hDB, int hFormula, Memory ViewTitle, short SearchFlags, short NoteClassMask, NotesTimeDateStruct Since, b32_NsfSearchProc EnumRoutine, Pointer EnumRoutineParameter, NotesTimeDateStruct retUntil, int nameList) {
+		return m_api.b32_NSFSearchWithUserNameList(hDB, hFormula, ViewTitle, SearchFlags, NoteClassMask, Since, EnumRoutine, EnumRoutineParameter, retUntil, nameList);
+	}
+
+	@Override
+	public short b64_NSFNoteCipherExtractWithCallback(long hNote, NotesBlockIdStruct.ByValue bhItem, int ExtractFlags, int hDecryptionCipher, NoteExtractCallback pNoteExtractCallback, Pointer pParam, int Reserved, Pointer pReserved) {
+		return m_api.b64_NSFNoteCipherExtractWithCallback(hNote, bhItem, ExtractFlags, hDecryptionCipher, pNoteExtractCallback, pParam, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_NSFNoteCipherExtractWithCallback(int hNote, NotesBlockIdStruct.ByValue bhItem, int ExtractFlags, int hDecryptionCipher, NoteExtractCallback pNoteExtractCallback, Pointer pParam, int Reserved, Pointer pReserved) {
+		return m_api.b32_NSFNoteCipherExtractWithCallback(hNote, bhItem, ExtractFlags, hDecryptionCipher, pNoteExtractCallback, pParam, Reserved, pReserved);
+	}
+
+	@Override
+	public short b64_NSFNoteCopyAndEncryptExt2(long hSrcNote, long hKFC, short EncryptFlags, LongByReference rethDstNote, int Reserved, Pointer pReserved) {
+		return m_api.b64_NSFNoteCopyAndEncryptExt2(hSrcNote, hKFC, EncryptFlags, rethDstNote, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_NSFNoteCopyAndEncryptExt2(int hSrcNote, int hKFC, short EncryptFlags, IntByReference rethDstNote, int Reserved, Pointer pReserved) {
+		return m_api.b32_NSFNoteCopyAndEncryptExt2(hSrcNote, hKFC, EncryptFlags, rethDstNote, Reserved, pReserved);
+	}
+
+	@Override
+	public short b64_NSFNoteCopyAndEncrypt(long hSrcNote, short EncryptFlags, LongByReference rethDstNote) {
+		return m_api.b64_NSFNoteCopyAndEncrypt(hSrcNote, EncryptFlags, rethDstNote);
+	}
+
+	@Override
+	public short b32_NSFNoteCopyAndEncrypt(int hSrcNote, short EncryptFlags, IntByReference rethDstNote) {
+		return m_api.b32_NSFNoteCopyAndEncrypt(hSrcNote, EncryptFlags, rethDstNote);
+	}
+
+	@Override
+	public short b64_NSFNoteCopy(long note_handle_src, LongByReference note_handle_dst_ptr) {
+		return m_api.b64_NSFNoteCopy(note_handle_src, note_handle_dst_ptr);
+	}
+
+	@Override
+	public short b32_NSFNoteCopy(int note_handle_src, IntByReference note_handle_dst_ptr) {
+		return m_api.b32_NSFNoteCopy(note_handle_src, note_handle_dst_ptr);
+	}
+
+	@Override
+	public short b64_NSFNoteCipherDecrypt(long hNote, long hKFC, int DecryptFlags, LongByReference rethCipherForAttachments, int Reserved, Pointer pReserved) {
+		return m_api.b64_NSFNoteCipherDecrypt(hNote, hKFC, DecryptFlags, rethCipherForAttachments, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_NSFNoteCipherDecrypt(int hNote, int hKFC, int DecryptFlags, LongByReference rethCipherForAttachments, int Reserved, Pointer pReserved) {
+		return m_api.b32_NSFNoteCipherDecrypt(hNote, hKFC, DecryptFlags, rethCipherForAttachments, Reserved, pReserved);
+	}
+
+	@Override
+	public short b64_NSFNoteAttachFile(long note_handle, Memory item_name, short item_name_length, Memory file_name, Memory orig_path_name, short encoding_type) {
+		return m_api.b64_NSFNoteAttachFile(note_handle, item_name, item_name_length, file_name, orig_path_name, encoding_type);
+	}
+
+	@Override
+	public short b32_NSFNoteAttachFile(int note_handle, Memory item_name, short item_name_length, Memory file_name, Memory orig_path_name, short encoding_type) {
+		return m_api.b32_NSFNoteAttachFile(note_handle, item_name, item_name_length, file_name, orig_path_name, encoding_type);
+	}
+
+	@Override
+	public short b64_NSFFormulaCompile(Memory FormulaName, short FormulaNameLength, Memory FormulaText, short FormulaTextLength, LongByReference rethFormula, ShortByReference retFormulaLength, ShortByReference retCompileError, ShortByReference retCompileErrorLine, ShortByReference retCompileErrorColumn, ShortByReference retCompileErrorOffset, ShortByReference retCompileErrorLength) {
+		return m_api.b64_NSFFormulaCompile(FormulaName, FormulaNameLength, FormulaText, FormulaTextLength, rethFormula, retFormulaLength, retCompileError, retCompileErrorLine, retCompileErrorColumn, retCompileErrorOffset, retCompileErrorLength);
+	}
+
+	@Override
+	public short b32_NSFFormulaCompile(Memory FormulaName, short FormulaNameLength, Memory FormulaText, short FormulaTextLength, IntByReference rethFormula, ShortByReference retFormulaLength, ShortByReference retCompileError, ShortByReference retCompileErrorLine, ShortByReference retCompileErrorColumn, ShortByReference retCompileErrorOffset, ShortByReference retCompileErrorLength) {
+		return m_api.b32_NSFFormulaCompile(FormulaName, FormulaNameLength, FormulaText, FormulaTextLength, rethFormula, retFormulaLength, retCompileError, retCompileErrorLine, retCompileErrorColumn, retCompileErrorOffset, retCompileErrorLength);
+	}
+
+	@Override
+	public short b64_NSFFormulaDecompile(Pointer pFormulaBuffer, boolean fSelectionFormula, LongByReference rethFormulaText, ShortByReference retFormulaTextLength) {
+		return m_api.b64_NSFFormulaDecompile(pFormulaBuffer, fSelectionFormula, rethFormulaText, retFormulaTextLength);
+	}
+
+	@Override
+	public short b32_NSFFormulaDecompile(Pointer pFormulaBuffer, boolean fSelectionFormula, IntByReference rethFormulaText, ShortByReference retFormulaTextLength) {
+		return m_api.b32_NSFFormulaDecompile(pFormulaBuffer, fSelectionFormula, rethFormulaText, retFormulaTextLength);
+	}
+
+	@Override
+	public short b64_NSFComputeStart(short Flags, Pointer lpCompiledFormula, LongByReference rethCompute) {
+		return m_api.b64_NSFComputeStart(Flags, lpCompiledFormula, rethCompute);
+	}
+
+	@Override
+	public short b32_NSFComputeStart(short Flags, Pointer lpCompiledFormula, IntByReference rethCompute) {
+		return m_api.b32_NSFComputeStart(Flags, lpCompiledFormula, rethCompute);
+	}
+
+	@Override
+	public short b64_NSFComputeStop(long hCompute) {
+		return m_api.b64_NSFComputeStop(hCompute);
+	}
+
+	@Override
+	public short b32_NSFComputeStop(int hCompute) {
+		return m_api.b32_NSFComputeStop(hCompute);
+	}
+
+	@Override
+	public short b64_NSFComputeEvaluate(long hCompute, long hNote, LongByReference rethResult, ShortByReference retResultLength, IntByReference retNoteMatchesFormula, IntByReference retNoteShouldBeDeleted, IntByReference retNoteModified) {
+		return NotesCAPIDirectFunctions.b64_NSFComputeEvaluate(hCompute, hNote, rethResult, retResultLength, retNoteMatchesFormula, retNoteShouldBeDeleted, retNoteModified);
+	}
+
+	@Override
+	public short b32_NSFComputeEvaluate(int hCompute, int hNote, IntByReference rethResult, ShortByReference retResultLength, IntByReference retNoteMatchesFormula, IntByReference retNoteShouldBeDeleted, IntByReference retNoteModified) {
+		return NotesCAPIDirectFunctions.b32_NSFComputeEvaluate(hCompute, hNote, rethResult, retResultLength, retNoteMatchesFormula, retNoteShouldBeDeleted, retNoteModified);
+	}
+
+	@Override
+	public short b32_AgentOpen(int hDB, int AgentNoteID, IntByReference rethAgent) {
+		return m_api.b32_AgentOpen(hDB, AgentNoteID, rethAgent);
+	}
+
+	@Override
+	public short b64_AgentOpen(long hDB, int AgentNoteID, LongByReference rethAgent) {
+		return m_api.b64_AgentOpen(hDB, AgentNoteID, rethAgent);
+	}
+
+	@Override
+	public void b32_AgentClose(int hAgent) {
+		m_api.b32_AgentClose(hAgent);
+	}
+
+	@Override
+	public void b64_AgentClose(long hAgent) {
+		m_api.b64_AgentClose(hAgent);
+	}
+
+	@Override
+	public short b32_AgentCreateRunContext(int hAgent, Pointer pReserved, int dwFlags, IntByReference rethContext) {
+		return m_api.b32_AgentCreateRunContext(hAgent, pReserved, dwFlags, rethContext);
+	}
+
+	@Override
+	public short b64_AgentCreateRunContext(long hAgent, Pointer pReserved, int dwFlags, LongByReference rethContext) {
+		return m_api.b64_AgentCreateRunContext(hAgent, pReserved, dwFlags, rethContext);
+	}
+
+	@Override
+	public short b64_AgentCreateRunContextExt(long hAgent, Pointer pReserved, long pOldContext, int dwFlags, LongByReference rethContext) {
+		return m_api.b64_AgentCreateRunContextExt(hAgent, pReserved, pOldContext, dwFlags, rethContext);
+	}
+
+	@Override
+	public short b32_AgentCreateRunContextExt(int hAgent, Pointer pReserved, int pOldContext, int dwFlags, IntByReference rethContext) {
+		return m_api.b32_AgentCreateRunContextExt(hAgent, pReserved, pOldContext, dwFlags, rethContext);
+	}
+
+	@Override
+	public short b32_AgentSetDocumentContext(int hAgentCtx, int hNote) {
+		return m_api.b32_AgentSetDocumentContext(hAgentCtx, hNote);
+	}
+
+	@Override
+	public short b64_AgentSetDocumentContext(long hAgentCtx, long hNote) {
+		return m_api.b64_AgentSetDocumentContext(hAgentCtx, hNote);
+	}
+
+	@Override
+	public short b32_AgentSetTimeExecutionLimit(int hAgentCtx, int timeLimit) {
+		return m_api.b32_AgentSetTimeExecutionLimit(hAgentCtx, timeLimit);
+	}
+
+	@Override
+	public short b64_AgentSetTimeExecutionLimit(long hAgentCtx, int timeLimit) {
+		return m_api.b64_AgentSetTimeExecutionLimit(hAgentCtx, timeLimit);
+	}
+
+	@Override
+	public boolean b32_AgentIsEnabled(int hAgent) {
+		return m_api.b32_AgentIsEnabled(hAgent);
+	}
+
+	@Override
+	public boolean b64_AgentIsEnabled(long hAgent) {
+		return m_api.b64_AgentIsEnabled(hAgent);
+	}
+
+	@Override
+	public void b64_SetParamNoteID(long hAgentCtx, int noteId) {
+		m_api.b64_SetParamNoteID(hAgentCtx, noteId);
+	}
+
+	@Override
+	public void b32_SetParamNoteID(int hAgentCtx, int noteId) {
+		m_api.b32_SetParamNoteID(hAgentCtx, noteId);
+	}
+
+	@Override
+	public short b64_AgentSetUserName(long hAgentCtx, long hNameList) {
+		return m_api.b64_AgentSetUserName(hAgentCtx, hNameList);
+	}
+
+	@Override
+	public short b32_AgentSetUserName(int hAgentCtx, int hNameList) {
+		return m_api.b32_AgentSetUserName(hAgentCtx, hNameList);
+	}
+
+	@Override
+	public short b32_AgentRedirectStdout(int hAgentCtx, short redirType) {
+		return m_api.b32_AgentRedirectStdout(hAgentCtx, redirType);
+	}
+
+	@Override
+	public short b64_AgentRedirectStdout(long hAgentCtx, short redirType) {
+		return m_api.b64_AgentRedirectStdout(hAgentCtx, redirType);
+	}
+
+	@Override
+	public void b32_AgentQueryStdoutBuffer(int hAgentCtx, IntByReference retHdl, IntByReference retSize) {
+		m_api.b32_AgentQueryStdoutBuffer(hAgentCtx, retHdl, retSize);
+	}
+
+	@Override
+	public void b64_AgentQueryStdoutBuffer(long hAgentCtx, LongByReference retHdl, IntByReference retSize) {
+		m_api.b64_AgentQueryStdoutBuffer(hAgentCtx, retHdl, retSize);
+	}
+
+	@Override
+	public void b32_AgentDestroyRunContext(int hAgentCtx) {
+		m_api.b32_AgentDestroyRunContext(hAgentCtx);
+	}
+
+	@Override
+	public void b64_AgentDestroyRunContext(long hAgentCtx) {
+		m_api.b64_AgentDestroyRunContext(hAgentCtx);
+	}
+
+	@Override
+	public short AgentDelete(int hAgent) {
+		return m_api.AgentDelete(hAgent);
+	}
+
+	@Override
+	public short AgentDelete(long hAgent) {
+		return m_api.AgentDelete(hAgent);
+	}
+
+	@Override
+	public boolean b64_IsRunAsWebUser(long hAgent) {
+		return m_api.b64_IsRunAsWebUser(hAgent);
+	}
+
+	@Override
+	public boolean b32_IsRunAsWebUser(int hAgent) {
+		return m_api.b32_IsRunAsWebUser(hAgent);
+	}
+
+	@Override
+	public short b32_AgentRun(int hAgent, int hAgentCtx, int hSelection, int dwFlags) {
+		return m_api.b32_AgentRun(hAgent, hAgentCtx, hSelection, dwFlags);
+	}
+
+	@Override
+	public short b64_AgentRun(long hAgent, long hAgentCtx, int hSelection, int dwFlags) {
+		return m_api.b64_AgentRun(hAgent, hAgentCtx, hSelection, dwFlags);
+	}
+
+	@Override
+	public short OSPathNetConstruct(Memory PortName, Memory ServerName, Memory FileName, Memory retPathName) {
+		return m_api.OSPathNetConstruct(PortName, ServerName, FileName, retPathName);
+	}
+
+	@Override
+	public short OSPathNetParse(Memory PathName, Memory retPortName, Memory retServerName, Memory retFileName) {
+		return m_api.OSPathNetParse(PathName, retPortName, retServerName, retFileName);
+	}
+
+	@Override
+	public short b32_OSMemAlloc(short BlkType, int dwSize, IntByReference retHandle) {
+		return NotesCAPIDirectFunctions.b32_OSMemAlloc(BlkType, dwSize, retHandle);
+	}
+
+	@Override
+	public short b64_OSMemAlloc(short BlkType, int dwSize, LongByReference retHandle) {
+		return NotesCAPIDirectFunctions.b64_OSMemAlloc(BlkType, dwSize, retHandle);
+	}
+
+	@Override
+	public short NSFDbRename(Memory dbNameOld, Memory dbNameNew) {
+		return m_api.NSFDbRename(dbNameOld, dbNameNew);
+	}
+
+	@Override
+	public short NSFDbMarkInService(Memory dbPath) {
+		return m_api.NSFDbMarkInService(dbPath);
+	}
+
+	@Override
+	public short NSFDbMarkOutOfService(Memory dbPath) {
+		return m_api.NSFDbMarkOutOfService(dbPath);
+	}
+
+	@Override
+	public void OSGetExecutableDirectory(Memory retPathName) {
+		m_api.OSGetExecutableDirectory(retPathName);
+	}
+
+	@Override
+	public void OSGetDataDirectory(Memory retPathName) {
+		m_api.OSGetDataDirectory(retPathName);
+	}
+
+	@Override
+	public short OSGetSystemTempDirectory(Memory retPathName, int bufferLength) {
+		return m_api.OSGetSystemTempDirectory(retPathName, bufferLength);
+	}
+
+	@Override
+	public void OSPathAddTrailingPathSep(Memory retPathName) {
+		m_api.OSPathAddTrailingPathSep(retPathName);
+	}
+
+	@Override
+	public int OSGetEnvironmentInt(Memory variableName) {
+		return m_api.OSGetEnvironmentInt(variableName);
+	}
+
+	@Override
+	public short OSGetEnvironmentString(Memory variableName, Memory rethValueBuffer, short bufferLength) {
+		return m_api.OSGetEnvironmentString(variableName, rethValueBuffer, bufferLength);
+	}
+
+	@Override
+	public long OSGetEnvironmentLong(Memory variableName) {
+		return m_api.OSGetEnvironmentLong(variableName);
+	}
+
+	@Override
+	public void OSSetEnvironmentVariable(Memory variableName, Memory Value) {
+		m_api.OSSetEnvironmentVariable(variableName, Value);
+	}
+
+	@Override
+	public void OSSetEnvironmentInt(Memory variableName, int Value) {
+		m_api.OSSetEnvironmentInt(variableName, Value);
+	}
+
+	@Override
+	public short b64_NSFTransactionBegin(long hDB, int flags) {
+		return m_api.b64_NSFTransactionBegin(hDB, flags);
+	}
+
+	@Override
+	public short b32_NSFTransactionBegin(int hDB, int flags) {
+		return m_api.b32_NSFTransactionBegin(hDB, flags);
+	}
+
+	@Override
+	public short b64_NSFTransactionCommit(long hDB, int flags) {
+		return m_api.b64_NSFTransactionCommit(hDB, flags);
+	}
+
+	@Override
+	public short b32_NSFTransactionCommit(int hDB, int flags) {
+		return m_api.b32_NSFTransactionCommit(hDB, flags);
+	}
+
+	@Override
+	public short b64_NSFTransactionRollback(long hDB) {
+		return m_api.b64_NSFTransactionRollback(hDB);
+	}
+
+	@Override
+	public short b32_NSFTransactionRollback(int hDB) {
+		return m_api.b32_NSFTransactionRollback(hDB);
+	}
+
+	@Override
+	public short b64_NSFDbGetOptionsExt(long hDB, Memory retDbOptions) {
+		return m_api.b64_NSFDbGetOptionsExt(hDB, retDbOptions);
+	}
+
+	@Override
+	public short b32_NSFDbGetOptionsExt(int hDB, Memory retDbOptions) {
+		return m_api.b32_NSFDbGetOptionsExt(hDB, retDbOptions);
+	}
+
+	@Override
+	public short b64_NSFDbSetOptionsExt(long hDB, Memory dbOptions, Memory mask) {
+		return m_api.b64_NSFDbSetOptionsExt(hDB, dbOptions, mask);
+	}
+
+	@Override
+	public short b32_NSFDbSetOptionsExt(int hDB, Memory dbOptions, Memory mask) {
+		return m_api.b32_NSFDbSetOptionsExt(hDB, dbOptions, mask);
+	}
+
+	@Override
+	public void b64_NSFDbAccessGet(long hDB, ShortByReference retAccessLevel, ShortByReference retAccessFlag) {
+		m_api.b64_NSFDbAccessGet(hDB, retAccessLevel, retAccessFlag);
+	}
+
+	@Override
+	public void b32_NSFDbAccessGet(int hDB, ShortByReference retAccessLevel, ShortByReference retAccessFlag) {
+		m_api.b32_NSFDbAccessGet(hDB, retAccessLevel, retAccessFlag);
+	}
+
+	@Override
+	public short b64_NSFHideDesign(long hdb1, long hdb2, int param3, int param4) {
+		return m_api.b64_NSFHideDesign(hdb1, hdb2, param3, param4);
+	}
+
+	@Override
+	public short b32_NSFHideDesign(int hdb1, int hdb2, int param3, int param4) {
+		return m_api.b32_NSFHideDesign(hdb1, hdb2, param3, param4);
+	}
+
+	@Override
+	public short b64_NSFDbGetLogInfo(long hDb, int Flags, ShortByReference LOGGED, NotesUniversalNoteIdStruct LogID, NotesUniversalNoteIdStruct DbIID, IntByReference LogExtent) {
+		return m_api.b64_NSFDbGetLogInfo(hDb, Flags, LOGGED, LogID, DbIID, LogExtent);
+	}
+
+	@Override
+	public short b32_NSFDbGetLogInfo(int hDb, int Flags, ShortByReference LOGGED, NotesUniversalNoteIdStruct LogID, NotesUniversalNoteIdStruct DbIID, IntByReference LogExtent) {
+		return m_api.b32_NSFDbGetLogInfo(hDb, Flags, LOGGED, LogID, DbIID, LogExtent);
+	}
+
+	@Override
+	public short b64_NSFBackupStart(long hDB, int Flags, IntByReference BackupContext, IntByReference FileSizeLow, IntByReference FileSizeHigh) {
+		return m_api.b64_NSFBackupStart(hDB, Flags, BackupContext, FileSizeLow, FileSizeHigh);
+	}
+
+	@Override
+	public short b32_NSFBackupStart(int hDB, int Flags, IntByReference BackupContext, IntByReference FileSizeLow, IntByReference FileSizeHigh) {
+		return m_api.b32_NSFBackupStart(hDB, Flags, BackupContext, FileSizeLow, FileSizeHigh);
+	}
+
+	@Override
+	public short b64_NSFBackupStop(long hDB, int BackupContext) {
+		return m_api.b64_NSFBackupStop(hDB, BackupContext);
+	}
+
+	@Override
+	public short b32_NSFBackupStop(int hDB, int BackupContext) {
+		return m_api.b32_NSFBackupStop(hDB, BackupContext);
+	}
+
+	@Override
+	public short b64_NSFBackupEnd(long hDB, int BackupContext, int Options) {
+		return m_api.b64_NSFBackupEnd(hDB, BackupContext, Options);
+	}
+
+	@Override
+	public short b32_NSFBackupEnd(int hDB, int BackupContext, int Options) {
+		return m_api.b32_NSFBackupEnd(hDB, BackupContext, Options);
+	}
+
+	@Override
+	public short b64_NSFBackupGetChangeInfoSize(long hDB, int hBackupContext, int Flags, IntByReference InfoSizeLow, IntByReference InfoSizeHigh) {
+		return m_api.b64_NSFBackupGetChangeInfoSize(hDB, hBackupContext, Flags, InfoSizeLow, InfoSizeHigh);
+	}
+
+	@Override
+	public short b32_NSFBackupGetChangeInfoSize(int hDB, int hBackupContext, int Flags, IntByReference InfoSizeLow, IntByReference InfoSizeHigh) {
+		return m_api.b32_NSFBackupGetChangeInfoSize(hDB, hBackupContext, Flags, InfoSizeLow, InfoSizeHigh);
+	}
+
+	@Override
+	public short b64_NSFBackupStartApplyChangeInfo(IntByReference ApplyInfoContext, Memory CopyFilePath, int Flags, int InfoSizeLow, int InfoSizeHigh) {
+		return m_api.b64_NSFBackupStartApplyChangeInfo(ApplyInfoContext, CopyFilePath, Flags, InfoSizeLow, InfoSizeHigh);
+	}
+
+	@Override
+	public short b32_NSFBackupStartApplyChangeInfo(IntByReference ApplyInfoContext, Memory CopyFilePath, int Flags, int InfoSizeLow, int InfoSizeHigh) {
+		return m_api.b32_NSFBackupStartApplyChangeInfo(ApplyInfoContext, CopyFilePath, Flags, InfoSizeLow, InfoSizeHigh);
+	}
+
+	@Override
+	public short b64_NSFBackupGetNextChangeInfo(long hDB, int hBackupContext, int Flags, Memory Buffer, int BufferSize, IntByReference FilledSize) {
+		return m_api.b64_NSFBackupGetNextChangeInfo(hDB, hBackupContext, Flags, Buffer, BufferSize, FilledSize);
+	}
+
+	@Override
+	public short b32_NSFBackupGetNextChangeInfo(int hDB, int hBackupContext, int Flags, Memory Buffer, int BufferSize, IntByReference FilledSize) {
+		return m_api.b32_NSFBackupGetNextChangeInfo(hDB, hBackupContext, Flags, Buffer, BufferSize, FilledSize);
+	}
+
+	@Override
+	public short b64_NSFBackupApplyNextChangeInfo(long ApplyInfoContext, int Flags, Memory Buffer, int BufferSize) {
+		return m_api.b64_NSFBackupApplyNextChangeInfo(ApplyInfoContext, Flags, Buffer, BufferSize);
+	}
+
+	@Override
+	public short b32_NSFBackupApplyNextChangeInfo(int ApplyInfoContext, int Flags, Memory Buffer, int BufferSize) {
+		return m_api.b32_NSFBackupApplyNextChangeInfo(ApplyInfoContext, Flags, Buffer, BufferSize);
+	}
+
+	@Override
+	public short b64_NSFBackupEndApplyChangeInfo(int ApplyInfoContext, int Flags) {
+		return m_api.b64_NSFBackupEndApplyChangeInfo(ApplyInfoContext, Flags);
+	}
+
+	@Override
+	public short b32_NSFBackupEndApplyChangeInfo(int ApplyInfoContext, int Flags) {
+		return m_api.b32_NSFBackupEndApplyChangeInfo(ApplyInfoContext, Flags);
+	}
+
+	@Override
+	public short NSFGetTransLogStyle(ShortByReference LogType) {
+		return m_api.NSFGetTransLogStyle(LogType);
+	}
+
+	@Override
+	public short NSFBeginArchivingLogs() {
+		return m_api.NSFBeginArchivingLogs();
+	}
+
+	@Override
+	public short NSFGetFirstLogToArchive(NotesUniversalNoteIdStruct LogID, IntByReference LogNumber, Memory LogPath) {
+		return m_api.NSFGetFirstLogToArchive(LogID, LogNumber, LogPath);
+	}
+
+	@Override
+	public short NSFGetNextLogToArchive(NotesUniversalNoteIdStruct LogID, IntByReference LogNumber, Memory LogPath) {
+		return m_api.NSFGetNextLogToArchive(LogID, LogNumber, LogPath);
+	}
+
+	@Override
+	public short NSFDoneArchivingLog(NotesUniversalNoteIdStruct LogID, IntByReference LogSequenceNumber) {
+		return m_api.NSFDoneArchivingLog(LogID, LogSequenceNumber);
+	}
+
+	@Override
+	public short NSFEndArchivingLogs() {
+		return m_api.NSFEndArchivingLogs();
+	}
+
+	@Override
+	public short NSFTakeDatabaseOffline(Memory dbPath, int WaitTime, int options) {
+		return m_api.NSFTakeDatabaseOffline(dbPath, WaitTime, options);
+	}
+
+	@Override
+	public short NSFRecoverDatabases(Memory dbNames, LogRestoreCallbackFunction restoreCB, int Flags, ShortByReference errDbIndex, NotesTimeDatePairStruct recoveryTime) {
+		return m_api.NSFRecoverDatabases(dbNames, restoreCB, Flags, errDbIndex, recoveryTime);
+	}
+
+	@Override
+	public short NSFBringDatabaseOnline(Memory dbPath, int options) {
+		return m_api.NSFBringDatabaseOnline(dbPath, options);
+	}
+
+	@Override
+	public short b64_SECKFMOpen(LongByReference phKFC, Memory pIDFileName, Memory pPassword, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b64_SECKFMOpen(phKFC, pIDFileName, pPassword, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_SECKFMOpen(IntByReference phKFC, Memory pIDFileName, Memory pPassword, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b32_SECKFMOpen(phKFC, pIDFileName, pPassword, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short b64_SECKFMClose(LongByReference phKFC, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b64_SECKFMClose(phKFC, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short b32_SECKFMClose(IntByReference phKFC, int Flags, int Reserved, Pointer pReserved) {
+		return m_api.b32_SECKFMClose(phKFC, Flags, Reserved, pReserved);
+	}
+
+	@Override
+	public short SECKFMChangePassword(Memory pIDFile, Memory pOldPassword, Memory pNewPassword) {
+		return m_api.SECKFMChangePassword(pIDFile, pOldPassword, pNewPassword);
+	}
+
+	@Override
+	public short SECKFMGetUserName(Memory retUserName) {
+		return m_api.SECKFMGetUserName(retUserName);
+	}
+
+	@Override
+	public short SECKFMSwitchToIDFile(Memory pIDFileName, Memory pPassword, Memory pUserName, short MaxUserNameLength, int Flags, Pointer pReserved) {
+		return m_api.SECKFMSwitchToIDFile(pIDFileName, pPassword, pUserName, MaxUserNameLength, Flags, pReserved);
+	}
+
+	@Override
+	public short b64_SECidfGet(Memory pUserName, Memory pPassword, Memory pPutIDFileHere, LongByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved) {
+		return m_api.b64_SECidfGet(pUserName, pPassword, pPutIDFileHere, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved);
+	}
+
+	@Override
+	public short b32_SECidfGet(Memory pUserName, Memory pPassword, Memory pPutIDFileHere, IntByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved) {
+		return m_api.b32_SECidfGet(pUserName, pPassword, pPutIDFileHere, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved);
+	}
+
+	@Override
+	public short b64_SECidfPut(Memory pUserName, Memory pPassword, Memory pIDFilePath, LongByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved) {
+		return m_api.b64_SECidfPut(pUserName, pPassword, pIDFilePath, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved);
+	}
+
+	@Override
+	public short b32_SECidfPut(Memory pUserName, Memory pPassword, Memory pIDFilePath, IntByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved) {
+		return m_api.b32_SECidfPut(pUserName, pPassword, pIDFilePath, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved);
+	}
+
+	@Override
+	public short b64_SECidfSync(Memory pUserName, Memory pPassword, Memory pIDFilePath, LongByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved, IntByReference retdwFlags) {
+		return m_api.b64_SECidfSync(pUserName, pPassword, pIDFilePath, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved, retdwFlags);
+	}
+
+	@Override
+	public short b32_SECidfSync(Memory pUserName, Memory pPassword, Memory pIDFilePath, IntByReference phKFC, Memory pServerName, int dwReservedFlags, short wReservedType, Pointer pReserved, IntByReference retdwFlags) {
+		return m_api.b32_SECidfSync(pUserName, pPassword, pIDFilePath, phKFC, pServerName, dwReservedFlags, wReservedType, pReserved, retdwFlags);
+	}
+
+	@Override
+	public short SECidvResetUserPassword(Memory pServer, Memory pUserName, Memory pPassword, short wDownloadCount, int ReservedFlags, Pointer pReserved) {
+		return m_api.SECidvResetUserPassword(pServer, pUserName, pPassword, wDownloadCount, ReservedFlags, pReserved);
+	}
+
+	@Override
+	public short SECKFMGetPublicKey(Memory pName, short Function, short Flags, IntByReference rethPubKey) {
+		return m_api.SECKFMGetPublicKey(pName, Function, Flags, rethPubKey);
+	}
+
+	@Override
+	public short b64_SECTokenGenerate(Memory ServerName, Memory OrgName, Memory ConfigName, Memory UserName, NotesTimeDateStruct Creation, NotesTimeDateStruct Expiration, LongByReference retmhToken, int dwReserved, Pointer vpReserved) {
+		return m_api.b64_SECTokenGenerate(ServerName, OrgName, ConfigName, UserName, Creation, Expiration, retmhToken, dwReserved, vpReserved);
+	}
+
+	@Override
+	public short b32_SECTokenGenerate(Memory ServerName, Memory OrgName, Memory ConfigName, Memory UserName, NotesTimeDateStruct Creation, NotesTimeDateStruct Expiration, IntByReference retmhToken, int dwReserved, Pointer vpReserved) {
+		return m_api.b32_SECTokenGenerate(ServerName, OrgName, ConfigName, UserName, Creation, Expiration, retmhToken, dwReserved, vpReserved);
+	}
+
+	@Override
+	public void b64_SECTokenFree(LongByReference mhToken) {
+		m_api.b64_SECTokenFree(mhToken);
+	}
+
+	@Override
+	public void b32_SECTokenFree(IntByReference mhToken) {
+		m_api.b32_SECTokenFree(mhToken);
+	}
+
+	@Override
+	public short SECTokenValidate(Memory ServerName, Memory OrgName, Memory ConfigName, Memory TokenData, Memory retUsername, NotesTimeDateStruct retCreation, NotesTimeDateStruct retExpiration, int dwReserved, Pointer vpReserved) {
+		return m_api.SECTokenValidate(ServerName, OrgName, ConfigName, TokenData, retUsername, retCreation, retExpiration, dwReserved, vpReserved);
+	}
+
+	@Override
+	public short MQCreate(Memory queueName, short quota, int options) {
+		return m_api.MQCreate(queueName, quota, options);
+	}
+
+	@Override
+	public short MQOpen(Memory queueName, int options, IntByReference retQueue) {
+		return m_api.MQOpen(queueName, options, retQueue);
+	}
+
+	@Override
+	public short MQClose(int queue, int options) {
+		return m_api.MQClose(queue, options);
+	}
+
+	@Override
+	public short MQPut(int queue, short priority, ByteBuffer buffer, short length, int options) {
+		return m_api.MQPut(queue, priority, buffer, length, options);
+	}
+
+	@Override
+	public short MQGet(int queue, ByteBuffer buffer, short bufLength, int options, int timeout, ShortByReference retMsgLength) {
+		return m_api.MQGet(queue, buffer, bufLength, options, timeout, retMsgLength);
+	}
+
+	@Override
+	public short MQScan(int queue, ByteBuffer buffer, short bufLength, int options, MQScanCallback actionRoutine, Pointer ctx, ShortByReference retMsgLength) {
+		return m_api.MQScan(queue, buffer, bufLength, options, actionRoutine, ctx, retMsgLength);
+	}
+
+	@Override
+	public void MQPutQuitMsg(int queue) {
+		m_api.MQPutQuitMsg(queue);
+	}
+
+	@Override
+	public boolean MQIsQuitPending(int queue) {
+		return m_api.MQIsQuitPending(queue);
+	}
+
+	@Override
+	public short MQGetCount(int queue) {
+		return m_api.MQGetCount(queue);
+	}
+
+	@Override
+	public short b32_SchFreeTimeSearch(NotesUniversalNoteIdStruct pApptUnid, NotesTimeDateStruct pApptOrigDate, short fFindFirstFit, int dwReserved, NotesTimeDatePairStruct pInterval, short Duration, Pointer pNames, IntByReference rethRange) {
+		return m_api.b32_SchFreeTimeSearch(pApptUnid, pApptOrigDate, fFindFirstFit, dwReserved, pInterval, Duration, pNames, rethRange);
+	}
+
+	@Override
+	public short b64_SchFreeTimeSearch(NotesUniversalNoteIdStruct pApptUnid, NotesTimeDateStruct pApptOrigDate, short fFindFirstFit, int dwReserved, NotesTimeDatePairStruct pInterval, short Duration, Pointer pNames, LongByReference rethRange) {
+		return m_api.b64_SchFreeTimeSearch(pApptUnid, pApptOrigDate, fFindFirstFit, dwReserved, pInterval, Duration, pNames, rethRange);
+	}
+
+	@Override
+	public short b64_SchRetrieve(NotesUniversalNoteIdStruct pApptUnid, NotesTimeDateStruct pApptOrigDate, int dwOptions, NotesTimeDatePairStruct pInterval, Pointer pNames, LongByReference rethCntnr, Pointer mustBeNull1, Pointer mustBeNull2, Pointer mustBeNull3) {
+		return m_api.b64_SchRetrieve(pApptUnid, pApptOrigDate, dwOptions, pInterval, pNames, rethCntnr, mustBeNull1, mustBeNull2, mustBeNull3);
+	}
+
+	@Override
+	public short b32_SchRetrieve(NotesUniversalNoteIdStruct pApptUnid, NotesTimeDateStruct pApptOrigDate, int dwOptions, NotesTimeDatePairStruct pInterval, Pointer pNames, IntByReference rethCntnr, Pointer mustBeNull1, Pointer mustBeNull2, Pointer mustBeNull3) {
+		return m_api.b32_SchRetrieve(pApptUnid, pApptOrigDate, dwOptions, pInterval, pNames, rethCntnr, mustBeNull1, mustBeNull2, mustBeNull3);
+	}
+
+	@Override
+	public void b64_SchContainer_Free(long hCntnr) {
+		m_api.b64_SchContainer_Free(hCntnr);
+	}
+
+	@Override
+	public void b32_SchContainer_Free(int hCntnr) {
+		m_api.b32_SchContainer_Free(hCntnr);
+	}
+
+	@Override
+	public short b64_SchContainer_GetFirstSchedule(long hCntnr, IntByReference rethObj, Memory retpSchedule) {
+		return m_api.b64_SchContainer_GetFirstSchedule(hCntnr, rethObj, retpSchedule);
+	}
+
+	@Override
+	public short b32_SchContainer_GetFirstSchedule(int hCntnr, IntByReference rethObj, Memory retpSchedule) {
+		return m_api.b32_SchContainer_GetFirstSchedule(hCntnr, rethObj, retpSchedule);
+	}
+
+	@Override
+	public short b64_Schedule_Free(long hCntnr, int hSched) {
+		return m_api.b64_Schedule_Free(hCntnr, hSched);
+	}
+
+	@Override
+	public short b32_Schedule_Free(int hCntnr, int hSched) {
+		return m_api.b32_Schedule_Free(hCntnr, hSched);
+	}
+
+	@Override
+	public short b64_SchContainer_GetNextSchedule(long hCntnr, int hCurSchedule, IntByReference rethNextSchedule, Memory retpNextSchedule) {
+		return m_api.b64_SchContainer_GetNextSchedule(hCntnr, hCurSchedule, rethNextSchedule, retpNextSchedule);
+	}
+
+	@Override
+	public short b32_SchContainer_GetNextSchedule(int hCntnr, int hCurSchedule, IntByReference rethNextSchedule, Memory retpNextSchedule) {
+		return m_api.b32_SchContainer_GetNextSchedule(hCntnr, hCurSchedule, rethNextSchedule, retpNextSchedule);
+	}
+
+	@Override
+	public short b64_Schedule_ExtractFreeTimeRange(long hCntnr, int hSchedObj, NotesUniversalNoteIdStruct punidIgnore, short fFindFirstFit, short wDuration, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, LongByReference rethRange) {
+		return m_api.b64_Schedule_ExtractFreeTimeRange(hCntnr, hSchedObj, punidIgnore, fFindFirstFit, wDuration, pInterval, retdwSize, rethRange);
+	}
+
+	@Override
+	public short b32_Schedule_ExtractFreeTimeRange(int hCntnr, int hSchedObj, NotesUniversalNoteIdStruct punidIgnore, short fFindFirstFit, short wDuration, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, IntByReference rethRange) {
+		return m_api.b32_Schedule_ExtractFreeTimeRange(hCntnr, hSchedObj, punidIgnore, fFindFirstFit, wDuration, pInterval, retdwSize, rethRange);
+	}
+
+	@Override
+	public short b64_Schedule_ExtractBusyTimeRange(long hCntnr, int hSchedObj, NotesUniversalNoteIdStruct punidIgnore, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, LongByReference rethRange, IntByReference rethMoreCtx) {
+		return m_api.b64_Schedule_ExtractBusyTimeRange(hCntnr, hSchedObj, punidIgnore, pInterval, retdwSize, rethRange, rethMoreCtx);
+	}
+
+	@Override
+	public short b32_Schedule_ExtractBusyTimeRange(int hCntnr, int hSchedObj, NotesUniversalNoteIdStruct punidIgnore, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, IntByReference rethRange, IntByReference rethMoreCtx) {
+		return m_api.b32_Schedule_ExtractBusyTimeRange(hCntnr, hSchedObj, punidIgnore, pInterval, retdwSize, rethRange, rethMoreCtx);
+	}
+
+	@Override
+	public short b64_Schedule_ExtractMoreBusyTimeRange(long hCntnr, int hMoreCtx, NotesUniversalNoteIdStruct punidIgnore, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, LongByReference rethRange, IntByReference rethMore) {
+		return m_api.b64_Schedule_ExtractMoreBusyTimeRange(hCntnr, hMoreCtx, punidIgnore, pInterval, retdwSize, rethRange, rethMore);
+	}
+
+	@Override
+	public short b32_Schedule_ExtractMoreBusyTimeRange(int hCntnr, int hMoreCtx, NotesUniversalNoteIdStruct punidIgnore, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, IntByReference rethRange, IntByReference rethMore) {
+		return m_api.b32_Schedule_ExtractMoreBusyTimeRange(hCntnr, hMoreCtx, punidIgnore, pInterval, retdwSize, rethRange, rethMore);
+	}
+
+	@Override
+	public short b64_Schedule_ExtractSchedList(long hCntnr, int hSchedObj, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, LongByReference rethSchedList, IntByReference rethMore) {
+		return m_api.b64_Schedule_ExtractSchedList(hCntnr, hSchedObj, pInterval, retdwSize, rethSchedList, rethMore);
+	}
+
+	@Override
+	public short b32_Schedule_ExtractSchedList(int hCntnr, int hSchedObj, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, IntByReference rethSchedList, IntByReference rethMore) {
+		return m_api.b32_Schedule_ExtractSchedList(hCntnr, hSchedObj, pInterval, retdwSize, rethSchedList, rethMore);
+	}
+
+	@Override
+	public short b64_Schedule_ExtractMoreSchedList(long hCntnr, int hMoreCtx, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, LongByReference rethSchedList, IntByReference rethMore) {
+		return m_api.b64_Schedule_ExtractMoreSchedList(hCntnr, hMoreCtx, pInterval, retdwSize, rethSchedList, rethMore);
+	}
+
+	@Override
+	public short b32_Schedule_ExtractMoreSchedList(int hCntnr, int hMoreCtx, NotesTimeDatePairStruct pInterval, IntByReference retdwSize, IntByReference rethSchedList, IntByReference rethMore) {
+		return m_api.b32_Schedule_ExtractMoreSchedList(hCntnr, hMoreCtx, pInterval, retdwSize, rethSchedList, rethMore);
+	}
+
+	@Override
+	public short b64_Schedule_Access(long hCntnr, int hSched, PointerByReference pretSched) {
+		return m_api.b64_Schedule_Access(hCntnr, hSched, pretSched);
+	}
+
+	@Override
+	public short b32_Schedule_Access(int hCntnr, int hSched, PointerByReference pretSched) {
+		return m_api.b32_Schedule_Access(hCntnr, hSched, pretSched);
+	}
+
+	@Override
+	public short b64_NSGetServerClusterMates(Memory pServerName, int dwFlags, LongByReference phList) {
+		return m_api.b64_NSGetServerClusterMates(pServerName, dwFlags, phList);
+	}
+
+	@Override
+	public short b32_NSGetServerClusterMates(Memory pServerName, int dwFlags, IntByReference phList) {
+		return m_api.b32_NSGetServerClusterMates(pServerName, dwFlags, phList);
+	}
+
+	@Override
+	public short b64_NSPingServer(Memory pServerName, IntByReference pdwIndex, LongByReference phList) {
+		return m_api.b64_NSPingServer(pServerName, pdwIndex, phList);
+	}
+
+	@Override
+	public short b32_NSPingServer(Memory pServerName, IntByReference pdwIndex, IntByReference phList) {
+		return m_api.b32_NSPingServer(pServerName, pdwIndex, phList);
+	}
+
+	@Override
+	public short b64_NIFGetCollectionData(long hCollection, LongByReference rethCollData) {
+		return m_api.b64_NIFGetCollectionData(hCollection, rethCollData);
+	}
+
+	@Override
+	public short b32_NIFGetCollectionData(int hCollection, IntByReference rethCollData) {
+		return m_api.b32_NIFGetCollectionData(hCollection, rethCollData);
+	}
+
+	@Override
+	public short ReplicateWithServerExt(Memory PortName, Memory ServerName, int Options, short NumFiles, Memory FileList, ReplExtensionsStruct ExtendedOptions, ReplServStatsStruct retStats) {
+		return m_api.ReplicateWithServerExt(PortName, ServerName, Options, NumFiles, FileList, ExtendedOptions, retStats);
+	}
+
+	@Override
+	public OSSIGPROC OSGetSignalHandler(short signalHandlerID) {
+		return m_api.OSGetSignalHandler(signalHandlerID);
+	}
+
+	@Override
+	public OSSIGPROC OSSetSignalHandler(short signalHandlerID, OSSIGPROC routine) {
+		return m_api.OSSetSignalHandler(signalHandlerID, routine);
+	}
+
+	@Override
+	public short b64_HTMLCreateConverter(LongByReference phHTML) {
+		return m_api.b64_HTMLCreateConverter(phHTML);
+	}
+
+	@Override
+	public short b32_HTMLCreateConverter(IntByReference phHTML) {
+		return m_api.b32_HTMLCreateConverter(phHTML);
+	}
+
+	@Override
+	public short b64_HTMLDestroyConverter(long hHTML) {
+		return m_api.b64_HTMLDestroyConverter(hHTML);
+	}
+
+	@Override
+	public short b32_HTMLDestroyConverter(int hHTML) {
+		return m_api.b32_HTMLDestroyConverter(hHTML);
+	}
+
+	@Override
+	public short b64_HTMLSetHTMLOptions(long hHTML, StringArray optionList) {
+		return m_api.b64_HTMLSetHTMLOptions(hHTML, optionList);
+	}
+
+	@Override
+	public short b32_HTMLSetHTMLOptions(int hHTML, StringArray optionList) {
+		return m_api.b32_HTMLSetHTMLOptions(hHTML, optionList);
+	}
+
+	@Override
+	public short b64_HTMLConvertItem(long hHTML, long hDB, long hNote, Memory pszItemName) {
+		return m_api.b64_HTMLConvertItem(hHTML, hDB, hNote, pszItemName);
+	}
+
+	@Override
+	public short b32_HTMLConvertItem(int hHTML, int hDB, int hNote, Memory pszItemName) {
+		return m_api.b32_HTMLConvertItem(hHTML, hDB, hNote, pszItemName);
+	}
+
+	@Override
+	public short b64_HTMLConvertNote(long hHTML, long hDB, long hNote, int NumArgs, HtmlApi_UrlComponentStruct pArgs) {
+		return m_api.b64_HTMLConvertNote(hHTML, hDB, hNote, NumArgs, pArgs);
+	}
+
+	@Override
+	public short b32_HTMLConvertNote(int hHTML, int hDB, int hNote, int NumArgs, HtmlApi_UrlComponentStruct pArgs) {
+		return m_api.b32_HTMLConvertNote(hHTML, hDB, hNote, NumArgs, pArgs);
+	}
+
+	@Override
+	public short b64_HTMLGetProperty(long hHTML, long PropertyType, Pointer pProperty) {
+		return m_api.b64_HTMLGetProperty(hHTML, PropertyType, pProperty);
+	}
+
+	@Override
+	public short b32_HTMLGetProperty(int hHTML, int PropertyType, Pointer pProperty) {
+		return m_api.b32_HTMLGetProperty(hHTML, PropertyType, pProperty);
+	}
+
+	@Override
+	public short b64_HTMLSetProperty(int hHTML, long PropertyType, Memory pProperty) {
+		return m_api.b64_HTMLSetProperty(hHTML, PropertyType, pProperty);
+	}
+
+	@Override
+	public short b32_HTMLSetProperty(int hHTML, int PropertyType, Memory pProperty) {
+		return m_api.b32_HTMLSetProperty(hHTML, PropertyType, pProperty);
+	}
+
+	@Override
+	public short b64_HTMLGetText(long hHTML, int startingOffset, IntByReference pTextLength, Memory pText) {
+		return m_api.b64_HTMLGetText(hHTML, startingOffset, pTextLength, pText);
+	}
+
+	@Override
+	public short b32_HTMLGetText(int hHTML, int StartingOffset, IntByReference pTextLength, Memory pText) {
+		return m_api.b32_HTMLGetText(hHTML, StartingOffset, pTextLength, pText);
+	}
+
+	@Override
+	public short b64_HTMLGetReference(long hHTML, int Index, LongByReference phRef) {
+		return m_api.b64_HTMLGetReference(hHTML, Index, phRef);
+	}
+
+	@Override
+	public short b32_HTMLGetReference(int hHTML, int Index, IntByReference phRef) {
+		return m_api.b32_HTMLGetReference(hHTML, Index, phRef);
+	}
+
+	@Override
+	public short b64_HTMLLockAndFixupReference(long hRef, Memory ppRef) {
+		return m_api.b64_HTMLLockAndFixupReference(hRef, ppRef);
+	}
+
+	@Override
+	public short b32_HTMLLockAndFixupReference(int hRef, Memory ppRef) {
+		return m_api.b32_HTMLLockAndFixupReference(hRef, ppRef);
+	}
+
+	@Override
+	public short b64_HTMLConvertElement(long hHTML, long hDB, long hNote, Memory pszItemName, int ItemIndex, int Offset) {
+		return m_api.b64_HTMLConvertElement(hHTML, hDB, hNote, pszItemName, ItemIndex, Offset);
+	}
+
+	@Override
+	public short b32_HTMLConvertElement(int hHTML, int hDB, int hNote, Memory pszItemName, int ItemIndex, int Offset) {
+		return m_api.b32_HTMLConvertElement(hHTML, hDB, hNote, pszItemName, ItemIndex, Offset);
+	}
+
+	@Override
+	public short HTMLConvertImage(int hHTML, Memory pszImageName) {
+		return m_api.HTMLConvertImage(hHTML, pszImageName);
+	}
+
+	@Override
+	public short REGGetIDInfo(Memory IDFileName, short InfoType, Memory OutBufr, short OutBufrLen, ShortByReference ActualLen) {
+		return m_api.REGGetIDInfo(IDFileName, InfoType, OutBufr, OutBufrLen, ActualLen);
+	}
+
+	@Override
+	public Pointer OSGetLMBCSCLS() {
+		return m_api.OSGetLMBCSCLS();
+	}
+
+	@Override
+	public short b64_CompoundTextAddCDRecords(long hCompound, Pointer pvRecord, int dwRecordLength) {
+		return m_api.b64_CompoundTextAddCDRecords(hCompound, pvRecord, dwRecordLength);
+	}
+
+	@Override
+	public short b32_CompoundTextAddCDRecords(int hCompound, Pointer pvRecord, int dwRecordLength) {
+		return m_api.b32_CompoundTextAddCDRecords(hCompound, pvRecord, dwRecordLength);
+	}
+
+	@Override
+	public short b64_CompoundTextAddDocLink(long hCompound, NotesTimeDateStruct.ByValue DBReplicaID, NotesUniversalNoteIdStruct.ByValue ViewUNID, NotesUniversalNoteIdStruct.ByValue NoteUNID, Memory pszComment, int dwFlags) {
+		return m_api.b64_CompoundTextAddDocLink(hCompound, DBReplicaID, ViewUNID, NoteUNID, pszComment, dwFlags);
+	}
+
+	@Override
+	public short b32_CompoundTextAddDocLink(int hCompound, NotesTimeDateStruct.ByValue DBReplicaID, NotesUniversalNoteIdStruct.ByValue ViewUNID, NotesUniversalNoteIdStruct.ByValue NoteUNID, Memory pszComment, int dwFlags) {
+		return m_api.b32_CompoundTextAddDocLink(hCompound, DBReplicaID, ViewUNID, NoteUNID, pszComment, dwFlags);
+	}
+
+	@Override
+	public short b64_CompoundTextAddParagraphExt(long hCompound, int dwStyleID, int FontID, Memory pchText, int dwTextLen, Pointer pInfo) {
+		return m_api.b64_CompoundTextAddParagraphExt(hCompound, dwStyleID, FontID, pchText, dwTextLen, pInfo);
+	}
+
+	@Override
+	public short b32_CompoundTextAddParagraphExt(int hCompound, int dwStyleID, int FontID, Memory pchText, int dwTextLen, Pointer pInfo) {
+		return m_api.b32_CompoundTextAddParagraphExt(hCompound, dwStyleID, FontID, pchText, dwTextLen, pInfo);
+	}
+
+	@Override
+	public short b64_CompoundTextAddRenderedNote(long hCompound, long hNote, long hFormNote, int dwFlags) {
+		return m_api.b64_CompoundTextAddRenderedNote(hCompound, hNote, hFormNote, dwFlags);
+	}
+
+	@Override
+	public short b32_CompoundTextAddRenderedNote(int hCompound, int hNote, int hFormNote, int dwFlags) {
+		return m_api.b32_CompoundTextAddRenderedNote(hCompound, hNote, hFormNote, dwFlags);
+	}
+
+	@Override
+	public short b64_CompoundTextAddTextExt(long hCompound, int dwStyleID, int FontID, Memory pchText, int dwTextLen, Memory pszLineDelim, int dwFlags, Pointer pInfo) {
+		return m_api.b64_CompoundTextAddTextExt(hCompound, dwStyleID, FontID, pchText, dwTextLen, pszLineDelim, dwFlags, pInfo);
+	}
+
+	@Override
+	public short b32_CompoundTextAddTextExt(int hCompound, int dwStyleID, int FontID, Memory pchText, int dwTextLen, Memory pszLineDelim, int dwFlags, Pointer pInfo) {
+		return m_api.b32_CompoundTextAddTextExt(hCompound, dwStyleID, FontID, pchText, dwTextLen, pszLineDelim, dwFlags, pInfo);
+	}
+
+	@Override
+	public short b64_CompoundTextAssimilateFile(long hCompound, Memory pszFileName, int dwFlags) {
+		return m_api.b64_CompoundTextAssimilateFile(hCompound, pszFileName, dwFlags);
+	}
+
+	@Override
+	public short b32_CompoundTextAssimilateFile(int hCompound, Memory pszFileName, int dwFlags) {
+		return m_api.b32_CompoundTextAssimilateFile(hCompound, pszFileName, dwFlags);
+	}
+
+	@Override
+	public short b64_CompoundTextAssimilateItem(long hCompound, long hNote, Memory pszItemName, int dwFlags) {
+		return m_api.b64_CompoundTextAssimilateItem(hCompound, hNote, pszItemName, dwFlags);
+	}
+
+	@Override
+	public short b32_CompoundTextAssimilateItem(int hCompound, int hNote, Memory pszItemName, int dwFlags) {
+		return m_api.b32_CompoundTextAssimilateItem(hCompound, hNote, pszItemName, dwFlags);
+	}
+
+	@Override
+	public short b64_CompoundTextAssimilateBuffer(long hBuffer, int bufferLength, int flags) {
+		return m_api.b64_CompoundTextAssimilateBuffer(hBuffer, bufferLength, flags);
+	}
+
+	@Override
+	public short b32_CompoundTextAssimilateBuffer(int hBuffer, int bufferLength, int flags) {
+		return m_api.b32_CompoundTextAssimilateBuffer(hBuffer, bufferLength, flags);
+	}
+
+	@Override
+	public short b64_CompoundTextClose(long hCompound, LongByReference phReturnBuffer, IntByReference pdwReturnBufferSize, Memory pchReturnFile, short wReturnFileNameSize) {
+		return m_api.b64_CompoundTextClose(hCompound, phReturnBuffer, pdwReturnBufferSize, pchReturnFile, wReturnFileNameSize);
+	}
+
+	@Override
+	public short b32_CompoundTextClose(int hCompound, IntByReference phReturnBuffer, IntByReference pdwReturnBufferSize, Memory pchReturnFile, short wReturnFileNameSize) {
+		return m_api.b32_CompoundTextClose(hCompound, phReturnBuffer, pdwReturnBufferSize, pchReturnFile, wReturnFileNameSize);
+	}
+
+	@Override
+	public short b64_CompoundTextCreate(long hNote, Memory pszItemName, LongByReference phCompound) {
+		return m_api.b64_CompoundTextCreate(hNote, pszItemName, phCompound);
+	}
+
+	@Override
+	public short b32_CompoundTextCreate(int hNote, Memory pszItemName, IntByReference phCompound) {
+		return m_api.b32_CompoundTextCreate(hNote, pszItemName, phCompound);
+	}
+
+	@Override
+	public short b64_CompoundTextDefineStyle(long hCompound, Memory pszStyleName, NotesCompoundStyleStruct pDefinition, IntByReference pdwStyleID) {
+		return m_api.b64_CompoundTextDefineStyle(hCompound, pszStyleName, pDefinition, pdwStyleID);
+	}
+
+	@Override
+	public short b32_CompoundTextDefineStyle(int hCompound, Memory pszStyleName, NotesCompoundStyleStruct pDefinition, IntByReference pdwStyleID) {
+		return m_api.b32_CompoundTextDefineStyle(hCompound, pszStyleName, pDefinition, pdwStyleID);
+	}
+
+	@Override
+	public void b64_CompoundTextDiscard(long hCompound) {
+		m_api.b64_CompoundTextDiscard(hCompound);
+	}
+
+	@Override
+	public void b32_CompoundTextDiscard(int hCompound) {
+		m_api.b32_CompoundTextDiscard(hCompound);
+	}
+
+	@Override
+	public void CompoundTextInitStyle(NotesCompoundStyleStruct style) {
+		m_api.CompoundTextInitStyle(style);
+	}
+
+	@Override
+	public short EnumCompositeBuffer(NotesBlockIdStruct.ByValue ItemValue, int ItemValueLength, ActionRoutinePtr ActionRoutine, Pointer vContext) {
+		return m_api.EnumCompositeBuffer(ItemValue, ItemValueLength, ActionRoutine, vContext);
+	}
+
+	/**
+	 * Subclass of {@link DirectMappedNotesCAPI} for Windows platforms
+	 */
+	public static class Win extends DirectMappedNotesCAPI implements WinNotesCAPI {
+		
+		public Win(WinNotesCAPI api) {
+			super(api);
+		}
+	}
+	
+	/**
+	 * Subclass of {@link DirectMappedNotesCAPI} for Mac platforms
+	 */
+	public static class Mac extends DirectMappedNotesCAPI implements MacNotesCAPI {
+		
+		public Mac(MacNotesCAPI api) {
+			super(api);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.mindoo.domino.jna.internal;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Java implementation of the conversion between the innards of a C API TIMEDATE value and
+ * Java time values, used to avoid native calls and struct allocations when decoding
+ * view and search results.<br>
+ * <br>
+ * Layout of the innards:<br>
+ * <ul>
+ * <li>innards[0]: time since midnight GMT in hundredths of a second or {@link NotesCAPI#ALLDAY} for date-only values</li>
+ * <li>innards[1]: bits 0-23 Julian day, bits 24-27 zone hours, bits 28-29 zone quarter hours, bit 30 set for zones east of GMT,
+ * bit 31 set if the zone observes daylight saving time; {@link NotesCAPI#ANYDAY} for time-only values</li>
+ * </ul>
+ * The zone and DST bits only describe the zone of the writer, the point in time is fully defined by the
+ * Julian day and the ticks.
+ *
+ * @author Karsten Lehmann
+ */
+public class InnardsConverter {
+	private static final long MILLISECS_IN_DAY = 24 * 60 * 60 * 1000;
+	private static final int JULIAN_DAY_1970 = 2440588;
+
+	private static final int DST_MASK = 0x80000000;
+	private static final int ZONE_EAST_OF_GMT_MASK = 0x40000000;
+	private static final int ZONE_QUARTERS_MASK = 0x30000000;
+	private static final int ZONE_HOURS_MASK = 0x0F000000;
+	private static final int JULIAN_DAY_MASK = 0x00FFFFFF;
+
+	/**
+	 * Checks if the innards contain a date and a time, which is required for the
+	 * Java conversion. Date-only and time-only values are not bound to a zone.
+	 *
+	 * @param innards innards
+	 * @return true if date and time are set
+	 */
+	public static boolean hasDateAndTime(int[] innards) {
+		return innards[0]!=NotesCAPI.ALLDAY && innards[1]!=NotesCAPI.ANYDAY;
+	}
+
+	/**
+	 * Converts innards with date and time to milliseconds since 1970-01-01 GMT
+	 *
+	 * @param innards innards
+	 * @return epoch millis
+	 */
+	public static long innardsToMillis(int[] innards) {
+		return innardsToMillis(innards[0], innards[1]);
+	}
+
+	/**
+	 * Converts innards with date and time to milliseconds since 1970-01-01 GMT
+	 *
+	 * @param innards0 first innard value with the ticks
+	 * @param innards1 second innard value with the Julian day and zone
+	 * @return epoch millis
+	 */
+	public static long innardsToMillis(int innards0, int innards1) {
+		long julianDay = innards1 & JULIAN_DAY_MASK;
+		return (julianDay - JULIAN_DAY_1970) * MILLISECS_IN_DAY + 10L * innards0;
+	}
+
+	/**
+	 * Converts innards with date and time to a {@link Calendar}
+	 *
+	 * @param innards innards
+	 * @param tz zone of the calendar
+	 * @return calendar
+	 */
+	public static Calendar decodeInnards(int[] innards, TimeZone tz) {
+		Calendar cal = Calendar.getInstance(tz);
+		cal.setTimeInMillis(innardsToMillis(innards));
+		return cal;
+	}
+
+	/**
+	 * Converts a point in time to innards with date and time
+	 *
+	 * @param millis milliseconds since 1970-01-01 GMT
+	 * @param tz zone written to the zone and DST bits
+	 * @return innards
+	 */
+	public static int[] encodeInnards(long millis, TimeZone tz) {
+		long days = millis / MILLISECS_IN_DAY;
+		long millisInDay = millis % MILLISECS_IN_DAY;
+		if (millisInDay < 0) {
+			days--;
+			millisInDay += MILLISECS_IN_DAY;
+		}
+
+		int[] innards = new int[2];
+		innards[0] = (int) (millisInDay / 10);
+		innards[1] = ((int) (JULIAN_DAY_1970 + days) & JULIAN_DAY_MASK) | encodeZone(tz);
+		return innards;
+	}
+
+	/**
+	 * Computes the zone and DST bits of the second innard value
+	 *
+	 * @param tz zone
+	 * @return bits
+	 */
+	private static int encodeZone(TimeZone tz) {
+		int offsetMinutes = tz.getRawOffset() / (60 * 1000);
+
+		int bits = 0;
+		if (tz.useDaylightTime()) {
+			bits |= DST_MASK;
+		}
+		if (offsetMinutes > 0) {
+			bits |= ZONE_EAST_OF_GMT_MASK;
+		}
+		int absOffsetMinutes = Math.abs(offsetMinutes);
+		bits |= ((absOffsetMinutes / 60) << 24) & ZONE_HOURS_MASK;
+		bits |= (((absOffsetMinutes % 60) / 15) << 28) & ZONE_QUARTERS_MASK;
+		return bits;
+	}
+}
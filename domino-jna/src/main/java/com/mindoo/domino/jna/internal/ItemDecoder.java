@@ -4,12 +4,9 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
-import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.errors.NotesErrorUtils;
 import com.mindoo.domino.jna.structs.NotesNumberPairStruct;
 import com.mindoo.domino.jna.structs.NotesRangeStruct;
-import com.mindoo.domino.jna.structs.NotesTimeDatePairStruct;
-import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
 import com.mindoo.domino.jna.utils.LMBCSString;
 import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
 import com.mindoo.domino.jna.utils.NotesStringUtils;
@@ -81,13 +78,42 @@ public class ItemDecoder {
 	}
 	
 	public static Calendar decodeTimeDate(NotesCAPI notesAPI, final Pointer ptr, int valueLength, boolean useDayLight, int gmtOffset) {
-		NotesTimeDateStruct timeDateStruct = NotesTimeDateStruct.newInstance(ptr);
-		NotesTimeDate timeDate = new NotesTimeDate(timeDateStruct);
+		//read the innards directly without allocating a NotesTimeDateStruct
+		int[] innards = new int[] {ptr.getInt(0), ptr.getInt(4)};
 		
-		Calendar calDate = NotesDateTimeUtils.timeDateToCalendar(useDayLight, gmtOffset, timeDate);
+		Calendar calDate = NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, innards);
 		return calDate;
 	}
 	
+	/**
+	 * Decodes a TIMEDATE value with date and time to a {@link Long} with the milliseconds since 1970-01-01 GMT
+	 * without creating a {@link Calendar}. Date-only and time-only values are returned as {@link Calendar}.
+	 * 
+	 * @param notesAPI Notes API
+	 * @param ptr pointer to the value
+	 * @param valueLength value length
+	 * @param useDayLight DST to convert date-only and time-only values
+	 * @param gmtOffset GMT offset to convert date-only and time-only values
+	 * @return Long, Calendar or null
+	 */
+	public static Object decodeTimeDateAsMillis(NotesCAPI notesAPI, final Pointer ptr, int valueLength, boolean useDayLight, int gmtOffset) {
+		int innards0 = ptr.getInt(0);
+		int innards1 = ptr.getInt(4);
+		return decodeInnardsAsMillis(innards0, innards1, useDayLight, gmtOffset);
+	}
+	
+	private static Object decodeInnardsAsMillis(int innards0, int innards1, boolean useDayLight, int gmtOffset) {
+		if (innards0==0 && innards1==0) {
+			return null;
+		}
+		else if (innards0!=NotesCAPI.ALLDAY && innards1!=NotesCAPI.ANYDAY) {
+			return Long.valueOf(InnardsConverter.innardsToMillis(innards0, innards1));
+		}
+		else {
+			return NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, new int[] {innards0, innards1});
+		}
+	}
+	
 	public static List<Object> decodeNumberList(NotesCAPI notesAPI, Pointer ptr, int valueLength) {
 		NotesRangeStruct range = NotesRangeStruct.newInstance(ptr);
 		range.read();
@@ -123,6 +149,25 @@ public class ItemDecoder {
 	}
 	
 	public static List<Object> decodeTimeDateList(NotesCAPI notesAPI, Pointer ptr, boolean useDayLight, int gmtOffset) {
+		return decodeTimeDateList(ptr, useDayLight, gmtOffset, false);
+	}
+	
+	/**
+	 * Decodes a TIMEDATE list/range. Values with date and time are returned as {@link Long} with the milliseconds
+	 * since 1970-01-01 GMT, ranges of them as long[] arrays. Date-only and time-only values are returned as
+	 * {@link Calendar} and {@link Calendar} arrays.
+	 * 
+	 * @param notesAPI Notes API
+	 * @param ptr pointer to the value
+	 * @param useDayLight DST to convert date-only and time-only values
+	 * @param gmtOffset GMT offset to convert date-only and time-only values
+	 * @return list values
+	 */
+	public static List<Object> decodeTimeDateListAsMillis(NotesCAPI notesAPI, Pointer ptr, boolean useDayLight, int gmtOffset) {
+		return decodeTimeDateList(ptr, useDayLight, gmtOffset, true);
+	}
+	
+	private static List<Object> decodeTimeDateList(Pointer ptr, boolean useDayLight, int gmtOffset, boolean asMillis) {
 		NotesRangeStruct range = NotesRangeStruct.newInstance(ptr);
 		range.read();
 		
@@ -135,32 +180,41 @@ public class ItemDecoder {
 		
 		List<Object> calendarValues = new ArrayList<Object>(listEntriesAsInt + rangeEntriesAsInt);
 		
+		//read the innards directly without allocating NotesTimeDateStruct / NotesTimeDatePairStruct objects
 		for (int t=0; t<listEntriesAsInt; t++) {
-			Pointer ptrListEntry = ptrAfterRange.share(t * NotesCAPI.timeDateSize);
-			NotesTimeDateStruct timeDateStruct = NotesTimeDateStruct.newInstance(ptrListEntry);
-			NotesTimeDate timeDate = new NotesTimeDate(timeDateStruct);
+			long entryOffset = t * NotesCAPI.timeDateSize;
+			int innards0 = ptrAfterRange.getInt(entryOffset);
+			int innards1 = ptrAfterRange.getInt(entryOffset + 4);
 			
-			Calendar calDate = NotesDateTimeUtils.timeDateToCalendar(useDayLight, gmtOffset, timeDate);
-			if (calDate!=null) {
-				calendarValues.add(calDate);
+			Object value;
+			if (asMillis) {
+				value = decodeInnardsAsMillis(innards0, innards1, useDayLight, gmtOffset);
+			}
+			else {
+				value = NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, new int[] {innards0, innards1});
+			}
+			if (value!=null) {
+				calendarValues.add(value);
 			}
 		}
 		
 		//move position to the range data
-		Pointer ptrAfterListEntries = ptrAfterRange.share(listEntriesAsInt * NotesCAPI.timeDateSize);
+		long rangeDataOffset = listEntriesAsInt * NotesCAPI.timeDateSize;
 		
 		for (int t=0; t<rangeEntriesAsInt; t++) {
-			Pointer ptrRangeEntry = ptrAfterListEntries.share(t * NotesCAPI.timeDatePairSize);
-			NotesTimeDatePairStruct timeDatePair = NotesTimeDatePairStruct.newInstance(ptrRangeEntry);
-			timeDatePair.read();
+			long entryOffset = rangeDataOffset + t * NotesCAPI.timeDatePairSize;
+			int[] lowerInnards = new int[] {ptrAfterRange.getInt(entryOffset), ptrAfterRange.getInt(entryOffset + 4)};
+			int[] upperInnards = new int[] {ptrAfterRange.getInt(entryOffset + 8), ptrAfterRange.getInt(entryOffset + 12)};
 			
-			NotesTimeDateStruct lowerTimeDate = timeDatePair.Lower;
-			NotesTimeDateStruct upperTimeDate = timeDatePair.Upper;
-			
-			Calendar lowerCalDate = NotesDateTimeUtils.timeDateToCalendar(useDayLight, gmtOffset, new NotesTimeDate(lowerTimeDate));
-			Calendar upperCalDate = NotesDateTimeUtils.timeDateToCalendar(useDayLight, gmtOffset, new NotesTimeDate(upperTimeDate));
-			
-			calendarValues.add(new Calendar[] {lowerCalDate, upperCalDate});
+			if (asMillis && InnardsConverter.hasDateAndTime(lowerInnards) && InnardsConverter.hasDateAndTime(upperInnards)) {
+				calendarValues.add(new long[] {InnardsConverter.innardsToMillis(lowerInnards), InnardsConverter.innardsToMillis(upperInnards)});
+			}
+			else {
+				Calendar lowerCalDate = NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, lowerInnards);
+				Calendar upperCalDate = NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, upperInnards);
+				
+				calendarValues.add(new Calendar[] {lowerCalDate, upperCalDate});
+			}
 		}
 		
 		return calendarValues;
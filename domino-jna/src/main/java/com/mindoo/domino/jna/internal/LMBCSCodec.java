@@ -0,0 +1,248 @@
+package com.mindoo.domino.jna.internal;
+
+import java.nio.ByteBuffer;
+
+import com.sun.jna.Pointer;
+
+/**
+ * Pure Java conversion between LMBCS (Lotus Multi-Byte Character Set) and Java Strings
+ * for the most common LMBCS groups, to avoid OSTranslate calls for non-ASCII text.<br>
+ * <br>
+ * Supported for decoding:
+ * <ul>
+ * <li>ASCII characters 0x20-0x7F, tab (0x09), LF (0x0A), CR (0x0D) and 0x19</li>
+ * <li>0x00 as line delimiter</li>
+ * <li>Group 1 (code page 850, Latin-1 characters), stored as single byte 0x80-0xFF (group 1
+ * is the optimization group in Notes) or with prefix byte 0x01</li>
+ * <li>Control characters (group 0x0F)</li>
+ * <li>Unicode group (0x14 followed by the UCS-2 character in big endian byte order)</li>
+ * </ul>
+ * Supported for encoding: ASCII, tab/CR/LF and the Latin-1 characters of group 1.<br>
+ * <br>
+ * Group 1 code points that do not map to Latin-1 (box drawing characters and a few symbols)
+ * and all other groups (e.g. Greek, Cyrillic or the DBCS groups) are not handled. For those, the
+ * methods return null and the caller needs to use OSTranslate instead.
+ *
+ * @author Karsten Lehmann
+ */
+public class LMBCSCodec {
+	private static final int GROUP_1 = 0x01;
+	private static final int GROUP_CTRL = 0x0F;
+	private static final int GROUP_UNICODE = 0x14;
+	private static final int CTRL_OFFSET = 0x20;
+	private static final int C1_START = 0x80;
+
+	/**
+	 * Code page 850 characters for bytes 0x80-0xFF
+	 */
+	private static final String CP850_HIGH =
+			"\u00C7\u00FC\u00E9\u00E2\u00E4\u00E0\u00E5\u00E7" +
+			"\u00EA\u00EB\u00E8\u00EF\u00EE\u00EC\u00C4\u00C5" +
+			"\u00C9\u00E6\u00C6\u00F4\u00F6\u00F2\u00FB\u00F9" +
+			"\u00FF\u00D6\u00DC\u00F8\u00A3\u00D8\u00D7\u0192" +
+			"\u00E1\u00ED\u00F3\u00FA\u00F1\u00D1\u00AA\u00BA" +
+			"\u00BF\u00AE\u00AC\u00BD\u00BC\u00A1\u00AB\u00BB" +
+			"\u2591\u2592\u2593\u2502\u2524\u00C1\u00C2\u00C0" +
+			"\u00A9\u2563\u2551\u2557\u255D\u00A2\u00A5\u2510" +
+			"\u2514\u2534\u252C\u251C\u2500\u253C\u00E3\u00C3" +
+			"\u255A\u2554\u2569\u2566\u2560\u2550\u256C\u00A4" +
+			"\u00F0\u00D0\u00CA\u00CB\u00C8\u0131\u00CD\u00CE" +
+			"\u00CF\u2518\u250C\u2588\u2584\u00A6\u00CC\u2580" +
+			"\u00D3\u00DF\u00D4\u00D2\u00F5\u00D5\u00B5\u00FE" +
+			"\u00DE\u00DA\u00DB\u00D9\u00FD\u00DD\u00AF\u00B4" +
+			"\u00AD\u00B1\u2017\u00BE\u00B6\u00A7\u00F7\u00B8" +
+			"\u00B0\u00A8\u00B7\u00B9\u00B3\u00B2\u25A0\u00A0";
+
+	/** group 1 byte (index = byte - 0x80) to char, 0 if we do not decode it in Java */
+	private static final char[] GROUP1_TO_CHAR = new char[128];
+	/** Latin-1 char (index = char - 0xA0) to group 1 byte, 0 if not in group 1 */
+	private static final byte[] LATIN1_TO_GROUP1 = new byte[96];
+
+	static {
+		for (int i=0; i<128; i++) {
+			char c = CP850_HIGH.charAt(i);
+			//only use the Latin-1 part of code page 850, which is the same for all its variants
+			if (c>=0xA0 && c<=0xFF) {
+				GROUP1_TO_CHAR[i] = c;
+				LATIN1_TO_GROUP1[c - 0xA0] = (byte) (0x80 + i);
+			}
+		}
+	}
+
+	/**
+	 * Decodes LMBCS data from native memory
+	 *
+	 * @param ptr pointer
+	 * @param len number of bytes to decode
+	 * @param lineDelimiter string to use for the LMBCS line delimiter 0x00, e.g. "\n"
+	 * @return string or null if the data contains characters that need to be converted by OSTranslate
+	 */
+	public static String decode(Pointer ptr, int len, String lineDelimiter) {
+		byte[] data = ptr.getByteArray(0, len);
+		return decode(data, 0, len, lineDelimiter);
+	}
+
+	/**
+	 * Decodes LMBCS data from a {@link ByteBuffer} without changing the buffer position
+	 *
+	 * @param buf buffer
+	 * @param startPosition position of the first byte
+	 * @param len number of bytes to decode
+	 * @param lineDelimiter string to use for the LMBCS line delimiter 0x00, e.g. "\n"
+	 * @return string or null if the data contains characters that need to be converted by OSTranslate
+	 */
+	public static String decode(ByteBuffer buf, int startPosition, int len, String lineDelimiter) {
+		if (buf.hasArray()) {
+			return decode(buf.array(), buf.arrayOffset() + startPosition, len, lineDelimiter);
+		}
+
+		//direct buffer, copy the data without changing the buffer position
+		byte[] data = new byte[len];
+		ByteBuffer dupBuf = buf.duplicate();
+		dupBuf.position(startPosition);
+		dupBuf.get(data);
+		return decode(data, 0, len, lineDelimiter);
+	}
+
+	/**
+	 * Decodes LMBCS data from a byte array
+	 *
+	 * @param data data
+	 * @param offset offset of the first byte
+	 * @param len number of bytes to decode
+	 * @param lineDelimiter string to use for the LMBCS line delimiter 0x00, e.g. "\n"
+	 * @return string or null if the data contains characters that need to be converted by OSTranslate
+	 */
+	public static String decode(byte[] data, int offset, int len, String lineDelimiter) {
+		char[] chars = new char[len * lineDelimiter.length()];
+		int charIdx = 0;
+		int endPosition = offset + len;
+		int pos = offset;
+
+		while (pos < endPosition) {
+			int b = data[pos++] & 0xff;
+
+			if (b>=0x20 && b<0x80) {
+				chars[charIdx++] = (char) b;
+			}
+			else if (b>=0x80) {
+				char c = GROUP1_TO_CHAR[b - 0x80];
+				if (c==0)
+					return null;
+				chars[charIdx++] = c;
+			}
+			else if (b==0) {
+				for (int i=0; i<lineDelimiter.length(); i++) {
+					chars[charIdx++] = lineDelimiter.charAt(i);
+				}
+			}
+			else if (b==0x09 || b==0x0A || b==0x0D || b==0x19) {
+				chars[charIdx++] = (char) b;
+			}
+			else if (b==GROUP_UNICODE) {
+				if (pos+2 > endPosition)
+					return null;
+				chars[charIdx++] = (char) (((data[pos] & 0xff) << 8) | (data[pos+1] & 0xff));
+				pos += 2;
+			}
+			else if (b==GROUP_1 || b==GROUP_CTRL) {
+				if (pos >= endPosition)
+					return null;
+				int c = decodeGroupByte(b, data[pos++] & 0xff);
+				if (c==-1)
+					return null;
+				chars[charIdx++] = (char) c;
+			}
+			else {
+				//other groups not supported
+				return null;
+			}
+		}
+
+		return new String(chars, 0, charIdx);
+	}
+
+	/**
+	 * Decodes the byte following a group 1 or control group prefix
+	 *
+	 * @param group group
+	 * @param b byte following the group byte
+	 * @return character or -1 if not supported
+	 */
+	private static int decodeGroupByte(int group, int b) {
+		if (group==GROUP_CTRL) {
+			//C0 control characters are stored with an offset, C1 control characters as is
+			if (b < C1_START) {
+				return b >= CTRL_OFFSET ? b - CTRL_OFFSET : -1;
+			}
+			else {
+				return b;
+			}
+		}
+		else {
+			if (b < C1_START)
+				return -1;
+			char c = GROUP1_TO_CHAR[b - 0x80];
+			return c==0 ? -1 : c;
+		}
+	}
+
+	/**
+	 * Encodes a string to LMBCS. Newlines (\n or \r\n) are converted to the LMBCS line delimiter 0x00.
+	 *
+	 * @param str string
+	 * @param addNull true to add a terminating null byte
+	 * @return LMBCS data or null if the string contains characters that need to be converted by OSTranslate
+	 */
+	public static byte[] encode(String str, boolean addNull) {
+		int strLen = str.length();
+		byte[] data = new byte[addNull ? strLen + 1 : strLen];
+		int dataIdx = 0;
+
+		for (int i=0; i<strLen; i++) {
+			char c = str.charAt(i);
+
+			if (c>=0x20 && c<0x80) {
+				data[dataIdx++] = (byte) c;
+			}
+			else if (c=='\n') {
+				data[dataIdx++] = 0;
+			}
+			else if (c=='\r') {
+				if ((i+1)<strLen && str.charAt(i+1)=='\n') {
+					//\r\n is one line delimiter
+					data[dataIdx++] = 0;
+					i++;
+				}
+				else {
+					data[dataIdx++] = (byte) c;
+				}
+			}
+			else if (c=='\t') {
+				data[dataIdx++] = (byte) c;
+			}
+			else if (c>=0xA0 && c<=0xFF) {
+				byte b = LATIN1_TO_GROUP1[c - 0xA0];
+				if (b==0)
+					return null;
+				data[dataIdx++] = b;
+			}
+			else {
+				return null;
+			}
+		}
+
+		if (addNull) {
+			data[dataIdx++] = 0;
+		}
+
+		if (dataIdx==data.length) {
+			return data;
+		}
+		else {
+			byte[] trimmedData = new byte[dataIdx];
+			System.arraycopy(data, 0, trimmedData, 0, dataIdx);
+			return trimmedData;
+		}
+	}
+}
@@ -15,20 +15,60 @@ import com.sun.jna.Memory;
 public class LMBCSStringConversionCache {
 	private static final String CACHE_KEY = "LMBCSStringCache";
 	
-	private static final int MAX_STRINGCACHE_SIZE_SHARED = 100000;
-	private static final int MAX_STRINGCACHE_SIZE_PERTHREAD = 1000;
+	/** System property to set the max size of the shared cache in bytes */
+	public static final String PROP_MAXSIZE_SHARED_BYTES = "mindoo.domino.jna.lmbcscache.maxbytes";
+	/** System property to set the number of segments of the shared cache, i.e. how many threads can access it in parallel */
+	public static final String PROP_CONCURRENCYLEVEL_SHARED = "mindoo.domino.jna.lmbcscache.concurrency";
+	/** System property to switch between a shared cache (default) and one cache per {@link NotesGC#runWithAutoGC(java.util.concurrent.Callable)} block */
+	public static final String PROP_USE_SHARED_CACHE = "mindoo.domino.jna.lmbcscache.shared";
 	
-	private static final int MAX_STRINGCACHE_SIZE_SHARED_BYTES = 750000;
+	private static final int DEFAULT_STRINGCACHE_SIZE_SHARED_BYTES = 750000;
+	private static final int DEFAULT_STRINGCACHE_CONCURRENCYLEVEL_SHARED = 16;
 	private static final int MAX_STRINGCACHE_SIZE_PERTHREAD_BYTES = 40000;
 
 	//switch to change cache scope for performance testing
-	private static final boolean USE_SHARED_CACHE = true;
-	private static LRULMBCCache SHAREDSTRINGCONVERSIONCACHE = new LRULMBCCache(MAX_STRINGCACHE_SIZE_SHARED_BYTES);
+	private static final boolean USE_SHARED_CACHE = NotesJNAProperties.getBoolean(PROP_USE_SHARED_CACHE, true);
+	private static final LRULMBCCache SHAREDSTRINGCONVERSIONCACHE = new LRULMBCCache(
+			NotesJNAProperties.getInt(PROP_MAXSIZE_SHARED_BYTES, DEFAULT_STRINGCACHE_SIZE_SHARED_BYTES),
+			NotesJNAProperties.getInt(PROP_CONCURRENCYLEVEL_SHARED, DEFAULT_STRINGCACHE_CONCURRENCYLEVEL_SHARED));
 
+	/**
+	 * Returns the current size of the cache in bytes
+	 * 
+	 * @return size
+	 */
 	public static int getCacheSize() {
 		return getCache().getCurrentCacheSizeInUnits();
 	}
 
+	/**
+	 * Returns the number of conversions that could be served from the cache
+	 * 
+	 * @return hits
+	 */
+	public static long getHitCount() {
+		return getCache().getHitCount();
+	}
+	
+	/**
+	 * Returns the number of conversions that were not cached
+	 * 
+	 * @return misses
+	 */
+	public static long getMissCount() {
+		return getCache().getMissCount();
+	}
+	
+	/**
+	 * Returns the number of entries that have been removed from the cache to stay
+	 * within the size limit
+	 * 
+	 * @return evictions
+	 */
+	public static long getEvictionCount() {
+		return getCache().getEvictionCount();
+	}
+	
 	private static LRULMBCCache getCache() {
 		LRULMBCCache cache;
 		if (USE_SHARED_CACHE) {
@@ -37,7 +77,7 @@ public class LMBCSStringConversionCache {
 		else {
 			cache = (LRULMBCCache) NotesGC.getCustomValue(CACHE_KEY);
 			if (cache==null) {
-				cache = new LRULMBCCache(MAX_STRINGCACHE_SIZE_PERTHREAD_BYTES);
+				cache = new LRULMBCCache(MAX_STRINGCACHE_SIZE_PERTHREAD_BYTES, 1);
 				NotesGC.setCustomValue(CACHE_KEY, cache);
 			}
 		}
@@ -74,11 +114,19 @@ public class LMBCSStringConversionCache {
 				return asciiStr;
 			}
 			
-			Memory dataMem = new Memory(dataArr.length);
-			dataMem.write(0, dataArr, 0, dataArr.length);
+			convertedString = null;
+			if (NotesStringUtils.isUseJavaLMBCSCodec()) {
+				convertedString = LMBCSCodec.decode(dataArr, 0, dataArr.length, NotesStringUtils.getLineDelimiter());
+			}
 			
-			boolean skipAsciiCheck = true;
-			convertedString = NotesStringUtils.fromLMBCS(dataMem, dataArr.length, skipAsciiCheck);
+			if (convertedString==null) {
+				//characters not supported by the Java decoder, so we use the C API
+				Memory dataMem = new Memory(dataArr.length);
+				dataMem.write(0, dataArr, 0, dataArr.length);
+				
+				boolean skipAsciiCheck = true;
+				convertedString = NotesStringUtils.fromLMBCS(dataMem, dataArr.length, skipAsciiCheck);
+			}
 			cache.put(lmbcsString, convertedString);
 		}
 		else {
@@ -87,31 +135,16 @@ public class LMBCSStringConversionCache {
 		return convertedString;
 	}
 	
-	public static class LRULMBCCache extends SizeLimitedLRUCache<LMBCSString,String> {
+	public static class LRULMBCCache extends StripedSizeLimitedLRUCache<LMBCSString,String> {
 
-		public LRULMBCCache(int maxSizeUnits) {
-			super(maxSizeUnits);
+		public LRULMBCCache(int maxSizeUnits, int concurrencyLevel) {
+			super(maxSizeUnits, concurrencyLevel);
 		}
 
 		@Override
-		protected int computeSize(CacheEntry<LMBCSString,String> entry) {
-			LMBCSString key = entry.getKey();
-			String value = entry.getValue();
-			
+		protected int computeSize(LMBCSString key, String value) {
 			return key.size() + value.length()*2;
 		}
-
-		@Override
-		protected void entryAdded(
-				com.mindoo.domino.jna.internal.SizeLimitedLRUCache.CacheEntry<LMBCSString, String> entry) {
-
-//			System.out.println("Added to cache: "+entry.getValue());
-		}
-		
-		@Override
-		protected void entryRemoved(com.mindoo.domino.jna.internal.SizeLimitedLRUCache.CacheEntry<LMBCSString, String> entry) {
-//			System.out.println("Removed from cache: "+entry.getValue());
-		}
 		
 	}
 }
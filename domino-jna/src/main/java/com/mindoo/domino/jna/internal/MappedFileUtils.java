@@ -0,0 +1,88 @@
+package com.mindoo.domino.jna.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+/**
+ * Utility class to work with memory mapped files
+ *
+ * @author Karsten Lehmann
+ */
+public class MappedFileUtils {
+
+	/**
+	 * Maps the whole content of a file into memory for reading. The file is closed
+	 * afterwards, the mapping stays valid until {@link #unmap(MappedByteBuffer)} is called
+	 * or the buffer is garbage collected.
+	 *
+	 * @param file file
+	 * @return buffer
+	 * @throws IOException in case of I/O errors
+	 */
+	public static MappedByteBuffer mapReadOnly(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Releases the memory mapping without waiting for the garbage collector. Otherwise
+	 * the file stays locked on Windows and cannot be replaced or deleted.<br>
+	 * <br>
+	 * The buffer must not be used afterwards. If the JVM does not support unmapping,
+	 * the method does nothing.
+	 *
+	 * @param buf mapped buffer
+	 */
+	public static void unmap(final MappedByteBuffer buf) {
+		AccessController.doPrivileged(new PrivilegedAction<Object>() {
+
+			@Override
+			public Object run() {
+				try {
+					Method cleanerMethod = buf.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					Object cleaner = cleanerMethod.invoke(buf);
+					if (cleaner!=null) {
+						Method cleanMethod = cleaner.getClass().getMethod("clean");
+						cleanMethod.setAccessible(true);
+						cleanMethod.invoke(cleaner);
+					}
+				}
+				catch (Exception e) {
+					//not supported by this JVM, mapping is released by the GC
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Replaces a file with a completely written temporary file
+	 *
+	 * @param tmpFile temporary file
+	 * @param file target file
+	 * @throws IOException if the file could not be replaced
+	 */
+	public static void replaceFile(File tmpFile, File file) throws IOException {
+		if (!tmpFile.renameTo(file)) {
+			//on Windows, we cannot rename onto an existing file
+			file.delete();
+			if (!tmpFile.renameTo(file)) {
+				tmpFile.delete();
+				throw new IOException("Could not replace file "+file.getAbsolutePath());
+			}
+		}
+	}
+}
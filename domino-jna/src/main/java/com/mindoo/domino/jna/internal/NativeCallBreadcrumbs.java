@@ -0,0 +1,463 @@
+package com.mindoo.domino.jna.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Low overhead breadcrumb log for native method invocations, used to find out which
+ * C API call crashed the JVM.<br>
+ * <br>
+ * Each thread gets its own slot in a memory-mapped file. Before each native call, we record
+ * the call site id and name of the method, a timestamp and the nesting depth of native calls
+ * in the slot. After the call returns, the depth is decreased and the data of an outer call
+ * (e.g. when a C API callback did another native call) is restored. Since the data is written
+ * to the mapped file (OS page cache), it survives a crash of the process without having
+ * to force it to disk.<br>
+ * <br>
+ * The call site id identifies the called C API method signature, because method names
+ * alone are ambiguous for overloaded methods. The signatures are written once to a
+ * call site table in the file. Slots of terminated threads are reused. If more threads
+ * than {@link #SLOT_COUNT} are doing native calls at the same time, the additional threads
+ * are not recorded.<br>
+ * <br>
+ * Capturing a stacktrace is expensive, so it is only done every N calls (see
+ * {@link #enter(Method, int)}). The file can be decoded with {@link NativeCallBreadcrumbsReader}.<br>
+ * <br>
+ * The file is only needed after a crash. On a clean JVM shutdown, it gets marked as closed
+ * and deleted. Where a mapped file cannot be deleted (Windows), files marked as closed are
+ * removed by the next JVM that creates a breadcrumb file.<br>
+ * <br>
+ * File layout (big endian):<br>
+ * <pre>
+ * header (HEADER_SIZE bytes):
+ *   long   magic ("DJNABC01")
+ *   int    version
+ *   int    slot count
+ *   int    slot size
+ *   long   creation time (ms)
+ *   int    state (0=running, 1=closed on clean shutdown)
+ *   short  length + UTF-8 bytes of JVM name (pid@host)
+ * call site table (CALLSITE_COUNT * CALLSITE_SIZE bytes):
+ *   short  length + UTF-8 bytes of method signature (0 for unused entry)
+ * slots (slot count * slot size bytes):
+ *   long   thread id (0 for unused slot)
+ *   long   call count (number of native calls of the thread)
+ *   long   timestamp of current call start (ms)
+ *   int    depth of nested native calls (0=idle)
+ *   int    call site id of current call (-1 if unknown)
+ *   short  length + bytes of method name (max 64 bytes)
+ *   short  length + UTF-8 bytes of thread name (max 64 bytes)
+ *   long   call count of last stacktrace capture
+ *   int    length + UTF-8 bytes of last captured stacktrace
+ * </pre>
+ *
+ * @author Karsten Lehmann
+ */
+public class NativeCallBreadcrumbs {
+	private static final Logger m_logger = Logger.getLogger(NativeCallBreadcrumbs.class.getName());
+
+	static final long MAGIC = 0x444A4E4142433031L; // DJNABC01
+	static final int VERSION = 3;
+
+	static final int HEADER_SIZE = 256;
+	static final int CALLSITE_COUNT = 4096;
+	static final int CALLSITE_SIZE = 128;
+	static final int CALLSITE_TABLE_OFFSET = HEADER_SIZE;
+	static final int SLOTS_OFFSET = CALLSITE_TABLE_OFFSET + CALLSITE_COUNT * CALLSITE_SIZE;
+	static final int SLOT_COUNT = 256;
+	static final int SLOT_SIZE = 4096;
+
+	static final int OFFSET_FILESTATE = 28;
+	static final int OFFSET_JVMNAME = 32;
+	static final int FILESTATE_RUNNING = 0;
+	static final int FILESTATE_CLOSED = 1;
+
+	static final String FILENAME_PREFIX = "domino-jna-breadcrumbs-";
+	static final String FILENAME_SUFFIX = ".dat";
+
+	static final int STATE_IDLE = 0;
+
+	static final int OFFSET_THREADID = 0;
+	static final int OFFSET_CALLCOUNT = 8;
+	static final int OFFSET_TIMESTAMP = 16;
+	static final int OFFSET_DEPTH = 24;
+	static final int OFFSET_CALLSITEID = 28;
+	static final int OFFSET_METHODNAME = 32;
+	static final int OFFSET_THREADNAME = OFFSET_METHODNAME + 2 + 64;
+	static final int OFFSET_STACK_CALLCOUNT = OFFSET_THREADNAME + 2 + 64;
+	static final int OFFSET_STACK = OFFSET_STACK_CALLCOUNT + 8;
+	static final int MAX_NAME_LENGTH = 64;
+	static final int MAX_STACK_LENGTH = SLOT_SIZE - OFFSET_STACK - 4;
+
+	/** max nesting depth of native calls for which the outer call data is restored */
+	private static final int MAX_TRACKED_DEPTH = 16;
+
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static volatile NativeCallBreadcrumbs m_instance;
+	private static volatile boolean m_initFailed;
+
+	private final File m_file;
+	private final MappedByteBuffer m_buffer;
+	private final ConcurrentHashMap<Method,CallSite> m_callSites = new ConcurrentHashMap<Method,CallSite>();
+	private int m_nextCallSiteId;
+	private final WeakReference<?>[] m_slotOwners = new WeakReference<?>[SLOT_COUNT];
+	private final ThreadLocal<Slot> m_threadSlot = new ThreadLocal<Slot>() {
+		@Override
+		protected Slot initialValue() {
+			return createSlot();
+		}
+	};
+
+	/**
+	 * Returns the breadcrumb log of this process and creates the memory-mapped file on first call
+	 *
+	 * @return log or null if the file could not be created
+	 */
+	public static NativeCallBreadcrumbs getInstance() {
+		if (m_instance==null && !m_initFailed) {
+			synchronized (NativeCallBreadcrumbs.class) {
+				if (m_instance==null && !m_initFailed) {
+					m_instance = AccessController.doPrivileged(new PrivilegedAction<NativeCallBreadcrumbs>() {
+
+						@Override
+						public NativeCallBreadcrumbs run() {
+							String jvmName = ManagementFactory.getRuntimeMXBean().getName();
+							int iPos = jvmName.indexOf('@');
+							String pid = iPos==-1 ? Long.toString(System.currentTimeMillis()) : jvmName.substring(0, iPos);
+
+							File tmpDir = new File(System.getProperty("java.io.tmpdir"));
+							deleteClosedFiles(tmpDir);
+
+							File file = new File(tmpDir, FILENAME_PREFIX+pid+FILENAME_SUFFIX);
+							try {
+								final NativeCallBreadcrumbs breadcrumbs = new NativeCallBreadcrumbs(file, jvmName);
+								Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+
+									@Override
+									public void run() {
+										breadcrumbs.close();
+									}
+								}, "Domino JNA breadcrumbs cleanup"));
+								return breadcrumbs;
+							} catch (IOException e) {
+								m_logger.log(Level.WARNING, "Could not create native call breadcrumb file "+file.getAbsolutePath(), e);
+								m_initFailed = true;
+								return null;
+							}
+						}
+					});
+				}
+			}
+		}
+		return m_instance;
+	}
+
+	private NativeCallBreadcrumbs(File file, String jvmName) throws IOException {
+		m_file = file;
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			long fileSize = SLOTS_OFFSET + (long) SLOT_COUNT * SLOT_SIZE;
+			raf.setLength(fileSize);
+			m_buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		}
+		finally {
+			//the mapping stays valid after closing the file
+			raf.close();
+		}
+
+		m_buffer.putLong(0, MAGIC);
+		m_buffer.putInt(8, VERSION);
+		m_buffer.putInt(12, SLOT_COUNT);
+		m_buffer.putInt(16, SLOT_SIZE);
+		m_buffer.putLong(20, System.currentTimeMillis());
+		m_buffer.putInt(OFFSET_FILESTATE, FILESTATE_RUNNING);
+		ByteBuffer header = duplicateRegion(OFFSET_JVMNAME, HEADER_SIZE - OFFSET_JVMNAME);
+		putString(header, 0, jvmName.getBytes(UTF8), HEADER_SIZE - OFFSET_JVMNAME - 2);
+	}
+
+	/**
+	 * Called on clean JVM shutdown. Marks the file as closed and deletes it. The file
+	 * is not unmapped, because other threads may still do native calls while the
+	 * shutdown hooks are running.
+	 */
+	private void close() {
+		synchronized (m_buffer) {
+			m_buffer.putInt(OFFSET_FILESTATE, FILESTATE_CLOSED);
+		}
+		//fails on Windows while the file is mapped; deleteClosedFiles cleans it up later
+		m_file.delete();
+	}
+
+	/**
+	 * Deletes the breadcrumb files of JVMs that have been shut down cleanly. Files of
+	 * crashed or still running JVMs are kept.
+	 *
+	 * @param dir directory to scan
+	 */
+	private static void deleteClosedFiles(File dir) {
+		File[] files = dir.listFiles();
+		if (files==null)
+			return;
+
+		for (File currFile : files) {
+			String currName = currFile.getName();
+			if (!currName.startsWith(FILENAME_PREFIX) || !currName.endsWith(FILENAME_SUFFIX) || !currFile.isFile())
+				continue;
+
+			boolean closed = false;
+			try {
+				RandomAccessFile raf = new RandomAccessFile(currFile, "r");
+				try {
+					if (raf.length() >= HEADER_SIZE && raf.readLong()==MAGIC && raf.readInt()==VERSION) {
+						raf.seek(OFFSET_FILESTATE);
+						closed = raf.readInt()==FILESTATE_CLOSED;
+					}
+				}
+				finally {
+					raf.close();
+				}
+			}
+			catch (IOException e) {
+				//file is locked or has been deleted in the meantime
+				continue;
+			}
+			if (closed && !currFile.delete()) {
+				m_logger.log(Level.FINE, "Could not delete closed breadcrumb file "+currFile.getAbsolutePath());
+			}
+		}
+	}
+
+	/**
+	 * Returns the memory-mapped file
+	 *
+	 * @return file
+	 */
+	public File getFile() {
+		return m_file;
+	}
+
+	private ByteBuffer duplicateRegion(int offset, int length) {
+		synchronized (m_buffer) {
+			ByteBuffer dup = m_buffer.duplicate();
+			dup.position(offset);
+			dup.limit(offset + length);
+			return dup.slice();
+		}
+	}
+
+	/**
+	 * Assigns a free slot to the current thread. Slots of threads that have terminated
+	 * are reused.
+	 *
+	 * @return slot, not recording anything if all slots are used by live threads
+	 */
+	private Slot createSlot() {
+		Thread thread = Thread.currentThread();
+
+		int slotIdx = -1;
+		synchronized (m_slotOwners) {
+			for (int i=0; i<SLOT_COUNT; i++) {
+				WeakReference<?> currOwnerRef = m_slotOwners[i];
+				Thread currOwner = currOwnerRef==null ? null : (Thread) currOwnerRef.get();
+				if (currOwner==null || !currOwner.isAlive()) {
+					slotIdx = i;
+					m_slotOwners[i] = new WeakReference<Thread>(thread);
+					break;
+				}
+			}
+		}
+		if (slotIdx==-1) {
+			return new Slot(null);
+		}
+
+		ByteBuffer slotBuf = duplicateRegion(SLOTS_OFFSET + slotIdx * SLOT_SIZE, SLOT_SIZE);
+
+		//invalidate the slot while the data of the previous owner gets replaced
+		slotBuf.putLong(OFFSET_THREADID, 0);
+		slotBuf.putLong(OFFSET_CALLCOUNT, 0);
+		slotBuf.putLong(OFFSET_TIMESTAMP, 0);
+		slotBuf.putInt(OFFSET_DEPTH, STATE_IDLE);
+		slotBuf.putInt(OFFSET_CALLSITEID, -1);
+		slotBuf.putShort(OFFSET_METHODNAME, (short) 0);
+		putString(slotBuf, OFFSET_THREADNAME, thread.getName().getBytes(UTF8), MAX_NAME_LENGTH);
+		slotBuf.putLong(OFFSET_STACK_CALLCOUNT, 0);
+		slotBuf.putInt(OFFSET_STACK, 0);
+		slotBuf.putLong(OFFSET_THREADID, thread.getId());
+		return new Slot(slotBuf);
+	}
+
+	private static void putString(ByteBuffer buf, int offset, byte[] data, int maxLen) {
+		int len = Math.min(data.length, maxLen);
+		buf.putShort(offset, (short) len);
+		for (int i=0; i<len; i++) {
+			buf.put(offset + 2 + i, data[i]);
+		}
+	}
+
+	/**
+	 * Returns the call site of a method and writes its signature to the call site table on first use
+	 *
+	 * @param method method
+	 * @return call site
+	 */
+	private CallSite getCallSite(Method method) {
+		CallSite callSite = m_callSites.get(method);
+		if (callSite==null) {
+			synchronized (m_callSites) {
+				callSite = m_callSites.get(method);
+				if (callSite==null) {
+					int id = -1;
+					if (m_nextCallSiteId < CALLSITE_COUNT) {
+						id = m_nextCallSiteId++;
+						ByteBuffer tableBuf = duplicateRegion(CALLSITE_TABLE_OFFSET + id * CALLSITE_SIZE, CALLSITE_SIZE);
+						putString(tableBuf, 0, toSignature(method).getBytes(UTF8), CALLSITE_SIZE - 2);
+					}
+					callSite = new CallSite(id, method.getName().getBytes(UTF8));
+					m_callSites.put(method, callSite);
+				}
+			}
+		}
+		return callSite;
+	}
+
+	private static String toSignature(Method method) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(method.getName()).append('(');
+		Class<?>[] paramTypes = method.getParameterTypes();
+		for (int i=0; i<paramTypes.length; i++) {
+			if (i>0)
+				sb.append(',');
+			sb.append(paramTypes[i].getSimpleName());
+		}
+		sb.append(')');
+		return sb.toString();
+	}
+
+	/**
+	 * Records the start of a native call for the current thread
+	 *
+	 * @param method called method
+	 * @param stackInterval capture a stacktrace every <code>stackInterval</code> calls, 0 to disable
+	 */
+	public void enter(Method method, int stackInterval) {
+		m_threadSlot.get().enter(getCallSite(method), stackInterval);
+	}
+
+	/**
+	 * Records that the current native call of the current thread has returned
+	 */
+	public void exit() {
+		m_threadSlot.get().exit();
+	}
+
+	/**
+	 * Id and name of a called method
+	 */
+	private static class CallSite {
+		private final int m_id;
+		private final byte[] m_methodName;
+
+		public CallSite(int id, byte[] methodName) {
+			m_id = id;
+			m_methodName = methodName;
+		}
+	}
+
+	/**
+	 * Slot of a thread in the memory-mapped file
+	 */
+	private static class Slot {
+		private final ByteBuffer m_buf;
+		private long m_callCount;
+		private int m_depth;
+		private final CallSite[] m_callSiteStack = new CallSite[MAX_TRACKED_DEPTH];
+		private final long[] m_timestampStack = new long[MAX_TRACKED_DEPTH];
+
+		/**
+		 * Creates a new slot
+		 *
+		 * @param buf slot data or null to not record anything
+		 */
+		public Slot(ByteBuffer buf) {
+			m_buf = buf;
+		}
+
+		public void enter(CallSite callSite, int stackInterval) {
+			if (m_buf==null)
+				return;
+
+			m_callCount++;
+
+			if (stackInterval>0 && (m_callCount % stackInterval)==0) {
+				captureStack();
+			}
+
+			long timestamp = System.currentTimeMillis();
+			if (m_depth < MAX_TRACKED_DEPTH) {
+				m_callSiteStack[m_depth] = callSite;
+				m_timestampStack[m_depth] = timestamp;
+			}
+			m_depth++;
+
+			writeCall(callSite, timestamp);
+			m_buf.putLong(OFFSET_CALLCOUNT, m_callCount);
+			m_buf.putInt(OFFSET_DEPTH, m_depth);
+		}
+
+		public void exit() {
+			if (m_buf==null || m_depth==0)
+				return;
+
+			m_depth--;
+			m_buf.putInt(OFFSET_DEPTH, m_depth);
+
+			if (m_depth>0 && m_depth<=MAX_TRACKED_DEPTH) {
+				//restore the data of the outer native call
+				int outerIdx = m_depth - 1;
+				writeCall(m_callSiteStack[outerIdx], m_timestampStack[outerIdx]);
+			}
+		}
+
+		private void writeCall(CallSite callSite, long timestamp) {
+			m_buf.putInt(OFFSET_CALLSITEID, callSite.m_id);
+			putString(m_buf, OFFSET_METHODNAME, callSite.m_methodName, MAX_NAME_LENGTH);
+			m_buf.putLong(OFFSET_TIMESTAMP, timestamp);
+		}
+
+		private void captureStack() {
+			Exception e = new Exception();
+			e.fillInStackTrace();
+			StringWriter sWriter = new StringWriter();
+			PrintWriter pWriter = new PrintWriter(sWriter);
+			e.printStackTrace(pWriter);
+			pWriter.flush();
+			byte[] stackData = sWriter.toString().getBytes(UTF8);
+
+			int len = Math.min(stackData.length, MAX_STACK_LENGTH);
+			//invalidate old stack first so that a crash while writing does not produce garbage
+			m_buf.putInt(OFFSET_STACK, 0);
+			for (int i=0; i<len; i++) {
+				m_buf.put(OFFSET_STACK + 4 + i, stackData[i]);
+			}
+			m_buf.putLong(OFFSET_STACK_CALLCOUNT, m_callCount);
+			m_buf.putInt(OFFSET_STACK, len);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.mindoo.domino.jna.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Command line tool to decode the breadcrumb file written by {@link NativeCallBreadcrumbs},
+ * e.g. after the JVM has crashed in a native call.<br>
+ * <br>
+ * Usage: <code>java -cp domino-jna.jar com.mindoo.domino.jna.internal.NativeCallBreadcrumbsReader domino-jna-breadcrumbs-&lt;pid&gt;.dat</code>
+ *
+ * @author Karsten Lehmann
+ */
+public class NativeCallBreadcrumbsReader {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length==0) {
+			System.out.println("Usage: NativeCallBreadcrumbsReader <breadcrumb file>");
+			return;
+		}
+		dump(new File(args[0]), System.out);
+	}
+
+	/**
+	 * Decodes the breadcrumb file and writes the slots of all threads to the
+	 * specified stream. Threads that were inside a native call are listed first.
+	 *
+	 * @param file breadcrumb file
+	 * @param out output stream
+	 * @throws IOException in case of I/O errors or if the file format is unknown
+	 */
+	public static void dump(File file, PrintStream out) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		ByteBuffer buf;
+		try {
+			buf = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+		}
+		finally {
+			raf.close();
+		}
+
+		if (buf.limit() < NativeCallBreadcrumbs.HEADER_SIZE || buf.getLong(0)!=NativeCallBreadcrumbs.MAGIC) {
+			throw new IOException("File is not a Domino JNA breadcrumb file: "+file);
+		}
+		int version = buf.getInt(8);
+		if (version!=NativeCallBreadcrumbs.VERSION) {
+			throw new IOException("Unsupported breadcrumb file version: "+version);
+		}
+		int slotCount = buf.getInt(12);
+		int slotSize = buf.getInt(16);
+		long creationTime = buf.getLong(20);
+		boolean closed = buf.getInt(NativeCallBreadcrumbs.OFFSET_FILESTATE)==NativeCallBreadcrumbs.FILESTATE_CLOSED;
+		String jvmName = getString(buf, NativeCallBreadcrumbs.OFFSET_JVMNAME);
+		if (buf.limit() < NativeCallBreadcrumbs.SLOTS_OFFSET) {
+			throw new IOException("Breadcrumb file is truncated: "+file);
+		}
+
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+		out.println("JVM: "+jvmName);
+		out.println("Created: "+dateFormat.format(new Date(creationTime)));
+		if (closed) {
+			out.println("JVM has been shut down cleanly");
+		}
+		out.println();
+
+		//first print threads that were in a native call, then the others
+		for (int pass=0; pass<2; pass++) {
+			boolean printActive = pass==0;
+			out.println(printActive ? "=== Threads inside a native call ===" : "=== Idle threads ===");
+
+			for (int i=0; i<slotCount; i++) {
+				int slotOffset = NativeCallBreadcrumbs.SLOTS_OFFSET + i * slotSize;
+				if (slotOffset + slotSize > buf.limit())
+					break;
+
+				long threadId = buf.getLong(slotOffset + NativeCallBreadcrumbs.OFFSET_THREADID);
+				if (threadId==0)
+					continue;
+
+				int depth = buf.getInt(slotOffset + NativeCallBreadcrumbs.OFFSET_DEPTH);
+				boolean active = depth!=NativeCallBreadcrumbs.STATE_IDLE;
+				if (active != printActive)
+					continue;
+
+				long callCount = buf.getLong(slotOffset + NativeCallBreadcrumbs.OFFSET_CALLCOUNT);
+				int callSiteId = buf.getInt(slotOffset + NativeCallBreadcrumbs.OFFSET_CALLSITEID);
+				long timestamp = buf.getLong(slotOffset + NativeCallBreadcrumbs.OFFSET_TIMESTAMP);
+				String methodName = getString(buf, slotOffset + NativeCallBreadcrumbs.OFFSET_METHODNAME);
+				String threadName = getString(buf, slotOffset + NativeCallBreadcrumbs.OFFSET_THREADNAME);
+
+				out.println("Thread "+threadId+" ("+threadName+")");
+				out.println("  Method:    "+methodName);
+				out.println("  Call site: "+(callSiteId<0 || callSiteId>=NativeCallBreadcrumbs.CALLSITE_COUNT ? "-" :
+					callSiteId+" "+getString(buf, NativeCallBreadcrumbs.CALLSITE_TABLE_OFFSET + callSiteId * NativeCallBreadcrumbs.CALLSITE_SIZE)));
+				if (active) {
+					out.println("  Depth:     "+depth);
+				}
+				out.println("  Calls:     "+callCount);
+				out.println("  Timestamp: "+(timestamp==0 ? "-" : dateFormat.format(new Date(timestamp))));
+
+				int stackLen = buf.getInt(slotOffset + NativeCallBreadcrumbs.OFFSET_STACK);
+				if (stackLen>0 && stackLen<=NativeCallBreadcrumbs.MAX_STACK_LENGTH) {
+					long stackCallCount = buf.getLong(slotOffset + NativeCallBreadcrumbs.OFFSET_STACK_CALLCOUNT);
+					byte[] stackData = new byte[stackLen];
+					for (int j=0; j<stackLen; j++) {
+						stackData[j] = buf.get(slotOffset + NativeCallBreadcrumbs.OFFSET_STACK + 4 + j);
+					}
+					out.println("  Last captured stacktrace (call "+stackCallCount+"):");
+					out.println(new String(stackData, NativeCallBreadcrumbs.UTF8));
+				}
+				out.println();
+			}
+		}
+	}
+
+	private static String getString(ByteBuffer buf, int offset) {
+		int len = buf.getShort(offset) & 0xffff;
+		byte[] data = new byte[len];
+		for (int i=0; i<len; i++) {
+			data[i] = buf.get(offset + 2 + i);
+		}
+		return new String(data, NativeCallBreadcrumbs.UTF8);
+	}
+}
@@ -2224,6 +2224,47 @@ public byte DBCREATE_ENCRYPT_STRONG	= 0x03;
             NotesTimeDateStruct retUntil, 
             int namelist);
 
+	/*
+	 * Variants of NSFSearchExtended3 with a callback that receives the raw SEARCH_MATCH and ITEM_TABLE
+	 * pointers, so that no JNA structures need to be created and read for each match. They have
+	 * their own method names to avoid ambiguous overloads and are mapped to NSFSearchExtended3 in
+	 * the function mapper of NotesJNAContext.
+	 */
+	
+	public short b64_NSFSearchExtended3WithMatchProc (long hDB, 
+            long hFormula, 
+            long hFilter, 
+            int filterFlags, 
+            Memory ViewTitle, 
+            int SearchFlags, 
+            int SearchFlags1, 
+            int SearchFlags2, 
+            int SearchFlags3, 
+            int SearchFlags4, 
+            short NoteClassMask, 
+            NotesTimeDateStruct Since, 
+            NsfSearchMatchProc  EnumRoutine,
+            Pointer EnumRoutineParameter, 
+            NotesTimeDateStruct retUntil, 
+            long namelist);
+
+	public short b32_NSFSearchExtended3WithMatchProc (int hDB, 
+            int hFormula, 
+            int hFilter, 
+            int FilterFlags, 
+            Memory ViewTitle, 
+            int SearchFlags, 
+            int SearchFlags1, 
+            int SearchFlags2, 
+            int SearchFlags3, 
+            int SearchFlags4, 
+            short NoteClassMask, 
+            NotesTimeDateStruct Since, 
+            NsfSearchMatchProc  EnumRoutine,
+            Pointer EnumRoutineParameter, 
+            NotesTimeDateStruct retUntil, 
+            int namelist);
+
 	//Get filter information needed to do a NSFSearchStart via a FOLDER search
 	public short b64_NSFGetFolderSearchFilter(long hViewDB, long hDataDB, int ViewNoteID, NotesTimeDateStruct Since, int Flags, LongByReference Filter);
 	public short b32_NSFGetFolderSearchFilter(int hViewDB, int hDataDB, int ViewNoteID, NotesTimeDateStruct Since, int Flags, IntByReference Filter);
@@ -2417,12 +2458,16 @@ public byte DBCREATE_ENCRYPT_STRONG	= 0x03;
         short invoke(Pointer enumRoutineParameter, NotesSearchMatch64Struct searchMatch, NotesItemTableStruct summaryBuffer); 
     }
 
+	public interface NsfSearchMatchProc extends Callback { /* StdCallCallback if using __stdcall__ */
+        short invoke(Pointer enumRoutineParameter, Pointer searchMatch, Pointer summaryBuffer); 
+    }
+
 	public interface NoteExtractCallback extends Callback { /* StdCallCallback if using __stdcall__ */
         short invoke(Pointer data, int length, Pointer param); 
     }
 
 	public interface NoteNsfItemScanProc extends Callback { /* StdCallCallback if using __stdcall__ */
-        void invoke(short spare, short itemFlags, Pointer name, short nameLength, Pointer value, int valueLength, Pointer routineParameter); 
+        short invoke(short spare, short itemFlags, Pointer name, short nameLength, Pointer value, int valueLength, Pointer routineParameter); 
     }
 
 	public interface b64_CWFErrorProc extends Callback { /* StdCallCallback if using __stdcall__ */
@@ -0,0 +1,188 @@
+package com.mindoo.domino.jna.internal;
+
+import com.mindoo.domino.jna.structs.NotesBlockIdStruct;
+import com.mindoo.domino.jna.structs.NotesCollectionPositionStruct;
+import com.mindoo.domino.jna.structs.NotesOriginatorIdStruct;
+import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
+import com.mindoo.domino.jna.structs.NotesTimeStruct;
+import com.mindoo.domino.jna.structs.NotesUniversalNoteIdStruct;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.ByteByReference;
+import com.sun.jna.ptr.DoubleByReference;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+import com.sun.jna.ptr.ShortByReference;
+
+/**
+ * JNA direct mapping of the C API functions that are called most frequently, e.g.
+ * when reading view data, note items or ID tables.<br>
+ * <br>
+ * The set covers the functions that are called once per view entry, note, item or note ID
+ * in loops: the NIF read and lookup functions, note open/info functions, the NSFItem read
+ * functions, the ID table functions working on single IDs or ranges, memory locking/allocation
+ * and LMBCS translation. Functions called once per operation (e.g. opening a database or
+ * collection, creating or signing notes) are left to interface mapping, since the call overhead
+ * is negligible compared to the work they do in C. The same applies to functions with callbacks
+ * like NSFItemScan, IDEnumerate or NSFSearch, where the time is spent in the Java callback,
+ * and to the overloads with NIO buffer arguments, because direct mapping only supports direct
+ * buffers.<br>
+ * <br>
+ * The methods have the same signatures as their counterparts in {@link NotesCAPI} and
+ * are bound by {@link #register(NativeLibrary)}, which uses the function mapper of
+ * the library to strip the b32_/b64_ prefixes.
+ * 
+ * @author Karsten Lehmann
+ */
+public class NotesCAPIDirectFunctions {
+	private static volatile boolean m_registered;
+	
+	/**
+	 * Binds the native methods of this class to the functions of the specified library
+	 * 
+	 * @param lib Notes library, loaded with the same options as the interface mapped API
+	 * @throws UnsatisfiedLinkError if a function cannot be found in the library
+	 */
+	static synchronized void register(NativeLibrary lib) {
+		if (!m_registered) {
+			Native.register(NotesCAPIDirectFunctions.class, lib);
+			m_registered = true;
+		}
+	}
+	
+	/**
+	 * Binds the native methods of this class to the Notes library, using the same library
+	 * options as {@link NotesJNAContext}. Is called on startup if direct mapping has been
+	 * activated (see {@link NotesJNAContext#setUseDirectMapping(boolean)}), but can also be
+	 * called later to use {@link DirectMappedNotesCAPI} side by side with the interface mapped API.
+	 * 
+	 * @throws UnsatisfiedLinkError if a function cannot be found in the library
+	 */
+	public static void register() {
+		if (!m_registered) {
+			register(NotesJNAContext.getDirectMappingLibrary());
+		}
+	}
+	
+	/**
+	 * Checks whether the native methods of this class have been bound
+	 * 
+	 * @return true if registered
+	 */
+	public static boolean isRegistered() {
+		return m_registered;
+	}
+	
+	public static native short b32_NIFReadEntries(int hCollection, NotesCollectionPositionStruct IndexPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, IntByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags);
+	public static native short b64_NIFReadEntries(long hCollection, NotesCollectionPositionStruct IndexPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, LongByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags);
+	public static native short b64_NIFReadEntriesExt(long hCollection, NotesCollectionPositionStruct CollectionPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, NotesTimeDateStruct DiffTime, long DiffIDTable, int ColumnNumber, int Flags, LongByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime, IntByReference retSequence);
+	public static native short b32_NIFReadEntriesExt(int hCollection, NotesCollectionPositionStruct CollectionPos, short SkipNavigator, int SkipCount, short ReturnNavigator, int ReturnCount, int ReturnMask, NotesTimeDateStruct DiffTime, int DiffIDTable, int ColumnNumber, int Flags, IntByReference rethBuffer, ShortByReference retBufferLength, IntByReference retNumEntriesSkipped, IntByReference retNumEntriesReturned, ShortByReference retSignalFlags, NotesTimeDateStruct retDiffTime, NotesTimeDateStruct retModifiedTime, IntByReference retSequence);
+	public static native short b32_NIFFindByKey(int hCollection, Memory keyBuffer, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches);
+	public static native short b64_NIFFindByKey(long hCollection, Memory keyBuffer, short findFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches);
+	public static native void b32_NIFGetLastModifiedTime(int hCollection, NotesTimeDateStruct retLastModifiedTime);
+	public static native void b64_NIFGetLastModifiedTime(long hCollection, NotesTimeDateStruct retLastModifiedTime);
+	public static native short b32_NIFFindByKeyExtended2(int hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, IntByReference rethBuffer, IntByReference retSequence);
+	public static native short b64_NIFFindByKeyExtended2(long hCollection, Memory keyBuffer, int findFlags, int returnFlags, NotesCollectionPositionStruct retIndexPos, IntByReference retNumMatches, ShortByReference retSignalFlags, LongByReference rethBuffer, IntByReference retSequence);
+	public static native short DNCanonicalize(int Flags, Memory TemplateName, Memory InName, Memory OutName, short OutSize, ShortByReference OutLength);
+	public static native short DNAbbreviate(int Flags, Memory TemplateName, Memory InName, Memory OutName, short OutSize, ShortByReference OutLength);
+	public static native Pointer b32_OSLockObject(int handle);
+	public static native Pointer b64_OSLockObject(long handle);
+	public static native boolean b32_OSUnlockObject(int handle);
+	public static native boolean b64_OSUnlockObject(long handle);
+	public static native short b32_OSMemFree(int handle);
+	public static native short b64_OSMemFree(long handle);
+	public static native short b32_OSMemGetSize(int handle, IntByReference retSize);
+	public static native short b64_OSMemGetSize(long handle, IntByReference retSize);
+	public static native void ODSReadMemory(Pointer ppSrc, short type, Pointer pDest, short iterations);
+	public static native short b32_NIFLocateNote(int hCollection, NotesCollectionPositionStruct indexPos, int noteID);
+	public static native short b64_NIFLocateNote(long hCollection, NotesCollectionPositionStruct indexPos, int noteID);
+	public static native short OSTranslate(short translateMode, Memory in, short inLength, Memory out, short outLength);
+	public static native short OSTranslate(short translateMode, Pointer in, short inLength, Memory out, short outLength);
+	public static native short b32_IDCreateTable(int alignment, IntByReference rethTable);
+	public static native short b64_IDCreateTable(int alignment, LongByReference rethTable);
+	public static native short b32_IDDestroyTable(int hTable);
+	public static native short b64_IDDestroyTable(long hTable);
+	public static native short b32_IDInsert(int hTable, int id, IntByReference retfInserted);
+	public static native short b64_IDInsert(long hTable, int id, IntByReference retfInserted);
+	public static native short b32_IDDelete(int hTable, int id, IntByReference retfDeleted);
+	public static native short b64_IDDelete(long hTable, int id, IntByReference retfDeleted);
+	public static native boolean b32_IDScan(int hTable, boolean fFirst, IntByReference retID);
+	public static native boolean b64_IDScan(long hTable, boolean fFirst, IntByReference retID);
+	public static native int b32_IDEntries(int hTable);
+	public static native int b64_IDEntries(long hTable);
+	public static native boolean b32_IDIsPresent(int hTable, int id);
+	public static native boolean b64_IDIsPresent(long hTable, int id);
+	public static native short ODSLength(short type);
+	public static native boolean TimeGMToLocalZone(NotesTimeStruct timePtr);
+	public static native boolean TimeGMToLocal(NotesTimeStruct timePtr);
+	public static native short ListGetText(Pointer pList, boolean fPrefixDataType, short entryNumber, Memory retTextPointer, ShortByReference retTextLength);
+	public static native short b64_ListGetNumEntries(Pointer vList, int noteItem);
+	public static native short b32_ListGetNumEntries(Pointer vList, int noteItem);
+	public static native void b32_NSFNoteGetInfo(int hNote, short type, Memory retValue);
+	public static native void b64_NSFNoteGetInfo(long hNote, short type, Memory retValue);
+	public static native void b32_NSFNoteSetInfo(int hNote, short type, Pointer value);
+	public static native void b64_NSFNoteSetInfo(long hNote, short type, Pointer value);
+	public static native short b32_NSFNoteClose(int hNote);
+	public static native short b64_NSFNoteClose(long hNote);
+	public static native short b32_NSFNoteOpenExt(int hDB, int noteId, int flags, IntByReference rethNote);
+	public static native short b64_NSFNoteOpenExt(long hDB, int noteId, int flags, LongByReference rethNote);
+	public static native short b32_NSFItemInfo(int note_handle, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength);
+	public static native short b64_NSFItemInfo(long note_handle, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength);
+	public static native short b32_NSFItemInfoNext(int note_handle, NotesBlockIdStruct.ByValue NextItem, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength);
+	public static native short b64_NSFItemInfoNext(long note_handle, NotesBlockIdStruct.ByValue NextItem, Memory item_name, short name_len, NotesBlockIdStruct retbhItem, ShortByReference retDataType, NotesBlockIdStruct retbhValue, IntByReference retValueLength);
+	public static native short b32_NSFItemInfoPrev(int note_handle, NotesBlockIdStruct.ByValue CurrItem, Memory item_name, short name_len, NotesBlockIdStruct item_blockid_ptr, ShortByReference value_type_ptr, NotesBlockIdStruct value_blockid_ptr, IntByReference value_len_ptr);
+	public static native short b64_NSFItemInfoPrev(long note_handle, NotesBlockIdStruct.ByValue CurrItem, Memory item_name, short name_len, NotesBlockIdStruct item_blockid_ptr, ShortByReference value_type_ptr, NotesBlockIdStruct value_blockid_ptr, IntByReference value_len_ptr);
+	public static native void b32_NSFItemQueryEx(int note_handle, NotesBlockIdStruct.ByValue item_bid, Memory item_name, short return_buf_len, ShortByReference name_len_ptr, ShortByReference item_flags_ptr, ShortByReference value_datatype_ptr, NotesBlockIdStruct value_bid_ptr, IntByReference value_len_ptr, ByteByReference retSeqByte, ByteByReference retDupItemID);
+	public static native void b64_NSFItemQueryEx(long note_handle, NotesBlockIdStruct.ByValue item_bid, Memory item_name, short return_buf_len, ShortByReference name_len_ptr, ShortByReference item_flags_ptr, ShortByReference value_datatype_ptr, NotesBlockIdStruct value_bid_ptr, IntByReference value_len_ptr, ByteByReference retSeqByte, ByteByReference retDupItemID);
+	public static native short b32_NSFItemGetText(int note_handle, Memory item_name, Memory item_text, short text_len);
+	public static native short b64_NSFItemGetText(long note_handle, Memory item_name, Memory item_text, short text_len);
+	public static native short b64_NSFItemGetTextListEntry(long note_handle, Memory item_name, short entry_position, Memory retEntry_text, short text_len);
+	public static native short b32_NSFItemGetTextListEntry(int note_handle, Memory item_name, short entry_position, Memory retEntry_text, short text_len);
+	public static native boolean b32_NSFItemGetTime(int note_handle, Memory td_item_name, NotesTimeDateStruct td_item_value);
+	public static native boolean b64_NSFItemGetTime(long note_handle, Memory td_item_name, NotesTimeDateStruct td_item_value);
+	public static native boolean b32_NSFItemGetNumber(int hNote, Memory ItemName, DoubleByReference retNumber);
+	public static native boolean b64_NSFItemGetNumber(long hNote, Memory ItemName, DoubleByReference retNumber);
+	public static native int b32_NSFItemGetLong(int note_handle, Memory number_item_name, int number_item_default);
+	public static native int b64_NSFItemGetLong(long note_handle, Memory number_item_name, int number_item_default);
+	public static native short b32_NSFDbGetMultNoteInfo(int hDb, short Count, short Options, int hInBuf, IntByReference retSize, IntByReference rethOutBuf);
+	public static native short b64_NSFDbGetMultNoteInfo(long hDb, short Count, short Options, long hInBuf, IntByReference retSize, LongByReference rethOutBuf);
+	public static native short b32_NSFDbGetNoteInfoExt(int hDB, int NoteID, NotesOriginatorIdStruct retNoteOID, NotesTimeDateStruct retModified, ShortByReference retNoteClass, NotesTimeDateStruct retAddedToFile, ShortByReference retResponseCount, IntByReference retParentNoteID);
+	public static native short b64_NSFDbGetNoteInfoExt(long hDB, int NoteID, NotesOriginatorIdStruct retNoteOID, NotesTimeDateStruct retModified, ShortByReference retNoteClass, NotesTimeDateStruct retAddedToFile, ShortByReference retResponseCount, IntByReference retParentNoteID);
+	public static native short b64_NSFDbGetMultNoteInfoByUNID(long hDB, short Count, short Options, long hInBuf, IntByReference retSize, LongByReference rethOutBuf);
+	public static native short b32_NSFDbGetMultNoteInfoByUNID(int hDB, short Count, short Options, int hInBuf, IntByReference retSize, IntByReference rethOutBuf);
+	public static native short b64_NSFDbReadObject(long hDB, int ObjectID, int Offset, int Length, LongByReference rethBuffer);
+	public static native short b32_NSFDbReadObject(int hDB, int ObjectID, int Offset, int Length, IntByReference rethBuffer);
+	public static native short b64_NSFComputeEvaluate(long hCompute, long hNote, LongByReference rethResult, ShortByReference retResultLength, IntByReference retNoteMatchesFormula, IntByReference retNoteShouldBeDeleted, IntByReference retNoteModified);
+	public static native short b32_NSFComputeEvaluate(int hCompute, int hNote, IntByReference rethResult, ShortByReference retResultLength, IntByReference retNoteMatchesFormula, IntByReference retNoteShouldBeDeleted, IntByReference retNoteModified);
+	public static native short b32_OSMemAlloc(short BlkType, int dwSize, IntByReference retHandle);
+	public static native short b64_OSMemAlloc(short BlkType, int dwSize, LongByReference retHandle);
+	public static native short b32_IDInsertRange(int hTable, int IDFrom, int IDTo, boolean AddToEnd);
+	public static native short b64_IDInsertRange(long hTable, int IDFrom, int IDTo, boolean AddToEnd);
+	public static native int b32_IDTableSizeP(Pointer pIDTable);
+	public static native int b64_IDTableSizeP(Pointer pIDTable);
+	public static native short b32_NIFIsNoteInView(int hCollection, int noteID, IntByReference retIsInView);
+	public static native short b64_NIFIsNoteInView(long hCollection, int noteID, IntByReference retIsInView);
+	public static native short b32_NSFItemGetTextListEntries(int note_handle, Memory item_name);
+	public static native short b64_NSFItemGetTextListEntries(long note_handle, Memory item_name);
+	public static native short b32_NSFItemConvertToText(int note_handle, Memory item_name_ptr, Memory retText_buf_ptr, short text_buf_len, char separator);
+	public static native short b64_NSFItemConvertToText(long note_handle, Memory item_name_ptr, Memory retText_buf_ptr, short text_buf_len, char separator);
+	public static native short b32_NSFItemConvertValueToText(short value_type, NotesBlockIdStruct.ByValue value_bid, int value_len, Memory text_buf_ptr, short text_buf_len, char separator);
+	public static native short b64_NSFItemConvertValueToText(short value_type, NotesBlockIdStruct.ByValue value_bid, int value_len, Memory text_buf_ptr, short text_buf_len, char separator);
+	public static native short b32_NSFItemGetModifiedTime(int hNote, Memory ItemName, short ItemNameLength, int Flags, NotesTimeDateStruct retTime);
+	public static native short b64_NSFItemGetModifiedTime(long hNote, Memory ItemName, short ItemNameLength, int Flags, NotesTimeDateStruct retTime);
+	public static native short b32_NSFItemGetModifiedTimeByBLOCKID(int hNote, NotesBlockIdStruct.ByValue bhItem, int Flags, NotesTimeDateStruct retTime);
+	public static native short b64_NSFItemGetModifiedTimeByBLOCKID(long hNote, NotesBlockIdStruct.ByValue bhItem, int Flags, NotesTimeDateStruct retTime);
+	public static native short b32_NSFNoteOpen(int hDB, int noteId, short openFlags, IntByReference rethNote);
+	public static native short b64_NSFNoteOpen(long hDB, int noteId, short openFlags, LongByReference rethNote);
+	public static native short b32_NSFNoteOpenByUNID(int hDB, NotesUniversalNoteIdStruct pUNID, short flags, IntByReference rethNote);
+	public static native short b64_NSFNoteOpenByUNID(long hDB, NotesUniversalNoteIdStruct pUNID, short flags, LongByReference rethNote);
+	public static native short b32_NSFNoteHasComposite(int hNote);
+	public static native short b64_NSFNoteHasComposite(long hNote);
+	public static native short b32_NSFNoteHasMIME(int hNote);
+	public static native short b64_NSFNoteHasMIME(long hNote);
+	public static native short b32_NSFNoteHasMIMEPart(int hNote);
+	public static native short b64_NSFNoteHasMIMEPart(long hNote);
+
+}
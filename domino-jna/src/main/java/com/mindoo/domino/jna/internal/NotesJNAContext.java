@@ -1,22 +1,15 @@
 package com.mindoo.domino.jna.internal;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.io.Writer;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.nio.channels.FileChannel;
-import java.nio.charset.Charset;
 import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import com.mindoo.domino.jna.errors.UnsupportedPlatformError;
 import com.mindoo.domino.jna.gc.NotesGC;
@@ -25,6 +18,7 @@ import com.sun.jna.Library;
 import com.sun.jna.Native;
 import com.sun.jna.NativeLibrary;
 import com.sun.jna.Structure;
+import com.sun.jna.win32.StdCallLibrary;
 
 /**
  * Class containing a singleton instance to the JNA class wrapping the Notes C API
@@ -32,11 +26,28 @@ import com.sun.jna.Structure;
  * @author Karsten Lehmann
  */
 public class NotesJNAContext {
+	private static final Logger m_logger = Logger.getLogger(NotesJNAContext.class.getName());
 	private static volatile boolean m_initialized;
 	private static volatile NotesCAPI m_api;
 	private static volatile NotesCAPI m_apiWithCrashStackLogging;
 	private static volatile Boolean m_is64Bit;
 	private static volatile Integer m_platformAlignment;
+	private static volatile Boolean m_useDirectMapping;
+	private static volatile boolean m_directMappingActive;
+	private static volatile String m_libName;
+	private static volatile Map<String,Object> m_directLibOptions;
+	
+	/**
+	 * C function names for API methods that have a different name to avoid ambiguous
+	 * overloads (method name without b32_/b64_ prefix as key)
+	 */
+	private static final Map<String,String> m_functionAliases = new HashMap<String,String>();
+	static {
+		m_functionAliases.put("NSFSearchExtended3WithMatchProc", "NSFSearchExtended3");
+	}
+	
+	/** System property to activate the direct mapped binding, see {@link #setUseDirectMapping(boolean)} */
+	public static final String PROP_USEDIRECTMAPPING = "mindoo.domino.jna.directmapping";
 	
 	/**
 	 * Checks if the current JVM is running in 64 bit mode
@@ -61,6 +72,40 @@ public class NotesJNAContext {
 		return m_platformAlignment;
 	}
 
+	/**
+	 * Method to select the binding for the most frequently called C API functions like
+	 * NIFReadEntries, OSLockObject, OSTranslate or NSFItemInfo. By default, all functions are
+	 * called via JNA interface mapping. When set to true, these functions are called via
+	 * JNA direct mapping instead, which avoids the proxy dispatch and per-call argument
+	 * conversion (see {@link DirectMappedNotesCAPI}).<br>
+	 * <br>
+	 * The binding is chosen once when the Notes library gets loaded, so this method needs to
+	 * be called before the first API call. As an alternative, the system property
+	 * {@value #PROP_USEDIRECTMAPPING} can be set to "true".
+	 * 
+	 * @param b true to use direct mapping
+	 * @throws IllegalStateException if the API has already been initialized
+	 */
+	public static void setUseDirectMapping(boolean b) {
+		if (m_api!=null)
+			throw new IllegalStateException("The Notes API has already been initialized");
+		m_useDirectMapping = Boolean.valueOf(b);
+	}
+	
+	/**
+	 * Checks whether the most frequently called C API functions are invoked via JNA
+	 * direct mapping (see {@link #setUseDirectMapping(boolean)}). Returns false if direct
+	 * mapping has been requested but the functions could not be registered.
+	 * 
+	 * @return true if direct mapping is active
+	 */
+	public static boolean isDirectMappingActive() {
+		if (m_api==null) {
+			initAPI();
+		}
+		return m_directMappingActive;
+	}
+	
 	/**
 	 * Returns the {@link NotesCAPI} singleton instance to call C methods
 	 * 
@@ -84,8 +129,9 @@ public class NotesJNAContext {
 	}
 	
 	/**
-	 * Wraps the specified API object to dump caller stacktraces right before invoking
-	 * native methods
+	 * Wraps the specified API object to record the name of each native method in the
+	 * memory-mapped breadcrumb file of {@link NativeCallBreadcrumbs} right before
+	 * invoking it
 	 * 
 	 * @param api API
 	 * @return wrapped API
@@ -102,6 +148,12 @@ public class NotesJNAContext {
 			interfaces = new Class[] {NotesCAPI.class};
 		}
 		
+		final NativeCallBreadcrumbs breadcrumbs = NativeCallBreadcrumbs.getInstance();
+		if (breadcrumbs==null) {
+			//breadcrumb file could not be created
+			return api;
+		}
+		
 		try {
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<NotesCAPI>() {
 
@@ -111,84 +163,14 @@ public class NotesJNAContext {
 						
 						@Override
 						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-							Exception e = new Exception();
-							e.fillInStackTrace();
-							
-							File stFile = createStackTraceFile(e);
+							breadcrumbs.enter(method, NotesGC.getLogCrashingThreadStacktraceInterval());
 							try {
 								return method.invoke(api, args);
 							}
 							finally {
-								if (stFile!=null)
-									deleteStackTraceFile(stFile);
+								breadcrumbs.exit();
 							}
 						}
-
-						private void deleteStackTraceFile(final File stFile) {
-							AccessController.doPrivileged(new PrivilegedAction<Object>() {
-
-								@Override
-								public Object run() {
-									if (stFile.exists() && !stFile.delete()) {
-										stFile.deleteOnExit();
-									}
-									return null;
-								}
-							});
-						}
-
-						private File createStackTraceFile(final Exception e) {
-							return AccessController.doPrivileged(new PrivilegedAction<File>() {
-
-								@Override
-								public File run() {
-									String tmpDirPath = System.getProperty("java.io.tmpdir");
-									File tmpDir = new File(tmpDirPath);
-									File stFile = new File(tmpDir, "domino-jna-stack-"+Thread.currentThread().getId()+".txt");
-									if (stFile.exists()) {
-										if (!stFile.delete()) {
-											stFile.deleteOnExit();
-											return null;
-										}
-									}
-									FileOutputStream fOut=null;
-									Writer fWriter=null;
-									PrintWriter pWriter=null;
-									try {
-										fOut = new FileOutputStream(stFile);
-										fWriter = new OutputStreamWriter(fOut, Charset.forName("UTF-8"));
-										pWriter = new PrintWriter(fWriter);
-										e.printStackTrace(pWriter);
-										pWriter.flush();
-										FileChannel channel = fOut.getChannel();
-										channel.force(true);
-										return stFile;
-									} catch (IOException e1) {
-										e.printStackTrace();
-										return null;
-									}
-									finally {
-										if (fOut!=null) {
-											try {
-												fOut.close();
-											} catch (IOException e) {
-												e.printStackTrace();
-											}
-										}
-										if (pWriter!=null) {
-											pWriter.close();
-										}
-										if (fWriter!=null) {
-											try {
-												fWriter.close();
-											} catch (IOException e) {
-												e.printStackTrace();
-											}
-										}
-									}
-								}
-							});
-						}
 					});
 				}
 			});
@@ -224,47 +206,63 @@ public class NotesJNAContext {
 
 										String osName = System.getProperty("os.name");
 										
-										@SuppressWarnings("rawtypes")
-										Map options = new HashMap();
-										options.put(Library.OPTION_FUNCTION_MAPPER, new FunctionMapper() {
-											//use different methods for 32 and 64 bit
-											@Override
-											public String getFunctionName(NativeLibrary library, Method method) {
-												String methodName = method.getName();
-												if (methodName.startsWith("b32_") || methodName.startsWith("b64_")) {
-													return methodName.substring(4);
-												}
-												else
-													return methodName;
-											}
-										});
+										Map<String,Object> options = createLibraryOptions();
 										
 										try {
 											String osNameLC = osName.toLowerCase();
 											
 											if (osNameLC.startsWith("windows")) {
-												m_api=(NotesCAPI) Native.loadLibrary("nnotes", WinNotesCAPI.class, options);
+												WinNotesCAPI api = Native.loadLibrary("nnotes", WinNotesCAPI.class, options);
 												if (Boolean.TRUE.equals(m_is64Bit)) {
 													m_platformAlignment = Structure.ALIGN_DEFAULT;
 												}
 												else {
 													m_platformAlignment = Structure.ALIGN_NONE;
 												}
+												
+												Map<String,Object> directOptions = new HashMap<String,Object>(options);
+												directOptions.put(Library.OPTION_CALLING_CONVENTION, StdCallLibrary.STDCALL_CONVENTION);
+												m_libName = "nnotes";
+												m_directLibOptions = directOptions;
+												if (registerDirectMappedFunctions()) {
+													m_api = new DirectMappedNotesCAPI.Win(api);
+												}
+												else {
+													m_api = api;
+												}
 												return null;
 											}
 											else if (osNameLC.startsWith("mac")) {
-												m_api=(NotesCAPI) Native.loadLibrary("notes", MacNotesCAPI.class, options);
+												MacNotesCAPI api = Native.loadLibrary("notes", MacNotesCAPI.class, options);
 												if (Boolean.TRUE.equals(m_is64Bit)) {
 													m_platformAlignment = Structure.ALIGN_NONE;
 												}
 												else {
 													m_platformAlignment = Structure.ALIGN_DEFAULT;
 												}
+												
+												m_libName = "notes";
+												m_directLibOptions = new HashMap<String,Object>(options);
+												if (registerDirectMappedFunctions()) {
+													m_api = new DirectMappedNotesCAPI.Mac(api);
+												}
+												else {
+													m_api = api;
+												}
 												return null;
 											}
 											else if (osNameLC.startsWith("linux")) {
-												m_api=(NotesCAPI) Native.loadLibrary("notes", NotesCAPI.class, options);
+												NotesCAPI api = Native.loadLibrary("notes", NotesCAPI.class, options);
 												m_platformAlignment = Structure.ALIGN_DEFAULT;
+												
+												m_libName = "notes";
+												m_directLibOptions = new HashMap<String,Object>(options);
+												if (registerDirectMappedFunctions()) {
+													m_api = new DirectMappedNotesCAPI(api);
+												}
+												else {
+													m_api = api;
+												}
 												return null;
 											}
 											else {
@@ -296,5 +294,71 @@ public class NotesJNAContext {
 			}
 		}
 	}
+
+	/**
+	 * Creates the options to load the Notes library, used for both interface and direct
+	 * mapping: a function mapper that removes the b32_/b64_ prefix of the method names
+	 * and maps renamed methods to their C function names
+	 * 
+	 * @return options
+	 */
+	public static Map<String,Object> createLibraryOptions() {
+		Map<String,Object> options = new HashMap<String,Object>();
+		options.put(Library.OPTION_FUNCTION_MAPPER, new FunctionMapper() {
+			//use different methods for 32 and 64 bit
+			@Override
+			public String getFunctionName(NativeLibrary library, Method method) {
+				String methodName = method.getName();
+				if (methodName.startsWith("b32_") || methodName.startsWith("b64_")) {
+					methodName = methodName.substring(4);
+				}
+				String aliasedName = m_functionAliases.get(methodName);
+				return aliasedName!=null ? aliasedName : methodName;
+			}
+		});
+		return options;
+	}
+
+	/**
+	 * Registers the direct mapped C functions in {@link NotesCAPIDirectFunctions} if
+	 * requested via {@link #setUseDirectMapping(boolean)} or the system property
+	 * {@value #PROP_USEDIRECTMAPPING}. Needs to be called after the platform alignment
+	 * has been computed, because registering instantiates the structure classes.
+	 * 
+	 * @return true if the functions have been registered
+	 */
+	private static boolean registerDirectMappedFunctions() {
+		Boolean useDirectMapping = m_useDirectMapping;
+		if (useDirectMapping==null) {
+			useDirectMapping = Boolean.valueOf("true".equalsIgnoreCase(System.getProperty(PROP_USEDIRECTMAPPING)));
+		}
+		if (!useDirectMapping.booleanValue()) {
+			return false;
+		}
+		
+		try {
+			NotesCAPIDirectFunctions.register(NativeLibrary.getInstance(m_libName, m_directLibOptions));
+			m_directMappingActive = true;
+			return true;
+		}
+		catch (Throwable t) {
+			//fall back to interface mapping, e.g. if a function is missing in an older Notes version
+			m_logger.log(Level.WARNING, "Could not register direct mapped Notes API functions, using interface mapping instead", t);
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the Notes library loaded with the options to bind the direct mapped
+	 * functions of {@link NotesCAPIDirectFunctions}. Loads the library if required.
+	 * 
+	 * @return library
+	 */
+	static NativeLibrary getDirectMappingLibrary() {
+		if (m_api==null) {
+			initAPI();
+		}
+		return NativeLibrary.getInstance(m_libName, m_directLibOptions);
+	}
 	
 }
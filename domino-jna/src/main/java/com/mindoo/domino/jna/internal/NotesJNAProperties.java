@@ -0,0 +1,90 @@
+package com.mindoo.domino.jna.internal;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utility class to read configuration values for Domino JNA from Java system properties.
+ * Properties are read in a privileged block, so that this also works in restricted
+ * environments like the XPages runtime.
+ *
+ * @author Karsten Lehmann
+ */
+public class NotesJNAProperties {
+	private static final Logger m_logger = Logger.getLogger(NotesJNAProperties.class.getName());
+
+	/**
+	 * Reads a system property
+	 *
+	 * @param name property name
+	 * @return value or null if not set
+	 */
+	public static String getProperty(final String name) {
+		return AccessController.doPrivileged(new PrivilegedAction<String>() {
+
+			@Override
+			public String run() {
+				return System.getProperty(name);
+			}
+		});
+	}
+
+	/**
+	 * Reads a system property as int value
+	 *
+	 * @param name property name
+	 * @param defaultValue value to return if the property is not set or cannot be parsed
+	 * @return value
+	 */
+	public static int getInt(String name, int defaultValue) {
+		String value = getProperty(name);
+		if (value==null || value.trim().length()==0)
+			return defaultValue;
+
+		try {
+			return Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException e) {
+			m_logger.log(Level.WARNING, "Invalid int value for system property "+name+": "+value);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Reads a system property as long value
+	 *
+	 * @param name property name
+	 * @param defaultValue value to return if the property is not set or cannot be parsed
+	 * @return value
+	 */
+	public static long getLong(String name, long defaultValue) {
+		String value = getProperty(name);
+		if (value==null || value.trim().length()==0)
+			return defaultValue;
+
+		try {
+			return Long.parseLong(value.trim());
+		}
+		catch (NumberFormatException e) {
+			m_logger.log(Level.WARNING, "Invalid long value for system property "+name+": "+value);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Reads a system property as boolean value
+	 *
+	 * @param name property name
+	 * @param defaultValue value to return if the property is not set
+	 * @return value
+	 */
+	public static boolean getBoolean(String name, boolean defaultValue) {
+		String value = getProperty(name);
+		if (value==null || value.trim().length()==0)
+			return defaultValue;
+
+		return "true".equalsIgnoreCase(value.trim());
+	}
+}
@@ -231,6 +231,7 @@ public class NotesLookupResultBufferDecoder {
 
 					Map<String,Object> itemValues = itemTableData.asMap(false);
 					newData.setSummaryData(itemValues);
+					newData.setColumnValueSizesInBytes(itemTableData.getItemValueLengthsInBytes());
 				}
 				if (singleColumnLookupName!=null) {
 					newData.setSingleColumnLookupName(singleColumnLookupName);
@@ -319,6 +320,7 @@ public class NotesLookupResultBufferDecoder {
 	 */
 	private static void populateItemValueTableData(Pointer bufferPtr, int gmtOffset, boolean useDayLight, int itemsCount, int[] itemNameLengths, int[] itemValueLengths, ItemValueTableData retData, boolean convertStringsLazily) {
 		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		boolean decodeTimeDatesAsMillis = NotesDateTimeUtils.isDecodeTimeDatesAsMillis();
 		
 		int bufferPos = 0;
 		String[] itemNames = new String[itemsCount];
@@ -376,15 +378,22 @@ public class NotesLookupResultBufferDecoder {
 					decodedItemValues[j] = numVal;
 				}
 				else if (itemDataTypes[j] == NotesItem.TYPE_TIME) {
-					Calendar cal = ItemDecoder.decodeTimeDate(notesAPI, itemValueBufferPointers[j], (int) (itemValueBufferSizes[j] & 0xffff), useDayLight, gmtOffset);
-					decodedItemValues[j]  = cal;
+					if (decodeTimeDatesAsMillis) {
+						decodedItemValues[j] = ItemDecoder.decodeTimeDateAsMillis(notesAPI, itemValueBufferPointers[j], itemValueBufferSizes[j] & 0xffff, useDayLight, gmtOffset);
+					}
+					else {
+						Calendar cal = ItemDecoder.decodeTimeDate(notesAPI, itemValueBufferPointers[j], (int) (itemValueBufferSizes[j] & 0xffff), useDayLight, gmtOffset);
+						decodedItemValues[j]  = cal;
+					}
 				}
 				else if (itemDataTypes[j] == NotesItem.TYPE_NUMBER_RANGE) {
 					List<Object> numberList = ItemDecoder.decodeNumberList(notesAPI, itemValueBufferPointers[j], (int) (itemValueBufferSizes[j] & 0xffff));
 					decodedItemValues[j]  = numberList;
 				}
 				else if (itemDataTypes[j] == NotesItem.TYPE_TIME_RANGE) {
-					List<Object> calendarValues = ItemDecoder.decodeTimeDateList(notesAPI, itemValueBufferPointers[j], useDayLight, gmtOffset);
+					List<Object> calendarValues = decodeTimeDatesAsMillis ?
+							ItemDecoder.decodeTimeDateListAsMillis(notesAPI, itemValueBufferPointers[j], useDayLight, gmtOffset) :
+								ItemDecoder.decodeTimeDateList(notesAPI, itemValueBufferPointers[j], useDayLight, gmtOffset);
 					decodedItemValues[j] = calendarValues;
 				}
 			}
@@ -43,6 +43,15 @@ public abstract class SizeLimitedLRUCache<K,V> {
 		return m_cacheSizeInUnits;
 	}
 	
+	/**
+	 * Returns the number of cache entries
+	 * 
+	 * @return entries
+	 */
+	public final int size() {
+		return m_cache.size();
+	}
+	
 	private Type addOrMoveToHead(CacheEntry<K,V> entry) {
 		int entrySizeUnits = computeSize(entry);
 		
@@ -113,7 +122,9 @@ public abstract class SizeLimitedLRUCache<K,V> {
 			if (m_head.equals(entry)) {
 				//entry is head
 				entry.setNext(null);
-				oldEntryNext.setPrev(null);
+				if (oldEntryNext!=null) {
+					oldEntryNext.setPrev(null);
+				}
 				m_head = oldEntryNext;
 			}
 			else {
@@ -160,9 +171,12 @@ public abstract class SizeLimitedLRUCache<K,V> {
 			
 			CacheEntry<K,V> tailPredecessor = m_tail.getPrev();
 			m_tail = tailPredecessor;
-			tailPredecessor.setNext(null);
+			if (tailPredecessor!=null) {
+				tailPredecessor.setNext(null);
+			}
 			oldTail.setPrev(null);
 			m_cacheSizeInUnits -= tailSizeUnits;
+			m_cache.remove(oldTail.getKey());
 			
 			entryRemoved(oldTail);
 			
@@ -0,0 +1,213 @@
+package com.mindoo.domino.jna.internal;
+
+/**
+ * Thread-safe variant of {@link SizeLimitedLRUCache}. The cache is split into segments
+ * (lock striping), each segment is an independent {@link SizeLimitedLRUCache} with its
+ * own lock and a proportional share of the size limit. Threads only contend if they access
+ * keys of the same segment.<br>
+ * <br>
+ * The cache counts hits, misses and evictions per segment (under the segment lock),
+ * which are summed up when read.
+ *
+ * @author Karsten Lehmann
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public abstract class StripedSizeLimitedLRUCache<K,V> {
+	private final Segment<K,V>[] m_segments;
+	private final int m_segmentMask;
+	private final int m_maxSizeUnits;
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param maxSizeUnits maximum size of all segments in units (see {@link #computeSize(Object, Object)})
+	 * @param concurrencyLevel number of segments, rounded up to the next power of two
+	 */
+	public StripedSizeLimitedLRUCache(int maxSizeUnits, int concurrencyLevel) {
+		int segmentCount = 1;
+		while (segmentCount < concurrencyLevel && segmentCount < (1<<16)) {
+			segmentCount <<= 1;
+		}
+		m_maxSizeUnits = maxSizeUnits;
+		m_segmentMask = segmentCount - 1;
+		@SuppressWarnings("unchecked")
+		Segment<K,V>[] segments = (Segment<K,V>[]) new Segment<?,?>[segmentCount];
+		m_segments = segments;
+		int segmentSizeUnits = Math.max(1, maxSizeUnits / segmentCount);
+		for (int i=0; i<segmentCount; i++) {
+			m_segments[i] = new Segment<K,V>(this, segmentSizeUnits);
+		}
+	}
+
+	/**
+	 * Implement this method to compute a size for a cache entry
+	 *
+	 * @param key key
+	 * @param value value
+	 * @return size in units
+	 */
+	protected abstract int computeSize(K key, V value);
+
+	private Segment<K,V> segmentFor(K key) {
+		int h = key.hashCode();
+		//spread bits like java.util.HashMap so that segments are hit evenly
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return m_segments[h & m_segmentMask];
+	}
+
+	/**
+	 * Reads a value from the cache and marks it as recently used
+	 *
+	 * @param key key
+	 * @return value or null if not cached
+	 */
+	public V get(K key) {
+		Segment<K,V> segment = segmentFor(key);
+		synchronized (segment) {
+			V value = segment.get(key);
+			if (value==null) {
+				segment.m_misses++;
+			}
+			else {
+				segment.m_hits++;
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Adds a value to the cache. Least recently used entries are removed if the
+	 * segment exceeds its size limit.
+	 *
+	 * @param key key
+	 * @param value value
+	 */
+	public void put(K key, V value) {
+		Segment<K,V> segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+
+	/**
+	 * Removes a value from the cache
+	 *
+	 * @param key key
+	 * @return true if removed
+	 */
+	public boolean remove(K key) {
+		Segment<K,V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.remove(key);
+		}
+	}
+
+	/**
+	 * Returns the maximum size of the cache in units
+	 *
+	 * @return size
+	 */
+	public int getMaxSizeInUnits() {
+		return m_maxSizeUnits;
+	}
+
+	/**
+	 * Returns the current size of the cache in units
+	 *
+	 * @return size
+	 */
+	public int getCurrentCacheSizeInUnits() {
+		int size = 0;
+		for (Segment<K,V> currSegment : m_segments) {
+			synchronized (currSegment) {
+				size += currSegment.getCurrentCacheSizeInUnits();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of cache entries
+	 *
+	 * @return entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K,V> currSegment : m_segments) {
+			synchronized (currSegment) {
+				size += currSegment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of {@link #get(Object)} calls that found a value
+	 *
+	 * @return hits
+	 */
+	public long getHitCount() {
+		long hits = 0;
+		for (Segment<K,V> currSegment : m_segments) {
+			synchronized (currSegment) {
+				hits += currSegment.m_hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Returns the number of {@link #get(Object)} calls that did not find a value
+	 *
+	 * @return misses
+	 */
+	public long getMissCount() {
+		long misses = 0;
+		for (Segment<K,V> currSegment : m_segments) {
+			synchronized (currSegment) {
+				misses += currSegment.m_misses;
+			}
+		}
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries that have been removed because the size limit was reached
+	 *
+	 * @return evictions
+	 */
+	public long getEvictionCount() {
+		long evictions = 0;
+		for (Segment<K,V> currSegment : m_segments) {
+			synchronized (currSegment) {
+				evictions += currSegment.m_evictions;
+			}
+		}
+		return evictions;
+	}
+
+	private static class Segment<K,V> extends SizeLimitedLRUCache<K,V> {
+		private final StripedSizeLimitedLRUCache<K,V> m_parent;
+		private long m_hits;
+		private long m_misses;
+		private long m_evictions;
+
+		public Segment(StripedSizeLimitedLRUCache<K,V> parent, int maxSizeUnits) {
+			super(maxSizeUnits);
+			m_parent = parent;
+		}
+
+		@Override
+		protected int computeSize(CacheEntry<K, V> entry) {
+			return m_parent.computeSize(entry.getKey(), entry.getValue());
+		}
+
+		@Override
+		protected void entryRemoved(CacheEntry<K, V> entry) {
+			m_evictions++;
+		}
+	}
+}
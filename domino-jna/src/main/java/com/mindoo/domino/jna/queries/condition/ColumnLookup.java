@@ -3,23 +3,55 @@ package com.mindoo.domino.jna.queries.condition;
 import java.util.Calendar;
 
 public class ColumnLookup extends Criteria {
-
+	private String m_columnName;
+	private Relation m_relation;
+	private Object[] m_values;
+	
 	private ColumnLookup(String columnName, Relation rel, String... value) {
-		
+		this(columnName, rel, (Object[]) value);
 	}
 	
 	private ColumnLookup(String columnName, Relation rel, int... value) {
-		
+		this(columnName, rel, toObjectArray(value));
 	}
 
 	private ColumnLookup(String columnName, Relation rel, double... value) {
-		
+		this(columnName, rel, toObjectArray(value));
 	}
 
 	private ColumnLookup(String columnName, Relation rel, Calendar... value) {
-		
+		this(columnName, rel, (Object[]) value);
 	}
 
+	private ColumnLookup(String columnName, Relation rel, Object[] values) {
+		if (values==null || values.length==0)
+			throw new IllegalArgumentException("No lookup values specified for column "+columnName);
+		
+		m_columnName = columnName;
+		m_relation = rel;
+		m_values = values;
+	}
+	
+	private static Object[] toObjectArray(int[] values) {
+		if (values==null)
+			return null;
+		Object[] objValues = new Object[values.length];
+		for (int i=0; i<values.length; i++) {
+			objValues[i] = Integer.valueOf(values[i]);
+		}
+		return objValues;
+	}
+	
+	private static Object[] toObjectArray(double[] values) {
+		if (values==null)
+			return null;
+		Object[] objValues = new Object[values.length];
+		for (int i=0; i<values.length; i++) {
+			objValues[i] = Double.valueOf(values[i]);
+		}
+		return objValues;
+	}
+	
 	public static Criteria column(String columnName, Relation rel, String... values) {
 		return new ColumnLookup(columnName, rel, values);
 	}
@@ -36,4 +68,30 @@ public class ColumnLookup extends Criteria {
 		return new ColumnLookup(columnName, rel, values);
 	}
 
+	/**
+	 * Returns the programmatic column name or column title
+	 * 
+	 * @return column
+	 */
+	public String getColumnName() {
+		return m_columnName;
+	}
+	
+	/**
+	 * Returns the relation between column value and lookup values
+	 * 
+	 * @return relation
+	 */
+	public Relation getRelation() {
+		return m_relation;
+	}
+	
+	/**
+	 * Returns the lookup values; the criteria matches if the relation matches for any of them
+	 * 
+	 * @return values ({@link String}, {@link Integer}, {@link Double} or {@link Calendar})
+	 */
+	public Object[] getValues() {
+		return m_values;
+	}
 }
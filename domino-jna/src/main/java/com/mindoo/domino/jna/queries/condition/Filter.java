@@ -15,6 +15,15 @@ public class Filter implements Iterable<NotesViewEntryData> {
 		parentSelection.setFilter(this);
 	}
 	
+	/**
+	 * Returns the filter criteria
+	 * 
+	 * @return criteria
+	 */
+	public Criteria getCriteria() {
+		return m_crit;
+	}
+	
 	public Sorting orderBy(String columnName) {
 		return new Sorting(m_parentSelection, columnName);
 	}
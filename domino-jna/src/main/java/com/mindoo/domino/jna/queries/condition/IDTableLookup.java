@@ -22,4 +22,25 @@ public class IDTableLookup extends Criteria {
 		return new IDTableLookup(values);
 	}
 
+	/**
+	 * Returns the note ids of this criteria. Note ids passed as strings are expected
+	 * to be hex values, optionally with "NT" prefix (e.g. "NT000008FE")
+	 * 
+	 * @return note ids
+	 */
+	public int[] getNoteIds() {
+		if (m_noteIdsInt!=null) {
+			return m_noteIdsInt;
+		}
+		
+		int[] noteIds = new int[m_noteIdsStr==null ? 0 : m_noteIdsStr.length];
+		for (int i=0; i<noteIds.length; i++) {
+			String currNoteIdStr = m_noteIdsStr[i].trim();
+			if (currNoteIdStr.length()>2 && currNoteIdStr.substring(0, 2).equalsIgnoreCase("NT")) {
+				currNoteIdStr = currNoteIdStr.substring(2);
+			}
+			noteIds[i] = (int) Long.parseLong(currNoteIdStr, 16);
+		}
+		return noteIds;
+	}
 }
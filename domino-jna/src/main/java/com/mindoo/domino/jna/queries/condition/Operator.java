@@ -17,6 +17,7 @@ public class Operator extends Criteria {
 	public static Criteria and(Criteria crit1, Criteria crit2, Criteria... criteria) {
 		List<Criteria> criteriaList = new ArrayList<Criteria>();
 		criteriaList.add(crit1);
+		criteriaList.add(crit2);
 		if (criteria!=null) {
 			for (Criteria currCrit : criteria) {
 				criteriaList.add(currCrit);
@@ -28,6 +29,7 @@ public class Operator extends Criteria {
 	public static Criteria or(Criteria crit1, Criteria crit2, Criteria... criteria) {
 		List<Criteria> criteriaList = new ArrayList<Criteria>();
 		criteriaList.add(crit1);
+		criteriaList.add(crit2);
 		if (criteria!=null) {
 			for (Criteria currCrit : criteria) {
 				criteriaList.add(currCrit);
@@ -35,4 +37,31 @@ public class Operator extends Criteria {
 		}
 		return new Operator(OperatorType.OR, criteriaList.toArray(new Criteria[criteriaList.size()]));
 	}
+	
+	/**
+	 * Returns true for an AND operator
+	 * 
+	 * @return true if all criteria need to match
+	 */
+	public boolean isAnd() {
+		return m_type == OperatorType.AND;
+	}
+	
+	/**
+	 * Returns true for an OR operator
+	 * 
+	 * @return true if one criteria needs to match
+	 */
+	public boolean isOr() {
+		return m_type == OperatorType.OR;
+	}
+	
+	/**
+	 * Returns the criteria combined by this operator
+	 * 
+	 * @return criteria
+	 */
+	public Criteria[] getCriteria() {
+		return m_criteriaArr;
+	}
 }
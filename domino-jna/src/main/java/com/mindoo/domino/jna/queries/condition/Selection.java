@@ -2,11 +2,13 @@ package com.mindoo.domino.jna.queries.condition;
 
 import java.util.Iterator;
 
+import com.mindoo.domino.jna.NotesCollection;
 import com.mindoo.domino.jna.NotesViewEntryData;
 import com.mindoo.domino.jna.queries.condition.internal.SelectionEvaluator;
 
 
 public class Selection implements Iterable<NotesViewEntryData> {
+	private NotesCollection m_collection;
 	private String[] m_columns;
 	private Filter m_whereFilter;
 	private Sorting m_orderBySorting;
@@ -14,6 +16,11 @@ public class Selection implements Iterable<NotesViewEntryData> {
 	private int m_count;
 	
 	public Selection(String[] columns) {
+		this(null, columns);
+	}
+	
+	public Selection(NotesCollection collection, String[] columns) {
+		m_collection = collection;
 		m_columns = columns;
 	}
 	
@@ -27,8 +34,7 @@ public class Selection implements Iterable<NotesViewEntryData> {
 	}
 
 	public Sorting orderBy(String columnName) {
-		m_orderBySorting = new Sorting(this, columnName);
-		return m_orderBySorting;
+		return new Sorting(this, columnName);
 	}
 
 	public Skip skip(int entries) {
@@ -62,9 +68,67 @@ public class Selection implements Iterable<NotesViewEntryData> {
 	}
 	
 	public Selection setOrderBy(String columnName) {
-		m_orderBySorting = new Sorting(this, columnName);
+		new Sorting(this, columnName);
 		return this;
 	}
+	
+	void setOrderBy(Sorting sorting) {
+		m_orderBySorting = sorting;
+	}
+	
+	/**
+	 * Returns the collection to read
+	 * 
+	 * @return collection or null if not set
+	 */
+	public NotesCollection getCollection() {
+		return m_collection;
+	}
+	
+	/**
+	 * Returns the selected columns
+	 * 
+	 * @return columns
+	 */
+	public String[] getColumns() {
+		return m_columns;
+	}
+	
+	/**
+	 * Returns the filter
+	 * 
+	 * @return filter or null
+	 */
+	public Filter getFilter() {
+		return m_whereFilter;
+	}
+	
+	/**
+	 * Returns the sorting
+	 * 
+	 * @return sorting or null
+	 */
+	public Sorting getOrderBy() {
+		return m_orderBySorting;
+	}
+	
+	/**
+	 * Returns the number of matching entries to skip
+	 * 
+	 * @return skip count
+	 */
+	public int getSkip() {
+		return m_skip;
+	}
+	
+	/**
+	 * Returns the max number of entries to return
+	 * 
+	 * @return count, 0 for all entries
+	 */
+	public int getCount() {
+		return m_count;
+	}
 
 	@Override
 	public Iterator<NotesViewEntryData> iterator() {
@@ -3,6 +3,7 @@ package com.mindoo.domino.jna.queries.condition;
 import java.util.Iterator;
 
 import com.mindoo.domino.jna.NotesViewEntryData;
+import com.mindoo.domino.jna.queries.condition.internal.SelectionEvaluator;
 
 public class Sorting implements Iterable<NotesViewEntryData> {
 	private Selection m_parentSelection;
@@ -11,6 +12,16 @@ public class Sorting implements Iterable<NotesViewEntryData> {
 	public Sorting(Selection parentSelection, String columnName) {
 		m_parentSelection = parentSelection;
 		m_columnName = columnName;
+		m_parentSelection.setOrderBy(this);
+	}
+
+	/**
+	 * Returns the programmatic name of the column to sort by
+	 * 
+	 * @return column name
+	 */
+	public String getColumnName() {
+		return m_columnName;
 	}
 
 	public Skip skip(int entries) {
@@ -23,8 +34,7 @@ public class Sorting implements Iterable<NotesViewEntryData> {
 
 	@Override
 	public Iterator<NotesViewEntryData> iterator() {
-		// TODO Auto-generated method stub
-		return null;
+		return SelectionEvaluator.evaluate(m_parentSelection);
 	}
 	
 }
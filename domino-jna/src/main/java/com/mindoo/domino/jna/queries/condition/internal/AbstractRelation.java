@@ -1,9 +1,107 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
+import java.util.Calendar;
+import java.util.List;
+
 import com.mindoo.domino.jna.queries.condition.Relation;
 
+/**
+ * Base class for relations between a column value and lookup values
+ * 
+ * @author Karsten Lehmann
+ */
 public abstract class AbstractRelation implements Relation {
 	
 	public AbstractRelation() {
 	}
+	
+	/**
+	 * Checks whether a column value matches the lookup value. For multiple values
+	 * (text lists, number lists), the relation matches if any list value matches.
+	 * 
+	 * @param columnValue column value as returned by {@link com.mindoo.domino.jna.NotesViewEntryData#get(String)}
+	 * @param lookupValue lookup value
+	 * @return true if match
+	 */
+	public boolean matches(Object columnValue, Object lookupValue) {
+		if (columnValue instanceof List) {
+			for (Object currValue : (List<?>) columnValue) {
+				if (matchesSingleValue(currValue, lookupValue)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		else {
+			return matchesSingleValue(columnValue, lookupValue);
+		}
+	}
+	
+	/**
+	 * Returns true for relations like {@link Relation#NotEquals} that must match
+	 * for all lookup values of a {@link com.mindoo.domino.jna.queries.condition.ColumnLookup}
+	 * 
+	 * @return true if negated
+	 */
+	public boolean isNegated() {
+		return false;
+	}
+	
+	/**
+	 * Implement this method to compare a single column value with the lookup value
+	 * 
+	 * @param columnValue column value, not a list
+	 * @param lookupValue lookup value
+	 * @return true if match
+	 */
+	protected abstract boolean matchesSingleValue(Object columnValue, Object lookupValue);
+
+	/**
+	 * Compares a column value with a lookup value. Numbers are compared by their double value,
+	 * {@link Calendar} values by time and all other values by their string value
+	 * 
+	 * @param columnValue column value
+	 * @param lookupValue lookup value
+	 * @param ignoreCase true to compare strings case insensitive
+	 * @return comparison result like {@link Comparable#compareTo(Object)} or null if the values cannot be compared
+	 */
+	protected static Integer compare(Object columnValue, Object lookupValue, boolean ignoreCase) {
+		if (columnValue==null || lookupValue==null) {
+			return null;
+		}
+		
+		if (columnValue instanceof Number && lookupValue instanceof Number) {
+			return Double.compare(((Number)columnValue).doubleValue(), ((Number)lookupValue).doubleValue());
+		}
+		else if (columnValue instanceof Calendar && lookupValue instanceof Calendar) {
+			long t1 = ((Calendar)columnValue).getTimeInMillis();
+			long t2 = ((Calendar)lookupValue).getTimeInMillis();
+			return t1<t2 ? -1 : (t1==t2 ? 0 : 1);
+		}
+		else if (columnValue instanceof String && lookupValue instanceof String) {
+			String str1 = (String) columnValue;
+			String str2 = (String) lookupValue;
+			return ignoreCase ? str1.compareToIgnoreCase(str2) : str1.compareTo(str2);
+		}
+		else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Checks whether a column value starts with a lookup value
+	 * 
+	 * @param columnValue column value
+	 * @param lookupValue lookup value
+	 * @param ignoreCase true to compare case insensitive
+	 * @return true if the string value of the column starts with the lookup value
+	 */
+	protected static boolean startsWith(Object columnValue, Object lookupValue, boolean ignoreCase) {
+		if (columnValue==null || lookupValue==null) {
+			return false;
+		}
+		String str = columnValue.toString();
+		String prefix = lookupValue.toString();
+		return str.regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+	}
 }
@@ -6,4 +6,9 @@ public final class EqualsIgnoreCaseRelation extends AbstractRelation {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		Integer result = compare(columnValue, lookupValue, true);
+		return result!=null && result.intValue()==0;
+	}
 }
@@ -6,4 +6,9 @@ public class EqualsRelation extends AbstractRelation {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		Integer result = compare(columnValue, lookupValue, false);
+		return result!=null && result.intValue()==0;
+	}
 }
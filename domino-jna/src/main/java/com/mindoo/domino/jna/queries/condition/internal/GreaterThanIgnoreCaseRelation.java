@@ -1,10 +1,14 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class GreaterThanIgnoreCaseRelation extends AbstractRelation {
 
 	public GreaterThanIgnoreCaseRelation() {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		Integer result = compare(columnValue, lookupValue, true);
+		return result!=null && result.intValue()>0;
+	}
 }
@@ -1,10 +1,14 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class GreaterThanRelation extends AbstractRelation {
 
 	public GreaterThanRelation() {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		Integer result = compare(columnValue, lookupValue, false);
+		return result!=null && result.intValue()>0;
+	}
 }
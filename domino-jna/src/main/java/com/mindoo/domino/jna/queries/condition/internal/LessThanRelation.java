@@ -1,10 +1,14 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class LessThanRelation extends AbstractRelation {
 
 	public LessThanRelation() {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		Integer result = compare(columnValue, lookupValue, false);
+		return result!=null && result.intValue()<0;
+	}
 }
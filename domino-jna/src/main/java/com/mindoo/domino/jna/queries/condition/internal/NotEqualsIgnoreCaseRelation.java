@@ -0,0 +1,25 @@
+package com.mindoo.domino.jna.queries.condition.internal;
+
+public final class NotEqualsIgnoreCaseRelation extends AbstractRelation {
+	private static final EqualsIgnoreCaseRelation m_positive = new EqualsIgnoreCaseRelation();
+	
+	public NotEqualsIgnoreCaseRelation() {
+		
+	}
+	
+	@Override
+	public boolean isNegated() {
+		return true;
+	}
+	
+	@Override
+	public boolean matches(Object columnValue, Object lookupValue) {
+		//no list value may match
+		return !m_positive.matches(columnValue, lookupValue);
+	}
+	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return !m_positive.matchesSingleValue(columnValue, lookupValue);
+	}
+}
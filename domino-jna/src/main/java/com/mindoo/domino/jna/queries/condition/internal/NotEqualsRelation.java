@@ -1,9 +1,25 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
 public class NotEqualsRelation extends AbstractRelation {
-
+	private static final EqualsRelation m_positive = new EqualsRelation();
+	
 	public NotEqualsRelation() {
 		
 	}
 	
+	@Override
+	public boolean isNegated() {
+		return true;
+	}
+	
+	@Override
+	public boolean matches(Object columnValue, Object lookupValue) {
+		//no list value may match
+		return !m_positive.matches(columnValue, lookupValue);
+	}
+	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return !m_positive.matchesSingleValue(columnValue, lookupValue);
+	}
 }
@@ -1,10 +1,25 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class NotStartsWithIgnoreCaseRelation extends AbstractRelation {
-
+	private static final StartsWithIgnoreCaseRelation m_positive = new StartsWithIgnoreCaseRelation();
+	
 	public NotStartsWithIgnoreCaseRelation() {
 		
 	}
 	
+	@Override
+	public boolean isNegated() {
+		return true;
+	}
+	
+	@Override
+	public boolean matches(Object columnValue, Object lookupValue) {
+		//no list value may match
+		return !m_positive.matches(columnValue, lookupValue);
+	}
+	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return !m_positive.matchesSingleValue(columnValue, lookupValue);
+	}
 }
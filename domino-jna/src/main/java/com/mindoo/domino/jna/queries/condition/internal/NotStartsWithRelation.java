@@ -1,10 +1,25 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class NotStartsWithRelation extends AbstractRelation {
-
+	private static final StartsWithRelation m_positive = new StartsWithRelation();
+	
 	public NotStartsWithRelation() {
 		
 	}
 	
+	@Override
+	public boolean isNegated() {
+		return true;
+	}
+	
+	@Override
+	public boolean matches(Object columnValue, Object lookupValue) {
+		//no list value may match
+		return !m_positive.matches(columnValue, lookupValue);
+	}
+	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return !m_positive.matchesSingleValue(columnValue, lookupValue);
+	}
 }
@@ -1,13 +1,460 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+import com.mindoo.domino.jna.NotesCollection;
+import com.mindoo.domino.jna.NotesCollection.Direction;
+import com.mindoo.domino.jna.NotesCollection.FindResult;
+import com.mindoo.domino.jna.NotesCollectionPosition;
+import com.mindoo.domino.jna.NotesIDTable;
+import com.mindoo.domino.jna.NotesViewColumn;
 import com.mindoo.domino.jna.NotesViewEntryData;
+import com.mindoo.domino.jna.NotesViewLookupResultData;
+import com.mindoo.domino.jna.constants.Find;
+import com.mindoo.domino.jna.constants.Navigate;
+import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.queries.condition.ColumnLookup;
+import com.mindoo.domino.jna.queries.condition.Criteria;
+import com.mindoo.domino.jna.queries.condition.Filter;
+import com.mindoo.domino.jna.queries.condition.IDTableLookup;
+import com.mindoo.domino.jna.queries.condition.Operator;
+import com.mindoo.domino.jna.queries.condition.Relation;
 import com.mindoo.domino.jna.queries.condition.Selection;
+import com.mindoo.domino.jna.queries.condition.Sorting;
 
+/**
+ * Query planner for {@link Selection}.<br>
+ * <br>
+ * The planner pushes as much of the selection as possible into NIF:
+ * <ul>
+ * <li>if the selection has a sort column, the collection is resorted by that column if the
+ * view design allows it; otherwise the result is sorted in memory</li>
+ * <li>an {@link Relation#Equals} or {@link Relation#StartsWith} criteria (or their case insensitive
+ * variants) on the key column of the current collation, combined with the other criteria via AND,
+ * is used for a key lookup that only reads the matching range of view entries</li>
+ * <li>{@link IDTableLookup} criteria combined via AND are intersected in an {@link NotesIDTable}; without
+ * key lookup, the IDs are set as selected list and only selected entries are read</li>
+ * </ul>
+ * All remaining criteria are evaluated on the read view entries. View entries are read page by page
+ * while iterating over the result. Please note that resorting the view and changing the selected list
+ * modifies the state of the collection.
+ *
+ * @author Karsten Lehmann
+ */
 public class SelectionEvaluator {
+	private static final int PAGE_SIZE = 1000;
+	private static final EnumSet<ReadMask> RETURN_MASK = EnumSet.of(ReadMask.NOTEID, ReadMask.NOTEUNID,
+			ReadMask.INDEXPOSITION, ReadMask.SUMMARYVALUES);
 
 	public static Iterator<NotesViewEntryData> evaluate(Selection sel) {
+		NotesCollection col = sel.getCollection();
+		if (col==null)
+			throw new IllegalStateException("Selection is not bound to a collection");
+
+		//use NIF sorting if possible
+		boolean sortInMemory = false;
+		Sorting sorting = sel.getOrderBy();
+		if (sorting!=null) {
+			String sortColumn = sorting.getColumnName();
+			if (!isSortedAscendingBy(col, sortColumn)) {
+				if (col.isColumnResortable(sortColumn, Direction.Ascending)) {
+					col.resortView(sortColumn, Direction.Ascending);
+				}
+				else {
+					sortInMemory = true;
+				}
+			}
+		}
+		String keyColumn = getKeyColumn(col);
+
+		//collect criteria combined with AND
+		List<Criteria> andCriteria = new ArrayList<Criteria>();
+		Filter filter = sel.getFilter();
+		if (filter!=null && filter.getCriteria()!=null) {
+			addAndCriteria(filter.getCriteria(), andCriteria);
+		}
+
+		ColumnLookup keyLookup = null;
+		NotesIDTable idTable = null;
+		List<Criteria> residualCriteria = new ArrayList<Criteria>();
+
+		for (Criteria currCrit : andCriteria) {
+			if (keyLookup==null && isKeyLookup(currCrit, keyColumn)) {
+				keyLookup = (ColumnLookup) currCrit;
+				if (!isCaseInsensitive(keyLookup.getRelation())) {
+					//key lookups are done case insensitive, so we need to check the case afterwards
+					residualCriteria.add(currCrit);
+				}
+			}
+			else if (currCrit instanceof IDTableLookup) {
+				NotesIDTable currTable = new NotesIDTable(((IDTableLookup)currCrit).getNoteIds());
+				if (idTable==null) {
+					idTable = currTable;
+				}
+				else {
+					NotesIDTable intersection = idTable.intersect(currTable);
+					idTable.recycle();
+					currTable.recycle();
+					idTable = intersection;
+				}
+			}
+			else {
+				residualCriteria.add(currCrit);
+			}
+		}
+
+		Iterator<NotesViewEntryData> entries;
+		Set<Integer> noteIdFilter = null;
+
+		if (keyLookup!=null) {
+			EnumSet<Find> findFlags = EnumSet.of(Find.CASE_INSENSITIVE, Find.RETURN_DWORD);
+			Relation rel = keyLookup.getRelation();
+			findFlags.add(rel==Relation.Equals || rel==Relation.EqualsIgnoreCase ? Find.EQUAL : Find.PARTIAL);
+
+			FindResult findResult = col.findByKey(findFlags, keyLookup.getValues()[0]);
+			if (findResult.getEntriesFound()==0) {
+				entries = Collections.<NotesViewEntryData>emptyList().iterator();
+			}
+			else {
+				entries = new EntryReader(col, findResult.getPosition(), 0, EnumSet.of(Navigate.NEXT_NONCATEGORY),
+						findResult.getEntriesFound());
+			}
+
+			if (idTable!=null) {
+				noteIdFilter = new HashSet<Integer>(idTable.toList());
+			}
+		}
+		else if (idTable!=null) {
+			//let NIF only return the entries for the IDs
+			col.select(idTable.toList(), true);
+			entries = new EntryReader(col, "0", 1, EnumSet.of(Navigate.NEXT_SELECTED), Integer.MAX_VALUE);
+		}
+		else {
+			entries = new EntryReader(col, "0", 1, EnumSet.of(Navigate.NEXT_NONCATEGORY), Integer.MAX_VALUE);
+		}
+
+		if (idTable!=null) {
+			idTable.recycle();
+		}
+
+		if (!residualCriteria.isEmpty() || noteIdFilter!=null) {
+			entries = new FilteringIterator(entries, residualCriteria, noteIdFilter);
+		}
+
+		if (sortInMemory) {
+			List<NotesViewEntryData> sortedEntries = new ArrayList<NotesViewEntryData>();
+			while (entries.hasNext()) {
+				sortedEntries.add(entries.next());
+			}
+			final String sortColumn = sorting.getColumnName();
+			Collections.sort(sortedEntries, new Comparator<NotesViewEntryData>() {
+
+				@Override
+				public int compare(NotesViewEntryData o1, NotesViewEntryData o2) {
+					Object val1 = toSingleValue(o1.get(sortColumn));
+					Object val2 = toSingleValue(o2.get(sortColumn));
+					if (val1==null) {
+						return val2==null ? 0 : -1;
+					}
+					else if (val2==null) {
+						return 1;
+					}
+					Integer result = AbstractRelation.compare(val1, val2, true);
+					return result==null ? 0 : result.intValue();
+				}
+			});
+			entries = sortedEntries.iterator();
+		}
+
+		if (sel.getSkip()>0 || sel.getCount()>0) {
+			entries = new SkipCountIterator(entries, sel.getSkip(), sel.getCount());
+		}
+		return entries;
+	}
+
+	private static Object toSingleValue(Object val) {
+		if (val instanceof List) {
+			List<?> list = (List<?>) val;
+			return list.isEmpty() ? null : list.get(0);
+		}
+		return val;
+	}
+
+	private static boolean isSortedAscendingBy(NotesCollection col, String columnName) {
+		String currSortColumn = col.getCurrentSortColumnName();
+		if (currSortColumn!=null) {
+			return currSortColumn.equalsIgnoreCase(columnName) && col.getCurrentSortDirection()==Direction.Ascending;
+		}
+		NotesViewColumn firstSortedColumn = getFirstSortedColumn(col);
+		return firstSortedColumn!=null && columnName.equalsIgnoreCase(firstSortedColumn.getItemName()) &&
+				!firstSortedColumn.isSortedDescending();
+	}
+
+	/**
+	 * Returns the column used by NIFFindByKey
+	 *
+	 * @param col collection
+	 * @return programmatic column name or null
+	 */
+	private static String getKeyColumn(NotesCollection col) {
+		String currSortColumn = col.getCurrentSortColumnName();
+		if (currSortColumn!=null) {
+			return currSortColumn;
+		}
+		NotesViewColumn firstSortedColumn = getFirstSortedColumn(col);
+		return firstSortedColumn==null ? null : firstSortedColumn.getItemName();
+	}
+
+	private static NotesViewColumn getFirstSortedColumn(NotesCollection col) {
+		for (NotesViewColumn currCol : col.getColumns()) {
+			if (currCol.isSorted()) {
+				return currCol;
+			}
+		}
 		return null;
 	}
+
+	private static void addAndCriteria(Criteria crit, List<Criteria> andCriteria) {
+		if (crit instanceof Operator && ((Operator)crit).isAnd()) {
+			for (Criteria currCrit : ((Operator)crit).getCriteria()) {
+				addAndCriteria(currCrit, andCriteria);
+			}
+		}
+		else {
+			andCriteria.add(crit);
+		}
+	}
+
+	private static boolean isKeyLookup(Criteria crit, String keyColumn) {
+		if (keyColumn==null || !(crit instanceof ColumnLookup)) {
+			return false;
+		}
+		ColumnLookup lookup = (ColumnLookup) crit;
+		if (!keyColumn.equalsIgnoreCase(lookup.getColumnName()) || lookup.getValues().length!=1) {
+			return false;
+		}
+
+		Object value = lookup.getValues()[0];
+		Relation rel = lookup.getRelation();
+		if (rel==Relation.Equals || rel==Relation.EqualsIgnoreCase) {
+			//Calendar values are stored with more precision than visible, so equality lookups are not reliable
+			return value instanceof String || value instanceof Number;
+		}
+		else if (rel==Relation.StartsWith || rel==Relation.StartsWithIgnoreCase) {
+			return value instanceof String;
+		}
+		return false;
+	}
+
+	private static boolean isCaseInsensitive(Relation rel) {
+		return rel==Relation.EqualsIgnoreCase || rel==Relation.StartsWithIgnoreCase;
+	}
+
+	/**
+	 * Evaluates criteria for a view entry
+	 *
+	 * @param crit criteria
+	 * @param entry view entry
+	 * @return true if match
+	 */
+	static boolean matches(Criteria crit, NotesViewEntryData entry) {
+		if (crit instanceof ColumnLookup) {
+			ColumnLookup lookup = (ColumnLookup) crit;
+			AbstractRelation rel = (AbstractRelation) lookup.getRelation();
+			Object columnValue = entry.get(lookup.getColumnName());
+
+			boolean negated = rel.isNegated();
+			for (Object currValue : lookup.getValues()) {
+				boolean currMatch = rel.matches(columnValue, currValue);
+				if (negated && !currMatch) {
+					//negated relations must match for all values
+					return false;
+				}
+				else if (!negated && currMatch) {
+					//other relations match for any value
+					return true;
+				}
+			}
+			return negated;
+		}
+		else if (crit instanceof IDTableLookup) {
+			int noteId = entry.getNoteId();
+			for (int currNoteId : ((IDTableLookup)crit).getNoteIds()) {
+				if (currNoteId==noteId) {
+					return true;
+				}
+			}
+			return false;
+		}
+		else if (crit instanceof Operator) {
+			Operator op = (Operator) crit;
+			for (Criteria currCrit : op.getCriteria()) {
+				boolean currMatch = matches(currCrit, entry);
+				if (op.isAnd() && !currMatch) {
+					return false;
+				}
+				else if (op.isOr() && currMatch) {
+					return true;
+				}
+			}
+			return op.isAnd();
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported criteria: "+crit);
+		}
+	}
+
+	/**
+	 * Iterator that reads view entries page by page via NIFReadEntries
+	 */
+	private static class EntryReader implements Iterator<NotesViewEntryData> {
+		private NotesCollection m_col;
+		private NotesCollectionPosition m_pos;
+		private int m_firstSkipCount;
+		private EnumSet<Navigate> m_nav;
+		private int m_remainingEntries;
+		private boolean m_firstPage;
+		private boolean m_done;
+		private Iterator<NotesViewEntryData> m_pageIt;
+
+		public EntryReader(NotesCollection col, String startPos, int firstSkipCount, EnumSet<Navigate> nav, int maxEntries) {
+			m_col = col;
+			m_pos = new NotesCollectionPosition(startPos);
+			m_firstSkipCount = firstSkipCount;
+			m_nav = nav;
+			m_remainingEntries = maxEntries;
+			m_firstPage = true;
+		}
+
+		private void readNextPage() {
+			NotesViewLookupResultData data = m_col.readEntries(m_pos, m_nav, m_firstPage ? m_firstSkipCount : 1, m_nav,
+					Math.min(PAGE_SIZE, m_remainingEntries), RETURN_MASK);
+			m_firstPage = false;
+
+			List<NotesViewEntryData> entries = data.getEntries();
+			m_remainingEntries -= entries.size();
+			if (entries.isEmpty() || !data.hasMoreToDo() || m_remainingEntries<=0) {
+				m_done = true;
+			}
+			m_pageIt = entries.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while ((m_pageIt==null || !m_pageIt.hasNext()) && !m_done) {
+				readNextPage();
+			}
+			return m_pageIt!=null && m_pageIt.hasNext();
+		}
+
+		@Override
+		public NotesViewEntryData next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return m_pageIt.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Iterator that only returns entries matching the residual criteria
+	 */
+	private static class FilteringIterator implements Iterator<NotesViewEntryData> {
+		private Iterator<NotesViewEntryData> m_entries;
+		private List<Criteria> m_criteria;
+		private Set<Integer> m_noteIdFilter;
+		private NotesViewEntryData m_nextEntry;
+
+		public FilteringIterator(Iterator<NotesViewEntryData> entries, List<Criteria> criteria, Set<Integer> noteIdFilter) {
+			m_entries = entries;
+			m_criteria = criteria;
+			m_noteIdFilter = noteIdFilter;
+		}
+
+		private boolean isAccepted(NotesViewEntryData entry) {
+			if (m_noteIdFilter!=null && !m_noteIdFilter.contains(entry.getNoteId())) {
+				return false;
+			}
+			for (Criteria currCrit : m_criteria) {
+				if (!matches(currCrit, entry)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (m_nextEntry==null && m_entries.hasNext()) {
+				NotesViewEntryData currEntry = m_entries.next();
+				if (isAccepted(currEntry)) {
+					m_nextEntry = currEntry;
+				}
+			}
+			return m_nextEntry!=null;
+		}
+
+		@Override
+		public NotesViewEntryData next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			NotesViewEntryData entry = m_nextEntry;
+			m_nextEntry = null;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Iterator that skips the first entries and stops after a max number of entries
+	 */
+	private static class SkipCountIterator implements Iterator<NotesViewEntryData> {
+		private Iterator<NotesViewEntryData> m_entries;
+		private int m_skip;
+		private int m_remaining;
+
+		public SkipCountIterator(Iterator<NotesViewEntryData> entries, int skip, int count) {
+			m_entries = entries;
+			m_skip = skip;
+			m_remaining = count>0 ? count : Integer.MAX_VALUE;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (m_skip>0 && m_entries.hasNext()) {
+				m_entries.next();
+				m_skip--;
+			}
+			return m_remaining>0 && m_entries.hasNext();
+		}
+
+		@Override
+		public NotesViewEntryData next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			m_remaining--;
+			return m_entries.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
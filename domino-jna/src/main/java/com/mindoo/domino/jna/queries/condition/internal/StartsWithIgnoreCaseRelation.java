@@ -1,10 +1,13 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class StartsWithIgnoreCaseRelation extends AbstractRelation {
 
 	public StartsWithIgnoreCaseRelation() {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return startsWith(columnValue, lookupValue, true);
+	}
 }
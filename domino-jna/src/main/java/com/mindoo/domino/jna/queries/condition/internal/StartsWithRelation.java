@@ -1,10 +1,13 @@
 package com.mindoo.domino.jna.queries.condition.internal;
 
-
 public final class StartsWithRelation extends AbstractRelation {
 
 	public StartsWithRelation() {
 		
 	}
 	
+	@Override
+	protected boolean matchesSingleValue(Object columnValue, Object lookupValue) {
+		return startsWith(columnValue, lookupValue, false);
+	}
 }
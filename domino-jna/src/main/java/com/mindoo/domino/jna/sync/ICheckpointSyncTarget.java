@@ -0,0 +1,33 @@
+package com.mindoo.domino.jna.sync;
+
+/**
+ * Optional extension of {@link ISyncTarget} for targets that can commit pending writes
+ * while a long sync run is still in progress.<br>
+ * <br>
+ * When a sync run gets aborted, {@link ISyncTarget#endingSync(Object, String, String, com.mindoo.domino.jna.NotesTimeDate)}
+ * is not called, so the next run starts with the same sync end date. For a first time sync, this means that
+ * the originator ids of source and target get compared again and notes committed in a checkpoint are skipped
+ * because they are already up to date in the target. For an incremental sync, the changes since the last sync
+ * end date are passed to the target again.
+ *
+ * @author Karsten Lehmann
+ */
+public interface ICheckpointSyncTarget extends ISyncTarget {
+
+	/**
+	 * Returns the number of notes passed to the target between two calls of {@link #checkpoint(Object, int)}
+	 *
+	 * @return interval or 0 to disable checkpoints
+	 */
+	public int getCheckpointInterval();
+
+	/**
+	 * Method is called every {@link #getCheckpointInterval()} notes to commit the pending writes,
+	 * e.g. by committing the current transaction and starting a new one.
+	 *
+	 * @param ctx sync context
+	 * @param processedNoteCount number of notes passed to the target so far in this sync run
+	 */
+	public void checkpoint(Object ctx, int processedNoteCount);
+
+}
@@ -0,0 +1,239 @@
+package com.mindoo.domino.jna.sync;
+
+import com.mindoo.domino.jna.NotesTimeDate;
+import com.mindoo.domino.jna.utils.NotesStringUtils;
+
+/**
+ * Hash map of originator ids keyed by UNID that is used by {@link SyncUtil} to compare
+ * source and target data.<br>
+ * <br>
+ * UNIDs are stored as two long values and the sequence number and sequence time as ints in
+ * primitive arrays with open addressing, so an entry needs about 40 bytes of heap instead of
+ * several hundred bytes for a {@link java.util.HashMap} entry with a UNID string and a
+ * {@link NotesOriginatorIdData} object. Entries are addressed by their slot index.
+ *
+ * @author Karsten Lehmann
+ */
+class OriginatorIdMap {
+	private static final int MIN_CAPACITY = 16;
+	private static final byte FLAG_USED = 1;
+	private static final byte FLAG_SEEN = 2;
+
+	private long[] m_unidFile;
+	private long[] m_unidNote;
+	private int[] m_seq;
+	private int[] m_seqTimeInnards;
+	private byte[] m_flags;
+	private int m_size;
+	private int m_resizeThreshold;
+
+	/**
+	 * Creates a new map
+	 *
+	 * @param expectedSize expected number of entries
+	 */
+	public OriginatorIdMap(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 3 / 4 < expectedSize) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		m_unidFile = new long[capacity];
+		m_unidNote = new long[capacity];
+		m_seq = new int[capacity];
+		m_seqTimeInnards = new int[capacity * 2];
+		m_flags = new byte[capacity];
+		m_resizeThreshold = capacity * 3 / 4;
+	}
+
+	/**
+	 * Parses the UNID of an originator id and adds it to the map. An existing entry for the UNID is replaced.
+	 *
+	 * @param oid originator id
+	 * @return slot index
+	 */
+	public int put(NotesOriginatorIdData oid) {
+		String unid = oid.getUNID();
+		if (unid==null || unid.length()!=32) {
+			throw new IllegalArgumentException("Invalid UNID: "+unid);
+		}
+		long unidFile = (Long.parseLong(unid.substring(0, 8), 16) << 32) | Long.parseLong(unid.substring(8, 16), 16);
+		long unidNote = (Long.parseLong(unid.substring(16, 24), 16) << 32) | Long.parseLong(unid.substring(24, 32), 16);
+
+		int[] seqTimeInnards = oid.getSequenceTime().getInnards();
+		return put(unidFile, unidNote, oid.getSequence(), seqTimeInnards[0], seqTimeInnards[1]);
+	}
+
+	/**
+	 * Adds an entry to the map. An existing entry for the UNID is replaced.
+	 *
+	 * @param unidFile file part of the UNID
+	 * @param unidNote note part of the UNID
+	 * @param seq sequence number
+	 * @param seqTimeInnards0 first innard of the sequence time
+	 * @param seqTimeInnards1 second innard of the sequence time
+	 * @return slot index
+	 */
+	public int put(long unidFile, long unidNote, int seq, int seqTimeInnards0, int seqTimeInnards1) {
+		if (m_size >= m_resizeThreshold) {
+			resize(m_flags.length << 1);
+		}
+
+		int slot = findSlot(unidFile, unidNote);
+		if (m_flags[slot]==0) {
+			m_unidFile[slot] = unidFile;
+			m_unidNote[slot] = unidNote;
+			m_flags[slot] = FLAG_USED;
+			m_size++;
+		}
+		m_seq[slot] = seq;
+		m_seqTimeInnards[slot*2] = seqTimeInnards0;
+		m_seqTimeInnards[slot*2 + 1] = seqTimeInnards1;
+		return slot;
+	}
+
+	/**
+	 * Looks up the slot index of a UNID
+	 *
+	 * @param unidFile file part of the UNID
+	 * @param unidNote note part of the UNID
+	 * @return slot index or -1 if not found
+	 */
+	public int indexOf(long unidFile, long unidNote) {
+		int slot = findSlot(unidFile, unidNote);
+		return m_flags[slot]==0 ? -1 : slot;
+	}
+
+	/**
+	 * Returns the slot of the UNID or the free slot where it would be inserted
+	 */
+	private int findSlot(long unidFile, long unidNote) {
+		int mask = m_flags.length - 1;
+		int slot = hash(unidFile, unidNote) & mask;
+		while (m_flags[slot]!=0 && (m_unidFile[slot]!=unidFile || m_unidNote[slot]!=unidNote)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int hash(long unidFile, long unidNote) {
+		long h = unidFile * 0x9E3779B97F4A7C15L + unidNote;
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return (int) h;
+	}
+
+	private void resize(int newCapacity) {
+		long[] oldUnidFile = m_unidFile;
+		long[] oldUnidNote = m_unidNote;
+		int[] oldSeq = m_seq;
+		int[] oldSeqTimeInnards = m_seqTimeInnards;
+		byte[] oldFlags = m_flags;
+
+		allocate(newCapacity);
+
+		for (int i=0; i<oldFlags.length; i++) {
+			if (oldFlags[i]!=0) {
+				int slot = findSlot(oldUnidFile[i], oldUnidNote[i]);
+				m_unidFile[slot] = oldUnidFile[i];
+				m_unidNote[slot] = oldUnidNote[i];
+				m_seq[slot] = oldSeq[i];
+				m_seqTimeInnards[slot*2] = oldSeqTimeInnards[i*2];
+				m_seqTimeInnards[slot*2 + 1] = oldSeqTimeInnards[i*2 + 1];
+				m_flags[slot] = oldFlags[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entries
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return m_size;
+	}
+
+	/**
+	 * Returns the number of slots, to iterate over all entries with {@link #isUsed(int)}
+	 *
+	 * @return slot count
+	 */
+	public int getSlotCount() {
+		return m_flags.length;
+	}
+
+	/**
+	 * Checks if a slot contains an entry
+	 *
+	 * @param slot slot index
+	 * @return true if used
+	 */
+	public boolean isUsed(int slot) {
+		return m_flags[slot]!=0;
+	}
+
+	/**
+	 * Marks an entry as found in the source database
+	 *
+	 * @param slot slot index
+	 */
+	public void markSeen(int slot) {
+		m_flags[slot] |= FLAG_SEEN;
+	}
+
+	/**
+	 * Checks if an entry has been marked with {@link #markSeen(int)}
+	 *
+	 * @param slot slot index
+	 * @return true if seen
+	 */
+	public boolean isSeen(int slot) {
+		return (m_flags[slot] & FLAG_SEEN) == FLAG_SEEN;
+	}
+
+	/**
+	 * Returns the sequence number of an entry
+	 *
+	 * @param slot slot index
+	 * @return sequence number
+	 */
+	public int getSequence(int slot) {
+		return m_seq[slot];
+	}
+
+	/**
+	 * Checks if an entry has the specified sequence time
+	 *
+	 * @param slot slot index
+	 * @param seqTimeInnards sequence time innards
+	 * @return true if equal
+	 */
+	public boolean isSequenceTimeEqual(int slot, int[] seqTimeInnards) {
+		return m_seqTimeInnards[slot*2]==seqTimeInnards[0] && m_seqTimeInnards[slot*2 + 1]==seqTimeInnards[1];
+	}
+
+	/**
+	 * Returns the sequence time of an entry
+	 *
+	 * @param slot slot index
+	 * @return sequence time
+	 */
+	public NotesTimeDate getSequenceTime(int slot) {
+		return new NotesTimeDate(new int[] {m_seqTimeInnards[slot*2], m_seqTimeInnards[slot*2 + 1]});
+	}
+
+	/**
+	 * Converts an entry to a {@link NotesOriginatorIdData} to be passed to the {@link ISyncTarget}
+	 *
+	 * @param slot slot index
+	 * @return originator id
+	 */
+	public NotesOriginatorIdData toOriginatorIdData(int slot) {
+		return new NotesOriginatorIdData(NotesStringUtils.toUNID(m_unidFile[slot], m_unidNote[slot]), m_seq[slot], getSequenceTime(slot));
+	}
+}
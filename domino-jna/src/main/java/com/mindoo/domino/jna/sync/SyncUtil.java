@@ -1,12 +1,7 @@
 package com.mindoo.domino.jna.sync;
 
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 import java.util.logging.Level;
 
 import com.mindoo.domino.jna.NotesDatabase;
@@ -15,6 +10,8 @@ import com.mindoo.domino.jna.NotesNote;
 import com.mindoo.domino.jna.NotesOriginatorId;
 import com.mindoo.domino.jna.NotesSearch;
 import com.mindoo.domino.jna.NotesSearch.SearchCallback;
+import com.mindoo.domino.jna.NotesSearch.SearchMatch;
+import com.mindoo.domino.jna.NotesSearch.SearchMatchCallback;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.constants.NoteClass;
 import com.mindoo.domino.jna.constants.OpenNote;
@@ -26,7 +23,13 @@ import com.mindoo.domino.jna.utils.NotesNamingUtils;
 
 /**
  * Generic data sync utility that incrementally synchronizes Domino data with external
- * data stores, e.g. to build a custom view indexer or migrate data.
+ * data stores, e.g. to build a custom view indexer or migrate data.<br>
+ * <br>
+ * The one-time comparison of source and target content keeps the target originator ids
+ * in a compact primitive hash map and compares the source originator ids while searching,
+ * so that large databases can be compared with bounded memory. Targets implementing
+ * {@link ICheckpointSyncTarget} can commit their pending writes periodically, so that an
+ * aborted sync run continues where it stopped.
  * 
  * @author Karsten Lehmann
  */
@@ -72,7 +75,9 @@ public class SyncUtil {
 			
 			NotesTimeDate startDateForNextSync = null;
 			
-			Map<String,NotesOriginatorIdData> purgeInTarget = new HashMap<String,NotesOriginatorIdData>();
+			//target entries that no longer match a changed selection formula
+			OriginatorIdMap purgeInTarget = null;
+			final Checkpoints checkpoints = new Checkpoints(target);
 
 			boolean skipSearchAndCopy = false;
 			
@@ -82,119 +87,86 @@ public class SyncUtil {
 				//no last sync date, so we need to do a one-time comparison of source and target content
 				List<NotesOriginatorIdData> targetOIDs = target.scanTargetData();
 				if (!targetOIDs.isEmpty()) {
-					Map<String,NotesOriginatorIdData> targetOIDsByUNID = new HashMap<String,NotesOriginatorIdData>();
+					//store target OIDs with UNIDs as primitive values to keep the memory usage low for large databases
+					final OriginatorIdMap targetOIDsByUNID = new OriginatorIdMap(targetOIDs.size());
 					for (NotesOriginatorIdData currOID : targetOIDs) {
-						targetOIDsByUNID.put(currOID.getUNID(), currOID);
+						targetOIDsByUNID.put(currOID);
 					}
+					targetOIDs = null;
 					
-					final Map<String,NotesOriginatorIdData> sourceOIDsByUNID = new HashMap<String,NotesOriginatorIdData>();
+					//note ids of source documents that are missing or outdated in the target
+					searchFilter = new NotesIDTable();
+					final NotesIDTable noteIdsToTransfer = searchFilter;
+					final int[] sourceNoteCount = new int[1];
+					final int[] sourceSeqTimeInnards = new int[2];
 					
+					//compare the source OIDs with the target while searching, without storing them
 					NotesTimeDate sourceOIDSearchEndDate = NotesSearch.search(dbSource, null, selectionFormula, "-", EnumSet.of(Search.SESSION_USERNAME),
-							EnumSet.of(NoteClass.DOCUMENT), null, new SearchCallback() {
+							EnumSet.of(NoteClass.DOCUMENT), null, new SearchMatchCallback() {
 
 								@Override
-								public Action noteFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid,
-										EnumSet<NoteClass> noteClass, EnumSet<NoteFlags> flags, NotesTimeDate dbCreated,
-										NotesTimeDate noteModified, ItemTableData summaryBufferData) {
+								public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+									sourceNoteCount[0]++;
 									
-									NotesOriginatorIdData oidData = new NotesOriginatorIdData(oid);
+									int targetSlot = targetOIDsByUNID.indexOf(match.getUnidFile(), match.getUnidNote());
+									if (targetSlot==-1) {
+										//missing in target
+										noteIdsToTransfer.addNote(match.getNoteId());
+										return Action.Continue;
+									}
+									targetOIDsByUNID.markSeen(targetSlot);
+									
+									int sourceSeq = match.getSequence();
+									int targetSeq = targetOIDsByUNID.getSequence(targetSlot);
+									if (sourceSeq==targetSeq) {
+										//sequence time is expected to be the same, otherwise we have a conflict
+										match.getSequenceTimeInnards(sourceSeqTimeInnards);
+										if (!targetOIDsByUNID.isSequenceTimeEqual(targetSlot, sourceSeqTimeInnards)) {
+											//for conflicts, let the newer win for now; happens if the sync with two
+											//NSFs that have unresolved conflicts for documents
+											NotesTimeDate sourceSeqTime = new NotesTimeDate(sourceSeqTimeInnards.clone());
+											if (sourceSeqTime.isAfter(targetOIDsByUNID.getSequenceTime(targetSlot))) {
+												noteIdsToTransfer.addNote(match.getNoteId());
+											}
+										}
+									}
+									else if (sourceSeq>targetSeq) {
+										//target contains older content
+										noteIdsToTransfer.addNote(match.getNoteId());
+									}
+									//else: target contains newer content that came from another replica
 									
-									sourceOIDsByUNID.put(oidData.getUNID(), oidData);
 									return Action.Continue;
 								}
 					});
 					
-					//find out which data we need to transfer
-					Map<String, NotesOriginatorIdData> missingUNIDsInTarget = new HashMap<String, NotesOriginatorIdData>();
-					Map<String, NotesOriginatorIdData> additionalUNIDsInTarget = new HashMap<String, NotesOriginatorIdData>();
-					Map<String, NotesOriginatorIdData> equalInSourceAndTarget = new HashMap<String, NotesOriginatorIdData>();
-					
-					Map<String, NotesOriginatorIdData[]> outdatedUNIDsInTarget = new HashMap<String, NotesOriginatorIdData[]>();
-					Map<String, NotesOriginatorIdData[]> newerUNIDsInTarget = new HashMap<String, NotesOriginatorIdData[]>();
-					Map<String, NotesOriginatorIdData[]> conflicts = new HashMap<String, NotesOriginatorIdData[]>();
-					
-					for (Entry<String,NotesOriginatorIdData> currEntry : sourceOIDsByUNID.entrySet()) {
-						String currUNID = currEntry.getKey();
-						NotesOriginatorIdData currSourceOID = currEntry.getValue();
-						
-						NotesOriginatorIdData matchingOIDInTarget = targetOIDsByUNID.get(currUNID);
-						if (matchingOIDInTarget==null) {
-							missingUNIDsInTarget.put(currUNID, currSourceOID);
-						}
-						else if (currSourceOID.getSequence()==matchingOIDInTarget.getSequence()) {
-							//se	quence time is expected to be the same, otherwise we have a conflict
-							if (currSourceOID.getSequenceTime().equals(matchingOIDInTarget.getSequenceTime())) {
-								equalInSourceAndTarget.put(currUNID, currSourceOID);
-							}
-							else {
-								conflicts.put(currUNID, new NotesOriginatorIdData[] {currSourceOID, matchingOIDInTarget});
-							}
-						}
-						else if (currSourceOID.getSequence()<matchingOIDInTarget.getSequence()) {
-							//target contains newer content that came from another replica
-							newerUNIDsInTarget.put(currUNID, new NotesOriginatorIdData[] {currSourceOID, matchingOIDInTarget});
-						}
-						else if (currSourceOID.getSequence()<matchingOIDInTarget.getSequence()) {
-							//target contains oldeer content
-							outdatedUNIDsInTarget.put(currUNID, new NotesOriginatorIdData[] {currSourceOID, matchingOIDInTarget});
-						}
-					}
-
-					for (Entry<String,NotesOriginatorIdData> currEntry : targetOIDsByUNID.entrySet()) {
-						String currUNID = currEntry.getKey();
-						NotesOriginatorIdData currTargetOID = currEntry.getValue();
-						
-						NotesOriginatorIdData matchingOIDInSource = sourceOIDsByUNID.get(currUNID);
-						if (matchingOIDInSource==null) {
-							if (selectionFormulaHasChanged) {
-								//we purge this entry because it no longer matches the changed selection formula
-								purgeInTarget.put(currUNID, currTargetOID);
-							}
-							else {
-								//looks like another NSF replica has more data matching
-								//the selection formula then the current one has
-								additionalUNIDsInTarget.put(currUNID, currTargetOID);
+					if (selectionFormulaHasChanged) {
+						//entries not found in the source get purged because they no longer match the changed
+						//selection formula; otherwise, they are additional data from another NSF replica
+						//that has more data matching the selection formula than the current one
+						for (int i=0; i<targetOIDsByUNID.getSlotCount(); i++) {
+							if (targetOIDsByUNID.isUsed(i) && !targetOIDsByUNID.isSeen(i)) {
+								purgeInTarget = targetOIDsByUNID;
+								break;
 							}
 						}
 					}
 					
-					Set<String> unidsToTransfer = new HashSet<String>();
-					unidsToTransfer.addAll(missingUNIDsInTarget.keySet());
-					unidsToTransfer.addAll(outdatedUNIDsInTarget.keySet());
-					
-					//for conflicts, let the newer win for now; happens if the sync with two
-					//NSFs that have unresolved conflicts for documents
-					for (Entry<String,NotesOriginatorIdData[]> currEntry : conflicts.entrySet()) {
-						String currUNID = currEntry.getKey();
-						NotesOriginatorIdData[] sourceTargetOIDs = currEntry.getValue();
-						if (sourceTargetOIDs[0].getSequenceTime().isAfter(sourceTargetOIDs[1].getSequenceTime())) {
-							unidsToTransfer.add(currUNID);
-						}
-					}
-					
-					if (unidsToTransfer.isEmpty() && purgeInTarget.isEmpty()) {
+					if (noteIdsToTransfer.isEmpty() && purgeInTarget==null) {
 						//nothing to do
 						target.endingSync(ctx, selectionFormula, dbInstanceId, sourceOIDSearchEndDate);
-						return new SyncResult(sourceOIDsByUNID.size(), 0, 0);
+						return new SyncResult(sourceNoteCount[0], 0, 0);
 					}
 					
-					if (!unidsToTransfer.isEmpty()) {
-						Map<String,Integer> retNoteIdsByUnid = new HashMap<String,Integer>();
-						//retNoteUnidsNotFound -> documents might have gotten deleted since our search,
-						//which is not important because our next incremental search will detect this
-						Set<String> retNoteUnidsNotFound = new HashSet<String>();
-
-						//since the C API mostly deals with note ids, we need to convert our unids
-						String[] unidsArr = unidsToTransfer.toArray(new String[unidsToTransfer.size()]);
-						
-						dbSource.toNoteIds(unidsArr, retNoteIdsByUnid, retNoteUnidsNotFound);
-
-						//limit our next copy process to these UNIDs / note ids, speeding up the search
-						searchFilter = new NotesIDTable(retNoteIdsByUnid.values());
-					}
-					else {
+					//changes after the comparison are picked up by the next incremental sync
+					startDateForNextSync = sourceOIDSearchEndDate;
+					
+					if (noteIdsToTransfer.isEmpty()) {
 						skipSearchAndCopy = true;
 					}
+					//else: limit our next copy process to these note ids, speeding up the search;
+					//documents might get deleted until then, which is not important because our
+					//next incremental search will detect this
 				}
 				else {
 					//all ok, target is empty
@@ -221,11 +193,15 @@ public class SyncUtil {
 			final int[] notesNotMatchingFormula = new int[1];
 			final int[] notesDeleted = new int[1];
 			
-			if (!purgeInTarget.isEmpty()) {
+			if (purgeInTarget!=null) {
 				//purge entries from target, when they no longer match the changed formula
-				for (Entry<String,NotesOriginatorIdData> currEntry : purgeInTarget.entrySet()) {
-					target.noteChangedNotMatchingFormula(ctx, currEntry.getValue());
+				for (int i=0; i<purgeInTarget.getSlotCount(); i++) {
+					if (purgeInTarget.isUsed(i) && !purgeInTarget.isSeen(i)) {
+						target.noteChangedNotMatchingFormula(ctx, purgeInTarget.toOriginatorIdData(i));
+						checkpoints.noteProcessed(ctx);
+					}
 				}
+				purgeInTarget = null;
 			}
 			
 			//the actual lookup and copy operation
@@ -266,6 +242,7 @@ public class SyncUtil {
 						if (note!=null) {
 							note.recycle();
 						}
+						checkpoints.noteProcessed(ctx);
 
 						return Action.Continue;
 					}
@@ -279,6 +256,7 @@ public class SyncUtil {
 						
 						target.noteChangedNotMatchingFormula(ctx, oidData);
 						notesNotMatchingFormula[0]++;
+						checkpoints.noteProcessed(ctx);
 						return Action.Continue;
 					}
 
@@ -291,6 +269,7 @@ public class SyncUtil {
 						
 						target.noteDeleted(ctx, oidData);
 						notesDeleted[0]++;
+						checkpoints.noteProcessed(ctx);
 						return Action.Continue;
 					}
 				});
@@ -315,4 +294,30 @@ public class SyncUtil {
 		}
 	}
 	
+	/**
+	 * Calls {@link ICheckpointSyncTarget#checkpoint(Object, int)} in the configured interval
+	 */
+	private static class Checkpoints {
+		private final ICheckpointSyncTarget m_target;
+		private final int m_interval;
+		private int m_processedNoteCount;
+		
+		public Checkpoints(ISyncTarget target) {
+			if (target instanceof ICheckpointSyncTarget) {
+				m_target = (ICheckpointSyncTarget) target;
+				m_interval = m_target.getCheckpointInterval();
+			}
+			else {
+				m_target = null;
+				m_interval = 0;
+			}
+		}
+		
+		public void noteProcessed(Object ctx) {
+			m_processedNoteCount++;
+			if (m_interval>0 && (m_processedNoteCount % m_interval)==0) {
+				m_target.checkpoint(ctx, m_processedNoteCount);
+			}
+		}
+	}
 }
@@ -7,8 +7,11 @@ import java.util.TimeZone;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.errors.NotesError;
 import com.mindoo.domino.jna.errors.NotesErrorUtils;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.InnardsConverter;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.NotesJNAProperties;
 import com.mindoo.domino.jna.structs.NotesTimeDateStruct;
 import com.mindoo.domino.jna.structs.NotesTimeStruct;
 import com.sun.jna.Memory;
@@ -21,6 +24,78 @@ import com.sun.jna.ptr.ShortByReference;
  * @author Karsten Lehmann
  */
 public class NotesDateTimeUtils {
+	private static final String PREF_DECODETIMEDATESASMILLIS = "NotesDateTimeUtils.decodeTimeDatesAsMillis";
+	
+	/** System property to disable the Java TIMEDATE conversion ("false") and always use the C API conversion functions */
+	public static final String PROP_USEJAVATIMEDATECODEC = "mindoo.domino.jna.timedate.javacodec";
+	
+	private static volatile boolean m_useJavaTimeDateCodec = NotesJNAProperties.getBoolean(PROP_USEJAVATIMEDATECODEC, true);
+	
+	/**
+	 * Method to control whether TIMEDATE values with date and time should be converted
+	 * in Java code (see {@link InnardsConverter}) instead of calling the C API methods
+	 * TimeGMToLocalZone and TimeLocalToGM. Date-only and time-only values are always converted
+	 * via C API.<br>
+	 * The Java conversion is only used if the requested zone matches the default zone of the JVM and
+	 * it also supports zones with a GMT offset that is not a full hour.<br>
+	 * The default value can be set via system property {@link #PROP_USEJAVATIMEDATECODEC}, which
+	 * is true if not set. This setting is global for all threads.
+	 * 
+	 * @param b true to use the Java conversion
+	 */
+	public static void setUseJavaTimeDateCodec(boolean b) {
+		m_useJavaTimeDateCodec = b;
+	}
+	
+	/**
+	 * Returns whether TIMEDATE values with date and time are converted in Java code
+	 * 
+	 * @return true to use the Java conversion
+	 */
+	public static boolean isUseJavaTimeDateCodec() {
+		return m_useJavaTimeDateCodec;
+	}
+	
+	/**
+	 * Method to decode TIMEDATE values with date and time in view lookup and search results
+	 * as {@link Long} with the milliseconds since 1970-01-01 GMT instead of {@link Calendar}. Ranges
+	 * are returned as long[] arrays. Date-only and time-only values are still returned as {@link Calendar}.<br>
+	 * This saves the creation of {@link Calendar} objects in date-heavy views.<br>
+	 * This setting is only valid for the current {@link NotesGC#runWithAutoGC(java.util.concurrent.Callable)}
+	 * call.
+	 * 
+	 * @param b true to decode values as milliseconds
+	 */
+	public static void setDecodeTimeDatesAsMillis(boolean b) {
+		NotesGC.setCustomValue(PREF_DECODETIMEDATESASMILLIS, Boolean.valueOf(b));
+	}
+	
+	/**
+	 * Returns whether TIMEDATE values with date and time in view lookup and search results
+	 * are decoded as milliseconds since 1970-01-01 GMT
+	 * 
+	 * @return true to decode values as milliseconds
+	 */
+	public static boolean isDecodeTimeDatesAsMillis() {
+		Boolean b = (Boolean) NotesGC.getCustomValue(PREF_DECODETIMEDATESASMILLIS);
+		if (b==null)
+			return Boolean.FALSE;
+		else
+			return b.booleanValue();
+	}
+	
+	/**
+	 * Checks if the zone parameters used for conversion match the default zone of the JVM,
+	 * so that we can use the Java conversion
+	 * 
+	 * @param tz default zone
+	 * @param useDayLight true to use daylight savings time
+	 * @param gmtOffset GMT offset
+	 * @return true if matching
+	 */
+	private static boolean isZoneMatching(TimeZone tz, boolean useDayLight, int gmtOffset) {
+		return tz.useDaylightTime()==useDayLight && tz.getRawOffset() / 3600000==gmtOffset;
+	}
 
 	/**
 	 * Returns whether the current timezone is in daylight savings time
@@ -44,6 +119,20 @@ public class NotesDateTimeUtils {
 		return (int)(tz.getRawOffset() / 3600000);
 	}
 
+	/**
+	 * Returns the zone value of the C API TIME structure for a timezone: hours west of GMT,
+	 * with additional quarter hours in the hundreds (e.g. -205 for GMT+5:30)
+	 * 
+	 * @param tz timezone
+	 * @return zone value
+	 */
+	private static int getNotesZone(TimeZone tz) {
+		int offsetMinutes = tz.getRawOffset() / (60 * 1000);
+		int absOffsetMinutes = Math.abs(offsetMinutes);
+		int zone = absOffsetMinutes / 60 + 100 * ((absOffsetMinutes % 60) / 15);
+		return offsetMinutes > 0 ? -zone : zone;
+	}
+
 	/**
 	 * Method to convert a {@link NotesTimeDate} object to a Java {@link Calendar}
 	 * 
@@ -196,10 +285,17 @@ public class NotesDateTimeUtils {
 	 * @return innard array
 	 */
 	public static int[] calendarToInnards(Calendar cal, boolean hasDate, boolean hasTime) {
+		if (hasDate && hasTime && m_useJavaTimeDateCodec) {
+			TimeZone tz = TimeZone.getDefault();
+			if (tz.hasSameRules(cal.getTimeZone())) {
+				return InnardsConverter.encodeInnards(cal.getTimeInMillis(), tz);
+			}
+		}
+		
 		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
 		
-		int gmtOffset = getGMTOffset();
-		boolean isDST = isDaylightTime();
+		TimeZone defaultTz = Calendar.getInstance().getTimeZone();
+		boolean isDST = defaultTz.useDaylightTime();
 		
 		int year = cal.get(Calendar.YEAR);
 		int month = cal.get(Calendar.MONTH)+1;
@@ -214,7 +310,7 @@ public class NotesDateTimeUtils {
 		NotesTimeStruct time = NotesTimeStruct.newInstance(m);
 		
 		time.dst=isDST ? 1 : 0;
-		time.zone=-gmtOffset;
+		time.zone=getNotesZone(defaultTz);
 		
 		time.hour = hour;
 		time.minute = minute;
@@ -254,14 +350,21 @@ public class NotesDateTimeUtils {
 	 * @return calendar
 	 */
 	public static Calendar innardsToCalendar(boolean useDayLight, int gmtOffset, int[] innards) {
-		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
-		
 		if (innards==null || innards.length<2 || (innards.length>=2 && innards[0]==0 && innards[1]==0))
 			return null;
 		
         boolean hasTime=(innards[0]!=NotesCAPI.ALLDAY);
         boolean hasDate=(innards[1]!=NotesCAPI.ANYDAY);
 
+        if (hasDate && hasTime && m_useJavaTimeDateCodec) {
+        	TimeZone tz = TimeZone.getDefault();
+        	if (isZoneMatching(tz, useDayLight, gmtOffset)) {
+        		return InnardsConverter.decodeInnards(innards, tz);
+        	}
+        }
+        
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		
         NotesTimeStruct time = NotesTimeStruct.newInstance();
 		time.GM.Innards[0] = innards[0];
 		time.GM.Innards[1] = innards[1];
@@ -4,9 +4,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.mindoo.domino.jna.NotesNamesList;
 import com.mindoo.domino.jna.errors.NotesError;
@@ -15,6 +16,8 @@ import com.mindoo.domino.jna.gc.NotesGC;
 import com.mindoo.domino.jna.internal.MacNotesCAPI;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.NotesJNAProperties;
+import com.mindoo.domino.jna.internal.StripedSizeLimitedLRUCache;
 import com.mindoo.domino.jna.internal.WinNotesCAPI;
 import com.mindoo.domino.jna.structs.LinuxNotesNamesListHeader64Struct;
 import com.mindoo.domino.jna.structs.MacNotesNamesListHeader64Struct;
@@ -34,35 +37,285 @@ import com.sun.jna.ptr.ShortByReference;
  * @author Karsten Lehmann
  */
 public class NotesNamingUtils {
-	private static final int MAX_STRINGCACHE_SIZE = 500;
+	/** System property to set the max number of cached name conversions per conversion direction */
+	public static final String PROP_NAMECACHE_MAXENTRIES = "mindoo.domino.jna.namecache.maxentries";
+	/** System property to set the number of segments of the name caches, i.e. how many threads can access them in parallel */
+	public static final String PROP_NAMECACHE_CONCURRENCY = "mindoo.domino.jna.namecache.concurrency";
+	/** System property to disable the Java conversion ("false") of fully qualified names and always call the C API */
+	public static final String PROP_USEJAVANAMECONVERSION = "mindoo.domino.jna.names.javaconversion";
 	
-	private static LinkedHashMap<String, String> m_nameAbbrCache = new LinkedHashMap<String, String>(16,0.75f, true) {
-		private static final long serialVersionUID = -5818239831757810895L;
+	private static final int DEFAULT_NAMECACHE_MAXENTRIES = 10000;
+	private static final int DEFAULT_NAMECACHE_CONCURRENCY = 16;
+	//max number of organizational units in a hierarchical name
+	private static final int MAX_ORGUNITS = 4;
+	
+	private static final NameCache m_nameAbbrCache = new NameCache(
+			NotesJNAProperties.getInt(PROP_NAMECACHE_MAXENTRIES, DEFAULT_NAMECACHE_MAXENTRIES),
+			NotesJNAProperties.getInt(PROP_NAMECACHE_CONCURRENCY, DEFAULT_NAMECACHE_CONCURRENCY));
+	private static final NameCache m_nameCanonicalCache = new NameCache(
+			NotesJNAProperties.getInt(PROP_NAMECACHE_MAXENTRIES, DEFAULT_NAMECACHE_MAXENTRIES),
+			NotesJNAProperties.getInt(PROP_NAMECACHE_CONCURRENCY, DEFAULT_NAMECACHE_CONCURRENCY));
+	
+	/** System property to set the time in milliseconds that computed names lists are cached, 0 to disable the cache */
+	public static final String PROP_NAMESLISTCACHE_TTL = "mindoo.domino.jna.nameslistcache.ttl";
+	/** System property to set the max number of cached names lists */
+	public static final String PROP_NAMESLISTCACHE_MAXENTRIES = "mindoo.domino.jna.nameslistcache.maxentries";
+	
+	private static final long DEFAULT_NAMESLISTCACHE_TTL = 60000;
+	private static final int DEFAULT_NAMESLISTCACHE_MAXENTRIES = 1000;
+	
+	private static volatile long m_namesListCacheTTL = NotesJNAProperties.getLong(PROP_NAMESLISTCACHE_TTL, DEFAULT_NAMESLISTCACHE_TTL);
+	private static final int m_namesListCacheMaxEntries = NotesJNAProperties.getInt(PROP_NAMESLISTCACHE_MAXENTRIES, DEFAULT_NAMESLISTCACHE_MAXENTRIES);
+	private static final ConcurrentHashMap<String,CachedNamesList> m_namesListCache = new ConcurrentHashMap<String,CachedNamesList>();
+	private static final AtomicLong m_namesListCacheHits = new AtomicLong();
+	private static final AtomicLong m_namesListBuildCount = new AtomicLong();
+	private static final AtomicLong m_namesListBuildTimeNanos = new AtomicLong();
+	
+	private static volatile boolean m_useJavaNameConversion = NotesJNAProperties.getBoolean(PROP_USEJAVANAMECONVERSION, true);
+	private static final AtomicLong m_javaNameConversions = new AtomicLong();
+	
+	/**
+	 * Cache for name conversions, the size is measured in entries
+	 */
+	private static class NameCache extends StripedSizeLimitedLRUCache<String,String> {
+
+		public NameCache(int maxEntries, int concurrencyLevel) {
+			super(maxEntries, concurrencyLevel);
+		}
 
 		@Override
-		protected boolean removeEldestEntry (Map.Entry<String,String> eldest) {
-			if (size() > MAX_STRINGCACHE_SIZE) {
-				return true;
+		protected int computeSize(String key, String value) {
+			return 1;
+		}
+	}
+	
+	/**
+	 * Method to control whether fully qualified abbreviated and canonical names like "John Doe/Sales/Mindoo"
+	 * and "CN=John Doe/OU=Sales/O=Mindoo" should be converted in Java code instead of calling the C API
+	 * methods DNCanonicalize and DNAbbreviate. Common names, wildcards and names that might contain a
+	 * country code are always converted via C API.<br>
+	 * The default value can be set via system property {@link #PROP_USEJAVANAMECONVERSION}, which
+	 * is true if not set. This setting is global for all threads.
+	 * 
+	 * @param b true to use the Java conversion
+	 */
+	public static void setUseJavaNameConversion(boolean b) {
+		m_useJavaNameConversion = b;
+	}
+	
+	/**
+	 * Returns whether fully qualified names are converted in Java code
+	 * 
+	 * @return true to use the Java conversion
+	 */
+	public static boolean isUseJavaNameConversion() {
+		return m_useJavaNameConversion;
+	}
+	
+	/**
+	 * Returns the number of name conversions that could be served from the cache
+	 * 
+	 * @return hits
+	 */
+	public static long getNameCacheHitCount() {
+		return m_nameAbbrCache.getHitCount() + m_nameCanonicalCache.getHitCount();
+	}
+	
+	/**
+	 * Returns the number of name conversions that were not cached and required a C API call
+	 * 
+	 * @return misses
+	 */
+	public static long getNameCacheMissCount() {
+		return m_nameAbbrCache.getMissCount() + m_nameCanonicalCache.getMissCount();
+	}
+	
+	/**
+	 * Returns the number of entries that have been removed from the name caches to stay
+	 * within the size limit
+	 * 
+	 * @return evictions
+	 */
+	public static long getNameCacheEvictionCount() {
+		return m_nameAbbrCache.getEvictionCount() + m_nameCanonicalCache.getEvictionCount();
+	}
+	
+	/**
+	 * Returns the number of entries in the name caches
+	 * 
+	 * @return entries
+	 */
+	public static int getNameCacheSize() {
+		return m_nameAbbrCache.size() + m_nameCanonicalCache.size();
+	}
+	
+	/**
+	 * Returns the number of name conversions that have been done in Java code without
+	 * cache lookup or C API call
+	 * 
+	 * @return conversions
+	 */
+	public static long getJavaNameConversionCount() {
+		return m_javaNameConversions.get();
+	}
+	
+	/**
+	 * Splits a name into its components. Returns null if the name has a format that we
+	 * leave to the C API, e.g. empty components, whitespace around separators, wildcards or
+	 * domain parts.
+	 * 
+	 * @param name name
+	 * @return components or null
+	 */
+	private static String[] splitName(String name) {
+		int numParts = 1;
+		for (int i=0; i<name.length(); i++) {
+			char c = name.charAt(i);
+			if (c=='/') {
+				numParts++;
 			}
-			else {
-				return false;
+			else if (c=='*' || c=='@' || c=='\\') {
+				return null;
 			}
 		}
-	};
-	private static LinkedHashMap<String, String> m_nameCanonicalCache = new LinkedHashMap<String, String>(16,0.75f, true) {
-		private static final long serialVersionUID = -5818239831757810895L;
-
-		@Override
-		protected boolean removeEldestEntry (Map.Entry<String,String> eldest) {
-			if (size() > MAX_STRINGCACHE_SIZE) {
-				return true;
+		
+		String[] parts = new String[numParts];
+		int partIdx = 0;
+		int partStart = 0;
+		for (int i=0; i<=name.length(); i++) {
+			if (i==name.length() || name.charAt(i)=='/') {
+				if (i==partStart || Character.isWhitespace(name.charAt(partStart)) || Character.isWhitespace(name.charAt(i-1))) {
+					return null;
+				}
+				parts[partIdx++] = name.substring(partStart, i);
+				partStart = i+1;
+			}
+		}
+		return parts;
+	}
+	
+	/**
+	 * Checks if a component value contains no label and is not empty
+	 * 
+	 * @param value value
+	 * @return true if valid
+	 */
+	private static boolean isValidComponentValue(String value) {
+		return value.length()>0 && value.indexOf('=')==-1 && !Character.isWhitespace(value.charAt(0));
+	}
+	
+	/**
+	 * Parses a canonical name with the components in the order CN, OU (0-4), O and C (optional) and
+	 * returns the component values without labels
+	 * 
+	 * @param parts components of the name
+	 * @return values or null if the name is no canonical name in this format
+	 */
+	private static String[] getCanonicalNameValues(String[] parts) {
+		if (parts.length<2 || parts.length>3+MAX_ORGUNITS) {
+			return null;
+		}
+		
+		String[] values = new String[parts.length];
+		int lastIdx = parts.length-1;
+		//country is optional
+		if (parts[lastIdx].startsWith("C=")) {
+			values[lastIdx] = parts[lastIdx].substring(2);
+			lastIdx--;
+		}
+		if (lastIdx<1 || !parts[0].startsWith("CN=") || !parts[lastIdx].startsWith("O=")) {
+			return null;
+		}
+		values[0] = parts[0].substring(3);
+		values[lastIdx] = parts[lastIdx].substring(2);
+		
+		for (int i=1; i<lastIdx; i++) {
+			if (!parts[i].startsWith("OU=")) {
+				return null;
+			}
+			values[i] = parts[i].substring(3);
+		}
+		if ((lastIdx-1) > MAX_ORGUNITS) {
+			return null;
+		}
+		
+		for (String currValue : values) {
+			if (!isValidComponentValue(currValue)) {
+				return null;
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * Converts fully qualified abbreviated and canonical names to canonical format in Java code
+	 * 
+	 * @param name name
+	 * @return canonical name or null if the conversion needs to be done by the C API
+	 */
+	static String toCanonicalNameJava(String name) {
+		String[] parts = splitName(name);
+		if (parts==null || parts.length<2) {
+			return null;
+		}
+		
+		if (name.indexOf('=')!=-1) {
+			//already canonical
+			return getCanonicalNameValues(parts)==null ? null : name;
+		}
+		
+		//a two-letter last component might be a country code
+		if (parts.length>2+MAX_ORGUNITS || parts[parts.length-1].length()==2) {
+			return null;
+		}
+		
+		StringBuilder sb = new StringBuilder(name.length() + 4*parts.length);
+		for (int i=0; i<parts.length; i++) {
+			if (i==0) {
+				sb.append("CN=");
+			}
+			else if (i==parts.length-1) {
+				sb.append("/O=");
 			}
 			else {
-				return false;
+				sb.append("/OU=");
 			}
+			sb.append(parts[i]);
 		}
-	};
-
+		return sb.toString();
+	}
+	
+	/**
+	 * Converts fully qualified abbreviated and canonical names to abbreviated format in Java code
+	 * 
+	 * @param name name
+	 * @return abbreviated name or null if the conversion needs to be done by the C API
+	 */
+	static String toAbbreviatedNameJava(String name) {
+		String[] parts = splitName(name);
+		if (parts==null || parts.length<2) {
+			return null;
+		}
+		
+		if (name.indexOf('=')==-1) {
+			//already abbreviated
+			return parts.length>3+MAX_ORGUNITS ? null : name;
+		}
+		
+		String[] values = getCanonicalNameValues(parts);
+		if (values==null) {
+			return null;
+		}
+		
+		StringBuilder sb = new StringBuilder(name.length());
+		for (int i=0; i<values.length; i++) {
+			if (i>0) {
+				sb.append('/');
+			}
+			sb.append(values[i]);
+		}
+		return sb.toString();
+	}
 	
 	/**
 	 * This function converts a distinguished name in abbreviated format to canonical format.
@@ -91,6 +344,15 @@ public class NotesNamingUtils {
 		if (name.length()==0)
 			return name;
 
+		if (m_useJavaNameConversion) {
+			//the template name is only used for common names, which are not converted in Java
+			String canonicalName = toCanonicalNameJava(name);
+			if (canonicalName!=null) {
+				m_javaNameConversions.incrementAndGet();
+				return canonicalName;
+			}
+		}
+		
 		String cacheKey = name + ((templateName!=null && templateName.length()>0) ? ("|" + templateName) : "");
 		String abbrName = m_nameCanonicalCache.get(cacheKey);
 		if (abbrName!=null) {
@@ -218,6 +480,15 @@ public class NotesNamingUtils {
 		if (name.length()==0)
 			return name;
 		
+		if (m_useJavaNameConversion) {
+			//the template name is only used for common names, which are not converted in Java
+			String abbrName = toAbbreviatedNameJava(name);
+			if (abbrName!=null) {
+				m_javaNameConversions.incrementAndGet();
+				return abbrName;
+			}
+		}
+		
 		String cacheKey = name + ((templateName!=null && templateName.length()>0) ? ("|" + templateName) : "");
 		String abbrName = m_nameAbbrCache.get(cacheKey);
 		if (abbrName!=null) {
@@ -398,7 +669,10 @@ public class NotesNamingUtils {
 	
 	/**
 	 * Computes a {@link NotesNamesList} structure with all name variants, wildcards and groups for
-	 * the specified user
+	 * the specified user.<br>
+	 * <br>
+	 * Computed names lists are cached for the time set via {@link #setNamesListCacheTTL(long)}.
+	 * Each call returns a new copy of the cached data that can be modified and freed by the caller.
 	 * 
 	 * @param userName username, either abbreviated or canonical
 	 * @return names list
@@ -407,28 +681,256 @@ public class NotesNamingUtils {
 		//make sure that username is canonical
 		userName = toCanonicalName(userName);
 		
+		long ttl = m_namesListCacheTTL;
+		if (ttl<=0) {
+			return buildNamesListUncached(userName);
+		}
+		
+		CachedNamesList cachedList = m_namesListCache.get(userName);
+		if (cachedList!=null) {
+			if (cachedList.isExpired()) {
+				m_namesListCache.remove(userName, cachedList);
+			}
+			else {
+				m_namesListCacheHits.incrementAndGet();
+				return copyToNewNamesList(cachedList.getData());
+			}
+		}
+		
+		NotesNamesList namesList = buildNamesListUncached(userName);
+		
+		if (m_namesListCache.size() >= m_namesListCacheMaxEntries) {
+			removeExpiredNamesLists();
+			
+			//still too large, remove any entry
+			Iterator<String> keysIt = m_namesListCache.keySet().iterator();
+			while (m_namesListCache.size() >= m_namesListCacheMaxEntries && keysIt.hasNext()) {
+				keysIt.next();
+				keysIt.remove();
+			}
+		}
+		m_namesListCache.put(userName, new CachedNamesList(readNamesListData(namesList), System.currentTimeMillis() + ttl));
+		
+		return namesList;
+	}
+	
+	/**
+	 * Calls NSFBuildNamesList to compute the names list
+	 * 
+	 * @param userNameCanonical username in canonical format
+	 * @return names list
+	 */
+	private static NotesNamesList buildNamesListUncached(String userNameCanonical) {
 		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
-		Memory userNameLMBCS = NotesStringUtils.toLMBCS(userName, true);
+		Memory userNameLMBCS = NotesStringUtils.toLMBCS(userNameCanonical, true);
+		
+		long t0 = System.nanoTime();
+		
+		try {
+			if (NotesJNAContext.is64Bit()) {
+				LongByReference rethNamesList = new LongByReference();
+				short result = notesAPI.b64_NSFBuildNamesList(userNameLMBCS, 0, rethNamesList);
+				NotesErrorUtils.checkResult(result);
+				long hUserNamesList64 = rethNamesList.getValue();
+
+				NotesNamesList newList =  new NotesNamesList(hUserNamesList64);
+				NotesGC.__memoryAllocated(newList);
+				return newList;
+			}
+			else {
+				IntByReference rethNamesList = new IntByReference();
+				short result = notesAPI.b32_NSFBuildNamesList(userNameLMBCS, 0, rethNamesList);
+				NotesErrorUtils.checkResult(result);
+				int hUserNamesList32 = rethNamesList.getValue();
+
+				NotesNamesList newList = new NotesNamesList(hUserNamesList32);
+				NotesGC.__memoryAllocated(newList);
+				return newList;
+			}
+		}
+		finally {
+			m_namesListBuildCount.incrementAndGet();
+			m_namesListBuildTimeNanos.addAndGet(System.nanoTime() - t0);
+		}
+	}
+	
+	/**
+	 * Reads the whole memory block of a names list, including the header
+	 * 
+	 * @param namesList names list
+	 * @return data
+	 */
+	private static byte[] readNamesListData(NotesNamesList namesList) {
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		IntByReference retSize = new IntByReference();
 		
 		if (NotesJNAContext.is64Bit()) {
-			LongByReference rethNamesList = new LongByReference();
-			short result = notesAPI.b64_NSFBuildNamesList(userNameLMBCS, 0, rethNamesList);
+			short result = notesAPI.b64_OSMemGetSize(namesList.getHandle64(), retSize);
 			NotesErrorUtils.checkResult(result);
-			long hUserNamesList64 = rethNamesList.getValue();
 			
-			NotesNamesList newList =  new NotesNamesList(hUserNamesList64);
-			NotesGC.__memoryAllocated(newList);
-			return newList;
+			Pointer ptr = notesAPI.b64_OSLockObject(namesList.getHandle64());
+			try {
+				return ptr.getByteArray(0, retSize.getValue());
+			}
+			finally {
+				notesAPI.b64_OSUnlockObject(namesList.getHandle64());
+			}
 		}
 		else {
-			IntByReference rethNamesList = new IntByReference();
-			short result = notesAPI.b32_NSFBuildNamesList(userNameLMBCS, 0, rethNamesList);
+			short result = notesAPI.b32_OSMemGetSize(namesList.getHandle32(), retSize);
 			NotesErrorUtils.checkResult(result);
-			int hUserNamesList32 = rethNamesList.getValue();
 			
-			NotesNamesList newList = new NotesNamesList(hUserNamesList32);
-			NotesGC.__memoryAllocated(newList);
-			return newList;
+			Pointer ptr = notesAPI.b32_OSLockObject(namesList.getHandle32());
+			try {
+				return ptr.getByteArray(0, retSize.getValue());
+			}
+			finally {
+				notesAPI.b32_OSUnlockObject(namesList.getHandle32());
+			}
+		}
+	}
+	
+	/**
+	 * Allocates memory in the Notes memory pool and copies names list data into it
+	 * 
+	 * @param data names list data read via {@link #readNamesListData(NotesNamesList)}
+	 * @return new names list
+	 */
+	private static NotesNamesList copyToNewNamesList(byte[] data) {
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		
+		if (NotesJNAContext.is64Bit()) {
+			LongByReference retHandle = new LongByReference();
+			short result = notesAPI.b64_OSMemAlloc((short) 0, data.length, retHandle);
+			NotesErrorUtils.checkResult(result);
+			long handle64 = retHandle.getValue();
+			
+			Pointer ptr = notesAPI.b64_OSLockObject(handle64);
+			try {
+				ptr.write(0, data, 0, data.length);
+			}
+			finally {
+				notesAPI.b64_OSUnlockObject(handle64);
+			}
+			
+			NotesNamesList namesList = new NotesNamesList(handle64);
+			NotesGC.__memoryAllocated(namesList);
+			return namesList;
+		}
+		else {
+			IntByReference retHandle = new IntByReference();
+			short result = notesAPI.b32_OSMemAlloc((short) 0, data.length, retHandle);
+			NotesErrorUtils.checkResult(result);
+			int handle32 = retHandle.getValue();
+			
+			Pointer ptr = notesAPI.b32_OSLockObject(handle32);
+			try {
+				ptr.write(0, data, 0, data.length);
+			}
+			finally {
+				notesAPI.b32_OSUnlockObject(handle32);
+			}
+			
+			NotesNamesList namesList = new NotesNamesList(handle32);
+			NotesGC.__memoryAllocated(namesList);
+			return namesList;
+		}
+	}
+	
+	private static void removeExpiredNamesLists() {
+		Iterator<CachedNamesList> valuesIt = m_namesListCache.values().iterator();
+		while (valuesIt.hasNext()) {
+			if (valuesIt.next().isExpired()) {
+				valuesIt.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Sets the time that names lists computed by {@link #buildNamesList(String)} are cached. Group
+	 * changes in the directory are visible after this time at the latest.<br>
+	 * The default value can be set via system property {@link #PROP_NAMESLISTCACHE_TTL}.
+	 * 
+	 * @param ttlMillis time in milliseconds, 0 to disable the cache
+	 */
+	public static void setNamesListCacheTTL(long ttlMillis) {
+		m_namesListCacheTTL = ttlMillis;
+		if (ttlMillis<=0) {
+			m_namesListCache.clear();
+		}
+	}
+	
+	/**
+	 * Returns the time that names lists are cached
+	 * 
+	 * @return time in milliseconds, 0 if disabled
+	 */
+	public static long getNamesListCacheTTL() {
+		return m_namesListCacheTTL;
+	}
+	
+	/**
+	 * Removes the cached names list of a user, e.g. after changing the group memberships of the user
+	 * 
+	 * @param userName username, either abbreviated or canonical
+	 */
+	public static void invalidateNamesList(String userName) {
+		m_namesListCache.remove(toCanonicalName(userName));
+	}
+	
+	/**
+	 * Removes all cached names lists
+	 */
+	public static void invalidateAllNamesLists() {
+		m_namesListCache.clear();
+	}
+	
+	/**
+	 * Returns the number of names lists that could be served from the cache
+	 * 
+	 * @return hits
+	 */
+	public static long getNamesListCacheHitCount() {
+		return m_namesListCacheHits.get();
+	}
+	
+	/**
+	 * Returns the number of names lists that have been computed via NSFBuildNamesList
+	 * 
+	 * @return count
+	 */
+	public static long getNamesListBuildCount() {
+		return m_namesListBuildCount.get();
+	}
+	
+	/**
+	 * Returns the total time spent in NSFBuildNamesList, use {@link #getNamesListBuildCount()}
+	 * to compute the average time
+	 * 
+	 * @return time in nanoseconds
+	 */
+	public static long getNamesListBuildTimeNanos() {
+		return m_namesListBuildTimeNanos.get();
+	}
+	
+	/**
+	 * Cache entry with names list data
+	 */
+	private static class CachedNamesList {
+		private final byte[] m_data;
+		private final long m_expires;
+		
+		public CachedNamesList(byte[] data, long expires) {
+			m_data = data;
+			m_expires = expires;
+		}
+		
+		public byte[] getData() {
+			return m_data;
+		}
+		
+		public boolean isExpired() {
+			return System.currentTimeMillis() > m_expires;
 		}
 	}
 	
@@ -5,7 +5,6 @@ import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Formatter;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -13,8 +12,10 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import com.mindoo.domino.jna.errors.NotesError;
 import com.mindoo.domino.jna.errors.NotesErrorUtils;
 import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.LMBCSCodec;
 import com.mindoo.domino.jna.internal.NotesCAPI;
 import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.internal.NotesJNAProperties;
 import com.mindoo.domino.jna.internal.ReadOnlyMemory;
 import com.mindoo.domino.jna.internal.WinNotesCAPI;
 import com.sun.jna.Memory;
@@ -41,6 +42,40 @@ public class NotesStringUtils {
 	private static ConcurrentHashMap<String,Memory> m_string2LMBCSCache_withnull = new ConcurrentHashMap<String,Memory>();
 	private static ConcurrentLinkedQueue<String> m_string2LMBCSLastKeys_withnull = new ConcurrentLinkedQueue<String>();
 	
+	/** System property to disable the Java LMBCS conversion ("false") and always use OSTranslate for non-ASCII strings */
+	public static final String PROP_USEJAVALMBCSCODEC = "mindoo.domino.jna.lmbcs.javacodec";
+	
+	private static volatile boolean m_useJavaLMBCSCodec = NotesJNAProperties.getBoolean(PROP_USEJAVALMBCSCODEC, true);
+	
+	/**
+	 * Method to control whether LMBCS strings in the Latin-1 and Unicode groups should be converted
+	 * in Java code (see {@link LMBCSCodec}) instead of calling the C API method OSTranslate.
+	 * Strings with other LMBCS groups are always converted via OSTranslate.<br>
+	 * The default value can be set via system property {@link #PROP_USEJAVALMBCSCODEC}, which
+	 * is true if not set. This setting is global for all threads.
+	 * 
+	 * @param b true to use the Java conversion
+	 */
+	public static void setUseJavaLMBCSCodec(boolean b) {
+		if (m_useJavaLMBCSCodec != b) {
+			m_useJavaLMBCSCodec = b;
+			
+			m_string2LMBCSCache_withoutnull.clear();
+			m_string2LMBCSLastKeys_withoutnull.clear();
+			m_string2LMBCSCache_withnull.clear();
+			m_string2LMBCSLastKeys_withnull.clear();
+		}
+	}
+	
+	/**
+	 * Returns whether LMBCS strings in the Latin-1 and Unicode groups are converted in Java code
+	 * 
+	 * @return true to use the Java conversion
+	 */
+	public static boolean isUseJavaLMBCSCodec() {
+		return m_useJavaLMBCSCodec;
+	}
+	
 	/**
 	 * Method to control the LMBCS / Java String conversion for newline characters. By default
 	 * we insert \r\n on Windows and \n on other platforms like IBM does.<br>
@@ -233,7 +268,7 @@ public class NotesStringUtils {
 	 * @param buf byte buffer
 	 * @param textLen length of text, use -1 to let the method search for a terminating \0
 	 * @param startPosition start position
-	 * @param skipAsciiCheck true to skip the check whether the memory contains pure ASCII (parameter added to avoid a duplicate check), will always result in a C API call to convert the string
+	 * @param skipAsciiCheck true if the caller has already checked that the data is not pure ASCII and has tried the Java LMBCS decoder (parameter added to avoid duplicate checks), will always result in a C API call to convert the string
 	 * @return decoded String
 	 */
 	public static String fromLMBCS(ByteBuffer buf, int textLen, int startPosition, boolean skipAsciiCheck) {
@@ -276,6 +311,14 @@ public class NotesStringUtils {
 				buf.position(startPosition + textLen);
 				return asciiStr;
 			}
+			
+			if (m_useJavaLMBCSCodec) {
+				String decodedStr = LMBCSCodec.decode(buf, startPosition, textLen, getLineDelimiter());
+				if (decodedStr!=null) {
+					buf.position(startPosition + textLen);
+					return decodedStr;
+				}
+			}
 		}
 		
 		Memory bufAsMem = new Memory(textLen);
@@ -291,8 +334,7 @@ public class NotesStringUtils {
 			
 			bufAsMem.write(0, bufArr, 0, textLen);
 		}
-		//skipAsciiCheck=true
-		String retStr = fromLMBCS(bufAsMem, textLen, true);
+		String retStr = fromLMBCSWithOSTranslate(bufAsMem, textLen);
 		buf.position(startPosition + textLen);
 		return retStr;
 	}
@@ -313,12 +355,10 @@ public class NotesStringUtils {
 	 * 
 	 * @param inPtr pointer in memory
 	 * @param textLen length of text, use -1 to let the method search for a terminating \0
-	 * @param skipAsciiCheck true to skip the check whether the memory contains pure ASCII (parameter added to avoid a duplicate check), will always result in a C API call to convert the string
+	 * @param skipAsciiCheck true if the caller has already checked that the data is not pure ASCII and has tried the Java LMBCS decoder (parameter added to avoid duplicate checks), will always result in a C API call to convert the string
 	 * @return decoded String
 	 */
 	public static String fromLMBCS(Pointer inPtr, int textLen, boolean skipAsciiCheck) {
-		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
-
 		if (inPtr==null || textLen==0) {
 			return "";
 		}
@@ -352,8 +392,42 @@ public class NotesStringUtils {
 				String asciiStr = new String(asciiBytes, Charset.forName("ASCII"));
 				return asciiStr;
 			}
+			
+			if (m_useJavaLMBCSCodec) {
+				String decodedStr = LMBCSCodec.decode(inPtr, textLen, getLineDelimiter());
+				if (decodedStr!=null) {
+					return decodedStr;
+				}
+			}
 		}
+		
+		return fromLMBCSWithOSTranslate(inPtr, textLen);
+	}
 	
+	/**
+	 * Returns the string that the LMBCS line delimiter \0 gets converted to
+	 * 
+	 * @return "\r\n" on Windows if {@link #isUseOSLineDelimiter()} is true, "\n" otherwise
+	 */
+	public static String getLineDelimiter() {
+		if (NotesJNAContext.getNotesAPI() instanceof WinNotesCAPI && isUseOSLineDelimiter()) {
+			return "\r\n";
+		}
+		else {
+			return "\n";
+		}
+	}
+	
+	/**
+	 * Converts an LMBCS string to a Java String using the C API method OSTranslate
+	 * 
+	 * @param inPtr pointer in memory
+	 * @param textLen length of text
+	 * @return decoded String
+	 */
+	private static String fromLMBCSWithOSTranslate(Pointer inPtr, int textLen) {
+		NotesCAPI notesAPI = NotesJNAContext.getNotesAPI();
+		
 		Pointer pText = inPtr;
 		boolean useOSLineBreak = isUseOSLineDelimiter();
 		
@@ -453,45 +527,24 @@ public class NotesStringUtils {
 				Memory m = new Memory(asciiBytes.length + 1);
 				m.write(0, asciiBytes, 0, asciiBytes.length);
 				m.setByte(asciiBytes.length, (byte) 0);
-				
-				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-					m = new ReadOnlyMemory(m);
-					
-					m_string2LMBCSCache_withnull.put(inStr, m);
-					m_string2LMBCSLastKeys_withnull.add(inStr);
-					
-					//compress cache
-					while (m_string2LMBCSLastKeys_withnull.size()>MAX_STRING2LMBCS_ENTRIES) {
-						String currStr = m_string2LMBCSLastKeys_withnull.poll();
-						if (currStr==null)
-							break;
-						m_string2LMBCSCache_withnull.remove(currStr);
-					}
-				}
-				return m;
+				return addToLMBCSCache(inStr, addNull, m);
 			}
 			else {
 				Memory m = new Memory(asciiBytes.length);
 				m.write(0, asciiBytes, 0, asciiBytes.length);
-				
-				if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-					m = new ReadOnlyMemory(m);
-					
-					m_string2LMBCSCache_withoutnull.put(inStr, m);
-					m_string2LMBCSLastKeys_withoutnull.add(inStr);
-					
-					//compress cache
-					while (m_string2LMBCSLastKeys_withoutnull.size()>MAX_STRING2LMBCS_ENTRIES) {
-						String currStr = m_string2LMBCSLastKeys_withoutnull.poll();
-						if (currStr==null)
-							break;
-						m_string2LMBCSCache_withoutnull.remove(currStr);
-					}
-				}
-				return m;
+				return addToLMBCSCache(inStr, addNull, m);
 			}
 		}
-			
+		
+		if (m_useJavaLMBCSCodec) {
+			byte[] lmbcsBytes = LMBCSCodec.encode(inStr, addNull);
+			if (lmbcsBytes!=null) {
+				Memory m = new Memory(lmbcsBytes.length);
+				m.write(0, lmbcsBytes, 0, lmbcsBytes.length);
+				return addToLMBCSCache(inStr, addNull, m);
+			}
+		}
+		
 		if (inStr.contains("\n")) {
 			//replace line breaks with null characters
 			String[] lines = inStr.split("\\r?\\n", -1);
@@ -554,46 +607,46 @@ public class NotesStringUtils {
 			byte[] allAsBytes = bOut.toByteArray();
 			all.write(0, allAsBytes, 0, bOut.size());
 			all.setByte(all.size()-1, (byte) 0); 
-			
-			if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-				all = new ReadOnlyMemory(all);
-				
-				m_string2LMBCSCache_withnull.put(inStr, all);
-				m_string2LMBCSLastKeys_withnull.add(inStr);
-				
-				//compress cache
-				while (m_string2LMBCSLastKeys_withnull.size()>MAX_STRING2LMBCS_ENTRIES) {
-					String currStr = m_string2LMBCSLastKeys_withnull.poll();
-					if (currStr==null)
-						break;
-					m_string2LMBCSCache_withnull.remove(currStr);
-				}
-			}
-			return all;			
+			return addToLMBCSCache(inStr, addNull, all);
 		}
 		else {
 			Memory all = new Memory(bOut.size());
 			byte[] allAsBytes = bOut.toByteArray();
 			all.write(0, allAsBytes, 0, bOut.size());
-			
-			if (USE_STRING2LMBCS_CACHE && inStr.length()<=MAX_STRING2LMBCS_KEY_LENGTH) {
-				all = new ReadOnlyMemory(all);
-				
-				m_string2LMBCSCache_withoutnull.put(inStr, all);
-				m_string2LMBCSLastKeys_withoutnull.add(inStr);
-				
-				//compress cache
-				while (m_string2LMBCSLastKeys_withoutnull.size()>MAX_STRING2LMBCS_ENTRIES) {
-					String currStr = m_string2LMBCSLastKeys_withoutnull.poll();
-					if (currStr==null)
-						break;
-					m_string2LMBCSCache_withoutnull.remove(currStr);
-				}
-			}
-			return all;
+			return addToLMBCSCache(inStr, addNull, all);
 		}
 	}
 
+	/**
+	 * Adds the LMBCS conversion result of a short string to the cache
+	 * 
+	 * @param inStr string
+	 * @param addNull true if the converted string is null terminated
+	 * @param m conversion result
+	 * @return read-only copy of the memory if it has been cached, the original memory otherwise
+	 */
+	private static Memory addToLMBCSCache(String inStr, boolean addNull, Memory m) {
+		if (!USE_STRING2LMBCS_CACHE || inStr.length()>MAX_STRING2LMBCS_KEY_LENGTH)
+			return m;
+		
+		m = new ReadOnlyMemory(m);
+		
+		ConcurrentHashMap<String,Memory> cache = addNull ? m_string2LMBCSCache_withnull : m_string2LMBCSCache_withoutnull;
+		ConcurrentLinkedQueue<String> lastKeys = addNull ? m_string2LMBCSLastKeys_withnull : m_string2LMBCSLastKeys_withoutnull;
+		
+		cache.put(inStr, m);
+		lastKeys.add(inStr);
+		
+		//compress cache
+		while (lastKeys.size()>MAX_STRING2LMBCS_ENTRIES) {
+			String currStr = lastKeys.poll();
+			if (currStr==null)
+				break;
+			cache.remove(currStr);
+		}
+		return m;
+	}
+
 	/**
 	 * Converts bytes in memory to a UNID
 	 * 
@@ -602,13 +655,26 @@ public class NotesStringUtils {
 	 * @return unid
 	 */
 	public static String toUNID(long innardsFile, long innardsNote) {
-		Formatter formatter = new Formatter();
-		
-		formatter.format("%016x", innardsFile);
-		formatter.format("%016x", innardsNote);
-		String unid = formatter.toString().toUpperCase();
-		formatter.close();
-		return unid;
+		char[] unidChars = new char[32];
+		writeHex(innardsFile, unidChars, 0);
+		writeHex(innardsNote, unidChars, 16);
+		return new String(unidChars);
+	}
+
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Writes a long value as 16 uppercase hex characters
+	 * 
+	 * @param val value
+	 * @param target target array
+	 * @param offset offset in target array
+	 */
+	private static void writeHex(long val, char[] target, int offset) {
+		for (int i=offset+15; i>=offset; i--) {
+			target[i] = HEX_CHARS[(int) (val & 0xf)];
+			val >>>= 4;
+		}
 	}
 
 	/**
@@ -0,0 +1,283 @@
+package com.mindoo.domino.jna;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mindoo.domino.jna.CollectionDataCache.CacheState;
+import com.mindoo.domino.jna.NotesViewEntryData.CacheableViewEntryData;
+import com.mindoo.domino.jna.constants.ReadMask;
+
+/**
+ * Tests for the eviction and size accounting of {@link CollectionDataCache}. The test is in the
+ * package of the cache to fill it without reading a view, so it does not need a Notes installation.
+ *
+ * @author Karsten Lehmann
+ */
+public class TestCollectionDataCache {
+	private static final EnumSet<ReadMask> READMASK = EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARYVALUES);
+
+	private static NotesViewEntryData createEntry(int noteId, int valueSize) {
+		NotesViewEntryData entry = new NotesViewEntryData(null);
+		entry.setNoteId(noteId);
+		entry.setColumnValues(new Object[] {"value"+noteId});
+		entry.setColumnValueSizesInBytes(new int[] {valueSize});
+		return entry;
+	}
+
+	private static void add(CollectionDataCache cache, int... noteIds) {
+		List<NotesViewEntryData> entries = new ArrayList<NotesViewEntryData>();
+		for (int currNoteId : noteIds) {
+			entries.add(createEntry(currNoteId, 10));
+		}
+		//no diff time, the cache generation must be kept
+		cache.addCacheValues(null, READMASK, null, entries);
+	}
+
+	/**
+	 * Simulates differential view reads where NIF skipped the entries, because
+	 * they are already in the cache
+	 */
+	private static void access(CollectionDataCache cache, int... noteIds) {
+		List<NotesViewEntryData> stubs = new ArrayList<NotesViewEntryData>();
+		for (int currNoteId : noteIds) {
+			NotesViewEntryData stub = new NotesViewEntryData(null);
+			stub.setNoteId(currNoteId);
+			stubs.add(stub);
+		}
+		Assert.assertTrue("All stubs populated", cache.populateEntryStubsWithData(cache.getCacheState(), stubs));
+		for (NotesViewEntryData currStub : stubs) {
+			Assert.assertTrue("Entry "+currStub.getNoteId()+" found in cache", currStub.hasAnyColumnValues());
+		}
+	}
+
+	private static boolean contains(CollectionDataCache cache, int noteId) {
+		return cache.getCacheState().getCacheEntries().containsKey(noteId);
+	}
+
+	private static long computeSizeInBytes(CollectionDataCache cache) {
+		long size = 0;
+		for (CacheableViewEntryData currData : cache.getCacheState().getCacheEntries().values()) {
+			size += currData.estimateSizeInBytes();
+		}
+		return size;
+	}
+
+	@Test
+	public void testCollectionDataCache_sizeEstimate() {
+		NotesViewEntryData entry = createEntry(4, 100);
+		int columnValuesSize = entry.getCacheableData().estimateSizeInBytes();
+		Assert.assertEquals("Size computed from the column value sizes", 200 + 32 + 2 * 100, columnValuesSize);
+
+		//summary data (ReadMask.SUMMARY) with value sizes
+		NotesViewEntryData summaryEntry = new NotesViewEntryData(null);
+		summaryEntry.setNoteId(8);
+		Map<String,Object> summaryData = new LinkedHashMap<String,Object>();
+		summaryData.put("lastname", "Smith");
+		summaryEntry.setSummaryData(summaryData);
+		summaryEntry.setColumnValueSizesInBytes(new int[] {100});
+		Assert.assertEquals("Size computed from the value sizes and names", 200 + 32 + 2 * 100 + 32 + 2 * "lastname".length(),
+				summaryEntry.getCacheableData().estimateSizeInBytes());
+
+		CollectionDataCache cache = new CollectionDataCache();
+		cache.addCacheValues(null, READMASK, null, Collections.singletonList(entry));
+		Assert.assertEquals(columnValuesSize, cache.getCacheSizeInBytes());
+	}
+
+	@Test
+	public void testCollectionDataCache_keepsGenerationWithoutDiffTime() {
+		CollectionDataCache cache = new CollectionDataCache();
+		add(cache, 4, 8);
+		add(cache, 12);
+		Assert.assertEquals("Entries of both reads are cached", 3, cache.size());
+
+		//a different read mask starts a new generation
+		cache.addCacheValues(null, EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARY), null,
+				Collections.singletonList(createEntry(16, 10)));
+		Assert.assertEquals("Cache flushed for new read mask", 1, cache.size());
+		Assert.assertEquals(EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARY), cache.getCacheState().getReadMask());
+	}
+
+	@Test
+	public void testCollectionDataCache_populateFromDiffState() {
+		CollectionDataCache cache = new CollectionDataCache();
+		add(cache, 4, 8);
+		//state used to build the diff ID table of a view read
+		CacheState diffState = cache.getCacheState();
+
+		//another reader starts a new generation while NIF skips entries 4 and 8
+		cache.addCacheValues(null, EnumSet.of(ReadMask.NOTEID, ReadMask.SUMMARY), null,
+				Collections.singletonList(createEntry(16, 10)));
+		Assert.assertEquals(1, cache.size());
+
+		List<NotesViewEntryData> stubs = new ArrayList<NotesViewEntryData>();
+		for (int currNoteId : new int[] {4, 8}) {
+			NotesViewEntryData stub = new NotesViewEntryData(null);
+			stub.setNoteId(currNoteId);
+			stubs.add(stub);
+		}
+		Assert.assertTrue("Stubs populated from the diff state", cache.populateEntryStubsWithData(diffState, stubs));
+		for (NotesViewEntryData currStub : stubs) {
+			Assert.assertTrue("Entry "+currStub.getNoteId()+" has column values", currStub.hasAnyColumnValues());
+		}
+
+		//entries missing in the diff state require a read without diff time
+		NotesViewEntryData unknownStub = new NotesViewEntryData(null);
+		unknownStub.setNoteId(12);
+		Assert.assertFalse("Stub not found in diff state", cache.populateEntryStubsWithData(diffState,
+				Collections.singletonList(unknownStub)));
+		Assert.assertTrue("Nothing to populate without diff read", cache.populateEntryStubsWithData(null,
+				Collections.singletonList(unknownStub)));
+	}
+
+	@Test
+	public void testCollectionDataCache_evictionByCount() {
+		CollectionDataCache cache = new CollectionDataCache(100);
+		for (int i=1; i<=150; i++) {
+			add(cache, i*4);
+			Assert.assertTrue("Size limit kept", cache.size() <= 100);
+		}
+		Assert.assertEquals("All evictions counted", 150 - cache.size(), cache.getEvictionCount());
+		Assert.assertEquals("Size in bytes matches the entries", computeSizeInBytes(cache), cache.getCacheSizeInBytes());
+	}
+
+	@Test
+	public void testCollectionDataCache_evictionByBytes() {
+		int entrySize = createEntry(4, 10).getCacheableData().estimateSizeInBytes();
+		CollectionDataCache cache = new CollectionDataCache(Integer.MAX_VALUE, 20 * entrySize);
+		for (int i=1; i<=100; i++) {
+			add(cache, i*4);
+			Assert.assertTrue("Byte limit kept", cache.getCacheSizeInBytes() <= 20 * entrySize);
+		}
+		Assert.assertTrue("Entries have been evicted", cache.getEvictionCount() > 0);
+		Assert.assertEquals("Size in bytes matches the entries", computeSizeInBytes(cache), cache.getCacheSizeInBytes());
+	}
+
+	@Test
+	public void testCollectionDataCache_leastFrequentlyUsedWithAging() {
+		CollectionDataCache cache = new CollectionDataCache(10);
+
+		//ten entries with three accesses each, 4 has the oldest access
+		int[] aIds = new int[10];
+		for (int i=0; i<10; i++) {
+			aIds[i] = (i+1)*4;
+		}
+		add(cache, aIds);
+		for (int i=0; i<3; i++) {
+			access(cache, aIds);
+		}
+
+		//exceeding the limit evicts the new entry, because it has never been accessed
+		add(cache, 1000);
+		Assert.assertEquals(10, cache.size());
+		Assert.assertFalse("Unused entry evicted first", contains(cache, 1000));
+
+		//every eviction replaces 10% of this cache and halves the frequencies, from 3 to 1
+		//and then to 0, so the next new entry is kept and the oldest access is evicted
+		add(cache, 2000);
+		Assert.assertFalse("Unused entry evicted first", contains(cache, 2000));
+		add(cache, 3000);
+		Assert.assertEquals(10, cache.size());
+		Assert.assertTrue("New entry kept after aging", contains(cache, 3000));
+		Assert.assertFalse("Oldest access evicted among equal frequencies", contains(cache, aIds[0]));
+		Assert.assertEquals(3, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testCollectionDataCache_sampledEvictionKeepsPopularEntries() {
+		CollectionDataCache cache = new CollectionDataCache(1000);
+		int[] ids = new int[1000];
+		for (int i=0; i<ids.length; i++) {
+			ids[i] = (i+1)*4;
+		}
+		add(cache, ids);
+
+		//every tenth entry is popular
+		int[] popularIds = new int[100];
+		for (int i=0; i<popularIds.length; i++) {
+			popularIds[i] = ids[i*10];
+		}
+		for (int i=0; i<5; i++) {
+			access(cache, popularIds);
+		}
+
+		//each eviction only compares a sample of the entries, it is very unlikely
+		//that a sample only contains popular entries
+		for (int i=0; i<200; i++) {
+			add(cache, 10000 + i*4);
+			Assert.assertEquals(1000, cache.size());
+		}
+		Assert.assertEquals(200, cache.getEvictionCount());
+		for (int currId : popularIds) {
+			Assert.assertTrue("Popular entry "+currId+" kept", contains(cache, currId));
+		}
+		Assert.assertEquals("Size in bytes matches the entries", computeSizeInBytes(cache), cache.getCacheSizeInBytes());
+	}
+
+	@Test
+	public void testCollectionDataCache_concurrentPutAndEvict() throws Exception {
+		final int maxSize = 500;
+		final CollectionDataCache cache = new CollectionDataCache(maxSize);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t=0; t<8; t++) {
+			final long seed = t;
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						Random rnd = new Random(seed);
+						for (int i=0; i<2000; i++) {
+							List<NotesViewEntryData> entries = new ArrayList<NotesViewEntryData>();
+							for (int j=0; j<10; j++) {
+								//overlapping note ids to replace entries of other threads
+								entries.add(createEntry((1 + rnd.nextInt(2000)) * 4, rnd.nextInt(200)));
+							}
+							cache.addCacheValues(null, READMASK, null, entries);
+
+							//read some entries, may have been evicted in the meantime
+							List<NotesViewEntryData> stubs = new ArrayList<NotesViewEntryData>();
+							for (int j=0; j<10; j++) {
+								NotesViewEntryData stub = new NotesViewEntryData(null);
+								stub.setNoteId((1 + rnd.nextInt(2000)) * 4);
+								stubs.add(stub);
+							}
+							cache.populateEntryStubsWithData(cache.getCacheState(), stubs);
+						}
+					}
+					catch (Throwable e) {
+						error.compareAndSet(null, e);
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread currThread : threads) {
+			currThread.join();
+		}
+		if (error.get()!=null) {
+			throw new AssertionError(error.get());
+		}
+
+		//threads skip the eviction while another thread evicts, so we trigger it once more
+		cache.addCacheValues(null, READMASK, null, new ArrayList<NotesViewEntryData>());
+
+		CacheState state = cache.getCacheState();
+		Assert.assertTrue("Size limit kept", state.getCacheEntries().size() <= maxSize);
+		Assert.assertEquals("Size in bytes matches the entries", computeSizeInBytes(cache), cache.getCacheSizeInBytes());
+		for (Map.Entry<Integer,CacheableViewEntryData> currEntry : state.getCacheEntries().entrySet()) {
+			Assert.assertEquals("Entry stored with its note id", currEntry.getKey(), currEntry.getValue().getNoteId());
+		}
+	}
+}
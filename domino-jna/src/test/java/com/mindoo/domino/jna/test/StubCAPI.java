@@ -0,0 +1,63 @@
+package com.mindoo.domino.jna.test;
+
+import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+/**
+ * Stub library to compare JNA interface mapping (used for the NotesCAPI interface) with
+ * JNA direct mapping (used by DirectMappedNotesCAPI) without a Notes installation.<br>
+ * <br>
+ * The functions are called in the C runtime library, loaded with the library options of
+ * {@link NotesJNAContext#createLibraryOptions()}, so the b64_ prefix is removed by the same
+ * function mapper as for the Notes library.
+ *
+ * @author Karsten Lehmann
+ */
+public class StubCAPI {
+	private static InterfaceMapped m_interfaceMapped;
+	private static boolean m_directMappedRegistered;
+
+	/**
+	 * Interface mapped stub functions
+	 */
+	public interface InterfaceMapped extends Library {
+		public int b64_abs(int value);
+		public Pointer b64_strchr(Pointer str, int c);
+		public Pointer b64_memcpy(Pointer dest, Pointer src, long count);
+	}
+
+	/**
+	 * Direct mapped stub functions, bound by {@link StubCAPI#registerDirectMapped()}
+	 */
+	public static class DirectMapped {
+		public static native int b64_abs(int value);
+		public static native Pointer b64_strchr(Pointer str, int c);
+		public static native Pointer b64_memcpy(Pointer dest, Pointer src, long count);
+	}
+
+	/**
+	 * Loads the C runtime library with interface mapping
+	 *
+	 * @return library
+	 */
+	public static synchronized InterfaceMapped loadInterfaceMapped() {
+		if (m_interfaceMapped==null) {
+			m_interfaceMapped = Native.loadLibrary(Platform.C_LIBRARY_NAME, InterfaceMapped.class, NotesJNAContext.createLibraryOptions());
+		}
+		return m_interfaceMapped;
+	}
+
+	/**
+	 * Binds the native methods of {@link DirectMapped} to the C runtime library
+	 */
+	public static synchronized void registerDirectMapped() {
+		if (!m_directMappedRegistered) {
+			Native.register(DirectMapped.class, NativeLibrary.getInstance(Platform.C_LIBRARY_NAME, NotesJNAContext.createLibraryOptions()));
+			m_directMappedRegistered = true;
+		}
+	}
+}
@@ -1,12 +1,17 @@
 package com.mindoo.domino.jna.test;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
 import java.util.TimeZone;
 
 import org.junit.Test;
 
 import com.mindoo.domino.jna.NotesTimeDate;
+import com.mindoo.domino.jna.internal.InnardsConverter;
 import com.mindoo.domino.jna.utils.NotesDateTimeUtils;
 
 import junit.framework.Assert;
@@ -40,5 +45,139 @@ public class TestDateTimeConversion extends BaseJNATestClass {
 		});
 	}
 	
+	/**
+	 * Compares the Java TIMEDATE conversion with the C API conversion for values
+	 * around the DST changes of several zones, including zones with half-hour offsets
+	 * and zones with DST in the southern hemisphere
+	 */
+	@Test
+	public void testJavaCodecMatchesNative() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				String[] zoneIds = new String[] {
+						"Europe/Berlin",
+						"America/New_York",
+						"UTC",
+						"Asia/Kolkata", //+05:30, no DST
+						"Asia/Kathmandu", //+05:45, no DST
+						"America/St_Johns", //-03:30, DST
+						"Australia/Adelaide", //+09:30, DST in the southern hemisphere
+						"Australia/Sydney", //DST in the southern hemisphere
+						"Pacific/Auckland" //DST in the southern hemisphere
+				};
+				
+				TimeZone oldDefaultTz = TimeZone.getDefault();
+				boolean oldUseJavaCodec = NotesDateTimeUtils.isUseJavaTimeDateCodec();
+				try {
+					for (String currZoneId : zoneIds) {
+						TimeZone tz = TimeZone.getTimeZone(currZoneId);
+						Assert.assertEquals("Zone "+currZoneId+" is known", currZoneId, tz.getID());
+						TimeZone.setDefault(tz);
+						
+						compareCodecs(tz);
+					}
+				}
+				finally {
+					TimeZone.setDefault(oldDefaultTz);
+					NotesDateTimeUtils.setUseJavaTimeDateCodec(oldUseJavaCodec);
+				}
+				
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Compares the Java TIMEDATE conversion with the C API conversion for values
+	 * around the DST changes of a zone that is set as JVM default zone
+	 * 
+	 * @param tz zone
+	 */
+	private void compareCodecs(TimeZone tz) {
+		boolean useDayLight = NotesDateTimeUtils.isDaylightTime();
+		int gmtOffset = NotesDateTimeUtils.getGMTOffset();
+		//the C API decoding only receives the GMT offset in full hours
+		boolean isFullHourZone = (tz.getRawOffset() % (60 * 60 * 1000)) == 0;
+		
+		//collect points in time around the DST changes of the last and next years
+		List<Long> testMillis = new ArrayList<Long>();
+		Calendar cal = new GregorianCalendar(tz);
+		cal.set(Calendar.YEAR, cal.get(Calendar.YEAR)-2);
+		cal.set(Calendar.DAY_OF_YEAR, 1);
+		cal.set(Calendar.HOUR_OF_DAY, 0);
+		cal.set(Calendar.MINUTE, 0);
+		cal.set(Calendar.SECOND, 0);
+		cal.set(Calendar.MILLISECOND, 0);
+		
+		long startMillis = cal.getTimeInMillis();
+		long endMillis = startMillis + 4L * 366 * 24 * 60 * 60 * 1000;
+		
+		boolean inDST = tz.inDaylightTime(new Date(startMillis));
+		for (long currMillis=startMillis; currMillis<endMillis; currMillis+=60*60*1000) {
+			boolean currInDST = tz.inDaylightTime(new Date(currMillis));
+			if (currInDST!=inDST) {
+				//DST change, add values in steps of 15 minutes
+				for (long m=currMillis-3*60*60*1000; m<currMillis+3*60*60*1000; m+=15*60*1000) {
+					testMillis.add(m);
+				}
+				inDST = currInDST;
+			}
+		}
+		//add some random values with hundredths
+		Random rand = new Random(4711);
+		for (int i=0; i<1000; i++) {
+			testMillis.add(startMillis + 10 * ((long) (rand.nextDouble() * (endMillis - startMillis) / 10)));
+		}
+		
+		System.out.println("Comparing "+testMillis.size()+" values in zone "+tz.getID());
+		
+		for (Long currMillis : testMillis) {
+			Calendar currCal = Calendar.getInstance(tz);
+			currCal.setTimeInMillis(currMillis);
+			String msgSuffix = " for "+currCal.getTime()+" in zone "+tz.getID();
+			
+			NotesDateTimeUtils.setUseJavaTimeDateCodec(false);
+			int[] nativeInnards = NotesDateTimeUtils.calendarToInnards(currCal, true, true);
+			Calendar nativeCal = isFullHourZone ? NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, nativeInnards) : null;
+			
+			NotesDateTimeUtils.setUseJavaTimeDateCodec(true);
+			int[] javaInnards = NotesDateTimeUtils.calendarToInnards(currCal, true, true);
+			Calendar javaCal = NotesDateTimeUtils.innardsToCalendar(useDayLight, gmtOffset, javaInnards);
+			
+			Assert.assertEquals("Ticks are equal"+msgSuffix, nativeInnards[0], javaInnards[0]);
+			Assert.assertEquals("Julian day, zone and DST flag are equal"+msgSuffix, nativeInnards[1], javaInnards[1]);
+			if (nativeCal!=null) {
+				Assert.assertEquals("Decoded values are equal"+msgSuffix, nativeCal.getTimeInMillis(), javaCal.getTimeInMillis());
+			}
+			Assert.assertEquals("Decoded value matches original value"+msgSuffix, currMillis.longValue(), javaCal.getTimeInMillis());
+		}
+	}
+	
+	/**
+	 * Checks decoding date/time values as milliseconds
+	 */
+	@Test
+	public void testDecodeAsMillis() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				//local time that does not exist in central Europe because of the DST change
+				Calendar cal = new GregorianCalendar(2017, Calendar.MARCH, 26, 2, 30, 15);
+				cal.set(Calendar.MILLISECOND, 120);
+				
+				int[] innards = NotesDateTimeUtils.calendarToInnards(cal, true, true);
+				Assert.assertEquals("Millis match", cal.getTimeInMillis(), InnardsConverter.innardsToMillis(innards));
+				
+				int[] dateOnlyInnards = NotesDateTimeUtils.calendarToInnards(cal, true, false);
+				Assert.assertFalse("Date-only value is not converted in Java", InnardsConverter.hasDateAndTime(dateOnlyInnards));
+				
+				return null;
+			}
+		});
+	}
+	
 //	@Test
 }
@@ -3,9 +3,12 @@ package com.mindoo.domino.jna.test;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -15,6 +18,10 @@ import com.mindoo.domino.jna.NotesDatabase;
 import com.mindoo.domino.jna.NotesDatabase.SearchCallback;
 import com.mindoo.domino.jna.NotesIDTable;
 import com.mindoo.domino.jna.NotesOriginatorId;
+import com.mindoo.domino.jna.NotesParallelSearch;
+import com.mindoo.domino.jna.NotesParallelSearch.ParallelSearchResult;
+import com.mindoo.domino.jna.NotesSearch.SearchMatch;
+import com.mindoo.domino.jna.NotesSearch.SearchMatchCallback;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.NotesViewEntryData;
 import com.mindoo.domino.jna.constants.FileType;
@@ -218,6 +225,122 @@ public class TestDbSearch extends BaseJNATestClass {
 		});
 	}
 	
+	@Test
+	public void testDbSearch_searchMatchCallback() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+
+				String formula = "SELECT Form=\"Person\"";
+				EnumSet<Search> searchFlags = EnumSet.of(Search.SESSION_USERNAME);
+
+				//collect note ids and OIDs with the default callback
+				final Map<Integer,NotesOriginatorId> oidsByNoteId = new HashMap<Integer,NotesOriginatorId>();
+				dbData.search(formula, "-", searchFlags, EnumSet.of(NoteClass.DOCUMENT), null, new SearchCallback() {
+
+					@Override
+					public Action noteFound(NotesDatabase parentDb, int noteId, NotesOriginatorId oid, EnumSet<NoteClass> noteClass,
+							EnumSet<NoteFlags> flags, NotesTimeDate dbCreated, NotesTimeDate noteModified,
+							ItemTableData summaryBufferData) {
+						oidsByNoteId.put(noteId, oid);
+						return Action.Continue;
+					}
+				});
+
+				//and compare them with the data read via the reusable search match
+				final int[] cnt = new int[1];
+				final int[] sequenceTimeInnards = new int[2];
+				dbData.search(formula, "-", searchFlags, EnumSet.of(NoteClass.DOCUMENT), null, new SearchMatchCallback() {
+
+					@Override
+					public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+						cnt[0]++;
+						NotesOriginatorId oid = oidsByNoteId.get(match.getNoteId());
+						Assert.assertNotNull("Note has also been found with the default callback", oid);
+						Assert.assertTrue("Note is a document", match.isNoteClass(NoteClass.DOCUMENT));
+						Assert.assertTrue("Note matches formula", match.matchesFormula());
+						Assert.assertEquals("UNID is correct", oid.getUNIDAsString(), match.getUnid());
+						Assert.assertEquals("Sequence is correct", oid.getSequence(), match.getSequence());
+
+						match.getSequenceTimeInnards(sequenceTimeInnards);
+						Assert.assertArrayEquals("Sequence time is correct", oid.getSequenceTime().getInnards(), sequenceTimeInnards);
+						Assert.assertFalse("Summary buffer has not been requested", match.hasSummary());
+						return Action.Continue;
+					}
+				});
+
+				Assert.assertEquals("Both callbacks received the same number of notes", oidsByNoteId.size(), cnt[0]);
+				return null;
+			}
+		});
+	}
+
+	@Test
+	public void testDbSearch_parallelSearch() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+
+				String formula = "SELECT Form=\"Person\"";
+				EnumSet<Search> searchFlags = EnumSet.of(Search.SESSION_USERNAME);
+
+				//reference result of a single search
+				final Set<Integer> singleSearchIds = new HashSet<Integer>();
+				dbData.search(formula, "-", searchFlags, EnumSet.of(NoteClass.DOCUMENT), null, new SearchMatchCallback() {
+
+					@Override
+					public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+						singleSearchIds.add(match.getNoteId());
+						return Action.Continue;
+					}
+				});
+
+				NotesParallelSearch parallelSearch = new NotesParallelSearch(dbData);
+				parallelSearch.setThreadCount(4);
+				parallelSearch.setPartitionCount(16);
+
+				final Set<Integer> parallelSearchIds = new HashSet<Integer>();
+				final int[] cnt = new int[1];
+				ParallelSearchResult result = parallelSearch.search(formula, "-", searchFlags, EnumSet.of(NoteClass.DOCUMENT), null, new SearchMatchCallback() {
+
+					@Override
+					public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+						cnt[0]++;
+						parallelSearchIds.add(match.getNoteId());
+						return Action.Continue;
+					}
+				});
+				System.out.println("Parallel search done: "+result);
+
+				Assert.assertFalse("Search has not been stopped", result.isStopped());
+				Assert.assertEquals("All partitions have been searched", result.getPartitionCount(), result.getSearchedPartitionCount());
+				Assert.assertEquals("No note has been reported twice", parallelSearchIds.size(), cnt[0]);
+				Assert.assertEquals("Parallel search found the same notes", singleSearchIds, parallelSearchIds);
+				Assert.assertNotNull("Search returned an end time", result.getUntil());
+
+				//stopping in one partition stops all threads
+				final int[] stopCnt = new int[1];
+				ParallelSearchResult stoppedResult = parallelSearch.search(formula, "-", searchFlags, EnumSet.of(NoteClass.DOCUMENT), null, new SearchMatchCallback() {
+
+					@Override
+					public Action noteFound(NotesDatabase parentDb, SearchMatch match) {
+						stopCnt[0]++;
+						return Action.Stop;
+					}
+				});
+				Assert.assertTrue("Search has been stopped", stoppedResult.isStopped());
+				Assert.assertEquals("Callback was not called after stopping", 1, stopCnt[0]);
+				return null;
+			}
+		});
+	}
+
 	@Test
 	public void testDbSearch_directoryScanWithFormula() {
 
@@ -0,0 +1,158 @@
+package com.mindoo.domino.jna.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.junit.Test;
+
+import com.mindoo.domino.jna.internal.DirectMappedNotesCAPI;
+import com.mindoo.domino.jna.internal.NotesCAPI;
+import com.mindoo.domino.jna.internal.NotesCAPIDirectFunctions;
+import com.mindoo.domino.jna.internal.NotesJNAContext;
+import com.mindoo.domino.jna.utils.NotesStringUtils;
+import com.sun.jna.FunctionMapper;
+import com.sun.jna.Library;
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.LongByReference;
+
+import junit.framework.Assert;
+import lotus.domino.Session;
+
+/**
+ * Compares JNA interface mapping (used for the NotesCAPI interface) with JNA direct mapping
+ * (used by DirectMappedNotesCAPI).<br>
+ * <br>
+ * The stub libraries are loaded with the same options as the Notes library, see {@link StubCAPI}.
+ *
+ * @author Karsten Lehmann
+ */
+public class TestDirectMapping extends BaseJNATestClass {
+
+	/**
+	 * Checks the function mapper of {@link NotesJNAContext} with the C runtime library as stub library
+	 */
+	@Test
+	public void testDirectMapping_stubLibrary() {
+		StubCAPI.InterfaceMapped api = StubCAPI.loadInterfaceMapped();
+		StubCAPI.registerDirectMapped();
+
+		Memory str = new Memory(16);
+		str.setString(0, "domino-jna");
+
+		//both bindings need to produce the same results
+		for (int i=-1000; i<1000; i++) {
+			Assert.assertEquals("abs("+i+") equal", api.b64_abs(i), StubCAPI.DirectMapped.b64_abs(i));
+		}
+		Assert.assertEquals("strchr result equal", api.b64_strchr(str, '-'), StubCAPI.DirectMapped.b64_strchr(str, '-'));
+		Assert.assertEquals("strchr result equal for missing char", api.b64_strchr(str, 'x'), StubCAPI.DirectMapped.b64_strchr(str, 'x'));
+	}
+
+	/**
+	 * Checks that every direct mapped function has the same signature as in {@link NotesCAPI}
+	 * and is bound to the same C function
+	 */
+	@Test
+	public void testDirectMapping_functionNames() throws Exception {
+		FunctionMapper mapper = (FunctionMapper) NotesJNAContext.createLibraryOptions().get(Library.OPTION_FUNCTION_MAPPER);
+
+		Method aliasedMethod = null;
+		for (Method currMethod : NotesCAPI.class.getMethods()) {
+			if (currMethod.getName().equals("b64_NSFSearchExtended3WithMatchProc")) {
+				aliasedMethod = currMethod;
+				break;
+			}
+		}
+		Assert.assertNotNull("Renamed method found", aliasedMethod);
+		Assert.assertEquals("Renamed method bound to its C function", "NSFSearchExtended3", mapper.getFunctionName(null, aliasedMethod));
+
+		for (Method currDirectMethod : NotesCAPIDirectFunctions.class.getDeclaredMethods()) {
+			if (!Modifier.isNative(currDirectMethod.getModifiers())) {
+				continue;
+			}
+			Method interfaceMethod = NotesCAPI.class.getMethod(currDirectMethod.getName(), currDirectMethod.getParameterTypes());
+			Assert.assertEquals("Same return type for "+currDirectMethod.getName(), interfaceMethod.getReturnType(), currDirectMethod.getReturnType());
+			Assert.assertEquals("Same C function for "+currDirectMethod.getName(), mapper.getFunctionName(null, interfaceMethod),
+					mapper.getFunctionName(null, currDirectMethod));
+
+			//calls need to be routed to the direct mapped function
+			Method delegateMethod = DirectMappedNotesCAPI.class.getMethod(currDirectMethod.getName(), currDirectMethod.getParameterTypes());
+			Assert.assertEquals("Implemented in DirectMappedNotesCAPI: "+currDirectMethod.getName(), DirectMappedNotesCAPI.class,
+					delegateMethod.getDeclaringClass());
+		}
+	}
+
+	/**
+	 * Calls Notes C API functions via {@link DirectMappedNotesCAPI} and via interface mapping
+	 * and compares the results
+	 */
+	@Test
+	public void testDirectMapping_notesCalls() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesCAPI api = NotesJNAContext.getNotesAPI();
+				NotesCAPI interfaceApi;
+				if (api instanceof DirectMappedNotesCAPI) {
+					interfaceApi = ((DirectMappedNotesCAPI) api).getInterfaceMappedAPI();
+				}
+				else {
+					interfaceApi = api;
+
+					//direct mapping has not been activated for this JVM, so we bind the functions here
+					NotesCAPIDirectFunctions.register();
+				}
+				Assert.assertTrue("Direct mapped functions registered", NotesCAPIDirectFunctions.isRegistered());
+				DirectMappedNotesCAPI directApi = new DirectMappedNotesCAPI(interfaceApi);
+
+				//OSTranslate with a Memory argument
+				Memory lmbcs = NotesStringUtils.toLMBCS("domino-jna äöü €", false);
+				Memory outInterface = new Memory(256);
+				Memory outDirect = new Memory(256);
+				short lenInterface = interfaceApi.OSTranslate(NotesCAPI.OS_TRANSLATE_LMBCS_TO_UNICODE, lmbcs, (short) lmbcs.size(), outInterface, (short) outInterface.size());
+				short lenDirect = directApi.OSTranslate(NotesCAPI.OS_TRANSLATE_LMBCS_TO_UNICODE, lmbcs, (short) lmbcs.size(), outDirect, (short) outDirect.size());
+				Assert.assertTrue("Text has been translated", lenInterface>0);
+				Assert.assertEquals("Same translated length", lenInterface, lenDirect);
+				for (int i=0; i<lenInterface; i++) {
+					Assert.assertEquals("Same translated byte at "+i, outInterface.getByte(i), outDirect.getByte(i));
+				}
+
+				//ID table created and filled via direct mapping, read via interface mapping
+				int numIds = 1000;
+				if (NotesJNAContext.is64Bit()) {
+					LongByReference rethTable = new LongByReference();
+					Assert.assertEquals("Table created", 0, directApi.b64_IDCreateTable(4, rethTable));
+					long hTable = rethTable.getValue();
+					try {
+						IntByReference retfInserted = new IntByReference();
+						for (int i=1; i<=numIds; i++) {
+							Assert.assertEquals("Id inserted", 0, directApi.b64_IDInsert(hTable, i*4, retfInserted));
+						}
+						Assert.assertEquals("Interface mapping sees the ids inserted via direct mapping", numIds, interfaceApi.b64_IDEntries(hTable));
+					}
+					finally {
+						directApi.b64_IDDestroyTable(hTable);
+					}
+				}
+				else {
+					IntByReference rethTable = new IntByReference();
+					Assert.assertEquals("Table created", 0, directApi.b32_IDCreateTable(4, rethTable));
+					int hTable = rethTable.getValue();
+					try {
+						IntByReference retfInserted = new IntByReference();
+						for (int i=1; i<=numIds; i++) {
+							Assert.assertEquals("Id inserted", 0, directApi.b32_IDInsert(hTable, i*4, retfInserted));
+						}
+						Assert.assertEquals("Interface mapping sees the ids inserted via direct mapping", numIds, interfaceApi.b32_IDEntries(hTable));
+					}
+					finally {
+						directApi.b32_IDDestroyTable(hTable);
+					}
+				}
+				return null;
+			}
+		});
+	}
+}
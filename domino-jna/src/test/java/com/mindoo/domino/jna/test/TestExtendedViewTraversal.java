@@ -1,5 +1,6 @@
 package com.mindoo.domino.jna.test;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -246,6 +247,70 @@ public class TestExtendedViewTraversal extends BaseJNATestClass {
 		});
 	}
 	
+	/**
+	 * Writes the content of a {@link CollectionDataCache} to a snapshot file and loads it into
+	 * a new cache instance, which can be used for differential view reads right away
+	 */
+	@Test
+	public void testExtViewTraversal_cacheSnapshot() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+				
+				NotesCollection colFromDbData = dbData.openCollectionByName("PeopleFlatMultiColumnSortSingleValue",
+						EnumSet.of(OpenCollection.NOUPDATE));
+				colFromDbData.update();
+
+				final int numEntriesToRead = 20;
+				
+				final CollectionDataCache collectionDataCache = new CollectionDataCache();
+				List<NotesViewEntryData> entriesFirstRun = colFromDbData.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT), numEntriesToRead,
+						EnumSet.of(ReadMask.SUMMARYVALUES, ReadMask.NOTEID), new NotesCollection.EntriesAsListCallback(numEntriesToRead) {
+					@Override
+					public CollectionDataCache createDataCache() {
+						return collectionDataCache;
+					}
+				});
+				
+				File snapshotFile = File.createTempFile("collectioncache", ".bin");
+				try {
+					collectionDataCache.writeSnapshot(colFromDbData, snapshotFile);
+					
+					//simulate a restart
+					final CollectionDataCache loadedCache = new CollectionDataCache();
+					loadedCache.enableUsageStats();
+					Assert.assertTrue("Snapshot could be loaded", loadedCache.loadSnapshot(colFromDbData, snapshotFile));
+					Assert.assertEquals("Loaded cache has the same size", collectionDataCache.size(), loadedCache.size());
+					
+					List<NotesViewEntryData> entriesSecondRun = colFromDbData.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT), numEntriesToRead,
+							EnumSet.of(ReadMask.SUMMARYVALUES, ReadMask.NOTEID), new NotesCollection.EntriesAsListCallback(numEntriesToRead) {
+						@Override
+						public CollectionDataCache createDataCache() {
+							return loadedCache;
+						}
+					});
+					
+					Assert.assertTrue("Loaded cache has been used", loadedCache.getCacheUsageStats() > 0);
+					Assert.assertEquals("Same number of entries read", entriesFirstRun.size(), entriesSecondRun.size());
+					for (int i=0; i<entriesFirstRun.size(); i++) {
+						Assert.assertEquals("Column values match for entry #"+i, entriesFirstRun.get(i).getColumnDataAsMap(),
+								entriesSecondRun.get(i).getColumnDataAsMap());
+					}
+					
+					//snapshots are bound to a view
+					NotesCollection otherCol = dbData.openCollectionByName("People");
+					Assert.assertFalse("Snapshot of other view is not loaded", new CollectionDataCache().loadSnapshot(otherCol, snapshotFile));
+				}
+				finally {
+					snapshotFile.delete();
+				}
+				return null;
+			}
+		});
+	}
+	
 	@Test
 	public void testViewTraversal_selectViaFormula() {
 		runWithSession(new IDominoCallable<Object>() {
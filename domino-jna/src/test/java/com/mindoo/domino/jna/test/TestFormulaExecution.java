@@ -1,13 +1,22 @@
 package com.mindoo.domino.jna.test;
 
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.mindoo.domino.jna.NotesCollection;
 import com.mindoo.domino.jna.NotesDatabase;
 import com.mindoo.domino.jna.NotesNote;
+import com.mindoo.domino.jna.constants.Navigate;
 import com.mindoo.domino.jna.constants.OpenNote;
+import com.mindoo.domino.jna.errors.FormulaCompilationError;
+import com.mindoo.domino.jna.formula.FormulaBatchEvaluator;
+import com.mindoo.domino.jna.formula.FormulaBatchEvaluator.BatchEvaluationResult;
+import com.mindoo.domino.jna.formula.FormulaBatchEvaluator.FormulaResultSink;
+import com.mindoo.domino.jna.formula.FormulaCache;
 import com.mindoo.domino.jna.formula.FormulaExecution;
 import com.mindoo.domino.jna.formula.FormulaExecution.FormulaExecutionResult;
 import com.mindoo.domino.jna.gc.NotesGC;
@@ -90,4 +99,91 @@ public class TestFormulaExecution extends BaseJNATestClass {
 			}
 		});
 	}
+
+	@Test
+	public void testFormulaExecution_formulaCache() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+				NotesNote note = dbData.createNote();
+				note.replaceItemValue("Firstname", "John");
+
+				FormulaCache cache = FormulaCache.getActiveCache();
+				long missesBefore = cache.getMissCount();
+				long hitsBefore = cache.getHitCount();
+
+				for (int i=0; i<10; i++) {
+					String result = FormulaExecution.evaluateAsString("Firstname + \" Doe\"", note);
+					Assert.assertEquals("Formula result is correct", "John Doe", result);
+				}
+				Assert.assertEquals("Formula has been compiled once", missesBefore+1, cache.getMissCount());
+				Assert.assertEquals("Compute context has been reused", hitsBefore+9, cache.getHitCount());
+
+				//compile errors are cached as well
+				long negativeHitsBefore = cache.getNegativeHitCount();
+				for (int i=0; i<2; i++) {
+					try {
+						FormulaExecution.evaluate("@Left(", note);
+						Assert.fail("Formula compilation should fail");
+					}
+					catch (FormulaCompilationError e) {
+						//expected
+					}
+				}
+				Assert.assertEquals("Compile error has been cached", negativeHitsBefore+1, cache.getNegativeHitCount());
+
+				System.out.println(cache);
+				return null;
+			}
+		});
+	}
+
+	@Test
+	public void testFormulaExecution_batchEvaluation() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+
+				NotesCollection peopleView = dbData.openCollectionByName("People");
+				LinkedHashSet<Integer> noteIds = peopleView.getAllIds(Navigate.NEXT_NONCATEGORY);
+				int[] noteIdsArr = new int[noteIds.size()];
+				int idx = 0;
+				for (Integer currNoteId : noteIds) {
+					noteIdsArr[idx++] = currNoteId.intValue();
+				}
+
+				final ConcurrentHashMap<Integer,String> fullNamesByNoteId = new ConcurrentHashMap<Integer,String>();
+
+				FormulaBatchEvaluator evaluator = new FormulaBatchEvaluator(dbData, "Firstname + \" \" + Lastname");
+				evaluator.setBatchSize(50);
+				evaluator.setThreadCount(4);
+				BatchEvaluationResult result = evaluator.evaluate(noteIdsArr, new FormulaResultSink() {
+
+					@Override
+					public Action resultComputed(NotesNote note, FormulaExecutionResult result) {
+						fullNamesByNoteId.put(note.getNoteId(), (String) result.getValue().get(0));
+						return Action.Continue;
+					}
+				});
+				System.out.println("Batch evaluation result: "+result);
+
+				Assert.assertEquals("Formula has been evaluated on all notes", noteIdsArr.length, result.getEvaluatedCount());
+				Assert.assertEquals("No note has been modified", 0, result.getModifiedCount());
+
+				for (int i=0; i<Math.min(noteIdsArr.length, 20); i++) {
+					NotesNote note = dbData.openNoteById(noteIdsArr[i], EnumSet.noneOf(OpenNote.class));
+					String expectedFullName = FormulaExecution.evaluateAsString("Firstname + \" \" + Lastname", note);
+					Assert.assertEquals("Batch result matches single evaluation", expectedFullName, fullNamesByNoteId.get(noteIdsArr[i]));
+					note.recycle();
+				}
+				return null;
+			}
+		});
+	}
 }
@@ -0,0 +1,91 @@
+package com.mindoo.domino.jna.test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.mindoo.domino.jna.NotesCollection;
+import com.mindoo.domino.jna.NotesDatabase;
+import com.mindoo.domino.jna.NotesNote;
+import com.mindoo.domino.jna.constants.Navigate;
+import com.mindoo.domino.jna.constants.OpenNote;
+import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.utils.NotesInitUtils;
+
+import junit.framework.Assert;
+import lotus.domino.Session;
+
+/**
+ * Tests cases for sharing the auto GC scope with worker threads
+ *
+ * @author Karsten Lehmann
+ */
+public class TestGCScope extends BaseJNATestClass {
+
+	@Test
+	public void testGCScope_sharedWithWorkers() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				final NotesDatabase dbData = getFakeNamesDb();
+
+				NotesCollection peopleView = dbData.openCollectionByName("People");
+				LinkedHashSet<Integer> noteIds = peopleView.getAllIds(Navigate.NEXT_NONCATEGORY);
+
+				int openHandlesBefore = NotesGC.getNumberOfOpenObjectHandles();
+
+				//open notes of the database handle of this thread in worker threads
+				ExecutorService executor = Executors.newFixedThreadPool(4);
+				try {
+					List<Future<NotesNote>> futures = new ArrayList<Future<NotesNote>>();
+					int cnt = 0;
+					for (final Integer currNoteId : noteIds) {
+						futures.add(executor.submit(NotesGC.bindToActiveScope(new Callable<NotesNote>() {
+
+							@Override
+							public NotesNote call() throws Exception {
+								NotesInitUtils.notesInitThread();
+								try {
+									return dbData.openNoteById(currNoteId, EnumSet.noneOf(OpenNote.class));
+								}
+								finally {
+									NotesInitUtils.notesTermThread();
+								}
+							}
+						})));
+
+						cnt++;
+						if (cnt>=20) {
+							break;
+						}
+					}
+
+					for (Future<NotesNote> currFuture : futures) {
+						NotesNote note = currFuture.get();
+						//notes created by the workers can be used in this thread
+						note.getItemValueString("Lastname");
+					}
+
+					Assert.assertEquals("Notes of the workers are registered in the scope", openHandlesBefore + futures.size(),
+							NotesGC.getNumberOfOpenObjectHandles());
+					Assert.assertEquals("Scope has one note handle per worker result", Integer.valueOf(futures.size()),
+							NotesGC.getOpenObjectHandlesByType().get(NotesNote.class));
+				}
+				finally {
+					executor.shutdown();
+				}
+				return null;
+			}
+		});
+	}
+
+}
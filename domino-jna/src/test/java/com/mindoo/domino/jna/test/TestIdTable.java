@@ -1,12 +1,16 @@
 package com.mindoo.domino.jna.test;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.mindoo.domino.jna.MappedNotesIDSet;
+import com.mindoo.domino.jna.NotesIDSet;
 import com.mindoo.domino.jna.NotesIDTable;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.NotesIDTable.ComparisonResult;
@@ -91,6 +95,186 @@ public class TestIdTable extends BaseJNATestClass {
 		});
 	}
 
+	/**
+	 * Insertion and export via int arrays
+	 */
+	@Test
+	public void testIDTable_intArray() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				System.out.println("Starting id table int array test");
+				
+				final int numIdsToAdd = 1000000;
+				
+				//unsorted ids with duplicates and gaps
+				int[] ids = new int[numIdsToAdd];
+				for (int i=0; i<numIdsToAdd; i++) {
+					ids[i] = (int) (4 * (1 + ((i * 7919L) % (numIdsToAdd * 2))));
+				}
+				ids[numIdsToAdd-1] = ids[0];
+				
+				long t0=System.currentTimeMillis();
+				NotesIDTable table = new NotesIDTable(ids);
+				long t1=System.currentTimeMillis();
+				System.out.println("Int array insertion added "+table.getCount()+" entries after "+(t1-t0)+"ms");
+				
+				int[] sortedUniqueIds = ids.clone();
+				Arrays.sort(sortedUniqueIds);
+				int uniqueCount = 0;
+				for (int i=0; i<sortedUniqueIds.length; i++) {
+					if (i==0 || sortedUniqueIds[i]!=sortedUniqueIds[i-1]) {
+						sortedUniqueIds[uniqueCount++] = sortedUniqueIds[i];
+					}
+				}
+				sortedUniqueIds = Arrays.copyOf(sortedUniqueIds, uniqueCount);
+				
+				Assert.assertEquals("Duplicates have been ignored", uniqueCount, table.getCount());
+				
+				t0=System.currentTimeMillis();
+				int[] tableContent = table.toArray();
+				t1=System.currentTimeMillis();
+				System.out.println("Reading "+tableContent.length+" ids as int array took "+(t1-t0)+"ms");
+				
+				Assert.assertArrayEquals("Table contains the sorted ids", sortedUniqueIds, tableContent);
+				
+				//insertion into a non-empty table must not use the append optimization
+				NotesIDTable table2 = new NotesIDTable(new int[] {4000000});
+				table2.addNotes(new int[] {8, 4, 12});
+				Assert.assertArrayEquals("Ids have been inserted in front", new int[] {4, 8, 12, 4000000}, table2.toArray());
+				
+				table2.removeNotes(new int[] {8, 4000000});
+				Assert.assertArrayEquals("Ids have been removed", new int[] {4, 12}, table2.toArray());
+				
+				System.out.println("Done with id table int array test");
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Set operations with {@link NotesIDSet} and conversion from/to {@link NotesIDTable}
+	 */
+	@Test
+	public void testIDTable_idSetConversion() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				System.out.println("Starting id set test");
+				
+				NotesIDTable table1 = new NotesIDTable(new int[] {4,8,16,48});
+				NotesIDTable table2 = new NotesIDTable(new int[] {8,12,16,48});
+				
+				NotesTimeDate time = new NotesTimeDate();
+				time.setNow();
+				table1.setTime(time);
+				table1.setModified(true);
+				table1.setInverted(true);
+				
+				NotesIDSet set1 = NotesIDSet.fromIDTable(table1);
+				NotesIDSet set2 = NotesIDSet.fromIDTable(table2);
+				
+				Assert.assertTrue("Inverted flag has been read", set1.isInverted());
+				Assert.assertTrue("Modified flag has been read", set1.isModified());
+				Assert.assertArrayEquals("Time has been read", time.getInnards(), set1.getTime().getInnards());
+				
+				//compare with the result of the C API
+				ComparisonResult compResult = table1.findDifferences(table2);
+				NotesIDSet.Differences differences = set1.findDifferences(set2);
+				
+				Assert.assertArrayEquals("Adds are correct", compResult.getTableAdds().toArray(), differences.getAdds().toArray());
+				Assert.assertArrayEquals("Deletes are correct", compResult.getTableDeletes().toArray(), differences.getDeletes().toArray());
+				Assert.assertArrayEquals("Same IDs are correct", compResult.getTableSame().toArray(), differences.getSame().toArray());
+				
+				Assert.assertArrayEquals("Union is correct", new int[] {4,8,12,16,48}, set1.or(set2).toArray());
+				Assert.assertEquals("Rank is correct", 3, set1.rank(16));
+				Assert.assertEquals("Select is correct", 16, set1.select(2));
+				
+				NotesIDTable convertedTable = set1.toIDTable();
+				Assert.assertTrue("Converted table has the same ids", convertedTable.equalsTable(table1));
+				Assert.assertTrue("Inverted flag has been written", convertedTable.isInverted());
+				Assert.assertTrue("Modified flag has been written", convertedTable.isModified());
+				Assert.assertArrayEquals("Time has been written", time.getInnards(), convertedTable.getTime().getInnards());
+				
+				System.out.println("Done with id set test");
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Writes an ID table to disk and reads it via memory mapped file
+	 */
+	@Test
+	public void testIDTable_mappedFile() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				System.out.println("Starting id table file test");
+				
+				int[] ids = new int[500000];
+				for (int i=0; i<ids.length; i++) {
+					//mix of dense and sparse id ranges
+					ids[i] = i < 300000 ? 4 * (i+1) : 4 * (300000 + 17 * i);
+				}
+				NotesIDTable table = new NotesIDTable(ids);
+				NotesTimeDate time = new NotesTimeDate();
+				time.setNow();
+				table.setTime(time);
+				table.setModified(true);
+				
+				File file = File.createTempFile("idtable", ".bin");
+				try {
+					long t0=System.currentTimeMillis();
+					table.writeTo(file);
+					long t1=System.currentTimeMillis();
+					System.out.println("Writing "+table.getCount()+" ids took "+(t1-t0)+"ms, file size: "+file.length());
+					
+					MappedNotesIDSet mappedSet = MappedNotesIDSet.open(file);
+					try {
+						Assert.assertEquals("Count is correct", table.getCount(), mappedSet.getCount());
+						Assert.assertTrue("Modified flag has been written", mappedSet.isModified());
+						Assert.assertFalse("Inverted flag has been written", mappedSet.isInverted());
+						Assert.assertArrayEquals("Time has been written", time.getInnards(), mappedSet.getTime().getInnards());
+						
+						for (int i=0; i<ids.length; i+=997) {
+							Assert.assertTrue("Mapped file contains id "+ids[i], mappedSet.contains(ids[i]));
+							Assert.assertEquals("Membership of id "+(ids[i]+4000000)+" is correct", table.contains(ids[i] + 4000000), mappedSet.contains(ids[i] + 4000000));
+						}
+						Assert.assertArrayEquals("Mapped file has the table content", table.toArray(), mappedSet.toArray());
+					}
+					finally {
+						mappedSet.close();
+					}
+					Assert.assertTrue("Mapped file has been closed", mappedSet.isClosed());
+					try {
+						mappedSet.contains(ids[0]);
+						Assert.fail("Reading a closed mapped file fails");
+					}
+					catch (IllegalStateException e) {
+						//expected
+					}
+					
+					NotesIDTable tableFromFile = NotesIDTable.readFrom(file);
+					Assert.assertTrue("Table read from file is equal", tableFromFile.equalsTable(table));
+					Assert.assertTrue("Modified flag has been read", tableFromFile.isModified());
+				}
+				finally {
+					file.delete();
+				}
+				
+				System.out.println("Done with id table file test");
+				return null;
+			}
+		});
+	}
+
 	/**
 	 * ID table comparison tests
 	 */
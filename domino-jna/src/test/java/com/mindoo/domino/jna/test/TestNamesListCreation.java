@@ -17,6 +17,7 @@ import com.mindoo.domino.jna.NotesNamesList;
 import com.mindoo.domino.jna.NotesViewEntryData;
 import com.mindoo.domino.jna.constants.Find;
 import com.mindoo.domino.jna.constants.ReadMask;
+import com.mindoo.domino.jna.internal.NotesJNAContext;
 import com.mindoo.domino.jna.utils.NotesNamingUtils;
 
 import lotus.domino.Database;
@@ -177,4 +178,105 @@ public class TestNamesListCreation extends BaseJNATestClass {
 	
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Compares the Java conversion of fully qualified names with the C API conversion
+	 */
+	@Test
+	public void testNameConversion_javaMatchesNative() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				List<String> names = Arrays.asList(
+						"John Doe/Mindoo",
+						"John Doe/Sales/Mindoo",
+						"John Doe/Sales/Europe/Mindoo",
+						"John Doe/Sales/Mindoo/DE",
+						"CN=John Doe/O=Mindoo",
+						"CN=John Doe/OU=Sales/O=Mindoo",
+						"CN=John Doe/OU=Sales/OU=Europe/O=Mindoo/C=DE",
+						"cn=John Doe/o=Mindoo",
+						"LocalDomainServers",
+						"*/Mindoo",
+						"[Admin]",
+						session.getEffectiveUserName()
+						);
+				
+				boolean oldUseJavaConversion = NotesNamingUtils.isUseJavaNameConversion();
+				try {
+					for (String currName : names) {
+						NotesNamingUtils.setUseJavaNameConversion(false);
+						String canonicalNative = NotesNamingUtils.toCanonicalName(currName);
+						String abbrNative = NotesNamingUtils.toAbbreviatedName(currName);
+						
+						NotesNamingUtils.setUseJavaNameConversion(true);
+						String canonicalJava = NotesNamingUtils.toCanonicalName(currName);
+						String abbrJava = NotesNamingUtils.toAbbreviatedName(currName);
+						
+						Assert.assertEquals("Canonical name is equal for "+currName, canonicalNative, canonicalJava);
+						Assert.assertEquals("Abbreviated name is equal for "+currName, abbrNative, abbrJava);
+					}
+				}
+				finally {
+					NotesNamingUtils.setUseJavaNameConversion(oldUseJavaConversion);
+				}
+				
+				System.out.println("Name cache hits: "+NotesNamingUtils.getNameCacheHitCount()+", misses: "+NotesNamingUtils.getNameCacheMissCount()+
+						", Java conversions: "+NotesNamingUtils.getJavaNameConversionCount());
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Checks that cached names lists are returned as independent copies
+	 */
+	@Test
+	public void testNamesListCache() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				String userName = session.getEffectiveUserName();
+				long oldTTL = NotesNamingUtils.getNamesListCacheTTL();
+				NotesNamingUtils.setNamesListCacheTTL(60000);
+				try {
+					NotesNamingUtils.invalidateNamesList(userName);
+					
+					long buildCount = NotesNamingUtils.getNamesListBuildCount();
+					NotesNamesList namesList1 = NotesNamingUtils.buildNamesList(userName);
+					Assert.assertEquals("Names list has been computed", buildCount+1, NotesNamingUtils.getNamesListBuildCount());
+					
+					long hitCount = NotesNamingUtils.getNamesListCacheHitCount();
+					NotesNamesList namesList2 = NotesNamingUtils.buildNamesList(userName);
+					Assert.assertEquals("Names list has been read from cache", hitCount+1, NotesNamingUtils.getNamesListCacheHitCount());
+					Assert.assertEquals("No additional computation", buildCount+1, NotesNamingUtils.getNamesListBuildCount());
+					
+					Assert.assertEquals("Names are equal", namesList1.getNames(), namesList2.getNames());
+					if (NotesJNAContext.is64Bit()) {
+						Assert.assertFalse("Separate memory", namesList1.getHandle64()==namesList2.getHandle64());
+					}
+					else {
+						Assert.assertFalse("Separate memory", namesList1.getHandle32()==namesList2.getHandle32());
+					}
+					
+					//freeing one copy must not affect the other
+					namesList1.free();
+					Assert.assertTrue("Copy can still be read", namesList2.getNames().contains(NotesNamingUtils.toCanonicalName(userName)));
+					namesList2.free();
+					
+					NotesNamingUtils.invalidateNamesList(userName);
+					NotesNamingUtils.buildNamesList(userName).free();
+					Assert.assertEquals("Names list has been computed after invalidation", buildCount+2, NotesNamingUtils.getNamesListBuildCount());
+					
+					System.out.println("Avg time for NSFBuildNamesList: "+
+							(NotesNamingUtils.getNamesListBuildTimeNanos() / NotesNamingUtils.getNamesListBuildCount() / 1000)+"us");
+				}
+				finally {
+					NotesNamingUtils.setNamesListCacheTTL(oldTTL);
+				}
+				return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,166 @@
+package com.mindoo.domino.jna.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mindoo.domino.jna.internal.NativeCallBreadcrumbs;
+import com.mindoo.domino.jna.internal.NativeCallBreadcrumbsReader;
+
+/**
+ * Writes breadcrumbs of native calls and decodes them with {@link NativeCallBreadcrumbsReader}.
+ * Does not need a Notes installation.
+ *
+ * @author Karsten Lehmann
+ */
+public class TestNativeCallBreadcrumbs {
+
+	private static String dump(NativeCallBreadcrumbs breadcrumbs) throws Exception {
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bOut, true, "UTF-8");
+		NativeCallBreadcrumbsReader.dump(breadcrumbs.getFile(), out);
+		out.flush();
+		return bOut.toString("UTF-8");
+	}
+
+	/**
+	 * Returns the decoded lines of a thread
+	 *
+	 * @param dump reader output
+	 * @param threadName thread name
+	 * @return lines or null if thread is not listed
+	 */
+	private static String getThreadBlock(String dump, String threadName) {
+		int iPos = dump.indexOf("("+threadName+")");
+		if (iPos==-1)
+			return null;
+		int iEndPos = dump.indexOf("\nThread ", iPos);
+		int iIdlePos = dump.indexOf("=== Idle threads ===", iPos);
+		if (iEndPos==-1 || (iIdlePos!=-1 && iIdlePos<iEndPos))
+			iEndPos = iIdlePos;
+		return iEndPos==-1 ? dump.substring(iPos) : dump.substring(iPos, iEndPos);
+	}
+
+	private static boolean isInsideNativeCall(String dump, String threadName) {
+		int iPos = dump.indexOf("("+threadName+")");
+		int iIdlePos = dump.indexOf("=== Idle threads ===");
+		return iPos!=-1 && iPos<iIdlePos;
+	}
+
+	@Test
+	public void testBreadcrumbs_nestedCalls() throws Exception {
+		final NativeCallBreadcrumbs breadcrumbs = NativeCallBreadcrumbs.getInstance();
+		Assert.assertNotNull("Breadcrumb file could be created", breadcrumbs);
+
+		Method outerMethod = String.class.getMethod("regionMatches", Boolean.TYPE, Integer.TYPE, String.class, Integer.TYPE, Integer.TYPE);
+		Method innerMethod = String.class.getMethod("length");
+
+		String threadName = Thread.currentThread().getName();
+
+		breadcrumbs.enter(outerMethod, 0);
+		try {
+			String dumpOuter = dump(breadcrumbs);
+			Assert.assertTrue("Thread is inside a native call", isInsideNativeCall(dumpOuter, threadName));
+			String block = getThreadBlock(dumpOuter, threadName);
+			Assert.assertTrue("Method name written", block.contains("Method:    regionMatches"));
+			Assert.assertTrue("Call site signature written", block.contains("regionMatches(boolean,int,String,int,int)"));
+			Assert.assertTrue("Depth written", block.contains("Depth:     1"));
+
+			//nested call, e.g. from a C API callback
+			breadcrumbs.enter(innerMethod, 1);
+			try {
+				block = getThreadBlock(dump(breadcrumbs), threadName);
+				Assert.assertTrue("Inner method written", block.contains("Method:    length"));
+				Assert.assertTrue("Inner call site written", block.contains("length()"));
+				Assert.assertTrue("Depth increased", block.contains("Depth:     2"));
+				Assert.assertTrue("Stacktrace captured", block.contains("Last captured stacktrace"));
+				Assert.assertTrue("Stacktrace contains caller", block.contains("testBreadcrumbs_nestedCalls"));
+			}
+			finally {
+				breadcrumbs.exit();
+			}
+
+			//outer call data needs to be restored
+			String dumpAfterNested = dump(breadcrumbs);
+			Assert.assertTrue("Thread is still inside the outer native call", isInsideNativeCall(dumpAfterNested, threadName));
+			block = getThreadBlock(dumpAfterNested, threadName);
+			Assert.assertTrue("Outer method restored", block.contains("Method:    regionMatches"));
+			Assert.assertTrue("Outer call site restored", block.contains("regionMatches(boolean,int,String,int,int)"));
+			Assert.assertTrue("Depth decreased", block.contains("Depth:     1"));
+		}
+		finally {
+			breadcrumbs.exit();
+		}
+
+		String dumpIdle = dump(breadcrumbs);
+		Assert.assertFalse("Thread is idle", isInsideNativeCall(dumpIdle, threadName));
+		Assert.assertNotNull("Idle thread is listed", getThreadBlock(dumpIdle, threadName));
+	}
+
+	@Test
+	public void testBreadcrumbs_slotsOfTerminatedThreadsAreReused() throws Exception {
+		final NativeCallBreadcrumbs breadcrumbs = NativeCallBreadcrumbs.getInstance();
+		Assert.assertNotNull("Breadcrumb file could be created", breadcrumbs);
+		final Method method = String.class.getMethod("length");
+
+		//threads that stay inside a native call
+		int blockedThreadCount = 10;
+		final CountDownLatch enteredLatch = new CountDownLatch(blockedThreadCount);
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+		List<Thread> blockedThreads = new ArrayList<Thread>();
+		for (int i=0; i<blockedThreadCount; i++) {
+			Thread t = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					breadcrumbs.enter(method, 0);
+					try {
+						enteredLatch.countDown();
+						releaseLatch.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					finally {
+						breadcrumbs.exit();
+					}
+				}
+			}, "breadcrumbs-blocked-"+i);
+			t.start();
+			blockedThreads.add(t);
+		}
+		enteredLatch.await();
+
+		try {
+			//more short-lived threads than the file has slots (256) must not overwrite the slots of live threads
+			for (int i=0; i<1000; i++) {
+				Thread t = new Thread(new Runnable() {
+
+					@Override
+					public void run() {
+						breadcrumbs.enter(method, 0);
+						breadcrumbs.exit();
+					}
+				}, "breadcrumbs-shortlived-"+i);
+				t.start();
+				t.join();
+			}
+
+			String dump = dump(breadcrumbs);
+			for (Thread currThread : blockedThreads) {
+				Assert.assertTrue("Slot of live thread "+currThread.getName()+" has been kept", isInsideNativeCall(dump, currThread.getName()));
+			}
+		}
+		finally {
+			releaseLatch.countDown();
+			for (Thread currThread : blockedThreads) {
+				currThread.join();
+			}
+		}
+	}
+}
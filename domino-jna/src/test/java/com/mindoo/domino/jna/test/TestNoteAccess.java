@@ -21,15 +21,20 @@ import org.junit.Test;
 
 import com.mindoo.domino.jna.NotesAttachment;
 import com.mindoo.domino.jna.NotesAttachment.IDataCallback;
+import com.mindoo.domino.jna.NotesBulkNoteLoader;
+import com.mindoo.domino.jna.NotesBulkNoteLoader.BulkLoadResult;
+import com.mindoo.domino.jna.NotesBulkNoteLoader.BulkNoteCallback;
 import com.mindoo.domino.jna.NotesCollection;
 import com.mindoo.domino.jna.NotesDatabase;
 import com.mindoo.domino.jna.NotesItem;
+import com.mindoo.domino.jna.NotesItemBatchReader;
 import com.mindoo.domino.jna.NotesNote;
 import com.mindoo.domino.jna.NotesNote.IItemCallback;
 import com.mindoo.domino.jna.constants.Compression;
 import com.mindoo.domino.jna.constants.Navigate;
 import com.mindoo.domino.jna.constants.OpenNote;
 import com.mindoo.domino.jna.constants.UpdateNote;
+import com.mindoo.domino.jna.errors.NotesError;
 
 import lotus.domino.ACL;
 import lotus.domino.ACLEntry;
@@ -544,4 +549,109 @@ public class TestNoteAccess extends BaseJNATestClass {
 	
 	}
 
+	/**
+	 * Compares the item values read by {@link NotesItemBatchReader} with the values of {@link NotesNote#getItemValue(String)}
+	 */
+	@Test
+	public void testNoteAccess_batchReadItems() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+				
+				NotesCollection peopleView = dbData.openCollectionByName("People");
+				LinkedHashSet<Integer> noteIds = peopleView.getAllIds(Navigate.NEXT_NONCATEGORY);
+				
+				List<String> itemNames = Arrays.asList("Form", "Firstname", "Lastname", "CompanyName", "MyNumberList",
+						"MyDateRange", "$UpdatedBy", "$Revisions", "Doesnotexist");
+				NotesItemBatchReader reader = new NotesItemBatchReader(itemNames);
+				
+				int cnt = 0;
+				for (Integer currNoteId : noteIds) {
+					NotesNote currNote = dbData.openNoteById(currNoteId, EnumSet.noneOf(OpenNote.class));
+					
+					NotesItemBatchReader.ItemValues values = reader.read(currNote);
+					for (String currItemName : itemNames) {
+						Assert.assertEquals("hasItem of "+currItemName+" is equal", currNote.hasItem(currItemName), values.hasItem(currItemName));
+						Assert.assertEquals("Value of "+currItemName+" is equal", currNote.getItemValue(currItemName), values.getItemValue(currItemName));
+					}
+					//item names are not case sensitive
+					Assert.assertEquals(values.getItemValue("Lastname"), values.getItemValue("LASTNAME"));
+					
+					currNote.recycle();
+					
+					cnt++;
+					if (cnt>200)
+						break;
+				}
+				return null;
+			}
+		});
+	}
+	/**
+	 * Loads notes with {@link NotesBulkNoteLoader} and compares them with notes opened one by one
+	 */
+	@Test
+	public void testNoteAccess_bulkLoadNotes() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				final NotesDatabase dbData = getFakeNamesDb();
+				
+				NotesCollection peopleView = dbData.openCollectionByName("People");
+				LinkedHashSet<Integer> noteIds = peopleView.getAllIds(Navigate.NEXT_NONCATEGORY);
+				
+				//add a note id that does not exist to check the error handling
+				final int invalidNoteId = 0x7FFFFFFC;
+				List<Integer> noteIdsToLoad = new ArrayList<Integer>(noteIds);
+				noteIdsToLoad.add(invalidNoteId);
+				
+				final Map<Integer,String> lastNamesByNoteId = new HashedMap<Integer,String>();
+				final List<Integer> failedNoteIds = new ArrayList<Integer>();
+				
+				NotesBulkNoteLoader loader = new NotesBulkNoteLoader(dbData);
+				loader.setBatchSize(50);
+				BulkLoadResult result = loader.load(noteIdsToLoad, new BulkNoteCallback() {
+					
+					@Override
+					public Action noteLoaded(NotesNote note) {
+						lastNamesByNoteId.put(note.getNoteId(), note.getItemValueString("Lastname"));
+						return Action.Continue;
+					}
+					
+					@Override
+					public Action noteFailed(int noteId, NotesError error) {
+						failedNoteIds.add(noteId);
+						return Action.Continue;
+					}
+				});
+				System.out.println("Bulk load result: "+result);
+				
+				Assert.assertEquals("All notes have been loaded", noteIds.size(), result.getLoadedCount());
+				Assert.assertEquals("Invalid note id is reported", Arrays.asList(invalidNoteId), failedNoteIds);
+				
+				for (Integer currNoteId : noteIds) {
+					NotesNote note = dbData.openNoteById(currNoteId, EnumSet.noneOf(OpenNote.class));
+					Assert.assertEquals("Lastname of note "+currNoteId+" is equal", note.getItemValueString("Lastname"),
+							lastNamesByNoteId.get(currNoteId));
+					note.recycle();
+				}
+				
+				//check that loading can be stopped
+				final AtomicInteger cnt = new AtomicInteger();
+				result = loader.load(noteIdsToLoad, new BulkNoteCallback() {
+					
+					@Override
+					public Action noteLoaded(NotesNote note) {
+						return cnt.incrementAndGet()==10 ? Action.Stop : Action.Continue;
+					}
+				});
+				Assert.assertTrue(result.isStopped());
+				Assert.assertEquals(10, cnt.get());
+				return null;
+			}
+		});
+	}
 }
@@ -1,7 +1,9 @@
 package com.mindoo.domino.jna.test;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.Vector;
 
 import org.junit.Test;
@@ -9,6 +11,7 @@ import org.junit.Test;
 import com.mindoo.domino.jna.NotesCollection;
 import com.mindoo.domino.jna.NotesCollection.ViewLookupCallback;
 import com.mindoo.domino.jna.NotesDatabase;
+import com.mindoo.domino.jna.NotesMultiNoteInfo;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.NotesDatabase.NoteInfo;
 import com.mindoo.domino.jna.NotesDatabase.NoteInfoExt;
@@ -211,4 +214,53 @@ public class TestNoteLookup extends BaseJNATestClass {
 		});
 	}
 
+	@Test
+	public void testNoteLookup_multiColumnar() {
+
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				System.out.println("Starting columnar multi note lookup");
+				
+				NotesDatabase dbData = getFakeNamesDb();
+				
+				NotesCollection col = dbData.openCollectionByName("People");
+				LinkedHashSet<Integer> noteIdsSet = col.getAllIds(Navigate.NEXT_NONCATEGORY);
+				int[] noteIds = new int[noteIdsSet.size()];
+				int idx = 0;
+				for (Integer currNoteId : noteIdsSet) {
+					noteIds[idx++] = currNoteId.intValue();
+				}
+				
+				NoteInfo[] noteInfos = dbData.getMultiNoteInfo(noteIds);
+				NotesMultiNoteInfo columnarInfos = dbData.getMultiNoteInfoColumnar(noteIds, 1);
+				NotesMultiNoteInfo parallelInfos = dbData.getMultiNoteInfoColumnar(noteIds, 4);
+				
+				Assert.assertEquals(noteIds.length, columnarInfos.size());
+				Assert.assertEquals(noteIds.length, parallelInfos.size());
+				Assert.assertTrue("Parallel lookup returns the same note ids", Arrays.equals(columnarInfos.getNoteIds(), parallelInfos.getNoteIds()));
+				
+				String[] unids = new String[noteIds.length];
+				for (int i=0; i<noteIds.length; i++) {
+					Assert.assertEquals(noteInfos[i].getNoteId(), columnarInfos.getNoteId(i));
+					Assert.assertEquals(noteInfos[i].getUnid(), columnarInfos.getUnid(i));
+					Assert.assertEquals(noteInfos[i].getSequence(), columnarInfos.getSequence(i));
+					Assert.assertEquals(noteInfos[i].getSequenceTime(), columnarInfos.getSequenceTime(i));
+					Assert.assertEquals(columnarInfos.getUnid(i), parallelInfos.getUnid(i));
+					unids[i] = columnarInfos.getUnid(i);
+				}
+				
+				//reverse lookup by UNID
+				NotesMultiNoteInfo infosByUnid = dbData.getMultiNoteInfoColumnar(unids, 4);
+				for (int i=0; i<unids.length; i++) {
+					Assert.assertEquals("Lookup by UNID returns the note id", noteIds[i], infosByUnid.getNoteId(i));
+				}
+				
+				System.out.println("Done with columnar multi note lookup");
+				return null;
+			}
+		});
+	}
+
 }
@@ -0,0 +1,97 @@
+package com.mindoo.domino.jna.test;
+
+import static com.mindoo.domino.jna.queries.condition.ColumnLookup.column;
+import static com.mindoo.domino.jna.queries.condition.IDTableLookup.noteIdsContain;
+import static com.mindoo.domino.jna.queries.condition.Operator.and;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mindoo.domino.jna.NotesCollection;
+import com.mindoo.domino.jna.NotesDatabase;
+import com.mindoo.domino.jna.NotesViewEntryData;
+import com.mindoo.domino.jna.constants.Find;
+import com.mindoo.domino.jna.queries.condition.Relation;
+
+import lotus.domino.Session;
+
+/**
+ * Tests cases for queries via {@link NotesCollection#select(String, String...)}
+ *
+ * @author Karsten Lehmann
+ */
+public class TestSelection extends BaseJNATestClass {
+
+	/**
+	 * Runs a query with a prefix lookup on the sort column (done via key lookup) and a residual
+	 * criteria on another column and compares the result with a classic key lookup
+	 */
+	@Test
+	public void testSelection_keyLookupWithResidualFilter() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase dbData = getFakeNamesDb();
+
+				//PeopleFlatMultiColumnSort is sorted by lastname and has columns "firstname" / "lastname"
+				NotesCollection col = dbData.openCollectionByName("PeopleFlatMultiColumnSort");
+
+				LinkedHashSet<Integer> idsWithLastNameA = col.getAllIdsByKey(EnumSet.of(Find.PARTIAL, Find.CASE_INSENSITIVE), "A");
+				Assert.assertTrue("Lookup could find ids in view ", !idsWithLastNameA.isEmpty());
+
+				long t0=System.currentTimeMillis();
+				Iterator<NotesViewEntryData> entries = col.select("lastname", "firstname")
+						.where(
+								and(
+										column("lastname", Relation.StartsWithIgnoreCase, "A"),
+										column("firstname", Relation.StartsWithIgnoreCase, "E")
+										)
+								)
+						.iterator();
+
+				List<NotesViewEntryData> entriesAsList = new ArrayList<NotesViewEntryData>();
+				while (entries.hasNext()) {
+					entriesAsList.add(entries.next());
+				}
+				long t1=System.currentTimeMillis();
+				System.out.println("Query returned "+entriesAsList.size()+" entries after "+(t1-t0)+"ms");
+
+				Assert.assertTrue("Query found entries", !entriesAsList.isEmpty());
+
+				for (NotesViewEntryData currEntry : entriesAsList) {
+					Assert.assertTrue("Entry is in key lookup result", idsWithLastNameA.contains(currEntry.getNoteId()));
+
+					String firstName = currEntry.getAsString("firstname", "");
+					Assert.assertTrue("Firstname matches", firstName.toLowerCase().startsWith("e"));
+				}
+
+				//restrict result to the first two entries via note ids and use skip / count
+				int firstNoteId = entriesAsList.get(0).getNoteId();
+				int secondNoteId = entriesAsList.size()>1 ? entriesAsList.get(1).getNoteId() : firstNoteId;
+
+				Iterator<NotesViewEntryData> idEntries = col.select("lastname")
+						.where(
+								and(
+										column("lastname", Relation.StartsWithIgnoreCase, "A"),
+										noteIdsContain(firstNoteId, secondNoteId)
+										)
+								)
+						.skip(0)
+						.count(1)
+						.iterator();
+
+				Assert.assertTrue("Note id query found an entry", idEntries.hasNext());
+				Assert.assertEquals("First entry found", firstNoteId, idEntries.next().getNoteId());
+				Assert.assertFalse("Count is respected", idEntries.hasNext());
+				return null;
+			}
+		});
+	}
+}
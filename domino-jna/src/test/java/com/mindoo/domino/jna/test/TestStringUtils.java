@@ -1,5 +1,6 @@
 package com.mindoo.domino.jna.test;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -10,6 +11,7 @@ import com.mindoo.domino.jna.NotesDatabase;
 import com.mindoo.domino.jna.NotesDbReplicaInfo;
 import com.mindoo.domino.jna.NotesTimeDate;
 import com.mindoo.domino.jna.gc.NotesGC;
+import com.mindoo.domino.jna.internal.LMBCSCodec;
 import com.mindoo.domino.jna.structs.NotesUniversalNoteIdStruct;
 import com.mindoo.domino.jna.utils.NotesStringUtils;
 import com.mindoo.domino.jna.utils.StringUtil;
@@ -189,6 +191,115 @@ public class TestStringUtils extends BaseJNATestClass {
 	
 	}
 	
+	/**
+	 * Differential test for the Java LMBCS conversion in {@link LMBCSCodec}: encodes and
+	 * decodes a corpus of strings with and without the Java conversion and compares
+	 * the results with the output of OSTranslate
+	 */
+	@Test
+	public void testStringUtils_javaLMBCSCodec() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				List<String> corpus = new ArrayList<String>();
+				corpus.add("Gr\u00FC\u00DFe aus K\u00F6ln, \u00C4rger mit \u00D6l und \u00DCbel");
+				corpus.add("\u00C7a va? L'\u00E9t\u00E9 \u00E0 la for\u00EAt, na\u00EFve No\u00EBl \u0153uvre");
+				corpus.add("Zeile 1\nZeile 2\r\nZeile 3\tmit Tab\n");
+				corpus.add("Preis: 10 \u20AC, 5 \u00A3, 3 \u00A5, \u00A9 \u00AE \u00B0 \u00B1 \u00B5");
+				corpus.add("\u0391\u03B8\u03AE\u03BD\u03B1 \u041C\u043E\u0441\u043A\u0432\u0430 \u6771\u4EAC \uD55C\uAD6D\uC5B4");
+				corpus.add("Box \u2500\u2502\u250C\u2510 and \u0192 \u0131");
+				
+				StringBuilder allLatin1 = new StringBuilder();
+				for (char c=0x20; c<=0xFF; c++) {
+					if (c<0x7F || c>=0xA0) {
+						allLatin1.append(c);
+					}
+				}
+				corpus.add(allLatin1.toString());
+				corpus.add(computeRandomString(5000, true, false));
+				
+				boolean oldUseJavaCodec = NotesStringUtils.isUseJavaLMBCSCodec();
+				try {
+					for (String currStr : corpus) {
+						NotesStringUtils.setUseJavaLMBCSCodec(false);
+						Memory lmbcsNative = NotesStringUtils.toLMBCS(currStr, true);
+						String decodedNative = NotesStringUtils.fromLMBCS(lmbcsNative, (int) lmbcsNative.size()-1);
+
+						NotesStringUtils.setUseJavaLMBCSCodec(true);
+						Memory lmbcsJava = NotesStringUtils.toLMBCS(currStr, true);
+						Assert.assertTrue("Java LMBCS encoding matches OSTranslate for "+currStr, Arrays.equals(toByteArray(lmbcsNative), toByteArray(lmbcsJava)));
+						
+						String decodedJava = NotesStringUtils.fromLMBCS(lmbcsNative, (int) lmbcsNative.size()-1);
+						Assert.assertEquals("Java LMBCS decoding matches OSTranslate (Pointer)", decodedNative, decodedJava);
+						
+						ByteBuffer buf = ByteBuffer.wrap(toByteArray(lmbcsNative));
+						String decodedJavaFromBuf = NotesStringUtils.fromLMBCS(buf, (int) lmbcsNative.size()-1);
+						Assert.assertEquals("Java LMBCS decoding matches OSTranslate (ByteBuffer)", decodedNative, decodedJavaFromBuf);
+					}
+				}
+				finally {
+					NotesStringUtils.setUseJavaLMBCSCodec(oldUseJavaCodec);
+				}
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Decodes characters of the LMBCS Unicode group (0x14 prefix followed by the UCS-2 character
+	 * in big endian byte order) with {@link LMBCSCodec} from byte arrays, heap and direct buffers
+	 * and compares the result with OSTranslate
+	 */
+	@Test
+	public void testStringUtils_javaLMBCSCodecUnicodeGroup() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				//"A" + U+20AC (euro) + U+6771 + "\n" (line delimiter 0x00) + U+00E4 (group 1 byte 0x84) + "z"
+				byte[] lmbcs = new byte[] {'A', 0x14, 0x20, (byte) 0xAC, 0x14, 0x67, 0x71, 0x00, (byte) 0x84, 'z'};
+				String expected = "A\u20AC\u6771\n\u00E4z";
+
+				Assert.assertEquals("Unicode group decoded from byte array", expected, LMBCSCodec.decode(lmbcs, 0, lmbcs.length, "\n"));
+				Assert.assertEquals("Line delimiter replaced", "A\u20AC\u6771\r\n\u00E4z", LMBCSCodec.decode(lmbcs, 0, lmbcs.length, "\r\n"));
+
+				byte[] lmbcsWithOffset = new byte[lmbcs.length + 3];
+				System.arraycopy(lmbcs, 0, lmbcsWithOffset, 3, lmbcs.length);
+				Assert.assertEquals("Unicode group decoded from byte array with offset", expected, LMBCSCodec.decode(lmbcsWithOffset, 3, lmbcs.length, "\n"));
+
+				ByteBuffer heapBuf = ByteBuffer.wrap(lmbcsWithOffset);
+				Assert.assertEquals("Unicode group decoded from heap buffer", expected, LMBCSCodec.decode(heapBuf, 3, lmbcs.length, "\n"));
+
+				ByteBuffer directBuf = ByteBuffer.allocateDirect(lmbcsWithOffset.length);
+				directBuf.put(lmbcsWithOffset);
+				directBuf.position(1);
+				Assert.assertEquals("Unicode group decoded from direct buffer", expected, LMBCSCodec.decode(directBuf, 3, lmbcs.length, "\n"));
+				Assert.assertEquals("Buffer position not changed", 1, directBuf.position());
+
+				//incomplete Unicode group sequences need to be converted by OSTranslate
+				Assert.assertNull("Truncated Unicode group character", LMBCSCodec.decode(lmbcs, 0, 3, "\n"));
+				Assert.assertNull("Unicode group prefix without character", LMBCSCodec.decode(lmbcs, 0, 2, "\n"));
+
+				//compare with OSTranslate
+				Memory mem = new Memory(lmbcs.length);
+				mem.write(0, lmbcs, 0, lmbcs.length);
+				boolean oldUseJavaCodec = NotesStringUtils.isUseJavaLMBCSCodec();
+				try {
+					NotesStringUtils.setUseJavaLMBCSCodec(false);
+					String decodedNative = NotesStringUtils.fromLMBCS(mem, lmbcs.length);
+					NotesStringUtils.setUseJavaLMBCSCodec(true);
+					String decodedJava = NotesStringUtils.fromLMBCS(mem, lmbcs.length);
+					Assert.assertEquals("Java LMBCS decoding of the Unicode group matches OSTranslate", decodedNative, decodedJava);
+				}
+				finally {
+					NotesStringUtils.setUseJavaLMBCSCodec(oldUseJavaCodec);
+				}
+				return null;
+			}
+		});
+	}
+	
 	/**
 	 * Tests reading the replication info from a database and conversion functions between
 	 * innards arrays and hex strings
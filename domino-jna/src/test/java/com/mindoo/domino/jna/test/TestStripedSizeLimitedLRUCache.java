@@ -0,0 +1,137 @@
+package com.mindoo.domino.jna.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mindoo.domino.jna.internal.StripedSizeLimitedLRUCache;
+
+/**
+ * Tests for {@link StripedSizeLimitedLRUCache}. Does not need a Notes installation.
+ *
+ * @author Karsten Lehmann
+ */
+public class TestStripedSizeLimitedLRUCache {
+
+	/**
+	 * Cache where each entry has a size of one unit
+	 */
+	private static class CountingCache extends StripedSizeLimitedLRUCache<Integer,String> {
+
+		public CountingCache(int maxSizeUnits, int concurrencyLevel) {
+			super(maxSizeUnits, concurrencyLevel);
+		}
+
+		@Override
+		protected int computeSize(Integer key, String value) {
+			return 1;
+		}
+	}
+
+	@Test
+	public void testStripedCache_evictsLeastRecentlyUsed() {
+		//single segment, so the eviction order is predictable
+		CountingCache cache = new CountingCache(10, 1);
+
+		for (int i=0; i<10; i++) {
+			cache.put(i, "value"+i);
+		}
+		Assert.assertEquals(10, cache.size());
+		Assert.assertEquals(0, cache.getEvictionCount());
+
+		//mark entry 0 as recently used, so entry 1 is the least recently used one
+		Assert.assertEquals("value0", cache.get(0));
+
+		cache.put(10, "value10");
+		Assert.assertEquals("Size limit kept", 10, cache.size());
+		Assert.assertEquals(1, cache.getEvictionCount());
+		Assert.assertNull("Least recently used entry evicted", cache.get(1));
+		Assert.assertEquals("Recently used entry kept", "value0", cache.get(0));
+		Assert.assertEquals("New entry added", "value10", cache.get(10));
+
+		Assert.assertEquals(3, cache.getHitCount());
+		Assert.assertEquals(1, cache.getMissCount());
+
+		//replacing a value does not evict anything
+		cache.put(10, "newvalue10");
+		Assert.assertEquals("newvalue10", cache.get(10));
+		Assert.assertEquals(1, cache.getEvictionCount());
+
+		Assert.assertTrue(cache.remove(10));
+		Assert.assertFalse(cache.remove(10));
+		Assert.assertEquals(9, cache.size());
+		Assert.assertEquals(9, cache.getCurrentCacheSizeInUnits());
+	}
+
+	@Test
+	public void testStripedCache_sizeBoundAcrossSegments() {
+		int maxSize = 64;
+		int concurrencyLevel = 8;
+		CountingCache cache = new CountingCache(maxSize, concurrencyLevel);
+		Assert.assertEquals(maxSize, cache.getMaxSizeInUnits());
+
+		for (int i=0; i<10000; i++) {
+			cache.put(i, "value"+i);
+			Assert.assertTrue("Size bound kept", cache.getCurrentCacheSizeInUnits() <= maxSize);
+		}
+		Assert.assertEquals(cache.size(), cache.getCurrentCacheSizeInUnits());
+		Assert.assertEquals("All evictions counted", 10000 - cache.size(), cache.getEvictionCount());
+
+		//sequential keys need to be spread over all segments, so the cache can use its full size
+		Assert.assertEquals("All segments filled", maxSize, cache.size());
+
+		//the most recently added key of each segment is still cached
+		Assert.assertEquals("value9999", cache.get(9999));
+	}
+
+	@Test
+	public void testStripedCache_concurrentAccess() throws Exception {
+		final int maxSize = 256;
+		final CountingCache cache = new CountingCache(maxSize, 16);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t=0; t<8; t++) {
+			final int threadIdx = t;
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int i=0; i<50000; i++) {
+							int key = (i * 31 + threadIdx) % 1000;
+							String value = cache.get(key);
+							if (value==null) {
+								cache.put(key, Integer.toString(key));
+							}
+							else if (!value.equals(Integer.toString(key))) {
+								throw new AssertionError("Wrong value "+value+" for key "+key);
+							}
+							if (i % 100 == 0) {
+								cache.remove(key);
+							}
+						}
+					}
+					catch (Throwable e) {
+						error.compareAndSet(null, e);
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread currThread : threads) {
+			currThread.join();
+		}
+
+		if (error.get()!=null) {
+			throw new AssertionError(error.get());
+		}
+		Assert.assertTrue("Size bound kept", cache.getCurrentCacheSizeInUnits() <= maxSize);
+		Assert.assertEquals("Size consistent with entry count", cache.size(), cache.getCurrentCacheSizeInUnits());
+		Assert.assertEquals("Every get counted", 8 * 50000, cache.getHitCount() + cache.getMissCount());
+	}
+}
@@ -1,12 +1,15 @@
 package com.mindoo.domino.jna.test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -14,9 +17,14 @@ import org.junit.Test;
 import com.mindoo.domino.jna.NotesCollection;
 import com.mindoo.domino.jna.NotesCollection.Direction;
 import com.mindoo.domino.jna.NotesCollection.EntriesAsListCallback;
+import com.mindoo.domino.jna.NotesCollection.ParallelScanCallback;
+import com.mindoo.domino.jna.NotesCollection.ScanPartition;
+import com.mindoo.domino.jna.NotesCollection.ViewEntryCursorCallback;
 import com.mindoo.domino.jna.NotesCollection.ViewLookupCallback;
+import com.mindoo.domino.jna.NotesCollection.ViewLookupCallback.Action;
 import com.mindoo.domino.jna.NotesDatabase;
 import com.mindoo.domino.jna.NotesIDTable;
+import com.mindoo.domino.jna.NotesViewEntryCursor;
 import com.mindoo.domino.jna.NotesViewEntryData;
 import com.mindoo.domino.jna.constants.Find;
 import com.mindoo.domino.jna.constants.Navigate;
@@ -213,6 +221,300 @@ public class TestViewTraversal extends BaseJNATestClass {
 		});
 	}
 
+	/**
+	 * Reads the People view with {@link NotesCollection#scanAllEntries(String, int, EnumSet, int, EnumSet, ViewEntryCursorCallback)}
+	 * and compares the cursor data with the data read via {@link EntriesAsListCallback}
+	 */
+	@Test
+	public void testViewTraversal_readAllEntriesWithCursor() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase db = getFakeNamesDb();
+				NotesCollection col = db.openCollectionByName("People");
+				
+				EnumSet<ReadMask> returnMask = EnumSet.of(ReadMask.NOTEID, ReadMask.NOTEUNID, ReadMask.INDEXPOSITION,
+						ReadMask.SUMMARYVALUES);
+				
+				//whole view in one read call
+				compareWithCursorScan(col, "0", EnumSet.of(Navigate.NEXT), Integer.MAX_VALUE, returnMask);
+				//multiple read calls
+				compareWithCursorScan(col, "0", EnumSet.of(Navigate.NEXT), 100, returnMask);
+				//backwards from the end of the view
+				compareWithCursorScan(col, "last", EnumSet.of(Navigate.PREV), 100, returnMask);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Reads a collection with {@link NotesCollection#getAllEntries(String, int, EnumSet, int, EnumSet, ViewLookupCallback)}
+	 * and with {@link NotesCollection#scanAllEntries(String, int, EnumSet, int, EnumSet, ViewEntryCursorCallback)}
+	 * and checks that both return the same entries
+	 * 
+	 * @param col collection
+	 * @param startPosStr start position
+	 * @param returnNav navigator
+	 * @param preloadEntryCount number of entries to read with one C API call
+	 * @param returnMask values to extract
+	 */
+	private void compareWithCursorScan(NotesCollection col, String startPosStr, EnumSet<Navigate> returnNav,
+			int preloadEntryCount, EnumSet<ReadMask> returnMask) {
+		
+		List<NotesViewEntryData> entries = col.getAllEntries(startPosStr, 1, returnNav,
+				preloadEntryCount, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE));
+		Assert.assertFalse("View is not empty", entries.isEmpty());
+		
+		final Iterator<NotesViewEntryData> entriesIt = entries.iterator();
+		Integer count = col.scanAllEntries(startPosStr, 1, returnNav, preloadEntryCount, returnMask,
+				new ViewEntryCursorCallback<Integer>() {
+			private int m_count;
+			
+			@Override
+			public Integer startingLookup() {
+				m_count = 0;
+				return null;
+			}
+
+			@Override
+			public Action entryRead(Integer result, NotesViewEntryCursor cursor) {
+				Assert.assertTrue("Cursor does not return more entries than getAllEntries", entriesIt.hasNext());
+				NotesViewEntryData expectedEntry = entriesIt.next();
+				
+				Assert.assertEquals("Note id is equal", expectedEntry.getNoteId(), cursor.getNoteId());
+				Assert.assertEquals("UNID is equal", expectedEntry.getUNID(), cursor.getUNID());
+				Assert.assertEquals("Position is equal", expectedEntry.getPositionStr(), cursor.getPositionStr());
+				Assert.assertEquals("Value of column $17 is equal", expectedEntry.get("$17"), cursor.get("$17"));
+				
+				NotesViewEntryData copiedEntry = cursor.copy();
+				Assert.assertEquals("Copied column values are equal", expectedEntry.getColumnDataAsMap(), copiedEntry.getColumnDataAsMap());
+				m_count++;
+				return Action.Continue;
+			}
+
+			@Override
+			public Integer lookupDone(Integer result) {
+				return m_count;
+			}
+		});
+		
+		Assert.assertEquals("Cursor returned all entries for start position "+startPosStr, entries.size(), count.intValue());
+	}
+
+	/**
+	 * Reads the People view in small chunks with a prefetching reader thread
+	 * (see {@link ViewLookupCallback#getPrefetchQueueSize()}) and compares the result
+	 * with a sequential read
+	 */
+	@Test
+	public void testViewTraversal_readAllEntriesPrefetched() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase db = getFakeNamesDb();
+				NotesCollection col = db.openCollectionByName("People");
+				
+				EnumSet<ReadMask> returnMask = EnumSet.of(ReadMask.NOTEID, ReadMask.INDEXPOSITION, ReadMask.SUMMARYVALUES);
+				
+				List<NotesViewEntryData> entries = col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT),
+						100, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE));
+				Assert.assertTrue("View has more entries than one chunk", entries.size() > 100);
+				
+				List<NotesViewEntryData> prefetchedEntries = col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT),
+						100, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE) {
+					
+					@Override
+					public int getPrefetchQueueSize() {
+						return 2;
+					}
+				});
+				
+				Assert.assertEquals("Same number of entries", entries.size(), prefetchedEntries.size());
+				for (int i=0; i<entries.size(); i++) {
+					NotesViewEntryData expectedEntry = entries.get(i);
+					NotesViewEntryData prefetchedEntry = prefetchedEntries.get(i);
+					
+					Assert.assertEquals("Note id is equal", expectedEntry.getNoteId(), prefetchedEntry.getNoteId());
+					Assert.assertEquals("Position is equal", expectedEntry.getPositionStr(), prefetchedEntry.getPositionStr());
+					Assert.assertEquals("Column values are equal", expectedEntry.getColumnDataAsMap(), prefetchedEntry.getColumnDataAsMap());
+				}
+				
+				//stop early, the reader thread must release the collection
+				List<NotesViewEntryData> firstEntries = col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT),
+						10, returnMask, new EntriesAsListCallback(25) {
+					
+					@Override
+					public int getPrefetchQueueSize() {
+						return 2;
+					}
+				});
+				Assert.assertEquals("Lookup stopped after 25 entries", Math.min(25, entries.size()), firstEntries.size());
+				
+				//errors in the callback are passed to the caller and the reader thread is stopped
+				final RuntimeException callbackError = new RuntimeException("Callback error");
+				try {
+					col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT), 10, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE) {
+						
+						@Override
+						public int getPrefetchQueueSize() {
+							return 2;
+						}
+						
+						@Override
+						public Action entryRead(List<NotesViewEntryData> result, NotesViewEntryData entryData) {
+							if (result.size()==15) {
+								throw callbackError;
+							}
+							return super.entryRead(result, entryData);
+						}
+					});
+					Assert.fail("Callback error has been thrown");
+				}
+				catch (RuntimeException e) {
+					Assert.assertSame("Callback error passed to the caller", callbackError, e);
+				}
+				
+				List<NotesViewEntryData> entriesAfterError = col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT),
+						100, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE));
+				Assert.assertEquals("Collection can be read after the error", entries.size(), entriesAfterError.size());
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Reads the People view with 4 threads via
+	 * {@link NotesCollection#parallelScan(int, int, boolean, EnumSet, int, EnumSet, ParallelScanCallback)}
+	 * and compares the ordered result with a sequential read
+	 */
+	@Test
+	public void testViewTraversal_parallelScan() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase db = getFakeNamesDb();
+				NotesCollection col = db.openCollectionByName("People");
+				
+				EnumSet<ReadMask> returnMask = EnumSet.of(ReadMask.NOTEID, ReadMask.INDEXPOSITION, ReadMask.SUMMARYVALUES);
+				
+				List<NotesViewEntryData> entries = col.getAllEntries("0", 1, EnumSet.of(Navigate.NEXT),
+						Integer.MAX_VALUE, returnMask, new EntriesAsListCallback(Integer.MAX_VALUE));
+				
+				//explicit partition count and default partition count (multiple of the thread count)
+				for (int partitionCount : new int[] {8, 0}) {
+					List<NotesViewEntryData> parallelEntries = col.parallelScan(partitionCount, 4, true, EnumSet.of(Navigate.NEXT),
+							Integer.MAX_VALUE, returnMask,
+							new ParallelScanCallback<List<NotesViewEntryData>, List<NotesViewEntryData>>() {
+
+						@Override
+						public List<NotesViewEntryData> startingScan() {
+							return new ArrayList<NotesViewEntryData>();
+						}
+
+						@Override
+						public ViewLookupCallback<List<NotesViewEntryData>> createPartitionCallback(ScanPartition partition) {
+							return new EntriesAsListCallback(Integer.MAX_VALUE);
+						}
+
+						@Override
+						public List<NotesViewEntryData> partitionDone(List<NotesViewEntryData> result, ScanPartition partition,
+								List<NotesViewEntryData> partitionResult) {
+							result.addAll(partitionResult);
+							return result;
+						}
+					});
+					
+					Assert.assertEquals("Same number of entries", entries.size(), parallelEntries.size());
+					for (int i=0; i<entries.size(); i++) {
+						Assert.assertEquals("Note id is equal", entries.get(i).getNoteId(), parallelEntries.get(i).getNoteId());
+						Assert.assertEquals("Position is equal", entries.get(i).getPositionStr(), parallelEntries.get(i).getPositionStr());
+					}
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Checks that a failing partition stops the other partitions of an ordered
+	 * parallel scan and that its error is passed to the caller
+	 */
+	@Test
+	public void testViewTraversal_parallelScanError() {
+		runWithSession(new IDominoCallable<Object>() {
+
+			@Override
+			public Object call(Session session) throws Exception {
+				NotesDatabase db = getFakeNamesDb();
+				NotesCollection col = db.openCollectionByName("People");
+				
+				final int partitionCount = 8;
+				final int entriesPerPartition = col.getTopLevelEntries() / partitionCount;
+				final AtomicInteger firstPartitionEntries = new AtomicInteger();
+				final RuntimeException partitionError = new RuntimeException("Partition error");
+				
+				try {
+					col.parallelScan(partitionCount, 2, true, EnumSet.of(Navigate.NEXT), 100, EnumSet.of(ReadMask.NOTEID),
+							new ParallelScanCallback<Integer, Integer>() {
+
+						@Override
+						public Integer startingScan() {
+							return 0;
+						}
+
+						@Override
+						public ViewLookupCallback<Integer> createPartitionCallback(final ScanPartition partition) {
+							return new ViewLookupCallback<Integer>() {
+
+								@Override
+								public Integer startingLookup() {
+									return 0;
+								}
+
+								@Override
+								public Action entryRead(Integer result, NotesViewEntryData entryData) {
+									if (partition.getIndex()==1) {
+										throw partitionError;
+									}
+									if (partition.getIndex()==0) {
+										firstPartitionEntries.incrementAndGet();
+										//slow partition, would take minutes without cancellation
+										try {
+											Thread.sleep(10);
+										} catch (InterruptedException e) {
+											Thread.currentThread().interrupt();
+										}
+									}
+									return Action.Continue;
+								}
+
+								@Override
+								public Integer lookupDone(Integer result) {
+									return result;
+								}
+							};
+						}
+
+						@Override
+						public Integer partitionDone(Integer result, ScanPartition partition, Integer partitionResult) {
+							Assert.fail("No partition result is passed to the callback after an error in partition 1, got "+partition);
+							return result;
+						}
+					});
+					Assert.fail("Partition error has been thrown");
+				}
+				catch (RuntimeException e) {
+					Assert.assertSame("Partition error passed to the caller", partitionError, e);
+				}
+				
+				Assert.assertTrue("First partition stopped early", firstPartitionEntries.get() < entriesPerPartition);
+				return null;
+			}
+		});
+	}
 	/**
 	 * Opens the fakenames.nsf and fakenames-views.nsf databases locally, which are expected to have the
 	 * same template, and open the views "People". When opening the view from fakenames-views.nsf, we